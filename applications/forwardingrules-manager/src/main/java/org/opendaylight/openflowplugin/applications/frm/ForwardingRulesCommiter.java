@@ -8,10 +8,12 @@
 
 package org.opendaylight.openflowplugin.applications.frm;
 
+import java.util.concurrent.Future;
 import org.opendaylight.controller.md.sal.binding.api.DataTreeChangeListener;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNode;
 import org.opendaylight.yangtools.yang.binding.DataObject;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.opendaylight.yangtools.yang.common.RpcResult;
 
 /**
  * forwardingrules-manager
@@ -35,8 +37,9 @@ public interface ForwardingRulesCommiter <D extends DataObject> extends AutoClos
      * @param identifier - the whole path to DataObject
      * @param del - DataObject for removing
      * @param nodeIdent Node InstanceIdentifier
+     * @return RPC result future or null if nothing was sent to device
      */
-    void remove(InstanceIdentifier<D> identifier, D del,
+    Future<? extends RpcResult<?>> remove(InstanceIdentifier<D> identifier, D del,
             InstanceIdentifier<FlowCapableNode> nodeIdent);
 
     /**
@@ -47,8 +50,9 @@ public interface ForwardingRulesCommiter <D extends DataObject> extends AutoClos
      * @param original - original DataObject (for update)
      * @param update - changed DataObject (contain updates)
      * @param nodeIdent Node InstanceIdentifier
+     * @return RPC result future or null if nothing was sent to device
      */
-    void update(InstanceIdentifier<D> identifier, D original, D update,
+    Future<? extends RpcResult<?>> update(InstanceIdentifier<D> identifier, D original, D update,
             InstanceIdentifier<FlowCapableNode> nodeIdent);
 
     /**
@@ -58,8 +62,9 @@ public interface ForwardingRulesCommiter <D extends DataObject> extends AutoClos
      * @param identifier - the whole path to new DataObject
      * @param add - new DataObject
      * @param nodeIdent Node InstanceIdentifier
+     * @return RPC result future or null if nothing was sent to device
      */
-    void add(InstanceIdentifier<D> identifier, D add,
+    Future<? extends RpcResult<?>> add(InstanceIdentifier<D> identifier, D add,
             InstanceIdentifier<FlowCapableNode> nodeIdent);
 
 }
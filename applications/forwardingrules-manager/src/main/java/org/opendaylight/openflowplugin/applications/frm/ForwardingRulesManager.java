@@ -10,6 +10,8 @@ package org.opendaylight.openflowplugin.applications.frm;
 
 import org.opendaylight.yang.gen.v1.urn.opendaylight.table.types.rev131026.table.features.TableFeatures;
 
+import com.google.common.util.concurrent.ListenableFuture;
+import java.util.concurrent.Future;
 import org.opendaylight.controller.md.sal.binding.api.ReadOnlyTransaction;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNode;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.meters.Meter;
@@ -65,6 +67,59 @@ public interface ForwardingRulesManager extends AutoCloseable {
      */
     public void unregistrateNode(InstanceIdentifier<FlowCapableNode> ident);
 
+    /**
+     * Method returns future of groups and meters referenced by the flow, which are
+     * written to Config/DS but not sent to device yet. References not known to FRM
+     * are resolved against Config/DS, so it doesn't matter whether flow or group/meter
+     * notification of the same Config/DS transaction is delivered first.
+     *
+     * @param ident - the key of the node
+     * @param flow - flow to be written to device
+     * @return ListenableFuture or null if there is nothing to wait for
+     */
+    public ListenableFuture<?> getFlowDependency(InstanceIdentifier<FlowCapableNode> ident, Flow flow);
+
+    /**
+     * Method returns future of removals of flows which refer to the group or meter and
+     * are removed from Config/DS but not from device yet, so the group or meter is removed
+     * from device after flows referring to it.
+     *
+     * @param reference - the key of the group or meter to be removed
+     * @return ListenableFuture or null if there is nothing to wait for
+     */
+    public ListenableFuture<?> getRemovalDependency(InstanceIdentifier<?> reference);
+
+    /**
+     * Method records group or meter sent to device (add or update).
+     *
+     * @param reference - the key of the group or meter
+     * @param result - RPC result
+     */
+    public void referenceWritten(InstanceIdentifier<?> reference, Future<?> result);
+
+    /**
+     * Method records group or meter removed from device.
+     *
+     * @param reference - the key of the group or meter
+     */
+    public void referenceRemoved(InstanceIdentifier<?> reference);
+
+    /**
+     * Method records flow sent to device (add or update) together with its groups and meters.
+     *
+     * @param flowIdent - the key of the flow
+     * @param flow - written flow
+     */
+    public void flowWritten(InstanceIdentifier<Flow> flowIdent, Flow flow);
+
+    /**
+     * Method records flow removal sent to device.
+     *
+     * @param flowIdent - the key of the flow
+     * @param result - RPC result
+     */
+    public void flowRemoved(InstanceIdentifier<Flow> flowIdent, Future<?> result);
+
     /**
      * Method returns generated transaction ID, which is unique for
      * every transaction. ID is composite from prefix ("DOM") and unique number.
@@ -8,6 +8,23 @@
 package org.opendaylight.openflowplugin.applications.frm.impl;
 
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.JdkFutureAdapters;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import org.opendaylight.controller.md.sal.binding.api.DataObjectModification;
 import org.opendaylight.controller.md.sal.binding.api.DataTreeModification;
 import org.opendaylight.controller.md.sal.common.api.data.AsyncDataChangeEvent;
@@ -16,21 +33,41 @@ import org.opendaylight.openflowplugin.applications.frm.ForwardingRulesManager;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNode;
 import org.opendaylight.yangtools.yang.binding.DataObject;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
-import java.util.Collection;
+import org.opendaylight.yangtools.yang.common.RpcResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * AbstractChangeListner implemented basic {@link AsyncDataChangeEvent} processing for
  * flow node subDataObject (flows, groups and meters).
+ * <p>
+ * Modifications of one notification are grouped per node into a batch (removes first,
+ * then updates and adds) and every batch has one completion covering all its RPCs.
+ * Removes of a batch wait for {@link #getRemoveDependency(InstanceIdentifier, DataObject)}
+ * of every removed item, updates and adds wait for
+ * {@link #getWriteDependency(InstanceIdentifier, DataObject)} of every written item.
+ * Both wait also for previous waiting batch of the same node, so the order of batches
+ * per node is kept.
  *
  * @author <a href="mailto:vdemcak@cisco.com">Vaclav Demcak</a>
  *
  */
 public abstract class AbstractListeningCommiter <T extends DataObject> implements ForwardingRulesCommiter<T> {
 
+    private static final Logger LOG = LoggerFactory.getLogger(AbstractListeningCommiter.class);
+    /**
+     * callbacks only do bookkeeping or hand RPCs over to plugin, so they run on completing thread
+     */
+    private static final Executor CALLBACK_EXECUTOR = MoreExecutors.sameThreadExecutor();
+
     protected ForwardingRulesManager provider;
 
     protected final Class<T> clazz;
 
+    private final BatchStatistics batchStatistics = new BatchStatistics();
+    private final ConcurrentMap<InstanceIdentifier<FlowCapableNode>, ListenableFuture<?>> waitingBatches =
+            new ConcurrentHashMap<>();
+
     public AbstractListeningCommiter (ForwardingRulesManager provider, Class<T> clazz) {
         this.provider = Preconditions.checkNotNull(provider, "ForwardingRulesManager can not be null!");
         this.clazz = Preconditions.checkNotNull(clazz, "Class can not be null!");
@@ -39,7 +76,9 @@ public abstract class AbstractListeningCommiter <T extends DataObject> implement
     @Override
     public void onDataTreeChanged(Collection<DataTreeModification<T>> changes) {
         Preconditions.checkNotNull(changes, "Changes may not be null!");
+        final long startNanos = System.nanoTime();
 
+        final Map<InstanceIdentifier<FlowCapableNode>, NodeBatch<T>> batches = new LinkedHashMap<>();
         for (DataTreeModification<T> change : changes) {
             final InstanceIdentifier<T> key = change.getRootPath().getRootIdentifier();
             final DataObjectModification<T> mod = change.getRootNode();
@@ -47,18 +86,23 @@ public abstract class AbstractListeningCommiter <T extends DataObject> implement
                     key.firstIdentifierOf(FlowCapableNode.class);
 
             if (preConfigurationCheck(nodeIdent)) {
+                NodeBatch<T> batch = batches.get(nodeIdent);
+                if (batch == null) {
+                    batch = new NodeBatch<>(nodeIdent);
+                    batches.put(nodeIdent, batch);
+                }
                 switch (mod.getModificationType()) {
                 case DELETE:
-                    remove(key, mod.getDataBefore(), nodeIdent);
+                    batch.removes.add(new Item<>(key, mod.getDataBefore(), null));
                     break;
                 case SUBTREE_MODIFIED:
-                    update(key, mod.getDataBefore(), mod.getDataAfter(), nodeIdent);
+                    batch.updates.add(new Item<>(key, mod.getDataBefore(), mod.getDataAfter()));
                     break;
                 case WRITE:
                     if (mod.getDataBefore() == null) {
-                        add(key, mod.getDataAfter(), nodeIdent);
+                        batch.adds.add(new Item<>(key, null, mod.getDataAfter()));
                     } else {
-                        update(key, mod.getDataBefore(), mod.getDataAfter(), nodeIdent);
+                        batch.updates.add(new Item<>(key, mod.getDataBefore(), mod.getDataAfter()));
                     }
                     break;
                 default:
@@ -66,6 +110,43 @@ public abstract class AbstractListeningCommiter <T extends DataObject> implement
                 }
             }
         }
+
+        for (NodeBatch<T> batch : batches.values()) {
+            submitBatch(batch, startNanos);
+        }
+    }
+
+    /**
+     * Method returns statistics of node batches processed by this commiter.
+     *
+     * @return BatchStatistics
+     */
+    public BatchStatistics getBatchStatistics() {
+        return batchStatistics;
+    }
+
+    /**
+     * Method returns future which has to be done before the item is removed from device
+     * (e.g. flows referring to removed group or meter).
+     *
+     * @param identifier
+     * @param removed
+     * @return dependency future or null if there is nothing to wait for
+     */
+    protected ListenableFuture<?> getRemoveDependency(final InstanceIdentifier<T> identifier, final T removed) {
+        return null;
+    }
+
+    /**
+     * Method returns future which has to be done before the item is added or updated on device
+     * (e.g. groups and meters referenced by written flow).
+     *
+     * @param identifier
+     * @param written
+     * @return dependency future or null if there is nothing to wait for
+     */
+    protected ListenableFuture<?> getWriteDependency(final InstanceIdentifier<T> identifier, final T written) {
+        return null;
     }
 
     /**
@@ -74,9 +155,203 @@ public abstract class AbstractListeningCommiter <T extends DataObject> implement
      */
     protected abstract InstanceIdentifier<T> getWildCardPath();
 
+    private void submitBatch(final NodeBatch<T> batch, final long startNanos) {
+        final ListenableFuture<?> previous = waitingBatches.get(batch.nodeIdent);
+
+        final BatchPart removePart = new BatchPart(batch.removes);
+        addDependency(removePart.waitFor, previous);
+        for (Item<T> item : batch.removes) {
+            addDependency(removePart.waitFor, getRemoveDependency(item.key, item.before));
+        }
+        final List<Item<T>> writes = new ArrayList<>(batch.updates.size() + batch.adds.size());
+        writes.addAll(batch.updates);
+        writes.addAll(batch.adds);
+        final BatchPart writePart = new BatchPart(writes);
+        addDependency(writePart.waitFor, previous);
+        for (Item<T> item : writes) {
+            addDependency(writePart.waitFor, getWriteDependency(item.key, item.after));
+        }
+
+        if ( ! removePart.waitFor.isEmpty() || ! writePart.waitFor.isEmpty()) {
+            LOG.trace("Batch for node {} waits for {} previous operations", batch.nodeIdent,
+                    removePart.waitFor.size() + writePart.waitFor.size());
+            final ListenableFuture<?> programmed = Futures.successfulAsList(removePart.programmed, writePart.programmed);
+            waitingBatches.put(batch.nodeIdent, programmed);
+            programmed.addListener(new Runnable() {
+                @Override
+                public void run() {
+                    waitingBatches.remove(batch.nodeIdent, programmed);
+                }
+            }, CALLBACK_EXECUTOR);
+        }
+
+        // removes don't wait for writes of the same batch - a removed flow may be what the written group waits for
+        schedulePart(batch, removePart);
+        schedulePart(batch, writePart);
+
+        Futures.addCallback(Futures.allAsList(removePart.results, writePart.results),
+                new FutureCallback<List<List<RpcResult<?>>>>() {
+            @Override
+            public void onSuccess(final List<List<RpcResult<?>>> result) {
+                if ( ! removePart.sent && ! writePart.sent) {
+                    return;
+                }
+                int rpcs = 0;
+                int failed = 0;
+                for (List<RpcResult<?>> partResult : result) {
+                    for (RpcResult<?> rpcResult : partResult) {
+                        rpcs++;
+                        if (rpcResult == null || ! rpcResult.isSuccessful()) {
+                            failed++;
+                        }
+                    }
+                }
+                final long latencyNanos = System.nanoTime() - startNanos;
+                batchStatistics.batchSubmitted(batch.size());
+                batchStatistics.batchCompleted(rpcs, failed, latencyNanos);
+                LOG.debug("Batch of {} RPCs for node {} finished in {} us, {} failed", rpcs,
+                        batch.nodeIdent, TimeUnit.NANOSECONDS.toMicros(latencyNanos), failed);
+            }
+
+            @Override
+            public void onFailure(final Throwable t) {
+                LOG.debug("Batch for node {} failed", batch.nodeIdent, t);
+            }
+        }, CALLBACK_EXECUTOR);
+    }
+
+    private static void addDependency(final List<ListenableFuture<?>> waitFor, final ListenableFuture<?> dependency) {
+        if (dependency != null && ! dependency.isDone()) {
+            waitFor.add(dependency);
+        }
+    }
+
+    private void schedulePart(final NodeBatch<T> batch, final BatchPart part) {
+        if (part.waitFor.isEmpty()) {
+            programPart(batch, part);
+            return;
+        }
+        Futures.addCallback(Futures.successfulAsList(part.waitFor), new FutureCallback<List<Object>>() {
+            @Override
+            public void onSuccess(final List<Object> result) {
+                programPart(batch, part);
+            }
+
+            @Override
+            public void onFailure(final Throwable t) {
+                onSuccess(null);
+            }
+        }, CALLBACK_EXECUTOR);
+    }
+
+    private void programPart(final NodeBatch<T> batch, final BatchPart part) {
+        if (part.items.isEmpty()) {
+            part.programmed.set(null);
+            part.results.set(Collections.<RpcResult<?>>emptyList());
+            return;
+        }
+        if ( ! provider.isNodeActive(batch.nodeIdent)) {
+            LOG.debug("Node {} disconnected, {} modifications stay in Config/DS only",
+                    batch.nodeIdent, part.items.size());
+            part.programmed.set(null);
+            part.results.set(Collections.<RpcResult<?>>emptyList());
+            return;
+        }
+        final List<ListenableFuture<? extends RpcResult<?>>> results = new ArrayList<>(part.items.size());
+        try {
+            for (Item<T> item : part.items) {
+                if (item.after == null) {
+                    track(results, remove(item.key, item.before, batch.nodeIdent));
+                } else if (item.before == null) {
+                    track(results, add(item.key, item.after, batch.nodeIdent));
+                } else {
+                    track(results, update(item.key, item.before, item.after, batch.nodeIdent));
+                }
+            }
+        } catch (RuntimeException e) {
+            // don't block dependent batches forever
+            part.programmed.set(null);
+            part.results.set(Collections.<RpcResult<?>>emptyList());
+            throw e;
+        }
+        part.sent = true;
+        part.programmed.set(null);
+
+        Futures.addCallback(Futures.successfulAsList(results), new FutureCallback<List<RpcResult<?>>>() {
+            @Override
+            public void onSuccess(final List<RpcResult<?>> result) {
+                part.results.set(result);
+            }
+
+            @Override
+            public void onFailure(final Throwable t) {
+                part.results.setException(t);
+            }
+        }, CALLBACK_EXECUTOR);
+    }
+
+    /**
+     * RPC results which are not listenable are adapted (completion is then observed by pool thread),
+     * missing results can't be tracked and are not part of the batch completion.
+     */
+    @SuppressWarnings("unchecked")
+    private static void track(final List<ListenableFuture<? extends RpcResult<?>>> results,
+                              final Future<? extends RpcResult<?>> result) {
+        if (result == null) {
+            LOG.debug("RPC returned no result, it is not part of the batch completion");
+        } else if (result instanceof ListenableFuture) {
+            results.add((ListenableFuture<? extends RpcResult<?>>) result);
+        } else {
+            LOG.trace("RPC result {} is not listenable, adapting it", result);
+            results.add(JdkFutureAdapters.listenInPoolThread(result));
+        }
+    }
+
     private boolean preConfigurationCheck(final InstanceIdentifier<FlowCapableNode> nodeIdent) {
         Preconditions.checkNotNull(nodeIdent, "FlowCapableNode ident can not be null!");
         return provider.isNodeActive(nodeIdent);
     }
-}
 
+    private static final class NodeBatch<T extends DataObject> {
+        private final InstanceIdentifier<FlowCapableNode> nodeIdent;
+        private final List<Item<T>> removes = new ArrayList<>();
+        private final List<Item<T>> updates = new ArrayList<>();
+        private final List<Item<T>> adds = new ArrayList<>();
+
+        private NodeBatch(final InstanceIdentifier<FlowCapableNode> nodeIdent) {
+            this.nodeIdent = nodeIdent;
+        }
+
+        private int size() {
+            return removes.size() + updates.size() + adds.size();
+        }
+    }
+
+    /**
+     * Removes or writes of one batch - they wait for different dependencies
+     */
+    private final class BatchPart {
+        private final List<Item<T>> items;
+        private final List<ListenableFuture<?>> waitFor = new ArrayList<>();
+        /** RPCs sent (or nothing to send) */
+        private final SettableFuture<Void> programmed = SettableFuture.create();
+        private final SettableFuture<List<RpcResult<?>>> results = SettableFuture.create();
+        private volatile boolean sent;
+
+        private BatchPart(final List<Item<T>> items) {
+            this.items = items;
+        }
+    }
+
+    private static final class Item<T extends DataObject> {
+        private final InstanceIdentifier<T> key;
+        private final T before;
+        private final T after;
+
+        private Item(final InstanceIdentifier<T> key, final T before, final T after) {
+            this.key = key;
+            this.before = before;
+            this.after = after;
+        }
+    }
+}
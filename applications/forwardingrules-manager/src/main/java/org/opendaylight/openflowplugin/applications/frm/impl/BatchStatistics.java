@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.openflowplugin.applications.frm.impl;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * forwardingrules-manager
+ * org.opendaylight.openflowplugin.applications.frm.impl
+ *
+ * Throughput and config-to-device latency counters of one {@link AbstractListeningCommiter}.
+ * Latency of a batch is measured from Config/DS change notification to the completion
+ * of the last RPC of the batch, so it covers the whole node programming round trip.
+ */
+public final class BatchStatistics {
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong modifications = new AtomicLong();
+    private final AtomicLong completedBatches = new AtomicLong();
+    private final AtomicLong completedRpcs = new AtomicLong();
+    private final AtomicLong failedRpcs = new AtomicLong();
+    private final AtomicLong latencySumNanos = new AtomicLong();
+    private final AtomicLong latencyMaxNanos = new AtomicLong();
+
+    void batchSubmitted(final int size) {
+        batches.incrementAndGet();
+        modifications.addAndGet(size);
+    }
+
+    void batchCompleted(final int rpcs, final int failed, final long latencyNanos) {
+        completedBatches.incrementAndGet();
+        completedRpcs.addAndGet(rpcs);
+        failedRpcs.addAndGet(failed);
+        latencySumNanos.addAndGet(latencyNanos);
+        long max = latencyMaxNanos.get();
+        while (latencyNanos > max && ! latencyMaxNanos.compareAndSet(max, latencyNanos)) {
+            max = latencyMaxNanos.get();
+        }
+    }
+
+    public long getBatches() {
+        return batches.get();
+    }
+
+    public long getModifications() {
+        return modifications.get();
+    }
+
+    public long getCompletedBatches() {
+        return completedBatches.get();
+    }
+
+    public long getCompletedRpcs() {
+        return completedRpcs.get();
+    }
+
+    public long getFailedRpcs() {
+        return failedRpcs.get();
+    }
+
+    public long getAverageLatencyMicros() {
+        final long completed = completedBatches.get();
+        return completed == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(latencySumNanos.get() / completed);
+    }
+
+    public long getMaxLatencyMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(latencyMaxNanos.get());
+    }
+
+    @Override
+    public String toString() {
+        return "BatchStatistics [batches=" + getBatches() + ", modifications=" + getModifications()
+                + ", completedBatches=" + getCompletedBatches() + ", completedRpcs=" + getCompletedRpcs()
+                + ", failedRpcs=" + getFailedRpcs() + ", avgLatencyUs=" + getAverageLatencyMicros()
+                + ", maxLatencyUs=" + getMaxLatencyMicros() + "]";
+    }
+}
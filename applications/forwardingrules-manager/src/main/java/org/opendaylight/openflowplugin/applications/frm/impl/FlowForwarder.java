@@ -8,7 +8,9 @@
 package org.opendaylight.openflowplugin.applications.frm.impl;
 
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ListenableFuture;
 import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.DataTreeIdentifier;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
@@ -31,6 +33,7 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.Nodes;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node;
 import org.opendaylight.yangtools.concepts.ListenerRegistration;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.opendaylight.yangtools.yang.common.RpcResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -88,7 +91,7 @@ public class FlowForwarder extends AbstractListeningCommiter<Flow> {
     }
 
     @Override
-    public void remove(final InstanceIdentifier<Flow> identifier,
+    public Future<? extends RpcResult<?>> remove(final InstanceIdentifier<Flow> identifier,
                        final Flow removeDataObj,
                        final InstanceIdentifier<FlowCapableNode> nodeIdent) {
 
@@ -105,12 +108,15 @@ public class FlowForwarder extends AbstractListeningCommiter<Flow> {
             // a given flow object is removed.
             builder.setTransactionUri(new Uri(provider.getNewTransactionId())).
                 setStrict(Boolean.TRUE);
-            provider.getSalFlowService().removeFlow(builder.build());
+            final Future<? extends RpcResult<?>> result = provider.getSalFlowService().removeFlow(builder.build());
+            provider.flowRemoved(identifier, result);
+            return result;
         }
+        return null;
     }
 
     @Override
-    public void update(final InstanceIdentifier<Flow> identifier,
+    public Future<? extends RpcResult<?>> update(final InstanceIdentifier<Flow> identifier,
                        final Flow original, final Flow update,
                        final InstanceIdentifier<FlowCapableNode> nodeIdent) {
 
@@ -129,12 +135,15 @@ public class FlowForwarder extends AbstractListeningCommiter<Flow> {
             builder.setUpdatedFlow((new UpdatedFlowBuilder(update)).setStrict(Boolean.TRUE).build());
             builder.setOriginalFlow((new OriginalFlowBuilder(original)).setStrict(Boolean.TRUE).build());
 
-            provider.getSalFlowService().updateFlow(builder.build());
+            final Future<? extends RpcResult<?>> result = provider.getSalFlowService().updateFlow(builder.build());
+            provider.flowWritten(identifier, update);
+            return result;
         }
+        return null;
     }
 
     @Override
-    public void add(final InstanceIdentifier<Flow> identifier,
+    public Future<? extends RpcResult<?>> add(final InstanceIdentifier<Flow> identifier,
                     final Flow addDataObj,
                     final InstanceIdentifier<FlowCapableNode> nodeIdent) {
 
@@ -146,8 +155,16 @@ public class FlowForwarder extends AbstractListeningCommiter<Flow> {
             builder.setFlowRef(new FlowRef(identifier));
             builder.setFlowTable(new FlowTableRef(nodeIdent.child(Table.class, tableKey)));
             builder.setTransactionUri(new Uri(provider.getNewTransactionId()));
-            provider.getSalFlowService().addFlow(builder.build());
+            final Future<? extends RpcResult<?>> result = provider.getSalFlowService().addFlow(builder.build());
+            provider.flowWritten(identifier, addDataObj);
+            return result;
         }
+        return null;
+    }
+
+    @Override
+    protected ListenableFuture<?> getWriteDependency(final InstanceIdentifier<Flow> identifier, final Flow written) {
+        return provider.getFlowDependency(identifier.firstIdentifierOf(FlowCapableNode.class), written);
     }
 
     @Override
@@ -9,16 +9,25 @@
 package org.opendaylight.openflowplugin.applications.frm.impl;
 
 import com.google.common.base.Preconditions;
+import com.google.common.base.Predicate;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ListenableFuture;
 import java.util.Collections;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicLong;
+import javax.management.ObjectName;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.ReadOnlyTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
 import org.opendaylight.controller.sal.binding.api.RpcConsumerRegistry;
 import org.opendaylight.openflowplugin.applications.frm.FlowNodeReconciliation;
 import org.opendaylight.openflowplugin.applications.frm.ForwardingRulesCommiter;
 import org.opendaylight.openflowplugin.applications.frm.ForwardingRulesManager;
+import org.opendaylight.openflowplugin.common.jmx.MXBeanUtil;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNode;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.meters.Meter;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.Flow;
@@ -38,12 +47,13 @@ import org.slf4j.LoggerFactory;
  *
  * Manager and middle point for whole module.
  * It contains ActiveNodeHolder and provide all RPC services.
+ * Batch statistics of all commiters are exposed over JMX ({@link ForwardingRulesManagerMXBean}).
  *
  * @author <a href="mailto:vdemcak@cisco.com">Vaclav Demcak</a>
  *
  * Created: Aug 25, 2014
  */
-public class ForwardingRulesManagerImpl implements ForwardingRulesManager {
+public class ForwardingRulesManagerImpl implements ForwardingRulesManager, ForwardingRulesManagerMXBean {
 
     private static final Logger LOG = LoggerFactory.getLogger(ForwardingRulesManagerImpl.class);
     public static final int STARTUP_LOOP_TICK = 500;
@@ -52,6 +62,14 @@ public class ForwardingRulesManagerImpl implements ForwardingRulesManager {
     private final AtomicLong txNum = new AtomicLong();
     private final Object lockObj = new Object();
     private Set<InstanceIdentifier<FlowCapableNode>> activeNodes = Collections.emptySet();
+    private final ConcurrentMap<InstanceIdentifier<FlowCapableNode>, NodeDependencies> nodeDependencies =
+            new ConcurrentHashMap<>();
+    private final Predicate<InstanceIdentifier<?>> configured = new Predicate<InstanceIdentifier<?>>() {
+        @Override
+        public boolean apply(final InstanceIdentifier<?> ident) {
+            return isConfigured(ident);
+        }
+    };
 
     private final DataBroker dataService;
     private final SalFlowService salFlowService;
@@ -64,6 +82,7 @@ public class ForwardingRulesManagerImpl implements ForwardingRulesManager {
     private ForwardingRulesCommiter<Meter> meterListener;
     private ForwardingRulesCommiter<TableFeatures> tableListener;
     private FlowNodeReconciliation nodeListener;
+    private ObjectName mxBeanName;
 
     public ForwardingRulesManagerImpl(final DataBroker dataBroker,
                                       final RpcConsumerRegistry rpcRegistry) {
@@ -91,12 +110,15 @@ public class ForwardingRulesManagerImpl implements ForwardingRulesManager {
 
         this.tableListener = new TableForwarder(this, dataService);
         this.nodeListener = new FlowNodeReconciliationImpl(this, dataService);
+        this.mxBeanName = MXBeanUtil.registerMXBean(this, ForwardingRulesManagerMXBean.class);
         LOG.info("ForwardingRulesManager has started successfully.");
 
     }
 
     @Override
     public void close() throws Exception {
+        MXBeanUtil.unregisterMXBean(mxBeanName);
+        mxBeanName = null;
         if (this.flowListener != null) {
             this.flowListener.close();
             this.flowListener = null;
@@ -160,6 +182,66 @@ public class ForwardingRulesManagerImpl implements ForwardingRulesManager {
                 }
             }
         }
+        final NodeDependencies dependencies = nodeDependencies.remove(ident);
+        if (dependencies != null) {
+            dependencies.clear();
+        }
+    }
+
+    @Override
+    public ListenableFuture<?> getFlowDependency(final InstanceIdentifier<FlowCapableNode> ident, final Flow flow) {
+        return getNodeDependencies(ident).getFlowDependency(flow, configured);
+    }
+
+    @Override
+    public ListenableFuture<?> getRemovalDependency(final InstanceIdentifier<?> reference) {
+        return getNodeDependencies(reference.firstIdentifierOf(FlowCapableNode.class))
+                .getRemovalDependency(reference, configured);
+    }
+
+    @Override
+    public void referenceWritten(final InstanceIdentifier<?> reference, final Future<?> result) {
+        getNodeDependencies(reference.firstIdentifierOf(FlowCapableNode.class)).referenceWritten(reference, result);
+    }
+
+    @Override
+    public void referenceRemoved(final InstanceIdentifier<?> reference) {
+        getNodeDependencies(reference.firstIdentifierOf(FlowCapableNode.class)).referenceRemoved(reference);
+    }
+
+    @Override
+    public void flowWritten(final InstanceIdentifier<Flow> flowIdent, final Flow flow) {
+        getNodeDependencies(flowIdent.firstIdentifierOf(FlowCapableNode.class)).flowWritten(flowIdent, flow);
+    }
+
+    @Override
+    public void flowRemoved(final InstanceIdentifier<Flow> flowIdent, final Future<?> result) {
+        getNodeDependencies(flowIdent.firstIdentifierOf(FlowCapableNode.class)).flowRemoved(flowIdent, result);
+    }
+
+    /**
+     * Read failure is taken as missing data - FRM doesn't wait for something it can't see.
+     */
+    private boolean isConfigured(final InstanceIdentifier<?> ident) {
+        final ReadOnlyTransaction trans = dataService.newReadOnlyTransaction();
+        try {
+            return trans.read(LogicalDatastoreType.CONFIGURATION, ident).checkedGet().isPresent();
+        } catch (final ReadFailedException e) {
+            LOG.warn("Fail with read Config/DS for {} !", ident, e);
+            return false;
+        } finally {
+            trans.close();
+        }
+    }
+
+    private NodeDependencies getNodeDependencies(final InstanceIdentifier<FlowCapableNode> ident) {
+        final NodeDependencies lookup = nodeDependencies.get(ident);
+        if (lookup != null) {
+            return lookup;
+        }
+        final NodeDependencies newDependencies = new NodeDependencies(ident);
+        final NodeDependencies check = nodeDependencies.putIfAbsent(ident, newDependencies);
+        return check == null ? newDependencies : check;
     }
 
     @Override
@@ -206,5 +288,30 @@ public class ForwardingRulesManagerImpl implements ForwardingRulesManager {
     public FlowNodeReconciliation getFlowNodeReconciliation() {
         return nodeListener;
     }
+
+    @Override
+    public BatchStatistics getFlowBatchStatistics() {
+        return batchStatisticsOf(flowListener);
+    }
+
+    @Override
+    public BatchStatistics getGroupBatchStatistics() {
+        return batchStatisticsOf(groupListener);
+    }
+
+    @Override
+    public BatchStatistics getMeterBatchStatistics() {
+        return batchStatisticsOf(meterListener);
+    }
+
+    @Override
+    public BatchStatistics getTableFeaturesBatchStatistics() {
+        return batchStatisticsOf(tableListener);
+    }
+
+    private static BatchStatistics batchStatisticsOf(final ForwardingRulesCommiter<?> commiter) {
+        return commiter instanceof AbstractListeningCommiter
+                ? ((AbstractListeningCommiter<?>) commiter).getBatchStatistics() : null;
+    }
 }
 
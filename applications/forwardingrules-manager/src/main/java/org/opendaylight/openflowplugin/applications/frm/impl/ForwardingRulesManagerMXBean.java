@@ -0,0 +1,39 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.openflowplugin.applications.frm.impl;
+
+/**
+ * forwardingrules-manager
+ * org.opendaylight.openflowplugin.applications.frm.impl
+ *
+ * JMX view of per-node batch processing of {@link ForwardingRulesManagerImpl} commiters,
+ * null is reported for commiter which is not started.
+ */
+public interface ForwardingRulesManagerMXBean {
+
+    /**
+     * @return batch statistics of flow commiter
+     */
+    BatchStatistics getFlowBatchStatistics();
+
+    /**
+     * @return batch statistics of group commiter
+     */
+    BatchStatistics getGroupBatchStatistics();
+
+    /**
+     * @return batch statistics of meter commiter
+     */
+    BatchStatistics getMeterBatchStatistics();
+
+    /**
+     * @return batch statistics of table features commiter
+     */
+    BatchStatistics getTableFeaturesBatchStatistics();
+}
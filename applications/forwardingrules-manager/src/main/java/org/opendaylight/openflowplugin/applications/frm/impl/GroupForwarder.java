@@ -8,7 +8,9 @@
 package org.opendaylight.openflowplugin.applications.frm.impl;
 
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ListenableFuture;
 import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.DataTreeIdentifier;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
@@ -28,6 +30,7 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.Nodes;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node;
 import org.opendaylight.yangtools.concepts.ListenerRegistration;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.opendaylight.yangtools.yang.common.RpcResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -81,6 +84,11 @@ public class GroupForwarder extends AbstractListeningCommiter<Group> {
         }
     }
 
+    @Override
+    protected ListenableFuture<?> getRemoveDependency(final InstanceIdentifier<Group> identifier, final Group removed) {
+        return provider.getRemovalDependency(identifier);
+    }
+
     @Override
     protected InstanceIdentifier<Group> getWildCardPath() {
         return InstanceIdentifier.create(Nodes.class).child(Node.class)
@@ -88,7 +96,7 @@ public class GroupForwarder extends AbstractListeningCommiter<Group> {
     }
 
     @Override
-    public void remove(final InstanceIdentifier<Group> identifier, final Group removeDataObj,
+    public Future<? extends RpcResult<?>> remove(final InstanceIdentifier<Group> identifier, final Group removeDataObj,
                        final InstanceIdentifier<FlowCapableNode> nodeIdent) {
 
         final Group group = (removeDataObj);
@@ -97,11 +105,13 @@ public class GroupForwarder extends AbstractListeningCommiter<Group> {
         builder.setNode(new NodeRef(nodeIdent.firstIdentifierOf(Node.class)));
         builder.setGroupRef(new GroupRef(identifier));
         builder.setTransactionUri(new Uri(provider.getNewTransactionId()));
-        this.provider.getSalGroupService().removeGroup(builder.build());
+        final Future<? extends RpcResult<?>> result = this.provider.getSalGroupService().removeGroup(builder.build());
+        provider.referenceRemoved(identifier);
+        return result;
     }
 
     @Override
-    public void update(final InstanceIdentifier<Group> identifier,
+    public Future<? extends RpcResult<?>> update(final InstanceIdentifier<Group> identifier,
                        final Group original, final Group update,
                        final InstanceIdentifier<FlowCapableNode> nodeIdent) {
 
@@ -115,11 +125,13 @@ public class GroupForwarder extends AbstractListeningCommiter<Group> {
         builder.setUpdatedGroup((new UpdatedGroupBuilder(updatedGroup)).build());
         builder.setOriginalGroup((new OriginalGroupBuilder(originalGroup)).build());
 
-        this.provider.getSalGroupService().updateGroup(builder.build());
+        final Future<? extends RpcResult<?>> result = this.provider.getSalGroupService().updateGroup(builder.build());
+        provider.referenceWritten(identifier, result);
+        return result;
     }
 
     @Override
-    public void add(final InstanceIdentifier<Group> identifier, final Group addDataObj,
+    public Future<? extends RpcResult<?>> add(final InstanceIdentifier<Group> identifier, final Group addDataObj,
                     final InstanceIdentifier<FlowCapableNode> nodeIdent) {
 
         final Group group = (addDataObj);
@@ -128,7 +140,9 @@ public class GroupForwarder extends AbstractListeningCommiter<Group> {
         builder.setNode(new NodeRef(nodeIdent.firstIdentifierOf(Node.class)));
         builder.setGroupRef(new GroupRef(identifier));
         builder.setTransactionUri(new Uri(provider.getNewTransactionId()));
-        this.provider.getSalGroupService().addGroup(builder.build());
+        final Future<? extends RpcResult<?>> result = this.provider.getSalGroupService().addGroup(builder.build());
+        provider.referenceWritten(identifier, result);
+        return result;
     }
 }
 
@@ -8,7 +8,9 @@
 package org.opendaylight.openflowplugin.applications.frm.impl;
 
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ListenableFuture;
 import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.DataTreeIdentifier;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
@@ -28,6 +30,7 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.meter.service.rev130918.met
 import org.opendaylight.yang.gen.v1.urn.opendaylight.meter.types.rev130918.MeterRef;
 import org.opendaylight.yangtools.concepts.ListenerRegistration;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.opendaylight.yangtools.yang.common.RpcResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -81,6 +84,11 @@ public class MeterForwarder extends AbstractListeningCommiter<Meter> {
         }
     }
 
+    @Override
+    protected ListenableFuture<?> getRemoveDependency(final InstanceIdentifier<Meter> identifier, final Meter removed) {
+        return provider.getRemovalDependency(identifier);
+    }
+
     @Override
     protected InstanceIdentifier<Meter> getWildCardPath() {
         return InstanceIdentifier.create(Nodes.class).child(Node.class)
@@ -88,7 +96,7 @@ public class MeterForwarder extends AbstractListeningCommiter<Meter> {
     }
 
     @Override
-    public void remove(final InstanceIdentifier<Meter> identifier, final Meter removeDataObj,
+    public Future<? extends RpcResult<?>> remove(final InstanceIdentifier<Meter> identifier, final Meter removeDataObj,
                        final InstanceIdentifier<FlowCapableNode> nodeIdent) {
 
         final RemoveMeterInputBuilder builder = new RemoveMeterInputBuilder(removeDataObj);
@@ -96,11 +104,13 @@ public class MeterForwarder extends AbstractListeningCommiter<Meter> {
         builder.setNode(new NodeRef(nodeIdent.firstIdentifierOf(Node.class)));
         builder.setMeterRef(new MeterRef(identifier));
         builder.setTransactionUri(new Uri(provider.getNewTransactionId()));
-        this.provider.getSalMeterService().removeMeter(builder.build());
+        final Future<? extends RpcResult<?>> result = this.provider.getSalMeterService().removeMeter(builder.build());
+        provider.referenceRemoved(identifier);
+        return result;
     }
 
     @Override
-    public void update(final InstanceIdentifier<Meter> identifier,
+    public Future<? extends RpcResult<?>> update(final InstanceIdentifier<Meter> identifier,
                        final Meter original, final Meter update,
                        final InstanceIdentifier<FlowCapableNode> nodeIdent) {
 
@@ -112,11 +122,13 @@ public class MeterForwarder extends AbstractListeningCommiter<Meter> {
         builder.setUpdatedMeter((new UpdatedMeterBuilder(update)).build());
         builder.setOriginalMeter((new OriginalMeterBuilder(original)).build());
 
-        this.provider.getSalMeterService().updateMeter(builder.build());
+        final Future<? extends RpcResult<?>> result = this.provider.getSalMeterService().updateMeter(builder.build());
+        provider.referenceWritten(identifier, result);
+        return result;
     }
 
     @Override
-    public void add(final InstanceIdentifier<Meter> identifier, final Meter addDataObj,
+    public Future<? extends RpcResult<?>> add(final InstanceIdentifier<Meter> identifier, final Meter addDataObj,
                     final InstanceIdentifier<FlowCapableNode> nodeIdent) {
 
         final AddMeterInputBuilder builder = new AddMeterInputBuilder(addDataObj);
@@ -124,7 +136,9 @@ public class MeterForwarder extends AbstractListeningCommiter<Meter> {
         builder.setNode(new NodeRef(nodeIdent.firstIdentifierOf(Node.class)));
         builder.setMeterRef(new MeterRef(identifier));
         builder.setTransactionUri(new Uri(provider.getNewTransactionId()));
-        this.provider.getSalMeterService().addMeter(builder.build());
+        final Future<? extends RpcResult<?>> result = this.provider.getSalMeterService().addMeter(builder.build());
+        provider.referenceWritten(identifier, result);
+        return result;
     }
 }
 
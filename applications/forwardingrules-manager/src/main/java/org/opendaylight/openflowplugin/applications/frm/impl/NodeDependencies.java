@@ -0,0 +1,272 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.applications.frm.impl;
+
+import com.google.common.base.Predicate;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.JdkFutureAdapters;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Future;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.action.GroupActionCase;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.list.Action;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNode;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.meters.Meter;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.meters.MeterKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.Flow;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.instruction.instruction.ApplyActionsCase;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.instruction.instruction.MeterCase;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.instruction.instruction.WriteActionsCase;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.instruction.list.Instruction;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.types.rev131018.GroupId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.types.rev131018.groups.Group;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.types.rev131018.groups.GroupKey;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+/**
+ * forwardingrules-manager
+ * org.opendaylight.openflowplugin.applications.frm.impl
+ *
+ * Groups and meters referenced by flows of one node, so flows are sent to device only after
+ * groups/meters they refer to and groups/meters are removed only after flows referring to them.
+ * <p>
+ * Flows, groups and meters are delivered by separate Config/DS listeners in no particular order,
+ * so a reference which is not known yet is resolved against Config/DS: group written to Config/DS
+ * and not handed over to device yet gets a placeholder which is done by the group write.
+ * Likewise flow removed from Config/DS, but not from device yet, gets a placeholder for its removal.
+ * All placeholders are released when the node is disconnected.
+ */
+final class NodeDependencies {
+
+    private final InstanceIdentifier<FlowCapableNode> nodeIdent;
+    /** groups and meters on (or on the way to) device */
+    private final Set<InstanceIdentifier<?>> written = new HashSet<>();
+    /** groups and meters written to Config/DS and not confirmed by device yet */
+    private final Map<InstanceIdentifier<?>, SettableFuture<Void>> pendingWrites = new HashMap<>();
+    /** flows on device with theirs groups and meters */
+    private final Map<InstanceIdentifier<Flow>, Set<InstanceIdentifier<?>>> flowReferences = new HashMap<>();
+    /** flows removed from Config/DS and not confirmed by device yet */
+    private final Map<InstanceIdentifier<Flow>, SettableFuture<Void>> pendingRemovals = new HashMap<>();
+
+    NodeDependencies(final InstanceIdentifier<FlowCapableNode> nodeIdent) {
+        this.nodeIdent = nodeIdent;
+    }
+
+    /**
+     * @param flow
+     * @param configured - check of Config/DS for not known groups and meters
+     * @return future of referenced groups and meters which are not on device yet, or null
+     */
+    ListenableFuture<?> getFlowDependency(final Flow flow, final Predicate<InstanceIdentifier<?>> configured) {
+        final List<InstanceIdentifier<?>> unknown = new ArrayList<>();
+        final List<ListenableFuture<?>> waitFor = new ArrayList<>();
+        synchronized (this) {
+            for (final InstanceIdentifier<?> reference : getReferences(flow)) {
+                final SettableFuture<Void> pending = pendingWrites.get(reference);
+                if (pending != null) {
+                    waitFor.add(pending);
+                } else if ( ! written.contains(reference)) {
+                    unknown.add(reference);
+                }
+            }
+        }
+        // Config/DS is read outside of the lock
+        for (final InstanceIdentifier<?> reference : unknown) {
+            if (configured.apply(reference)) {
+                synchronized (this) {
+                    if ( ! written.contains(reference) || pendingWrites.containsKey(reference)) {
+                        waitFor.add(placeholder(pendingWrites, reference));
+                    }
+                }
+            }
+        }
+        return waitFor.isEmpty() ? null : Futures.successfulAsList(waitFor);
+    }
+
+    /**
+     * @param reference - group or meter to be removed
+     * @param configured - check of Config/DS for flows which refer to the group or meter
+     * @return future of removals of flows which refer to the group or meter, or null
+     */
+    ListenableFuture<?> getRemovalDependency(final InstanceIdentifier<?> reference,
+                                             final Predicate<InstanceIdentifier<?>> configured) {
+        final List<InstanceIdentifier<Flow>> unknown = new ArrayList<>();
+        final List<ListenableFuture<?>> waitFor = new ArrayList<>();
+        synchronized (this) {
+            for (final Map.Entry<InstanceIdentifier<Flow>, Set<InstanceIdentifier<?>>> entry : flowReferences.entrySet()) {
+                if (entry.getValue().contains(reference)) {
+                    final SettableFuture<Void> pending = pendingRemovals.get(entry.getKey());
+                    if (pending != null) {
+                        waitFor.add(pending);
+                    } else {
+                        unknown.add(entry.getKey());
+                    }
+                }
+            }
+        }
+        // flow still presented in Config/DS stays on device - there is nothing to wait for
+        for (final InstanceIdentifier<Flow> flowIdent : unknown) {
+            if ( ! configured.apply(flowIdent)) {
+                synchronized (this) {
+                    if (flowReferences.containsKey(flowIdent)) {
+                        waitFor.add(placeholder(pendingRemovals, flowIdent));
+                    }
+                }
+            }
+        }
+        return waitFor.isEmpty() ? null : Futures.successfulAsList(waitFor);
+    }
+
+    void referenceWritten(final InstanceIdentifier<?> reference, final Future<?> result) {
+        final SettableFuture<Void> pending;
+        synchronized (this) {
+            written.add(reference);
+            pending = placeholder(pendingWrites, reference);
+        }
+        release(pendingWrites, reference, pending, result);
+    }
+
+    void referenceRemoved(final InstanceIdentifier<?> reference) {
+        final SettableFuture<Void> pending;
+        synchronized (this) {
+            written.remove(reference);
+            pending = pendingWrites.remove(reference);
+        }
+        if (pending != null) {
+            pending.set(null);
+        }
+    }
+
+    void flowWritten(final InstanceIdentifier<Flow> flowIdent, final Flow flow) {
+        final Set<InstanceIdentifier<?>> references = getReferences(flow);
+        final SettableFuture<Void> pending;
+        synchronized (this) {
+            if (references.isEmpty()) {
+                flowReferences.remove(flowIdent);
+            } else {
+                flowReferences.put(flowIdent, references);
+            }
+            pending = pendingRemovals.remove(flowIdent);
+        }
+        if (pending != null) {
+            pending.set(null);
+        }
+    }
+
+    void flowRemoved(final InstanceIdentifier<Flow> flowIdent, final Future<?> result) {
+        final Set<InstanceIdentifier<?>> references;
+        final SettableFuture<Void> pending;
+        synchronized (this) {
+            references = flowReferences.get(flowIdent);
+            if (references == null) {
+                return;
+            }
+            pending = placeholder(pendingRemovals, flowIdent);
+        }
+        pending.addListener(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (NodeDependencies.this) {
+                    // flow could be written again in the meantime
+                    if (flowReferences.get(flowIdent) == references) {
+                        flowReferences.remove(flowIdent);
+                    }
+                }
+            }
+        }, MoreExecutors.sameThreadExecutor());
+        release(pendingRemovals, flowIdent, pending, result);
+    }
+
+    /**
+     * Node disconnected - nothing will be sent to device, so nobody has to wait
+     */
+    void clear() {
+        final List<SettableFuture<Void>> released = new ArrayList<>();
+        synchronized (this) {
+            released.addAll(pendingWrites.values());
+            released.addAll(pendingRemovals.values());
+            pendingWrites.clear();
+            pendingRemovals.clear();
+            written.clear();
+            flowReferences.clear();
+        }
+        for (final SettableFuture<Void> pending : released) {
+            pending.set(null);
+        }
+    }
+
+    private Set<InstanceIdentifier<?>> getReferences(final Flow flow) {
+        if (flow.getInstructions() == null || flow.getInstructions().getInstruction() == null) {
+            return Collections.emptySet();
+        }
+        final Set<InstanceIdentifier<?>> references = new HashSet<>();
+        for (final Instruction instruction : flow.getInstructions().getInstruction()) {
+            List<Action> actions = null;
+            if (instruction.getInstruction() instanceof ApplyActionsCase) {
+                actions = ((ApplyActionsCase) instruction.getInstruction()).getApplyActions().getAction();
+            } else if (instruction.getInstruction() instanceof WriteActionsCase) {
+                actions = ((WriteActionsCase) instruction.getInstruction()).getWriteActions().getAction();
+            } else if (instruction.getInstruction() instanceof MeterCase) {
+                references.add(nodeIdent.child(Meter.class,
+                        new MeterKey(((MeterCase) instruction.getInstruction()).getMeter().getMeterId())));
+            }
+            if (actions != null) {
+                for (final Action action : actions) {
+                    if (action.getAction() instanceof GroupActionCase) {
+                        references.add(nodeIdent.child(Group.class, new GroupKey(new GroupId(
+                                ((GroupActionCase) action.getAction()).getGroupAction().getGroupId()))));
+                    }
+                }
+            }
+        }
+        return references;
+    }
+
+    private static <K> SettableFuture<Void> placeholder(final Map<K, SettableFuture<Void>> pending, final K key) {
+        SettableFuture<Void> placeholder = pending.get(key);
+        if (placeholder == null) {
+            placeholder = SettableFuture.create();
+            pending.put(key, placeholder);
+        }
+        return placeholder;
+    }
+
+    /**
+     * Placeholder is done (and forgotten) when device answers - RPC results which are missing
+     * can't be tracked, they are taken as done right away.
+     */
+    private <K> void release(final Map<K, SettableFuture<Void>> pending, final K key,
+                             final SettableFuture<Void> placeholder, final Future<?> result) {
+        final Runnable done = new Runnable() {
+            @Override
+            public void run() {
+                synchronized (NodeDependencies.this) {
+                    if (pending.get(key) == placeholder) {
+                        pending.remove(key);
+                    }
+                }
+                placeholder.set(null);
+            }
+        };
+        if (result == null) {
+            done.run();
+        } else if (result instanceof ListenableFuture) {
+            ((ListenableFuture<?>) result).addListener(done, MoreExecutors.sameThreadExecutor());
+        } else {
+            JdkFutureAdapters.listenInPoolThread(result).addListener(done, MoreExecutors.sameThreadExecutor());
+        }
+    }
+}
@@ -3,6 +3,7 @@ package org.opendaylight.openflowplugin.applications.frm.impl;
 import com.google.common.base.Preconditions;
 import java.util.Collections;
 import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.DataTreeIdentifier;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
@@ -21,6 +22,7 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.table.types.rev131026.Table
 import org.opendaylight.yang.gen.v1.urn.opendaylight.table.types.rev131026.table.features.TableFeatures;
 import org.opendaylight.yangtools.concepts.ListenerRegistration;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.opendaylight.yangtools.yang.common.RpcResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -71,13 +73,14 @@ public class TableForwarder extends AbstractListeningCommiter<TableFeatures> {
     }
 
     @Override
-    public void remove(final InstanceIdentifier<TableFeatures> identifier, final TableFeatures removeDataObj,
+    public Future<? extends RpcResult<?>> remove(final InstanceIdentifier<TableFeatures> identifier, final TableFeatures removeDataObj,
                        final InstanceIdentifier<FlowCapableNode> nodeIdent) {
       // DO Nothing
+      return null;
     }
 
     @Override
-    public void update(final InstanceIdentifier<TableFeatures> identifier,
+    public Future<? extends RpcResult<?>> update(final InstanceIdentifier<TableFeatures> identifier,
                        final TableFeatures original, final TableFeatures update,
                        final InstanceIdentifier<FlowCapableNode> nodeIdent) {
         LOG.debug( "Received the Table Update request [Tbl id, node Id, original, upd" +
@@ -108,14 +111,15 @@ public class TableForwarder extends AbstractListeningCommiter<TableFeatures> {
 
         if( this.provider.getSalTableService() != null )
         	LOG.debug( " Handle to SalTableServices" + this.provider.getSalTableService()) ;
-        this.provider.getSalTableService().updateTable(builder.build());
+        return this.provider.getSalTableService().updateTable(builder.build());
 
     }
 
     @Override
-    public void add(final InstanceIdentifier<TableFeatures> identifier, final TableFeatures addDataObj,
+    public Future<? extends RpcResult<?>> add(final InstanceIdentifier<TableFeatures> identifier, final TableFeatures addDataObj,
                     final InstanceIdentifier<FlowCapableNode> nodeIdent) {
        //DO NOthing
+       return null;
     }
 
 
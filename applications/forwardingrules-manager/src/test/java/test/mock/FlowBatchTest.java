@@ -0,0 +1,232 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package test.mock;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.util.concurrent.SettableFuture;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import org.junit.Test;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.action.GroupActionCaseBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.action.group.action._case.GroupActionBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.list.Action;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.list.ActionBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.list.ActionKey;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.sal.binding.api.RpcProviderRegistry;
+import org.opendaylight.openflowplugin.applications.frm.impl.AbstractListeningCommiter;
+import org.opendaylight.openflowplugin.applications.frm.impl.BatchStatistics;
+import org.opendaylight.openflowplugin.applications.frm.impl.ForwardingRulesManagerImpl;
+import org.opendaylight.openflowplugin.applications.frm.impl.ForwardingRulesManagerMXBean;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNode;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.Table;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.TableBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.TableKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.Flow;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.service.rev130819.RemoveFlowOutput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.service.rev130819.RemoveFlowOutputBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.flow.InstructionsBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.instruction.instruction.ApplyActionsCaseBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.instruction.instruction.apply.actions._case.ApplyActionsBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.instruction.list.Instruction;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.instruction.list.InstructionBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.instruction.list.InstructionKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.service.rev130918.AddGroupOutput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.service.rev130918.AddGroupOutputBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.types.rev131018.GroupId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.types.rev131018.groups.Group;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.types.rev131018.groups.GroupBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.types.rev131018.groups.GroupKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.Nodes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.NodeKey;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.opendaylight.yangtools.yang.common.RpcResult;
+import org.opendaylight.yangtools.yang.common.RpcResultBuilder;
+import test.mock.util.FRMTest;
+import test.mock.util.RpcProviderRegistryMock;
+import test.mock.util.SalFlowServiceMock;
+import test.mock.util.SalGroupServiceMock;
+
+/**
+ * Test of per-node batching of flow modifications
+ */
+public class FlowBatchTest extends FRMTest {
+    RpcProviderRegistry rpcProviderRegistryMock = new RpcProviderRegistryMock();
+    NodeKey s1Key = new NodeKey(new NodeId("S1"));
+    TableKey tableKey = new TableKey((short) 2);
+    InstanceIdentifier<FlowCapableNode> nodeII = InstanceIdentifier.create(Nodes.class).child(Node.class, s1Key)
+            .augmentation(FlowCapableNode.class);
+
+    /**
+     * Removes of one notification are sent before adds, whole notification is one batch
+     */
+    @Test
+    public void removeBeforeAddTest() throws Exception {
+        ForwardingRulesManagerImpl forwardingRulesManager = new ForwardingRulesManagerImpl(getDataBroker(), rpcProviderRegistryMock);
+        forwardingRulesManager.start();
+        addFlowCapableNode(s1Key);
+
+        WriteTransaction writeTx = getDataBroker().newWriteOnlyTransaction();
+        writeTx.put(LogicalDatastoreType.CONFIGURATION, nodeII.child(Table.class, tableKey),
+                new TableBuilder().setKey(tableKey).setFlow(Collections.<Flow>emptyList()).build());
+        writeTx.put(LogicalDatastoreType.CONFIGURATION, createFlowII("flow1"), createFlow("flow1"));
+        assertCommit(writeTx.submit());
+
+        writeTx = getDataBroker().newWriteOnlyTransaction();
+        writeTx.put(LogicalDatastoreType.CONFIGURATION, createFlowII("flow2"), createFlow("flow2"));
+        writeTx.put(LogicalDatastoreType.CONFIGURATION, createFlowII("flow3"), createFlow("flow3"));
+        writeTx.delete(LogicalDatastoreType.CONFIGURATION, createFlowII("flow1"));
+        assertCommit(writeTx.submit());
+
+        SalFlowServiceMock salFlowService = (SalFlowServiceMock) forwardingRulesManager.getSalFlowService();
+        assertEquals(3, salFlowService.getAddFlowCalls().size());
+        assertEquals(1, salFlowService.getRemoveFlowCalls().size());
+        assertEquals("DOM-1", salFlowService.getRemoveFlowCalls().get(0).getTransactionUri().getValue());
+
+        BatchStatistics statistics =
+                ((AbstractListeningCommiter<Flow>) forwardingRulesManager.getFlowCommiter()).getBatchStatistics();
+        assertEquals(2, statistics.getBatches());
+        assertEquals(4, statistics.getModifications());
+
+        forwardingRulesManager.close();
+    }
+
+    /**
+     * Flow waits for the group it refers to, no matter which notification comes first
+     */
+    @Test
+    public void flowDependencyTest() throws Exception {
+        ForwardingRulesManagerImpl forwardingRulesManager = new ForwardingRulesManagerImpl(getDataBroker(), rpcProviderRegistryMock);
+        forwardingRulesManager.start();
+        addFlowCapableNode(s1Key);
+
+        SalGroupServiceMock salGroupService = (SalGroupServiceMock) forwardingRulesManager.getSalGroupService();
+        SettableFuture<RpcResult<AddGroupOutput>> addGroupResult = SettableFuture.create();
+        salGroupService.setAddGroupResult(addGroupResult);
+
+        WriteTransaction writeTx = getDataBroker().newWriteOnlyTransaction();
+        writeTx.put(LogicalDatastoreType.CONFIGURATION, nodeII.child(Table.class, tableKey),
+                new TableBuilder().setKey(tableKey).setFlow(Collections.<Flow>emptyList()).build());
+        writeTx.put(LogicalDatastoreType.CONFIGURATION, createFlowII("flow1"), createGroupFlow("flow1", 1L));
+        writeTx.put(LogicalDatastoreType.CONFIGURATION, createGroupII(1L), createGroup(1L));
+        writeTx.put(LogicalDatastoreType.CONFIGURATION, createFlowII("flow2"), createFlow("flow2"));
+        assertCommit(writeTx.submit());
+
+        SalFlowServiceMock salFlowService = (SalFlowServiceMock) forwardingRulesManager.getSalFlowService();
+        assertEquals(1, salGroupService.getAddGroupCalls().size());
+        assertTrue(salFlowService.getAddFlowCalls().isEmpty());
+
+        addGroupResult.set(RpcResultBuilder.success(new AddGroupOutputBuilder().build()).build());
+        assertEquals(2, salFlowService.getAddFlowCalls().size());
+
+        forwardingRulesManager.close();
+    }
+
+    /**
+     * Group is removed after the flow which refers to it, no matter which notification comes first
+     */
+    @Test
+    public void removalDependencyTest() throws Exception {
+        ForwardingRulesManagerImpl forwardingRulesManager = new ForwardingRulesManagerImpl(getDataBroker(), rpcProviderRegistryMock);
+        forwardingRulesManager.start();
+        addFlowCapableNode(s1Key);
+
+        WriteTransaction writeTx = getDataBroker().newWriteOnlyTransaction();
+        writeTx.put(LogicalDatastoreType.CONFIGURATION, nodeII.child(Table.class, tableKey),
+                new TableBuilder().setKey(tableKey).setFlow(Collections.<Flow>emptyList()).build());
+        writeTx.put(LogicalDatastoreType.CONFIGURATION, createGroupII(1L), createGroup(1L));
+        writeTx.put(LogicalDatastoreType.CONFIGURATION, createFlowII("flow1"), createGroupFlow("flow1", 1L));
+        assertCommit(writeTx.submit());
+
+        SalFlowServiceMock salFlowService = (SalFlowServiceMock) forwardingRulesManager.getSalFlowService();
+        SalGroupServiceMock salGroupService = (SalGroupServiceMock) forwardingRulesManager.getSalGroupService();
+        assertEquals(1, salFlowService.getAddFlowCalls().size());
+        SettableFuture<RpcResult<RemoveFlowOutput>> removeFlowResult = SettableFuture.create();
+        salFlowService.setRemoveFlowResult(removeFlowResult);
+
+        writeTx = getDataBroker().newWriteOnlyTransaction();
+        writeTx.delete(LogicalDatastoreType.CONFIGURATION, createGroupII(1L));
+        writeTx.delete(LogicalDatastoreType.CONFIGURATION, createFlowII("flow1"));
+        assertCommit(writeTx.submit());
+
+        assertEquals(1, salFlowService.getRemoveFlowCalls().size());
+        assertTrue(salGroupService.getRemoveGroupCalls().isEmpty());
+
+        removeFlowResult.set(RpcResultBuilder.success(new RemoveFlowOutputBuilder().build()).build());
+        assertEquals(1, salGroupService.getRemoveGroupCalls().size());
+
+        forwardingRulesManager.close();
+    }
+
+    /**
+     * Batch statistics are exported over JMX while manager is running
+     */
+    @Test
+    public void batchStatisticsMXBeanTest() throws Exception {
+        ForwardingRulesManagerImpl forwardingRulesManager = new ForwardingRulesManagerImpl(getDataBroker(), rpcProviderRegistryMock);
+        forwardingRulesManager.start();
+        addFlowCapableNode(s1Key);
+
+        WriteTransaction writeTx = getDataBroker().newWriteOnlyTransaction();
+        writeTx.put(LogicalDatastoreType.CONFIGURATION, nodeII.child(Table.class, tableKey),
+                new TableBuilder().setKey(tableKey).setFlow(Collections.<Flow>emptyList()).build());
+        writeTx.put(LogicalDatastoreType.CONFIGURATION, createFlowII("flow1"), createFlow("flow1"));
+        assertCommit(writeTx.submit());
+
+        final MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+        final ObjectName name = new ObjectName(ForwardingRulesManagerMXBean.class.getPackage().getName()
+                + ":type=" + ForwardingRulesManagerMXBean.class.getSimpleName());
+        final CompositeData flowStatistics = (CompositeData) mbs.getAttribute(name, "FlowBatchStatistics");
+        assertEquals(1L, flowStatistics.get("batches"));
+        assertEquals(1L, flowStatistics.get("modifications"));
+
+        forwardingRulesManager.close();
+        assertFalse(mbs.isRegistered(name));
+    }
+
+    private InstanceIdentifier<Flow> createFlowII(final String flowId) {
+        return nodeII.child(Table.class, tableKey).child(Flow.class, new FlowKey(new FlowId(flowId)));
+    }
+
+    private Flow createFlow(final String flowId) {
+        return new FlowBuilder().setKey(new FlowKey(new FlowId(flowId))).setTableId((short) 2).build();
+    }
+
+    private Flow createGroupFlow(final String flowId, final long groupId) {
+        final Action groupAction = new ActionBuilder().setKey(new ActionKey(0)).setOrder(0)
+                .setAction(new GroupActionCaseBuilder().setGroupAction(
+                        new GroupActionBuilder().setGroupId(groupId).build()).build())
+                .build();
+        final Instruction applyActions = new InstructionBuilder().setKey(new InstructionKey(0)).setOrder(0)
+                .setInstruction(new ApplyActionsCaseBuilder().setApplyActions(
+                        new ApplyActionsBuilder().setAction(Collections.singletonList(groupAction)).build()).build())
+                .build();
+        return new FlowBuilder(createFlow(flowId)).setInstructions(
+                new InstructionsBuilder().setInstruction(Collections.singletonList(applyActions)).build()).build();
+    }
+
+    private InstanceIdentifier<Group> createGroupII(final long groupId) {
+        return nodeII.child(Group.class, new GroupKey(new GroupId(groupId)));
+    }
+
+    private Group createGroup(final long groupId) {
+        return new GroupBuilder().setKey(new GroupKey(new GroupId(groupId))).setGroupId(new GroupId(groupId)).build();
+    }
+}
@@ -17,6 +17,7 @@ public class SalFlowServiceMock implements SalFlowService{
     private List<AddFlowInput> addFlowCalls = new ArrayList<>();
     private List<RemoveFlowInput> removeFlowCalls = new ArrayList<>();
     private List<UpdateFlowInput> updateFlowCalls = new ArrayList<>();
+    private Future<RpcResult<RemoveFlowOutput>> removeFlowResult;
 
     @Override
     public Future<RpcResult<AddFlowOutput>> addFlow(AddFlowInput input) {
@@ -28,7 +29,7 @@ public class SalFlowServiceMock implements SalFlowService{
     @Override
     public Future<RpcResult<RemoveFlowOutput>> removeFlow(RemoveFlowInput input) {
         removeFlowCalls.add(input);
-        return null;
+        return removeFlowResult;
     }
 
     @Override
@@ -37,6 +38,10 @@ public class SalFlowServiceMock implements SalFlowService{
         return null;
     }
 
+    public void setRemoveFlowResult(Future<RpcResult<RemoveFlowOutput>> removeFlowResult) {
+        this.removeFlowResult = removeFlowResult;
+    }
+
     public List<AddFlowInput> getAddFlowCalls() {
         return addFlowCalls;
     }
@@ -17,11 +17,12 @@ public class SalGroupServiceMock implements SalGroupService {
     private List<AddGroupInput> addGroupCalls = new ArrayList<>();
     private List<RemoveGroupInput> removeGroupCalls = new ArrayList<>();
     private List<UpdateGroupInput> updateGroupCalls = new ArrayList<>();
+    private Future<RpcResult<AddGroupOutput>> addGroupResult;
 
     @Override
     public Future<RpcResult<AddGroupOutput>> addGroup(AddGroupInput input) {
         addGroupCalls.add(input);
-        return null;
+        return addGroupResult;
     }
 
     @Override
@@ -36,6 +37,10 @@ public class SalGroupServiceMock implements SalGroupService {
         return null;
     }
 
+    public void setAddGroupResult(Future<RpcResult<AddGroupOutput>> addGroupResult) {
+        this.addGroupResult = addGroupResult;
+    }
+
     public List<AddGroupInput> getAddGroupCalls() {
         return addGroupCalls;
     }
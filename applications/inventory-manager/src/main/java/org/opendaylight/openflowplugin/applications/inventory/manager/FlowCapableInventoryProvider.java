@@ -8,8 +8,18 @@
 package org.opendaylight.openflowplugin.applications.inventory.manager;
 
 import java.util.ArrayList;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.management.ObjectName;
 
 import org.opendaylight.controller.md.sal.binding.api.BindingTransactionChain;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
@@ -17,24 +27,57 @@ import org.opendaylight.controller.md.sal.binding.api.ReadWriteTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.AsyncTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.TransactionChain;
 import org.opendaylight.controller.md.sal.common.api.data.TransactionChainListener;
+import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
 import org.opendaylight.controller.sal.binding.api.NotificationProviderService;
+import org.opendaylight.openflowplugin.common.jmx.MXBeanUtil;
 import org.opendaylight.yangtools.concepts.ListenerRegistration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.CheckedFuture;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
 
+/**
+ * Writes inventory operations to operational datastore.
+ *
+ * Pending operations are coalesced - {@link KeyedInventoryOperation}s for the same path
+ * collapse to the latest one, removal of a path drops pending operations of its subtree.
+ * Processing thread collects operations for {@link #COALESCE_WINDOW_MILLIS} (or until
+ * {@link #MAX_BATCH} operations are pending) and submits them in one transaction of the chain.
+ * Next batch is submitted while the previous one is still committing, further batches wait
+ * and coalesce in meantime. {@link #enqueue(InventoryOperation)} never blocks the notification thread -
+ * once {@link #QUEUE_DEPTH} operations are pending, only removals and operations replacing a pending
+ * one are accepted, other operations are dropped and counted.
+ * Counters are exposed over JMX ({@link InventoryStatisticsMXBean}).
+ */
 class FlowCapableInventoryProvider implements AutoCloseable, Runnable, TransactionChainListener {
     private static final Logger LOG = LoggerFactory.getLogger(FlowCapableInventoryProvider.class);
-    private static final int QUEUE_DEPTH = 500;
-    private static final int MAX_BATCH = 100;
+    @VisibleForTesting
+    static final int QUEUE_DEPTH = 500;
+    @VisibleForTesting
+    static final int MAX_BATCH = 100;
+    private static final long COALESCE_WINDOW_MILLIS = 10;
+    private static final int MAX_TRANSACTIONS_IN_FLIGHT = 2;
 
-    private final BlockingQueue<InventoryOperation> queue = new LinkedBlockingDeque<>(QUEUE_DEPTH);
+    private final Lock pendingLock = new ReentrantLock();
+    private final Condition pendingCondition = pendingLock.newCondition();
+    /** keyed operations are stored under their path, the others under the operation itself */
+    private final Map<Object, InventoryOperation> pending = new LinkedHashMap<>();
+    private long windowStartNanos;
+    /** processing thread terminated, operations are dropped */
+    private boolean terminated;
+    private final Semaphore transactionsInFlight = new Semaphore(MAX_TRANSACTIONS_IN_FLIGHT);
+    private final InventoryStatistics statistics = new InventoryStatistics();
     private final NotificationProviderService notificationService;
 
     private final DataBroker dataBroker;
     private BindingTransactionChain txChain;
     private ListenerRegistration<?> listenerRegistration;
+    private ObjectName mxBeanName;
     private Thread thread;
 
     FlowCapableInventoryProvider(final DataBroker dataBroker, final NotificationProviderService notificationService) {
@@ -51,15 +94,123 @@ class FlowCapableInventoryProvider implements AutoCloseable, Runnable, Transacti
         thread.setDaemon(true);
         thread.setName("FlowCapableInventoryProvider");
         thread.start();
+        mxBeanName = MXBeanUtil.registerMXBean(statistics, InventoryStatisticsMXBean.class);
 
         LOG.info("Flow Capable Inventory Provider started.");
     }
 
+    InventoryStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Adds operation to pending ones. If {@link #QUEUE_DEPTH} operations are pending already,
+     * the operation is accepted only if it is a removal (removed subtree must not stay in inventory
+     * and removal shrinks pending subtree operations) or if it replaces a pending one - otherwise
+     * it is dropped and counted in {@link InventoryStatistics#getDroppedOperations()}.
+     */
     void enqueue(final InventoryOperation op) {
+        pendingLock.lock();
         try {
-            queue.put(op);
-        } catch (final InterruptedException e) {
-            LOG.warn("Failed to enqueue operation {}", op, e);
+            if (terminated) {
+                LOG.debug("Processing terminated, dropping operation {}", op);
+                return;
+            }
+            if (pending.size() >= QUEUE_DEPTH && !isRemoval(op) && !replacesPending(op)) {
+                statistics.operationDropped();
+                LOG.debug("{} inventory operations are pending, dropping operation {}", pending.size(), op);
+                return;
+            }
+
+            statistics.operationEnqueued();
+            if (op instanceof KeyedInventoryOperation) {
+                coalesce((KeyedInventoryOperation) op);
+            } else {
+                pending.put(op, op);
+            }
+            if (pending.size() == 1) {
+                windowStartNanos = System.nanoTime();
+                pendingCondition.signal();
+            } else if (pending.size() == MAX_BATCH) {
+                pendingCondition.signal();
+            }
+        } finally {
+            pendingLock.unlock();
+        }
+    }
+
+    private static boolean isRemoval(final InventoryOperation op) {
+        return op instanceof KeyedInventoryOperation && ((KeyedInventoryOperation) op).isRemoval();
+    }
+
+    private boolean replacesPending(final InventoryOperation op) {
+        return op instanceof KeyedInventoryOperation && pending.containsKey(((KeyedInventoryOperation) op).getPath());
+    }
+
+    /**
+     * Stores the operation in place of the pending one for the same path. Pending operation
+     * is moved to the end, so it is applied after all operations enqueued before.
+     * Removal drops the pending operations of the removed subtree. Write which follows
+     * a pending removal keeps the removal, so the data written don't mix with the removed ones.
+     */
+    private void coalesce(final KeyedInventoryOperation op) {
+        final InventoryOperation previous = pending.remove(op.getPath());
+        if (previous == null) {
+            pending.put(op.getPath(), op);
+        } else {
+            statistics.operationCoalesced();
+            if (op.isRemoval()) {
+                pending.put(op.getPath(), op);
+            } else if (previous instanceof ReplacingOperation) {
+                pending.put(op.getPath(), new ReplacingOperation(((ReplacingOperation) previous).removal, op));
+            } else if (((KeyedInventoryOperation) previous).isRemoval()) {
+                pending.put(op.getPath(), new ReplacingOperation((KeyedInventoryOperation) previous, op));
+            } else {
+                pending.put(op.getPath(), op);
+            }
+        }
+
+        if (op.isRemoval()) {
+            final Iterator<InventoryOperation> it = pending.values().iterator();
+            while (it.hasNext()) {
+                final InventoryOperation pendingOp = it.next();
+                if (pendingOp instanceof KeyedInventoryOperation && pendingOp != op
+                        && op.getPath().contains(((KeyedInventoryOperation) pendingOp).getPath())) {
+                    it.remove();
+                    statistics.operationCoalesced();
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits for pending operations and for the end of the coalescing window.
+     *
+     * @return at most {@link #MAX_BATCH} pending operations in order of enqueueing
+     */
+    private List<InventoryOperation> takeBatch() throws InterruptedException {
+        pendingLock.lock();
+        try {
+            while (pending.isEmpty()) {
+                pendingCondition.await();
+            }
+            long remaining = windowStartNanos + TimeUnit.MILLISECONDS.toNanos(COALESCE_WINDOW_MILLIS)
+                    - System.nanoTime();
+            while (remaining > 0 && pending.size() < MAX_BATCH) {
+                remaining = pendingCondition.awaitNanos(remaining);
+            }
+
+            final List<InventoryOperation> opsToApply = new ArrayList<>(Math.min(pending.size(), MAX_BATCH));
+            final Iterator<Entry<Object, InventoryOperation>> it = pending.entrySet().iterator();
+            while (it.hasNext() && opsToApply.size() < MAX_BATCH) {
+                opsToApply.add(it.next().getValue());
+                it.remove();
+            }
+            // operations left behind start next window right now
+            windowStartNanos = System.nanoTime();
+            return opsToApply;
+        } finally {
+            pendingLock.unlock();
         }
     }
 
@@ -67,33 +218,45 @@ class FlowCapableInventoryProvider implements AutoCloseable, Runnable, Transacti
     public void run() {
         try {
             for (; ; ) {
-                InventoryOperation op = queue.take();
-                int ops = 0;
-                final ArrayList<InventoryOperation> opsToApply = new ArrayList<>(MAX_BATCH);
-                do {
-                    opsToApply.add(op);
-                    ops++;
-                    if (ops < MAX_BATCH) {
-                        op = queue.poll();
-                    } else {
-                        op = null;
-                    }
-                } while (op != null);
-                submitOperations(opsToApply);
+                processBatch();
             }
         } catch (final InterruptedException e) {
             LOG.info("Processing interrupted, terminating", e);
         }
 
-        // Drain all events, making sure any blocked threads are unblocked
-        while (!queue.isEmpty()) {
-            queue.poll();
+        // Drop all pending events, later ones are dropped by enqueue
+        pendingLock.lock();
+        try {
+            terminated = true;
+            pending.clear();
+        } finally {
+            pendingLock.unlock();
+        }
+    }
+
+    /**
+     * Waits for free in-flight permit, takes next batch and submits it. Permit is handed over
+     * to the submitted transaction, it is released here if the batch did not get that far.
+     */
+    @VisibleForTesting
+    void processBatch() throws InterruptedException {
+        transactionsInFlight.acquire();
+        boolean permitHandedOver = false;
+        try {
+            permitHandedOver = submitOperations(takeBatch());
+        } catch (final RuntimeException e) {
+            LOG.error("Failed to process inventory operations", e);
+        } finally {
+            if (!permitHandedOver) {
+                transactionsInFlight.release();
+            }
         }
     }
 
     /**
      * Starts new empty transaction, custimizes it with submitted operations
-     * and submit it to data broker.
+     * and submit it to data broker. Submitted transaction holds one of the in-flight
+     * permits until it is committed.
      *
      * If transaction chain failed during customization of transaction
      * it allocates new chain and empty transaction and  customizes it
@@ -103,12 +266,15 @@ class FlowCapableInventoryProvider implements AutoCloseable, Runnable, Transacti
      * chain failed during customization of transaction chain.
      *
      * @param opsToApply
+     * @return true if transaction was submitted and releases the in-flight permit once completed
      */
-    private void submitOperations(final ArrayList<InventoryOperation> opsToApply) {
-        final ReadWriteTransaction tx = createCustomizedTransaction(opsToApply);
-        LOG.debug("Processed {} operations, submitting transaction {}", opsToApply.size(), tx.getIdentifier());
+    private boolean submitOperations(final List<InventoryOperation> opsToApply) {
+        final long submitNanos = System.nanoTime();
+        CheckedFuture<Void, TransactionCommitFailedException> submitFuture;
         try {
-            tx.submit();
+            final ReadWriteTransaction tx = createCustomizedTransaction(opsToApply);
+            LOG.debug("Processed {} operations, submitting transaction {}", opsToApply.size(), tx.getIdentifier());
+            submitFuture = tx.submit();
         } catch (final IllegalStateException e) {
             /*
              * Transaction chain failed during doing batch, so we need to null
@@ -121,9 +287,32 @@ class FlowCapableInventoryProvider implements AutoCloseable, Runnable, Transacti
              * We will retry transaction once in order to not loose any data.
              *
              */
-            final ReadWriteTransaction retryTx = createCustomizedTransaction(opsToApply);
-            retryTx.submit();
+            try {
+                final ReadWriteTransaction retryTx = createCustomizedTransaction(opsToApply);
+                submitFuture = retryTx.submit();
+            } catch (final IllegalStateException retryException) {
+                LOG.error("Failed to submit {} inventory operations", opsToApply.size(), retryException);
+                statistics.transactionCompleted(false, System.nanoTime() - submitNanos);
+                return false;
+            }
         }
+        statistics.transactionSubmitted(opsToApply.size());
+
+        Futures.addCallback(submitFuture, new FutureCallback<Void>() {
+            @Override
+            public void onSuccess(final Void result) {
+                statistics.transactionCompleted(true, System.nanoTime() - submitNanos);
+                transactionsInFlight.release();
+            }
+
+            @Override
+            public void onFailure(final Throwable t) {
+                // failure is reported by #onTransactionChainFailed
+                statistics.transactionCompleted(false, System.nanoTime() - submitNanos);
+                transactionsInFlight.release();
+            }
+        }, MoreExecutors.sameThreadExecutor());
+        return true;
     }
 
     /**
@@ -161,7 +350,7 @@ class FlowCapableInventoryProvider implements AutoCloseable, Runnable, Transacti
      * @param opsToApply Operations which are used to customize transaction.
      * @return Non-empty transaction.
      */
-    private ReadWriteTransaction createCustomizedTransaction(final ArrayList<InventoryOperation> opsToApply) {
+    private ReadWriteTransaction createCustomizedTransaction(final List<InventoryOperation> opsToApply) {
         final ReadWriteTransaction tx = newEmptyTransaction();
         for(final InventoryOperation op : opsToApply) {
             op.applyOperation(tx);
@@ -193,7 +382,9 @@ class FlowCapableInventoryProvider implements AutoCloseable, Runnable, Transacti
 
     @Override
     public void close() throws InterruptedException {
-        LOG.info("Flow Capable Inventory Provider stopped.");
+        LOG.info("Flow Capable Inventory Provider stopped, {}", statistics);
+        MXBeanUtil.unregisterMXBean(mxBeanName);
+        mxBeanName = null;
         if (this.listenerRegistration != null) {
             try {
                 this.listenerRegistration.close();
@@ -218,4 +409,24 @@ class FlowCapableInventoryProvider implements AutoCloseable, Runnable, Transacti
             txChain = null;
         }
     }
+
+    /**
+     * Removal of the path followed by the write of its new state.
+     */
+    private static final class ReplacingOperation extends KeyedInventoryOperation {
+        private final KeyedInventoryOperation removal;
+        private final KeyedInventoryOperation write;
+
+        ReplacingOperation(final KeyedInventoryOperation removal, final KeyedInventoryOperation write) {
+            super(write.getPath(), false);
+            this.removal = removal;
+            this.write = write;
+        }
+
+        @Override
+        public void applyOperation(final ReadWriteTransaction tx) {
+            removal.applyOperation(tx);
+            write.applyOperation(tx);
+        }
+    }
 }
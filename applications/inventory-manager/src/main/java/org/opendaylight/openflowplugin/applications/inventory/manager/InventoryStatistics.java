@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.applications.inventory.manager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coalescing and commit latency counters of {@link FlowCapableInventoryProvider}.
+ */
+public final class InventoryStatistics implements InventoryStatisticsMXBean {
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong applied = new AtomicLong();
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong committed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong latencySumNanos = new AtomicLong();
+    private final AtomicLong latencyMaxNanos = new AtomicLong();
+
+    void operationEnqueued() {
+        enqueued.incrementAndGet();
+    }
+
+    void operationCoalesced() {
+        coalesced.incrementAndGet();
+    }
+
+    void operationDropped() {
+        dropped.incrementAndGet();
+    }
+
+    void transactionSubmitted(final int operations) {
+        submitted.incrementAndGet();
+        applied.addAndGet(operations);
+    }
+
+    void transactionCompleted(final boolean success, final long latencyNanos) {
+        if (success) {
+            committed.incrementAndGet();
+        } else {
+            failed.incrementAndGet();
+        }
+        latencySumNanos.addAndGet(latencyNanos);
+        long max = latencyMaxNanos.get();
+        while (latencyNanos > max && ! latencyMaxNanos.compareAndSet(max, latencyNanos)) {
+            max = latencyMaxNanos.get();
+        }
+    }
+
+    @Override
+    public long getEnqueuedOperations() {
+        return enqueued.get();
+    }
+
+    @Override
+    public long getCoalescedOperations() {
+        return coalesced.get();
+    }
+
+    @Override
+    public long getDroppedOperations() {
+        return dropped.get();
+    }
+
+    @Override
+    public long getAppliedOperations() {
+        return applied.get();
+    }
+
+    @Override
+    public double getCoalescingRatio() {
+        final long appliedOps = applied.get();
+        return appliedOps == 0 ? 1.0 : (double) enqueued.get() / appliedOps;
+    }
+
+    @Override
+    public long getSubmittedTransactions() {
+        return submitted.get();
+    }
+
+    @Override
+    public long getCommittedTransactions() {
+        return committed.get();
+    }
+
+    @Override
+    public long getFailedTransactions() {
+        return failed.get();
+    }
+
+    @Override
+    public long getAverageLatencyMicros() {
+        final long completed = committed.get() + failed.get();
+        return completed == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(latencySumNanos.get() / completed);
+    }
+
+    @Override
+    public long getMaxLatencyMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(latencyMaxNanos.get());
+    }
+
+    @Override
+    public String toString() {
+        return "InventoryStatistics [enqueued=" + getEnqueuedOperations() + ", coalesced=" + getCoalescedOperations()
+                + ", dropped=" + getDroppedOperations()
+                + ", applied=" + getAppliedOperations() + ", submitted=" + getSubmittedTransactions()
+                + ", committed=" + getCommittedTransactions() + ", failed=" + getFailedTransactions()
+                + ", avgLatencyUs=" + getAverageLatencyMicros() + ", maxLatencyUs=" + getMaxLatencyMicros() + "]";
+    }
+}
@@ -0,0 +1,55 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.applications.inventory.manager;
+
+/**
+ * JMX view of {@link InventoryStatistics} - coalescing and commit latency of inventory operations.
+ */
+public interface InventoryStatisticsMXBean {
+
+    /**
+     * @return operations received from notifications
+     */
+    long getEnqueuedOperations();
+
+    /**
+     * @return operations dropped because a later operation replaced them
+     */
+    long getCoalescedOperations();
+
+    /**
+     * @return operations dropped because too many operations were pending
+     */
+    long getDroppedOperations();
+
+    /**
+     * @return operations applied to submitted transactions
+     */
+    long getAppliedOperations();
+
+    /**
+     * @return enqueued operations per operation applied to datastore (1.0 means nothing was coalesced)
+     */
+    double getCoalescingRatio();
+
+    long getSubmittedTransactions();
+
+    long getCommittedTransactions();
+
+    long getFailedTransactions();
+
+    /**
+     * @return average time from submit to commit (or failure) of transaction
+     */
+    long getAverageLatencyMicros();
+
+    /**
+     * @return maximal time from submit to commit (or failure) of transaction
+     */
+    long getMaxLatencyMicros();
+}
@@ -0,0 +1,38 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.applications.inventory.manager;
+
+import com.google.common.base.Preconditions;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+/**
+ * Operation which writes (or removes) the whole state of one inventory path.
+ * Pending operations with the same path are coalesced by {@link FlowCapableInventoryProvider},
+ * so only the latest state of the path is written to the datastore.
+ */
+abstract class KeyedInventoryOperation implements InventoryOperation {
+
+    private final InstanceIdentifier<?> path;
+    private final boolean removal;
+
+    KeyedInventoryOperation(final InstanceIdentifier<?> path, final boolean removal) {
+        this.path = Preconditions.checkNotNull(path);
+        this.removal = removal;
+    }
+
+    InstanceIdentifier<?> getPath() {
+        return path;
+    }
+
+    /**
+     * @return true if operation removes the path with its whole subtree
+     */
+    boolean isRemoval() {
+        return removal;
+    }
+}
@@ -70,7 +70,7 @@ class NodeChangeCommiter implements OpendaylightInventoryListener {
         }
 
         LOG.debug("Node connector removed notification received, {}", connector.getNodeConnectorRef().getValue());
-        manager.enqueue(new InventoryOperation() {
+        manager.enqueue(new KeyedInventoryOperation(connector.getNodeConnectorRef().getValue(), true) {
             @Override
             public void applyOperation(final ReadWriteTransaction tx) {
                 final NodeConnectorRef ref = connector.getNodeConnectorRef();
@@ -87,7 +87,7 @@ class NodeChangeCommiter implements OpendaylightInventoryListener {
         }
 
         LOG.debug("Node connector updated notification received.");
-        manager.enqueue(new InventoryOperation() {
+        manager.enqueue(new KeyedInventoryOperation(connector.getNodeConnectorRef().getValue(), false) {
             @Override
             public void applyOperation(final ReadWriteTransaction tx) {
                 final NodeConnectorRef ref = connector.getNodeConnectorRef();
@@ -122,7 +122,7 @@ class NodeChangeCommiter implements OpendaylightInventoryListener {
         }
 
         LOG.debug("Node removed notification received, {}", node.getNodeRef().getValue());
-        manager.enqueue(new InventoryOperation() {
+        manager.enqueue(new KeyedInventoryOperation(node.getNodeRef().getValue(), true) {
             @Override
             public void applyOperation(final ReadWriteTransaction tx) {
                 final NodeRef ref = node.getNodeRef();
@@ -173,7 +173,7 @@ class NodeChangeCommiter implements OpendaylightInventoryListener {
     }
 
     private void enqueueWriteNodeDataTx(final NodeUpdated node, final FlowCapableNodeUpdated flowNode, final InstanceIdentifier<FlowCapableNode> path) {
-        manager.enqueue(new InventoryOperation() {
+        manager.enqueue(new KeyedInventoryOperation(path, false) {
             @Override
             public void applyOperation(final ReadWriteTransaction tx) {
                 final FlowCapableNode augment = InventoryMapping.toInventoryAugment(flowNode);
@@ -184,12 +184,12 @@ class NodeChangeCommiter implements OpendaylightInventoryListener {
     }
 
     private void enqueuePutTable0Tx(final NodeRef ref) {
-        manager.enqueue(new InventoryOperation() {
+        final TableKey tKey = new TableKey((short) 0);
+        final InstanceIdentifier<Table> tableIdentifier =
+                ((InstanceIdentifier<Node>) ref.getValue()).augmentation(FlowCapableNode.class).child(Table.class, new TableKey(tKey));
+        manager.enqueue(new KeyedInventoryOperation(tableIdentifier, false) {
             @Override
             public void applyOperation(ReadWriteTransaction tx) {
-                final TableKey tKey = new TableKey((short) 0);
-                final InstanceIdentifier<Table> tableIdentifier =
-                        ((InstanceIdentifier<Node>) ref.getValue()).augmentation(FlowCapableNode.class).child(Table.class, new TableKey(tKey));
                 TableBuilder tableBuilder = new TableBuilder();
                 Table table0 = tableBuilder.setId((short) 0).build();
                 LOG.debug("writing table :{} ", tableIdentifier);
@@ -0,0 +1,388 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.applications.inventory.manager;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.opendaylight.controller.md.sal.binding.api.BindingTransactionChain;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.ReadWriteTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.TransactionChainListener;
+import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
+import org.opendaylight.controller.sal.binding.api.NotificationProviderService;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeConnectorId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.Nodes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.node.NodeConnector;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.node.NodeConnectorKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.NodeKey;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+import com.google.common.base.Function;
+import com.google.common.util.concurrent.CheckedFuture;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.SettableFuture;
+
+/**
+ * test of {@link FlowCapableInventoryProvider} - coalescing of pending operations, batching,
+ * chain failure handling, in-flight limit and overflow of pending operations
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class FlowCapableInventoryProviderTest {
+
+    private static final InstanceIdentifier<Node> NODE_1 = createNodePath("openflow:1");
+    private static final InstanceIdentifier<Node> NODE_2 = createNodePath("openflow:2");
+    private static final InstanceIdentifier<NodeConnector> NODE_1_PORT_1 = NODE_1.child(NodeConnector.class,
+            new NodeConnectorKey(new NodeConnectorId("openflow:1:1")));
+
+    @Mock
+    private DataBroker dataBroker;
+    @Mock
+    private NotificationProviderService notificationService;
+    @Mock
+    private BindingTransactionChain txChain;
+    @Mock
+    private ReadWriteTransaction tx;
+
+    private final List<String> applied = Collections.synchronizedList(new ArrayList<String>());
+    private FlowCapableInventoryProvider provider;
+
+    /**
+     * prepare provider, processing thread is not started - tests drive batches via
+     * {@link FlowCapableInventoryProvider#processBatch()}
+     */
+    @Before
+    public void setUp() {
+        Mockito.when(dataBroker.createTransactionChain(Matchers.any(TransactionChainListener.class)))
+                .thenReturn(txChain);
+        Mockito.when(txChain.newReadWriteTransaction()).thenReturn(tx);
+        Mockito.when(tx.submit()).thenReturn(Futures.<Void, TransactionCommitFailedException>immediateCheckedFuture(null));
+
+        provider = new FlowCapableInventoryProvider(dataBroker, notificationService);
+    }
+
+    /**
+     * later write of the same path replaces the pending one and moves to the end of batch
+     */
+    @Test
+    public void testCoalescingKeepsLatestStateInOrder() throws Exception {
+        provider.enqueue(new RecordingOperation(NODE_1, false, "write node1 v1"));
+        provider.enqueue(new RecordingOperation(NODE_2, false, "write node2"));
+        provider.enqueue(new InventoryOperation() {
+            @Override
+            public void applyOperation(final ReadWriteTransaction tx) {
+                applied.add("unkeyed");
+            }
+        });
+        provider.enqueue(new RecordingOperation(NODE_1, false, "write node1 v2"));
+
+        provider.processBatch();
+
+        Assert.assertEquals(Arrays.asList("write node2", "unkeyed", "write node1 v2"), applied);
+        final InventoryStatistics statistics = provider.getStatistics();
+        Assert.assertEquals(4, statistics.getEnqueuedOperations());
+        Assert.assertEquals(1, statistics.getCoalescedOperations());
+        Assert.assertEquals(3, statistics.getAppliedOperations());
+        Assert.assertEquals(1, statistics.getSubmittedTransactions());
+        Assert.assertEquals(1, statistics.getCommittedTransactions());
+        Mockito.verify(tx).submit();
+    }
+
+    /**
+     * removal drops pending operations of the removed subtree
+     */
+    @Test
+    public void testRemovalDropsPendingSubtree() throws Exception {
+        provider.enqueue(new RecordingOperation(NODE_1_PORT_1, false, "write port"));
+        provider.enqueue(new RecordingOperation(NODE_2, false, "write node2"));
+        provider.enqueue(new RecordingOperation(NODE_1, true, "remove node1"));
+
+        provider.processBatch();
+
+        Assert.assertEquals(Arrays.asList("write node2", "remove node1"), applied);
+        Assert.assertEquals(1, provider.getStatistics().getCoalescedOperations());
+    }
+
+    /**
+     * write which follows pending removal keeps the removal, further writes replace only the write
+     */
+    @Test
+    public void testWriteAfterRemovalReplaces() throws Exception {
+        provider.enqueue(new RecordingOperation(NODE_1, true, "remove node1"));
+        provider.enqueue(new RecordingOperation(NODE_1, false, "write node1 v1"));
+        provider.enqueue(new RecordingOperation(NODE_1, false, "write node1 v2"));
+
+        provider.processBatch();
+
+        Assert.assertEquals(Arrays.asList("remove node1", "write node1 v2"), applied);
+        Assert.assertEquals(2, provider.getStatistics().getCoalescedOperations());
+        Assert.assertEquals(1, provider.getStatistics().getAppliedOperations());
+    }
+
+    /**
+     * removal which follows pending replacement wins
+     */
+    @Test
+    public void testRemovalAfterReplacement() throws Exception {
+        provider.enqueue(new RecordingOperation(NODE_1, true, "remove node1 v1"));
+        provider.enqueue(new RecordingOperation(NODE_1, false, "write node1"));
+        provider.enqueue(new RecordingOperation(NODE_1, true, "remove node1 v2"));
+
+        provider.processBatch();
+
+        Assert.assertEquals(Collections.singletonList("remove node1 v2"), applied);
+    }
+
+    /**
+     * batch is limited to {@link FlowCapableInventoryProvider#MAX_BATCH} operations
+     */
+    @Test
+    public void testBatchSizeLimit() throws Exception {
+        for (int i = 0; i <= FlowCapableInventoryProvider.MAX_BATCH; i++) {
+            provider.enqueue(new RecordingOperation(createNodePath("openflow:" + i), false, "write " + i));
+        }
+
+        provider.processBatch();
+        Assert.assertEquals(FlowCapableInventoryProvider.MAX_BATCH, applied.size());
+        Assert.assertEquals("write 0", applied.get(0));
+
+        provider.processBatch();
+        Assert.assertEquals(FlowCapableInventoryProvider.MAX_BATCH + 1, applied.size());
+        Assert.assertEquals("write " + FlowCapableInventoryProvider.MAX_BATCH, applied.get(applied.size() - 1));
+        Assert.assertEquals(2, provider.getStatistics().getSubmittedTransactions());
+    }
+
+    /**
+     * operations are applied once more to transaction of new chain if current chain failed
+     */
+    @Test
+    public void testChainFailureRetry() throws Exception {
+        final BindingTransactionChain retryTxChain = Mockito.mock(BindingTransactionChain.class);
+        final ReadWriteTransaction retryTx = Mockito.mock(ReadWriteTransaction.class);
+        Mockito.when(dataBroker.createTransactionChain(Matchers.any(TransactionChainListener.class)))
+                .thenReturn(txChain, retryTxChain);
+        Mockito.when(tx.submit()).thenThrow(new IllegalStateException("chain failed"));
+        Mockito.when(retryTxChain.newReadWriteTransaction()).thenReturn(retryTx);
+        Mockito.when(retryTx.submit())
+                .thenReturn(Futures.<Void, TransactionCommitFailedException>immediateCheckedFuture(null));
+
+        provider.enqueue(new RecordingOperation(NODE_1, false, "write node1"));
+        provider.processBatch();
+
+        Assert.assertEquals(Arrays.asList("write node1", "write node1"), applied);
+        Mockito.verify(retryTx).submit();
+        Assert.assertEquals(1, provider.getStatistics().getCommittedTransactions());
+        Assert.assertEquals(0, provider.getStatistics().getFailedTransactions());
+    }
+
+    /**
+     * failed retry is counted and does not keep the in-flight permit
+     */
+    @Test(timeout = 10000)
+    public void testChainFailureRetryFailed() throws Exception {
+        Mockito.when(tx.submit()).thenThrow(new IllegalStateException("chain failed"));
+
+        for (int i = 0; i < 3; i++) {
+            provider.enqueue(new RecordingOperation(NODE_1, false, "write node1"));
+            provider.processBatch();
+        }
+
+        Assert.assertEquals(3, provider.getStatistics().getFailedTransactions());
+        Assert.assertEquals(0, provider.getStatistics().getSubmittedTransactions());
+    }
+
+    /**
+     * unexpected failure of operation does not keep the in-flight permit
+     */
+    @Test(timeout = 10000)
+    public void testOperationFailureReleasesPermit() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            provider.enqueue(new InventoryOperation() {
+                @Override
+                public void applyOperation(final ReadWriteTransaction tx) {
+                    throw new IllegalArgumentException("broken operation");
+                }
+            });
+            provider.processBatch();
+        }
+
+        provider.enqueue(new RecordingOperation(NODE_1, false, "write node1"));
+        provider.processBatch();
+
+        Assert.assertEquals(Collections.singletonList("write node1"), applied);
+        Assert.assertEquals(1, provider.getStatistics().getCommittedTransactions());
+    }
+
+    /**
+     * only two transactions are in flight, next batch waits for commit of one of them
+     */
+    @Test(timeout = 10000)
+    public void testTransactionsInFlightLimit() throws Exception {
+        final SettableFuture<Void> firstCommit = SettableFuture.create();
+        Mockito.when(tx.submit()).thenReturn(makeChecked(firstCommit),
+                makeChecked(SettableFuture.<Void>create()),
+                Futures.<Void, TransactionCommitFailedException>immediateCheckedFuture(null));
+
+        provider.enqueue(new RecordingOperation(NODE_1, false, "write node1"));
+        provider.processBatch();
+        provider.enqueue(new RecordingOperation(NODE_2, false, "write node2"));
+        provider.processBatch();
+
+        provider.enqueue(new RecordingOperation(NODE_1_PORT_1, false, "write port"));
+        final Thread processor = startThread(new BatchProcessor());
+        awaitParked(processor);
+        Mockito.verify(txChain, Mockito.times(2)).newReadWriteTransaction();
+
+        firstCommit.set(null);
+        processor.join(TimeUnit.SECONDS.toMillis(5L));
+        Assert.assertFalse(processor.isAlive());
+        Assert.assertEquals(Arrays.asList("write node1", "write node2", "write port"), applied);
+        Assert.assertEquals(2, provider.getStatistics().getCommittedTransactions());
+    }
+
+    /**
+     * full queue does not block - new writes are dropped and counted, removals and replacements
+     * of pending operations are accepted
+     */
+    @Test(timeout = 10000)
+    public void testOverflow() throws Exception {
+        for (int i = 0; i < FlowCapableInventoryProvider.QUEUE_DEPTH; i++) {
+            provider.enqueue(new RecordingOperation(createNodePath("openflow:" + i), false, "write " + i));
+        }
+
+        provider.enqueue(new RecordingOperation(NODE_1_PORT_1, false, "write port"));
+        Assert.assertEquals(1, provider.getStatistics().getDroppedOperations());
+
+        // replacement does not grow the queue
+        provider.enqueue(new RecordingOperation(createNodePath("openflow:0"), false, "write 0 v2"));
+        // removal is never dropped
+        provider.enqueue(new RecordingOperation(createNodePath("openflow:" + FlowCapableInventoryProvider.QUEUE_DEPTH),
+                true, "remove " + FlowCapableInventoryProvider.QUEUE_DEPTH));
+        Assert.assertEquals(1, provider.getStatistics().getDroppedOperations());
+        Assert.assertEquals(FlowCapableInventoryProvider.QUEUE_DEPTH + 2,
+                provider.getStatistics().getEnqueuedOperations());
+
+        // space freed by processing is available again
+        provider.processBatch();
+        provider.enqueue(new RecordingOperation(NODE_1_PORT_1, false, "write port"));
+        Assert.assertEquals(1, provider.getStatistics().getDroppedOperations());
+        Assert.assertEquals(FlowCapableInventoryProvider.QUEUE_DEPTH + 3,
+                provider.getStatistics().getEnqueuedOperations());
+    }
+
+    /**
+     * operations are dropped once processing terminated
+     */
+    @Test(timeout = 10000)
+    public void testEnqueueAfterTermination() throws Exception {
+        provider.enqueue(new RecordingOperation(NODE_2, false, "write node2"));
+
+        // processing thread interrupted before it took any batch
+        final Thread processor = startThread(new Runnable() {
+            @Override
+            public void run() {
+                Thread.currentThread().interrupt();
+                provider.run();
+            }
+        });
+        processor.join(TimeUnit.SECONDS.toMillis(5L));
+        Assert.assertFalse(processor.isAlive());
+
+        provider.enqueue(new RecordingOperation(NODE_1, false, "write node1"));
+        Assert.assertEquals(1, provider.getStatistics().getEnqueuedOperations());
+        Assert.assertTrue(applied.isEmpty());
+        Mockito.verifyZeroInteractions(dataBroker);
+    }
+
+    /**
+     * statistics are exposed over JMX while provider runs
+     */
+    @Test
+    public void testStatisticsMXBean() throws Exception {
+        final MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+        final ObjectName name = new ObjectName(InventoryStatisticsMXBean.class.getPackage().getName()
+                + ":type=" + InventoryStatisticsMXBean.class.getSimpleName());
+
+        provider.start();
+        try {
+            Assert.assertTrue(mbs.isRegistered(name));
+            Assert.assertEquals(0L, mbs.getAttribute(name, "EnqueuedOperations"));
+            Assert.assertEquals(1.0, mbs.getAttribute(name, "CoalescingRatio"));
+        } finally {
+            provider.close();
+        }
+        Assert.assertFalse(mbs.isRegistered(name));
+    }
+
+    private static InstanceIdentifier<Node> createNodePath(final String nodeId) {
+        return InstanceIdentifier.create(Nodes.class).child(Node.class, new NodeKey(new NodeId(nodeId)));
+    }
+
+    private static CheckedFuture<Void, TransactionCommitFailedException> makeChecked(final SettableFuture<Void> future) {
+        return Futures.makeChecked(future, new Function<Exception, TransactionCommitFailedException>() {
+            @Override
+            public TransactionCommitFailedException apply(final Exception input) {
+                return new TransactionCommitFailedException("commit failed", input);
+            }
+        });
+    }
+
+    private static Thread startThread(final Runnable runnable) {
+        final Thread thread = new Thread(runnable);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private static void awaitParked(final Thread thread) throws InterruptedException {
+        while (thread.getState() != Thread.State.WAITING) {
+            Assert.assertTrue("thread finished instead of waiting", thread.isAlive());
+            Thread.sleep(10L);
+        }
+    }
+
+    private class BatchProcessor implements Runnable {
+        @Override
+        public void run() {
+            try {
+                provider.processBatch();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private class RecordingOperation extends KeyedInventoryOperation {
+        private final String name;
+
+        RecordingOperation(final InstanceIdentifier<?> path, final boolean removal, final String name) {
+            super(path, removal);
+            this.name = name;
+        }
+
+        @Override
+        public void applyOperation(final ReadWriteTransaction tx) {
+            applied.add(name);
+        }
+    }
+}
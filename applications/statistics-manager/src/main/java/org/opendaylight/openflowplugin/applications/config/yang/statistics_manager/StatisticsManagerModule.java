@@ -1,5 +1,6 @@
 package org.opendaylight.openflowplugin.applications.config.yang.statistics_manager;
 
+import org.opendaylight.openflowplugin.applications.statistics.manager.StatCounter;
 import org.opendaylight.openflowplugin.applications.statistics.manager.StatisticsManager;
 import org.opendaylight.openflowplugin.applications.statistics.manager.impl.StatisticsManagerConfig;
 import org.opendaylight.openflowplugin.applications.statistics.manager.impl.StatisticsManagerImpl;
@@ -66,6 +67,19 @@ public class StatisticsManagerModule extends org.opendaylight.openflowplugin.app
                     MIN_REQUEST_NET_MONITOR_INTERVAL_DEFAULT);
             builder.setMinRequestNetMonitorInterval(MIN_REQUEST_NET_MONITOR_INTERVAL_DEFAULT);
         }
+        if (getStatisticsManagerSettings() != null && getStatisticsManagerSettings().getRateThreshold() != null) {
+            for (final RateThreshold threshold : getStatisticsManagerSettings().getRateThreshold()) {
+                if (threshold.getCounter() == null || threshold.getRatePerSecond() == null) {
+                    continue;
+                }
+                try {
+                    builder.setRateThreshold(StatCounter.valueOf(threshold.getCounter()), threshold.getRatePerSecond());
+                } catch (final IllegalArgumentException e) {
+                    LOG.warn("Unknown statistics counter {} in rate thresholds, threshold is ignored",
+                            threshold.getCounter());
+                }
+            }
+        }
         return builder.build();
     }
 }
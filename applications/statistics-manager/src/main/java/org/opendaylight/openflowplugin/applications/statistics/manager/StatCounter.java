@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.openflowplugin.applications.statistics.manager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * statistics-manager
+ * org.opendaylight.openflowplugin.applications.statistics.manager
+ *
+ * StatCounter
+ * Cumulative device counters for which statistics-manager computes per-second rates.
+ * Counters are grouped by the statistics owner type {@link StatCounterType}, the order
+ * of counters inside one type is the order of their rate slots.
+ * All counters are 64-bit (OF 1.0 and OF 1.3 alike) unless declared as 32-bit.
+ */
+public enum StatCounter {
+    PORT_RECEIVED_BYTES(StatCounterType.PORT),
+    PORT_TRANSMITTED_BYTES(StatCounterType.PORT),
+    PORT_RECEIVED_PACKETS(StatCounterType.PORT),
+    PORT_TRANSMITTED_PACKETS(StatCounterType.PORT),
+    PORT_RECEIVE_DROPS(StatCounterType.PORT),
+    PORT_TRANSMIT_DROPS(StatCounterType.PORT),
+    PORT_RECEIVE_ERRORS(StatCounterType.PORT),
+    PORT_TRANSMIT_ERRORS(StatCounterType.PORT),
+
+    QUEUE_TRANSMITTED_BYTES(StatCounterType.QUEUE),
+    QUEUE_TRANSMITTED_PACKETS(StatCounterType.QUEUE),
+    QUEUE_TRANSMISSION_ERRORS(StatCounterType.QUEUE),
+
+    FLOW_BYTES(StatCounterType.FLOW),
+    FLOW_PACKETS(StatCounterType.FLOW),
+
+    GROUP_BYTES(StatCounterType.GROUP),
+    GROUP_PACKETS(StatCounterType.GROUP),
+
+    METER_BYTES_IN(StatCounterType.METER),
+    METER_PACKETS_IN(StatCounterType.METER);
+
+    /**
+     * Statistics owner type - node-connector, queue, flow, group or meter
+     */
+    public enum StatCounterType {
+        PORT, QUEUE, FLOW, GROUP, METER
+    }
+
+    private final StatCounterType type;
+    private final boolean counter32;
+    private int index;
+
+    static {
+        final int[] sizes = new int[StatCounterType.values().length];
+        for (final StatCounter counter : values()) {
+            counter.index = sizes[counter.type.ordinal()]++;
+        }
+    }
+
+    StatCounter(final StatCounterType type) {
+        this(type, false);
+    }
+
+    StatCounter(final StatCounterType type, final boolean counter32) {
+        this.type = type;
+        this.counter32 = counter32;
+    }
+
+    public StatCounterType getType() {
+        return type;
+    }
+
+    /**
+     * @return true if device counter is 32-bit, so its decrease could be a 32-bit wrap
+     */
+    public boolean isCounter32() {
+        return counter32;
+    }
+
+    /**
+     * @return position of the counter within counters of its type
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return counters of the type in order of their indexes
+     */
+    public static StatCounter[] valuesOf(final StatCounterType type) {
+        final List<StatCounter> counters = new ArrayList<>();
+        for (final StatCounter counter : values()) {
+            if (counter.type == type) {
+                counters.add(counter);
+            }
+        }
+        return counters.toArray(new StatCounter[counters.size()]);
+    }
+}
@@ -0,0 +1,33 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.openflowplugin.applications.statistics.manager;
+
+import java.util.EventListener;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+/**
+ * statistics-manager
+ * org.opendaylight.openflowplugin.applications.statistics.manager
+ *
+ * StatRateListener
+ * Listener for counter rates crossing the configured thresholds. Only the crossing
+ * is reported (rate got over the threshold or fell back under it), not every sample.
+ * Listener is called from the statistics commit thread, so it must not block.
+ */
+public interface StatRateListener extends EventListener {
+
+    /**
+     * @param ident statistics owner - node-connector, queue, flow, group or meter
+     * @param counter crossing counter
+     * @param ratePerSecond current rate of the counter
+     * @param exceeded true if the rate got over the threshold, false if it fell back under
+     */
+    void onRateThresholdCrossed(InstanceIdentifier<?> ident, StatCounter counter, double ratePerSecond,
+                                boolean exceeded);
+}
@@ -15,6 +15,8 @@ import org.opendaylight.controller.md.sal.common.api.data.TransactionChainListen
 import org.opendaylight.controller.sal.binding.api.NotificationProviderService;
 import org.opendaylight.controller.sal.binding.api.RpcConsumerRegistry;
 import org.opendaylight.openflowplugin.applications.statistics.manager.StatPermCollector.StatCapabTypes;
+import org.opendaylight.openflowplugin.applications.statistics.manager.impl.StatCounterRates;
+import org.opendaylight.openflowplugin.applications.statistics.manager.impl.StatOperationalShadow;
 import org.opendaylight.openflowplugin.applications.statistics.manager.impl.StatisticsManagerConfig;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.meters.Meter;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.Flow;
@@ -265,6 +267,21 @@ public interface StatisticsManager extends AutoCloseable, TransactionChainListen
 
     StatisticsManagerConfig getConfiguration();
 
+    /**
+     * Define Method : in-memory shadow of Operation/DS entities, which is used
+     * by commiters instead of reading Operation/DS before every commit
+     * (has to be used from DS Operation thread only)
+     * @return
+     */
+    StatOperationalShadow getOperationalShadow();
+
+    /**
+     * Define Method : rate engine which computes deltas and per-second rates of committed
+     * statistics counters and notifies {@link StatRateListener}s about threshold crossings
+     * @return
+     */
+    StatCounterRates getCounterRates();
+
     /**
      * A unique UUID is generated with each node added by the statistics manager implementation in order to uniquely
      * identify a session.
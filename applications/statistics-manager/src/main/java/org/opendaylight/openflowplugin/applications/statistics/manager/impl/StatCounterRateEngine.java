@@ -0,0 +1,258 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.openflowplugin.applications.statistics.manager.impl;
+
+import com.google.common.base.Preconditions;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import org.opendaylight.openflowplugin.applications.statistics.manager.StatCounter;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+/**
+ * statistics-manager
+ * org.opendaylight.openflowplugin.applications.statistics.manager.impl
+ *
+ * StatCounterRateEngine
+ * Keeps the previous sample of the counters of one statistics owner type (ports, queues, ...)
+ * and computes deltas and per-second rates of every new sample. Owners are mapped to slots
+ * of primitive arrays, freed slots are reused.
+ * Counter decrease is taken as counter wrap when the previous value was in the upper half
+ * of the counter range and the new one is in the lower half, otherwise as counter reset (switch
+ * reboot, re-created entry) and the new value is the delta. 32-bit range is used only for counters
+ * declared by {@link StatCounter#isCounter32()}. Decrease of the entry duration reported by
+ * the device is always a reset.
+ */
+final class StatCounterRateEngine {
+
+    static final long UNKNOWN_DURATION = -1L;
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final long COUNTER32_MAX = 0xffffffffL;
+    private static final double NANOS_PER_SECOND = 1000000000.0;
+
+    private final StatCounter[] counters;
+    private final int width;
+    /** per counter index - 32-bit device counter */
+    private final boolean[] counter32;
+    /** thresholds per counter index, not positive means no threshold */
+    private final double[] thresholds;
+
+    private final Map<InstanceIdentifier<?>, Integer> slots = new HashMap<>();
+    private int[] freeSlots = new int[INITIAL_CAPACITY];
+    private int freeCount;
+    private int nextSlot;
+
+    private long[] values;
+    private long[] deltas;
+    private double[] rates;
+    private long[] sampleNanos;
+    private long[] durations;
+    /** bit per counter index - rate is over the threshold */
+    private long[] exceeded;
+
+    StatCounterRateEngine(final StatCounter[] counters, final Map<StatCounter, Double> thresholds) {
+        Preconditions.checkArgument(counters.length > 0 && counters.length <= Long.SIZE);
+        this.counters = counters.clone();
+        this.width = counters.length;
+        this.thresholds = new double[width];
+        this.counter32 = new boolean[width];
+        for (int i = 0; i < width; i++) {
+            final Double threshold = thresholds.get(counters[i]);
+            this.thresholds[i] = threshold == null ? 0 : threshold;
+            this.counter32[i] = counters[i].isCounter32();
+        }
+        values = new long[INITIAL_CAPACITY * width];
+        deltas = new long[INITIAL_CAPACITY * width];
+        rates = new double[INITIAL_CAPACITY * width];
+        sampleNanos = new long[INITIAL_CAPACITY];
+        durations = new long[INITIAL_CAPACITY];
+        exceeded = new long[INITIAL_CAPACITY];
+    }
+
+    int getWidth() {
+        return width;
+    }
+
+    /**
+     * Method stores new sample of the owner counters and computes deltas and rates
+     * against the previous one. First sample of the owner has no rate.
+     *
+     * @param ident statistics owner
+     * @param sample cumulative counter values (unsigned) in order of counter indexes
+     * @param durationNanos entry duration reported by device or {@link #UNKNOWN_DURATION}
+     * @param nowNanos sample time
+     * @param crossings threshold crossings of the sample are added here
+     */
+    synchronized void update(final InstanceIdentifier<?> ident, final long[] sample, final long durationNanos,
+                             final long nowNanos, final List<StatCounterRates.Crossing> crossings) {
+        Preconditions.checkArgument(sample.length == width);
+        final Integer existing = slots.get(ident);
+        if (existing == null) {
+            final int slot = allocateSlot();
+            slots.put(ident, slot);
+            final int base = slot * width;
+            System.arraycopy(sample, 0, values, base, width);
+            Arrays.fill(deltas, base, base + width, 0L);
+            Arrays.fill(rates, base, base + width, Double.NaN);
+            sampleNanos[slot] = nowNanos;
+            durations[slot] = durationNanos;
+            exceeded[slot] = 0L;
+            return;
+        }
+
+        final int slot = existing;
+        final int base = slot * width;
+        final boolean reset = durationNanos != UNKNOWN_DURATION && durations[slot] != UNKNOWN_DURATION
+                && durationNanos < durations[slot];
+        final long elapsedNanos = reset ? durationNanos : nowNanos - sampleNanos[slot];
+        for (int i = 0; i < width; i++) {
+            final long previous = values[base + i];
+            final long current = sample[i];
+            final long delta;
+            if (reset) {
+                delta = current;
+            } else if (unsignedLess(current, previous)) {
+                delta = wrapDelta(previous, current, counter32[i]);
+            } else {
+                delta = current - previous;
+            }
+            values[base + i] = current;
+            deltas[base + i] = delta;
+            if (elapsedNanos > 0) {
+                final double rate = unsignedToDouble(delta) * NANOS_PER_SECOND / elapsedNanos;
+                rates[base + i] = rate;
+                checkThreshold(ident, slot, i, rate, crossings);
+            }
+        }
+        sampleNanos[slot] = nowNanos;
+        durations[slot] = durationNanos;
+    }
+
+    /**
+     * @return last rate per second of the counter, NaN if it is not known yet
+     */
+    synchronized double getRate(final InstanceIdentifier<?> ident, final int index) {
+        final Integer slot = slots.get(ident);
+        return slot == null ? Double.NaN : rates[slot * width + index];
+    }
+
+    /**
+     * @return counter increase between last two samples, 0 if it is not known yet
+     */
+    synchronized long getDelta(final InstanceIdentifier<?> ident, final int index) {
+        final Integer slot = slots.get(ident);
+        return slot == null ? 0L : deltas[slot * width + index];
+    }
+
+    synchronized void remove(final InstanceIdentifier<?> ident) {
+        final Integer slot = slots.remove(ident);
+        if (slot != null) {
+            freeSlot(slot);
+        }
+    }
+
+    /**
+     * Method removes all owners under the provided path (e.g. all ports of removed node)
+     */
+    synchronized void removeAll(final InstanceIdentifier<?> parent) {
+        final Iterator<Entry<InstanceIdentifier<?>, Integer>> it = slots.entrySet().iterator();
+        while (it.hasNext()) {
+            final Entry<InstanceIdentifier<?>, Integer> entry = it.next();
+            if (parent.contains(entry.getKey())) {
+                freeSlot(entry.getValue());
+                it.remove();
+            }
+        }
+    }
+
+    synchronized int size() {
+        return slots.size();
+    }
+
+    private void checkThreshold(final InstanceIdentifier<?> ident, final int slot, final int index,
+                                final double rate, final List<StatCounterRates.Crossing> crossings) {
+        final double threshold = thresholds[index];
+        if (threshold <= 0) {
+            return;
+        }
+        final long bit = 1L << index;
+        final boolean wasExceeded = (exceeded[slot] & bit) != 0;
+        final boolean isExceeded = rate >= threshold;
+        if (wasExceeded != isExceeded) {
+            exceeded[slot] ^= bit;
+            crossings.add(new StatCounterRates.Crossing(ident, counters[index], rate, isExceeded));
+        }
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        final int slot = nextSlot++;
+        if (slot == sampleNanos.length) {
+            final int capacity = sampleNanos.length * 2;
+            values = Arrays.copyOf(values, capacity * width);
+            deltas = Arrays.copyOf(deltas, capacity * width);
+            rates = Arrays.copyOf(rates, capacity * width);
+            sampleNanos = Arrays.copyOf(sampleNanos, capacity);
+            durations = Arrays.copyOf(durations, capacity);
+            exceeded = Arrays.copyOf(exceeded, capacity);
+        }
+        return slot;
+    }
+
+    private void freeSlot(final int slot) {
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    static long toNanos(final Long seconds, final Long nanoseconds) {
+        if (seconds == null) {
+            return UNKNOWN_DURATION;
+        }
+        return seconds * 1000000000L + (nanoseconds == null ? 0L : nanoseconds);
+    }
+
+    /**
+     * Counter went down - wrap of 32-bit or 64-bit counter, or counter reset
+     *
+     * @param counter32 counter is declared as 32-bit, 64-bit wrap applies otherwise
+     */
+    static long wrapDelta(final long previous, final long current, final boolean counter32) {
+        if (counter32) {
+            if (previous <= COUNTER32_MAX && previous > (COUNTER32_MAX >>> 1)
+                    && current >= 0 && current <= (COUNTER32_MAX >>> 1)) {
+                return current + COUNTER32_MAX + 1 - previous;
+            }
+            return current;
+        }
+        if (previous < 0 && current >= 0) {
+            // previous is in upper half of unsigned 64-bit range
+            return current - previous;
+        }
+        return current;
+    }
+
+    private static boolean unsignedLess(final long a, final long b) {
+        return a + Long.MIN_VALUE < b + Long.MIN_VALUE;
+    }
+
+    private static double unsignedToDouble(final long value) {
+        if (value >= 0) {
+            return value;
+        }
+        return ((value >>> 1) | (value & 1)) * 2.0;
+    }
+}
@@ -0,0 +1,221 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.openflowplugin.applications.statistics.manager.impl;
+
+import com.google.common.base.Preconditions;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.opendaylight.openflowplugin.applications.statistics.manager.StatCounter;
+import org.opendaylight.openflowplugin.applications.statistics.manager.StatCounter.StatCounterType;
+import org.opendaylight.openflowplugin.applications.statistics.manager.StatRateListener;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.yang.types.rev100924.Counter32;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.yang.types.rev100924.Counter64;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.model.statistics.types.rev130925.GenericQueueStatistics;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.model.statistics.types.rev130925.GenericStatistics;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.model.statistics.types.rev130925.NodeConnectorStatistics;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.types.rev131018.GroupStatistics;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.meter.types.rev130918.MeterStatistics;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node;
+import org.opendaylight.yangtools.concepts.AbstractListenerRegistration;
+import org.opendaylight.yangtools.concepts.ListenerRegistration;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * statistics-manager
+ * org.opendaylight.openflowplugin.applications.statistics.manager.impl
+ *
+ * StatCounterRates
+ * Rate engine of the statistics pipeline - commiters feed every committed statistics
+ * entry here, so deltas and per-second rates are computed once at ingest instead of
+ * by every consumer diffing Operational/DS snapshots. {@link StatRateListener}s are
+ * notified only about rates crossing the configured thresholds.
+ * Samples are fed from DS Operation thread, rates could be read from any thread.
+ */
+public class StatCounterRates {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StatCounterRates.class);
+
+    private final Map<StatCounterType, StatCounterRateEngine> engines = new EnumMap<>(StatCounterType.class);
+    private final List<StatRateListener> listeners = new CopyOnWriteArrayList<>();
+
+    public StatCounterRates(final Map<StatCounter, Double> thresholds) {
+        Preconditions.checkNotNull(thresholds);
+        for (final StatCounterType type : StatCounterType.values()) {
+            engines.put(type, new StatCounterRateEngine(StatCounter.valuesOf(type), thresholds));
+        }
+    }
+
+    public ListenerRegistration<StatRateListener> registerRateListener(final StatRateListener listener) {
+        listeners.add(Preconditions.checkNotNull(listener));
+        return new AbstractListenerRegistration<StatRateListener>(listener) {
+            @Override
+            protected void removeRegistration() {
+                listeners.remove(getInstance());
+            }
+        };
+    }
+
+    /**
+     * @param ident statistics owner
+     * @param counter counter of the owner type
+     * @return last per-second rate of the counter, NaN if the owner has less than two samples
+     */
+    public double getRate(final InstanceIdentifier<?> ident, final StatCounter counter) {
+        return engines.get(counter.getType()).getRate(ident, counter.getIndex());
+    }
+
+    /**
+     * @param ident statistics owner
+     * @param counter counter of the owner type
+     * @return counter increase between last two samples
+     */
+    public long getDelta(final InstanceIdentifier<?> ident, final StatCounter counter) {
+        return engines.get(counter.getType()).getDelta(ident, counter.getIndex());
+    }
+
+    void portSample(final InstanceIdentifier<?> ident, final NodeConnectorStatistics stats) {
+        final long[] sample = new long[engines.get(StatCounterType.PORT).getWidth()];
+        if (stats.getBytes() != null) {
+            sample[StatCounter.PORT_RECEIVED_BYTES.getIndex()] = toLong(stats.getBytes().getReceived());
+            sample[StatCounter.PORT_TRANSMITTED_BYTES.getIndex()] = toLong(stats.getBytes().getTransmitted());
+        }
+        if (stats.getPackets() != null) {
+            sample[StatCounter.PORT_RECEIVED_PACKETS.getIndex()] = toLong(stats.getPackets().getReceived());
+            sample[StatCounter.PORT_TRANSMITTED_PACKETS.getIndex()] = toLong(stats.getPackets().getTransmitted());
+        }
+        sample[StatCounter.PORT_RECEIVE_DROPS.getIndex()] = toLong(stats.getReceiveDrops());
+        sample[StatCounter.PORT_TRANSMIT_DROPS.getIndex()] = toLong(stats.getTransmitDrops());
+        sample[StatCounter.PORT_RECEIVE_ERRORS.getIndex()] = toLong(stats.getReceiveErrors());
+        sample[StatCounter.PORT_TRANSMIT_ERRORS.getIndex()] = toLong(stats.getTransmitErrors());
+        final long duration = stats.getDuration() == null ? StatCounterRateEngine.UNKNOWN_DURATION
+                : toNanos(stats.getDuration().getSecond(), stats.getDuration().getNanosecond());
+        update(StatCounterType.PORT, ident, sample, duration);
+    }
+
+    void queueSample(final InstanceIdentifier<?> ident, final GenericQueueStatistics stats) {
+        final long[] sample = new long[engines.get(StatCounterType.QUEUE).getWidth()];
+        sample[StatCounter.QUEUE_TRANSMITTED_BYTES.getIndex()] = toLong(stats.getTransmittedBytes());
+        sample[StatCounter.QUEUE_TRANSMITTED_PACKETS.getIndex()] = toLong(stats.getTransmittedPackets());
+        sample[StatCounter.QUEUE_TRANSMISSION_ERRORS.getIndex()] = toLong(stats.getTransmissionErrors());
+        final long duration = stats.getDuration() == null ? StatCounterRateEngine.UNKNOWN_DURATION
+                : toNanos(stats.getDuration().getSecond(), stats.getDuration().getNanosecond());
+        update(StatCounterType.QUEUE, ident, sample, duration);
+    }
+
+    void flowSample(final InstanceIdentifier<?> ident, final GenericStatistics stats) {
+        final long[] sample = new long[engines.get(StatCounterType.FLOW).getWidth()];
+        sample[StatCounter.FLOW_BYTES.getIndex()] = toLong(stats.getByteCount());
+        sample[StatCounter.FLOW_PACKETS.getIndex()] = toLong(stats.getPacketCount());
+        final long duration = stats.getDuration() == null ? StatCounterRateEngine.UNKNOWN_DURATION
+                : toNanos(stats.getDuration().getSecond(), stats.getDuration().getNanosecond());
+        update(StatCounterType.FLOW, ident, sample, duration);
+    }
+
+    void groupSample(final InstanceIdentifier<?> ident, final GroupStatistics stats) {
+        final long[] sample = new long[engines.get(StatCounterType.GROUP).getWidth()];
+        sample[StatCounter.GROUP_BYTES.getIndex()] = toLong(stats.getByteCount());
+        sample[StatCounter.GROUP_PACKETS.getIndex()] = toLong(stats.getPacketCount());
+        final long duration = stats.getDuration() == null ? StatCounterRateEngine.UNKNOWN_DURATION
+                : toNanos(stats.getDuration().getSecond(), stats.getDuration().getNanosecond());
+        update(StatCounterType.GROUP, ident, sample, duration);
+    }
+
+    void meterSample(final InstanceIdentifier<?> ident, final MeterStatistics stats) {
+        final long[] sample = new long[engines.get(StatCounterType.METER).getWidth()];
+        sample[StatCounter.METER_BYTES_IN.getIndex()] = toLong(stats.getByteInCount());
+        sample[StatCounter.METER_PACKETS_IN.getIndex()] = toLong(stats.getPacketInCount());
+        final long duration = stats.getDuration() == null ? StatCounterRateEngine.UNKNOWN_DURATION
+                : toNanos(stats.getDuration().getSecond(), stats.getDuration().getNanosecond());
+        update(StatCounterType.METER, ident, sample, duration);
+    }
+
+    /**
+     * Method drops samples of the removed statistics owner
+     */
+    void remove(final StatCounterType type, final InstanceIdentifier<?> ident) {
+        engines.get(type).remove(ident);
+    }
+
+    /**
+     * Method drops samples of all statistics owners of disconnected Node
+     */
+    void removeNode(final InstanceIdentifier<Node> nodeIdent) {
+        for (final StatCounterRateEngine engine : engines.values()) {
+            engine.removeAll(nodeIdent);
+        }
+    }
+
+    private void update(final StatCounterType type, final InstanceIdentifier<?> ident, final long[] sample,
+                        final long durationNanos) {
+        final List<Crossing> crossings = new ArrayList<>(0);
+        engines.get(type).update(ident, sample, durationNanos, System.nanoTime(), crossings);
+        for (final Crossing crossing : crossings) {
+            for (final StatRateListener listener : listeners) {
+                try {
+                    listener.onRateThresholdCrossed(crossing.ident, crossing.counter, crossing.rate, crossing.exceeded);
+                } catch (final Exception e) {
+                    LOG.warn("Rate listener {} failed for {}", listener, crossing.ident, e);
+                }
+            }
+        }
+    }
+
+    private static long toLong(final BigInteger value) {
+        return value == null ? 0L : value.longValue();
+    }
+
+    private static long toLong(final Counter64 value) {
+        return value == null ? 0L : toLong(value.getValue());
+    }
+
+    private static long toNanos(final Counter32 seconds, final Counter32 nanoseconds) {
+        return StatCounterRateEngine.toNanos(seconds == null ? null : seconds.getValue(),
+                nanoseconds == null ? null : nanoseconds.getValue());
+    }
+
+    /**
+     * Threshold crossing found by {@link StatCounterRateEngine}
+     */
+    static final class Crossing {
+        private final InstanceIdentifier<?> ident;
+        private final StatCounter counter;
+        private final double rate;
+        private final boolean exceeded;
+
+        Crossing(final InstanceIdentifier<?> ident, final StatCounter counter, final double rate,
+                 final boolean exceeded) {
+            this.ident = ident;
+            this.counter = counter;
+            this.rate = rate;
+            this.exceeded = exceeded;
+        }
+
+        InstanceIdentifier<?> getIdent() {
+            return ident;
+        }
+
+        StatCounter getCounter() {
+            return counter;
+        }
+
+        double getRate() {
+            return rate;
+        }
+
+        boolean isExceeded() {
+            return exceeded;
+        }
+    }
+}
@@ -14,7 +14,6 @@ import com.google.common.collect.HashBiMap;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -25,11 +24,12 @@ import org.opendaylight.controller.md.sal.binding.api.ReadWriteTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
 import org.opendaylight.controller.sal.binding.api.NotificationProviderService;
+import org.opendaylight.openflowplugin.applications.statistics.manager.StatCounter.StatCounterType;
 import org.opendaylight.openflowplugin.applications.statistics.manager.StatRpcMsgManager.TransactionCacheContainer;
 import org.opendaylight.openflowplugin.applications.statistics.manager.StatisticsManager;
 import org.opendaylight.openflowplugin.applications.statistics.manager.StatisticsManager.StatDataStoreOperation;
 import org.opendaylight.openflowplugin.applications.statistics.manager.StatisticsManager.StatDataStoreOperation.StatsManagerOperationType;
-import org.opendaylight.openflowplugin.applications.statistics.manager.impl.helper.FlowComparator;
+import org.opendaylight.openflowplugin.applications.statistics.manager.impl.helper.CompiledFlow;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNode;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowHashIdMapping;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowHashIdMappingBuilder;
@@ -325,6 +325,8 @@ public class StatListenCommitFlow extends StatAbstractListenCommit<Flow, Openday
         final TableKey tableKey;
         final BiMap<FlowHashIdMapKey, FlowId> flowIdByHash;
         List<Flow> configFlows;
+        /* configFlows compiled for matching, same order */
+        List<CompiledFlow> compiledConfigFlows;
 
         public TableFlowUpdateState(final KeyedInstanceIdentifier<Table, TableKey> tablePath, final Table table) {
             tableRef = tablePath;
@@ -368,15 +370,17 @@ public class StatListenCommitFlow extends StatAbstractListenCommit<Flow, Openday
         }
 
         private FlowKey searchInConfiguration(final FlowAndStatisticsMapList flowStat, final ReadWriteTransaction trans) {
-            initConfigFlows();
-            final Iterator<Flow> it = configFlows.iterator();
-            while(it.hasNext()) {
-                final Flow cfgFlow = it.next();
-                final FlowKey cfgKey = cfgFlow.getKey();
+            /* config flows are read and compiled once per statistics collection of the table */
+            if(configFlows == null) {
+                initConfigFlows();
+            }
+            final CompiledFlow compiledFlowStat = CompiledFlow.compile(flowStat);
+            for (int i = 0; i < compiledConfigFlows.size(); i++) {
+                final FlowKey cfgKey = configFlows.get(i).getKey();
                 final FlowId cfgFlowId = cfgKey.getId();
 
                 if(! flowIdByHash.inverse().containsKey(cfgFlowId)) {
-                    if(FlowComparator.flowEquals(flowStat, cfgFlow)) {
+                    if(CompiledFlow.flowEquals(compiledFlowStat, compiledConfigFlows.get(i))) {
                         return cfgKey;
                     }
                 }
@@ -395,6 +399,10 @@ public class StatListenCommitFlow extends StatAbstractListenCommit<Flow, Openday
             } else {
                 configFlows = new ArrayList<>(localList);
             }
+            compiledConfigFlows = new ArrayList<>(configFlows.size());
+            for (final Flow cfgFlow : configFlows) {
+                compiledConfigFlows.add(CompiledFlow.compile(cfgFlow));
+            }
         }
 
         private FlowKey getFlowKeyAndRemoveHash(final FlowHashIdMapKey key) {
@@ -434,6 +442,7 @@ public class StatListenCommitFlow extends StatAbstractListenCommit<Flow, Openday
             addStatistics(flowBuilder, flowStat);
             final InstanceIdentifier<Flow> flowIdent = tableRef.child(Flow.class, flowKey);
             trans.put(LogicalDatastoreType.OPERATIONAL, flowIdent, flowBuilder.build());
+            manager.getCounterRates().flowSample(flowIdent, flowStat);
             /* check life for Alien flows */
             if (flowKey.getId().getValue().startsWith(ALIEN_SYSTEM_FLOW_ID)) {
                 removeData(flowIdent, REMOVE_AFTER_MISSING_COLLECTION);
@@ -476,6 +485,7 @@ public class StatListenCommitFlow extends StatAbstractListenCommit<Flow, Openday
                         tableRef.augmentation(FlowHashIdMapping.class).child(FlowHashIdMap.class, entryForRemove.getKey());
                 tx.delete(LogicalDatastoreType.OPERATIONAL, flowRef);
                 tx.delete(LogicalDatastoreType.OPERATIONAL, flHashIdent);
+                manager.getCounterRates().remove(StatCounterType.FLOW, flowRef);
             }
         }
 
@@ -8,21 +8,22 @@
 
 package org.opendaylight.openflowplugin.applications.statistics.manager.impl;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import java.util.UUID;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.ReadWriteTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
-import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
 import org.opendaylight.controller.sal.binding.api.NotificationProviderService;
+import org.opendaylight.openflowplugin.applications.statistics.manager.StatCounter.StatCounterType;
 import org.opendaylight.openflowplugin.applications.statistics.manager.StatPermCollector.StatCapabTypes;
 import org.opendaylight.openflowplugin.applications.statistics.manager.StatRpcMsgManager.TransactionCacheContainer;
 import org.opendaylight.openflowplugin.applications.statistics.manager.StatisticsManager;
 import org.opendaylight.openflowplugin.applications.statistics.manager.StatisticsManager.StatDataStoreOperation;
 import org.opendaylight.openflowplugin.applications.statistics.manager.StatisticsManager.StatDataStoreOperation.StatsManagerOperationType;
+import org.opendaylight.openflowplugin.applications.statistics.manager.impl.StatOperationalShadow.NodeShadow;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNode;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.transaction.rev150304.TransactionAware;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.transaction.rev150304.TransactionId;
@@ -110,16 +111,10 @@ public class StatListenCommitGroup extends StatAbstractListenCommit<Group, Opend
             public void applyOperation(final ReadWriteTransaction tx) {
                 final InstanceIdentifier<Node> nodeIdent = InstanceIdentifier
                         .create(Nodes.class).child(Node.class, new NodeKey(nodeId));
-                /* Validate exist FlowCapableNode */
+                /* Validate exist Node */
                 final InstanceIdentifier<FlowCapableNode> fNodeIdent = nodeIdent.augmentation(FlowCapableNode.class);
-                Optional<FlowCapableNode> fNode = Optional.absent();
-                try {
-                    fNode = tx.read(LogicalDatastoreType.OPERATIONAL,fNodeIdent).checkedGet();
-                }
-                catch (final ReadFailedException e) {
-                    LOG.debug("Read Operational/DS for FlowCapableNode fail! {}", fNodeIdent, e);
-                }
-                if ( ! fNode.isPresent()) {
+                final Optional<NodeShadow> nodeShadow = manager.getOperationalShadow().getNodeShadow(nodeIdent, tx);
+                if ( ! nodeShadow.isPresent()) {
                     return;
                 }
                 /* Get and Validate TransactionCacheContainer */
@@ -128,16 +123,11 @@ public class StatListenCommitGroup extends StatAbstractListenCommit<Group, Opend
                     return;
                 }
                 /* Prepare List actual Groups and not updated Groups will be removed */
-                final List<Group> existGroups = fNode.get().getGroup() != null
-                        ? fNode.get().getGroup() : Collections.<Group> emptyList();
-                final List<GroupKey> existGroupKeys = new ArrayList<>();
-                for (final Group group : existGroups) {
-                    existGroupKeys.add(group.getKey());
-                }
+                final Set<GroupKey> existGroupKeys = nodeShadow.get().getGroupKeys();
                 /* GroupDesc processing */
-                statGroupDescCommit(txContainer, tx, fNodeIdent, existGroupKeys);
+                statGroupDescCommit(txContainer, tx, fNodeIdent, nodeShadow.get(), existGroupKeys);
                 /* Delete all not presented Group Nodes */
-                deleteAllNotPresentNode(fNodeIdent, tx, Collections.unmodifiableList(existGroupKeys));
+                deleteAllNotPresentNode(fNodeIdent, tx, nodeShadow.get(), Collections.unmodifiableSet(existGroupKeys));
                 /* Notification for continue collecting statistics */
                 notifyToCollectNextStatistics(nodeIdent, transId);
             }
@@ -186,14 +176,7 @@ public class StatListenCommitGroup extends StatAbstractListenCommit<Group, Opend
                             nodeIdent.augmentation(NodeGroupFeatures.class);
                     final InstanceIdentifier<GroupFeatures> groupFeatureIdent = nodeGroupFeatureIdent
                             .child(GroupFeatures.class);
-                    Optional<Node> node = Optional.absent();
-                    try {
-                        node = tx.read(LogicalDatastoreType.OPERATIONAL, nodeIdent).checkedGet();
-                    }
-                    catch (final ReadFailedException e) {
-                        LOG.debug("Read Operational/DS for Node fail! {}", nodeIdent, e);
-                    }
-                    if (node.isPresent()) {
+                    if (manager.getOperationalShadow().getNodeShadow(nodeIdent, tx).isPresent()) {
                         tx.merge(LogicalDatastoreType.OPERATIONAL, nodeGroupFeatureIdent, new NodeGroupFeaturesBuilder().build(), true);
                         tx.put(LogicalDatastoreType.OPERATIONAL, groupFeatureIdent, stats);
                         manager.registerAdditionalNodeFeature(nodeIdent, StatCapabTypes.GROUP_STATS);
@@ -230,14 +213,8 @@ public class StatListenCommitGroup extends StatAbstractListenCommit<Group, Opend
                 final InstanceIdentifier<Node> nodeIdent = InstanceIdentifier
                         .create(Nodes.class).child(Node.class, new NodeKey(nodeId));
                 /* Node exist check */
-                Optional<Node> node = Optional.absent();
-                try {
-                    node = tx.read(LogicalDatastoreType.OPERATIONAL, nodeIdent).checkedGet();
-                }
-                catch (final ReadFailedException e) {
-                    LOG.debug("Read Operational/DS for Node fail! {}", nodeIdent, e);
-                }
-                if ( ! node.isPresent()) {
+                final Optional<NodeShadow> nodeShadow = manager.getOperationalShadow().getNodeShadow(nodeIdent, tx);
+                if ( ! nodeShadow.isPresent()) {
                     return;
                 }
 
@@ -257,7 +234,7 @@ public class StatListenCommitGroup extends StatAbstractListenCommit<Group, Opend
                     if ( ! (notif instanceof GroupStatisticsUpdated)) {
                         break;
                     }
-                    statGroupCommit(((GroupStatisticsUpdated) notif).getGroupStats(), nodeIdent, tx);
+                    statGroupCommit(((GroupStatisticsUpdated) notif).getGroupStats(), nodeIdent, nodeShadow.get(), tx);
                 }
                 if ( ! notifGroup.isPresent()) {
                     notifyToCollectNextStatistics(nodeIdent, transId);
@@ -271,7 +248,7 @@ public class StatListenCommitGroup extends StatAbstractListenCommit<Group, Opend
     }
 
     private void statGroupCommit(final List<GroupStats> groupStats, final InstanceIdentifier<Node> nodeIdent,
-            final ReadWriteTransaction tx) {
+            final NodeShadow nodeShadow, final ReadWriteTransaction tx) {
 
         Preconditions.checkNotNull(groupStats);
         Preconditions.checkNotNull(nodeIdent);
@@ -282,27 +259,23 @@ public class StatListenCommitGroup extends StatAbstractListenCommit<Group, Opend
         for (final GroupStats gStat : groupStats) {
             final GroupStatistics stats = new GroupStatisticsBuilder(gStat).build();
 
-            final InstanceIdentifier<Group> groupIdent = fNodeIdent.child(Group.class, new GroupKey(gStat.getGroupId()));
+            final GroupKey groupKey = new GroupKey(gStat.getGroupId());
+            final InstanceIdentifier<Group> groupIdent = fNodeIdent.child(Group.class, groupKey);
             final InstanceIdentifier<NodeGroupStatistics> nGroupStatIdent =groupIdent
                     .augmentation(NodeGroupStatistics.class);
             final InstanceIdentifier<GroupStatistics> gsIdent = nGroupStatIdent.child(GroupStatistics.class);
             /* Statistics Writing */
-            Optional<Group> group = Optional.absent();
-            try {
-                group = tx.read(LogicalDatastoreType.OPERATIONAL, groupIdent).checkedGet();
-            }
-            catch (final ReadFailedException e) {
-                LOG.debug("Read Operational/DS for Group node fail! {}", groupIdent, e);
-            }
-            if (group.isPresent()) {
+            if (nodeShadow.containsGroup(groupKey, tx)) {
                 tx.merge(LogicalDatastoreType.OPERATIONAL, nGroupStatIdent, new NodeGroupStatisticsBuilder().build(), true);
                 tx.put(LogicalDatastoreType.OPERATIONAL, gsIdent, stats);
+                manager.getCounterRates().groupSample(groupIdent, gStat);
             }
         }
     }
 
     private void statGroupDescCommit(final Optional<TransactionCacheContainer<?>> txContainer, final ReadWriteTransaction tx,
-            final InstanceIdentifier<FlowCapableNode> fNodeIdent, final List<GroupKey> existGroupKeys) {
+            final InstanceIdentifier<FlowCapableNode> fNodeIdent, final NodeShadow nodeShadow,
+            final Set<GroupKey> existGroupKeys) {
 
         Preconditions.checkNotNull(existGroupKeys);
         Preconditions.checkNotNull(txContainer);
@@ -330,13 +303,14 @@ public class StatListenCommitGroup extends StatAbstractListenCommit<Group, Opend
                     groupBuilder.addAugmentation(NodeGroupDescStats.class, groupDesc.build());
                     existGroupKeys.remove(groupKey);
                     tx.put(LogicalDatastoreType.OPERATIONAL, groupRef, groupBuilder.build());
+                    nodeShadow.addGroup(groupKey);
                 }
             }
         }
     }
 
     private void deleteAllNotPresentNode(final InstanceIdentifier<FlowCapableNode> fNodeIdent,
-            final ReadWriteTransaction trans, final List<GroupKey> deviceGroupKeys) {
+            final ReadWriteTransaction trans, final NodeShadow nodeShadow, final Set<GroupKey> deviceGroupKeys) {
 
         Preconditions.checkNotNull(fNodeIdent);
         Preconditions.checkNotNull(trans);
@@ -348,17 +322,10 @@ public class StatListenCommitGroup extends StatAbstractListenCommit<Group, Opend
         for (final GroupKey key : deviceGroupKeys) {
             final InstanceIdentifier<Group> delGroupIdent = fNodeIdent.child(Group.class, key);
             LOG.trace("Group {} has to removed.", key);
-            Optional<Group> delGroup = Optional.absent();
-            try {
-                delGroup = trans.read(LogicalDatastoreType.OPERATIONAL, delGroupIdent).checkedGet();
-            }
-            catch (final ReadFailedException e) {
-                // NOOP - probably another transaction delete that node
-                LOG.debug("Group {} was probably deleted via other transaction. Exception {}", delGroupIdent, e);
-            }
-            if (delGroup.isPresent()) {
-                trans.delete(LogicalDatastoreType.OPERATIONAL, delGroupIdent);
-            }
+            /* key comes from shadow, so Group was seen in Operational/DS */
+            trans.delete(LogicalDatastoreType.OPERATIONAL, delGroupIdent);
+            nodeShadow.removeGroup(key);
+            manager.getCounterRates().remove(StatCounterType.GROUP, delGroupIdent);
         }
     }
 }
@@ -18,6 +18,7 @@ import org.opendaylight.controller.md.sal.binding.api.ReadWriteTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
 import org.opendaylight.controller.sal.binding.api.NotificationProviderService;
+import org.opendaylight.openflowplugin.applications.statistics.manager.StatCounter.StatCounterType;
 import org.opendaylight.openflowplugin.applications.statistics.manager.StatPermCollector.StatCapabTypes;
 import org.opendaylight.openflowplugin.applications.statistics.manager.StatRpcMsgManager.TransactionCacheContainer;
 import org.opendaylight.openflowplugin.applications.statistics.manager.StatisticsManager;
@@ -297,6 +298,7 @@ public class StatListenCommitMeter extends StatAbstractListenCommit<Meter, Opend
             if (meter.isPresent()) {
                 tx.merge(LogicalDatastoreType.OPERATIONAL, nodeMeterStatIdent, new NodeMeterStatisticsBuilder().build(), true);
                 tx.put(LogicalDatastoreType.OPERATIONAL, msIdent, stats);
+                manager.getCounterRates().meterSample(meterIdent, mStat);
             }
         }
     }
@@ -359,6 +361,7 @@ public class StatListenCommitMeter extends StatAbstractListenCommit<Meter, Opend
             if (delMeter.isPresent()) {
                 tx.delete(LogicalDatastoreType.OPERATIONAL, delMeterIdent);
             }
+            manager.getCounterRates().remove(StatCounterType.METER, delMeterIdent);
         }
     }
 }
@@ -11,21 +11,20 @@ package org.opendaylight.openflowplugin.applications.statistics.manager.impl;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
+import java.util.Set;
 
 import java.util.UUID;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.ReadWriteTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
-import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
 import org.opendaylight.controller.sal.binding.api.NotificationProviderService;
+import org.opendaylight.openflowplugin.applications.statistics.manager.StatCounter.StatCounterType;
 import org.opendaylight.openflowplugin.applications.statistics.manager.StatRpcMsgManager.TransactionCacheContainer;
 import org.opendaylight.openflowplugin.applications.statistics.manager.StatisticsManager;
 import org.opendaylight.openflowplugin.applications.statistics.manager.StatisticsManager.StatDataStoreOperation;
 import org.opendaylight.openflowplugin.applications.statistics.manager.StatisticsManager.StatDataStoreOperation.StatsManagerOperationType;
+import org.opendaylight.openflowplugin.applications.statistics.manager.impl.StatOperationalShadow.NodeShadow;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNodeConnector;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.transaction.rev150304.TransactionAware;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.transaction.rev150304.TransactionId;
@@ -104,15 +103,8 @@ public class StatListenCommitQueue extends StatAbstractListenCommit<Queue, Opend
                         .child(Node.class, new NodeKey(nodeId));
 
                 /* Validate exist Node */
-                Optional<Node> fNode = Optional.absent();
-                try {
-                    fNode = tx.read(LogicalDatastoreType.OPERATIONAL, nodeIdent).checkedGet();
-                }
-                catch (final ReadFailedException e) {
-                    LOG.debug("Read Operational/DS for Node fail! {}", nodeIdent, e);
-                }
-                if ( ! fNode.isPresent()) {
-                    LOG.trace("Read Operational/DS for Node fail! Node {} doesn't exist.", nodeIdent);
+                final Optional<NodeShadow> nodeShadow = manager.getOperationalShadow().getNodeShadow(nodeIdent, tx);
+                if ( ! nodeShadow.isPresent()) {
                     return;
                 }
 
@@ -122,21 +114,11 @@ public class StatListenCommitQueue extends StatAbstractListenCommit<Queue, Opend
                     return;
                 }
                 /* Prepare List actual Queues and not updated Queues will be removed */
-                final List<NodeConnector> existConnectors = fNode.get().getNodeConnector() != null
-                        ? fNode.get().getNodeConnector() : Collections.<NodeConnector> emptyList();
-                final Map<QueueKey, NodeConnectorKey> existQueueKeys = new HashMap<>();
-                for (final NodeConnector connect : existConnectors) {
-                    final List<Queue> listQueues = connect.getAugmentation(FlowCapableNodeConnector.class).getQueue();
-                    if (listQueues != null) {
-                        for (final Queue queue : listQueues) {
-                            existQueueKeys.put(queue.getKey(), connect.getKey());
-                        }
-                    }
-                }
+                final Set<InstanceIdentifier<Queue>> existQueueIdents = nodeShadow.get().getQueueIdents();
                 /* Queue processing */
-                statQueueCommit(txContainer, tx, nodeIdent, existQueueKeys);
+                statQueueCommit(txContainer, tx, nodeIdent, nodeShadow.get(), existQueueIdents);
                 /* Delete all not presented Group Nodes */
-                deleteAllNotPresentedNodes(nodeIdent, tx, Collections.unmodifiableMap(existQueueKeys));
+                deleteAllNotPresentedNodes(nodeIdent, tx, nodeShadow.get(), Collections.unmodifiableSet(existQueueIdents));
                 /* Notification for continue collecting statistics */
                 notifyToCollectNextStatistics(nodeIdent, transId);
             }
@@ -150,9 +132,10 @@ public class StatListenCommitQueue extends StatAbstractListenCommit<Queue, Opend
 
     private void statQueueCommit(
             final Optional<TransactionCacheContainer<?>> txContainer, final ReadWriteTransaction tx,
-            final InstanceIdentifier<Node> nodeIdent, final Map<QueueKey, NodeConnectorKey> existQueueKeys) {
+            final InstanceIdentifier<Node> nodeIdent, final NodeShadow nodeShadow,
+            final Set<InstanceIdentifier<Queue>> existQueueIdents) {
 
-        Preconditions.checkNotNull(existQueueKeys);
+        Preconditions.checkNotNull(existQueueIdents);
         Preconditions.checkNotNull(txContainer);
         Preconditions.checkNotNull(nodeIdent);
         Preconditions.checkNotNull(tx);
@@ -179,40 +162,32 @@ public class StatListenCommitQueue extends StatAbstractListenCommit<Queue, Opend
                             .augmentation(FlowCapableNodeConnector.class)
                             .child(Queue.class, qKey);
                     final InstanceIdentifier<FlowCapableNodeConnectorQueueStatisticsData> queueStatIdent = queueIdent.augmentation(FlowCapableNodeConnectorQueueStatisticsData.class);
-                    existQueueKeys.remove(qKey);
+                    existQueueIdents.remove(queueIdent);
                     tx.merge(LogicalDatastoreType.OPERATIONAL, queueIdent, new QueueBuilder().setKey(qKey).build());
                     tx.put(LogicalDatastoreType.OPERATIONAL, queueStatIdent, statBuild.build());
+                    nodeShadow.addQueue(queueIdent);
+                    manager.getCounterRates().queueSample(queueIdent, queueStat);
                 }
             }
         }
     }
 
     private void deleteAllNotPresentedNodes(final InstanceIdentifier<Node> nodeIdent,
-            final ReadWriteTransaction tx, final Map<QueueKey, NodeConnectorKey> existQueueKeys) {
+            final ReadWriteTransaction tx, final NodeShadow nodeShadow, final Set<InstanceIdentifier<Queue>> existQueueIdents) {
 
         Preconditions.checkNotNull(nodeIdent);
         Preconditions.checkNotNull(tx);
 
-        if (existQueueKeys == null) {
+        if (existQueueIdents == null) {
             return;
         }
 
-        for (final Entry<QueueKey, NodeConnectorKey> entry : existQueueKeys.entrySet()) {
-            final InstanceIdentifier<Queue> queueIdent = nodeIdent.child(NodeConnector.class, entry.getValue())
-                    .augmentation(FlowCapableNodeConnector.class).child(Queue.class, entry.getKey());
+        for (final InstanceIdentifier<Queue> queueIdent : existQueueIdents) {
             LOG.trace("Queue {} has to removed.", queueIdent);
-            Optional<Queue> delQueue = Optional.absent();
-            try {
-                delQueue = tx.read(LogicalDatastoreType.OPERATIONAL, queueIdent).checkedGet();
-            }
-            catch (final ReadFailedException e) {
-                // NOOP - probably another transaction delete that node
-                LOG.debug("Queue {} was probably deleted via another transaction. Exception {}", queueIdent, e);
-            }
-            if (delQueue.isPresent()) {
-                tx.delete(LogicalDatastoreType.OPERATIONAL, queueIdent);
-            }
+            /* identifier comes from shadow, so Queue was seen in Operational/DS */
+            tx.delete(LogicalDatastoreType.OPERATIONAL, queueIdent);
+            nodeShadow.removeQueue(queueIdent);
+            manager.getCounterRates().remove(StatCounterType.QUEUE, queueIdent);
         }
     }
 }
-
@@ -14,15 +14,20 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.UUID;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.DataChangeListener;
+import org.opendaylight.controller.md.sal.binding.api.ReadWriteTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.AsyncDataBroker.DataChangeScope;
 import org.opendaylight.controller.md.sal.common.api.data.AsyncDataChangeEvent;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.controller.sal.binding.api.NotificationProviderService;
+import org.opendaylight.openflowplugin.applications.statistics.manager.StatCounter.StatCounterType;
 import org.opendaylight.openflowplugin.applications.statistics.manager.StatNodeRegistration;
 import org.opendaylight.openflowplugin.applications.statistics.manager.StatPermCollector.StatCapabTypes;
 import org.opendaylight.openflowplugin.applications.statistics.manager.StatisticsManager;
+import org.opendaylight.openflowplugin.applications.statistics.manager.StatisticsManager.StatDataStoreOperation;
+import org.opendaylight.openflowplugin.applications.statistics.manager.StatisticsManager.StatDataStoreOperation.StatsManagerOperationType;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FeatureCapability;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNode;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNodeUpdated;
@@ -34,11 +39,14 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.Fl
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.flow.node.SwitchFeatures;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeConnectorRemoved;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeConnectorUpdated;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeId;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeRef;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeRemoved;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeUpdated;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.Nodes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.node.NodeConnector;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.NodeKey;
 import org.opendaylight.yangtools.concepts.ListenerRegistration;
 import org.opendaylight.yangtools.yang.binding.DataObject;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
@@ -147,12 +155,37 @@ public class StatNodeRegistrationImpl implements StatNodeRegistration, DataChang
 
     @Override
     public void onNodeConnectorRemoved(final NodeConnectorRemoved notification) {
-        // NOOP
+        Preconditions.checkNotNull(notification);
+        final InstanceIdentifier<NodeConnector> nodeConnectorIdent =
+                notification.getNodeConnectorRef().getValue().firstIdentifierOf(NodeConnector.class);
+        if (nodeConnectorIdent != null) {
+            manager.getOperationalShadow().nodeConnectorRemoved(nodeConnectorIdent);
+            /* port statistics for the connector could still be queued - drop it behind them */
+            final NodeId nodeId = nodeConnectorIdent.firstKeyOf(Node.class, NodeKey.class).getId();
+            manager.enqueue(new StatDataStoreOperation(StatsManagerOperationType.NODE_UPDATE, nodeId) {
+
+                @Override
+                public void applyOperation(final ReadWriteTransaction tx) {
+                    manager.getOperationalShadow().removeNodeConnector(nodeConnectorIdent);
+                    manager.getCounterRates().remove(StatCounterType.PORT, nodeConnectorIdent);
+                }
+
+                @Override
+                public UUID generatedUUIDForNode() {
+                    return manager.getGeneratedUUIDForNode(getNodeIdentifier());
+                }
+            });
+        }
     }
 
     @Override
     public void onNodeConnectorUpdated(final NodeConnectorUpdated notification) {
-        // NOOP
+        Preconditions.checkNotNull(notification);
+        final InstanceIdentifier<NodeConnector> nodeConnectorIdent =
+                notification.getNodeConnectorRef().getValue().firstIdentifierOf(NodeConnector.class);
+        if (nodeConnectorIdent != null) {
+            manager.getOperationalShadow().nodeConnectorUpdated(nodeConnectorIdent);
+        }
     }
 
     @Override
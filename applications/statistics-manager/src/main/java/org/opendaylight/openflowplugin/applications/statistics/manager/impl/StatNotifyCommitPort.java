@@ -14,12 +14,12 @@ import java.util.List;
 import java.util.UUID;
 import org.opendaylight.controller.md.sal.binding.api.ReadWriteTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
-import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
 import org.opendaylight.controller.sal.binding.api.NotificationProviderService;
 import org.opendaylight.openflowplugin.applications.statistics.manager.StatRpcMsgManager.TransactionCacheContainer;
 import org.opendaylight.openflowplugin.applications.statistics.manager.StatisticsManager;
 import org.opendaylight.openflowplugin.applications.statistics.manager.StatisticsManager.StatDataStoreOperation;
 import org.opendaylight.openflowplugin.applications.statistics.manager.StatisticsManager.StatDataStoreOperation.StatsManagerOperationType;
+import org.opendaylight.openflowplugin.applications.statistics.manager.impl.StatOperationalShadow.NodeShadow;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.transaction.rev150304.TransactionAware;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.transaction.rev150304.TransactionId;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeId;
@@ -120,17 +120,9 @@ public class StatNotifyCommitPort extends StatAbstractNotifyCommit<OpendaylightP
     private void statPortCommit(final List<NodeConnectorStatisticsAndPortNumberMap> portStats,
             final InstanceIdentifier<Node> nodeIdent, final ReadWriteTransaction tx) {
 
-        /* check exist FlowCapableNode and write statistics probable with parent */
-        Optional<Node> fNode = Optional.absent();
-        try {
-            fNode = tx.read(LogicalDatastoreType.OPERATIONAL, nodeIdent).checkedGet();
-        }
-        catch (final ReadFailedException e) {
-            LOG.debug("Read Operational/DS for Node fail! {}", nodeIdent, e);
-            return;
-        }
-        if ( ! fNode.isPresent()) {
-            LOG.trace("Read Operational/DS for Node fail! Node {} doesn't exist.", nodeIdent);
+        /* check exist Node and write statistics only for known NodeConnectors */
+        final Optional<NodeShadow> nodeShadow = manager.getOperationalShadow().getNodeShadow(nodeIdent, tx);
+        if ( ! nodeShadow.isPresent()) {
             return;
         }
         for (final NodeConnectorStatisticsAndPortNumberMap nConnectPort : portStats) {
@@ -141,18 +133,11 @@ public class StatNotifyCommitPort extends StatAbstractNotifyCommit<OpendaylightP
                     .augmentation(FlowCapableNodeConnectorStatisticsData.class);
             final InstanceIdentifier<FlowCapableNodeConnectorStatistics> flowCapNodeConnStatIdent =
                     nodeConnStatIdent.child(FlowCapableNodeConnectorStatistics.class);
-            Optional<NodeConnector> fNodeConector;
-            try {
-                fNodeConector = tx.read(LogicalDatastoreType.OPERATIONAL, nodeConnectorIdent).checkedGet();
-            }
-            catch (final ReadFailedException e) {
-                LOG.debug("Read NodeConnector {} in Operational/DS fail!", nodeConnectorIdent, e);
-                fNodeConector = Optional.absent();
-            }
-            if (fNodeConector.isPresent()) {
+            if (nodeShadow.get().containsNodeConnector(key, tx)) {
                 tx.merge(LogicalDatastoreType.OPERATIONAL, nodeConnectorIdent, new NodeConnectorBuilder().setId(key.getId()).build());
                 tx.merge(LogicalDatastoreType.OPERATIONAL, nodeConnStatIdent, new FlowCapableNodeConnectorStatisticsDataBuilder().build());
                 tx.put(LogicalDatastoreType.OPERATIONAL, flowCapNodeConnStatIdent, stats);
+                manager.getCounterRates().portSample(nodeConnectorIdent, stats);
             }
         }
     }
@@ -0,0 +1,246 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.openflowplugin.applications.statistics.manager.impl;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.opendaylight.controller.md.sal.binding.api.ReadTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNode;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNodeConnector;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.port.rev130925.queues.Queue;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.types.rev131018.groups.Group;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.types.rev131018.groups.GroupKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.node.NodeConnector;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.node.NodeConnectorKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node;
+import org.opendaylight.yangtools.yang.binding.DataObject;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * statistics-manager
+ * org.opendaylight.openflowplugin.applications.statistics.manager.impl
+ *
+ * StatOperationalShadow
+ * In-memory index of Operational/DS entities (node connectors, groups, queues) per Node,
+ * so commit operations don't need to read Operational/DS before every write.
+ * Node shadow is seeded by one Node read, kept by the commiters themselves (writes/deletes)
+ * and by NodeConnector removed notifications, and dropped together with Node.
+ * Shadow is positive only - entity missing in shadow is checked against Operational/DS
+ * (it could have been written by somebody else) and cached when found.
+ *
+ * Lookups and re-caching run on the DS operation thread, but NodeConnector and Node
+ * notifications arrive on the notification thread while commits for them could still be queued.
+ * Notification thread therefore only marks connector as removed (marked connector is never
+ * re-cached from a stale Operational/DS read) and the shadow content itself is dropped by
+ * DS operations enqueued behind those commits.
+ */
+public class StatOperationalShadow {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StatOperationalShadow.class);
+
+    private final ConcurrentMap<InstanceIdentifier<Node>, NodeShadow> nodes = new ConcurrentHashMap<>();
+
+    /**
+     * Method returns shadow of the Node. Unknown Node is read from Operational/DS
+     * (only once) and shadow is seeded from its content.
+     *
+     * @param nodeIdent
+     * @param tx - transaction used for seeding read
+     * @return shadow of Node or absent if Node doesn't exist in Operational/DS
+     */
+    public Optional<NodeShadow> getNodeShadow(final InstanceIdentifier<Node> nodeIdent, final ReadTransaction tx) {
+        Preconditions.checkNotNull(nodeIdent);
+        final NodeShadow lookup = nodes.get(nodeIdent);
+        if (lookup != null) {
+            return Optional.of(lookup);
+        }
+
+        final Optional<Node> node = read(tx, nodeIdent);
+        if ( ! node.isPresent()) {
+            LOG.trace("Node {} doesn't exist in Operational/DS.", nodeIdent);
+            return Optional.absent();
+        }
+        final NodeShadow newShadow = new NodeShadow(nodeIdent);
+        newShadow.seed(node.get());
+        final NodeShadow check = nodes.putIfAbsent(nodeIdent, newShadow);
+        return Optional.of(check == null ? newShadow : check);
+    }
+
+    /**
+     * Node connector removed notification - connector is not reported as existing
+     * anymore, even if an older Operational/DS snapshot still contains it
+     *
+     * @param nodeConnectorIdent
+     */
+    public void nodeConnectorRemoved(final InstanceIdentifier<NodeConnector> nodeConnectorIdent) {
+        final NodeShadow nodeShadow = nodes.get(nodeConnectorIdent.firstIdentifierOf(Node.class));
+        final NodeConnectorKey key = nodeConnectorIdent.firstKeyOf(NodeConnector.class, NodeConnectorKey.class);
+        if (nodeShadow != null && key != null) {
+            nodeShadow.removedNodeConnectors.add(key);
+        }
+    }
+
+    /**
+     * Node connector updated notification - connector (re)added, it could be cached again
+     *
+     * @param nodeConnectorIdent
+     */
+    public void nodeConnectorUpdated(final InstanceIdentifier<NodeConnector> nodeConnectorIdent) {
+        final NodeShadow nodeShadow = nodes.get(nodeConnectorIdent.firstIdentifierOf(Node.class));
+        final NodeConnectorKey key = nodeConnectorIdent.firstKeyOf(NodeConnector.class, NodeConnectorKey.class);
+        if (nodeShadow != null && key != null) {
+            nodeShadow.removedNodeConnectors.remove(key);
+        }
+    }
+
+    /**
+     * Remove connector together with its queues - has to run on DS operation thread
+     *
+     * @param nodeConnectorIdent
+     */
+    public void removeNodeConnector(final InstanceIdentifier<NodeConnector> nodeConnectorIdent) {
+        final NodeShadow nodeShadow = nodes.get(nodeConnectorIdent.firstIdentifierOf(Node.class));
+        final NodeConnectorKey key = nodeConnectorIdent.firstKeyOf(NodeConnector.class, NodeConnectorKey.class);
+        if (nodeShadow != null && key != null) {
+            nodeShadow.removeNodeConnector(key);
+        }
+    }
+
+    public void removeNode(final InstanceIdentifier<Node> nodeIdent) {
+        nodes.remove(nodeIdent);
+    }
+
+    /**
+     * Drop whole shadow - e.g. failed transaction, so the shadow can't be trusted anymore
+     */
+    public void clear() {
+        nodes.clear();
+    }
+
+    private static <T extends DataObject> Optional<T> read(final ReadTransaction tx, final InstanceIdentifier<T> path) {
+        try {
+            return tx.read(LogicalDatastoreType.OPERATIONAL, path).checkedGet();
+        }
+        catch (final ReadFailedException e) {
+            LOG.debug("Read Operational/DS for {} fail!", path, e);
+            return Optional.absent();
+        }
+    }
+
+    private static <K> Set<K> newConcurrentSet() {
+        return Collections.newSetFromMap(new ConcurrentHashMap<K, Boolean>());
+    }
+
+    /**
+     * Shadow of one Node. Getters of key sets return snapshots, so they could be
+     * used as "not updated yet" lists for deleting not presented entities.
+     */
+    public static final class NodeShadow {
+
+        private final InstanceIdentifier<Node> nodeIdent;
+        private final Set<NodeConnectorKey> nodeConnectors = newConcurrentSet();
+        private final Set<NodeConnectorKey> removedNodeConnectors = newConcurrentSet();
+        private final Set<GroupKey> groups = newConcurrentSet();
+        private final Set<InstanceIdentifier<Queue>> queues = newConcurrentSet();
+
+        private NodeShadow(final InstanceIdentifier<Node> nodeIdent) {
+            this.nodeIdent = nodeIdent;
+        }
+
+        private void seed(final Node node) {
+            if (node.getNodeConnector() != null) {
+                for (final NodeConnector connector : node.getNodeConnector()) {
+                    nodeConnectors.add(connector.getKey());
+                    final FlowCapableNodeConnector fcConnector = connector.getAugmentation(FlowCapableNodeConnector.class);
+                    if (fcConnector != null && fcConnector.getQueue() != null) {
+                        for (final Queue queue : fcConnector.getQueue()) {
+                            queues.add(nodeIdent.child(NodeConnector.class, connector.getKey())
+                                    .augmentation(FlowCapableNodeConnector.class).child(Queue.class, queue.getKey()));
+                        }
+                    }
+                }
+            }
+            final FlowCapableNode fNode = node.getAugmentation(FlowCapableNode.class);
+            if (fNode != null && fNode.getGroup() != null) {
+                for (final Group group : fNode.getGroup()) {
+                    groups.add(group.getKey());
+                }
+            }
+        }
+
+        public boolean containsNodeConnector(final NodeConnectorKey key, final ReadTransaction tx) {
+            if (removedNodeConnectors.contains(key)) {
+                return false;
+            }
+            if (nodeConnectors.contains(key)) {
+                return true;
+            }
+            if (read(tx, nodeIdent.child(NodeConnector.class, key)).isPresent()) {
+                nodeConnectors.add(key);
+                return true;
+            }
+            return false;
+        }
+
+        private void removeNodeConnector(final NodeConnectorKey key) {
+            nodeConnectors.remove(key);
+            final Iterator<InstanceIdentifier<Queue>> queueIterator = queues.iterator();
+            while (queueIterator.hasNext()) {
+                if (key.equals(queueIterator.next().firstKeyOf(NodeConnector.class, NodeConnectorKey.class))) {
+                    queueIterator.remove();
+                }
+            }
+        }
+
+        public boolean containsGroup(final GroupKey key, final ReadTransaction tx) {
+            if (groups.contains(key)) {
+                return true;
+            }
+            if (read(tx, nodeIdent.augmentation(FlowCapableNode.class).child(Group.class, key)).isPresent()) {
+                groups.add(key);
+                return true;
+            }
+            return false;
+        }
+
+        public Set<GroupKey> getGroupKeys() {
+            return new HashSet<>(groups);
+        }
+
+        public void addGroup(final GroupKey key) {
+            groups.add(key);
+        }
+
+        public void removeGroup(final GroupKey key) {
+            groups.remove(key);
+        }
+
+        public Set<InstanceIdentifier<Queue>> getQueueIdents() {
+            return new HashSet<>(queues);
+        }
+
+        public void addQueue(final InstanceIdentifier<Queue> queueIdent) {
+            queues.add(queueIdent);
+        }
+
+        public void removeQueue(final InstanceIdentifier<Queue> queueIdent) {
+            queues.remove(queueIdent);
+        }
+    }
+}
@@ -8,10 +8,12 @@
 
 package org.opendaylight.openflowplugin.applications.statistics.manager.impl;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Queue;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
@@ -54,11 +56,10 @@ import org.slf4j.LoggerFactory;
 import com.google.common.base.Joiner;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.JdkFutureAdapters;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
 
 
@@ -71,10 +72,12 @@ import com.google.common.util.concurrent.SettableFuture;
  * wrapped methods for prepare easy access to RPC Statistics Device Services like getAllStatisticsFor...
  *
  * In next Class implement process for joining multipart messages.
- * Class internally use two WeakHashMap and GuavaCache for holding values for joining multipart msg.
- * One Weak map is used for holding all Multipart Messages and second is used for possible input
+ * Class internally use {@link StatTransactionTable} (per Node, keyed by transaction id) for holding
+ * TransactionCacheContainers, which join all Multipart Messages with possible input
  * Config/DS light-weight DataObject (DataObject contains only necessary identification fields as
  * TableId, GroupId, MeterId or for flow Match, Priority, FlowCookie, TableId and FlowId ...
+ * Table lookups and notification joining are done directly in the caller thread, RPC job thread
+ * is used only for sending RPCs and for advancing the table expiry wheel.
  *
  * @author avishnoi@in.ibm.com <a href="mailto:vdemcak@cisco.com">Vaclav Demcak</a>
  *
@@ -84,7 +87,7 @@ public class StatRpcMsgManagerImpl implements StatRpcMsgManager {
 
     private static final Logger LOG = LoggerFactory.getLogger(StatRpcMsgManagerImpl.class);
 
-    private final Cache<String, TransactionCacheContainer<? super TransactionAware>> txCache;
+    private final StatTransactionTable txTable;
 
     private static final int MAX_CACHE_SIZE = 10000;
     private static final int QUEUE_CAPACITY = 5000;
@@ -133,8 +136,8 @@ public class StatRpcMsgManagerImpl implements StatRpcMsgManager {
                 "OpendaylightQueueStatisticsService can not be null!");
 
         statsRpcJobQueue = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
-        txCache = CacheBuilder.newBuilder().expireAfterWrite((maxNodeForCollector * POSSIBLE_STAT_WAIT_FOR_NOTIFICATION), TimeUnit.SECONDS)
-                .maximumSize(MAX_CACHE_SIZE).build();
+        txTable = new StatTransactionTable(Math.max(1L, maxNodeForCollector * POSSIBLE_STAT_WAIT_FOR_NOTIFICATION),
+                TimeUnit.SECONDS, MAX_CACHE_SIZE, System.nanoTime());
     }
 
     @Override
@@ -145,10 +148,18 @@ public class StatRpcMsgManagerImpl implements StatRpcMsgManager {
 
     @Override
     public void run() {
+        final long tickNanos = txTable.getTickNanos();
          /* Neverending cyle - wait for finishing */
         while ( ! finishing) {
             try {
-                statsRpcJobQueue.take().call();
+                final RpcJobsQueue job = statsRpcJobQueue.poll(tickNanos, TimeUnit.NANOSECONDS);
+                if (job != null) {
+                    job.call();
+                }
+                final int expired = txTable.expire(System.nanoTime());
+                if (expired > 0) {
+                    LOG.debug("{} statistics transactions expired without last multipart notification", expired);
+                }
             }
             catch (final Exception e) {
                 LOG.warn("Stat Element RPC executor fail!", e);
@@ -192,10 +203,12 @@ public class StatRpcMsgManagerImpl implements StatRpcMsgManager {
                     if (resultTransId != null) {
                         resultTransId.set(id);
                     }
-                    final String cacheKey = buildCacheKey(id, nodeKey.getId());
                     final TransactionCacheContainer<? super TransactionAware> container =
                             new TransactionCacheContainerImpl<>(id, inputObj, nodeKey.getId());
-                    txCache.put(cacheKey, container);
+                    if ( ! txTable.register(nodeKey.getId(), id.getValue().longValue(), container, System.nanoTime())) {
+                        LOG.warn("Statistics transaction table is full, transaction {} for node {} is not registered",
+                                id.getValue(), nodeKey.getId().getValue());
+                    }
                 }
             }
 
@@ -206,11 +219,11 @@ public class StatRpcMsgManagerImpl implements StatRpcMsgManager {
 
         }
 
-        Futures.addCallback(JdkFutureAdapters.listenInPoolThread(future),new FutureCallbackImpl());
-    }
-
-    private String buildCacheKey(final TransactionId id, final NodeId nodeId) {
-        return String.valueOf(id.getValue()) + "-" + nodeId.getValue();
+        // RPC results are listenable from plugin, pool thread adapter is a fallback only
+        @SuppressWarnings("unchecked")
+        final ListenableFuture<RpcResult<T>> listenableFuture = future instanceof ListenableFuture
+                ? (ListenableFuture<RpcResult<T>>) future : JdkFutureAdapters.listenInPoolThread(future);
+        Futures.addCallback(listenableFuture, new FutureCallbackImpl());
     }
 
     @Override
@@ -219,24 +232,9 @@ public class StatRpcMsgManagerImpl implements StatRpcMsgManager {
         Preconditions.checkArgument(id != null, MSG_TRANS_ID_NOT_NULL);
         Preconditions.checkArgument(nodeId != null, MSG_NODE_ID_NOT_NULL);
 
-        final String key = buildCacheKey(id, nodeId);
-        final SettableFuture<Optional<TransactionCacheContainer<?>>> result = SettableFuture.create();
-
-        final RpcJobsQueue getTransactionCacheContainer = new RpcJobsQueue() {
-
-            @Override
-            public Void call() throws Exception {
-                final Optional<TransactionCacheContainer<?>> resultContainer =
-                        Optional.<TransactionCacheContainer<?>> fromNullable(txCache.getIfPresent(key));
-                if (resultContainer.isPresent()) {
-                    txCache.invalidate(key);
-                }
-                result.set(resultContainer);
-                return null;
-            }
-        };
-        addStatJob(getTransactionCacheContainer);
-        return result;
+        final Optional<TransactionCacheContainer<?>> resultContainer =
+                Optional.<TransactionCacheContainer<?>> fromNullable(txTable.remove(nodeId, id.getValue().longValue()));
+        return Futures.immediateFuture(resultContainer);
     }
 
     @Override
@@ -244,21 +242,7 @@ public class StatRpcMsgManagerImpl implements StatRpcMsgManager {
         Preconditions.checkArgument(id != null, MSG_TRANS_ID_NOT_NULL);
         Preconditions.checkArgument(nodeId != null, MSG_NODE_ID_NOT_NULL);
 
-        final String key = buildCacheKey(id, nodeId);
-        final SettableFuture<Boolean> checkStatId = SettableFuture.create();
-
-        final RpcJobsQueue isExpecedStatistics = new RpcJobsQueue() {
-
-            @Override
-            public Void call() throws Exception {
-                final Optional<TransactionCacheContainer<?>> result =
-                        Optional.<TransactionCacheContainer<?>> fromNullable(txCache.getIfPresent(key));
-                checkStatId.set(Boolean.valueOf(result.isPresent()));
-                return null;
-            }
-        };
-        addStatJob(isExpecedStatistics);
-        return checkStatId;
+        return Futures.immediateFuture(Boolean.valueOf(txTable.get(nodeId, id.getValue().longValue()) != null));
     }
 
     @Override
@@ -266,20 +250,13 @@ public class StatRpcMsgManagerImpl implements StatRpcMsgManager {
         Preconditions.checkArgument(notification != null, "TransactionAware can not be null!");
         Preconditions.checkArgument(nodeId != null, MSG_NODE_ID_NOT_NULL);
 
-        final RpcJobsQueue addNotification = new RpcJobsQueue() {
-
-            @Override
-            public Void call() throws Exception {
-                final TransactionId txId = notification.getTransactionId();
-                final String key = buildCacheKey(txId, nodeId);
-                final TransactionCacheContainer<? super TransactionAware> container = (txCache.getIfPresent(key));
-                if (container != null) {
-                    container.addNotif(notification);
-                }
-                return null;
-            }
-        };
-        addStatJob(addNotification);
+        final TransactionId txId = notification.getTransactionId();
+        @SuppressWarnings("unchecked")
+        final TransactionCacheContainer<? super TransactionAware> container =
+                (TransactionCacheContainer<? super TransactionAware>) txTable.get(nodeId, txId.getValue().longValue());
+        if (container != null) {
+            container.addNotif(notification);
+        }
     }
 
     @Override
@@ -506,12 +483,12 @@ public class StatRpcMsgManagerImpl implements StatRpcMsgManager {
 
         private final TransactionId id;
         private final NodeId nId;
-        private final List<T> notifications;
+        private final Queue<T> notifications;
         private final Optional<? extends DataObject> confInput;
 
         public <D extends DataObject> TransactionCacheContainerImpl (final TransactionId id, final D input, final NodeId nodeId) {
             this.id = Preconditions.checkNotNull(id, MSG_TRANS_ID_NOT_NULL);
-            notifications = new CopyOnWriteArrayList<T>();
+            notifications = new ConcurrentLinkedQueue<T>();
             confInput = Optional.fromNullable(input);
             nId = nodeId;
         }
@@ -533,7 +510,7 @@ public class StatRpcMsgManagerImpl implements StatRpcMsgManager {
 
         @Override
         public List<T> getNotifications() {
-            return notifications;
+            return new ArrayList<>(notifications);
         }
 
         @Override
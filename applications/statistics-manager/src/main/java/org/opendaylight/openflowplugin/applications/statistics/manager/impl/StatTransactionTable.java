@@ -0,0 +1,164 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.openflowplugin.applications.statistics.manager.impl;
+
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.opendaylight.openflowplugin.applications.statistics.manager.StatRpcMsgManager.TransactionCacheContainer;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeId;
+
+/**
+ * statistics-manager
+ * org.opendaylight.openflowplugin.applications.statistics.manager.impl
+ *
+ * StatTransactionTable
+ * Lock-free table of registered multipart transactions - one map per Node keyed by transaction
+ * id value, so the lookups could be done directly from notification threads.
+ * Registered transactions expire by hashed timing wheel which is advanced by {@link #expire(long)}
+ * from a single thread (RPC job thread). Wheel holds expiry entries only, so a transaction taken
+ * out of the table earlier is just skipped when its slot comes.
+ */
+final class StatTransactionTable {
+
+    private static final int WHEEL_SLOTS = 64;
+
+    private final ConcurrentMap<NodeId, ConcurrentMap<Long, TransactionCacheContainer<?>>> nodes =
+            new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int maxSize;
+
+    private final List<Queue<Expiry>> wheel;
+    private final long tickNanos;
+    private final long ttlTicks;
+    private final long startNanos;
+    private long currentTick;
+
+    StatTransactionTable(final long ttl, final TimeUnit unit, final int maxSize, final long nowNanos) {
+        Preconditions.checkArgument(ttl > 0, "Transaction TTL has to be positive!");
+        this.maxSize = maxSize;
+        this.tickNanos = Math.max(1L, unit.toNanos(ttl) / WHEEL_SLOTS);
+        this.ttlTicks = WHEEL_SLOTS;
+        this.startNanos = nowNanos;
+        wheel = new ArrayList<>(WHEEL_SLOTS);
+        for (int i = 0; i < WHEEL_SLOTS; i++) {
+            wheel.add(new ConcurrentLinkedQueue<Expiry>());
+        }
+    }
+
+    /**
+     * @return wheel tick period, it is the resolution of the transaction expiry
+     */
+    long getTickNanos() {
+        return tickNanos;
+    }
+
+    /**
+     * Method registers the transaction container, an existing registration with same id is replaced.
+     *
+     * @return false if the table is full and the container was not registered
+     */
+    boolean register(final NodeId nodeId, final long xid, final TransactionCacheContainer<?> container,
+                     final long nowNanos) {
+        if (size.incrementAndGet() > maxSize) {
+            size.decrementAndGet();
+            return false;
+        }
+        ConcurrentMap<Long, TransactionCacheContainer<?>> nodeTable = nodes.get(nodeId);
+        if (nodeTable == null) {
+            final ConcurrentMap<Long, TransactionCacheContainer<?>> newTable = new ConcurrentHashMap<>();
+            nodeTable = nodes.putIfAbsent(nodeId, newTable);
+            if (nodeTable == null) {
+                nodeTable = newTable;
+            }
+        }
+        if (nodeTable.put(xid, container) != null) {
+            size.decrementAndGet();
+        }
+        final long deadlineTick = tickOf(nowNanos) + ttlTicks;
+        wheel.get((int) (deadlineTick % WHEEL_SLOTS)).offer(new Expiry(nodeId, xid, container, deadlineTick));
+        return true;
+    }
+
+    TransactionCacheContainer<?> get(final NodeId nodeId, final long xid) {
+        final ConcurrentMap<Long, TransactionCacheContainer<?>> nodeTable = nodes.get(nodeId);
+        return nodeTable == null ? null : nodeTable.get(xid);
+    }
+
+    TransactionCacheContainer<?> remove(final NodeId nodeId, final long xid) {
+        final ConcurrentMap<Long, TransactionCacheContainer<?>> nodeTable = nodes.get(nodeId);
+        if (nodeTable == null) {
+            return null;
+        }
+        final TransactionCacheContainer<?> removed = nodeTable.remove(xid);
+        if (removed != null) {
+            size.decrementAndGet();
+        }
+        return removed;
+    }
+
+    int size() {
+        return size.get();
+    }
+
+    /**
+     * Method advances the wheel up to the provided time and drops all expired transactions.
+     * It has to be called from one thread only.
+     *
+     * @return number of expired transactions
+     */
+    int expire(final long nowNanos) {
+        final long targetTick = tickOf(nowNanos);
+        int expired = 0;
+        while (currentTick < targetTick) {
+            currentTick++;
+            final Queue<Expiry> slot = wheel.get((int) (currentTick % WHEEL_SLOTS));
+            final List<Expiry> notYet = new ArrayList<>();
+            Expiry expiry;
+            while ((expiry = slot.poll()) != null) {
+                if (expiry.deadlineTick > currentTick) {
+                    notYet.add(expiry);
+                    continue;
+                }
+                final ConcurrentMap<Long, TransactionCacheContainer<?>> nodeTable = nodes.get(expiry.nodeId);
+                if (nodeTable != null && nodeTable.remove(expiry.xid, expiry.container)) {
+                    size.decrementAndGet();
+                    expired++;
+                }
+            }
+            slot.addAll(notYet);
+        }
+        return expired;
+    }
+
+    private long tickOf(final long nowNanos) {
+        return Math.max(0L, (nowNanos - startNanos) / tickNanos);
+    }
+
+    private static final class Expiry {
+        private final NodeId nodeId;
+        private final long xid;
+        private final TransactionCacheContainer<?> container;
+        private final long deadlineTick;
+
+        private Expiry(final NodeId nodeId, final long xid, final TransactionCacheContainer<?> container,
+                       final long deadlineTick) {
+            this.nodeId = nodeId;
+            this.xid = xid;
+            this.container = container;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
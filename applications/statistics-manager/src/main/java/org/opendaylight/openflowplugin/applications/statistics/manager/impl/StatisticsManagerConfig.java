@@ -1,12 +1,19 @@
 package org.opendaylight.openflowplugin.applications.statistics.manager.impl;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import org.opendaylight.openflowplugin.applications.statistics.manager.StatCounter;
+
 public final class StatisticsManagerConfig {
     private final int maxNodesForCollector;
     private final int minRequestNetMonitorInterval;
+    private final Map<StatCounter, Double> rateThresholds;
 
     private StatisticsManagerConfig(StatisticsManagerConfigBuilder builder) {
         this.maxNodesForCollector = builder.getMaxNodesForCollector();
         this.minRequestNetMonitorInterval = builder.getMinRequestNetMonitorInterval();
+        this.rateThresholds = Collections.unmodifiableMap(new EnumMap<>(builder.getRateThresholds()));
     }
 
     public int getMaxNodesForCollector() {
@@ -17,6 +24,13 @@ public final class StatisticsManagerConfig {
         return minRequestNetMonitorInterval;
     }
 
+    /**
+     * @return per-second rate thresholds of counters, crossings are reported to rate listeners
+     */
+    public Map<StatCounter, Double> getRateThresholds() {
+        return rateThresholds;
+    }
+
     public static StatisticsManagerConfigBuilder builder() {
         return new StatisticsManagerConfigBuilder();
     }
@@ -24,6 +38,7 @@ public final class StatisticsManagerConfig {
     public static class StatisticsManagerConfigBuilder {
         private int maxNodesForCollector;
         private int minRequestNetMonitorInterval;
+        private final Map<StatCounter, Double> rateThresholds = new EnumMap<>(StatCounter.class);
 
         public int getMaxNodesForCollector() {
             return maxNodesForCollector;
@@ -41,6 +56,14 @@ public final class StatisticsManagerConfig {
             this.minRequestNetMonitorInterval = minRequestNetMonitorInterval;
         }
 
+        public Map<StatCounter, Double> getRateThresholds() {
+            return rateThresholds;
+        }
+
+        public void setRateThreshold(StatCounter counter, double ratePerSecond) {
+            this.rateThresholds.put(counter, ratePerSecond);
+        }
+
         public StatisticsManagerConfig build() {
             return new StatisticsManagerConfig(this);
         }
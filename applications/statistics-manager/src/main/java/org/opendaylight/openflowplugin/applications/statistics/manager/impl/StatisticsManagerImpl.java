@@ -36,6 +36,7 @@ import org.opendaylight.openflowplugin.applications.statistics.manager.StatPermC
 import org.opendaylight.openflowplugin.applications.statistics.manager.StatPermCollector.StatCapabTypes;
 import org.opendaylight.openflowplugin.applications.statistics.manager.StatRpcMsgManager;
 import org.opendaylight.openflowplugin.applications.statistics.manager.StatisticsManager;
+import org.opendaylight.openflowplugin.applications.statistics.manager.StatisticsManager.StatDataStoreOperation.StatsManagerOperationType;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.meters.Meter;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.Flow;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.statistics.rev130819.OpendaylightFlowStatisticsListener;
@@ -45,6 +46,7 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.port.rev130925.q
 import org.opendaylight.yang.gen.v1.urn.opendaylight.group.statistics.rev131111.OpendaylightGroupStatisticsListener;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.group.types.rev131018.groups.Group;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.NodeKey;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.meter.statistics.rev131111.OpendaylightMeterStatisticsListener;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.port.statistics.rev131214.OpendaylightPortStatisticsListener;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.queue.statistics.rev131216.OpendaylightQueueStatisticsListener;
@@ -96,9 +98,12 @@ public class StatisticsManagerImpl implements StatisticsManager, Runnable {
    private StatNotifyCommiter<OpendaylightPortStatisticsListener> portNotifyCommiter;
 
    private final StatisticsManagerConfig statManagerConfig;
+   private final StatOperationalShadow operationalShadow = new StatOperationalShadow();
+   private final StatCounterRates counterRates;
 
    public StatisticsManagerImpl (final DataBroker dataBroker, final StatisticsManagerConfig statManagerconfig) {
        statManagerConfig = Preconditions.checkNotNull(statManagerconfig);
+       counterRates = new StatCounterRates(statManagerConfig.getRateThresholds());
        this.dataBroker = Preconditions.checkNotNull(dataBroker, "DataBroker can not be null!");
        ThreadFactory threadFact;
        threadFact = new ThreadFactoryBuilder().setNameFormat("odl-stat-rpc-oper-thread-%d").build();
@@ -178,11 +183,13 @@ public class StatisticsManagerImpl implements StatisticsManager, Runnable {
                int ops = 0;
                do {
                    Pair<StatPermCollector, UUID> statPermCollectorUUIDPair = nodeCollectorMap.get(op.getNodeIdentifier());
-                   if (statPermCollectorUUIDPair != null && statPermCollectorUUIDPair.getRight().equals(op.getNodeUUID())) {
+                   if (StatsManagerOperationType.NODE_REMOVAL.equals(op.getType())
+                           || (statPermCollectorUUIDPair != null && statPermCollectorUUIDPair.getRight().equals(op.getNodeUUID()))) {
                        // dont apply operations for nodes which have been disconnected or if there uuids do not match
                        // this can happen if operations are queued and node is removed.
                        // if the uuids dont match, it means that the stat operation are stale and belong to the same node
                        // which got disconnected and connected again.
+                       // node removal cleans up after the node was unregistered, so it is always applied.
                        op.applyOperation(tx);
                        ops++;
                    } else {
@@ -206,6 +213,7 @@ public class StatisticsManagerImpl implements StatisticsManager, Runnable {
                LOG.warn("Unhandled exception during processing statistics. Restarting transaction chain.", e);
                txChain.close();
                txChain = dataBroker.createTransactionChain(StatisticsManagerImpl.this);
+               operationalShadow.clear();
                cleanDataStoreOperQueue();
            }
        }
@@ -224,6 +232,8 @@ public class StatisticsManagerImpl implements StatisticsManager, Runnable {
    public void onTransactionChainFailed(final TransactionChain<?, ?> chain, final AsyncTransaction<?, ?> transaction,
            final Throwable cause) {
        LOG.warn("Failed to export Flow Capable Statistics, Transaction {} failed.",transaction.getIdentifier(),cause);
+       // writes of failed transaction are already part of the shadow - it can't be trusted anymore
+       operationalShadow.clear();
    }
 
    @Override
@@ -299,6 +309,23 @@ public class StatisticsManagerImpl implements StatisticsManager, Runnable {
     @Override
     public void disconnectedNodeUnregistration(final InstanceIdentifier<Node> nodeIdent) {
         flowListeningCommiter.cleanForDisconnect(nodeIdent);
+        operationalShadow.removeNode(nodeIdent);
+        counterRates.removeNode(nodeIdent);
+        /* operation applied at the moment could seed the shadow again - drop it once more behind it */
+        enqueue(new StatDataStoreOperation(StatsManagerOperationType.NODE_REMOVAL,
+                nodeIdent.firstKeyOf(Node.class, NodeKey.class).getId()) {
+
+            @Override
+            public void applyOperation(final ReadWriteTransaction tx) {
+                operationalShadow.removeNode(nodeIdent);
+                counterRates.removeNode(nodeIdent);
+            }
+
+            @Override
+            public UUID generatedUUIDForNode() {
+                return getGeneratedUUIDForNode(getNodeIdentifier());
+            }
+        });
 
         Pair<StatPermCollector, UUID> collectorUUIDPair = nodeCollectorMap.get(nodeIdent);
         if (collectorUUIDPair != null) {
@@ -389,6 +416,16 @@ public class StatisticsManagerImpl implements StatisticsManager, Runnable {
         return statManagerConfig;
     }
 
+    @Override
+    public StatOperationalShadow getOperationalShadow() {
+        return operationalShadow;
+    }
+
+    @Override
+    public StatCounterRates getCounterRates() {
+        return counterRates;
+    }
+
     @Override
     public UUID getGeneratedUUIDForNode(InstanceIdentifier<Node> nodeInstanceIdentifier) {
         Pair<StatPermCollector, UUID> permCollectorUUIDPair = nodeCollectorMap.get(nodeInstanceIdentifier);
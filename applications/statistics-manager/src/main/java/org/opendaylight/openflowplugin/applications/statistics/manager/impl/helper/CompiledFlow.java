@@ -0,0 +1,296 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.applications.statistics.manager.impl.helper;
+
+import com.google.common.base.Preconditions;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Objects;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev100924.Ipv4Prefix;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev100924.PortNumber;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.yang.types.rev100924.MacAddress;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.Flow;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.flow.Match;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.model.match.types.rev131026.MacAddressFilter;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.model.match.types.rev131026.match.EthernetMatch;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.model.match.types.rev131026.match.IpMatch;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.model.match.types.rev131026.match.Layer3Match;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.model.match.types.rev131026.match.Layer4Match;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.model.match.types.rev131026.match.VlanMatch;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.model.match.types.rev131026.match.layer._3.match.Ipv4Match;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.model.match.types.rev131026.match.layer._4.match.TcpMatch;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.model.match.types.rev131026.match.layer._4.match.UdpMatch;
+
+/**
+ * Flow pre-normalized for the {@link FlowComparator} equality - compiled once per flow,
+ * compared many times. Priority default is filled in, MAC addresses are parsed to numbers
+ * (so case does not matter), IPv4 prefixes are parsed to address and masked address, and
+ * the fields with exact equality are packed into a long array. The fields compared by their
+ * equals in the comparator chain are kept as objects and compared only after the primitive
+ * parts match.
+ * <p>
+ * {@link #flowEquals(CompiledFlow, CompiledFlow)} gives the same verdict as
+ * {@link FlowComparator#flowEquals} (including its stats/stored asymmetries); the only
+ * difference is a stats flow without priority, which the chain fails on with NPE and
+ * which is taken here as default priority. Flows which could not be compiled fall back
+ * to the comparator chain.
+ */
+public final class CompiledFlow {
+
+    private static final int DEFAULT_PRIORITY = 0x8000;
+    private static final long ABSENT = -1L;
+    private static final long ABSENT_FILTER = -2L;
+    private static final int MAC_ADDRESS_LENGTH = 17;
+
+    private static final long FLAG_MATCH = 1L;
+    private static final long FLAG_ETHERNET = 1L << 1;
+    private static final long FLAG_IPV4_MATCH = 1L << 2;
+    private static final long FLAG_OTHER_LAYER3 = 1L << 3;
+    private static final long FLAG_IPV4_SOURCE = 1L << 4;
+    private static final long FLAG_IPV4_DESTINATION = 1L << 5;
+    private static final long FLAG_COOKIE = 1L << 6;
+
+    /* exact part of the key - equal words mean equal fields */
+    private static final int KEY_FLAGS = 0;
+    private static final int KEY_PRIORITY = 1;
+    private static final int KEY_TABLE_ID = 2;
+    private static final int KEY_ETHERNET_SOURCE = 3;
+    private static final int KEY_ETHERNET_SOURCE_MASK = 4;
+    private static final int KEY_ETHERNET_DESTINATION = 5;
+    private static final int KEY_ETHERNET_DESTINATION_MASK = 6;
+    /* fast reject part of the key - equal fields give equal words, not vice versa */
+    private static final int KEY_IN_PORT = 7;
+    private static final int KEY_VLAN_ID = 8;
+    private static final int KEY_IP_PROTOCOL = 9;
+    private static final int KEY_LAYER4_PORTS = 10;
+    private static final int KEY_LENGTH = 11;
+
+    private static final int IPV4_SOURCE = 0;
+    private static final int IPV4_DESTINATION = 2;
+
+    private static final int FIELD_CONTAINER_NAME = 0;
+    private static final int FIELD_ETHERNET_TYPE = 1;
+    private static final int FIELD_ICMPV4 = 2;
+    private static final int FIELD_IN_PHY_PORT = 3;
+    private static final int FIELD_IN_PORT = 4;
+    private static final int FIELD_IP = 5;
+    private static final int FIELD_LAYER3 = 6;
+    private static final int FIELD_LAYER4 = 7;
+    private static final int FIELD_PROTOCOL_MATCH_FIELDS = 8;
+    private static final int FIELD_METADATA = 9;
+    private static final int FIELD_TUNNEL = 10;
+    private static final int FIELD_VLAN = 11;
+    private static final int FIELDS_LENGTH = 12;
+
+    private final Flow flow;
+    private final long[] key = new long[KEY_LENGTH];
+    /** address and masked address of IPv4 source and destination */
+    private final int[] ipv4 = new int[4];
+    private final Object[] fields = new Object[FIELDS_LENGTH];
+    private final boolean compiled;
+    private long cookie;
+
+    private CompiledFlow(final Flow flow) {
+        this.flow = flow;
+        this.compiled = compile();
+    }
+
+    public static CompiledFlow compile(final Flow flow) {
+        return new CompiledFlow(Preconditions.checkNotNull(flow));
+    }
+
+    public Flow getFlow() {
+        return flow;
+    }
+
+    boolean isCompiled() {
+        return compiled;
+    }
+
+    /**
+     * @param statsFlow compiled flow from device statistics
+     * @param storedFlow compiled flow from config DataStore
+     * @return the same verdict as {@link FlowComparator#flowEquals} for the source flows
+     */
+    public static boolean flowEquals(final CompiledFlow statsFlow, final CompiledFlow storedFlow) {
+        if (statsFlow == null || storedFlow == null) {
+            return false;
+        }
+        if (!statsFlow.compiled || !storedFlow.compiled) {
+            return FlowComparator.flowEquals(statsFlow.flow, storedFlow.flow);
+        }
+        final long storedFlags = storedFlow.key[KEY_FLAGS];
+        /* cookie is compared only when stored flow has one, flag has to be ignored */
+        if ((statsFlow.key[KEY_FLAGS] & ~FLAG_COOKIE) != (storedFlags & ~FLAG_COOKIE)) {
+            return false;
+        }
+        for (int i = KEY_FLAGS + 1; i < KEY_LENGTH; i++) {
+            if (statsFlow.key[i] != storedFlow.key[i]) {
+                return false;
+            }
+        }
+        if ((storedFlags & FLAG_COOKIE) != 0
+                && ((statsFlow.key[KEY_FLAGS] & FLAG_COOKIE) == 0 || statsFlow.cookie != storedFlow.cookie)) {
+            return false;
+        }
+        if (!ipv4Equals(statsFlow.ipv4, storedFlow.ipv4, IPV4_SOURCE)
+                || !ipv4Equals(statsFlow.ipv4, storedFlow.ipv4, IPV4_DESTINATION)) {
+            return false;
+        }
+        for (int i = 0; i < FIELDS_LENGTH; i++) {
+            if (!Objects.equals(storedFlow.fields[i], statsFlow.fields[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /* see MatchComparatorHelper.IpAddressEquals - masked addresses or plain addresses are equal */
+    private static boolean ipv4Equals(final int[] statsIpv4, final int[] storedIpv4, final int offset) {
+        return statsIpv4[offset + 1] == storedIpv4[offset + 1] || statsIpv4[offset] == storedIpv4[offset];
+    }
+
+    private boolean compile() {
+        long flags = 0;
+        key[KEY_PRIORITY] = flow.getPriority() == null ? DEFAULT_PRIORITY : flow.getPriority();
+        key[KEY_TABLE_ID] = flow.getTableId() == null ? ABSENT : flow.getTableId();
+        fields[FIELD_CONTAINER_NAME] = flow.getContainerName();
+        if (flow.getCookie() != null) {
+            final BigInteger value = flow.getCookie().getValue();
+            if (value == null || value.signum() < 0 || value.bitLength() > Long.SIZE) {
+                return false;
+            }
+            cookie = value.longValue();
+            flags |= FLAG_COOKIE;
+        }
+        final Match match = flow.getMatch();
+        if (match != null) {
+            flags |= FLAG_MATCH;
+            try {
+                flags |= compileMatch(match);
+            } catch (final IllegalArgumentException | IllegalStateException e) {
+                // malformed MAC address or IPv4 prefix - leave it on comparator chain
+                return false;
+            }
+        }
+        key[KEY_FLAGS] = flags;
+        return true;
+    }
+
+    private long compileMatch(final Match match) {
+        long flags = 0;
+        final EthernetMatch ethernet = match.getEthernetMatch();
+        if (ethernet != null) {
+            flags |= FLAG_ETHERNET;
+            compileMacFilter(ethernet.getEthernetSource(), KEY_ETHERNET_SOURCE);
+            compileMacFilter(ethernet.getEthernetDestination(), KEY_ETHERNET_DESTINATION);
+            fields[FIELD_ETHERNET_TYPE] = ethernet.getEthernetType();
+        } else {
+            compileMacFilter(null, KEY_ETHERNET_SOURCE);
+            compileMacFilter(null, KEY_ETHERNET_DESTINATION);
+        }
+
+        fields[FIELD_ICMPV4] = match.getIcmpv4Match();
+        fields[FIELD_IN_PHY_PORT] = match.getInPhyPort();
+        fields[FIELD_IN_PORT] = match.getInPort();
+        key[KEY_IN_PORT] = match.getInPort() == null ? ABSENT : match.getInPort().getValue().hashCode();
+
+        final IpMatch ip = match.getIpMatch();
+        fields[FIELD_IP] = ip;
+        key[KEY_IP_PROTOCOL] = ip == null || ip.getIpProtocol() == null ? ABSENT : ip.getIpProtocol();
+
+        final Layer3Match layer3 = match.getLayer3Match();
+        if (layer3 instanceof Ipv4Match) {
+            flags |= FLAG_IPV4_MATCH;
+            if (compileIpv4Prefix(((Ipv4Match) layer3).getIpv4Source(), IPV4_SOURCE)) {
+                flags |= FLAG_IPV4_SOURCE;
+            }
+            if (compileIpv4Prefix(((Ipv4Match) layer3).getIpv4Destination(), IPV4_DESTINATION)) {
+                flags |= FLAG_IPV4_DESTINATION;
+            }
+        } else if (layer3 != null) {
+            flags |= FLAG_OTHER_LAYER3;
+            fields[FIELD_LAYER3] = layer3;
+        }
+
+        final Layer4Match layer4 = match.getLayer4Match();
+        fields[FIELD_LAYER4] = layer4;
+        if (layer4 instanceof TcpMatch) {
+            final TcpMatch tcp = (TcpMatch) layer4;
+            key[KEY_LAYER4_PORTS] = packPorts(tcp.getTcpSourcePort(), tcp.getTcpDestinationPort());
+        } else if (layer4 instanceof UdpMatch) {
+            final UdpMatch udp = (UdpMatch) layer4;
+            key[KEY_LAYER4_PORTS] = packPorts(udp.getUdpSourcePort(), udp.getUdpDestinationPort());
+        } else {
+            key[KEY_LAYER4_PORTS] = ABSENT;
+        }
+
+        fields[FIELD_PROTOCOL_MATCH_FIELDS] = match.getProtocolMatchFields();
+        fields[FIELD_METADATA] = match.getMetadata();
+        fields[FIELD_TUNNEL] = match.getTunnel();
+
+        final VlanMatch vlan = match.getVlanMatch();
+        fields[FIELD_VLAN] = vlan;
+        key[KEY_VLAN_ID] = vlan == null || vlan.getVlanId() == null || vlan.getVlanId().getVlanId() == null
+                ? ABSENT : vlan.getVlanId().getVlanId().getValue();
+        return flags;
+    }
+
+    private void compileMacFilter(final MacAddressFilter filter, final int index) {
+        if (filter == null) {
+            key[index] = ABSENT_FILTER;
+            key[index + 1] = ABSENT_FILTER;
+        } else {
+            key[index] = macToLong(filter.getAddress());
+            key[index + 1] = macToLong(filter.getMask());
+        }
+    }
+
+    private boolean compileIpv4Prefix(final Ipv4Prefix prefix, final int offset) {
+        if (prefix == null) {
+            return false;
+        }
+        final IntegerIpAddress address = MatchComparatorHelper.strIpToIntIp(prefix.getValue());
+        ipv4[offset] = address.getIp();
+        ipv4[offset + 1] = address.getIp() & address.getMask();
+        return true;
+    }
+
+    private static long packPorts(final PortNumber source, final PortNumber destination) {
+        final long sourceWord = source == null || source.getValue() == null ? ABSENT : source.getValue();
+        final long destinationWord = destination == null || destination.getValue() == null
+                ? ABSENT : destination.getValue();
+        return (sourceWord << Integer.SIZE) ^ destinationWord;
+    }
+
+    /**
+     * @return 48-bit value of the MAC address, {@link #ABSENT} for null
+     * @throws IllegalArgumentException if MAC address is not in xx:xx:xx:xx:xx:xx form
+     */
+    static long macToLong(final MacAddress macAddress) {
+        if (macAddress == null) {
+            return ABSENT;
+        }
+        final String value = macAddress.getValue();
+        Preconditions.checkArgument(value.length() == MAC_ADDRESS_LENGTH, "Unexpected MAC address %s", value);
+        long result = 0;
+        for (int i = 0; i < MAC_ADDRESS_LENGTH; i += 3) {
+            final int high = Character.digit(value.charAt(i), 16);
+            final int low = Character.digit(value.charAt(i + 1), 16);
+            Preconditions.checkArgument(high >= 0 && low >= 0 && (i + 2 == MAC_ADDRESS_LENGTH
+                    || value.charAt(i + 2) == ':'), "Unexpected MAC address %s", value);
+            result = (result << 8) | (high << 4) | low;
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledFlow [key=" + Arrays.toString(key) + ", compiled=" + compiled + ", flow=" + flow + "]";
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.applications.statistics.manager.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.openflowplugin.applications.statistics.manager.StatCounter;
+import org.opendaylight.openflowplugin.applications.statistics.manager.StatCounter.StatCounterType;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeConnectorId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.Nodes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.node.NodeConnector;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.node.NodeConnectorKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.NodeKey;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+/**
+ * Unit tests for StatCounterRateEngine.
+ */
+public class StatCounterRateEngineTest {
+
+    private static final long SECOND = 1000000000L;
+    private static final long START = 5000L;
+    private static final int RX = StatCounter.PORT_RECEIVED_BYTES.getIndex();
+    private static final int TX = StatCounter.PORT_TRANSMITTED_BYTES.getIndex();
+
+    private static final InstanceIdentifier<Node> NODE_1 = nodeIdent("openflow:1");
+    private static final InstanceIdentifier<NodeConnector> PORT_1 = portIdent(NODE_1, "openflow:1:1");
+    private static final InstanceIdentifier<NodeConnector> PORT_2 = portIdent(NODE_1, "openflow:1:2");
+    private static final InstanceIdentifier<NodeConnector> PORT_3 =
+            portIdent(nodeIdent("openflow:2"), "openflow:2:1");
+
+    private StatCounterRateEngine engine;
+    private List<StatCounterRates.Crossing> crossings;
+
+    @Before
+    public void setUp() {
+        engine = new StatCounterRateEngine(StatCounter.valuesOf(StatCounterType.PORT),
+                Collections.singletonMap(StatCounter.PORT_RECEIVED_BYTES, 100.0));
+        crossings = new ArrayList<>();
+    }
+
+    @Test
+    public void testFirstSample() {
+        engine.update(PORT_1, sample(1000L, 0L), StatCounterRateEngine.UNKNOWN_DURATION, START, crossings);
+        assertTrue(Double.isNaN(engine.getRate(PORT_1, RX)));
+        assertEquals(0L, engine.getDelta(PORT_1, RX));
+        assertTrue(Double.isNaN(engine.getRate(PORT_2, RX)));
+        assertTrue(crossings.isEmpty());
+    }
+
+    @Test
+    public void testRate() {
+        engine.update(PORT_1, sample(1000L, 500L), StatCounterRateEngine.UNKNOWN_DURATION, START, crossings);
+        engine.update(PORT_1, sample(1050L, 700L), StatCounterRateEngine.UNKNOWN_DURATION,
+                START + 2 * SECOND, crossings);
+        assertEquals(50L, engine.getDelta(PORT_1, RX));
+        assertEquals(25.0, engine.getRate(PORT_1, RX), 0.0001);
+        assertEquals(100.0, engine.getRate(PORT_1, TX), 0.0001);
+    }
+
+    /**
+     * Port counters are 64-bit - drop from the top of 32-bit range is reset, not 32-bit wrap
+     */
+    @Test
+    public void testCounter64DropIsNotCounter32Wrap() {
+        assertFalse(StatCounter.PORT_RECEIVED_BYTES.isCounter32());
+        engine.update(PORT_1, sample(0xfffffff0L, 0L), StatCounterRateEngine.UNKNOWN_DURATION, START, crossings);
+        engine.update(PORT_1, sample(0x10L, 0L), StatCounterRateEngine.UNKNOWN_DURATION, START + SECOND, crossings);
+        assertEquals(0x10L, engine.getDelta(PORT_1, RX));
+    }
+
+    @Test
+    public void testCounter32Wrap() {
+        assertEquals(0x20L, StatCounterRateEngine.wrapDelta(0xfffffff0L, 0x10L, true));
+        assertEquals(0x10L, StatCounterRateEngine.wrapDelta(0xfffffff0L, 0x10L, false));
+    }
+
+    @Test
+    public void testCounter64Wrap() {
+        assertEquals(0x20L, StatCounterRateEngine.wrapDelta(-0x10L, 0x10L, false));
+    }
+
+    /**
+     * Counter went down without wrap - device counter was reset, new value is the delta
+     */
+    @Test
+    public void testCounterReset() {
+        assertEquals(0x10L, StatCounterRateEngine.wrapDelta(0x1000L, 0x10L, false));
+        assertEquals(0x10L, StatCounterRateEngine.wrapDelta(0x1000L, 0x10L, true));
+    }
+
+    /**
+     * Decrease of the duration is reset even if counters went up, rate is taken over the new duration
+     */
+    @Test
+    public void testDurationReset() {
+        engine.update(PORT_1, sample(1000L, 0L), 100 * SECOND, START, crossings);
+        engine.update(PORT_1, sample(2000L, 0L), 10 * SECOND, START + 20 * SECOND, crossings);
+        assertEquals(2000L, engine.getDelta(PORT_1, RX));
+        assertEquals(200.0, engine.getRate(PORT_1, RX), 0.0001);
+    }
+
+    @Test
+    public void testThresholdCrossing() {
+        engine.update(PORT_1, sample(0L, 0L), StatCounterRateEngine.UNKNOWN_DURATION, START, crossings);
+        engine.update(PORT_1, sample(50L, 1000L), StatCounterRateEngine.UNKNOWN_DURATION,
+                START + SECOND, crossings);
+        // TX has no threshold
+        assertTrue(crossings.isEmpty());
+
+        engine.update(PORT_1, sample(250L, 2000L), StatCounterRateEngine.UNKNOWN_DURATION,
+                START + 2 * SECOND, crossings);
+        assertEquals(1, crossings.size());
+        assertSame(PORT_1, crossings.get(0).getIdent());
+        assertSame(StatCounter.PORT_RECEIVED_BYTES, crossings.get(0).getCounter());
+        assertTrue(crossings.get(0).isExceeded());
+
+        // still over the threshold - reported only once
+        crossings.clear();
+        engine.update(PORT_1, sample(450L, 3000L), StatCounterRateEngine.UNKNOWN_DURATION,
+                START + 3 * SECOND, crossings);
+        assertTrue(crossings.isEmpty());
+
+        engine.update(PORT_1, sample(460L, 4000L), StatCounterRateEngine.UNKNOWN_DURATION,
+                START + 4 * SECOND, crossings);
+        assertEquals(1, crossings.size());
+        assertFalse(crossings.get(0).isExceeded());
+        assertEquals(10.0, crossings.get(0).getRate(), 0.0001);
+    }
+
+    @Test
+    public void testRemoveAll() {
+        for (int i = 0; i < 20; i++) {
+            engine.update(portIdent(NODE_1, "openflow:1:" + (i + 10)), sample(i, i),
+                    StatCounterRateEngine.UNKNOWN_DURATION, START, crossings);
+        }
+        engine.update(PORT_2, sample(0L, 0L), StatCounterRateEngine.UNKNOWN_DURATION, START, crossings);
+        engine.update(PORT_3, sample(0L, 0L), StatCounterRateEngine.UNKNOWN_DURATION, START, crossings);
+        engine.update(PORT_3, sample(10L, 0L), StatCounterRateEngine.UNKNOWN_DURATION, START + SECOND, crossings);
+        assertEquals(22, engine.size());
+
+        engine.removeAll(NODE_1);
+        assertEquals(1, engine.size());
+        assertEquals(10L, engine.getDelta(PORT_3, RX));
+        assertTrue(Double.isNaN(engine.getRate(PORT_2, RX)));
+
+        // freed slot starts from scratch
+        engine.update(PORT_2, sample(100L, 0L), StatCounterRateEngine.UNKNOWN_DURATION, START, crossings);
+        assertEquals(0L, engine.getDelta(PORT_2, RX));
+        assertTrue(Double.isNaN(engine.getRate(PORT_2, RX)));
+    }
+
+    private long[] sample(final long rx, final long tx) {
+        final long[] sample = new long[engine.getWidth()];
+        sample[RX] = rx;
+        sample[TX] = tx;
+        return sample;
+    }
+
+    private static InstanceIdentifier<Node> nodeIdent(final String nodeId) {
+        return InstanceIdentifier.create(Nodes.class).child(Node.class, new NodeKey(new NodeId(nodeId)));
+    }
+
+    private static InstanceIdentifier<NodeConnector> portIdent(final InstanceIdentifier<Node> nodeIdent,
+                                                               final String portId) {
+        return nodeIdent.child(NodeConnector.class, new NodeConnectorKey(new NodeConnectorId(portId)));
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.applications.statistics.manager.impl;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.ReadWriteTransaction;
+import org.opendaylight.controller.sal.binding.api.NotificationProviderService;
+import org.opendaylight.openflowplugin.applications.statistics.manager.StatCounter.StatCounterType;
+import org.opendaylight.openflowplugin.applications.statistics.manager.StatisticsManager;
+import org.opendaylight.openflowplugin.applications.statistics.manager.StatisticsManager.StatDataStoreOperation;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeConnectorId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeConnectorRef;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeConnectorRemovedBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeConnectorUpdatedBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.Nodes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.node.NodeConnector;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.node.NodeConnectorKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.NodeKey;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+/**
+ * Unit tests for StatNodeRegistrationImpl.
+ */
+public class StatNodeRegistrationImplTest {
+
+    private static final InstanceIdentifier<NodeConnector> PORT_1 = InstanceIdentifier.create(Nodes.class)
+            .child(Node.class, new NodeKey(new NodeId("openflow:1")))
+            .child(NodeConnector.class, new NodeConnectorKey(new NodeConnectorId("openflow:1:1")));
+
+    @Mock
+    private StatisticsManager manager;
+    @Mock
+    private DataBroker dataBroker;
+    @Mock
+    private NotificationProviderService notificationService;
+    @Mock
+    private StatOperationalShadow operationalShadow;
+    @Mock
+    private StatCounterRates counterRates;
+    @Mock
+    private ReadWriteTransaction tx;
+
+    private StatNodeRegistrationImpl nodeRegistration;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(manager.getOperationalShadow()).thenReturn(operationalShadow);
+        when(manager.getCounterRates()).thenReturn(counterRates);
+        nodeRegistration = new StatNodeRegistrationImpl(manager, dataBroker, notificationService);
+    }
+
+    /**
+     * Removed port is marked in the shadow right away, but it is dropped from the shadow
+     * and its counter samples are released only by DS operation queued behind its statistics
+     */
+    @Test
+    public void testOnNodeConnectorRemoved() {
+        nodeRegistration.onNodeConnectorRemoved(new NodeConnectorRemovedBuilder()
+                .setNodeConnectorRef(new NodeConnectorRef(PORT_1)).build());
+
+        verify(operationalShadow).nodeConnectorRemoved(PORT_1);
+        verify(operationalShadow, never()).removeNodeConnector(any(InstanceIdentifier.class));
+        verify(counterRates, never()).remove(StatCounterType.PORT, PORT_1);
+
+        final ArgumentCaptor<StatDataStoreOperation> operation = ArgumentCaptor.forClass(StatDataStoreOperation.class);
+        verify(manager).enqueue(operation.capture());
+        operation.getValue().applyOperation(tx);
+
+        verify(operationalShadow).removeNodeConnector(PORT_1);
+        verify(counterRates).remove(StatCounterType.PORT, PORT_1);
+    }
+
+    /**
+     * (Re)added port could be cached in the shadow again
+     */
+    @Test
+    public void testOnNodeConnectorUpdated() {
+        nodeRegistration.onNodeConnectorUpdated(new NodeConnectorUpdatedBuilder()
+                .setNodeConnectorRef(new NodeConnectorRef(PORT_1)).build());
+
+        verify(operationalShadow).nodeConnectorUpdated(PORT_1);
+    }
+}
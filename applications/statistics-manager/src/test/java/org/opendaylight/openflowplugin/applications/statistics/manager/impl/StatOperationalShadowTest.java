@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.applications.statistics.manager.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import com.google.common.base.Optional;
+import com.google.common.util.concurrent.Futures;
+import java.util.Collections;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.opendaylight.controller.md.sal.binding.api.ReadTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.openflowplugin.applications.statistics.manager.impl.StatOperationalShadow.NodeShadow;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNode;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNodeBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNodeConnector;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNodeConnectorBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.port.rev130925.queues.Queue;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.port.rev130925.queues.QueueBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.port.rev130925.queues.QueueKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.queue.rev130925.QueueId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.types.rev131018.GroupId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.types.rev131018.groups.Group;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.types.rev131018.groups.GroupBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.types.rev131018.groups.GroupKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeConnectorId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.Nodes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.node.NodeConnector;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.node.NodeConnectorBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.node.NodeConnectorKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.NodeBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.NodeKey;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+/**
+ * Unit tests for StatOperationalShadow.
+ */
+public class StatOperationalShadowTest {
+
+    private static final NodeKey NODE_KEY = new NodeKey(new NodeId("openflow:1"));
+    private static final NodeConnectorKey CONNECTOR_KEY = new NodeConnectorKey(new NodeConnectorId("openflow:1:1"));
+    private static final GroupKey GROUP_KEY = new GroupKey(new GroupId(1L));
+    private static final QueueKey QUEUE_KEY = new QueueKey(new QueueId(1L));
+
+    private final InstanceIdentifier<Node> nodeIdent = InstanceIdentifier.create(Nodes.class).child(Node.class, NODE_KEY);
+    private final InstanceIdentifier<NodeConnector> connectorIdent = nodeIdent.child(NodeConnector.class, CONNECTOR_KEY);
+    private final InstanceIdentifier<Queue> queueIdent = connectorIdent
+            .augmentation(FlowCapableNodeConnector.class).child(Queue.class, QUEUE_KEY);
+
+    @Mock
+    private ReadTransaction mockTx;
+
+    private StatOperationalShadow shadow;
+
+    @Before
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+        shadow = new StatOperationalShadow();
+
+        final NodeConnector connector = new NodeConnectorBuilder().setKey(CONNECTOR_KEY)
+                .addAugmentation(FlowCapableNodeConnector.class, new FlowCapableNodeConnectorBuilder()
+                        .setQueue(Collections.singletonList(new QueueBuilder().setKey(QUEUE_KEY).build())).build())
+                .build();
+        final Node node = new NodeBuilder().setKey(NODE_KEY)
+                .setNodeConnector(Collections.singletonList(connector))
+                .addAugmentation(FlowCapableNode.class, new FlowCapableNodeBuilder()
+                        .setGroup(Collections.singletonList(new GroupBuilder().setKey(GROUP_KEY).build())).build())
+                .build();
+        doReturn(Futures.immediateCheckedFuture(Optional.absent())).when(mockTx)
+                .read(eq(LogicalDatastoreType.OPERATIONAL), any(InstanceIdentifier.class));
+        doReturn(Futures.immediateCheckedFuture(Optional.of(node))).when(mockTx)
+                .read(LogicalDatastoreType.OPERATIONAL, nodeIdent);
+    }
+
+    /**
+     * Node is read only once, shadow is seeded with its content
+     */
+    @Test
+    public void testSeed() {
+        final NodeShadow nodeShadow = shadow.getNodeShadow(nodeIdent, mockTx).get();
+        assertSame(nodeShadow, shadow.getNodeShadow(nodeIdent, mockTx).get());
+        verify(mockTx, times(1)).read(LogicalDatastoreType.OPERATIONAL, nodeIdent);
+
+        assertTrue(nodeShadow.containsNodeConnector(CONNECTOR_KEY, mockTx));
+        assertTrue(nodeShadow.containsGroup(GROUP_KEY, mockTx));
+        assertEquals(Collections.singleton(GROUP_KEY), nodeShadow.getGroupKeys());
+        assertEquals(Collections.singleton(queueIdent), nodeShadow.getQueueIdents());
+        verify(mockTx, times(1)).read(eq(LogicalDatastoreType.OPERATIONAL), any(InstanceIdentifier.class));
+    }
+
+    /**
+     * Missing Node is not cached, missing entities are checked against Operational/DS and cached when found
+     */
+    @Test
+    public void testMissingEntities() {
+        final InstanceIdentifier<Node> unknownIdent = InstanceIdentifier.create(Nodes.class)
+                .child(Node.class, new NodeKey(new NodeId("openflow:2")));
+        assertFalse(shadow.getNodeShadow(unknownIdent, mockTx).isPresent());
+        assertFalse(shadow.getNodeShadow(unknownIdent, mockTx).isPresent());
+        verify(mockTx, times(2)).read(LogicalDatastoreType.OPERATIONAL, unknownIdent);
+
+        final NodeShadow nodeShadow = shadow.getNodeShadow(nodeIdent, mockTx).get();
+        final GroupKey groupKey = new GroupKey(new GroupId(2L));
+        final InstanceIdentifier<Group> groupIdent = nodeIdent.augmentation(FlowCapableNode.class).child(Group.class, groupKey);
+        assertFalse(nodeShadow.containsGroup(groupKey, mockTx));
+
+        doReturn(Futures.immediateCheckedFuture(Optional.of(new GroupBuilder().setKey(groupKey).build()))).when(mockTx)
+                .read(LogicalDatastoreType.OPERATIONAL, groupIdent);
+        assertTrue(nodeShadow.containsGroup(groupKey, mockTx));
+        assertTrue(nodeShadow.containsGroup(groupKey, mockTx));
+        verify(mockTx, times(2)).read(LogicalDatastoreType.OPERATIONAL, groupIdent);
+    }
+
+    /**
+     * Removed connector drops its queues, removed Node is seeded again
+     */
+    @Test
+    public void testRemove() {
+        final NodeShadow nodeShadow = shadow.getNodeShadow(nodeIdent, mockTx).get();
+        shadow.removeNodeConnector(connectorIdent);
+        assertTrue(nodeShadow.getQueueIdents().isEmpty());
+        assertFalse(nodeShadow.containsNodeConnector(CONNECTOR_KEY, mockTx));
+
+        shadow.removeNode(nodeIdent);
+        final NodeShadow reseeded = shadow.getNodeShadow(nodeIdent, mockTx).get();
+        assertNotSame(nodeShadow, reseeded);
+        assertTrue(reseeded.containsNodeConnector(CONNECTOR_KEY, mockTx));
+    }
+
+    /**
+     * Connector marked by removed notification is not cached again from stale Operational/DS
+     * until it is updated again
+     */
+    @Test
+    public void testRemovedConnectorNotRecached() {
+        doReturn(Futures.immediateCheckedFuture(Optional.of(new NodeConnectorBuilder().setKey(CONNECTOR_KEY).build())))
+                .when(mockTx).read(LogicalDatastoreType.OPERATIONAL, connectorIdent);
+        final NodeShadow nodeShadow = shadow.getNodeShadow(nodeIdent, mockTx).get();
+
+        shadow.nodeConnectorRemoved(connectorIdent);
+        assertFalse(nodeShadow.containsNodeConnector(CONNECTOR_KEY, mockTx));
+        shadow.removeNodeConnector(connectorIdent);
+        assertFalse(nodeShadow.containsNodeConnector(CONNECTOR_KEY, mockTx));
+
+        shadow.nodeConnectorUpdated(connectorIdent);
+        assertTrue(nodeShadow.containsNodeConnector(CONNECTOR_KEY, mockTx));
+    }
+}
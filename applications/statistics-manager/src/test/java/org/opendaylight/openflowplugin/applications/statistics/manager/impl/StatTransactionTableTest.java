@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.applications.statistics.manager.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.openflowplugin.applications.statistics.manager.StatRpcMsgManager.TransactionCacheContainer;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeId;
+
+/**
+ * Unit tests for StatTransactionTable.
+ */
+public class StatTransactionTableTest {
+
+    private static final long TTL_SECONDS = 64;
+    private static final long START = 1000L;
+    private static final NodeId NODE_1 = new NodeId("openflow:1");
+    private static final NodeId NODE_2 = new NodeId("openflow:2");
+
+    private StatTransactionTable table;
+
+    @Before
+    public void setUp() {
+        table = new StatTransactionTable(TTL_SECONDS, TimeUnit.SECONDS, 3, START);
+    }
+
+    /**
+     * Same transaction id on different nodes are different transactions
+     */
+    @Test
+    public void testRegisterPerNode() {
+        final TransactionCacheContainer<?> container1 = mock(TransactionCacheContainer.class);
+        final TransactionCacheContainer<?> container2 = mock(TransactionCacheContainer.class);
+        assertTrue(table.register(NODE_1, 1L, container1, START));
+        assertTrue(table.register(NODE_2, 1L, container2, START));
+
+        assertSame(container1, table.get(NODE_1, 1L));
+        assertSame(container2, table.get(NODE_2, 1L));
+        assertNull(table.get(NODE_1, 2L));
+
+        assertSame(container1, table.remove(NODE_1, 1L));
+        assertNull(table.remove(NODE_1, 1L));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    public void testMaxSize() {
+        assertTrue(table.register(NODE_1, 1L, mock(TransactionCacheContainer.class), START));
+        assertTrue(table.register(NODE_1, 2L, mock(TransactionCacheContainer.class), START));
+        // replacement doesn't take more space
+        assertTrue(table.register(NODE_1, 2L, mock(TransactionCacheContainer.class), START));
+        assertTrue(table.register(NODE_1, 3L, mock(TransactionCacheContainer.class), START));
+        assertFalse(table.register(NODE_1, 4L, mock(TransactionCacheContainer.class), START));
+        assertEquals(3, table.size());
+
+        table.remove(NODE_1, 1L);
+        assertTrue(table.register(NODE_1, 4L, mock(TransactionCacheContainer.class), START));
+    }
+
+    @Test
+    public void testExpire() {
+        final long tick = table.getTickNanos();
+        assertEquals(TimeUnit.SECONDS.toNanos(1), tick);
+        table.register(NODE_1, 1L, mock(TransactionCacheContainer.class), START);
+        table.register(NODE_1, 2L, mock(TransactionCacheContainer.class), START + 10 * tick);
+        table.register(NODE_2, 1L, mock(TransactionCacheContainer.class), START);
+        table.remove(NODE_2, 1L);
+
+        // slot of the second transaction is passed once before its deadline
+        assertEquals(0, table.expire(START + (TTL_SECONDS - 1) * tick));
+        assertEquals(1, table.expire(START + TTL_SECONDS * tick));
+        assertNull(table.get(NODE_1, 1L));
+        assertEquals(1, table.size());
+
+        assertEquals(0, table.expire(START + (TTL_SECONDS + 9) * tick));
+        assertEquals(1, table.expire(START + (TTL_SECONDS + 10) * tick));
+        assertEquals(0, table.size());
+    }
+
+    /**
+     * Transaction replaced by new registration is not expired by the old entry
+     */
+    @Test
+    public void testExpireReplaced() {
+        final long tick = table.getTickNanos();
+        table.register(NODE_1, 1L, mock(TransactionCacheContainer.class), START);
+        final TransactionCacheContainer<?> replacement = mock(TransactionCacheContainer.class);
+        table.register(NODE_1, 1L, replacement, START + 5 * tick);
+
+        assertEquals(0, table.expire(START + TTL_SECONDS * tick));
+        assertSame(replacement, table.get(NODE_1, 1L));
+        assertEquals(1, table.expire(START + (TTL_SECONDS + 5) * tick));
+    }
+}
@@ -0,0 +1,254 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.applications.statistics.manager.impl.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.Random;
+import org.junit.Test;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev100924.Ipv4Prefix;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev100924.PortNumber;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.yang.types.rev100924.MacAddress;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.Flow;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.FlowCookie;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.flow.Match;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.flow.MatchBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeConnectorId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.l2.types.rev130827.EtherType;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.l2.types.rev130827.VlanId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.model.match.types.rev131026.ethernet.match.fields.EthernetDestinationBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.model.match.types.rev131026.ethernet.match.fields.EthernetSourceBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.model.match.types.rev131026.ethernet.match.fields.EthernetTypeBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.model.match.types.rev131026.match.EthernetMatchBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.model.match.types.rev131026.match.IpMatchBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.model.match.types.rev131026.match.MetadataBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.model.match.types.rev131026.match.TunnelBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.model.match.types.rev131026.match.VlanMatchBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.model.match.types.rev131026.match.layer._3.match.ArpMatchBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.model.match.types.rev131026.match.layer._3.match.Ipv4MatchBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.model.match.types.rev131026.match.layer._4.match.TcpMatchBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.model.match.types.rev131026.match.layer._4.match.UdpMatchBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.model.match.types.rev131026.vlan.match.fields.VlanIdBuilder;
+
+/**
+ * Differential tests of {@link CompiledFlow} against the {@link FlowComparator} chain.
+ */
+public class CompiledFlowTest {
+
+    private static final int ROUNDS = 20000;
+
+    private static final String[] MACS = {"aa:bb:cc:dd:ee:ff", "AA:BB:CC:DD:EE:FF", "Aa:bB:cc:DD:ee:FF",
+        "00:00:00:00:00:01", "ff:ff:ff:ff:ff:00"};
+    private static final String[] PREFIXES = {"10.0.0.1/24", "10.0.0.0/24", "10.0.0.1/32",
+        "10.0.1.1/16", "192.168.1.1/0", "10.0.0.255/24", "10.0.0.0/8"};
+    private static final String[] PORTS = {"openflow:1:1", "openflow:1:2", "openflow:2:1"};
+    private static final Integer[] PRIORITIES = {0x8000, 1, 2};
+    private static final BigInteger[] COOKIES = {BigInteger.ZERO, BigInteger.ONE,
+        new BigInteger("ffffffffffffff00", 16)};
+
+    private final Random random = new Random(0x5eedL);
+
+    @Test
+    public void testRandomizedAgainstComparatorChain() {
+        int equal = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            final Flow storedFlow = randomFlow(true);
+            final Flow statsFlow = random.nextBoolean() ? mutate(storedFlow) : randomFlow(false);
+            final boolean expected = FlowComparator.flowEquals(statsFlow, storedFlow);
+            final CompiledFlow compiledStats = CompiledFlow.compile(statsFlow);
+            final CompiledFlow compiledStored = CompiledFlow.compile(storedFlow);
+            assertTrue(compiledStats.isCompiled());
+            assertTrue(compiledStored.isCompiled());
+            assertEquals("stats " + statsFlow + "\nstored " + storedFlow,
+                    expected, CompiledFlow.flowEquals(compiledStats, compiledStored));
+            if (expected) {
+                equal++;
+            }
+        }
+        // both verdicts have to be exercised
+        assertTrue(equal > ROUNDS / 20);
+        assertTrue(equal < ROUNDS - ROUNDS / 20);
+    }
+
+    @Test
+    public void testMaskedIpv4Prefix() {
+        final Flow stored = flowWithMatch(new MatchBuilder().setLayer3Match(new Ipv4MatchBuilder()
+                .setIpv4Source(new Ipv4Prefix("10.0.0.1/24")).build()).build());
+        final Flow stats = flowWithMatch(new MatchBuilder().setLayer3Match(new Ipv4MatchBuilder()
+                .setIpv4Source(new Ipv4Prefix("10.0.0.0/24")).build()).build());
+        final Flow other = flowWithMatch(new MatchBuilder().setLayer3Match(new Ipv4MatchBuilder()
+                .setIpv4Source(new Ipv4Prefix("10.0.1.0/24")).build()).build());
+        assertTrue(CompiledFlow.flowEquals(CompiledFlow.compile(stats), CompiledFlow.compile(stored)));
+        assertFalse(CompiledFlow.flowEquals(CompiledFlow.compile(other), CompiledFlow.compile(stored)));
+    }
+
+    @Test
+    public void testMacAddressCase() {
+        final Flow stored = flowWithMatch(new MatchBuilder().setEthernetMatch(new EthernetMatchBuilder()
+                .setEthernetSource(new EthernetSourceBuilder().setAddress(new MacAddress(MACS[0])).build())
+                .build()).build());
+        final Flow stats = flowWithMatch(new MatchBuilder().setEthernetMatch(new EthernetMatchBuilder()
+                .setEthernetSource(new EthernetSourceBuilder().setAddress(new MacAddress(MACS[1])).build())
+                .build()).build());
+        assertTrue(CompiledFlow.flowEquals(CompiledFlow.compile(stats), CompiledFlow.compile(stored)));
+        assertEquals(0xaabbccddeeffL, CompiledFlow.macToLong(new MacAddress(MACS[2])));
+    }
+
+    @Test
+    public void testDefaults() {
+        final Flow stored = new FlowBuilder().setTableId((short) 0).build();
+        final Flow stats = new FlowBuilder().setTableId((short) 0).setPriority(0x8000)
+                .setCookie(new FlowCookie(BigInteger.TEN)).build();
+        assertTrue(CompiledFlow.flowEquals(CompiledFlow.compile(stats), CompiledFlow.compile(stored)));
+        // cookie is compared when stored flow has one
+        assertFalse(CompiledFlow.flowEquals(CompiledFlow.compile(stored), CompiledFlow.compile(stats)));
+        assertFalse(CompiledFlow.flowEquals(null, CompiledFlow.compile(stored)));
+    }
+
+    private static Flow flowWithMatch(final Match match) {
+        return new FlowBuilder().setTableId((short) 0).setPriority(1).setMatch(match).build();
+    }
+
+    private Flow randomFlow(final boolean stored) {
+        final FlowBuilder builder = new FlowBuilder();
+        builder.setPriority(stored && chance() ? null : pick(PRIORITIES));
+        builder.setTableId(chance() ? null : (short) random.nextInt(2));
+        builder.setContainerName(chance() ? null : pick(new String[] {"c1", "c2"}));
+        builder.setCookie(chance() ? null : new FlowCookie(pick(COOKIES)));
+        builder.setMatch(random.nextInt(8) == 0 ? null : randomMatch());
+        return builder.build();
+    }
+
+    private Match randomMatch() {
+        final MatchBuilder builder = new MatchBuilder();
+        if (chance()) {
+            final EthernetMatchBuilder ethernet = new EthernetMatchBuilder();
+            if (chance()) {
+                ethernet.setEthernetSource(new EthernetSourceBuilder().setAddress(randomMac())
+                        .setMask(randomMac()).build());
+            }
+            if (chance()) {
+                ethernet.setEthernetDestination(new EthernetDestinationBuilder().setAddress(randomMac()).build());
+            }
+            if (chance()) {
+                ethernet.setEthernetType(new EthernetTypeBuilder()
+                        .setType(new EtherType(random.nextBoolean() ? 0x0800L : 0x0806L)).build());
+            }
+            builder.setEthernetMatch(ethernet.build());
+        }
+        if (chance()) {
+            builder.setInPort(new NodeConnectorId(pick(PORTS)));
+        }
+        if (chance()) {
+            builder.setVlanMatch(new VlanMatchBuilder().setVlanId(new VlanIdBuilder()
+                    .setVlanId(new VlanId(random.nextInt(3))).setVlanIdPresent(true).build()).build());
+        }
+        if (chance()) {
+            builder.setIpMatch(new IpMatchBuilder().setIpProtocol((short) (random.nextBoolean() ? 6 : 17)).build());
+        }
+        switch (random.nextInt(4)) {
+        case 0:
+            builder.setLayer3Match(new Ipv4MatchBuilder().setIpv4Source(randomPrefix())
+                    .setIpv4Destination(randomPrefix()).build());
+            break;
+        case 1:
+            builder.setLayer3Match(new ArpMatchBuilder().setArpOp(random.nextInt(2) + 1).build());
+            break;
+        default:
+            break;
+        }
+        switch (random.nextInt(4)) {
+        case 0:
+            builder.setLayer4Match(new TcpMatchBuilder().setTcpSourcePort(randomPort())
+                    .setTcpDestinationPort(randomPort()).build());
+            break;
+        case 1:
+            builder.setLayer4Match(new UdpMatchBuilder().setUdpSourcePort(randomPort()).build());
+            break;
+        default:
+            break;
+        }
+        if (random.nextInt(4) == 0) {
+            builder.setMetadata(new MetadataBuilder().setMetadata(BigInteger.valueOf(random.nextInt(2))).build());
+        }
+        if (random.nextInt(4) == 0) {
+            builder.setTunnel(new TunnelBuilder().setTunnelId(BigInteger.valueOf(random.nextInt(2))).build());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Stats flow derived from stored one - defaults filled in, one field changed
+     * or IP prefixes and MAC addresses rewritten the way device reports them
+     */
+    private Flow mutate(final Flow storedFlow) {
+        final FlowBuilder builder = new FlowBuilder(storedFlow);
+        if (storedFlow.getPriority() == null) {
+            builder.setPriority(random.nextBoolean() ? 0x8000 : pick(PRIORITIES));
+        }
+        if (storedFlow.getCookie() == null && random.nextBoolean()) {
+            builder.setCookie(new FlowCookie(pick(COOKIES)));
+        }
+        final MatchBuilder match = storedFlow.getMatch() == null ? null : new MatchBuilder(storedFlow.getMatch());
+        switch (random.nextInt(8)) {
+        case 0:
+            builder.setTableId((short) random.nextInt(2));
+            break;
+        case 1:
+            builder.setContainerName(null);
+            break;
+        case 2:
+            if (match != null && match.getLayer3Match() != null) {
+                match.setLayer3Match(new Ipv4MatchBuilder().setIpv4Source(randomPrefix())
+                        .setIpv4Destination(randomPrefix()).build());
+            }
+            break;
+        case 3:
+            if (match != null) {
+                match.setEthernetMatch(new EthernetMatchBuilder().setEthernetDestination(
+                        new EthernetDestinationBuilder().setAddress(randomMac()).build()).build());
+            }
+            break;
+        case 4:
+            if (match != null) {
+                match.setInPort(random.nextBoolean() ? null : new NodeConnectorId(pick(PORTS)));
+            }
+            break;
+        default:
+            break;
+        }
+        if (match != null) {
+            builder.setMatch(match.build());
+        }
+        return builder.build();
+    }
+
+    private boolean chance() {
+        return random.nextBoolean();
+    }
+
+    private <T> T pick(final T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private MacAddress randomMac() {
+        return chance() ? null : new MacAddress(pick(MACS));
+    }
+
+    private Ipv4Prefix randomPrefix() {
+        return random.nextInt(4) == 0 ? null : new Ipv4Prefix(pick(PREFIXES));
+    }
+
+    private PortNumber randomPort() {
+        return random.nextInt(3) == 0 ? null : new PortNumber(80 + random.nextInt(2));
+    }
+}
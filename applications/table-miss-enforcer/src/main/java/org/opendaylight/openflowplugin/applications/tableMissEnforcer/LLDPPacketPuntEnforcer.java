@@ -8,10 +8,12 @@
 
 package org.opendaylight.openflowplugin.applications.tableMissEnforcer;
 
+import com.google.common.base.Preconditions;
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 import org.opendaylight.controller.md.sal.binding.api.DataChangeListener;
 import org.opendaylight.controller.md.sal.common.api.data.AsyncDataChangeEvent;
 import org.opendaylight.openflowplugin.api.OFConstants;
@@ -21,7 +23,14 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.acti
 import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.list.Action;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.list.ActionBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.list.ActionKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FeatureCapability;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNode;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowFeatureCapabilityGroupStats;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowFeatureCapabilityPortBlocked;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.meters.Meter;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.meters.MeterBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.meters.MeterKey;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.Flow;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowKey;
@@ -33,54 +42,181 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.Output
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.flow.InstructionsBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.flow.MatchBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.instruction.instruction.ApplyActionsCaseBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.instruction.instruction.MeterCaseBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.instruction.instruction.apply.actions._case.ApplyActionsBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.instruction.list.Instruction;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.instruction.list.InstructionBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.instruction.list.InstructionKey;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeRef;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.l2.types.rev130827.EtherType;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.meter.service.rev130918.AddMeterInputBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.meter.service.rev130918.SalMeterService;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.meter.types.rev130918.BandId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.meter.types.rev130918.MeterBandType;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.meter.types.rev130918.MeterFlags;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.meter.types.rev130918.MeterId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.meter.types.rev130918.band.type.band.type.DropBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.meter.types.rev130918.meter.MeterBandHeadersBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.meter.types.rev130918.meter.meter.band.headers.MeterBandHeaderBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.meter.types.rev130918.meter.meter.band.headers.meter.band.header.MeterBandTypesBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.model.match.types.rev131026.ethernet.match.fields.EthernetTypeBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.model.match.types.rev131026.match.EthernetMatchBuilder;
 import org.opendaylight.yangtools.yang.binding.DataObject;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Created by Martin Bobak mbobak@cisco.com on 8/27/14.
+ * <p>
+ * Installs punt (send to controller) flows according to {@link PuntPolicy} to every new node. Flows
+ * are built once per switch flavour and only stamped with node on install. OF1.3 switches get flows
+ * in all configured tables and, if configured, a meter capping the packet-in rate. OF1.0 switches
+ * (or switches not announcing OF1.3 capabilities) get table 0 flows without meter.
  */
 public class LLDPPacketPuntEnforcer implements DataChangeListener {
 
+    private static final Logger LOG = LoggerFactory.getLogger(LLDPPacketPuntEnforcer.class);
+
     private static final short TABLE_ID = (short) 0;
     private static final String LLDP_PUNT_WHOLE_PACKET_FLOW = "LLDP_PUNT_WHOLE_PACKET_FLOW";
     private static final String DEFAULT_FLOW_ID = "42";
+    private static final String PUNT_METER_NAME = "PUNT_RATE_LIMIT_METER";
+    private static final int SELECTIVE_PUNT_PRIORITY = 1;
+    private static final long LLDP_ETHER_TYPE = 0x88ccL;
+    private static final long ARP_ETHER_TYPE = 0x0806L;
+
     private final SalFlowService flowService;
+    private final SalMeterService meterService;
+    private final PuntPolicy policy;
+    private final List<Flow> of10Flows;
+    private final List<Flow> of13Flows;
+    private final Meter puntMeter;
 
     public LLDPPacketPuntEnforcer(SalFlowService flowService) {
+        this(flowService, null, PuntPolicy.defaultPolicy());
+    }
+
+    /**
+     * @param flowService
+     * @param meterService - could be null, punt flows are not metered then
+     * @param policy
+     */
+    public LLDPPacketPuntEnforcer(SalFlowService flowService, SalMeterService meterService, PuntPolicy policy) {
         this.flowService = flowService;
+        this.meterService = meterService;
+        this.policy = Preconditions.checkNotNull(policy, "Punt policy can not be null!");
+        final boolean metered = policy.isMetered() && meterService != null;
+        this.of10Flows = createPuntFlows(Collections.singletonList(TABLE_ID), false);
+        this.of13Flows = createPuntFlows(policy.getTableIds(), metered);
+        this.puntMeter = metered ? createPuntMeter() : null;
     }
 
     @Override
     public void onDataChanged(AsyncDataChangeEvent<InstanceIdentifier<?>, DataObject> change) {
-        final Set<InstanceIdentifier<?>> changedDataKeys = change.getCreatedData().keySet();
+        final Map<InstanceIdentifier<?>, DataObject> createdData = change.getCreatedData();
 
-        if (changedDataKeys != null) {
-            for (InstanceIdentifier<?> key : changedDataKeys) {
-                AddFlowInputBuilder addFlowInput = new AddFlowInputBuilder(createFlow());
-                addFlowInput.setNode(new NodeRef(key.firstIdentifierOf(Node.class)));
-                this.flowService.addFlow(addFlowInput.build());
+        if (createdData != null) {
+            for (Map.Entry<InstanceIdentifier<?>, DataObject> entry : createdData.entrySet()) {
+                final FlowCapableNode flowCapableNode = entry.getValue() instanceof FlowCapableNode
+                        ? (FlowCapableNode) entry.getValue() : null;
+                enforcePolicy(new NodeRef(entry.getKey().firstIdentifierOf(Node.class)),
+                        supportsOF13Features(flowCapableNode));
             }
         }
     }
 
+    private void enforcePolicy(final NodeRef nodeRef, final boolean of13) {
+        LOG.debug("Enforcing punt policy on {} node {}", of13 ? "OF1.3" : "OF1.0", nodeRef.getValue());
+        if (of13 && puntMeter != null) {
+            // meter is sent with barrier, so the flows referencing it are not processed sooner
+            meterService.addMeter(new AddMeterInputBuilder(puntMeter).setNode(nodeRef).build());
+        }
+        for (Flow flow : of13 ? of13Flows : of10Flows) {
+            flowService.addFlow(new AddFlowInputBuilder(flow).setNode(nodeRef).build());
+        }
+    }
+
+    /**
+     * Switch announcing capabilities known from OF1.3 only is considered OF1.3 switch. Unknown features
+     * are handled as OF1.0, which is the safe choice (table 0, no meter).
+     */
+    static boolean supportsOF13Features(final FlowCapableNode flowCapableNode) {
+        if (flowCapableNode == null || flowCapableNode.getSwitchFeatures() == null
+                || flowCapableNode.getSwitchFeatures().getCapabilities() == null) {
+            return false;
+        }
+        final List<Class<? extends FeatureCapability>> capabilities = flowCapableNode.getSwitchFeatures().getCapabilities();
+        return capabilities.contains(FlowFeatureCapabilityGroupStats.class)
+                || capabilities.contains(FlowFeatureCapabilityPortBlocked.class);
+    }
+
+    List<Flow> getPuntFlows(final boolean of13) {
+        return of13 ? of13Flows : of10Flows;
+    }
+
+    Meter getPuntMeter() {
+        return puntMeter;
+    }
 
     protected Flow createFlow() {
-        FlowBuilder flowBuilder = new FlowBuilder();
+        return createTableMissFlow(TABLE_ID, false);
+    }
+
+    private List<Flow> createPuntFlows(final List<Short> tableIds, final boolean metered) {
+        final List<Flow> flows = new ArrayList<>();
+        for (Short tableId : tableIds) {
+            if (policy.isPuntTableMiss()) {
+                flows.add(createTableMissFlow(tableId, metered));
+            }
+            if (policy.isPuntLldp()) {
+                flows.add(createEtherTypePuntFlow("lldp-punt-" + tableId, tableId, LLDP_ETHER_TYPE, metered));
+            }
+            if (policy.isPuntArp()) {
+                flows.add(createEtherTypePuntFlow("arp-punt-" + tableId, tableId, ARP_ETHER_TYPE, metered));
+            }
+        }
+        return Collections.unmodifiableList(flows);
+    }
+
+    private Flow createTableMissFlow(final short tableId, final boolean metered) {
+        FlowBuilder flowBuilder = createPuntFlowBuilder(metered);
         flowBuilder.setMatch(new MatchBuilder().build());
-        flowBuilder.setInstructions(createSendToControllerInstructions().build());
         flowBuilder.setPriority(0);
 
-        FlowKey key = new FlowKey(new FlowId(DEFAULT_FLOW_ID));
+        // table 0 flow keeps its original identity
+        final String flowId = tableId == TABLE_ID ? DEFAULT_FLOW_ID : "table-miss-punt-" + tableId;
+        flowBuilder.setId(new FlowId(tableId == TABLE_ID ? "12" : flowId));
+        flowBuilder.setTableId(tableId);
+        flowBuilder.setKey(new FlowKey(new FlowId(flowId)));
+        flowBuilder.setFlowName(LLDP_PUNT_WHOLE_PACKET_FLOW);
+
+        return flowBuilder.build();
+    }
+
+    private Flow createEtherTypePuntFlow(final String flowId, final short tableId, final long etherType,
+                                         final boolean metered) {
+        FlowBuilder flowBuilder = createPuntFlowBuilder(metered);
+        EthernetMatchBuilder ethernetMatch = new EthernetMatchBuilder();
+        ethernetMatch.setEthernetType(new EthernetTypeBuilder().setType(new EtherType(etherType)).build());
+        flowBuilder.setMatch(new MatchBuilder().setEthernetMatch(ethernetMatch.build()).build());
+        flowBuilder.setPriority(SELECTIVE_PUNT_PRIORITY);
+
+        flowBuilder.setId(new FlowId(flowId));
+        flowBuilder.setTableId(tableId);
+        flowBuilder.setKey(new FlowKey(new FlowId(flowId)));
+        flowBuilder.setFlowName(flowId);
+
+        return flowBuilder.build();
+    }
+
+    private FlowBuilder createPuntFlowBuilder(final boolean metered) {
+        FlowBuilder flowBuilder = new FlowBuilder();
+        flowBuilder.setInstructions(createSendToControllerInstructions(metered ? policy.getMeterId() : null).build());
         flowBuilder.setBarrier(Boolean.FALSE);
         flowBuilder.setBufferId(OFConstants.OFP_NO_BUFFER);
         BigInteger value = BigInteger.valueOf(10L);
-        // BigInteger outputPort = BigInteger.valueOf(65535L);
         flowBuilder.setCookie(new FlowCookie(value));
         flowBuilder.setCookieMask(new FlowCookie(value));
         flowBuilder.setHardTimeout(0);
@@ -89,15 +225,35 @@ public class LLDPPacketPuntEnforcer implements DataChangeListener {
         flowBuilder.setStrict(false);
         flowBuilder.setContainerName(null);
         flowBuilder.setFlags(new FlowModFlags(false, false, false, false, true));
-        flowBuilder.setId(new FlowId("12"));
-        flowBuilder.setTableId(TABLE_ID);
-        flowBuilder.setKey(key);
-        flowBuilder.setFlowName(LLDP_PUNT_WHOLE_PACKET_FLOW);
+        return flowBuilder;
+    }
 
-        return flowBuilder.build();
+    private Meter createPuntMeter() {
+        MeterBuilder meterBuilder = new MeterBuilder();
+        meterBuilder.setMeterId(new MeterId(policy.getMeterId()));
+        meterBuilder.setKey(new MeterKey(new MeterId(policy.getMeterId())));
+        meterBuilder.setMeterName(PUNT_METER_NAME);
+        meterBuilder.setBarrier(Boolean.TRUE);
+        final boolean burst = policy.getMeterBurstSize() > 0;
+        meterBuilder.setFlags(new MeterFlags(burst, false, true, true));
+
+        DropBuilder drop = new DropBuilder();
+        drop.setDropRate(policy.getMeterRate());
+        drop.setDropBurstSize(policy.getMeterBurstSize());
+
+        MeterBandHeaderBuilder bandHeader = new MeterBandHeaderBuilder();
+        bandHeader.setBandId(new BandId(0L));
+        bandHeader.setBandRate(policy.getMeterRate());
+        bandHeader.setBandBurstSize(policy.getMeterBurstSize());
+        bandHeader.setBandType(drop.build());
+        bandHeader.setMeterBandTypes(new MeterBandTypesBuilder().setFlags(new MeterBandType(true, false, false)).build());
+
+        meterBuilder.setMeterBandHeaders(new MeterBandHeadersBuilder()
+                .setMeterBandHeader(Collections.singletonList(bandHeader.build())).build());
+        return meterBuilder.build();
     }
 
-    private static InstructionsBuilder createSendToControllerInstructions() {
+    private static InstructionsBuilder createSendToControllerInstructions(final Long meterId) {
         List<Action> actionList = new ArrayList<Action>();
         ActionBuilder ab = new ActionBuilder();
 
@@ -113,15 +269,28 @@ public class LLDPPacketPuntEnforcer implements DataChangeListener {
         ApplyActionsBuilder aab = new ApplyActionsBuilder();
         aab.setAction(actionList);
 
+        List<Instruction> instructions = new ArrayList<Instruction>();
+        int order = 0;
+        if (meterId != null) {
+            // Meter instruction is executed before actions
+            InstructionBuilder mib = new InstructionBuilder();
+            mib.setInstruction(new MeterCaseBuilder().setMeter(
+                    new org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.instruction.instruction.meter._case.MeterBuilder()
+                            .setMeterId(new MeterId(meterId)).build()).build());
+            mib.setOrder(order);
+            mib.setKey(new InstructionKey(order));
+            instructions.add(mib.build());
+            order++;
+        }
+
         // Wrap our Apply Action in an Instruction
         InstructionBuilder ib = new InstructionBuilder();
         ib.setInstruction(new ApplyActionsCaseBuilder().setApplyActions(aab.build()).build());
-        ib.setOrder(0);
-        ib.setKey(new InstructionKey(0));
+        ib.setOrder(order);
+        ib.setKey(new InstructionKey(order));
 
         // Put our Instruction in a list of Instructions
         InstructionsBuilder isb = new InstructionsBuilder();
-        List<Instruction> instructions = new ArrayList<Instruction>();
         instructions.add(ib.build());
         isb.setInstruction(instructions);
         return isb;
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.openflowplugin.applications.tableMissEnforcer;
+
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Punt policy of {@link LLDPPacketPuntEnforcer} - which traffic is sent to controller, in which tables
+ * and whether the packet-in rate is capped by meter on switches supporting it (OF1.3).
+ */
+public final class PuntPolicy {
+
+    /** OFPM_MAX - last usable meter id, unlikely to clash with meters of applications */
+    public static final long DEFAULT_METER_ID = 0xffff0000L;
+    private static final List<Short> DEFAULT_TABLE_IDS = Collections.singletonList((short) 0);
+
+    private final boolean puntTableMiss;
+    private final boolean puntLldp;
+    private final boolean puntArp;
+    private final List<Short> tableIds;
+    private final long meterId;
+    private final long meterRate;
+    private final long meterBurstSize;
+
+    private PuntPolicy(final PuntPolicyBuilder builder) {
+        this.puntTableMiss = builder.isPuntTableMiss();
+        this.puntLldp = builder.isPuntLldp();
+        this.puntArp = builder.isPuntArp();
+        this.tableIds = builder.getTableIds() == null || builder.getTableIds().isEmpty()
+                ? DEFAULT_TABLE_IDS : Collections.unmodifiableList(new ArrayList<>(builder.getTableIds()));
+        this.meterId = builder.getMeterId();
+        this.meterRate = builder.getMeterRate();
+        this.meterBurstSize = builder.getMeterBurstSize();
+    }
+
+    /**
+     * @return policy of the original enforcer - everything missing table 0 goes to controller
+     */
+    public static PuntPolicy defaultPolicy() {
+        return builder().build();
+    }
+
+    public boolean isPuntTableMiss() {
+        return puntTableMiss;
+    }
+
+    public boolean isPuntLldp() {
+        return puntLldp;
+    }
+
+    public boolean isPuntArp() {
+        return puntArp;
+    }
+
+    /**
+     * @return tables punt flows are installed to (OF1.3 only, OF1.0 has table 0 only), never empty
+     */
+    public List<Short> getTableIds() {
+        return tableIds;
+    }
+
+    public long getMeterId() {
+        return meterId;
+    }
+
+    /**
+     * @return packet-in rate cap in packets per second, 0 means no meter
+     */
+    public long getMeterRate() {
+        return meterRate;
+    }
+
+    public long getMeterBurstSize() {
+        return meterBurstSize;
+    }
+
+    public boolean isMetered() {
+        return meterRate > 0;
+    }
+
+    public static PuntPolicyBuilder builder() {
+        return new PuntPolicyBuilder();
+    }
+
+    public static class PuntPolicyBuilder {
+        private boolean puntTableMiss = true;
+        private boolean puntLldp;
+        private boolean puntArp;
+        private List<Short> tableIds;
+        private long meterId = DEFAULT_METER_ID;
+        private long meterRate;
+        private long meterBurstSize;
+
+        public boolean isPuntTableMiss() {
+            return puntTableMiss;
+        }
+
+        public PuntPolicyBuilder setPuntTableMiss(final boolean puntTableMiss) {
+            this.puntTableMiss = puntTableMiss;
+            return this;
+        }
+
+        public boolean isPuntLldp() {
+            return puntLldp;
+        }
+
+        public PuntPolicyBuilder setPuntLldp(final boolean puntLldp) {
+            this.puntLldp = puntLldp;
+            return this;
+        }
+
+        public boolean isPuntArp() {
+            return puntArp;
+        }
+
+        public PuntPolicyBuilder setPuntArp(final boolean puntArp) {
+            this.puntArp = puntArp;
+            return this;
+        }
+
+        public List<Short> getTableIds() {
+            return tableIds;
+        }
+
+        public PuntPolicyBuilder setTableIds(final List<Short> tableIds) {
+            this.tableIds = tableIds;
+            return this;
+        }
+
+        public long getMeterId() {
+            return meterId;
+        }
+
+        public PuntPolicyBuilder setMeterId(final long meterId) {
+            this.meterId = meterId;
+            return this;
+        }
+
+        public long getMeterRate() {
+            return meterRate;
+        }
+
+        public PuntPolicyBuilder setMeterRate(final long meterRate) {
+            this.meterRate = meterRate;
+            return this;
+        }
+
+        public long getMeterBurstSize() {
+            return meterBurstSize;
+        }
+
+        public PuntPolicyBuilder setMeterBurstSize(final long meterBurstSize) {
+            this.meterBurstSize = meterBurstSize;
+            return this;
+        }
+
+        public PuntPolicy build() {
+            Preconditions.checkArgument(meterRate >= 0, "Meter rate can not be negative");
+            Preconditions.checkArgument(meterBurstSize >= 0, "Meter burst size can not be negative");
+            return new PuntPolicy(this);
+        }
+    }
+}
@@ -5,11 +5,13 @@ import org.opendaylight.controller.md.sal.binding.api.DataChangeListener;
 import org.opendaylight.controller.md.sal.common.api.data.AsyncDataBroker;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.openflowplugin.applications.tableMissEnforcer.LLDPPacketPuntEnforcer;
+import org.opendaylight.openflowplugin.applications.tableMissEnforcer.PuntPolicy;
 import org.opendaylight.openflowplugin.common.wait.SimpleTaskRetryLooper;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNode;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.service.rev130819.SalFlowService;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.Nodes;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.meter.service.rev130918.SalMeterService;
 import org.opendaylight.yangtools.concepts.ListenerRegistration;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 import org.slf4j.Logger;
@@ -37,6 +39,8 @@ public class LLDPPacketPuntEnforcerModule extends org.opendaylight.yang.gen.v1.u
     public java.lang.AutoCloseable createInstance() {
         final InstanceIdentifier<FlowCapableNode> path = InstanceIdentifier.create(Nodes.class).child(Node.class).augmentation(FlowCapableNode.class);
         final SalFlowService salFlowService = getRpcRegistryDependency().getRpcService(SalFlowService.class);
+        final SalMeterService salMeterService = getRpcRegistryDependency().getRpcService(SalMeterService.class);
+        final PuntPolicy puntPolicy = createPuntPolicy();
 
         ListenerRegistration<DataChangeListener> dataChangeListenerRegistration;
         SimpleTaskRetryLooper looper = new SimpleTaskRetryLooper(STARTUP_LOOP_TICK, STARTUP_LOOP_MAX_RETRIES);
@@ -47,7 +51,7 @@ public class LLDPPacketPuntEnforcerModule extends org.opendaylight.yang.gen.v1.u
                     return getDataBrokerDependency().registerDataChangeListener(
                             LogicalDatastoreType.OPERATIONAL,
                             path,
-                            new LLDPPacketPuntEnforcer(salFlowService),
+                            new LLDPPacketPuntEnforcer(salFlowService, salMeterService, puntPolicy),
                             AsyncDataBroker.DataChangeScope.BASE);
                 }
             });
@@ -59,4 +63,31 @@ public class LLDPPacketPuntEnforcerModule extends org.opendaylight.yang.gen.v1.u
         return dataChangeListenerRegistration;
     }
 
+    private PuntPolicy createPuntPolicy() {
+        final PuntPolicy.PuntPolicyBuilder builder = PuntPolicy.builder();
+        final PuntPolicySettings config = getPuntPolicySettings();
+        if (config != null) {
+            if (config.getPuntTableMiss() != null) {
+                builder.setPuntTableMiss(config.getPuntTableMiss());
+            }
+            if (config.getPuntLldp() != null) {
+                builder.setPuntLldp(config.getPuntLldp());
+            }
+            if (config.getPuntArp() != null) {
+                builder.setPuntArp(config.getPuntArp());
+            }
+            builder.setTableIds(config.getPuntTableId());
+            if (config.getMeterRate() != null) {
+                builder.setMeterRate(config.getMeterRate());
+            }
+            if (config.getMeterBurstSize() != null) {
+                builder.setMeterBurstSize(config.getMeterBurstSize());
+            }
+            if (config.getMeterId() != null) {
+                builder.setMeterId(config.getMeterId());
+            }
+        }
+        return builder.build();
+    }
+
 }
@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.openflowplugin.applications.tableMissEnforcer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.opendaylight.controller.md.sal.common.api.data.AsyncDataChangeEvent;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FeatureCapability;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNode;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNodeBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowFeatureCapabilityArpMatchIp;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowFeatureCapabilityFlowStats;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowFeatureCapabilityGroupStats;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.flow.node.SwitchFeaturesBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.meters.Meter;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.Flow;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.service.rev130819.AddFlowInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.service.rev130819.SalFlowService;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.instruction.instruction.ApplyActionsCase;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.instruction.instruction.MeterCase;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.instruction.list.Instruction;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.Nodes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.NodeKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.meter.service.rev130918.AddMeterInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.meter.service.rev130918.SalMeterService;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.meter.types.rev130918.band.type.band.type.Drop;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.meter.types.rev130918.meter.meter.band.headers.MeterBandHeader;
+import org.opendaylight.yangtools.yang.binding.DataObject;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+/**
+ * Test of punt policy enforcement on OF1.0 and OF1.3 nodes.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class LLDPPacketPuntEnforcerTest {
+
+    private static final long METER_RATE = 1000L;
+    private static final long METER_BURST_SIZE = 100L;
+    private static final long LLDP_ETHER_TYPE = 0x88ccL;
+    private static final long ARP_ETHER_TYPE = 0x0806L;
+
+    @Mock
+    private SalFlowService flowService;
+    @Mock
+    private SalMeterService meterService;
+    @Mock
+    private AsyncDataChangeEvent<InstanceIdentifier<?>, DataObject> changeEvent;
+
+    private PuntPolicy policy;
+
+    @Before
+    public void setUp() {
+        policy = PuntPolicy.builder()
+                .setPuntTableMiss(false)
+                .setPuntLldp(true)
+                .setPuntArp(true)
+                .setTableIds(Arrays.asList((short) 0, (short) 1))
+                .setMeterRate(METER_RATE)
+                .setMeterBurstSize(METER_BURST_SIZE)
+                .build();
+    }
+
+    @Test
+    public void testDefaultPolicy() {
+        final LLDPPacketPuntEnforcer enforcer = new LLDPPacketPuntEnforcer(flowService);
+        assertNull(enforcer.getPuntMeter());
+        for (final boolean of13 : new boolean[] {false, true}) {
+            final List<Flow> flows = enforcer.getPuntFlows(of13);
+            assertEquals(1, flows.size());
+            assertEquals(0, flows.get(0).getTableId().shortValue());
+            assertEquals(0, flows.get(0).getPriority().intValue());
+            assertNull(flows.get(0).getMatch().getEthernetMatch());
+            assertFalse(isMetered(flows.get(0)));
+        }
+    }
+
+    @Test
+    public void testOF10Flows() {
+        final List<Flow> flows = new LLDPPacketPuntEnforcer(flowService, meterService, policy).getPuntFlows(false);
+        assertEquals(2, flows.size());
+        assertEquals(Arrays.asList(LLDP_ETHER_TYPE, ARP_ETHER_TYPE), collectEtherTypes(flows));
+        for (final Flow flow : flows) {
+            assertEquals(0, flow.getTableId().shortValue());
+            assertFalse(isMetered(flow));
+        }
+    }
+
+    @Test
+    public void testOF13Flows() {
+        final LLDPPacketPuntEnforcer enforcer = new LLDPPacketPuntEnforcer(flowService, meterService, policy);
+        final List<Flow> flows = enforcer.getPuntFlows(true);
+        assertEquals(4, flows.size());
+        assertEquals(Arrays.asList(LLDP_ETHER_TYPE, ARP_ETHER_TYPE, LLDP_ETHER_TYPE, ARP_ETHER_TYPE),
+                collectEtherTypes(flows));
+        for (final Flow flow : flows) {
+            assertTrue(isMetered(flow));
+        }
+        assertEquals(1, flows.get(2).getTableId().shortValue());
+
+        final Meter meter = enforcer.getPuntMeter();
+        assertEquals(PuntPolicy.DEFAULT_METER_ID, meter.getMeterId().getValue().longValue());
+        assertTrue(meter.getFlags().isMeterPktps());
+        assertTrue(meter.getFlags().isMeterBurst());
+        final MeterBandHeader band = meter.getMeterBandHeaders().getMeterBandHeader().get(0);
+        assertEquals(METER_RATE, ((Drop) band.getBandType()).getDropRate().longValue());
+        assertEquals(METER_BURST_SIZE, ((Drop) band.getBandType()).getDropBurstSize().longValue());
+    }
+
+    @Test
+    public void testNoMeterService() {
+        final LLDPPacketPuntEnforcer enforcer = new LLDPPacketPuntEnforcer(flowService, null, policy);
+        assertNull(enforcer.getPuntMeter());
+        for (final Flow flow : enforcer.getPuntFlows(true)) {
+            assertFalse(isMetered(flow));
+        }
+    }
+
+    /**
+     * OF1.0 node gets table 0 flows only, OF1.3 node gets meter and flows in all tables
+     */
+    @Test
+    public void testOnDataChanged() {
+        final Map<InstanceIdentifier<?>, DataObject> createdData = new HashMap<>();
+        createdData.put(createNodePath("openflow:10"), createFlowCapableNode(FlowFeatureCapabilityArpMatchIp.class));
+        createdData.put(createNodePath("openflow:13"), createFlowCapableNode(FlowFeatureCapabilityGroupStats.class));
+        doReturn(createdData).when(changeEvent).getCreatedData();
+
+        new LLDPPacketPuntEnforcer(flowService, meterService, policy).onDataChanged(changeEvent);
+
+        final ArgumentCaptor<AddMeterInput> meterCaptor = ArgumentCaptor.forClass(AddMeterInput.class);
+        verify(meterService, times(1)).addMeter(meterCaptor.capture());
+        assertEquals(createNodePath("openflow:13").firstIdentifierOf(Node.class), meterCaptor.getValue().getNode().getValue());
+        assertTrue(meterCaptor.getValue().isBarrier());
+
+        final ArgumentCaptor<AddFlowInput> flowCaptor = ArgumentCaptor.forClass(AddFlowInput.class);
+        verify(flowService, times(6)).addFlow(flowCaptor.capture());
+        int of10Flows = 0;
+        for (final AddFlowInput input : flowCaptor.getAllValues()) {
+            if (createNodePath("openflow:10").firstIdentifierOf(Node.class).equals(input.getNode().getValue())) {
+                of10Flows++;
+                assertEquals(0, input.getTableId().shortValue());
+            }
+        }
+        assertEquals(2, of10Flows);
+    }
+
+    @Test
+    public void testSupportsOF13Features() {
+        assertFalse(LLDPPacketPuntEnforcer.supportsOF13Features(null));
+        assertFalse(LLDPPacketPuntEnforcer.supportsOF13Features(new FlowCapableNodeBuilder().build()));
+        assertFalse(LLDPPacketPuntEnforcer.supportsOF13Features(createFlowCapableNode(FlowFeatureCapabilityFlowStats.class)));
+        assertTrue(LLDPPacketPuntEnforcer.supportsOF13Features(createFlowCapableNode(FlowFeatureCapabilityGroupStats.class)));
+    }
+
+    @Test
+    public void testEmptyChange() {
+        doReturn(new HashMap<InstanceIdentifier<?>, DataObject>()).when(changeEvent).getCreatedData();
+        new LLDPPacketPuntEnforcer(flowService, meterService, policy).onDataChanged(changeEvent);
+        verify(flowService, never()).addFlow(any(AddFlowInput.class));
+        verify(meterService, never()).addMeter(any(AddMeterInput.class));
+    }
+
+    private static InstanceIdentifier<FlowCapableNode> createNodePath(final String nodeId) {
+        return InstanceIdentifier.create(Nodes.class).child(Node.class, new NodeKey(new NodeId(nodeId)))
+                .augmentation(FlowCapableNode.class);
+    }
+
+    private static FlowCapableNode createFlowCapableNode(final Class<? extends FeatureCapability> capability) {
+        final List<Class<? extends FeatureCapability>> capabilities = new ArrayList<>();
+        capabilities.add(capability);
+        return new FlowCapableNodeBuilder()
+                .setSwitchFeatures(new SwitchFeaturesBuilder().setCapabilities(capabilities).build()).build();
+    }
+
+    private static List<Long> collectEtherTypes(final List<Flow> flows) {
+        final List<Long> etherTypes = new ArrayList<>();
+        for (final Flow flow : flows) {
+            etherTypes.add(flow.getMatch().getEthernetMatch().getEthernetType().getType().getValue());
+        }
+        return etherTypes;
+    }
+
+    /**
+     * meter instruction has to precede apply actions
+     */
+    private static boolean isMetered(final Flow flow) {
+        final List<Instruction> instructions = flow.getInstructions().getInstruction();
+        final Instruction last = instructions.get(instructions.size() - 1);
+        assertTrue(last.getInstruction() instanceof ApplyActionsCase);
+        return instructions.size() == 2 && instructions.get(0).getInstruction() instanceof MeterCase
+                && instructions.get(0).getOrder() < last.getOrder();
+    }
+}
@@ -58,6 +58,7 @@ class FlowCapableTopologyExporter implements FlowTopologyDiscoveryListener {
                 final Link link = toTopologyLink(notification);
                 final InstanceIdentifier<Link> path = TopologyManagerUtil.linkPath(link, iiToTopology);
                 transaction.merge(LogicalDatastoreType.OPERATIONAL, path, link, true);
+                processor.getLinkIndex().addLink(link);
             }
 
             @Override
@@ -77,17 +78,27 @@ class FlowCapableTopologyExporter implements FlowTopologyDiscoveryListener {
         processor.enqueueOperation(new TopologyOperation() {
             @Override
             public void applyOperation(final ReadWriteTransaction transaction) {
+                final Link link = toTopologyLink(notification);
+                final TopologyLinkIndex linkIndex = processor.getLinkIndex();
+                if (linkIndex.isSeeded()) {
+                    // index covers whole topology, unknown link doesn't exist
+                    if (linkIndex.removeLink(link.getLinkId()) != null) {
+                        transaction.delete(LogicalDatastoreType.OPERATIONAL, TopologyManagerUtil.linkPath(link, iiToTopology));
+                    }
+                    return;
+                }
+
                 Optional<Link> linkOptional = Optional.absent();
                 try {
                     // read that checks if link exists (if we do not do this we might get an exception on delete)
                     linkOptional = transaction.read(LogicalDatastoreType.OPERATIONAL,
-                            TopologyManagerUtil.linkPath(toTopologyLink(notification), iiToTopology)).checkedGet();
+                            TopologyManagerUtil.linkPath(link, iiToTopology)).checkedGet();
                 } catch (ReadFailedException e) {
                     LOG.warn("Error occured when trying to read Link: {}", e.getMessage());
                     LOG.debug("Error occured when trying to read Link.. ", e);
                 }
                 if (linkOptional.isPresent()) {
-                    transaction.delete(LogicalDatastoreType.OPERATIONAL, TopologyManagerUtil.linkPath(toTopologyLink(notification), iiToTopology));
+                    transaction.delete(LogicalDatastoreType.OPERATIONAL, TopologyManagerUtil.linkPath(link, iiToTopology));
                 }
             }
 
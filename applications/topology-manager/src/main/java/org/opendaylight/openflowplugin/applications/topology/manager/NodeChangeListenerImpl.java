@@ -57,7 +57,7 @@ public class NodeChangeListenerImpl extends DataChangeListenerImpl {
                     @Override
                     public void applyOperation(final ReadWriteTransaction transaction) {
                         transaction.delete(LogicalDatastoreType.OPERATIONAL, iiToTopologyRemovedNode);
-                        TopologyManagerUtil.removeAffectedLinks(nodeId, transaction, II_TO_TOPOLOGY);
+                        TopologyManagerUtil.removeAffectedLinks(nodeId, operationProcessor.getLinkIndex(), transaction, II_TO_TOPOLOGY);
                     }
                 });
             } else {
@@ -27,6 +27,7 @@ final class OperationProcessor implements AutoCloseable, Runnable, TransactionCh
 
     private final BlockingQueue<TopologyOperation> queue = new LinkedBlockingQueue<>(OPERATION_QUEUE_DEPTH);
     private final DataBroker dataBroker;
+    private final TopologyLinkIndex linkIndex = new TopologyLinkIndex();
     private BindingTransactionChain transactionChain;
     private volatile boolean finishing = false;
 
@@ -35,6 +36,10 @@ final class OperationProcessor implements AutoCloseable, Runnable, TransactionCh
         transactionChain = this.dataBroker.createTransactionChain(this);
     }
 
+    TopologyLinkIndex getLinkIndex() {
+        return linkIndex;
+    }
+
     void enqueueOperation(final TopologyOperation task) {
         try {
             queue.put(task);
@@ -75,6 +80,7 @@ final class OperationProcessor implements AutoCloseable, Runnable, TransactionCh
                         LOG.warn("Stat DataStoreOperation unexpected State!", e);
                         transactionChain.close();
                         transactionChain = dataBroker.createTransactionChain(this);
+                        linkIndex.invalidate();
                         cleanDataStoreOperQueue();
                     }
 
@@ -82,12 +88,14 @@ final class OperationProcessor implements AutoCloseable, Runnable, TransactionCh
                     LOG.warn("Stat DataStoreOperation unexpected State!", e);
                     transactionChain.close();
                     transactionChain = dataBroker.createTransactionChain(this);
+                    linkIndex.invalidate();
                     cleanDataStoreOperQueue();
                 } catch (final InterruptedException e) {
                     LOG.warn("Stat Manager DS Operation thread interupted!", e);
                     finishing = true;
                 } catch (final Exception e) {
                     LOG.warn("Stat DataStore Operation executor fail!", e);
+                    linkIndex.invalidate();
                 }
             }
         // Drain all events, making sure any blocked threads are unblocked
@@ -106,6 +114,7 @@ final class OperationProcessor implements AutoCloseable, Runnable, TransactionCh
         LOG.debug("Failed to export Topology manager operations.. ", cause);
         transactionChain.close();
         transactionChain = dataBroker.createTransactionChain(this);
+        linkIndex.invalidate();
         cleanDataStoreOperQueue();
     }
 
@@ -73,7 +73,8 @@ public class TerminationPointChangeListenerImpl extends DataChangeListenerImpl {
                             LOG.debug("Error occured when trying to read NodeConnector.. ", e);
                         }
                         if (nodeOptional.isPresent()) {
-                            TopologyManagerUtil.removeAffectedLinks(terminationPointId, transaction, II_TO_TOPOLOGY);
+                            TopologyManagerUtil.removeAffectedLinks(terminationPointId, operationProcessor.getLinkIndex(),
+                                    transaction, II_TO_TOPOLOGY);
                             transaction.delete(LogicalDatastoreType.OPERATIONAL, iiToTopologyTerminationPoint);
                         }
                     }
@@ -124,7 +125,8 @@ public class TerminationPointChangeListenerImpl extends DataChangeListenerImpl {
             public void applyOperation(final ReadWriteTransaction transaction) {
                 if ((flowCapNodeConnector.getState() != null && flowCapNodeConnector.getState().isLinkDown())
                         || (flowCapNodeConnector.getConfiguration() != null && flowCapNodeConnector.getConfiguration().isPORTDOWN())) {
-                    TopologyManagerUtil.removeAffectedLinks(point.getTpId(), transaction, II_TO_TOPOLOGY);
+                    TopologyManagerUtil.removeAffectedLinks(point.getTpId(), operationProcessor.getLinkIndex(),
+                            transaction, II_TO_TOPOLOGY);
                 }
             }
         });
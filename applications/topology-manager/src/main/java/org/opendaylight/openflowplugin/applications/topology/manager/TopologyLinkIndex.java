@@ -0,0 +1,182 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.applications.topology.manager;
+
+import com.google.common.base.Optional;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.opendaylight.controller.md.sal.binding.api.ReadTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.LinkId;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.NodeId;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.TpId;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.Topology;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.Link;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In-memory adjacency index of topology links (node -> links, termination point -> links), so removal
+ * of node or termination point touches only affected links instead of scanning whole topology.
+ * <p>
+ * Index is seeded lazily by single read of the topology, afterwards it is kept by link discovered / removed
+ * operations. Modifications are expected from {@link OperationProcessor} thread, which drops the index
+ * whenever a transaction carrying them gets lost.
+ */
+final class TopologyLinkIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TopologyLinkIndex.class);
+
+    private final Map<LinkId, Link> links = new HashMap<>();
+    private final Map<NodeId, Set<LinkId>> nodeLinks = new HashMap<>();
+    private final Map<TpId, Set<LinkId>> tpLinks = new HashMap<>();
+    private boolean seeded = false;
+
+    /**
+     * @return true if index reflects whole topology, so link missing in index doesn't exist in topology
+     */
+    synchronized boolean isSeeded() {
+        return seeded;
+    }
+
+    /**
+     * Seeds index from topology content, unless it is seeded already.
+     *
+     * @return false if topology could not be read (index stays not seeded)
+     */
+    synchronized boolean ensureSeeded(final ReadTransaction transaction, final InstanceIdentifier<Topology> topology) {
+        if (seeded) {
+            return true;
+        }
+        Optional<Topology> topologyOptional = Optional.absent();
+        try {
+            topologyOptional = transaction.read(LogicalDatastoreType.OPERATIONAL, topology).checkedGet();
+        } catch (ReadFailedException e) {
+            LOG.warn("Error reading topology data for topology {}: {}", topology, e.getMessage());
+            LOG.debug("Error reading topology data for topology.. ", e);
+            return false;
+        }
+        clear();
+        if (topologyOptional.isPresent() && topologyOptional.get().getLink() != null) {
+            // keys are unique in datastore, no need to unindex previous versions
+            for (final Link link : topologyOptional.get().getLink()) {
+                index(link);
+            }
+        }
+        seeded = true;
+        LOG.debug("Link index seeded with {} links", links.size());
+        return true;
+    }
+
+    synchronized void addLink(final Link link) {
+        unindex(link.getLinkId());
+        index(link);
+    }
+
+    /**
+     * @return removed link or null if link is unknown
+     */
+    synchronized Link removeLink(final LinkId linkId) {
+        return unindex(linkId);
+    }
+
+    synchronized List<Link> removeLinks(final NodeId nodeId) {
+        return unindexAll(nodeLinks.get(nodeId));
+    }
+
+    synchronized List<Link> removeLinks(final TpId tpId) {
+        return unindexAll(tpLinks.get(tpId));
+    }
+
+    /**
+     * Drops whole index, next user has to seed it again.
+     */
+    synchronized void invalidate() {
+        clear();
+        seeded = false;
+    }
+
+    private void clear() {
+        links.clear();
+        nodeLinks.clear();
+        tpLinks.clear();
+    }
+
+    private void index(final Link link) {
+        links.put(link.getLinkId(), link);
+        if (link.getSource() != null) {
+            put(nodeLinks, link.getSource().getSourceNode(), link.getLinkId());
+            put(tpLinks, link.getSource().getSourceTp(), link.getLinkId());
+        }
+        if (link.getDestination() != null) {
+            put(nodeLinks, link.getDestination().getDestNode(), link.getLinkId());
+            put(tpLinks, link.getDestination().getDestTp(), link.getLinkId());
+        }
+    }
+
+    private Link unindex(final LinkId linkId) {
+        final Link link = links.remove(linkId);
+        if (link != null) {
+            if (link.getSource() != null) {
+                remove(nodeLinks, link.getSource().getSourceNode(), linkId);
+                remove(tpLinks, link.getSource().getSourceTp(), linkId);
+            }
+            if (link.getDestination() != null) {
+                remove(nodeLinks, link.getDestination().getDestNode(), linkId);
+                remove(tpLinks, link.getDestination().getDestTp(), linkId);
+            }
+        }
+        return link;
+    }
+
+    private List<Link> unindexAll(final Set<LinkId> linkIds) {
+        if (linkIds == null) {
+            return Collections.emptyList();
+        }
+        final List<Link> removed = new ArrayList<>(linkIds.size());
+        for (final LinkId linkId : new ArrayList<>(linkIds)) {
+            final Link link = unindex(linkId);
+            if (link != null) {
+                removed.add(link);
+            }
+        }
+        return removed;
+    }
+
+    private static <K> void put(final Map<K, Set<LinkId>> map, final K key, final LinkId linkId) {
+        if (key == null) {
+            return;
+        }
+        Set<LinkId> linkIds = map.get(key);
+        if (linkIds == null) {
+            linkIds = new HashSet<>();
+            map.put(key, linkIds);
+        }
+        linkIds.add(linkId);
+    }
+
+    private static <K> void remove(final Map<K, Set<LinkId>> map, final K key, final LinkId linkId) {
+        if (key == null) {
+            return;
+        }
+        final Set<LinkId> linkIds = map.get(key);
+        if (linkIds != null) {
+            linkIds.remove(linkId);
+            if (linkIds.isEmpty()) {
+                map.remove(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.applications.topology.manager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.opendaylight.openflowplugin.applications.topology.manager.TestUtils.newLink;
+
+import com.google.common.base.Optional;
+import com.google.common.util.concurrent.Futures;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.controller.md.sal.binding.api.ReadTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.LinkId;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.NetworkTopology;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.NodeId;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.TopologyId;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.TpId;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.link.attributes.DestinationBuilder;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.link.attributes.SourceBuilder;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.Topology;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.TopologyBuilder;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.TopologyKey;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.Link;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class TopologyLinkIndexTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TopologyLinkIndexTest.class);
+    private static final int SPINES = 10;
+
+    private InstanceIdentifier<Topology> topologyIID;
+    private TopologyLinkIndex linkIndex;
+
+    @Before
+    public void setUp() {
+        topologyIID = InstanceIdentifier.create(NetworkTopology.class)
+                .child(Topology.class, new TopologyKey(new TopologyId("flow:1")));
+        linkIndex = new TopologyLinkIndex();
+    }
+
+    @Test
+    public void testSeedAndRemove() {
+        final ReadTransaction mockTx = mockTopologyRead(provideSpineLeafLinks(100));
+        assertFalse(linkIndex.isSeeded());
+        assertTrue(linkIndex.ensureSeeded(mockTx, topologyIID));
+        assertTrue(linkIndex.ensureSeeded(mockTx, topologyIID));
+        verify(mockTx, times(1)).read(LogicalDatastoreType.OPERATIONAL, topologyIID);
+
+        // leaf0 is connected to every spine
+        assertEquals(SPINES, linkIndex.removeLinks(new NodeId("leaf0")).size());
+        assertTrue(linkIndex.removeLinks(new NodeId("leaf0")).isEmpty());
+        assertEquals(1, linkIndex.removeLinks(new TpId("leaf1:1")).size());
+        // spine1 lost links to leaf0 and leaf1 already
+        assertEquals(100 / SPINES - 2, linkIndex.removeLinks(new NodeId("spine1")).size());
+        assertNull(linkIndex.removeLink(new LinkId("spine1:2")));
+    }
+
+    @Test
+    public void testAddLinkReplacesEndpoints() {
+        assertTrue(linkIndex.ensureSeeded(mockTopologyRead(new ArrayList<Link>()), topologyIID));
+        linkIndex.addLink(newLink("link1", new SourceBuilder().setSourceNode(new NodeId("a")).build(),
+                new DestinationBuilder().setDestNode(new NodeId("b")).build()));
+        linkIndex.addLink(newLink("link1", new SourceBuilder().setSourceNode(new NodeId("a")).build(),
+                new DestinationBuilder().setDestNode(new NodeId("c")).build()));
+
+        assertTrue(linkIndex.removeLinks(new NodeId("b")).isEmpty());
+        assertEquals(1, linkIndex.removeLinks(new NodeId("c")).size());
+        assertTrue(linkIndex.removeLinks(new NodeId("a")).isEmpty());
+
+        linkIndex.invalidate();
+        assertFalse(linkIndex.isSeeded());
+    }
+
+    @Test
+    public void testRemoveSpine10k() {
+        checkSpineRemoval(10000);
+    }
+
+    @Test
+    public void testRemoveSpine100k() {
+        checkSpineRemoval(100000);
+    }
+
+    private void checkSpineRemoval(final int linkCount) {
+        assertTrue(linkIndex.ensureSeeded(mockTopologyRead(provideSpineLeafLinks(linkCount)), topologyIID));
+
+        final long start = System.nanoTime();
+        int removed = 0;
+        for (int i = 0; i < SPINES; i++) {
+            removed += linkIndex.removeLinks(new NodeId("spine" + i)).size();
+        }
+        LOG.info("Removal of {} spines from {} links took {} us", SPINES, linkCount, (System.nanoTime() - start) / 1000);
+        assertEquals(linkCount, removed);
+    }
+
+    /**
+     * every leaf is connected to all spines, link id is the spine port
+     */
+    private static List<Link> provideSpineLeafLinks(final int linkCount) {
+        final List<Link> links = new ArrayList<>(linkCount);
+        for (int i = 0; i < linkCount; i++) {
+            final int spine = i % SPINES;
+            final int leaf = i / SPINES;
+            links.add(newLink("spine" + spine + ":" + leaf,
+                    new SourceBuilder().setSourceNode(new NodeId("spine" + spine))
+                            .setSourceTp(new TpId("spine" + spine + ":" + leaf)).build(),
+                    new DestinationBuilder().setDestNode(new NodeId("leaf" + leaf))
+                            .setDestTp(new TpId("leaf" + leaf + ":" + spine)).build()));
+        }
+        return links;
+    }
+
+    private ReadTransaction mockTopologyRead(final List<Link> links) {
+        final ReadTransaction mockTx = mock(ReadTransaction.class);
+        doReturn(Futures.immediateCheckedFuture(Optional.of(new TopologyBuilder().setLink(links).build())))
+                .when(mockTx).read(LogicalDatastoreType.OPERATIONAL, topologyIID);
+        return mockTx;
+    }
+}
@@ -12,6 +12,7 @@ import java.io.PrintStream;
 
 import org.apache.karaf.shell.commands.Argument;
 import org.apache.karaf.shell.commands.Command;
+import org.apache.karaf.shell.commands.Option;
 import org.apache.karaf.shell.console.OsgiCommandSupport;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.sal.binding.api.NotificationProviderService;
@@ -26,6 +27,11 @@ public class DropAllPacketsCommandProvider extends OsgiCommandSupport {
             description = "target state of drop responder", 
             required = true, multiValued = false)
     String targetStateArg = null;
+
+    @Option(name = "-d", aliases = "--direct",
+            description = "process packet-ins on notification thread, without queueing",
+            required = false, multiValued = false)
+    boolean directDispatch = false;
     
     
     @Override
@@ -35,6 +41,7 @@ public class DropAllPacketsCommandProvider extends OsgiCommandSupport {
 
         if ("on".equalsIgnoreCase(targetStateArg)) {
             if (! provider.isActive()) {
+                provider.setDirectDispatch(directDispatch);
                 provider.start();
                 out.println("DropAllFlows transitions to on");
             } else {
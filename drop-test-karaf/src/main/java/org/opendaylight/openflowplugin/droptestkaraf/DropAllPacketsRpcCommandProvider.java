@@ -12,6 +12,7 @@ import java.io.PrintStream;
 
 import org.apache.karaf.shell.commands.Argument;
 import org.apache.karaf.shell.commands.Command;
+import org.apache.karaf.shell.commands.Option;
 import org.apache.karaf.shell.console.OsgiCommandSupport;
 import org.opendaylight.controller.sal.binding.api.NotificationProviderService;
 import org.opendaylight.openflowplugin.testcommon.DropTestRpcProvider;
@@ -26,6 +27,11 @@ public class DropAllPacketsRpcCommandProvider extends OsgiCommandSupport {
             description = "target state of drop responder", 
             required = true, multiValued = false)
     String targetStateArg = null;
+
+    @Option(name = "-d", aliases = "--direct",
+            description = "process packet-ins on notification thread, without queueing",
+            required = false, multiValued = false)
+    boolean directDispatch = false;
     
     @Override
     protected Object doExecute() throws Exception {
@@ -34,6 +40,7 @@ public class DropAllPacketsRpcCommandProvider extends OsgiCommandSupport {
         
         if ("on".equalsIgnoreCase(targetStateArg)) {
             if (! provider.isActive()) {
+                provider.setDirectDispatch(directDispatch);
                 provider.start();
                 out.println("DropAllFlows transitions to on");
             } else {
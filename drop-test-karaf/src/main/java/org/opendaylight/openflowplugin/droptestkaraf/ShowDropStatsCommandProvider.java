@@ -25,6 +25,8 @@ public class ShowDropStatsCommandProvider extends OsgiCommandSupport {
 
         out.format("RPC Test Statistics: %s%n", rpcProvider.getStats().toString());
         out.format("FRM Test Statistics: %s%n", provider.getStats().toString());
+        out.format("RPC Test Throughput: %s%n", rpcProvider.getReport().toString());
+        out.format("FRM Test Throughput: %s%n", provider.getReport().toString());
 
         return null;
     }
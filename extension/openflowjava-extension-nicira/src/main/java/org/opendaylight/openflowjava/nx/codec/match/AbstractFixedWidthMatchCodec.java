@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowjava.nx.codec.match;
+
+import io.netty.buffer.ByteBuf;
+
+import org.opendaylight.openflowjava.protocol.api.util.EncodeConstants;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.oxm.rev150225.match.entries.grouping.MatchEntry;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.oxm.rev150225.match.entries.grouping.MatchEntryBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.oxm.rev150225.match.entry.value.grouping.MatchEntryValue;
+
+/**
+ * Codec for nxm fields with fixed width value (1, 4 or 8 bytes). Value travels between wire
+ * and model as primitive long, subclasses only wrap / unwrap it into their case value.
+ * <br>
+ * Oxm class and field of deserialized entries are the same for every entry of the codec, they are
+ * preset in a builder kept per decoding thread - only mask flag and value are set per entry.
+ */
+public abstract class AbstractFixedWidthMatchCodec extends AbstractMatchCodec {
+
+    private final ThreadLocal<MatchEntryBuilder> entryBuilder = new ThreadLocal<MatchEntryBuilder>() {
+        @Override
+        protected MatchEntryBuilder initialValue() {
+            final MatchEntryBuilder builder = new MatchEntryBuilder();
+            builder.setOxmClass(getOxmClass());
+            builder.setOxmMatchField(getNxmField());
+            builder.setHasMask(false);
+            return builder;
+        }
+    };
+
+    @Override
+    public void serialize(MatchEntry input, ByteBuf outBuffer) {
+        serializeHeader(input, outBuffer);
+        final long value = extractValue(input.getMatchEntryValue());
+        switch (getValueLength()) {
+        case EncodeConstants.SIZE_OF_BYTE_IN_BYTES:
+            outBuffer.writeByte((int) value);
+            break;
+        case EncodeConstants.SIZE_OF_INT_IN_BYTES:
+            outBuffer.writeInt((int) value);
+            break;
+        case EncodeConstants.SIZE_OF_LONG_IN_BYTES:
+            outBuffer.writeLong(value);
+            break;
+        default:
+            throw new IllegalStateException("unsupported value length: " + getValueLength());
+        }
+    }
+
+    @Override
+    public MatchEntry deserialize(ByteBuf message) {
+        // skip oxm_class - provided
+        message.skipBytes(EncodeConstants.SIZE_OF_SHORT_IN_BYTES);
+        final boolean hasMask = (message.readUnsignedByte() & 1) != 0 && isMaskSupported();
+        // skip match entry length - not needed
+        message.skipBytes(EncodeConstants.SIZE_OF_BYTE_IN_BYTES);
+        final long value = readValue(message);
+
+        final MatchEntryBuilder builder = entryBuilder.get();
+        builder.setHasMask(hasMask);
+        builder.setMatchEntryValue(buildMatchEntryValue(value));
+        final MatchEntry entry = builder.build();
+        // do not keep last value reachable from decoding thread
+        builder.setMatchEntryValue(null);
+        return entry;
+    }
+
+    private long readValue(ByteBuf message) {
+        switch (getValueLength()) {
+        case EncodeConstants.SIZE_OF_BYTE_IN_BYTES:
+            return message.readUnsignedByte();
+        case EncodeConstants.SIZE_OF_INT_IN_BYTES:
+            return message.readUnsignedInt();
+        case EncodeConstants.SIZE_OF_LONG_IN_BYTES:
+            return message.readLong();
+        default:
+            throw new IllegalStateException("unsupported value length: " + getValueLength());
+        }
+    }
+
+    /**
+     * @return false if has-mask flag of incoming entries is to be ignored
+     */
+    protected boolean isMaskSupported() {
+        return true;
+    }
+
+    /**
+     * @param value field value as read from wire (unsigned for 1 and 4 byte fields)
+     * @return case value wrapping given value
+     */
+    protected abstract MatchEntryValue buildMatchEntryValue(long value);
+
+    /**
+     * @param matchEntryValue case value of this codec
+     * @return field value to be written to wire
+     */
+    protected abstract long extractValue(MatchEntryValue matchEntryValue);
+
+}
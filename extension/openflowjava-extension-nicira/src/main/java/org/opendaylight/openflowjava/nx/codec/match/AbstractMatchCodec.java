@@ -29,14 +29,14 @@ public abstract class AbstractMatchCodec implements OFSerializer<MatchEntry>, OF
     }
 
     protected void serializeHeader(MatchEntry input, ByteBuf outBuffer) {
-        outBuffer.writeInt(serializeHeaderToLong(input.isHasMask()).intValue());
+        outBuffer.writeInt(serializeHeaderToInt(input.isHasMask()));
     }
 
-    private Long serializeHeaderToLong(boolean hasMask) {
+    private int serializeHeaderToInt(boolean hasMask) {
         if (hasMask) {
-            return getHeaderWithHasMask().toLong();
+            return (int) getHeaderWithHasMask().toLong();
         }
-        return getHeaderWithoutHasMask().toLong();
+        return (int) getHeaderWithoutHasMask().toLong();
     }
 
     public NxmHeader getHeaderWithoutHasMask() {
@@ -1,35 +1,27 @@
 package org.opendaylight.openflowjava.nx.codec.match;
 
-import io.netty.buffer.ByteBuf;
-
 import org.opendaylight.openflowjava.protocol.api.util.OxmMatchConstants;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.oxm.rev150225.Nxm1Class;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.oxm.rev150225.OxmClassBase;
-import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.oxm.rev150225.match.entries.grouping.MatchEntry;
-import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.oxm.rev150225.match.entries.grouping.MatchEntryBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.oxm.rev150225.match.entry.value.grouping.MatchEntryValue;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflowjava.nx.match.rev140421.ofj.nxm.nx.match.reg.grouping.RegValuesBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflowjava.nx.match.rev140421.oxm.container.match.entry.value.RegCaseValue;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflowjava.nx.match.rev140421.oxm.container.match.entry.value.RegCaseValueBuilder;
 
-public abstract class AbstractRegCodec extends AbstractMatchCodec {
+public abstract class AbstractRegCodec extends AbstractFixedWidthMatchCodec {
 
     private static final int VALUE_LENGTH = 4;
 
     @Override
-    public MatchEntry deserialize(ByteBuf message) {
-        MatchEntryBuilder matchEntriesBuilder = deserializeHeader(message);
+    protected MatchEntryValue buildMatchEntryValue(long value) {
         RegCaseValueBuilder caseBuilder = new RegCaseValueBuilder();
-        caseBuilder.setRegValues(new RegValuesBuilder().setValue(message.readUnsignedInt()).build());
-        matchEntriesBuilder.setMatchEntryValue(caseBuilder.build());
-        return matchEntriesBuilder.build();
+        caseBuilder.setRegValues(new RegValuesBuilder().setValue(value).build());
+        return caseBuilder.build();
     }
 
     @Override
-    public void serialize(MatchEntry input, ByteBuf outBuffer) {
-        serializeHeader(input, outBuffer);
-        RegCaseValue regCase = ((RegCaseValue) input.getMatchEntryValue());
-        Long value = regCase.getRegValues().getValue();
-        outBuffer.writeInt(value.intValue());
+    protected long extractValue(MatchEntryValue matchEntryValue) {
+        return ((RegCaseValue) matchEntryValue).getRegValues().getValue().longValue();
     }
 
     @Override
@@ -10,7 +10,6 @@
 
 package org.opendaylight.openflowjava.nx.codec.match;
 
-import io.netty.buffer.ByteBuf;
 import org.opendaylight.openflowjava.protocol.api.keys.MatchEntryDeserializerKey;
 import org.opendaylight.openflowjava.protocol.api.keys.MatchEntrySerializerKey;
 import org.opendaylight.openflowjava.protocol.api.util.EncodeConstants;
@@ -18,14 +17,13 @@ import org.opendaylight.openflowjava.protocol.api.util.OxmMatchConstants;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.oxm.rev150225.MatchField;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.oxm.rev150225.Nxm1Class;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.oxm.rev150225.OxmClassBase;
-import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.oxm.rev150225.match.entries.grouping.MatchEntry;
-import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.oxm.rev150225.match.entries.grouping.MatchEntryBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.oxm.rev150225.match.entry.value.grouping.MatchEntryValue;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflowjava.nx.match.rev140421.NxmNxNsi;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflowjava.nx.match.rev140421.ofj.nxm.nx.match.nsi.grouping.NsiValuesBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflowjava.nx.match.rev140421.oxm.container.match.entry.value.NsiCaseValue;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflowjava.nx.match.rev140421.oxm.container.match.entry.value.NsiCaseValueBuilder;
 
-public class NsiCodec extends AbstractMatchCodec {
+public class NsiCodec extends AbstractFixedWidthMatchCodec {
 
     private static final int VALUE_LENGTH = 1;
     private static final int NXM_FIELD_CODE = 38;
@@ -35,20 +33,20 @@ public class NsiCodec extends AbstractMatchCodec {
             EncodeConstants.OF13_VERSION_ID, OxmMatchConstants.NXM_1_CLASS, NXM_FIELD_CODE);
 
     @Override
-    public void serialize(MatchEntry input, ByteBuf outBuffer) {
-        serializeHeader(input, outBuffer);
-        NsiCaseValue nsiCaseValue = ((NsiCaseValue) input.getMatchEntryValue());
-        outBuffer.writeByte(nsiCaseValue.getNsiValues().getNsi());
+    protected MatchEntryValue buildMatchEntryValue(long value) {
+        NsiCaseValueBuilder nsiCaseValueBuilder = new NsiCaseValueBuilder();
+        nsiCaseValueBuilder.setNsiValues(new NsiValuesBuilder().setNsi((short) value).build());
+        return nsiCaseValueBuilder.build();
     }
 
     @Override
-    public MatchEntry deserialize(ByteBuf message) {
-        MatchEntryBuilder matchEntriesBuilder = deserializeHeader(message);
-        NsiCaseValueBuilder nsiCaseValueBuilder = new NsiCaseValueBuilder();
-        nsiCaseValueBuilder.setNsiValues(new NsiValuesBuilder().setNsi(message.readUnsignedByte()).build());
-        matchEntriesBuilder.setMatchEntryValue(nsiCaseValueBuilder.build());
-        matchEntriesBuilder.setHasMask(false);
-        return matchEntriesBuilder.build();
+    protected long extractValue(MatchEntryValue matchEntryValue) {
+        return ((NsiCaseValue) matchEntryValue).getNsiValues().getNsi().longValue();
+    }
+
+    @Override
+    protected boolean isMaskSupported() {
+        return false;
     }
 
     @Override
@@ -1,7 +1,5 @@
 package org.opendaylight.openflowjava.nx.codec.match;
 
-import io.netty.buffer.ByteBuf;
-
 import java.math.BigInteger;
 
 import org.opendaylight.openflowjava.protocol.api.keys.MatchEntryDeserializerKey;
@@ -11,14 +9,13 @@ import org.opendaylight.openflowjava.protocol.api.util.OxmMatchConstants;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.oxm.rev150225.MatchField;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.oxm.rev150225.Nxm1Class;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.oxm.rev150225.OxmClassBase;
-import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.oxm.rev150225.match.entries.grouping.MatchEntry;
-import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.oxm.rev150225.match.entries.grouping.MatchEntryBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.oxm.rev150225.match.entry.value.grouping.MatchEntryValue;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflowjava.nx.match.rev140421.NxmNxTunId;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflowjava.nx.match.rev140421.ofj.nxm.nx.match.tun.id.grouping.TunIdValuesBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflowjava.nx.match.rev140421.oxm.container.match.entry.value.TunIdCaseValue;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflowjava.nx.match.rev140421.oxm.container.match.entry.value.TunIdCaseValueBuilder;
 
-public class TunIdCodec extends AbstractMatchCodec {
+public class TunIdCodec extends AbstractFixedWidthMatchCodec {
 
     private static final int VALUE_LENGTH = 8;
     private static final int NXM_FIELD_CODE = 16;
@@ -28,21 +25,17 @@ public class TunIdCodec extends AbstractMatchCodec {
             EncodeConstants.OF13_VERSION_ID, OxmMatchConstants.NXM_1_CLASS, NXM_FIELD_CODE);
 
     @Override
-    public void serialize(MatchEntry input, ByteBuf outBuffer) {
-        serializeHeader(input, outBuffer);
-        BigInteger value = ((TunIdCaseValue) input.getMatchEntryValue()).getTunIdValues().getValue();
-        outBuffer.writeLong(value.longValue());
-    }
-
-    @Override
-    public MatchEntry deserialize(ByteBuf message) {
-        MatchEntryBuilder matchEntriesBuilder = deserializeHeader(message);
+    protected MatchEntryValue buildMatchEntryValue(long value) {
         TunIdCaseValueBuilder caseBuilder = new TunIdCaseValueBuilder();
         TunIdValuesBuilder tunIdBuilder = new TunIdValuesBuilder();
-        tunIdBuilder.setValue(BigInteger.valueOf(message.readLong()));
+        tunIdBuilder.setValue(BigInteger.valueOf(value));
         caseBuilder.setTunIdValues(tunIdBuilder.build());
-        matchEntriesBuilder.setMatchEntryValue(caseBuilder.build());
-        return matchEntriesBuilder.build();
+        return caseBuilder.build();
+    }
+
+    @Override
+    protected long extractValue(MatchEntryValue matchEntryValue) {
+        return ((TunIdCaseValue) matchEntryValue).getTunIdValues().getValue().longValue();
     }
 
     @Override
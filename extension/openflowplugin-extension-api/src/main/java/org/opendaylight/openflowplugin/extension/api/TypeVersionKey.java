@@ -35,6 +35,13 @@ public class TypeVersionKey<T> {
         return type;
     }
 
+    /**
+     * @return openflow version of key
+     */
+    public short getOfVersion() {
+        return ofVersion;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
@@ -16,6 +16,11 @@ import org.opendaylight.openflowplugin.extension.api.ConvertorToOFJava;
 import org.opendaylight.openflowplugin.extension.api.TypeVersionKey;
 import org.opendaylight.openflowplugin.extension.api.path.AugmentationPath;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.Action;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.common.action.rev150203.ExperimenterActionSubType;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.common.action.rev150203.action.grouping.ActionChoice;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.oxm.rev150225.MatchField;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.oxm.rev150225.OxmClassBase;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflowplugin.extension.general.rev140714.ExtensionKey;
 import org.opendaylight.yangtools.yang.binding.DataContainer;
 
 /**
@@ -50,4 +55,56 @@ public interface ExtensionConverterProvider {
      * @return found converter
      */
     <F extends DataContainer, P extends AugmentationPath> ConvertorActionFromOFJava<F, P> getActionConverter(MessageTypeKey<?> key);
+
+    /**
+     * lookup converter without building lookup key, equivalent to
+     * {@link #getConverter(MessageTypeKey)} called with match entry serializer key
+     * @param version openflow version
+     * @param oxmClass match entry class
+     * @param matchField match entry field
+     * @return found converter
+     */
+    <F extends DataContainer, P extends AugmentationPath> ConvertorFromOFJava<F, P> getMatchConverter(
+            short version, Class<? extends OxmClassBase> oxmClass, Class<? extends MatchField> matchField);
+
+    /**
+     * lookup converter without building lookup key, equivalent to
+     * {@link #getActionConverter(MessageTypeKey)} called with action serializer key
+     * without experimenter id
+     * @param version openflow version
+     * @param actionChoice action choice type
+     * @return found converter
+     */
+    <F extends DataContainer, P extends AugmentationPath> ConvertorActionFromOFJava<F, P> getActionConverterFromOfj(
+            short version, Class<? extends ActionChoice> actionChoice);
+
+    /**
+     * lookup converter without building lookup key, equivalent to
+     * {@link #getActionConverter(MessageTypeKey)} called with experimenter action serializer key
+     * @param version openflow version
+     * @param experimenterId experimenter id
+     * @param subType experimenter action subtype
+     * @return found converter
+     */
+    <F extends DataContainer, P extends AugmentationPath> ConvertorActionFromOFJava<F, P> getExperimenterActionConverter(
+            short version, long experimenterId, Class<? extends ExperimenterActionSubType> subType);
+
+    /**
+     * lookup converter without building lookup key, equivalent to
+     * {@link #getConverter(ConverterExtensionKey)}
+     * @param extensionKey extension key type
+     * @param version openflow version
+     * @return found converter
+     */
+    <T extends DataContainer> ConvertorToOFJava<T> getConverter(Class<? extends ExtensionKey> extensionKey, short version);
+
+    /**
+     * lookup converter without building lookup key, equivalent to
+     * {@link #getConverter(TypeVersionKey)}
+     * @param actionType action type
+     * @param version openflow version
+     * @return found converter
+     */
+    <F extends Action, T extends DataContainer> ConvertorActionToOFJava<F, T> getActionConverterToOfj(
+            Class<? extends F> actionType, short version);
 }
@@ -8,6 +8,7 @@
 package org.opendaylight.openflowplugin.legacy.sal.compatibility;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -17,6 +18,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
@@ -95,6 +97,7 @@ import org.opendaylight.yangtools.yang.common.RpcResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Optional;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
@@ -103,13 +106,18 @@ import com.google.common.collect.Iterables;
 public class InventoryAndReadAdapter implements IPluginInReadService, IPluginInInventoryService, OpendaylightFlowStatisticsListener, OpendaylightFlowTableStatisticsListener, OpendaylightPortStatisticsListener {
     private static final Logger LOG = LoggerFactory.getLogger(InventoryAndReadAdapter.class);
     private static final short OPENFLOWV10_TABLE_ID = 0;
-    private static final int SLEEP_FOR_NOTIFICATIONS_MILLIS = 500;
+    private static final long FLOW_STATISTICS_TIMEOUT_SECONDS = 60L;
 
     private final InventoryNotificationProvider inventoryNotificationProvider = new InventoryNotificationProvider();
     private final Map<PathArgument,List<PathArgument>> nodeToNodeConnectorsMap = new ConcurrentHashMap<>();
     private List<IPluginOutInventoryService> inventoryPublisher = new CopyOnWriteArrayList<>();
     private List<IPluginOutReadService> statisticsPublisher = new CopyOnWriteArrayList<>();
     private Cache<String, TransactionNotificationList<? extends TransactionAware>> txCache;
+    /** operational inventory maintained by data change listeners, legacy reads are served from here */
+    private final ConcurrentMap<NodeId, org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node> inventorySnapshot = new ConcurrentHashMap<>();
+    private volatile boolean inventorySnapshotLoaded;
+    /** nodes removed while snapshot is being seeded, guards against resurrection by (older) seed read */
+    private final Set<NodeId> removedWhileSeeding = new HashSet<>();
 
     private OpendaylightFlowTableStatisticsService flowTableStatisticsService;
     private OpendaylightPortStatisticsService nodeConnectorStatisticsService;
@@ -185,7 +193,7 @@ public class InventoryAndReadAdapter implements IPluginInReadService, IPluginInI
     public void startAdapter() {
         inventoryNotificationProvider.setDataProviderService(getDataProviderService());
         inventoryNotificationProvider.setInventoryPublisher(getInventoryPublisher());
-        txCache = CacheBuilder.newBuilder().expireAfterWrite(60L, TimeUnit.SECONDS).maximumSize(10000).build();
+        txCache = CacheBuilder.newBuilder().expireAfterWrite(FLOW_STATISTICS_TIMEOUT_SECONDS, TimeUnit.SECONDS).maximumSize(10000).build();
         // inventoryNotificationProvider.start();
     }
 
@@ -215,12 +223,14 @@ public class InventoryAndReadAdapter implements IPluginInReadService, IPluginInI
     @Override
     public long getTransmitRate(final NodeConnector connector) {
         final FlowCapableNodeConnector nodeConnector = this.readOperFlowCapableNodeConnector(NodeMapping.toNodeConnectorRef(connector));
+        if (nodeConnector == null || nodeConnector.getCurrentSpeed() == null) {
+            return 0;
+        }
         return nodeConnector.getCurrentSpeed().longValue();
     }
 
     private FlowCapableNode readOperFlowCapableNode(final NodeRef ref) {
-        final org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node node =
-                (org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node)getDataService().readOperationalData(ref.getValue());
+        final org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node node = readSnapshotNode(NodeMapping.toNodeId(ref.getValue()));
         if (node == null) {
             return null;
         }
@@ -228,6 +238,68 @@ public class InventoryAndReadAdapter implements IPluginInReadService, IPluginInI
         return node.getAugmentation(FlowCapableNode.class);
     }
 
+    /**
+     * Store current state of node into inventory snapshot (called by data change listener).
+     *
+     * @param node operational node
+     */
+    public void updateInventorySnapshot(final org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node node) {
+        inventorySnapshot.put(node.getId(), node);
+    }
+
+    /**
+     * Drop node from inventory snapshot (called by data change listener).
+     *
+     * @param nodeId removed node
+     */
+    public void removeFromInventorySnapshot(final NodeId nodeId) {
+        synchronized (removedWhileSeeding) {
+            if (!inventorySnapshotLoaded) {
+                removedWhileSeeding.add(nodeId);
+            }
+        }
+        inventorySnapshot.remove(nodeId);
+    }
+
+    @VisibleForTesting
+    org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node readSnapshotNode(final NodeId nodeId) {
+        ensureInventorySnapshotLoaded();
+        return inventorySnapshot.get(nodeId);
+    }
+
+    @VisibleForTesting
+    Collection<org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node> readSnapshotNodes() {
+        ensureInventorySnapshotLoaded();
+        return inventorySnapshot.values();
+    }
+
+    /**
+     * Seed snapshot by one full read of operational inventory, listener keeps it up to date afterwards.
+     * Nodes already delivered by listener are not overwritten by (possibly older) read result
+     * and nodes removed by listener while the read was running are not resurrected by it.
+     */
+    private void ensureInventorySnapshotLoaded() {
+        if (inventorySnapshotLoaded) {
+            return;
+        }
+        synchronized (inventorySnapshot) {
+            if (!inventorySnapshotLoaded) {
+                final Nodes nodes = readOperAllMDNodes();
+                synchronized (removedWhileSeeding) {
+                    if (nodes != null && nodes.getNode() != null) {
+                        for (final org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node node : nodes.getNode()) {
+                            if (!removedWhileSeeding.contains(node.getId())) {
+                                inventorySnapshot.putIfAbsent(node.getId(), node);
+                            }
+                        }
+                    }
+                    removedWhileSeeding.clear();
+                    inventorySnapshotLoaded = true;
+                }
+            }
+        }
+    }
+
     private org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node readConfigNode(final Node node) {
         final InstanceIdentifier<org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node> nodeRef =
                 InstanceIdentifier.builder(Nodes.class)
@@ -255,13 +327,21 @@ public class InventoryAndReadAdapter implements IPluginInReadService, IPluginInI
      * @return Table contents, or null if not present
      */
     private Table readOperationalTable(final Node node, final short id) {
-        final InstanceIdentifier<Table> tableRef = InstanceIdentifier.builder(Nodes.class)
-                .child(org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node.class, NodeMapping.toNodeKey(node))
-                .augmentation(FlowCapableNode.class)
-                .child(Table.class, new TableKey(id))
-                .build();
-
-        return (Table) startChange().readOperationalData(tableRef);
+        final org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node mdNode = readSnapshotNode(NodeMapping.toNodeId(node));
+        if (mdNode == null) {
+            return null;
+        }
+        final FlowCapableNode flowCapableNode = mdNode.getAugmentation(FlowCapableNode.class);
+        if (flowCapableNode == null || flowCapableNode.getTable() == null) {
+            return null;
+        }
+        final TableKey tableKey = new TableKey(id);
+        for (final Table table : flowCapableNode.getTable()) {
+            if (tableKey.equals(table.getKey())) {
+                return table;
+            }
+        }
+        return null;
     }
 
     @Override
@@ -296,7 +376,7 @@ public class InventoryAndReadAdapter implements IPluginInReadService, IPluginInI
             try {
                 // having a blocking call is fine here, as we need to join
                 // the notifications and return the result
-                result = future.get();
+                result = future.get(FLOW_STATISTICS_TIMEOUT_SECONDS, TimeUnit.SECONDS);
             } catch (Exception e) {
                LOG.error("Exception in getAllFlowStatisticsFromFlowTable ", e);
                return ret;
@@ -315,20 +395,17 @@ public class InventoryAndReadAdapter implements IPluginInReadService, IPluginInI
             txCache.put(cacheKey, new TransactionNotificationList<FlowsStatisticsUpdate>(
                 transactionId, node.getNodeIDString()));
 
-            TransactionNotificationList<FlowsStatisticsUpdate> txnList =
+            final TransactionNotificationList<FlowsStatisticsUpdate> txnList =
                 (TransactionNotificationList<FlowsStatisticsUpdate>) txCache.getIfPresent(cacheKey);
 
-            // this loop would not be infinite as the cache will remove an entry
-            // after defined time if not written to
-            while (txnList != null && !txnList.areAllNotificationsGathered()) {
-                LOG.debug("readAllFlow waiting for notification...");
-                waitForNotification();
-                txnList = (TransactionNotificationList<FlowsStatisticsUpdate>) txCache.getIfPresent(cacheKey);
-            }
-
-            if (txnList == null) {
+            // woken up by last notification, gives up at the time the cache would drop the entry
+            LOG.debug("readAllFlow waiting for notification...");
+            if (txnList == null || !txnList.awaitAllNotificationsGathered(FLOW_STATISTICS_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                LOG.debug("readAllFlow notifications for {} not gathered in time", cacheKey);
+                txCache.invalidate(cacheKey);
                 return ret;
             }
+            txCache.invalidate(cacheKey);
 
             List<FlowsStatisticsUpdate> notifications = txnList.getNotifications();
             for (FlowsStatisticsUpdate flowsStatisticsUpdate : notifications) {
@@ -348,16 +425,6 @@ public class InventoryAndReadAdapter implements IPluginInReadService, IPluginInI
         return String.valueOf(id.getValue()) + "-" + nodeId.getValue();
     }
 
-    private void waitForNotification() {
-        try {
-            // going for a simple sleep approach,as wait-notify on a monitor would require
-            // us to maintain monitors per txn-node combo
-            Thread.sleep(SLEEP_FOR_NOTIFICATIONS_MILLIS);
-            LOG.trace("statCollector is waking up from a wait stat Response sleep");
-        } catch (final InterruptedException e) {
-            LOG.warn("statCollector has been interrupted waiting stat Response sleep", e);
-        }
-    }
 
     @Override
     public List<NodeConnectorStatistics> readAllNodeConnector(final Node node, final boolean cached) {
@@ -524,7 +591,7 @@ public class InventoryAndReadAdapter implements IPluginInReadService, IPluginInI
         final NodeRef ref = notification.getNodeRef();
 
         final UpdateType updateType;
-        if (dataService.readOperationalData(ref.getValue()) == null) {
+        if (readSnapshotNode(notification.getId()) == null) {
             updateType = UpdateType.ADDED;
         } else {
             updateType = UpdateType.CHANGED;
@@ -558,8 +625,7 @@ public class InventoryAndReadAdapter implements IPluginInReadService, IPluginInI
     @Override
     public ConcurrentMap<Node,Map<String,Property>> getNodeProps() {
         final ConcurrentHashMap<Node,Map<String,Property>> props = new ConcurrentHashMap<>();
-        final Nodes nodes = this.readOperAllMDNodes();
-        for (final org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node node : nodes.getNode()) {
+        for (final org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node node : this.readSnapshotNodes()) {
             final FlowCapableNode fcn = node.getAugmentation(FlowCapableNode.class);
             if (fcn != null) {
                 final ConcurrentHashMap<String,Property> perNodePropMap = new ConcurrentHashMap<String, Property>();
@@ -589,7 +655,10 @@ public class InventoryAndReadAdapter implements IPluginInReadService, IPluginInI
     @Override
     public ConcurrentMap<NodeConnector,Map<String,Property>> getNodeConnectorProps(final Boolean refresh) {
         final ConcurrentHashMap<NodeConnector,Map<String,Property>> props = new ConcurrentHashMap<>();
-        for (final org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node node : this.readOperAllMDNodes().getNode()) {
+        for (final org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node node : this.readSnapshotNodes()) {
+            if (node.getNodeConnector() == null) {
+                continue;
+            }
             for (final org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.node.NodeConnector nc : node.getNodeConnector()) {
                 final FlowCapableNodeConnector fcnc = nc.getAugmentation(FlowCapableNodeConnector.class);
                 if (fcnc != null) {
@@ -613,10 +682,17 @@ public class InventoryAndReadAdapter implements IPluginInReadService, IPluginInI
     }
 
     private FlowCapableNodeConnector readOperFlowCapableNodeConnector(final NodeConnectorRef ref) {
-        final org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.node.NodeConnector nc =
-                (org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.node.NodeConnector)
-                getDataService().readOperationalData(ref.getValue());
-        return nc.getAugmentation(FlowCapableNodeConnector.class);
+        final InstanceIdentifier<?> path = ref.getValue();
+        final org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node node = readSnapshotNode(NodeMapping.toNodeId(path));
+        final NodeConnectorKey ncKey = path.firstKeyOf(org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.node.NodeConnector.class, NodeConnectorKey.class);
+        if (node != null && node.getNodeConnector() != null) {
+            for (final org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.node.NodeConnector nc : node.getNodeConnector()) {
+                if (nc.getKey().equals(ncKey)) {
+                    return nc.getAugmentation(FlowCapableNodeConnector.class);
+                }
+            }
+        }
+        return null;
     }
 
     private static NodeConnectorStatistics toNodeConnectorStatistics(final org.opendaylight.yang.gen.v1.urn.opendaylight.model.statistics.types.rev130925.NodeConnectorStatistics nodeConnectorStatistics, final NodeId nodeId, final NodeConnectorId nodeConnectorId) throws ConstructionException {
@@ -888,7 +964,8 @@ public class InventoryAndReadAdapter implements IPluginInReadService, IPluginInI
         private TransactionId id;
         private String nId;
         private List<T> notifications;
-        private boolean allNotificationsGathered;
+        private volatile boolean allNotificationsGathered;
+        private final CountDownLatch gathered = new CountDownLatch(1);
 
         public TransactionNotificationList(TransactionId id, String nId) {
             this.nId = nId;
@@ -902,12 +979,25 @@ public class InventoryAndReadAdapter implements IPluginInReadService, IPluginInI
 
         public void setAllNotificationsGathered(boolean allNotificationsGathered) {
             this.allNotificationsGathered = allNotificationsGathered;
+            if (allNotificationsGathered) {
+                gathered.countDown();
+            }
         }
 
         public boolean areAllNotificationsGathered() {
             return allNotificationsGathered;
         }
 
+        public boolean awaitAllNotificationsGathered(final long timeout, final TimeUnit unit) {
+            try {
+                return gathered.await(timeout, unit);
+            } catch (final InterruptedException e) {
+                LOG.warn("readAllFlow has been interrupted waiting for notifications", e);
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
         public List<T> getNotifications() {
             return notifications;
         }
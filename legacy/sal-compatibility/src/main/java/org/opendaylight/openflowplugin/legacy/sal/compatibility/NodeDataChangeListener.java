@@ -39,6 +39,8 @@ public class NodeDataChangeListener extends AbstractDataChangeListener<Node> {
             builder.addAugmentation(FlowCapableNodeUpdated.class, fcbnu.build());
             adapter.onNodeUpdatedInternal(builder.build());
         }
+        // subtree scope - connector and statistics changes arrive here as node update too
+        adapter.updateInventorySnapshot(node);
     }
 
     protected void update(InstanceIdentifier<Node> updateKeyIdent, Node original,
@@ -49,6 +51,7 @@ public class NodeDataChangeListener extends AbstractDataChangeListener<Node> {
     protected void remove(InstanceIdentifier<Node> ident, Node removeValue) {
         NodeRemovedBuilder builder = new NodeRemovedBuilder();
         builder.setNodeRef(new NodeRef(ident));
+        adapter.removeFromInventorySnapshot(NodeMapping.toNodeId(ident));
         adapter.onNodeRemovedInternal(builder.build());
     }
 
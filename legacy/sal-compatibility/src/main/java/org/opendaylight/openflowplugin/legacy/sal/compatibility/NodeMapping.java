@@ -65,6 +65,8 @@ import java.math.BigInteger;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Pattern;
 
 public final class NodeMapping {
@@ -83,11 +85,22 @@ public final class NodeMapping {
 
     private final static Class<NodeConnector> NODECONNECTOR_CLASS = NodeConnector.class;
 
-    private final static Pattern COLON_NUMBERS_EOL = Pattern.compile(":[0-9]+$");
-
     private final static Pattern NUMBERS_ONLY = Pattern.compile("[0-9]+");
 
-    private final static Pattern ALL_CHARS_TO_COLON = Pattern.compile("^.*:");
+    /**
+     * upper bound of memoized node mappings, cache gets dropped as whole once exceeded
+     */
+    private final static int MAX_CACHED_NODE_MAPPINGS = 4096;
+
+    /**
+     * memoized md-sal {@link NodeId} to ad-sal node mapping (both sides are immutable)
+     */
+    private final static ConcurrentMap<NodeId, org.opendaylight.controller.sal.core.Node> AD_NODE_CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * memoized ad-sal node to md-sal {@link NodeId} mapping
+     */
+    private final static ConcurrentMap<org.opendaylight.controller.sal.core.Node, NodeId> NODE_ID_CACHE = new ConcurrentHashMap<>();
 
     private NodeMapping() {
         throw new UnsupportedOperationException("Utility class. Instantiation is not allowed.");
@@ -99,14 +112,19 @@ public final class NodeMapping {
     }
 
     public static org.opendaylight.controller.sal.core.Node toADNode(final NodeId id) throws ConstructionException {
-        String nodeId = NodeMapping.toADNodeId(id);
-        String nodeIdasNumber = nodeId.replaceFirst("^.*:", "");
-        if (isInteger(nodeIdasNumber)) {
-            Long aDNodeId = openflowFullNodeIdToLong(nodeIdasNumber);
-            return new org.opendaylight.controller.sal.core.Node(NodeIDType.OPENFLOW, aDNodeId);
-        } else {
-            return new org.opendaylight.controller.sal.core.Node(NodeIDType.PRODUCTION, nodeId);
+        org.opendaylight.controller.sal.core.Node aDNode = AD_NODE_CACHE.get(id);
+        if (aDNode == null) {
+            String nodeId = NodeMapping.toADNodeId(id);
+            String nodeIdasNumber = stripToColon(nodeId);
+            if (isInteger(nodeIdasNumber)) {
+                Long aDNodeId = openflowFullNodeIdToLong(nodeIdasNumber);
+                aDNode = new org.opendaylight.controller.sal.core.Node(NodeIDType.OPENFLOW, aDNodeId);
+            } else {
+                aDNode = new org.opendaylight.controller.sal.core.Node(NodeIDType.PRODUCTION, nodeId);
+            }
+            memoize(AD_NODE_CACHE, id, aDNode);
         }
+        return aDNode;
     }
 
     /**
@@ -170,14 +188,36 @@ public final class NodeMapping {
      * @return
      */
     public static NodeId toNodeId(org.opendaylight.controller.sal.core.Node aDNode) {
-        String targetPrefix = null;
-        if (NodeIDType.OPENFLOW.equals(aDNode.getType())) {
-                targetPrefix = OPENFLOW_ID_PREFIX;
-        } else {
-            targetPrefix = aDNode.getType() + ":";
+        NodeId nodeId = NODE_ID_CACHE.get(aDNode);
+        if (nodeId == null) {
+            String targetPrefix = null;
+            if (NodeIDType.OPENFLOW.equals(aDNode.getType())) {
+                    targetPrefix = OPENFLOW_ID_PREFIX;
+            } else {
+                targetPrefix = aDNode.getType() + ":";
+            }
+
+            nodeId = new NodeId(targetPrefix + String.valueOf(aDNode.getID()));
+            memoize(NODE_ID_CACHE, aDNode, nodeId);
         }
+        return nodeId;
+    }
 
-        return new NodeId(targetPrefix + String.valueOf(aDNode.getID()));
+    /**
+     * drop all memoized node mappings
+     */
+    @VisibleForTesting
+    public static void clearNodeMappingCache() {
+        AD_NODE_CACHE.clear();
+        NODE_ID_CACHE.clear();
+    }
+
+    private static <K, V> void memoize(final ConcurrentMap<K, V> cache, final K key, final V value) {
+        if (cache.size() >= MAX_CACHED_NODE_MAPPINGS) {
+            LOG.debug("Node mapping cache exceeded {} entries, dropping it", MAX_CACHED_NODE_MAPPINGS);
+            cache.clear();
+        }
+        cache.putIfAbsent(key, value);
     }
 
     /**
@@ -220,14 +260,28 @@ public final class NodeMapping {
         return nodeConnectorIdStripped;
     }
 
+    /**
+     * @param elementId e.g.: openflow:42:1
+     * @return part of given id following the last colon, e.g.: 1
+     */
     public static String stripToColon(final String elementId) {
-        return ALL_CHARS_TO_COLON.matcher(elementId).replaceFirst("");
+        return elementId.substring(elementId.lastIndexOf(':') + 1);
     }
 
+    /**
+     * @param nodeConnectorId e.g.: openflow:42:1
+     * @return nodeId with numeric port suffix removed, e.g.: openflow:42
+     */
     public static NodeId toAdNodeId(final NodeConnectorId nodeConnectorId) {
         NodeId nodeId = null;
         if (nodeConnectorId != null) {
-            nodeId = new NodeId(COLON_NUMBERS_EOL.matcher(nodeConnectorId.getValue()).replaceFirst(""));
+            final String value = nodeConnectorId.getValue();
+            final int lastColon = value.lastIndexOf(':');
+            if (lastColon >= 0 && isDigitsOnly(value, lastColon + 1)) {
+                nodeId = new NodeId(value.substring(0, lastColon));
+            } else {
+                nodeId = new NodeId(value);
+            }
         }
         return nodeId;
     }
@@ -461,7 +515,8 @@ public final class NodeMapping {
     }
 
     public static MacAddress toADMacAddress(final NodeId id) {
-        final String nodeId = id.getValue().replaceAll(OPENFLOW_ID_PREFIX, "");
+        final String nodeId = id.getValue().startsWith(OPENFLOW_ID_PREFIX)
+                ? id.getValue().substring(OPENFLOW_ID_PREFIX.length()) : id.getValue();
         BigInteger nodeIdRaw = new BigInteger(nodeId);
         long lNodeId = nodeIdRaw.longValue();
         byte[] bytesFromDpid = ToSalConversionsUtils.bytesFromDpid(lNodeId);
@@ -500,6 +555,19 @@ public final class NodeMapping {
     }
 
 
+    private static boolean isDigitsOnly(final String value, final int from) {
+        if (from >= value.length()) {
+            return false;
+        }
+        for (int i = from; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private static final boolean isInteger(String value) {
         if (value.isEmpty()) return false;
         for (int i = 0; i < value.length(); i++) {
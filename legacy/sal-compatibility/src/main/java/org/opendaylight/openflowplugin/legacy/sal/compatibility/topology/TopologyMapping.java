@@ -97,7 +97,7 @@ public final class TopologyMapping {
     }
 
     public static String toADNodeId(final NodeId nodeId) {
-        return nodeId.getValue().replaceFirst("^.*:", "");
+        return NodeMapping.stripToColon(nodeId.getValue());
     }
 
     public static NodeConnector toADNodeConnector(final TpId source, final NodeId nodeId) throws ConstructionException {
@@ -112,7 +112,7 @@ public final class TopologyMapping {
     }
 
     public static String toADNodeConnectorId(final TpId nodeConnectorId) {
-        return nodeConnectorId.getValue().replaceFirst("^.*:", "");
+        return NodeMapping.stripToColon(nodeConnectorId.getValue());
     }
 
     public static Node toADNode(final NodeId nodeId) throws ConstructionException {
@@ -0,0 +1,207 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.legacy.sal.compatibility;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+import org.opendaylight.controller.sal.binding.api.data.DataBrokerService;
+import org.opendaylight.controller.sal.core.Node.NodeIDType;
+import org.opendaylight.controller.sal.reader.FlowOnNode;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.yang.types.rev100924.Counter32;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.yang.types.rev100924.Counter64;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.statistics.rev130819.FlowsStatisticsUpdate;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.statistics.rev130819.FlowsStatisticsUpdateBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.statistics.rev130819.GetAllFlowStatisticsFromFlowTableInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.statistics.rev130819.GetAllFlowStatisticsFromFlowTableOutputBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.statistics.rev130819.OpendaylightFlowStatisticsService;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.statistics.rev130819.flow.and.statistics.map.list.FlowAndStatisticsMapList;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.statistics.rev130819.flow.and.statistics.map.list.FlowAndStatisticsMapListBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.transaction.rev150304.TransactionId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.Nodes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodesBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.NodeBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.NodeKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.model.statistics.types.rev130925.duration.DurationBuilder;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.opendaylight.yangtools.yang.common.RpcResultBuilder;
+
+import com.google.common.util.concurrent.Futures;
+
+/**
+ * test of {@link InventoryAndReadAdapter} - inventory snapshot and readAllFlow notification join
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class InventoryAndReadAdapterTest {
+
+    private static final NodeId NODE_ID_1 = new NodeId("openflow:1");
+    private static final NodeId NODE_ID_2 = new NodeId("openflow:2");
+
+    @Mock
+    private DataBrokerService dataService;
+    @Mock
+    private OpendaylightFlowStatisticsService flowStatisticsService;
+
+    private InventoryAndReadAdapter adapter;
+
+    /**
+     * prepare adapter
+     */
+    @Before
+    public void setUp() {
+        adapter = new InventoryAndReadAdapter();
+        adapter.setDataService(dataService);
+        adapter.setFlowStatisticsService(flowStatisticsService);
+        adapter.startAdapter();
+    }
+
+    /**
+     * snapshot is seeded by single datastore read, served from memory afterwards
+     */
+    @Test
+    public void testSnapshotSeededOnce() {
+        final Node node1 = createNode(NODE_ID_1);
+        final Node node2 = createNode(NODE_ID_2);
+        Mockito.when(dataService.readOperationalData(Matchers.any(InstanceIdentifier.class)))
+                .thenReturn(createNodes(node1, node2));
+
+        Assert.assertEquals(2, adapter.readSnapshotNodes().size());
+        Assert.assertSame(node1, adapter.readSnapshotNode(NODE_ID_1));
+        Assert.assertSame(node2, adapter.readSnapshotNode(NODE_ID_2));
+
+        Mockito.verify(dataService).readOperationalData(Matchers.any(InstanceIdentifier.class));
+    }
+
+    /**
+     * node delivered by listener before seeding is not overwritten by seed read
+     */
+    @Test
+    public void testSnapshotListenerUpdateWins() {
+        final Node fromListener = createNode(NODE_ID_1);
+        adapter.updateInventorySnapshot(fromListener);
+        Mockito.when(dataService.readOperationalData(Matchers.any(InstanceIdentifier.class)))
+                .thenReturn(createNodes(createNode(NODE_ID_1)));
+
+        Assert.assertSame(fromListener, adapter.readSnapshotNode(NODE_ID_1));
+    }
+
+    /**
+     * node removed by listener while seed read is running is not resurrected by read result
+     */
+    @Test
+    public void testSnapshotRemovalDuringSeed() {
+        final Node node1 = createNode(NODE_ID_1);
+        final Node node2 = createNode(NODE_ID_2);
+        Mockito.when(dataService.readOperationalData(Matchers.any(InstanceIdentifier.class)))
+                .thenAnswer(new Answer<Nodes>() {
+                    @Override
+                    public Nodes answer(final InvocationOnMock invocation) {
+                        // listener removes node while read result (still containing it) is on the way
+                        adapter.removeFromInventorySnapshot(NODE_ID_1);
+                        return createNodes(node1, node2);
+                    }
+                });
+
+        Assert.assertNull(adapter.readSnapshotNode(NODE_ID_1));
+        Assert.assertSame(node2, adapter.readSnapshotNode(NODE_ID_2));
+        Assert.assertEquals(1, adapter.readSnapshotNodes().size());
+
+        // once seeded, listener changes apply directly
+        adapter.updateInventorySnapshot(node1);
+        Assert.assertSame(node1, adapter.readSnapshotNode(NODE_ID_1));
+        adapter.removeFromInventorySnapshot(NODE_ID_2);
+        Assert.assertNull(adapter.readSnapshotNode(NODE_ID_2));
+    }
+
+    /**
+     * readAllFlow blocks until notification without more-replies flag arrives and joins all replies
+     */
+    @Test(timeout = 10000)
+    public void testReadAllFlowWaitsForLastNotification() throws Exception {
+        final TransactionId transactionId = new TransactionId(BigInteger.valueOf(42L));
+        Mockito.when(flowStatisticsService.getAllFlowStatisticsFromFlowTable(
+                Matchers.any(GetAllFlowStatisticsFromFlowTableInput.class)))
+                .thenReturn(Futures.immediateFuture(RpcResultBuilder.success(
+                        new GetAllFlowStatisticsFromFlowTableOutputBuilder()
+                                .setTransactionId(transactionId).build()).build()));
+
+        final org.opendaylight.controller.sal.core.Node adNode =
+                new org.opendaylight.controller.sal.core.Node(NodeIDType.OPENFLOW, 1L);
+        final AtomicReference<List<FlowOnNode>> result = new AtomicReference<>();
+        final Thread reader = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                result.set(adapter.readAllFlow(adNode, false));
+            }
+        });
+        reader.start();
+
+        // reader parks on latch once transaction is registered
+        while (reader.getState() != Thread.State.TIMED_WAITING) {
+            Assert.assertTrue("reader finished before notifications", reader.isAlive());
+            Thread.sleep(10L);
+        }
+
+        adapter.onFlowsStatisticsUpdate(createFlowsStatisticsUpdate(transactionId, true, 1L));
+        TimeUnit.MILLISECONDS.sleep(100L);
+        Assert.assertTrue("reader must wait for last notification", reader.isAlive());
+
+        adapter.onFlowsStatisticsUpdate(createFlowsStatisticsUpdate(transactionId, false, 2L));
+        reader.join(TimeUnit.SECONDS.toMillis(5L));
+        Assert.assertFalse(reader.isAlive());
+
+        final List<FlowOnNode> flows = result.get();
+        Assert.assertEquals(2, flows.size());
+        Assert.assertEquals(1L, flows.get(0).getPacketCount());
+        Assert.assertEquals(2L, flows.get(1).getPacketCount());
+    }
+
+    private static Node createNode(final NodeId nodeId) {
+        return new NodeBuilder().setId(nodeId).setKey(new NodeKey(nodeId)).build();
+    }
+
+    private static Nodes createNodes(final Node... nodes) {
+        return new NodesBuilder().setNode(Arrays.asList(nodes)).build();
+    }
+
+    private static FlowsStatisticsUpdate createFlowsStatisticsUpdate(final TransactionId transactionId,
+            final boolean moreReplies, final long packetCount) {
+        final FlowAndStatisticsMapList flowStats = new FlowAndStatisticsMapListBuilder()
+                .setTableId((short) 0)
+                .setPriority(packetCount > 1L ? 2 : 1)
+                .setPacketCount(new Counter64(BigInteger.valueOf(packetCount)))
+                .setByteCount(new Counter64(BigInteger.valueOf(packetCount * 64L)))
+                .setDuration(new DurationBuilder()
+                        .setSecond(new Counter32(1L))
+                        .setNanosecond(new Counter32(0L))
+                        .build())
+                .build();
+
+        return new FlowsStatisticsUpdateBuilder()
+                .setId(NODE_ID_1)
+                .setTransactionId(transactionId)
+                .setMoreReplies(moreReplies)
+                .setFlowAndStatisticsMapList(Collections.singletonList(flowStats))
+                .build();
+    }
+}
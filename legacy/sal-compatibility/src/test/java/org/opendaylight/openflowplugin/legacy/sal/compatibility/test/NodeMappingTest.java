@@ -78,6 +78,35 @@ public class NodeMappingTest {
 
         observed = NodeMapping.toAdNodeId(new NodeConnectorId("openflow:5:2"));
         Assert.assertEquals("openflow:5", observed.getValue());
+
+        observed = NodeMapping.toAdNodeId(new NodeConnectorId("openflow:5:LOCAL"));
+        Assert.assertEquals("openflow:5:LOCAL", observed.getValue());
+
+        observed = NodeMapping.toAdNodeId(new NodeConnectorId("openflow:5:"));
+        Assert.assertEquals("openflow:5:", observed.getValue());
+    }
+
+    /**
+     * Test method for memoized
+     * {@link org.opendaylight.openflowplugin.legacy.sal.compatibility.NodeMapping#toADNode(NodeId)} and
+     * {@link org.opendaylight.openflowplugin.legacy.sal.compatibility.NodeMapping#toNodeId(org.opendaylight.controller.sal.core.Node)}
+     * .
+     * @throws ConstructionException
+     */
+    @Test
+    public void testNodeMappingCache() throws ConstructionException {
+        NodeMapping.clearNodeMappingCache();
+        org.opendaylight.controller.sal.core.Node first = NodeMapping.toADNode(new NodeId("openflow:42"));
+        org.opendaylight.controller.sal.core.Node second = NodeMapping.toADNode(new NodeId("openflow:42"));
+        Assert.assertSame(first, second);
+        Assert.assertEquals(42L, first.getID());
+
+        NodeId nodeId = NodeMapping.toNodeId(first);
+        Assert.assertSame(nodeId, NodeMapping.toNodeId(new org.opendaylight.controller.sal.core.Node(NodeIDType.OPENFLOW, 42L)));
+        Assert.assertEquals("openflow:42", nodeId.getValue());
+
+        NodeMapping.clearNodeMappingCache();
+        Assert.assertNotSame(first, NodeMapping.toADNode(new NodeId("openflow:42")));
     }
 
     /**
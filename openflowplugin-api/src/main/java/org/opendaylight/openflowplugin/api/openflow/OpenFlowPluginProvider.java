@@ -59,6 +59,22 @@ public interface OpenFlowPluginProvider extends AutoCloseable, BindingService {
 
     boolean isSwitchFeaturesMandatory();
 
+    /**
+     * Requests exceeding rpc-requests-quota of a device wait for a free slot instead of being refused.
+     *
+     * @param rpcRequestsWaitQueue max amount of waiting requests per device (0 = refuse immediately)
+     * @param rpcRequestsWaitTimeout max time a request waits for a free slot [ms]
+     */
+    void setRpcRequestsWaitQueue(long rpcRequestsWaitQueue, long rpcRequestsWaitTimeout);
+
+    /**
+     * Deletes of flows reported by flowRemoved messages are submitted to operational DS in batches.
+     *
+     * @param flowRemovedBatchSize amount of deletes submitted at once (1 = submit per message)
+     * @param flowRemovedBatchDelay max time an incomplete batch waits for submit [ms]
+     */
+    void setFlowRemovedBatching(long flowRemovedBatchSize, long flowRemovedBatchDelay);
+
 
 
     }
@@ -7,6 +7,7 @@
  */
 package org.opendaylight.openflowplugin.api.openflow.device;
 
+import com.google.common.util.concurrent.ListenableFuture;
 import javax.annotation.Nullable;
 
 /**
@@ -19,4 +20,14 @@ public interface RequestContextStack {
      * @return A request context, or null if one cannot be created.
      */
     @Nullable <T> RequestContext<T> createRequestContext();
+
+    /**
+     * Method returns new request context for current request as soon as there is capacity for it. Requests
+     * not admitted immediately may wait (bounded) for a free slot.
+     *
+     * @param priority admission class of request
+     * @return future request context, completed with null if request was rejected (stack full or waiting
+     * deadline passed)
+     */
+    <T> ListenableFuture<RequestContext<T>> admitRequestContext(RequestPriority priority);
 }
@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.api.openflow.device;
+
+/**
+ * Admission class of request waiting for free slot in {@link RequestContextStack} - waiting requests
+ * of higher class (lower ordinal) are admitted first.
+ */
+public enum RequestPriority {
+    /**
+     * device control and reconciliation (barrier, configuration, echo)
+     */
+    CONTROL,
+    /**
+     * statistics requested via rpc
+     */
+    STATISTICS,
+    /**
+     * any other application request (flow, group, meter, packet-out, ...)
+     */
+    APPLICATION
+}
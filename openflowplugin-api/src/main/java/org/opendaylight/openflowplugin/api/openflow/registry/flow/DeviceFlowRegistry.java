@@ -27,6 +27,14 @@ public interface DeviceFlowRegistry extends AutoCloseable {
 
     void removeMarked();
 
+    /**
+     * removes flow from registry immediately (e.g. flow removed by device itself)
+     *
+     * @param flowRegistryKey key of removed flow
+     * @return descriptor of removed flow or null if flow was not registered
+     */
+    FlowDescriptor removeDescriptor(FlowRegistryKey flowRegistryKey);
+
     Map<FlowRegistryKey, FlowDescriptor> getAllFlowDescriptors();
 
     @Override
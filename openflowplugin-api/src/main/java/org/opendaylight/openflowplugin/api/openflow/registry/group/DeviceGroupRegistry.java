@@ -22,6 +22,9 @@ public interface DeviceGroupRegistry extends AutoCloseable {
 
     void removeMarked();
 
+    /**
+     * @return snapshot of all known group ids - not affected by later registry changes
+     */
     List<GroupId> getAllGroupIds();
 
     @Override
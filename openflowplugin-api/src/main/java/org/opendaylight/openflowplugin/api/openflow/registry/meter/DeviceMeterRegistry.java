@@ -22,6 +22,9 @@ public interface DeviceMeterRegistry extends AutoCloseable {
 
     void removeMarked();
 
+    /**
+     * @return snapshot of all known meter ids - not affected by later registry changes
+     */
     List<MeterId> getAllMeterIds();
 
     @Override
@@ -9,6 +9,7 @@
 package org.opendaylight.openflowplugin.api.openflow.statistics.ofpspecific;
 
 import java.util.List;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeId;
 
 /**
  * Created by Martin Bobak &lt;mbobak@cisco.com&gt; on 20.4.2015.
@@ -17,4 +18,18 @@ public interface MessageIntelligenceAgency extends MessageSpy {
 
     List<String> provideIntelligence();
     void resetStatistics();
+
+    /**
+     * @param nodeId device identifier
+     * @return spy counting messages of given device only (counters are part of this agency's aggregates)
+     */
+    MessageSpy getDeviceSpy(NodeId nodeId);
+
+    /**
+     * Counterpart of {@link #getDeviceSpy(NodeId)} - once every obtained spy of device is released,
+     * its counters are dropped.
+     *
+     * @param nodeId device identifier
+     */
+    void releaseDeviceSpy(NodeId nodeId);
 }
@@ -82,6 +82,22 @@ public interface MessageSpy extends Runnable {
          * TEMPORARY STATISTIC VALUE
          */
         REQUEST_STACK_FREED,
+        /**
+         * request stack slot taken by request
+         */
+        REQUEST_STACK_ACQUIRED,
+        /**
+         * request waits for free request stack slot
+         */
+        REQUEST_STACK_QUEUED,
+        /**
+         * request refused - request stack and wait queue full
+         */
+        REQUEST_STACK_REJECTED,
+        /**
+         * request refused - no request stack slot freed in time
+         */
+        REQUEST_STACK_EXPIRED,
         /**
          * stop receiving data from device - turned on
          */
@@ -99,5 +115,20 @@ public interface MessageSpy extends Runnable {
      * @param statGroup
      */
     void spyMessage(Class<?> message, STATISTIC_GROUP statGroup);
-    
+
+    /**
+     * request was handed over to outbound queue, latency measurement starts
+     *
+     * @param requestType type of request
+     * @param xid         transaction id of request
+     */
+    void spyRequestSent(Class<?> requestType, long xid);
+
+    /**
+     * response (or failure) for request arrived, latency measurement stops - unknown xid is ignored
+     *
+     * @param xid transaction id of answered request
+     */
+    void spyResponseReceived(long xid);
+
 }
@@ -0,0 +1,69 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.common.jmx;
+
+import java.lang.management.ManagementFactory;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.MBeanRegistrationException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.NotCompliantMBeanException;
+import javax.management.ObjectName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * registration of MXBeans in platform MBean server - object name is derived from MXBean interface:
+ * <code>&lt;package of interface&gt;:type=&lt;simple name of interface&gt;</code>
+ */
+public final class MXBeanUtil {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MXBeanUtil.class);
+
+    private MXBeanUtil() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * @param mxBean bean to expose
+     * @param mxBeanInterface MXBean interface implemented by bean
+     * @return name of registered bean (needed for {@link #unregisterMXBean(ObjectName)}),
+     *         null if registration failed
+     */
+    public static ObjectName registerMXBean(final Object mxBean, final Class<?> mxBeanInterface) {
+        final MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+        final String pathToMxBean = String.format("%s:type=%s",
+                mxBeanInterface.getPackage().getName(), mxBeanInterface.getSimpleName());
+        try {
+            final ObjectName name = new ObjectName(pathToMxBean);
+            mbs.registerMBean(mxBean, name);
+            return name;
+        } catch (MalformedObjectNameException
+                | NotCompliantMBeanException
+                | MBeanRegistrationException
+                | InstanceAlreadyExistsException e) {
+            LOG.warn("Error registering MBean {}", pathToMxBean, e);
+            return null;
+        }
+    }
+
+    /**
+     * @param name name returned by {@link #registerMXBean(Object, Class)}, null is ignored
+     */
+    public static void unregisterMXBean(final ObjectName name) {
+        if (name == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        } catch (InstanceNotFoundException | MBeanRegistrationException e) {
+            LOG.warn("Error unregistering MBean {}", name, e);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.openflowplugin.common.stats;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock free log-linear latency histogram in microseconds (HdrHistogram like layout). Values below
+ * {@link #SUB_BUCKETS} get exact bucket, every higher power of two range is split into {@link #SUB_BUCKETS}
+ * linear buckets - reported percentiles are thus at most 1/{@link #SUB_BUCKETS} above real value.
+ * Recording costs three atomic increments and no allocation.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /** highest tracked power of two [us] (~12 days), longer latencies fall into last bucket */
+    private static final int MAX_MAGNITUDE = 40;
+    private static final int BUCKETS = SUB_BUCKETS + (MAX_MAGNITUDE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sumMicros = new AtomicLong();
+    private final AtomicLong minMicros = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    /**
+     * @param nanos measured latency, negative values are counted as 0
+     */
+    public void record(final long nanos) {
+        recordMicros(TimeUnit.NANOSECONDS.toMicros(Math.max(0, nanos)));
+    }
+
+    private void recordMicros(final long micros) {
+        buckets.incrementAndGet(bucketOf(micros));
+        count.incrementAndGet();
+        sumMicros.addAndGet(micros);
+        updateMin(micros);
+        updateMax(micros);
+    }
+
+    /**
+     * add all values of this histogram into target
+     *
+     * @param target histogram to merge into
+     */
+    public void mergeInto(final LatencyHistogram target) {
+        for (int i = 0; i < BUCKETS; i++) {
+            final long amount = buckets.get(i);
+            if (amount > 0) {
+                target.buckets.addAndGet(i, amount);
+            }
+        }
+        target.count.addAndGet(count.get());
+        target.sumMicros.addAndGet(sumMicros.get());
+        if (count.get() > 0) {
+            target.updateMin(minMicros.get());
+            target.updateMax(maxMicros.get());
+        }
+    }
+
+    /**
+     * drop all recorded values - not atomic with respect to concurrent {@link #record(long)}
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        sumMicros.set(0);
+        minMicros.set(Long.MAX_VALUE);
+        maxMicros.set(0);
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getMeanMicros() {
+        final long amount = count.get();
+        return amount == 0 ? 0 : sumMicros.get() / amount;
+    }
+
+    public long getMinMicros() {
+        return count.get() == 0 ? 0 : minMicros.get();
+    }
+
+    public long getMaxMicros() {
+        return maxMicros.get();
+    }
+
+    /**
+     * @param fraction e.g. 0.99
+     * @return upper bound of bucket holding given percentile [us] (never above max recorded value)
+     */
+    public long getPercentileMicros(final double fraction) {
+        final long amount = count.get();
+        if (amount == 0) {
+            return 0;
+        }
+        final long target = Math.max(1, (long) Math.ceil(amount * fraction));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= target) {
+                return Math.min(upperBoundOf(i), maxMicros.get());
+            }
+        }
+        return maxMicros.get();
+    }
+
+    private void updateMin(final long micros) {
+        long min = minMicros.get();
+        while (micros < min && !minMicros.compareAndSet(min, micros)) {
+            min = minMicros.get();
+        }
+    }
+
+    private void updateMax(final long micros) {
+        long max = maxMicros.get();
+        while (micros > max && !maxMicros.compareAndSet(max, micros)) {
+            max = maxMicros.get();
+        }
+    }
+
+    private static int bucketOf(final long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        final int magnitude = 63 - Long.numberOfLeadingZeros(micros);
+        if (magnitude > MAX_MAGNITUDE) {
+            return BUCKETS - 1;
+        }
+        final int shift = magnitude - SUB_BUCKET_BITS;
+        final int subBucket = (int) (micros >>> shift) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS + shift * SUB_BUCKETS + subBucket;
+    }
+
+    private static long upperBoundOf(final int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        final int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+        final int subBucket = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + subBucket + 1) << shift) - 1;
+    }
+}
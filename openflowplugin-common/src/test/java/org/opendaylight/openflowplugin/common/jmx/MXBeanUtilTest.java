@@ -0,0 +1,62 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.common.jmx;
+
+import java.lang.management.ManagementFactory;
+import javax.management.ObjectName;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * test of {@link MXBeanUtil}
+ */
+public class MXBeanUtilTest {
+
+    /**
+     * bean under test
+     */
+    public interface DummyMXBean {
+        /**
+         * @return constant
+         */
+        int getValue();
+    }
+
+    private static final class Dummy implements DummyMXBean {
+        @Override
+        public int getValue() {
+            return 42;
+        }
+    }
+
+    /**
+     * register, refuse duplicate, unregister and register again
+     */
+    @Test
+    public void testRegisterUnregister() throws Exception {
+        final ObjectName name = MXBeanUtil.registerMXBean(new Dummy(), DummyMXBean.class);
+        Assert.assertNotNull(name);
+        try {
+            Assert.assertEquals("org.opendaylight.openflowplugin.common.jmx", name.getDomain());
+            Assert.assertEquals("DummyMXBean", name.getKeyProperty("type"));
+            Assert.assertEquals(42, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Value"));
+
+            Assert.assertNull(MXBeanUtil.registerMXBean(new Dummy(), DummyMXBean.class));
+        } finally {
+            MXBeanUtil.unregisterMXBean(name);
+        }
+        Assert.assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+
+        final ObjectName nameAgain = MXBeanUtil.registerMXBean(new Dummy(), DummyMXBean.class);
+        Assert.assertEquals(name, nameAgain);
+        MXBeanUtil.unregisterMXBean(nameAgain);
+        // null and already unregistered names are tolerated
+        MXBeanUtil.unregisterMXBean(nameAgain);
+        MXBeanUtil.unregisterMXBean(null);
+    }
+}
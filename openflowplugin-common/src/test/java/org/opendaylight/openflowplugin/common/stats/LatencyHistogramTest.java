@@ -0,0 +1,64 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.common.stats;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * test of {@link LatencyHistogram}
+ */
+public class LatencyHistogramTest {
+
+    /**
+     * percentiles report upper bound of log-linear bucket (100 us falls into [100, 103])
+     */
+    @Test
+    public void testPercentiles() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(100000L); // 100 us
+        }
+        histogram.record(10000000L); // 10 ms
+
+        Assert.assertEquals(100, histogram.getCount());
+        Assert.assertEquals(100, histogram.getMinMicros());
+        Assert.assertEquals(10000, histogram.getMaxMicros());
+        Assert.assertEquals(103, histogram.getPercentileMicros(0.5));
+        Assert.assertEquals(103, histogram.getPercentileMicros(0.99));
+        Assert.assertEquals(10000, histogram.getPercentileMicros(1.0));
+        Assert.assertEquals((99 * 100 + 10000) / 100, histogram.getMeanMicros());
+    }
+
+    /**
+     * merge sums counts and keeps extremes, reset empties histogram
+     */
+    @Test
+    public void testMergeAndReset() {
+        final LatencyHistogram first = new LatencyHistogram();
+        first.record(5000L); // 5 us
+        final LatencyHistogram second = new LatencyHistogram();
+        second.record(-1L);
+        second.record(2000000L); // 2 ms
+
+        final LatencyHistogram aggregate = new LatencyHistogram();
+        first.mergeInto(aggregate);
+        second.mergeInto(aggregate);
+        Assert.assertEquals(3, aggregate.getCount());
+        Assert.assertEquals(0, aggregate.getMinMicros());
+        Assert.assertEquals(2000, aggregate.getMaxMicros());
+
+        aggregate.reset();
+        Assert.assertEquals(0, aggregate.getCount());
+        Assert.assertEquals(0, aggregate.getMinMicros());
+        Assert.assertEquals(0, aggregate.getMaxMicros());
+        Assert.assertEquals(0, aggregate.getPercentileMicros(0.99));
+        aggregate.record(7000L);
+        Assert.assertEquals(7, aggregate.getMinMicros());
+    }
+}
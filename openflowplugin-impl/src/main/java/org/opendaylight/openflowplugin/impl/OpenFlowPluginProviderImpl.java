@@ -13,15 +13,9 @@ import com.google.common.base.Preconditions;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
-import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import javax.management.InstanceAlreadyExistsException;
-import javax.management.MBeanRegistrationException;
-import javax.management.MBeanServer;
-import javax.management.MalformedObjectNameException;
-import javax.management.NotCompliantMBeanException;
 import javax.management.ObjectName;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.NotificationPublishService;
@@ -34,12 +28,17 @@ import org.opendaylight.openflowplugin.api.openflow.device.DeviceManager;
 import org.opendaylight.openflowplugin.api.openflow.rpc.RpcManager;
 import org.opendaylight.openflowplugin.api.openflow.statistics.StatisticsManager;
 import org.opendaylight.openflowplugin.api.openflow.statistics.ofpspecific.MessageIntelligenceAgency;
+import org.opendaylight.openflowplugin.common.jmx.MXBeanUtil;
 import org.opendaylight.openflowplugin.extension.api.ExtensionConverterRegistrator;
 import org.opendaylight.openflowplugin.extension.api.OpenFlowPluginExtensionRegistratorProvider;
 import org.opendaylight.openflowplugin.impl.connection.ConnectionManagerImpl;
+import org.opendaylight.openflowplugin.impl.device.DeviceContextImpl;
 import org.opendaylight.openflowplugin.impl.device.DeviceManagerImpl;
 import org.opendaylight.openflowplugin.impl.rpc.RpcManagerImpl;
+import org.opendaylight.openflowplugin.impl.rpc.RpcManagerMXBean;
 import org.opendaylight.openflowplugin.impl.statistics.StatisticsManagerImpl;
+import org.opendaylight.openflowplugin.impl.statistics.ofpspecific.EventsTimeCounter;
+import org.opendaylight.openflowplugin.impl.statistics.ofpspecific.EventsTimeCounterMXBean;
 import org.opendaylight.openflowplugin.impl.statistics.ofpspecific.MessageIntelligenceAgencyImpl;
 import org.opendaylight.openflowplugin.impl.statistics.ofpspecific.MessageIntelligenceAgencyMXBean;
 import org.opendaylight.openflowplugin.impl.util.TranslatorLibraryUtil;
@@ -60,6 +59,10 @@ public class OpenFlowPluginProviderImpl implements OpenFlowPluginProvider, OpenF
 
     private final int rpcRequestsQuota;
     private final long globalNotificationQuota;
+    private int rpcRequestsWaitQueue;
+    private long rpcRequestsWaitTimeout;
+    private int flowRemovedBatchSize = DeviceContextImpl.DEFAULT_FLOW_REMOVED_BATCH_SIZE;
+    private long flowRemovedBatchDelay = DeviceContextImpl.DEFAULT_FLOW_REMOVED_BATCH_DELAY_MILLIS;
     private DeviceManager deviceManager;
     private RpcManager rpcManager;
     private RpcProviderRegistry rpcProviderRegistry;
@@ -74,6 +77,9 @@ public class OpenFlowPluginProviderImpl implements OpenFlowPluginProvider, OpenF
     private OfpRole role;
     private Collection<SwitchConnectionProvider> switchConnectionProviders;
     private boolean switchFeaturesMandatory = false;
+    private ObjectName messageIntelligenceAgencyMXBeanName;
+    private ObjectName rpcManagerMXBeanName;
+    private ObjectName eventsTimeCounterMXBeanName;
 
     public OpenFlowPluginProviderImpl(final long rpcRequestsQuota, final Long globalNotificationQuota) {
         Preconditions.checkArgument(rpcRequestsQuota > 0 && rpcRequestsQuota <= Integer.MAX_VALUE, "rpcRequestQuota has to be in range <1,%s>", Integer.MAX_VALUE);
@@ -113,6 +119,22 @@ public class OpenFlowPluginProviderImpl implements OpenFlowPluginProvider, OpenF
         this.switchFeaturesMandatory = switchFeaturesMandatory;
     }
 
+    @Override
+    public void setRpcRequestsWaitQueue(final long rpcRequestsWaitQueue, final long rpcRequestsWaitTimeout) {
+        Preconditions.checkArgument(rpcRequestsWaitQueue >= 0 && rpcRequestsWaitQueue <= Integer.MAX_VALUE, "rpcRequestsWaitQueue has to be in range <0,%s>", Integer.MAX_VALUE);
+        Preconditions.checkArgument(rpcRequestsWaitTimeout >= 0, "rpcRequestsWaitTimeout must not be negative");
+        this.rpcRequestsWaitQueue = (int) rpcRequestsWaitQueue;
+        this.rpcRequestsWaitTimeout = rpcRequestsWaitTimeout;
+    }
+
+    @Override
+    public void setFlowRemovedBatching(final long flowRemovedBatchSize, final long flowRemovedBatchDelay) {
+        Preconditions.checkArgument(flowRemovedBatchSize > 0 && flowRemovedBatchSize <= Integer.MAX_VALUE, "flowRemovedBatchSize has to be in range <1,%s>", Integer.MAX_VALUE);
+        Preconditions.checkArgument(flowRemovedBatchDelay >= 0, "flowRemovedBatchDelay must not be negative");
+        this.flowRemovedBatchSize = (int) flowRemovedBatchSize;
+        this.flowRemovedBatchDelay = flowRemovedBatchDelay;
+    }
+
     public static MessageIntelligenceAgency getMessageIntelligenceAgency() {
         return OpenFlowPluginProviderImpl.messageIntelligenceAgency;
     }
@@ -152,11 +174,20 @@ public class OpenFlowPluginProviderImpl implements OpenFlowPluginProvider, OpenF
 
         connectionManager = new ConnectionManagerImpl();
 
-        registerMXBean(messageIntelligenceAgency);
+        messageIntelligenceAgencyMXBeanName = MXBeanUtil.registerMXBean(messageIntelligenceAgency,
+                MessageIntelligenceAgencyMXBean.class);
+        eventsTimeCounterMXBeanName = MXBeanUtil.registerMXBean(EventsTimeCounter.getInstance(),
+                EventsTimeCounterMXBean.class);
 
-        deviceManager = new DeviceManagerImpl(dataBroker, messageIntelligenceAgency, switchFeaturesMandatory, globalNotificationQuota);
+        final DeviceManagerImpl deviceManagerImpl = new DeviceManagerImpl(dataBroker, messageIntelligenceAgency,
+                switchFeaturesMandatory, globalNotificationQuota);
+        deviceManagerImpl.setFlowRemovedBatching(flowRemovedBatchSize, flowRemovedBatchDelay);
+        deviceManager = deviceManagerImpl;
         statisticsManager = new StatisticsManagerImpl();
-        rpcManager = new RpcManagerImpl(rpcProviderRegistry, rpcRequestsQuota);
+        final RpcManagerImpl rpcManagerImpl = new RpcManagerImpl(rpcProviderRegistry, rpcRequestsQuota,
+                rpcRequestsWaitQueue, rpcRequestsWaitTimeout);
+        rpcManagerMXBeanName = MXBeanUtil.registerMXBean(rpcManagerImpl, RpcManagerMXBean.class);
+        rpcManager = rpcManagerImpl;
 
         connectionManager.setDeviceConnectedHandler(deviceManager);
         deviceManager.setDeviceInitializationPhaseHandler(statisticsManager);
@@ -171,22 +202,6 @@ public class OpenFlowPluginProviderImpl implements OpenFlowPluginProvider, OpenF
         startSwitchConnections();
     }
 
-    private static void registerMXBean(final MessageIntelligenceAgency messageIntelligenceAgency) {
-        MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
-        try {
-            String pathToMxBean = String.format("%s:type=%s",
-                    MessageIntelligenceAgencyMXBean.class.getPackage().getName(),
-                    MessageIntelligenceAgencyMXBean.class.getSimpleName());
-            ObjectName name = new ObjectName(pathToMxBean);
-            mbs.registerMBean(messageIntelligenceAgency, name);
-        } catch (MalformedObjectNameException
-                | NotCompliantMBeanException
-                | MBeanRegistrationException
-                | InstanceAlreadyExistsException e) {
-            LOG.warn("Error registering MBean {}", e);
-        }
-    }
-
     @Override
     public void setNotificationProviderService(final NotificationService notificationProviderService) {
         this.notificationProviderService = notificationProviderService;
@@ -205,5 +220,11 @@ public class OpenFlowPluginProviderImpl implements OpenFlowPluginProvider, OpenF
     @Override
     public void close() throws Exception {
         //TODO: close all contexts, switchConnections (, managers)
+        MXBeanUtil.unregisterMXBean(messageIntelligenceAgencyMXBeanName);
+        messageIntelligenceAgencyMXBeanName = null;
+        MXBeanUtil.unregisterMXBean(rpcManagerMXBeanName);
+        rpcManagerMXBeanName = null;
+        MXBeanUtil.unregisterMXBean(eventsTimeCounterMXBeanName);
+        eventsTimeCounterMXBeanName = null;
     }
 }
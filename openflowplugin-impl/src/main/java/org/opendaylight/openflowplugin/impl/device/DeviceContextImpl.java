@@ -14,6 +14,7 @@ import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import io.netty.util.HashedWheelTimer;
 import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
 import java.math.BigInteger;
 import java.util.Collection;
 import java.util.HashMap;
@@ -21,6 +22,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.annotation.Nonnull;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.NotificationPublishService;
@@ -42,16 +45,25 @@ import org.opendaylight.openflowplugin.api.openflow.device.handlers.MultiMsgColl
 import org.opendaylight.openflowplugin.api.openflow.md.core.SwitchConnectionDistinguisher;
 import org.opendaylight.openflowplugin.api.openflow.md.core.TranslatorKey;
 import org.opendaylight.openflowplugin.api.openflow.registry.flow.DeviceFlowRegistry;
+import org.opendaylight.openflowplugin.api.openflow.registry.flow.FlowDescriptor;
+import org.opendaylight.openflowplugin.api.openflow.registry.flow.FlowRegistryKey;
 import org.opendaylight.openflowplugin.api.openflow.registry.group.DeviceGroupRegistry;
 import org.opendaylight.openflowplugin.api.openflow.registry.meter.DeviceMeterRegistry;
 import org.opendaylight.openflowplugin.api.openflow.statistics.ofpspecific.MessageSpy;
 import org.opendaylight.openflowplugin.impl.common.NodeStaticReplyTranslatorUtil;
 import org.opendaylight.openflowplugin.impl.device.listener.MultiMsgCollectorImpl;
 import org.opendaylight.openflowplugin.impl.registry.flow.DeviceFlowRegistryImpl;
+import org.opendaylight.openflowplugin.impl.registry.flow.FlowRegistryKeyFactory;
 import org.opendaylight.openflowplugin.impl.registry.group.DeviceGroupRegistryImpl;
 import org.opendaylight.openflowplugin.impl.registry.meter.DeviceMeterRegistryImpl;
 import org.opendaylight.openflowplugin.openflow.md.core.session.SwitchConnectionCookieOFImpl;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNode;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNodeConnector;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.Table;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.Flow;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.service.rev130819.FlowRemovedBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.FlowRef;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeConnectorId;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeConnectorRef;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.node.NodeConnector;
@@ -90,6 +102,8 @@ public class DeviceContextImpl implements DeviceContext {
     private static final float LOW_WATERMARK_FACTOR = 0.75f;
     // TODO: high water mark factor should be parametrized
     private static final float HIGH_WATERMARK_FACTOR = 0.95f;
+    public static final int DEFAULT_FLOW_REMOVED_BATCH_SIZE = 100;
+    public static final long DEFAULT_FLOW_REMOVED_BATCH_DELAY_MILLIS = 100;
 
     private final ConnectionContext primaryConnectionContext;
     private final DeviceState deviceState;
@@ -102,6 +116,8 @@ public class DeviceContextImpl implements DeviceContext {
     private final DeviceMeterRegistry deviceMeterRegistry;
     private final Collection<DeviceContextClosedHandler> closeHandlers = new HashSet<>();
     private final PacketInRateLimiter packetInLimiter;
+    private final FlowRemovedRateLimiter flowRemovedLimiter;
+    private final AtomicInteger pendingFlowRemovals = new AtomicInteger();
     private final MessageSpy messageSpy;
     private NotificationPublishService notificationPublishService;
     private NotificationService notificationService;
@@ -109,8 +125,11 @@ public class DeviceContextImpl implements DeviceContext {
     private Timeout barrierTaskTimeout;
     private final MessageTranslator<PortGrouping, FlowCapableNodeConnector> portStatusTranslator;
     private final MessageTranslator<PacketInMessage, PacketReceived> packetInTranslator;
+    private final MessageTranslator<FlowRemoved, org.opendaylight.yang.gen.v1.urn.opendaylight.flow.service.rev130819.FlowRemoved> flowRemovedTranslator;
     private final TranslatorLibrary translatorLibrary;
     private Map<Long, NodeConnectorRef> nodeConnectorCache;
+    private volatile int flowRemovedBatchSize = DEFAULT_FLOW_REMOVED_BATCH_SIZE;
+    private volatile long flowRemovedBatchDelayMillis = DEFAULT_FLOW_REMOVED_BATCH_DELAY_MILLIS;
 
 
     @VisibleForTesting
@@ -136,15 +155,28 @@ public class DeviceContextImpl implements DeviceContext {
 
         packetInLimiter = new PacketInRateLimiter(primaryConnectionContext.getConnectionAdapter(),
                 /*initial*/ 1000, /*initial*/2000, messageSpy, REJECTED_DRAIN_FACTOR);
+        flowRemovedLimiter = new FlowRemovedRateLimiter(/*initial*/ 500, /*initial*/1000);
 
         this.translatorLibrary = translatorLibrary;
         portStatusTranslator = translatorLibrary.lookupTranslator(
                 new TranslatorKey(deviceState.getVersion(), PortGrouping.class.getName()));
         packetInTranslator = translatorLibrary.lookupTranslator(
                 new TranslatorKey(deviceState.getVersion(), PacketIn.class.getName()));
+        flowRemovedTranslator = translatorLibrary.lookupTranslator(
+                new TranslatorKey(deviceState.getVersion(), FlowRemoved.class.getName()));
         nodeConnectorCache = new ConcurrentHashMap<>();
     }
 
+    /**
+     * @param flowRemovedBatchSize amount of removed flow deletes submitted at once
+     * @param flowRemovedBatchDelayMillis max time an incomplete batch waits for submit
+     */
+    void setFlowRemovedBatching(final int flowRemovedBatchSize, final long flowRemovedBatchDelayMillis) {
+        Preconditions.checkArgument(flowRemovedBatchSize > 0, "flowRemovedBatchSize has to be positive");
+        this.flowRemovedBatchSize = flowRemovedBatchSize;
+        this.flowRemovedBatchDelayMillis = flowRemovedBatchDelayMillis;
+    }
+
     /**
      * This method is called from {@link DeviceManagerImpl} only. So we could say "posthandshake process finish"
      * and we are able to set a scheduler for an automatic transaction submitting by time (0,5sec).
@@ -247,7 +279,95 @@ public class DeviceContextImpl implements DeviceContext {
 
     @Override
     public void processFlowRemovedMessage(final FlowRemoved flowRemoved) {
-        //TODO: will be defined later
+        messageSpy.spyMessage(flowRemoved.getImplementedInterface(), MessageSpy.STATISTIC_GROUP.FROM_SWITCH);
+        if (flowRemovedTranslator == null) {
+            LOG.debug("No flowRemoved translator for version {}", deviceState.getVersion());
+            messageSpy.spyMessage(flowRemoved.getImplementedInterface(), MessageSpy.STATISTIC_GROUP.FROM_SWITCH_TRANSLATE_SRC_FAILURE);
+            return;
+        }
+
+        final org.opendaylight.yang.gen.v1.urn.opendaylight.flow.service.rev130819.FlowRemoved flowRemovedNotification =
+                flowRemovedTranslator.translate(flowRemoved, this, null);
+        if (flowRemovedNotification == null || flowRemovedNotification.getMatch() == null) {
+            LOG.debug("Received an untranslatable flowRemoved from switch {}",
+                    getPrimaryConnectionContext().getConnectionAdapter().getRemoteAddress());
+            messageSpy.spyMessage(flowRemoved.getImplementedInterface(), MessageSpy.STATISTIC_GROUP.FROM_SWITCH_TRANSLATE_SRC_FAILURE);
+            return;
+        }
+
+        final FlowRegistryKey flowRegistryKey = FlowRegistryKeyFactory.create(flowRemovedNotification);
+        final FlowDescriptor flowDescriptor = deviceFlowRegistry.removeDescriptor(flowRegistryKey);
+        if (flowDescriptor == null) {
+            // flow unknown to registry (e.g. removed before first statistics round) - notification only
+            LOG.trace("Removed flow with hash {} not found in registry", flowRegistryKey.hashCode());
+            publishFlowRemoved(flowRemovedNotification);
+            return;
+        }
+
+        final KeyedInstanceIdentifier<Flow, FlowKey> flowPath = deviceState.getNodeInstanceIdentifier()
+                .augmentation(FlowCapableNode.class)
+                .child(Table.class, flowDescriptor.getTableKey())
+                .child(Flow.class, new FlowKey(flowDescriptor.getFlowId()));
+        addDeleteToTxChain(LogicalDatastoreType.OPERATIONAL, flowPath);
+        submitFlowRemovedBatchIfFull();
+
+        publishFlowRemoved(new FlowRemovedBuilder(flowRemovedNotification).setFlowRef(new FlowRef(flowPath)).build());
+    }
+
+    /**
+     * Deletes of removed flows are submitted once batch is full or batch delay expires, so flood of flowRemoved
+     * messages (e.g. mass idle timeout) does not turn into submit per message.
+     */
+    private void submitFlowRemovedBatchIfFull() {
+        final int pending = pendingFlowRemovals.incrementAndGet();
+        if (pending >= flowRemovedBatchSize) {
+            submitFlowRemovedBatch();
+        } else if (pending == 1) {
+            hashedWheelTimer.newTimeout(new TimerTask() {
+                @Override
+                public void run(final Timeout timeout) {
+                    submitFlowRemovedBatch();
+                }
+            }, flowRemovedBatchDelayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void submitFlowRemovedBatch() {
+        if (pendingFlowRemovals.getAndSet(0) > 0) {
+            submitTransaction();
+        }
+    }
+
+    private void publishFlowRemoved(final org.opendaylight.yang.gen.v1.urn.opendaylight.flow.service.rev130819.FlowRemoved flowRemovedNotification) {
+        if (!flowRemovedLimiter.acquirePermit()) {
+            LOG.debug("FlowRemoved notification limited");
+            messageSpy.spyMessage(flowRemovedNotification.getImplementedInterface(), MessageSpy.STATISTIC_GROUP.FROM_SWITCH_NOTIFICATION_REJECTED);
+            return;
+        }
+
+        final ListenableFuture<? extends Object> offerNotification = notificationPublishService.offerNotification(flowRemovedNotification);
+        if (NotificationPublishService.REJECTED.equals(offerNotification)) {
+            LOG.debug("notification offer rejected");
+            messageSpy.spyMessage(flowRemovedNotification.getImplementedInterface(), MessageSpy.STATISTIC_GROUP.FROM_SWITCH_NOTIFICATION_REJECTED);
+            flowRemovedLimiter.releasePermit();
+            return;
+        }
+
+        Futures.addCallback(offerNotification, new FutureCallback<Object>() {
+            @Override
+            public void onSuccess(final Object result) {
+                messageSpy.spyMessage(flowRemovedNotification.getImplementedInterface(), MessageSpy.STATISTIC_GROUP.FROM_SWITCH_PUBLISHED_SUCCESS);
+                flowRemovedLimiter.releasePermit();
+            }
+
+            @Override
+            public void onFailure(final Throwable t) {
+                messageSpy.spyMessage(flowRemovedNotification.getImplementedInterface(), MessageSpy.STATISTIC_GROUP.FROM_SWITCH_NOTIFICATION_REJECTED);
+                LOG.debug("notification offer failed: {}", t.getMessage());
+                LOG.trace("notification offer failed..", t);
+                flowRemovedLimiter.releasePermit();
+            }
+        });
     }
 
     @Override
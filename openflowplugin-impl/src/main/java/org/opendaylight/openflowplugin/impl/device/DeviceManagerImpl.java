@@ -126,6 +126,8 @@ public class DeviceManagerImpl implements DeviceManager, AutoCloseable {
     private final int maxQueueDepth = 25600;
     private final boolean switchFeaturesMandatory;
     private final DeviceTransactionChainManagerProvider deviceTransactionChainManagerProvider;
+    private int flowRemovedBatchSize = DeviceContextImpl.DEFAULT_FLOW_REMOVED_BATCH_SIZE;
+    private long flowRemovedBatchDelayMillis = DeviceContextImpl.DEFAULT_FLOW_REMOVED_BATCH_DELAY_MILLIS;
 
     public DeviceManagerImpl(@Nonnull final DataBroker dataBroker,
                              @Nonnull final MessageIntelligenceAgency messageIntelligenceAgency,
@@ -218,8 +220,9 @@ public class DeviceManagerImpl implements DeviceManager, AutoCloseable {
         final NodeId nodeId = connectionContext.getNodeId();
         final DeviceState deviceState = new DeviceStateImpl(connectionContext.getFeatures(), nodeId);
 
-        final DeviceContext deviceContext = new DeviceContextImpl(connectionContext, deviceState, dataBroker,
-                hashedWheelTimer, messageIntelligenceAgency, outboundQueueProvider, translatorLibrary, transactionChainManager);
+        final DeviceContextImpl deviceContext = new DeviceContextImpl(connectionContext, deviceState, dataBroker,
+                hashedWheelTimer, messageIntelligenceAgency.getDeviceSpy(nodeId), outboundQueueProvider, translatorLibrary, transactionChainManager);
+        deviceContext.setFlowRemovedBatching(flowRemovedBatchSize, flowRemovedBatchDelayMillis);
         deviceContext.setNotificationService(notificationService);
         deviceContext.setNotificationPublishService(notificationPublishService);
         final NodeBuilder nodeBuilder = new NodeBuilder().setId(deviceState.getNodeId()).setNodeConnector(Collections.<NodeConnector>emptyList());
@@ -600,6 +603,15 @@ public class DeviceManagerImpl implements DeviceManager, AutoCloseable {
         }
     }
 
+    /**
+     * @param flowRemovedBatchSize amount of removed flow deletes submitted at once by each device context
+     * @param flowRemovedBatchDelayMillis max time an incomplete batch waits for submit
+     */
+    public void setFlowRemovedBatching(final int flowRemovedBatchSize, final long flowRemovedBatchDelayMillis) {
+        this.flowRemovedBatchSize = flowRemovedBatchSize;
+        this.flowRemovedBatchDelayMillis = flowRemovedBatchDelayMillis;
+    }
+
     @Override
     public void setNotificationService(final NotificationService notificationServiceParam) {
         notificationService = notificationServiceParam;
@@ -630,6 +642,7 @@ public class DeviceManagerImpl implements DeviceManager, AutoCloseable {
     @Override
     public void onDeviceContextClosed(final DeviceContext deviceContext) {
         deviceContexts.remove(deviceContext);
+        messageIntelligenceAgency.releaseDeviceSpy(deviceContext.getDeviceState().getNodeId());
         updatePacketInRateLimiters();
     }
 
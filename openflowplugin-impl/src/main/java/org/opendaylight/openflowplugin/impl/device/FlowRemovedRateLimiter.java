@@ -0,0 +1,34 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.impl.device;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Limits amount of flow removed notifications offered to notification publish service and not yet published.
+ * Unlike packetIn there is no way to throttle device, so notifications above high watermark get dropped
+ * (operational data and flow registry are updated regardless).
+ */
+final class FlowRemovedRateLimiter extends SimpleRatelimiter {
+    private static final Logger LOG = LoggerFactory.getLogger(FlowRemovedRateLimiter.class);
+
+    FlowRemovedRateLimiter(final int lowWatermark, final int highWatermark) {
+        super(lowWatermark, highWatermark);
+    }
+
+    @Override
+    protected void disableFlow() {
+        LOG.debug("FlowRemoved notifications dropping on");
+    }
+
+    @Override
+    protected void enableFlow() {
+        LOG.debug("FlowRemoved notifications dropping off");
+    }
+}
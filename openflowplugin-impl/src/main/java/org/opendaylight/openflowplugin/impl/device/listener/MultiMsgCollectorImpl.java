@@ -15,8 +15,6 @@ import javax.annotation.Nonnull;
 import org.opendaylight.openflowplugin.api.openflow.device.RequestContext;
 import org.opendaylight.openflowplugin.api.openflow.device.handlers.DeviceReplyProcessor;
 import org.opendaylight.openflowplugin.api.openflow.device.handlers.MultiMsgCollector;
-import org.opendaylight.openflowplugin.api.openflow.statistics.ofpspecific.EventIdentifier;
-import org.opendaylight.openflowplugin.impl.statistics.ofpspecific.EventsTimeCounter;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.common.types.rev130731.MultipartType;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.protocol.rev130731.MultipartReply;
 import org.opendaylight.yangtools.yang.common.RpcResult;
@@ -49,12 +47,7 @@ public class MultiMsgCollectorImpl implements MultiMsgCollector {
     }
 
     @Override
-    public void addMultipartMsg(final MultipartReply reply) {
-        addMultipartMsg(reply, null);
-    }
-
-    @Override
-    public void addMultipartMsg(@Nonnull final MultipartReply reply, @Nonnull final EventIdentifier eventIdentifier) {
+    public void addMultipartMsg(@Nonnull final MultipartReply reply) {
         Preconditions.checkNotNull(reply);
         Preconditions.checkArgument(requestContext.getXid().getValue().equals(reply.getXid()));
         LOG.trace("Try to add Multipart reply msg with XID {}", reply.getXid());
@@ -69,19 +62,13 @@ public class MultiMsgCollectorImpl implements MultiMsgCollector {
 
         replyCollection.add(reply);
         if (!reply.getFlags().isOFPMPFREQMORE()) {
-            endCollecting(eventIdentifier);
+            endCollecting();
         }
     }
 
+    @Override
     public void endCollecting() {
-        endCollecting(null);
-    }
-
-    public void endCollecting(final EventIdentifier eventIdentifier) {
         final RpcResult<List<MultipartReply>> rpcResult = RpcResultBuilder.success(replyCollection).build();
-        if (null != eventIdentifier) {
-            EventsTimeCounter.markEnd(eventIdentifier);
-        }
         requestContext.setResult(rpcResult);
         requestContext.close();
         deviceReplyProcessor.processReply(requestContext.getXid(), replyCollection);
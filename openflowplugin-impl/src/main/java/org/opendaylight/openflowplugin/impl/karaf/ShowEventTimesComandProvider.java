@@ -11,6 +11,7 @@ package org.opendaylight.openflowplugin.impl.karaf;
 import java.io.PrintStream;
 import java.util.List;
 import org.apache.karaf.shell.commands.Command;
+import org.apache.karaf.shell.commands.Option;
 import org.apache.karaf.shell.console.OsgiCommandSupport;
 import org.opendaylight.openflowplugin.impl.statistics.ofpspecific.EventsTimeCounter;
 
@@ -20,10 +21,27 @@ import org.opendaylight.openflowplugin.impl.statistics.ofpspecific.EventsTimeCou
 @Command(scope = "ofp", name = "show-time-counters", description = "Shows time counts for events.")
 public class ShowEventTimesComandProvider extends OsgiCommandSupport {
 
+    @Option(name = "-i", aliases = "--interval",
+            description = "show times recorded since previous interval snapshot (starts new interval)",
+            required = false, multiValued = false)
+    boolean interval = false;
+
+    @Option(name = "-t", aliases = "--by-type",
+            description = "show times per event type aggregated over all devices",
+            required = false, multiValued = false)
+    boolean byType = false;
+
     @Override
     protected Object doExecute() throws Exception {
         PrintStream out = session.getConsole();
-        final List<String> statistics = EventsTimeCounter.provideTimes();
+        final List<String> statistics;
+        if (interval) {
+            statistics = EventsTimeCounter.provideIntervalTimes();
+        } else if (byType) {
+            statistics = EventsTimeCounter.provideEventTypeTimes();
+        } else {
+            statistics = EventsTimeCounter.provideTimes();
+        }
         final StringBuilder result = new StringBuilder();
         for (String line : statistics) {
             result.append(line);
@@ -11,9 +11,13 @@ package org.opendaylight.openflowplugin.impl.karaf;
 import java.io.PrintStream;
 import java.util.List;
 import org.apache.karaf.shell.commands.Command;
+import org.apache.karaf.shell.commands.Option;
 import org.apache.karaf.shell.console.OsgiCommandSupport;
 import org.opendaylight.openflowplugin.api.openflow.statistics.ofpspecific.MessageIntelligenceAgency;
 import org.opendaylight.openflowplugin.impl.OpenFlowPluginProviderImpl;
+import org.opendaylight.openflowplugin.impl.statistics.ofpspecific.MessageCounterSnapshot;
+import org.opendaylight.openflowplugin.impl.statistics.ofpspecific.MessageIntelligenceAgencyMXBean;
+import org.opendaylight.openflowplugin.impl.statistics.ofpspecific.RequestLatencySnapshot;
 
 /**
  * Created by Martin Bobak &lt;mbobak@cisco.com&gt; on 21.5.2015.
@@ -22,15 +26,41 @@ import org.opendaylight.openflowplugin.impl.OpenFlowPluginProviderImpl;
 @Command(scope = "ofp", name = "showStats", description = "Show openflow statistics.")
 public class ShowStatsCommandProvider extends OsgiCommandSupport {
 
+    @Option(name = "-d", aliases = "--device",
+            description = "show counters and request latencies of given device only (e.g. openflow:1)",
+            required = false, multiValued = false)
+    String deviceId = null;
+
+    @Option(name = "-a", aliases = "--all-devices",
+            description = "show counters and request latencies of every device",
+            required = false, multiValued = false)
+    boolean allDevices = false;
+
     @Override
     protected Object doExecute() throws Exception {
         PrintStream out = session.getConsole();
         final MessageIntelligenceAgency messageIntelligenceAgency = OpenFlowPluginProviderImpl.getMessageIntelligenceAgency();
-        final List<String> statistics = messageIntelligenceAgency.provideIntelligence();
         final StringBuilder result = new StringBuilder();
-        for (String line : statistics) {
-            result.append(line);
-            result.append("\n");
+        if ((deviceId != null || allDevices) && messageIntelligenceAgency instanceof MessageIntelligenceAgencyMXBean) {
+            final MessageIntelligenceAgencyMXBean agency = (MessageIntelligenceAgencyMXBean) messageIntelligenceAgency;
+            for (MessageCounterSnapshot counter : agency.getMessageCounters()) {
+                if (allDevices || deviceId.equals(counter.getDeviceId())) {
+                    result.append(counter);
+                    result.append("\n");
+                }
+            }
+            for (RequestLatencySnapshot latency : agency.getRequestLatencies()) {
+                if (allDevices || deviceId.equals(latency.getDeviceId())) {
+                    result.append(latency);
+                    result.append("\n");
+                }
+            }
+        } else {
+            final List<String> statistics = messageIntelligenceAgency.provideIntelligence();
+            for (String line : statistics) {
+                result.append(line);
+                result.append("\n");
+            }
         }
         out.print(result.toString());
         return null;
@@ -78,6 +78,13 @@ public class DeviceFlowRegistryImpl implements DeviceFlowRegistry {
         }
     }
 
+    @Override
+    public FlowDescriptor removeDescriptor(final FlowRegistryKey flowRegistryKey) {
+        final FlowDescriptor removed = flowRegistry.remove(flowRegistryKey);
+        LOG.trace("Flow hash {} removed from registry: {}", flowRegistryKey.hashCode(), removed != null);
+        return removed;
+    }
+
     @Override
     public Map<FlowRegistryKey, FlowDescriptor> getAllFlowDescriptors() {
         return Collections.unmodifiableMap(flowRegistry);
@@ -9,48 +9,60 @@
 package org.opendaylight.openflowplugin.impl.registry.group;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import org.opendaylight.openflowplugin.api.openflow.registry.group.DeviceGroupRegistry;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.group.types.rev131018.GroupId;
 
 /**
  * Created by Martin Bobak &lt;mbobak@cisco.com&gt; on 15.4.2015.
+ * <p>
+ * group ids are indexed by their numeric value, so store, mark and removal cost O(1) and repeated
+ * store of the same id (every statistics cycle) does not grow the registry. All operations are
+ * safe to be called concurrently from statistics and RPC processing.
  */
 public class DeviceGroupRegistryImpl implements DeviceGroupRegistry {
 
-    private final List<GroupId> groupIdList = new ArrayList<>();
-    private final List<GroupId> marks = new ArrayList<>();
+    private final ConcurrentMap<Long, GroupId> groupIds = new ConcurrentHashMap<>();
+    private final Set<Long> marks = Collections.newSetFromMap(new ConcurrentHashMap<Long, Boolean>());
 
     @Override
     public void store(final GroupId groupId) {
-        groupIdList.add(groupId);
+        if (groupId != null) {
+            groupIds.put(groupId.getValue(), groupId);
+        }
     }
 
     @Override
     public void markToBeremoved(final GroupId groupId) {
-        marks.add(groupId);
+        if (groupId != null) {
+            marks.add(groupId.getValue());
+        }
     }
 
     @Override
     public void removeMarked() {
-        synchronized (groupIdList) {
-            groupIdList.removeAll(marks);
+        // marks added meanwhile stay for next round
+        final Iterator<Long> markIterator = marks.iterator();
+        while (markIterator.hasNext()) {
+            final Long mark = markIterator.next();
+            markIterator.remove();
+            groupIds.remove(mark);
         }
-        marks.clear();
     }
 
     @Override
     public List<GroupId> getAllGroupIds() {
-        return groupIdList;
+        return new ArrayList<>(groupIds.values());
     }
 
     @Override
     public void close() {
-        synchronized (groupIdList) {
-            groupIdList.clear();
-        }
-        synchronized (marks) {
-            marks.clear();
-        }
+        groupIds.clear();
+        marks.clear();
     }
 }
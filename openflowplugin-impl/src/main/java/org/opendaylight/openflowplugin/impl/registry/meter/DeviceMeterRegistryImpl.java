@@ -9,50 +9,60 @@
 package org.opendaylight.openflowplugin.impl.registry.meter;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import org.opendaylight.openflowplugin.api.openflow.registry.meter.DeviceMeterRegistry;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.meter.types.rev130918.MeterId;
 
 /**
  * Created by Martin Bobak &lt;mbobak@cisco.com&gt; on 15.4.2015.
+ * <p>
+ * meter ids are indexed by their numeric value, so store, mark and removal cost O(1) and repeated
+ * store of the same id (every statistics cycle) does not grow the registry. All operations are
+ * safe to be called concurrently from statistics and RPC processing.
  */
 public class DeviceMeterRegistryImpl implements DeviceMeterRegistry {
 
-    private final List<MeterId> meterIds = new ArrayList<>();
-    private final List<MeterId> marks = new ArrayList<>();
+    private final ConcurrentMap<Long, MeterId> meterIds = new ConcurrentHashMap<>();
+    private final Set<Long> marks = Collections.newSetFromMap(new ConcurrentHashMap<Long, Boolean>());
 
     @Override
     public void store(final MeterId meterId) {
-        meterIds.add(meterId);
+        if (meterId != null) {
+            meterIds.put(meterId.getValue(), meterId);
+        }
     }
 
     @Override
     public void markToBeremoved(final MeterId meterId) {
-        marks.add(meterId);
+        if (meterId != null) {
+            marks.add(meterId.getValue());
+        }
     }
 
     @Override
     public void removeMarked() {
-        synchronized (meterIds) {
-            meterIds.removeAll(marks);
-        }
-        synchronized (marks) {
-            marks.clear();
+        // marks added meanwhile stay for next round
+        final Iterator<Long> markIterator = marks.iterator();
+        while (markIterator.hasNext()) {
+            final Long mark = markIterator.next();
+            markIterator.remove();
+            meterIds.remove(mark);
         }
     }
 
     @Override
     public List<MeterId> getAllMeterIds() {
-        return meterIds;
+        return new ArrayList<>(meterIds.values());
     }
 
     @Override
     public void close() {
-        synchronized (meterIds) {
-            meterIds.clear();
-        }
-        synchronized (marks) {
-            marks.clear();
-        }
+        meterIds.clear();
+        marks.clear();
     }
 }
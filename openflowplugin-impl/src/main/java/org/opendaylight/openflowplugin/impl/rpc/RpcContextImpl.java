@@ -8,13 +8,25 @@
 package org.opendaylight.openflowplugin.impl.rpc;
 
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumMap;
 import java.util.HashSet;
-import java.util.concurrent.Semaphore;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
 import org.opendaylight.controller.sal.binding.api.BindingAwareBroker.RoutedRpcRegistration;
 import org.opendaylight.controller.sal.binding.api.RpcProviderRegistry;
 import org.opendaylight.openflowplugin.api.openflow.device.DeviceContext;
 import org.opendaylight.openflowplugin.api.openflow.device.RequestContext;
+import org.opendaylight.openflowplugin.api.openflow.device.RequestPriority;
 import org.opendaylight.openflowplugin.api.openflow.rpc.RpcContext;
 import org.opendaylight.openflowplugin.api.openflow.statistics.ofpspecific.MessageSpy;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeContext;
@@ -27,16 +39,42 @@ public class RpcContextImpl implements RpcContext {
     private final RpcProviderRegistry rpcProviderRegistry;
     private final DeviceContext deviceContext;
     private final MessageSpy messageSpy;
-    private final Semaphore tracker;
+
+    /**
+     * admission state - slots in use and requests waiting for a slot (per priority, FIFO), guarded by itself
+     */
+    private final int maxRequests;
+    private final int maxWaitingRequests;
+    private final long maxWaitMillis;
+    private final Map<RequestPriority, Queue<PendingAdmission<?>>> waiting = new EnumMap<>(RequestPriority.class);
+    private int occupied;
+    private int waitingCount;
+    private boolean closed;
 
     // TODO: add private Sal salBroker
     private final Collection<RoutedRpcRegistration<?>> rpcRegistrations = new HashSet<>();
 
     public RpcContextImpl(final MessageSpy messageSpy, final RpcProviderRegistry rpcProviderRegistry, final DeviceContext deviceContext, final int maxRequests) {
+        this(messageSpy, rpcProviderRegistry, deviceContext, maxRequests, 0, 0);
+    }
+
+    /**
+     * @param maxRequests max amount of requests in progress
+     * @param maxWaitingRequests max amount of requests waiting for free slot (0 = refuse immediately)
+     * @param maxWaitMillis max time a request waits for free slot
+     */
+    public RpcContextImpl(final MessageSpy messageSpy, final RpcProviderRegistry rpcProviderRegistry, final DeviceContext deviceContext,
+                          final int maxRequests, final int maxWaitingRequests, final long maxWaitMillis) {
         this.messageSpy = messageSpy;
         this.rpcProviderRegistry = rpcProviderRegistry;
         this.deviceContext = Preconditions.checkNotNull(deviceContext);
-        tracker = new Semaphore(maxRequests, true);
+        Preconditions.checkArgument(maxWaitingRequests >= 0, "maxWaitingRequests must not be negative");
+        this.maxRequests = maxRequests;
+        this.maxWaitingRequests = maxWaitingRequests;
+        this.maxWaitMillis = maxWaitMillis;
+        for (final RequestPriority priority : RequestPriority.values()) {
+            waiting.put(priority, new ArrayDeque<PendingAdmission<?>>());
+        }
     }
 
     /**
@@ -63,29 +101,166 @@ public class RpcContextImpl implements RpcContext {
             rpcRegistration.unregisterPath(NodeContext.class, deviceContext.getDeviceState().getNodeInstanceIdentifier());
             rpcRegistration.close();
         }
+        rejectWaiting();
     }
 
     @Override
     public <T> RequestContext<T> createRequestContext() {
-        if (!tracker.tryAcquire()) {
-            LOG.trace("Device queue {} at capacity", this);
-            return null;
+        synchronized (waiting) {
+            // waiting requests go first
+            if (occupied >= maxRequests || waitingCount > 0) {
+                LOG.trace("Device queue {} at capacity", this);
+                return null;
+            }
+            occupied++;
         }
+        return newRequestContext();
+    }
 
+    @Override
+    public <T> ListenableFuture<RequestContext<T>> admitRequestContext(final RequestPriority priority) {
+        final PendingAdmission<T> pending;
+        synchronized (waiting) {
+            if (!closed && occupied < maxRequests && waitingCount == 0) {
+                occupied++;
+                pending = null;
+            } else if (!closed && waitingCount < maxWaitingRequests) {
+                pending = new PendingAdmission<>(priority);
+                waiting.get(priority).add(pending);
+                waitingCount++;
+            } else {
+                LOG.trace("Device queue {} at capacity, wait queue full", this);
+                messageSpy.spyMessage(RpcContextImpl.class, MessageSpy.STATISTIC_GROUP.REQUEST_STACK_REJECTED);
+                return Futures.immediateFuture(null);
+            }
+        }
+
+        if (pending == null) {
+            return Futures.immediateFuture(this.<T>newRequestContext());
+        }
+        messageSpy.spyMessage(RpcContextImpl.class, MessageSpy.STATISTIC_GROUP.REQUEST_STACK_QUEUED);
+        pending.deadline = deviceContext.getTimer().newTimeout(pending, maxWaitMillis, TimeUnit.MILLISECONDS);
+        return pending.future;
+    }
+
+    /**
+     * @return amount of requests in progress
+     */
+    public int getOccupancy() {
+        synchronized (waiting) {
+            return occupied;
+        }
+    }
+
+    /**
+     * @return amount of requests waiting for free slot
+     */
+    public int getWaitingRequests() {
+        synchronized (waiting) {
+            return waitingCount;
+        }
+    }
+
+    private <T> RequestContext<T> newRequestContext() {
+        messageSpy.spyMessage(RpcContextImpl.class, MessageSpy.STATISTIC_GROUP.REQUEST_STACK_ACQUIRED);
         return new AbstractRequestContext<T>(deviceContext.getReservedXid()) {
             @Override
             public void close() {
-                tracker.release();
+                release();
                 LOG.trace("Removed request context with xid {}", getXid().getValue());
                 messageSpy.spyMessage(RpcContextImpl.class, MessageSpy.STATISTIC_GROUP.REQUEST_STACK_FREED);
             }
         };
     }
 
+    /**
+     * hand freed slot over to longest waiting request of highest priority
+     */
+    private void release() {
+        PendingAdmission<?> next = null;
+        synchronized (waiting) {
+            for (final Queue<PendingAdmission<?>> queue : waiting.values()) {
+                next = queue.poll();
+                if (next != null) {
+                    waitingCount--;
+                    break;
+                }
+            }
+            if (next == null) {
+                occupied--;
+            }
+        }
+        if (next != null) {
+            next.admit();
+        }
+    }
+
+    private void rejectWaiting() {
+        final List<PendingAdmission<?>> rejected = new ArrayList<>();
+        synchronized (waiting) {
+            closed = true;
+            for (final Queue<PendingAdmission<?>> queue : waiting.values()) {
+                rejected.addAll(queue);
+                queue.clear();
+            }
+            waitingCount = 0;
+        }
+        for (final PendingAdmission<?> pending : rejected) {
+            pending.reject();
+        }
+    }
+
     @Override
     public void onDeviceContextClosed(DeviceContext deviceContext) {
         for (RoutedRpcRegistration<?> registration : rpcRegistrations) {
             registration.close();
         }
+        rejectWaiting();
+    }
+
+    /**
+     * request waiting for free slot - expires when deadline passes
+     */
+    private final class PendingAdmission<T> implements TimerTask {
+        private final RequestPriority priority;
+        private final SettableFuture<RequestContext<T>> future = SettableFuture.create();
+        private volatile Timeout deadline;
+
+        PendingAdmission(final RequestPriority priority) {
+            this.priority = priority;
+        }
+
+        void admit() {
+            cancelDeadline();
+            future.set(RpcContextImpl.this.<T>newRequestContext());
+        }
+
+        void reject() {
+            cancelDeadline();
+            future.set(null);
+        }
+
+        private void cancelDeadline() {
+            final Timeout timeout = deadline;
+            if (timeout != null) {
+                timeout.cancel();
+            }
+        }
+
+        @Override
+        public void run(final Timeout timeout) {
+            final boolean expired;
+            synchronized (waiting) {
+                expired = waiting.get(priority).remove(this);
+                if (expired) {
+                    waitingCount--;
+                }
+            }
+            if (expired) {
+                LOG.trace("Request waiting for device queue {} expired", RpcContextImpl.this);
+                messageSpy.spyMessage(RpcContextImpl.class, MessageSpy.STATISTIC_GROUP.REQUEST_STACK_EXPIRED);
+                future.set(null);
+            }
+        }
     }
 }
@@ -7,23 +7,43 @@
  */
 package org.opendaylight.openflowplugin.impl.rpc;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import org.opendaylight.controller.sal.binding.api.RpcProviderRegistry;
 import org.opendaylight.openflowplugin.api.openflow.device.DeviceContext;
+import org.opendaylight.openflowplugin.api.openflow.device.handlers.DeviceContextClosedHandler;
 import org.opendaylight.openflowplugin.api.openflow.device.handlers.DeviceInitializationPhaseHandler;
-import org.opendaylight.openflowplugin.api.openflow.rpc.RpcContext;
 import org.opendaylight.openflowplugin.api.openflow.rpc.RpcManager;
 import org.opendaylight.openflowplugin.impl.util.MdSalRegistratorUtils;
 
-public class RpcManagerImpl implements RpcManager {
+public class RpcManagerImpl implements RpcManager, RpcManagerMXBean {
 
     private final RpcProviderRegistry rpcProviderRegistry;
     private DeviceInitializationPhaseHandler deviceInitPhaseHandler;
     private final int maxRequestsQuota;
+    private final int maxWaitingRequests;
+    private final long maxWaitMillis;
+    private final ConcurrentMap<DeviceContext, RpcContextImpl> rpcContexts = new ConcurrentHashMap<>();
 
     public RpcManagerImpl(final RpcProviderRegistry rpcProviderRegistry,
                           final int quotaValue) {
+        this(rpcProviderRegistry, quotaValue, 0, 0);
+    }
+
+    /**
+     * @param quotaValue max amount of requests per device in progress
+     * @param maxWaitingRequests max amount of requests per device waiting for free slot
+     * @param maxWaitMillis max time a request waits for free slot
+     */
+    public RpcManagerImpl(final RpcProviderRegistry rpcProviderRegistry,
+                          final int quotaValue, final int maxWaitingRequests, final long maxWaitMillis) {
         this.rpcProviderRegistry = rpcProviderRegistry;
         maxRequestsQuota = quotaValue;
+        this.maxWaitingRequests = maxWaitingRequests;
+        this.maxWaitMillis = maxWaitMillis;
     }
 
     @Override
@@ -33,10 +53,48 @@ public class RpcManagerImpl implements RpcManager {
 
     @Override
     public void onDeviceContextLevelUp(final DeviceContext deviceContext) {
-        final RpcContext rpcContext = new RpcContextImpl(deviceContext.getMessageSpy(), rpcProviderRegistry, deviceContext, maxRequestsQuota);
+        final RpcContextImpl rpcContext = new RpcContextImpl(deviceContext.getMessageSpy(), rpcProviderRegistry, deviceContext,
+                maxRequestsQuota, maxWaitingRequests, maxWaitMillis);
         deviceContext.addDeviceContextClosedHandler(rpcContext);
+        rpcContexts.put(deviceContext, rpcContext);
+        deviceContext.addDeviceContextClosedHandler(new DeviceContextClosedHandler() {
+            @Override
+            public void onDeviceContextClosed(final DeviceContext closedContext) {
+                rpcContexts.remove(closedContext);
+            }
+        });
         MdSalRegistratorUtils.registerServices(rpcContext, deviceContext);
         // finish device initialization cycle back to DeviceManager
         deviceInitPhaseHandler.onDeviceContextLevelUp(deviceContext);
     }
+
+    @Override
+    public int getOccupancy() {
+        int occupancy = 0;
+        for (final RpcContextImpl rpcContext : rpcContexts.values()) {
+            occupancy += rpcContext.getOccupancy();
+        }
+        return occupancy;
+    }
+
+    @Override
+    public int getWaitingRequests() {
+        int waitingRequests = 0;
+        for (final RpcContextImpl rpcContext : rpcContexts.values()) {
+            waitingRequests += rpcContext.getWaitingRequests();
+        }
+        return waitingRequests;
+    }
+
+    @Override
+    public List<String> provideRpcAdmissionReport() {
+        final List<String> report = new ArrayList<>(rpcContexts.size());
+        for (final Map.Entry<DeviceContext, RpcContextImpl> entry : rpcContexts.entrySet()) {
+            report.add(String.format("%s: occupancy=%d/%d, waiting=%d/%d",
+                    entry.getKey().getDeviceState().getNodeId().getValue(),
+                    entry.getValue().getOccupancy(), maxRequestsQuota,
+                    entry.getValue().getWaitingRequests(), maxWaitingRequests));
+        }
+        return report;
+    }
 }
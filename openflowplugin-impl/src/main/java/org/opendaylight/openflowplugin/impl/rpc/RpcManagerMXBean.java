@@ -0,0 +1,31 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.impl.rpc;
+
+import java.util.List;
+
+/**
+ * JMX view of rpc request admission of all connected devices
+ */
+public interface RpcManagerMXBean {
+
+    /**
+     * @return amount of rpc requests in progress over all devices
+     */
+    int getOccupancy();
+
+    /**
+     * @return amount of rpc requests waiting for free slot over all devices
+     */
+    int getWaitingRequests();
+
+    /**
+     * @return one line per device - requests in progress and waiting
+     */
+    List<String> provideRpcAdmissionReport();
+}
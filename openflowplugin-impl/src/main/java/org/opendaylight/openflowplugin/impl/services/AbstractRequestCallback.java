@@ -13,6 +13,7 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.opendaylight.openflowjava.protocol.api.connection.DeviceRequestFailedException;
 import org.opendaylight.openflowplugin.api.openflow.device.RequestContext;
+import org.opendaylight.openflowplugin.api.openflow.device.Xid;
 import org.opendaylight.openflowplugin.api.openflow.statistics.ofpspecific.EventIdentifier;
 import org.opendaylight.openflowplugin.api.openflow.statistics.ofpspecific.MessageSpy;
 import org.opendaylight.openflowplugin.api.openflow.statistics.ofpspecific.MessageSpy.STATISTIC_GROUP;
@@ -28,6 +29,8 @@ abstract class AbstractRequestCallback<T> implements FutureCallback<OfHeader> {
     private final Class<?> requestType;
     private final MessageSpy spy;
     private EventIdentifier eventIdentifier;
+    private long eventStartToken;
+    private boolean eventEnded;
 
 
     protected AbstractRequestCallback(final RequestContext<T> context, final Class<?> requestType, final MessageSpy spy) {
@@ -39,14 +42,17 @@ abstract class AbstractRequestCallback<T> implements FutureCallback<OfHeader> {
     protected AbstractRequestCallback(final RequestContext<T> context,
                                       final Class<?> requestType,
                                       final MessageSpy spy,
-                                      final EventIdentifier eventIdentifier) {
+                                      final EventIdentifier eventIdentifier,
+                                      final long eventStartToken) {
         this.context = Preconditions.checkNotNull(context);
         this.requestType = Preconditions.checkNotNull(requestType);
         this.spy = Preconditions.checkNotNull(spy);
         this.eventIdentifier = eventIdentifier;
+        this.eventStartToken = eventStartToken;
     }
 
     protected final void setResult(@Nullable final RpcResult<T> result) {
+        spyResponse();
         context.setResult(result);
         context.close();
     }
@@ -55,16 +61,35 @@ abstract class AbstractRequestCallback<T> implements FutureCallback<OfHeader> {
         spy.spyMessage(requestType, Preconditions.checkNotNull(group));
     }
 
+    /**
+     * stop latency measurement of this request - first call only counts
+     */
+    protected final void spyResponse() {
+        final Xid xid = context.getXid();
+        if (xid != null) {
+            spy.spyResponseReceived(xid.getValue());
+        }
+    }
+
     public EventIdentifier getEventIdentifier() {
         return eventIdentifier;
     }
 
+    /**
+     * end duration measurement of event started for this request - first call only counts
+     */
+    protected final void markEventEnd() {
+        if (eventIdentifier != null && !eventEnded) {
+            eventEnded = true;
+            EventsTimeCounter.markEnd(eventIdentifier, eventStartToken);
+        }
+    }
+
     @Override
     public final void onFailure(final Throwable t) {
         final RpcResultBuilder<T> builder;
-        if (null != eventIdentifier) {
-            EventsTimeCounter.markEnd(eventIdentifier);
-        }
+        spyResponse();
+        markEventEnd();
         if (t instanceof DeviceRequestFailedException) {
             final Error err = ((DeviceRequestFailedException) t).getError();
             final String errorString = String.format("Device reported error type %s code %s", err.getTypeString(), err.getCodeString());
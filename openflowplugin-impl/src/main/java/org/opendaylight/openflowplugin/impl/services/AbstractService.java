@@ -9,6 +9,7 @@ package org.opendaylight.openflowplugin.impl.services;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Verify;
+import com.google.common.util.concurrent.AsyncFunction;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -19,9 +20,11 @@ import org.opendaylight.openflowjava.protocol.api.connection.OutboundQueue;
 import org.opendaylight.openflowplugin.api.openflow.device.DeviceContext;
 import org.opendaylight.openflowplugin.api.openflow.device.RequestContext;
 import org.opendaylight.openflowplugin.api.openflow.device.RequestContextStack;
+import org.opendaylight.openflowplugin.api.openflow.device.RequestPriority;
 import org.opendaylight.openflowplugin.api.openflow.device.Xid;
 import org.opendaylight.openflowplugin.api.openflow.statistics.ofpspecific.EventIdentifier;
 import org.opendaylight.openflowplugin.api.openflow.statistics.ofpspecific.MessageSpy;
+import org.opendaylight.openflowplugin.impl.statistics.ofpspecific.EventsTimeCounter;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.protocol.rev130731.FeaturesReply;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.protocol.rev130731.OfHeader;
 import org.opendaylight.yangtools.yang.binding.DataContainer;
@@ -43,6 +46,8 @@ abstract class AbstractService<I, O> {
     private final ConnectionAdapter primaryConnectionAdapter;
     private final MessageSpy messageSpy;
     private EventIdentifier eventIdentifier;
+    private long eventStartToken;
+    private RequestPriority requestPriority = RequestPriority.APPLICATION;
 
     public AbstractService(final RequestContextStack requestContextStack, final DeviceContext deviceContext) {
         this.requestContextStack = requestContextStack;
@@ -62,6 +67,31 @@ abstract class AbstractService<I, O> {
         this.eventIdentifier = eventIdentifier;
     }
 
+    /**
+     * @return start token of {@link #getEventIdentifier()}, see {@link #markEventStart(EventIdentifier)}
+     */
+    public long getEventStartToken() {
+        return eventStartToken;
+    }
+
+    /**
+     * start measuring duration of given event - callback of next request ends it
+     *
+     * @param eventIdentifier event
+     */
+    protected void markEventStart(final EventIdentifier eventIdentifier) {
+        this.eventStartToken = EventsTimeCounter.markStart(eventIdentifier);
+        this.eventIdentifier = eventIdentifier;
+    }
+
+    public RequestPriority getRequestPriority() {
+        return requestPriority;
+    }
+
+    public void setRequestPriority(final RequestPriority requestPriority) {
+        this.requestPriority = Preconditions.checkNotNull(requestPriority);
+    }
+
     public short getVersion() {
         return version;
     }
@@ -98,7 +128,22 @@ abstract class AbstractService<I, O> {
         getMessageSpy().spyMessage(requestType, MessageSpy.STATISTIC_GROUP.TO_SWITCH_ENTERED);
 
         LOG.trace("Handling general service call");
-        final RequestContext<O> requestContext = requestContextStack.createRequestContext();
+        final ListenableFuture<RequestContext<O>> admission = requestContextStack.admitRequestContext(requestPriority);
+        if (admission.isDone()) {
+            return submitRequest(Futures.getUnchecked(admission), input, requestType);
+        }
+
+        // device at capacity - request continues once a slot is freed (or gets refused after deadline)
+        return Futures.transform(admission, new AsyncFunction<RequestContext<O>, RpcResult<O>>() {
+            @Override
+            public ListenableFuture<RpcResult<O>> apply(final RequestContext<O> requestContext) {
+                return submitRequest(requestContext, input, requestType);
+            }
+        });
+    }
+
+    private ListenableFuture<RpcResult<O>> submitRequest(final RequestContext<O> requestContext, final I input,
+                                                         final Class<?> requestType) {
         if (requestContext == null) {
             LOG.trace("Request context refused.");
             deviceContext.getMessageSpy().spyMessage(AbstractService.class, MessageSpy.STATISTIC_GROUP.TO_SWITCH_DISREGARDED);
@@ -121,6 +166,9 @@ abstract class AbstractService<I, O> {
             LOG.error("Failed to build request for {}, forfeiting request {}", input, xid.getValue(), e);
             // FIXME: complete the requestContext
         } finally {
+            if (request != null) {
+                messageSpy.spyRequestSent(requestType, xid.getValue());
+            }
             final OutboundQueue outboundQueue = getDeviceContext().getPrimaryConnectionContext().getOutboundQueueProvider();
             outboundQueue.commitEntry(xid.getValue(), request, createCallback(requestContext, requestType));
         }
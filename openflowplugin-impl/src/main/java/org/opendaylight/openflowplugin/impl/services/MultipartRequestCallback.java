@@ -31,16 +31,19 @@ final class MultipartRequestCallback extends AbstractRequestCallback<List<Multip
     public MultipartRequestCallback(final RequestContext<List<MultipartReply>> context,
                                     final Class<?> requestType,
                                     final DeviceContext deviceContext,
-                                    final EventIdentifier eventIdentifier) {
-        super(context, requestType, deviceContext.getMessageSpy(), eventIdentifier);
+                                    final EventIdentifier eventIdentifier,
+                                    final long eventStartToken) {
+        super(context, requestType, deviceContext.getMessageSpy(), eventIdentifier, eventStartToken);
         collector = deviceContext.getMultiMsgCollector(context);
     }
 
     @Override
     public void onSuccess(final OfHeader result) {
+        spyResponse();
         if (result == null) {
             LOG.info("Ofheader was null.");
-            collector.endCollecting(getEventIdentifier());
+            markEventEnd();
+            collector.endCollecting();
             return;
         }
 
@@ -49,9 +52,14 @@ final class MultipartRequestCallback extends AbstractRequestCallback<List<Multip
             final RpcResultBuilder<List<MultipartReply>> rpcResultBuilder =
                     RpcResultBuilder.<List<MultipartReply>>failed().withError(RpcError.ErrorType.APPLICATION,
                             String.format("Unexpected response type received %s.", result.getClass()));
+            markEventEnd();
             setResult(rpcResultBuilder.build());
         } else {
-            collector.addMultipartMsg((MultipartReply) result, getEventIdentifier());
+            final MultipartReply multipartReply = (MultipartReply) result;
+            if (!multipartReply.getFlags().isOFPMPFREQMORE()) {
+                markEventEnd();
+            }
+            collector.addMultipartMsg(multipartReply);
         }
     }
 
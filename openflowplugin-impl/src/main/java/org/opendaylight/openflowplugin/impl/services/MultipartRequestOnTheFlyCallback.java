@@ -7,52 +7,50 @@
  */
 package org.opendaylight.openflowplugin.impl.services;
 
-import com.google.common.collect.Iterables;
 import java.util.Collections;
 import java.util.List;
 import org.opendaylight.openflowplugin.api.openflow.device.DeviceContext;
 import org.opendaylight.openflowplugin.api.openflow.device.RequestContext;
 import org.opendaylight.openflowplugin.api.openflow.statistics.ofpspecific.EventIdentifier;
 import org.opendaylight.openflowplugin.api.openflow.statistics.ofpspecific.MessageSpy;
+import org.opendaylight.openflowplugin.impl.statistics.OnTheFlyStatisticsWriter;
 import org.opendaylight.openflowplugin.impl.statistics.SinglePurposeMultipartReplyTranslator;
-import org.opendaylight.openflowplugin.impl.statistics.StatisticsGatheringUtils;
-import org.opendaylight.openflowplugin.impl.statistics.ofpspecific.EventsTimeCounter;
-import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.statistics.rev130819.FlowsStatisticsUpdate;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.common.types.rev130731.MultipartType;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.protocol.rev130731.MultipartReply;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.protocol.rev130731.OfHeader;
-import org.opendaylight.yangtools.yang.binding.DataObject;
 import org.opendaylight.yangtools.yang.common.RpcError;
 import org.opendaylight.yangtools.yang.common.RpcResult;
 import org.opendaylight.yangtools.yang.common.RpcResultBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Processes multipart reply parts as they arrive - see {@link OnTheFlyStatisticsWriter}.
+ */
 final class MultipartRequestOnTheFlyCallback extends AbstractRequestCallback<List<MultipartReply>> {
     private static final Logger LOG = LoggerFactory.getLogger(MultipartRequestOnTheFlyCallback.class);
     private final DeviceContext deviceContext;
     private static final SinglePurposeMultipartReplyTranslator MULTIPART_REPLY_TRANSLATOR = new SinglePurposeMultipartReplyTranslator();
+    private final OnTheFlyStatisticsWriter statisticsWriter;
     private boolean virgin = true;
     private boolean finished = false;
-    private final EventIdentifier doneEventIdentifier;
+    private MultipartType multipartType;
 
 
     public MultipartRequestOnTheFlyCallback(final RequestContext<List<MultipartReply>> context,
                                             final Class<?> requestType,
                                             final DeviceContext deviceContext,
-                                            final EventIdentifier eventIdentifier) {
-        super(context, requestType, deviceContext.getMessageSpy(), eventIdentifier);
+                                            final EventIdentifier eventIdentifier,
+                                            final long eventStartToken,
+                                            final OnTheFlyStatisticsWriter statisticsWriter) {
+        super(context, requestType, deviceContext.getMessageSpy(), eventIdentifier, eventStartToken);
         this.deviceContext = deviceContext;
-        //TODO: this is focused on flow stats only - need more general approach if used for more than flow stats
-        doneEventIdentifier = new EventIdentifier(MultipartType.OFPMPFLOW.name(), deviceContext.getPrimaryConnectionContext().getNodeId().toString());
-    }
-
-    public EventIdentifier getDoneEventIdentifier() {
-        return doneEventIdentifier;
+        this.statisticsWriter = statisticsWriter;
     }
 
     @Override
     public void onSuccess(final OfHeader result) {
+        spyResponse();
         if (result == null) {
             LOG.info("Ofheader was null.");
             if (!finished) {
@@ -72,30 +70,24 @@ final class MultipartRequestOnTheFlyCallback extends AbstractRequestCallback<Lis
             setResult(rpcResultBuilder.build());
             endCollecting();
         } else {
-            MultipartReply multipartReply = (MultipartReply) result;
-
-            Iterable<? extends DataObject> allMultipartData = Collections.emptyList();
-            final MultipartReply singleReply = multipartReply;
-            final List<? extends DataObject> multipartDataList = MULTIPART_REPLY_TRANSLATOR.translate(deviceContext, singleReply);
-            allMultipartData = Iterables.concat(allMultipartData, multipartDataList);
-
-            //TODO: following part is focused on flow stats only - need more general approach if used for more than flow stats
+            final MultipartReply multipartReply = (MultipartReply) result;
             if (virgin) {
-                StatisticsGatheringUtils.deleteAllKnownFlows(deviceContext);
+                multipartType = multipartReply.getType();
+                statisticsWriter.startCycle(multipartType);
                 virgin = false;
             }
-            StatisticsGatheringUtils.writeFlowStatistics((Iterable<FlowsStatisticsUpdate>) allMultipartData, deviceContext);
-            // ^^^^
+
+            statisticsWriter.write(multipartType, MULTIPART_REPLY_TRANSLATOR.translate(deviceContext, multipartReply));
 
             if (!multipartReply.getFlags().isOFPMPFREQMORE()) {
+                statisticsWriter.finishCycle(multipartType);
                 endCollecting();
             }
         }
     }
 
     private void endCollecting() {
-        EventsTimeCounter.markEnd(getDoneEventIdentifier());
-        EventsTimeCounter.markEnd(getEventIdentifier());
+        markEventEnd();
         final RpcResult<List<MultipartReply>> rpcResult = RpcResultBuilder.success(Collections.<MultipartReply>emptyList()).build();
         spyMessage(MessageSpy.STATISTIC_GROUP.FROM_SWITCH_TRANSLATE_OUT_SUCCESS);
         setResult(rpcResult);
@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.impl.services;
+
+import java.util.List;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.common.action.rev150203.actions.grouping.Action;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.common.types.rev130731.PortNumber;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.protocol.rev130731.PacketOutInput;
+import org.opendaylight.yangtools.yang.binding.Augmentation;
+import org.opendaylight.yangtools.yang.binding.DataContainer;
+
+/**
+ * Packet-out handed over to outbound queue. Unlike generated {@link PacketOutInput} implementation
+ * it does not copy the payload on every {@link #getData()}, so the array read from RPC input is
+ * the one written to the wire.
+ */
+final class PacketOutMessage implements PacketOutInput {
+    private final Short version;
+    private final Long xid;
+    private final Long bufferId;
+    private final PortNumber inPort;
+    private final List<Action> action;
+    private final byte[] data;
+
+    PacketOutMessage(final short version, final Long xid, final Long bufferId, final PortNumber inPort,
+                     final List<Action> action, final byte[] data) {
+        this.version = version;
+        this.xid = xid;
+        this.bufferId = bufferId;
+        this.inPort = inPort;
+        this.action = action;
+        this.data = data;
+    }
+
+    @Override
+    public Short getVersion() {
+        return version;
+    }
+
+    @Override
+    public Long getXid() {
+        return xid;
+    }
+
+    @Override
+    public Long getBufferId() {
+        return bufferId;
+    }
+
+    @Override
+    public PortNumber getInPort() {
+        return inPort;
+    }
+
+    @Override
+    public List<Action> getAction() {
+        return action;
+    }
+
+    @Override
+    public byte[] getData() {
+        return data;
+    }
+
+    @Override
+    public Class<? extends DataContainer> getImplementedInterface() {
+        return PacketOutInput.class;
+    }
+
+    @Override
+    public <E extends Augmentation<PacketOutInput>> E getAugmentation(final Class<E> augmentationType) {
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "PacketOutMessage [version=" + version + ", xid=" + xid + ", bufferId=" + bufferId
+                + ", inPort=" + inPort + ", action=" + action + ", dataLength="
+                + (data == null ? 0 : data.length) + "]";
+    }
+}
@@ -7,17 +7,51 @@
  */
 package org.opendaylight.openflowplugin.impl.services;
 
+import com.google.common.util.concurrent.AsyncFunction;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.opendaylight.openflowjava.protocol.api.connection.OutboundQueue;
 import org.opendaylight.openflowplugin.api.openflow.device.DeviceContext;
+import org.opendaylight.openflowplugin.api.openflow.device.RequestContext;
 import org.opendaylight.openflowplugin.api.openflow.device.RequestContextStack;
 import org.opendaylight.openflowplugin.api.openflow.device.Xid;
+import org.opendaylight.openflowplugin.api.openflow.statistics.ofpspecific.MessageSpy;
 import org.opendaylight.openflowplugin.openflow.md.core.sal.convertor.PacketOutConvertor;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeConnectorRef;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.common.action.rev150203.actions.grouping.Action;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.common.types.rev130731.PortNumber;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.protocol.rev130731.OfHeader;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.protocol.rev130731.PacketOutInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.packet.service.rev130709.PacketOut;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.packet.service.rev130709.PacketProcessingService;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.packet.service.rev130709.TransmitPacketInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.packet.service.rev130709.TransmitPacketsInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.packet.service.rev130709.transmit.packets.input.Packet;
+import org.opendaylight.yangtools.yang.common.RpcError;
 import org.opendaylight.yangtools.yang.common.RpcResult;
+import org.opendaylight.yangtools.yang.common.RpcResultBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+/**
+ * Packet-out service of one device. Output actions and ingress port are converted once per
+ * egress/ingress node connector and reused for all packets sent there. Payload is handed over
+ * to outbound queue without copying, see {@link PacketOutMessage}.
+ */
 public final class PacketProcessingServiceImpl extends AbstractVoidService<TransmitPacketInput> implements PacketProcessingService {
+    private static final Logger LOG = LoggerFactory.getLogger(PacketProcessingServiceImpl.class);
+    /** bound of cached templates, node connectors of one device should never reach it */
+    private static final int MAX_TEMPLATES = 1024;
+
+    private final ConcurrentMap<NodeConnectorRef, List<Action>> actionTemplates = new ConcurrentHashMap<>();
+    private final ConcurrentMap<NodeConnectorRef, PortNumber> ingressPorts = new ConcurrentHashMap<>();
 
     public PacketProcessingServiceImpl(final RequestContextStack requestContextStack, final DeviceContext deviceContext) {
         super(requestContextStack, deviceContext);
@@ -28,8 +62,159 @@ public final class PacketProcessingServiceImpl extends AbstractVoidService<Trans
         return handleServiceCall(input);
     }
 
+    /**
+     * Sends all packets within one request context - packets are committed to outbound queue
+     * in a row, the first one under the xid of request context, the others under xids reserved
+     * on the way. Result fails if any of the packets failed.
+     */
+    @Override
+    public Future<RpcResult<Void>> transmitPackets(final TransmitPacketsInput input) {
+        final List<Packet> packets = input.getPacket();
+        if (packets == null || packets.isEmpty()) {
+            return Futures.immediateFuture(RpcResultBuilder.<Void>success().build());
+        }
+        for (int i = 0; i < packets.size(); i++) {
+            getMessageSpy().spyMessage(TransmitPacketsInput.class, MessageSpy.STATISTIC_GROUP.TO_SWITCH_ENTERED);
+        }
+
+        final ListenableFuture<RequestContext<Void>> admission =
+                getRequestContextStack().admitRequestContext(getRequestPriority());
+        if (admission.isDone()) {
+            return submitBulk(Futures.getUnchecked(admission), packets);
+        }
+        return Futures.transform(admission, new AsyncFunction<RequestContext<Void>, RpcResult<Void>>() {
+            @Override
+            public ListenableFuture<RpcResult<Void>> apply(final RequestContext<Void> requestContext) {
+                return submitBulk(requestContext, packets);
+            }
+        });
+    }
+
     @Override
     protected OfHeader buildRequest(final Xid xid, final TransmitPacketInput input) {
-        return PacketOutConvertor.toPacketOutInput(input, getVersion(), xid.getValue(), getDatapathId());
+        return buildPacketOut(xid.getValue(), input);
+    }
+
+    private PacketOutInput buildPacketOut(final Long xid, final PacketOut input) {
+        return new PacketOutMessage(getVersion(), xid, PacketOutConvertor.toBufferId(input.getBufferId()),
+                getIngressPort(input.getIngress()), getOutputActions(input.getEgress()), input.getPayload());
+    }
+
+    private List<Action> getOutputActions(final NodeConnectorRef egress) {
+        List<Action> actions = actionTemplates.get(egress);
+        if (actions == null) {
+            actions = PacketOutConvertor.toOutputActions(egress, getVersion());
+            if (actionTemplates.size() < MAX_TEMPLATES) {
+                actionTemplates.putIfAbsent(egress, actions);
+            }
+        }
+        return actions;
+    }
+
+    private PortNumber getIngressPort(final NodeConnectorRef ingress) {
+        if (ingress == null) {
+            return PacketOutConvertor.toIngressPort(null, getVersion());
+        }
+        PortNumber port = ingressPorts.get(ingress);
+        if (port == null) {
+            port = PacketOutConvertor.toIngressPort(ingress, getVersion());
+            if (ingressPorts.size() < MAX_TEMPLATES) {
+                ingressPorts.putIfAbsent(ingress, port);
+            }
+        }
+        return port;
+    }
+
+    private ListenableFuture<RpcResult<Void>> submitBulk(final RequestContext<Void> requestContext,
+                                                         final List<Packet> packets) {
+        if (requestContext == null) {
+            LOG.trace("Request context refused.");
+            getMessageSpy().spyMessage(AbstractService.class, MessageSpy.STATISTIC_GROUP.TO_SWITCH_DISREGARDED);
+            return failedFuture();
+        }
+        if (requestContext.getXid() == null) {
+            getMessageSpy().spyMessage(requestContext.getClass(), MessageSpy.STATISTIC_GROUP.TO_SWITCH_RESERVATION_REJECTED);
+            return RequestContextUtil.closeRequestContextWithRpcError(requestContext, "Outbound queue wasn't able to reserve XID.");
+        }
+
+        final BulkCallback callback = new BulkCallback(requestContext, packets.size());
+        final OutboundQueue outboundQueue = getDeviceContext().getPrimaryConnectionContext().getOutboundQueueProvider();
+        for (int i = 0; i < packets.size(); i++) {
+            final Long xid = i == 0 ? requestContext.getXid().getValue() : getDeviceContext().getReservedXid();
+            if (xid == null) {
+                getMessageSpy().spyMessage(requestContext.getClass(), MessageSpy.STATISTIC_GROUP.TO_SWITCH_RESERVATION_REJECTED);
+                callback.onFailure(new IllegalStateException("Outbound queue wasn't able to reserve XID."));
+                continue;
+            }
+
+            PacketOutInput request = null;
+            try {
+                request = buildPacketOut(xid, packets.get(i));
+            } catch (Exception e) {
+                LOG.error("Failed to build request for {}, forfeiting request {}", packets.get(i), xid, e);
+            } finally {
+                if (request != null) {
+                    getMessageSpy().spyMessage(TransmitPacketsInput.class, MessageSpy.STATISTIC_GROUP.TO_SWITCH_READY_FOR_SUBMIT);
+                    if (i == 0) {
+                        // latency of the bulk is measured under xid of request context
+                        getMessageSpy().spyRequestSent(TransmitPacketsInput.class, xid);
+                    }
+                } else {
+                    callback.onFailure(new IllegalArgumentException("Failed to build packet-out request"));
+                }
+                // reserved entry has to be committed even if there is nothing to send
+                outboundQueue.commitEntry(xid, request, request == null ? null : callback);
+            }
+        }
+        return requestContext.getFuture();
+    }
+
+    /**
+     * Completes bulk request context once all of the packets are done.
+     */
+    private final class BulkCallback implements FutureCallback<OfHeader> {
+        private final RequestContext<Void> context;
+        private final AtomicInteger remaining;
+        private final List<Throwable> failures = new ArrayList<>();
+
+        BulkCallback(final RequestContext<Void> context, final int packets) {
+            this.context = context;
+            this.remaining = new AtomicInteger(packets);
+        }
+
+        @Override
+        public void onSuccess(final OfHeader result) {
+            getMessageSpy().spyMessage(TransmitPacketsInput.class, MessageSpy.STATISTIC_GROUP.TO_SWITCH_SUBMIT_SUCCESS_NO_RESPONSE);
+            packetDone();
+        }
+
+        @Override
+        public void onFailure(final Throwable t) {
+            getMessageSpy().spyMessage(TransmitPacketsInput.class, MessageSpy.STATISTIC_GROUP.TO_SWITCH_SUBMIT_FAILURE);
+            synchronized (failures) {
+                failures.add(t);
+            }
+            packetDone();
+        }
+
+        private void packetDone() {
+            if (remaining.decrementAndGet() != 0) {
+                return;
+            }
+            final RpcResultBuilder<Void> builder;
+            synchronized (failures) {
+                if (failures.isEmpty()) {
+                    builder = RpcResultBuilder.<Void>success();
+                } else {
+                    builder = RpcResultBuilder.<Void>failed();
+                    for (final Throwable failure : failures) {
+                        builder.withError(RpcError.ErrorType.APPLICATION, failure.getMessage(), failure);
+                    }
+                }
+            }
+            getMessageSpy().spyResponseReceived(context.getXid().getValue());
+            context.setResult(builder.build());
+            RequestContextUtil.closeRequstContext(context);
+        }
     }
 }
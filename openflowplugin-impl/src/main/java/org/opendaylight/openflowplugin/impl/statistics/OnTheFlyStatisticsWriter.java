@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.openflowplugin.impl.statistics;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.openflowplugin.api.openflow.device.DeviceContext;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNode;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.meters.Meter;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.meters.MeterKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.statistics.rev130819.FlowsStatisticsUpdate;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.statistics.rev130819.flow.and.statistics.map.list.FlowAndStatisticsMapList;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.table.statistics.rev131215.FlowTableStatisticsUpdate;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.statistics.rev131111.GroupDescStatsUpdated;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.statistics.rev131111.GroupStatisticsUpdated;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.types.rev131018.group.desc.stats.reply.GroupDescStats;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.types.rev131018.groups.Group;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.types.rev131018.groups.GroupKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.meter.statistics.rev131111.MeterConfigStatsUpdated;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.meter.statistics.rev131111.MeterStatisticsUpdated;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.meter.types.rev130918.meter.config.stats.reply.MeterConfigStats;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.common.types.rev130731.MultipartType;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.port.statistics.rev131214.NodeConnectorStatisticsUpdate;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.queue.statistics.rev131216.QueueStatisticsUpdate;
+import org.opendaylight.yangtools.yang.binding.DataObject;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes multipart statistics of one device into operational datastore as the reply parts arrive.
+ * <p>
+ * Flows, groups and meters are kept consistent by mark and sweep: every item reported by device in
+ * current collecting cycle is written (and marked as seen), items written in previous cycle and not
+ * reported again get removed once the last reply part arrived. Readers thus never see empty table
+ * and no datastore read is needed. Cycle which did not finish (failure, missing reply) sweeps nothing.
+ */
+public final class OnTheFlyStatisticsWriter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(OnTheFlyStatisticsWriter.class);
+
+    private final DeviceContext deviceContext;
+    private final Map<MultipartType, SweepState> sweepStates = new EnumMap<>(MultipartType.class);
+
+    public OnTheFlyStatisticsWriter(final DeviceContext deviceContext) {
+        this.deviceContext = deviceContext;
+    }
+
+    /**
+     * first reply part of collecting cycle arrived
+     *
+     * @param type multipart type
+     */
+    public synchronized void startCycle(final MultipartType type) {
+        getSweepState(type).start();
+    }
+
+    /**
+     * write translated reply part into current transaction
+     *
+     * @param type          multipart type
+     * @param multipartData translated reply part
+     */
+    public synchronized void write(final MultipartType type, final List<? extends DataObject> multipartData) {
+        final SweepState sweepState = getSweepState(type);
+        final InstanceIdentifier<FlowCapableNode> fNodeIdent =
+                StatisticsGatheringUtils.assembleFlowCapableNodeInstanceIdentifier(deviceContext);
+
+        for (final DataObject data : multipartData) {
+            if (data instanceof FlowsStatisticsUpdate) {
+                for (final FlowAndStatisticsMapList flowStat : ((FlowsStatisticsUpdate) data).getFlowAndStatisticsMapList()) {
+                    sweepState.seen(StatisticsGatheringUtils.writeFlow(flowStat, fNodeIdent, deviceContext));
+                }
+            } else if (data instanceof GroupDescStatsUpdated) {
+                for (final GroupDescStats groupDescStats : ((GroupDescStatsUpdated) data).getGroupDescStats()) {
+                    sweepState.seen(StatisticsGatheringUtils.writeGroup(groupDescStats, fNodeIdent, deviceContext));
+                }
+            } else if (data instanceof MeterConfigStatsUpdated) {
+                for (final MeterConfigStats meterConfigStats : ((MeterConfigStatsUpdated) data).getMeterConfigStats()) {
+                    sweepState.seen(StatisticsGatheringUtils.writeMeter(meterConfigStats, fNodeIdent, deviceContext));
+                }
+            } else if (data instanceof GroupStatisticsUpdated) {
+                StatisticsGatheringUtils.writeGroupStatistics(Collections.singletonList((GroupStatisticsUpdated) data), deviceContext);
+            } else if (data instanceof MeterStatisticsUpdated) {
+                StatisticsGatheringUtils.writeMetersStatistics(Collections.singletonList((MeterStatisticsUpdated) data), deviceContext);
+            } else if (data instanceof NodeConnectorStatisticsUpdate) {
+                StatisticsGatheringUtils.writeNodeConnectorStatistics(
+                        Collections.singletonList((NodeConnectorStatisticsUpdate) data), deviceContext);
+            } else if (data instanceof QueueStatisticsUpdate) {
+                StatisticsGatheringUtils.writeQueueStatistics(Collections.singletonList((QueueStatisticsUpdate) data), deviceContext);
+            } else if (data instanceof FlowTableStatisticsUpdate) {
+                StatisticsGatheringUtils.writeFlowTableStatistics(
+                        Collections.singletonList((FlowTableStatisticsUpdate) data), deviceContext);
+            } else {
+                LOG.debug("Unsupported multipart data of type {} received on the fly.", data.getImplementedInterface());
+            }
+        }
+    }
+
+    /**
+     * last reply part of collecting cycle arrived - remove items not reported in this cycle
+     *
+     * @param type multipart type
+     */
+    public synchronized void finishCycle(final MultipartType type) {
+        final Set<InstanceIdentifier<?>> unseen = getSweepState(type).sweep();
+        if (unseen.isEmpty()) {
+            return;
+        }
+        LOG.trace("Sweeping {} items of type {} not reported by device anymore.", unseen.size(), type);
+        boolean groupsSwept = false;
+        boolean metersSwept = false;
+        for (final InstanceIdentifier<?> item : unseen) {
+            deviceContext.addDeleteToTxChain(LogicalDatastoreType.OPERATIONAL, item);
+            if (Group.class.equals(item.getTargetType())) {
+                deviceContext.getDeviceGroupRegistry().markToBeremoved(item.firstKeyOf(Group.class, GroupKey.class).getGroupId());
+                groupsSwept = true;
+            } else if (Meter.class.equals(item.getTargetType())) {
+                deviceContext.getDeviceMeterRegistry().markToBeremoved(item.firstKeyOf(Meter.class, MeterKey.class).getMeterId());
+                metersSwept = true;
+            }
+        }
+        if (groupsSwept) {
+            deviceContext.getDeviceGroupRegistry().removeMarked();
+        }
+        if (metersSwept) {
+            deviceContext.getDeviceMeterRegistry().removeMarked();
+        }
+    }
+
+    private SweepState getSweepState(final MultipartType type) {
+        SweepState sweepState = sweepStates.get(type);
+        if (sweepState == null) {
+            sweepState = new SweepState();
+            sweepStates.put(type, sweepState);
+        }
+        return sweepState;
+    }
+
+    /**
+     * items written in previous and in current cycle of one multipart type
+     */
+    private static final class SweepState {
+        private Set<InstanceIdentifier<?>> previous = new HashSet<>();
+        private Set<InstanceIdentifier<?>> current = new HashSet<>();
+        private boolean inProgress;
+
+        void start() {
+            if (inProgress) {
+                // previous cycle did not finish - its items are still candidates for sweep
+                previous.addAll(current);
+            }
+            current = new HashSet<>();
+            inProgress = true;
+        }
+
+        void seen(final InstanceIdentifier<?> item) {
+            current.add(item);
+        }
+
+        Set<InstanceIdentifier<?>> sweep() {
+            final Set<InstanceIdentifier<?>> unseen = previous;
+            unseen.removeAll(current);
+            previous = current;
+            current = new HashSet<>();
+            inProgress = false;
+            return unseen;
+        }
+    }
+}
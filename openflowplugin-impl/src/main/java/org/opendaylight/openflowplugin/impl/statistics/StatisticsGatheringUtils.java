@@ -15,6 +15,7 @@ import com.google.common.util.concurrent.CheckedFuture;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.JdkFutureAdapters;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
@@ -112,21 +113,25 @@ public final class StatisticsGatheringUtils {
                                                              final MultipartType type) {
         //FIXME : anytype listener must not be send as parameter, it has to be extracted from device context inside service
         final String deviceId = deviceContext.getPrimaryConnectionContext().getNodeId().toString();
-        EventIdentifier wholeProcessEventIdentifier = null;
-        if (MultipartType.OFPMPFLOW.equals(type)) {
-            wholeProcessEventIdentifier = new EventIdentifier(type.toString(), deviceId);
-            EventsTimeCounter.markStart(wholeProcessEventIdentifier);
-        }
+        final EventIdentifier wholeProcessEventIdentifier = new EventIdentifier(type.toString(), deviceId);
+        final long wholeProcessStartToken = EventsTimeCounter.markStart(wholeProcessEventIdentifier);
         EventIdentifier ofpQueuToRequestContextEventIdentifier = new EventIdentifier(QUEUE2_REQCTX + type.toString(), deviceId);
         final ListenableFuture<RpcResult<List<MultipartReply>>> statisticsDataInFuture =
                 JdkFutureAdapters.listenInPoolThread(statisticsGatheringService.getStatisticsOfType(
                         ofpQueuToRequestContextEventIdentifier, type));
-        return transformAndStoreStatisticsData(statisticsDataInFuture, deviceContext, wholeProcessEventIdentifier);
+        final ListenableFuture<Boolean> result = transformAndStoreStatisticsData(statisticsDataInFuture, deviceContext);
+        // whole process ends with processed data, failed rpc result and failed request alike
+        result.addListener(new Runnable() {
+            @Override
+            public void run() {
+                EventsTimeCounter.markEnd(wholeProcessEventIdentifier, wholeProcessStartToken);
+            }
+        }, MoreExecutors.sameThreadExecutor());
+        return result;
     }
 
     private static ListenableFuture<Boolean> transformAndStoreStatisticsData(final ListenableFuture<RpcResult<List<MultipartReply>>> statisticsDataInFuture,
-                                                                             final DeviceContext deviceContext,
-                                                                             final EventIdentifier eventIdentifier) {
+                                                                             final DeviceContext deviceContext) {
         return Futures.transform(statisticsDataInFuture, new Function<RpcResult<List<MultipartReply>>, Boolean>() {
             @Nullable
             @Override
@@ -134,9 +139,8 @@ public final class StatisticsGatheringUtils {
                 if (rpcResult.isSuccessful()) {
                     boolean isMultipartProcessed = Boolean.TRUE;
 
-                    // TODO: in case the result value is null then multipart data probably got processed on the fly -
-                    // TODO: this contract should by clearly stated and enforced - now simple true value is returned
-                    if (null != rpcResult.getResult()) {
+                    // empty (or null) result means that multipart data got processed on the fly
+                    if (null != rpcResult.getResult() && !rpcResult.getResult().isEmpty()) {
                         Iterable<? extends DataObject> allMultipartData = Collections.emptyList();
                         DataObject multipartData = null;
                         for (final MultipartReply singleReply : rpcResult.getResult()) {
@@ -157,7 +161,6 @@ public final class StatisticsGatheringUtils {
                             processQueueStatistics((Iterable<QueueStatisticsUpdate>) allMultipartData, deviceContext);
                         } else if (multipartData instanceof FlowsStatisticsUpdate) {
                             processFlowStatistics((Iterable<FlowsStatisticsUpdate>) allMultipartData, deviceContext);
-                            EventsTimeCounter.markEnd(eventIdentifier);
                         } else if (multipartData instanceof GroupDescStatsUpdated) {
                             processGroupDescStats((Iterable<GroupDescStatsUpdated>) allMultipartData, deviceContext);
                         } else if (multipartData instanceof MeterConfigStatsUpdated) {
@@ -180,19 +183,26 @@ public final class StatisticsGatheringUtils {
         deleteAllKnownMeters(deviceContext, fNodeIdent);
         for (final MeterConfigStatsUpdated meterConfigStatsUpdated : data) {
             for (final MeterConfigStats meterConfigStats : meterConfigStatsUpdated.getMeterConfigStats()) {
-                final MeterId meterId = meterConfigStats.getMeterId();
-                final InstanceIdentifier<Meter> meterInstanceIdentifier = fNodeIdent.child(Meter.class, new MeterKey(meterId));
-
-                final MeterBuilder meterBuilder = new MeterBuilder(meterConfigStats);
-                meterBuilder.setKey(new MeterKey(meterId));
-                meterBuilder.addAugmentation(NodeMeterStatistics.class, new NodeMeterStatisticsBuilder().build());
-                deviceContext.getDeviceMeterRegistry().store(meterId);
-                deviceContext.writeToTransaction(LogicalDatastoreType.OPERATIONAL, meterInstanceIdentifier, meterBuilder.build());
+                writeMeter(meterConfigStats, fNodeIdent, deviceContext);
             }
         }
         deviceContext.submitTransaction();
     }
 
+    static InstanceIdentifier<Meter> writeMeter(final MeterConfigStats meterConfigStats,
+                                                final InstanceIdentifier<FlowCapableNode> fNodeIdent,
+                                                final DeviceContext deviceContext) {
+        final MeterId meterId = meterConfigStats.getMeterId();
+        final InstanceIdentifier<Meter> meterInstanceIdentifier = fNodeIdent.child(Meter.class, new MeterKey(meterId));
+
+        final MeterBuilder meterBuilder = new MeterBuilder(meterConfigStats);
+        meterBuilder.setKey(new MeterKey(meterId));
+        meterBuilder.addAugmentation(NodeMeterStatistics.class, new NodeMeterStatisticsBuilder().build());
+        deviceContext.getDeviceMeterRegistry().store(meterId);
+        deviceContext.writeToTransaction(LogicalDatastoreType.OPERATIONAL, meterInstanceIdentifier, meterBuilder.build());
+        return meterInstanceIdentifier;
+    }
+
     private static void processFlowStatistics(final Iterable<FlowsStatisticsUpdate> data, final DeviceContext deviceContext) {
         deleteAllKnownFlows(deviceContext);
         writeFlowStatistics(data, deviceContext);
@@ -203,20 +213,27 @@ public final class StatisticsGatheringUtils {
         final InstanceIdentifier<FlowCapableNode> fNodeIdent = assembleFlowCapableNodeInstanceIdentifier(deviceContext);
         for (final FlowsStatisticsUpdate flowsStatistics : data) {
             for (final FlowAndStatisticsMapList flowStat : flowsStatistics.getFlowAndStatisticsMapList()) {
-                final FlowBuilder flowBuilder = new FlowBuilder(flowStat);
-                final short tableId = flowStat.getTableId();
-                final FlowRegistryKey flowRegistryKey = FlowRegistryKeyFactory.create(flowBuilder.build());
-                final FlowId flowId = deviceContext.getDeviceFlowRegistry().storeIfNecessary(flowRegistryKey, tableId);
-
-                final FlowKey flowKey = new FlowKey(flowId);
-                flowBuilder.setKey(flowKey);
-                final TableKey tableKey = new TableKey(tableId);
-                final InstanceIdentifier<Flow> flowIdent = fNodeIdent.child(Table.class, tableKey).child(Flow.class, flowKey);
-                deviceContext.writeToTransaction(LogicalDatastoreType.OPERATIONAL, flowIdent, flowBuilder.build());
+                writeFlow(flowStat, fNodeIdent, deviceContext);
             }
         }
     }
 
+    static InstanceIdentifier<Flow> writeFlow(final FlowAndStatisticsMapList flowStat,
+                                              final InstanceIdentifier<FlowCapableNode> fNodeIdent,
+                                              final DeviceContext deviceContext) {
+        final FlowBuilder flowBuilder = new FlowBuilder(flowStat);
+        final short tableId = flowStat.getTableId();
+        final FlowRegistryKey flowRegistryKey = FlowRegistryKeyFactory.create(flowBuilder.build());
+        final FlowId flowId = deviceContext.getDeviceFlowRegistry().storeIfNecessary(flowRegistryKey, tableId);
+
+        final FlowKey flowKey = new FlowKey(flowId);
+        flowBuilder.setKey(flowKey);
+        final TableKey tableKey = new TableKey(tableId);
+        final InstanceIdentifier<Flow> flowIdent = fNodeIdent.child(Table.class, tableKey).child(Flow.class, flowKey);
+        deviceContext.writeToTransaction(LogicalDatastoreType.OPERATIONAL, flowIdent, flowBuilder.build());
+        return flowIdent;
+    }
+
     public static void deleteAllKnownFlows(final DeviceContext deviceContext) {
         if (deviceContext.getDeviceState().deviceSynchronized()) {
             InstanceIdentifier<FlowCapableNode> flowCapableNodePath = assembleFlowCapableNodeInstanceIdentifier(deviceContext);
@@ -242,6 +259,11 @@ public final class StatisticsGatheringUtils {
     }
 
     private static void processQueueStatistics(final Iterable<QueueStatisticsUpdate> data, final DeviceContext deviceContext) {
+        writeQueueStatistics(data, deviceContext);
+        deviceContext.submitTransaction();
+    }
+
+    static void writeQueueStatistics(final Iterable<QueueStatisticsUpdate> data, final DeviceContext deviceContext) {
         final InstanceIdentifier<Node> nodeIdent = deviceContext.getDeviceState().getNodeInstanceIdentifier();
         for (final QueueStatisticsUpdate queueStatisticsUpdate : data) {
             for (final QueueIdAndStatisticsMap queueStat : queueStatisticsUpdate.getQueueIdAndStatisticsMap()) {
@@ -261,10 +283,14 @@ public final class StatisticsGatheringUtils {
                 }
             }
         }
-        deviceContext.submitTransaction();
     }
 
     private static void processFlowTableStatistics(final Iterable<FlowTableStatisticsUpdate> data, final DeviceContext deviceContext) {
+        writeFlowTableStatistics(data, deviceContext);
+        deviceContext.submitTransaction();
+    }
+
+    static void writeFlowTableStatistics(final Iterable<FlowTableStatisticsUpdate> data, final DeviceContext deviceContext) {
         final InstanceIdentifier<FlowCapableNode> fNodeIdent = assembleFlowCapableNodeInstanceIdentifier(deviceContext);
         for (final FlowTableStatisticsUpdate flowTableStatisticsUpdate : data) {
 
@@ -275,10 +301,14 @@ public final class StatisticsGatheringUtils {
                 deviceContext.writeToTransaction(LogicalDatastoreType.OPERATIONAL, tStatIdent, stats);
             }
         }
-        deviceContext.submitTransaction();
     }
 
     private static void processNodeConnectorStatistics(final Iterable<NodeConnectorStatisticsUpdate> data, final DeviceContext deviceContext) {
+        writeNodeConnectorStatistics(data, deviceContext);
+        deviceContext.submitTransaction();
+    }
+
+    static void writeNodeConnectorStatistics(final Iterable<NodeConnectorStatisticsUpdate> data, final DeviceContext deviceContext) {
         final InstanceIdentifier<Node> nodeIdent = deviceContext.getDeviceState().getNodeInstanceIdentifier();
         for (final NodeConnectorStatisticsUpdate nodeConnectorStatisticsUpdate : data) {
             for (final NodeConnectorStatisticsAndPortNumberMap nConnectPort : nodeConnectorStatisticsUpdate.getNodeConnectorStatisticsAndPortNumberMap()) {
@@ -292,11 +322,15 @@ public final class StatisticsGatheringUtils {
                 deviceContext.writeToTransaction(LogicalDatastoreType.OPERATIONAL, flowCapNodeConnStatIdent, stats);
             }
         }
-        deviceContext.submitTransaction();
     }
 
     private static void processMetersStatistics(final Iterable<MeterStatisticsUpdated> data,
                                                 final DeviceContext deviceContext) {
+        writeMetersStatistics(data, deviceContext);
+        deviceContext.submitTransaction();
+    }
+
+    static void writeMetersStatistics(final Iterable<MeterStatisticsUpdated> data, final DeviceContext deviceContext) {
         final InstanceIdentifier<FlowCapableNode> fNodeIdent = assembleFlowCapableNodeInstanceIdentifier(deviceContext);
         for (final MeterStatisticsUpdated meterStatisticsUpdated : data) {
             for (final MeterStats mStat : meterStatisticsUpdated.getMeterStats()) {
@@ -309,7 +343,6 @@ public final class StatisticsGatheringUtils {
                 deviceContext.writeToTransaction(LogicalDatastoreType.OPERATIONAL, msIdent, stats);
             }
         }
-        deviceContext.submitTransaction();
     }
 
     private static void deleteAllKnownMeters(final DeviceContext deviceContext, final InstanceIdentifier<FlowCapableNode> fNodeIdent) {
@@ -327,21 +360,28 @@ public final class StatisticsGatheringUtils {
 
         for (final GroupDescStatsUpdated groupDescStatsUpdated : data) {
             for (final GroupDescStats groupDescStats : groupDescStatsUpdated.getGroupDescStats()) {
-                final GroupId groupId = groupDescStats.getGroupId();
-
-                final GroupBuilder groupBuilder = new GroupBuilder(groupDescStats);
-                groupBuilder.setKey(new GroupKey(groupId));
-                groupBuilder.addAugmentation(NodeGroupStatistics.class, new NodeGroupStatisticsBuilder().build());
-
-                final InstanceIdentifier<Group> groupIdent = fNodeIdent.child(Group.class, new GroupKey(groupId));
-
-                deviceContext.getDeviceGroupRegistry().store(groupId);
-                deviceContext.writeToTransaction(LogicalDatastoreType.OPERATIONAL, groupIdent, groupBuilder.build());
+                writeGroup(groupDescStats, fNodeIdent, deviceContext);
             }
         }
         deviceContext.submitTransaction();
     }
 
+    static InstanceIdentifier<Group> writeGroup(final GroupDescStats groupDescStats,
+                                                final InstanceIdentifier<FlowCapableNode> fNodeIdent,
+                                                final DeviceContext deviceContext) {
+        final GroupId groupId = groupDescStats.getGroupId();
+
+        final GroupBuilder groupBuilder = new GroupBuilder(groupDescStats);
+        groupBuilder.setKey(new GroupKey(groupId));
+        groupBuilder.addAugmentation(NodeGroupStatistics.class, new NodeGroupStatisticsBuilder().build());
+
+        final InstanceIdentifier<Group> groupIdent = fNodeIdent.child(Group.class, new GroupKey(groupId));
+
+        deviceContext.getDeviceGroupRegistry().store(groupId);
+        deviceContext.writeToTransaction(LogicalDatastoreType.OPERATIONAL, groupIdent, groupBuilder.build());
+        return groupIdent;
+    }
+
     private static void deleteAllKnownGroups(final DeviceContext deviceContext, final InstanceIdentifier<FlowCapableNode> fNodeIdent) {
         for (final GroupId groupId : deviceContext.getDeviceGroupRegistry().getAllGroupIds()) {
             final InstanceIdentifier<Group> groupIdent = fNodeIdent.child(Group.class, new GroupKey(groupId));
@@ -351,6 +391,11 @@ public final class StatisticsGatheringUtils {
     }
 
     private static void processGroupStatistics(final Iterable<GroupStatisticsUpdated> data, final DeviceContext deviceContext) {
+        writeGroupStatistics(data, deviceContext);
+        deviceContext.submitTransaction();
+    }
+
+    static void writeGroupStatistics(final Iterable<GroupStatisticsUpdated> data, final DeviceContext deviceContext) {
         final InstanceIdentifier<FlowCapableNode> fNodeIdent = assembleFlowCapableNodeInstanceIdentifier(deviceContext);
         for (final GroupStatisticsUpdated groupStatistics : data) {
             for (final GroupStats groupStats : groupStatistics.getGroupStats()) {
@@ -364,10 +409,9 @@ public final class StatisticsGatheringUtils {
                 deviceContext.writeToTransaction(LogicalDatastoreType.OPERATIONAL, gsIdent, stats);
             }
         }
-        deviceContext.submitTransaction();
     }
 
-    private static InstanceIdentifier<FlowCapableNode> assembleFlowCapableNodeInstanceIdentifier(final DeviceContext deviceContext) {
+    static InstanceIdentifier<FlowCapableNode> assembleFlowCapableNodeInstanceIdentifier(final DeviceContext deviceContext) {
         return deviceContext.getDeviceState().getNodeInstanceIdentifier().augmentation(FlowCapableNode.class);
     }
 }
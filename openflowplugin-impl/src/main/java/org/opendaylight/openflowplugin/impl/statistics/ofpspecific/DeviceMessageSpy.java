@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.openflowplugin.impl.statistics.ofpspecific;
+
+import com.google.common.base.Preconditions;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import javax.annotation.Nonnull;
+import org.opendaylight.openflowplugin.api.openflow.statistics.ofpspecific.MessageSpy;
+import org.opendaylight.openflowplugin.common.stats.LatencyHistogram;
+
+/**
+ * Message counters and request latencies of one device. Counting a message costs one map lookup and one
+ * atomic increment of counter owned by (device, statistic group, message type) - devices never contend.
+ */
+final class DeviceMessageSpy implements MessageSpy {
+
+    /**
+     * requests not answered within this time are not tracked anymore
+     */
+    private static final long PENDING_REQUEST_EXPIRY_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    static final class MessageCounters {
+        private static final AtomicLongFieldUpdater<MessageCounters> UPDATER = AtomicLongFieldUpdater.newUpdater(MessageCounters.class, "current");
+        @SuppressWarnings("unused")
+        private volatile long current;
+        private long cumulative;
+        private long lastWindow;
+        private double ratePerSecond;
+
+        void increment() {
+            UPDATER.incrementAndGet(this);
+        }
+
+        synchronized void roll(final long windowNanos) {
+            lastWindow = UPDATER.getAndSet(this, 0);
+            cumulative += lastWindow;
+            ratePerSecond = windowNanos > 0 ? lastWindow * (double) TimeUnit.SECONDS.toNanos(1) / windowNanos : 0;
+        }
+
+        synchronized void reset() {
+            UPDATER.set(this, 0);
+            cumulative = 0;
+            lastWindow = 0;
+            ratePerSecond = 0;
+        }
+
+        synchronized long getLastWindow() {
+            return lastWindow;
+        }
+
+        synchronized long getCumulative() {
+            return cumulative;
+        }
+
+        synchronized double getRatePerSecond() {
+            return ratePerSecond;
+        }
+    }
+
+    private static final class PendingRequest {
+        private final Class<?> requestType;
+        private final long sentNanos;
+
+        PendingRequest(final Class<?> requestType, final long sentNanos) {
+            this.requestType = requestType;
+            this.sentNanos = sentNanos;
+        }
+    }
+
+    private final String deviceId;
+    private final Map<STATISTIC_GROUP, ConcurrentMap<Class<?>, MessageCounters>> counters = new EnumMap<>(STATISTIC_GROUP.class);
+    private final ConcurrentMap<Long, PendingRequest> pendingRequests = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<?>, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+
+    DeviceMessageSpy(final String deviceId) {
+        this.deviceId = Preconditions.checkNotNull(deviceId);
+        // filled up front - map is only read afterwards
+        for (final STATISTIC_GROUP statGroup : STATISTIC_GROUP.values()) {
+            counters.put(statGroup, new ConcurrentHashMap<Class<?>, MessageCounters>());
+        }
+    }
+
+    String getDeviceId() {
+        return deviceId;
+    }
+
+    @Override
+    public void spyMessage(@Nonnull final Class<?> message, final STATISTIC_GROUP statGroup) {
+        Preconditions.checkNotNull(message, "Message can't be null.");
+        getOrCreateCounters(counters.get(statGroup), message).increment();
+    }
+
+    @Override
+    public void spyRequestSent(final Class<?> requestType, final long xid) {
+        pendingRequests.put(xid, new PendingRequest(requestType, System.nanoTime()));
+    }
+
+    @Override
+    public void spyResponseReceived(final long xid) {
+        final PendingRequest pendingRequest = pendingRequests.remove(xid);
+        if (pendingRequest != null) {
+            getOrCreateHistogram(pendingRequest.requestType).record(System.nanoTime() - pendingRequest.sentNanos);
+        }
+    }
+
+    @Override
+    public void run() {
+        // windows are rolled by owning agency
+    }
+
+    /**
+     * close current counting window and drop requests which will not be answered anymore
+     *
+     * @param windowNanos length of closed window
+     */
+    void roll(final long windowNanos) {
+        for (final ConcurrentMap<Class<?>, MessageCounters> groupData : counters.values()) {
+            for (final MessageCounters messageCounters : groupData.values()) {
+                messageCounters.roll(windowNanos);
+            }
+        }
+
+        final long expiry = System.nanoTime() - PENDING_REQUEST_EXPIRY_NANOS;
+        for (final Iterator<PendingRequest> iterator = pendingRequests.values().iterator(); iterator.hasNext(); ) {
+            if (iterator.next().sentNanos - expiry < 0) {
+                iterator.remove();
+            }
+        }
+    }
+
+    void reset() {
+        for (final ConcurrentMap<Class<?>, MessageCounters> groupData : counters.values()) {
+            for (final MessageCounters messageCounters : groupData.values()) {
+                messageCounters.reset();
+            }
+        }
+        pendingRequests.clear();
+        latencies.clear();
+    }
+
+    Map<Class<?>, MessageCounters> getCounters(final STATISTIC_GROUP statGroup) {
+        return counters.get(statGroup);
+    }
+
+    Map<Class<?>, LatencyHistogram> getLatencies() {
+        return latencies;
+    }
+
+    int getPendingRequests() {
+        return pendingRequests.size();
+    }
+
+    private static MessageCounters getOrCreateCounters(final ConcurrentMap<Class<?>, MessageCounters> groupData, final Class<?> msgType) {
+        final MessageCounters lookup = groupData.get(msgType);
+        if (lookup != null) {
+            return lookup;
+        }
+
+        final MessageCounters newCounters = new MessageCounters();
+        final MessageCounters check = groupData.putIfAbsent(msgType, newCounters);
+        return check == null ? newCounters : check;
+    }
+
+    private LatencyHistogram getOrCreateHistogram(final Class<?> requestType) {
+        final LatencyHistogram lookup = latencies.get(requestType);
+        if (lookup != null) {
+            return lookup;
+        }
+
+        final LatencyHistogram newHistogram = new LatencyHistogram();
+        final LatencyHistogram check = latencies.putIfAbsent(requestType, newHistogram);
+        return check == null ? newHistogram : check;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.openflowplugin.impl.statistics.ofpspecific;
+
+import java.beans.ConstructorProperties;
+import org.opendaylight.openflowplugin.common.stats.LatencyHistogram;
+
+/**
+ * Duration distribution of one event type (on one device or over all devices), as exposed over JMX.
+ * Percentiles are upper bounds of log-linear histogram buckets.
+ */
+public final class EventTimeSnapshot {
+
+    private final String deviceId;
+    private final String eventName;
+    private final long count;
+    private final long minMicros;
+    private final long meanMicros;
+    private final long p50Micros;
+    private final long p90Micros;
+    private final long p99Micros;
+    private final long p999Micros;
+    private final long maxMicros;
+
+    @ConstructorProperties({"deviceId", "eventName", "count", "minMicros", "meanMicros",
+            "p50Micros", "p90Micros", "p99Micros", "p999Micros", "maxMicros"})
+    public EventTimeSnapshot(final String deviceId, final String eventName, final long count, final long minMicros,
+                             final long meanMicros, final long p50Micros, final long p90Micros, final long p99Micros,
+                             final long p999Micros, final long maxMicros) {
+        this.deviceId = deviceId;
+        this.eventName = eventName;
+        this.count = count;
+        this.minMicros = minMicros;
+        this.meanMicros = meanMicros;
+        this.p50Micros = p50Micros;
+        this.p90Micros = p90Micros;
+        this.p99Micros = p99Micros;
+        this.p999Micros = p999Micros;
+        this.maxMicros = maxMicros;
+    }
+
+    static EventTimeSnapshot of(final String deviceId, final String eventName, final LatencyHistogram histogram) {
+        return new EventTimeSnapshot(deviceId, eventName, histogram.getCount(), histogram.getMinMicros(),
+                histogram.getMeanMicros(), histogram.getPercentileMicros(0.5), histogram.getPercentileMicros(0.9),
+                histogram.getPercentileMicros(0.99), histogram.getPercentileMicros(0.999), histogram.getMaxMicros());
+    }
+
+    /**
+     * @return device id, {@link EventsTimeCounter#ALL_DEVICES} for aggregate over devices
+     */
+    public String getDeviceId() {
+        return deviceId;
+    }
+
+    public String getEventName() {
+        return eventName;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMinMicros() {
+        return minMicros;
+    }
+
+    public long getMeanMicros() {
+        return meanMicros;
+    }
+
+    public long getP50Micros() {
+        return p50Micros;
+    }
+
+    public long getP90Micros() {
+        return p90Micros;
+    }
+
+    public long getP99Micros() {
+        return p99Micros;
+    }
+
+    public long getP999Micros() {
+        return p999Micros;
+    }
+
+    public long getMaxMicros() {
+        return maxMicros;
+    }
+}
@@ -9,133 +9,202 @@
 package org.opendaylight.openflowplugin.impl.statistics.ofpspecific;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
 import org.opendaylight.openflowplugin.api.openflow.statistics.ofpspecific.EventIdentifier;
+import org.opendaylight.openflowplugin.common.stats.LatencyHistogram;
 
 /**
  * Created by Martin Bobak &lt;mbobak@cisco.com&gt; on 28.5.2015.
+ * <p>
+ * Measures duration of events per device and event type. Durations are recorded into lock free
+ * log-linear histograms - cumulative one and interval one (swapped out by {@link #getIntervalEventTimes()}),
+ * so tail latencies (p99, p999) stay visible. {@link #markStart(EventIdentifier)} hands out start
+ * token which is passed to {@link #markEnd(EventIdentifier, long)} - overlapping or never ended starts
+ * of the same event can not mismatch durations of other ones. Safe to be called from any thread.
  */
-public final class EventsTimeCounter {
+public final class EventsTimeCounter implements EventsTimeCounterMXBean {
 
-    private static Map<String, Map<String, EventTimeCounter>> devicesEvents = new HashMap<>();
+    /**
+     * device id of aggregates over all devices
+     */
+    public static final String ALL_DEVICES = "*";
 
-    public static void markStart(final EventIdentifier eventIdentifier) {
-        Map<String, EventTimeCounter> deviceEvents = getOrCreateCountersForDevice(eventIdentifier.getDeviceId());
-        EventTimeCounter eventTimeCounter = getOrCreateEventOfType(eventIdentifier.getEventName(), deviceEvents);
-        eventTimeCounter.markStart();
+    private static final ConcurrentMap<String, ConcurrentMap<String, EventTimeCounter>> devicesEvents = new ConcurrentHashMap<>();
+    private static final EventsTimeCounter INSTANCE = new EventsTimeCounter();
+
+    private EventsTimeCounter() {
+        // singleton exposed over JMX by plugin provider, counting goes through static methods
     }
 
-    public static void markEnd(final EventIdentifier eventIdentifier) {
-        Map<String, EventTimeCounter> deviceEvents = getOrCreateCountersForDevice(eventIdentifier.getDeviceId());
+    /**
+     * @param eventIdentifier event being started
+     * @return start token of this occurrence of event, to be passed to {@link #markEnd(EventIdentifier, long)}
+     */
+    public static long markStart(final EventIdentifier eventIdentifier) {
+        ConcurrentMap<String, EventTimeCounter> deviceEvents = getOrCreateCountersForDevice(eventIdentifier.getDeviceId());
+        getOrCreateEventOfType(eventIdentifier.getEventName(), deviceEvents);
+        return System.nanoTime();
+    }
+
+    /**
+     * @param eventIdentifier event being ended
+     * @param startToken value returned by {@link #markStart(EventIdentifier)} of the same occurrence of event
+     */
+    public static void markEnd(final EventIdentifier eventIdentifier, final long startToken) {
+        final long duration = System.nanoTime() - startToken;
+        ConcurrentMap<String, EventTimeCounter> deviceEvents = getOrCreateCountersForDevice(eventIdentifier.getDeviceId());
         EventTimeCounter eventTimeCounter = getOrCreateEventOfType(eventIdentifier.getEventName(), deviceEvents);
-        eventTimeCounter.markEnd();
+        eventTimeCounter.record(duration);
     }
 
-    private static EventTimeCounter getOrCreateEventOfType(final String event, final Map<String, EventTimeCounter> deviceEvents) {
-        EventTimeCounter lookup = deviceEvents.get(event);
-        if (null == lookup) {
-            lookup = new EventTimeCounter();
-            deviceEvents.put(event, lookup);
+    private static EventTimeCounter getOrCreateEventOfType(final String event, final ConcurrentMap<String, EventTimeCounter> deviceEvents) {
+        final EventTimeCounter lookup = deviceEvents.get(event);
+        if (null != lookup) {
+            return lookup;
         }
-        return lookup;
+
+        final EventTimeCounter newCounter = new EventTimeCounter();
+        final EventTimeCounter check = deviceEvents.putIfAbsent(event, newCounter);
+        return check == null ? newCounter : check;
     }
 
-    private static Map<String, EventTimeCounter> getOrCreateCountersForDevice(final String deviceId) {
-        Map<String, EventTimeCounter> lookup = devicesEvents.get(deviceId);
-        if (null == lookup) {
-            lookup = new HashMap<String, EventTimeCounter>();
-            devicesEvents.put(deviceId, lookup);
+    private static ConcurrentMap<String, EventTimeCounter> getOrCreateCountersForDevice(final String deviceId) {
+        final ConcurrentMap<String, EventTimeCounter> lookup = devicesEvents.get(deviceId);
+        if (null != lookup) {
+            return lookup;
         }
 
-        return lookup;
+        final ConcurrentMap<String, EventTimeCounter> newMap = new ConcurrentHashMap<>();
+        final ConcurrentMap<String, EventTimeCounter> check = devicesEvents.putIfAbsent(deviceId, newMap);
+        return check == null ? newMap : check;
     }
 
+    /**
+     * @return cumulative durations per device and event type
+     */
     public static List<String> provideTimes() {
-        List<String> dump = new ArrayList<>();
-        for (Map.Entry<String, Map<String, EventTimeCounter>> deviceEntry : devicesEvents.entrySet()) {
-            Map<String, EventTimeCounter> eventsMap = deviceEntry.getValue();
-            dump.add("================================================");
-            dump.add(String.format("DEVICE : %s", deviceEntry.getKey()));
-            for (Map.Entry<String, EventTimeCounter> eventEntry : eventsMap.entrySet()) {
-                final String eventName = eventEntry.getKey();
-                final EventTimeCounter eventTimeCounter = eventEntry.getValue();
-                dump.add(String.format("%s", eventName));
-                dump.add(String.format("    MIN TIME (ms):  %d",
-                        TimeUnit.MILLISECONDS.convert(eventTimeCounter.getMinimum(), TimeUnit.NANOSECONDS)));
-                dump.add(String.format("    MAX TIME (ms):  %d",
-                        TimeUnit.MILLISECONDS.convert(eventTimeCounter.getMaximum(), TimeUnit.NANOSECONDS)));
-                dump.add(String.format("    AVG TIME (ms):  %d",
-                        TimeUnit.MILLISECONDS.convert(eventTimeCounter.getAverage(), TimeUnit.NANOSECONDS)));
+        return dump(INSTANCE.getEventTimes());
+    }
 
-            }
-        }
-        return dump;
+    /**
+     * @return cumulative durations per event type over all devices
+     */
+    public static List<String> provideEventTypeTimes() {
+        return dump(INSTANCE.getEventTypeTimes());
+    }
+
+    /**
+     * @return durations per device and event type recorded since previous interval snapshot
+     */
+    public static List<String> provideIntervalTimes() {
+        return dump(INSTANCE.getIntervalEventTimes());
     }
 
     public static void resetAllCounters() {
-        devicesEvents = new HashMap<>();
+        devicesEvents.clear();
     }
 
+    public static EventsTimeCounterMXBean getInstance() {
+        return INSTANCE;
+    }
 
-    private static final class EventTimeCounter {
+    @Override
+    public List<EventTimeSnapshot> getEventTimes() {
+        final List<EventTimeSnapshot> snapshots = new ArrayList<>();
+        for (Map.Entry<String, ConcurrentMap<String, EventTimeCounter>> deviceEntry : devicesEvents.entrySet()) {
+            for (Map.Entry<String, EventTimeCounter> eventEntry : deviceEntry.getValue().entrySet()) {
+                snapshots.add(EventTimeSnapshot.of(deviceEntry.getKey(), eventEntry.getKey(), eventEntry.getValue().getCumulative()));
+            }
+        }
+        return snapshots;
+    }
 
-        private volatile long delta = 0;
-        private volatile long average = 0;
-        private volatile long minimum = 0;
-        private volatile long maximum = 0;
-        private volatile long summary = 0;
-        private volatile int counter = 0;
+    @Override
+    public List<EventTimeSnapshot> getEventTypeTimes() {
+        final Map<String, LatencyHistogram> eventTypes = new LinkedHashMap<>();
+        for (ConcurrentMap<String, EventTimeCounter> deviceEvents : devicesEvents.values()) {
+            for (Map.Entry<String, EventTimeCounter> eventEntry : deviceEvents.entrySet()) {
+                LatencyHistogram aggregate = eventTypes.get(eventEntry.getKey());
+                if (aggregate == null) {
+                    aggregate = new LatencyHistogram();
+                    eventTypes.put(eventEntry.getKey(), aggregate);
+                }
+                eventEntry.getValue().getCumulative().mergeInto(aggregate);
+            }
+        }
 
-        public synchronized void markStart() {
-            delta = System.nanoTime();
+        final List<EventTimeSnapshot> snapshots = new ArrayList<>(eventTypes.size());
+        for (Map.Entry<String, LatencyHistogram> eventEntry : eventTypes.entrySet()) {
+            snapshots.add(EventTimeSnapshot.of(ALL_DEVICES, eventEntry.getKey(), eventEntry.getValue()));
         }
+        return snapshots;
+    }
 
-        public synchronized void markEnd() {
-            if (0 == delta) {
-                return;
+    @Override
+    public List<EventTimeSnapshot> getIntervalEventTimes() {
+        final List<EventTimeSnapshot> snapshots = new ArrayList<>();
+        for (Map.Entry<String, ConcurrentMap<String, EventTimeCounter>> deviceEntry : devicesEvents.entrySet()) {
+            for (Map.Entry<String, EventTimeCounter> eventEntry : deviceEntry.getValue().entrySet()) {
+                snapshots.add(EventTimeSnapshot.of(deviceEntry.getKey(), eventEntry.getKey(), eventEntry.getValue().rollInterval()));
             }
-            counter++;
-            delta = System.nanoTime() - delta;
+        }
+        return snapshots;
+    }
 
-            if (delta < minimum || minimum == 0) {
-                minimum = delta;
-            }
-            if (delta > maximum) {
-                maximum = delta;
-            }
-            if (average > 0 && delta > (average * 1.8)) {
-                summary += average;
-            } else {
-                summary += delta;
+    @Override
+    public void resetStatistics() {
+        resetAllCounters();
+    }
+
+    private static List<String> dump(final List<EventTimeSnapshot> snapshots) {
+        final List<String> dump = new ArrayList<>();
+        String lastDeviceId = null;
+        for (EventTimeSnapshot snapshot : snapshots) {
+            if (!snapshot.getDeviceId().equals(lastDeviceId)) {
+                lastDeviceId = snapshot.getDeviceId();
+                dump.add("================================================");
+                dump.add(String.format("DEVICE : %s", lastDeviceId));
             }
-            average = summary / counter;
+            dump.add(String.format("%s", snapshot.getEventName()));
+            dump.add(String.format("    COUNT:          %d", snapshot.getCount()));
+            dump.add(String.format("    MIN TIME (ms):  %.3f", toMillis(snapshot.getMinMicros())));
+            dump.add(String.format("    MAX TIME (ms):  %.3f", toMillis(snapshot.getMaxMicros())));
+            dump.add(String.format("    AVG TIME (ms):  %.3f", toMillis(snapshot.getMeanMicros())));
+            dump.add(String.format("    P50 TIME (ms):  %.3f", toMillis(snapshot.getP50Micros())));
+            dump.add(String.format("    P90 TIME (ms):  %.3f", toMillis(snapshot.getP90Micros())));
+            dump.add(String.format("    P99 TIME (ms):  %.3f", toMillis(snapshot.getP99Micros())));
+            dump.add(String.format("    P999 TIME (ms): %.3f", toMillis(snapshot.getP999Micros())));
         }
+        return dump;
+    }
 
-        public synchronized void resetCounters() {
-            delta = 0;
-            average = 0;
-            minimum = 0;
-            maximum = 0;
-            summary = 0;
-            counter = 0;
+    private static double toMillis(final long micros) {
+        return micros / 1000.0;
+    }
 
-        }
 
-        public synchronized long getAverage() {
-            return average;
-        }
+    private static final class EventTimeCounter {
 
-        public synchronized long getMinimum() {
-            return minimum;
+        private final LatencyHistogram cumulative = new LatencyHistogram();
+        private final AtomicReference<LatencyHistogram> interval = new AtomicReference<>(new LatencyHistogram());
+
+        public void record(final long duration) {
+            cumulative.record(duration);
+            interval.get().record(duration);
         }
 
-        public synchronized long getMaximum() {
-            return maximum;
+        public LatencyHistogram getCumulative() {
+            return cumulative;
         }
 
+        public LatencyHistogram rollInterval() {
+            return interval.getAndSet(new LatencyHistogram());
+        }
     }
 
 
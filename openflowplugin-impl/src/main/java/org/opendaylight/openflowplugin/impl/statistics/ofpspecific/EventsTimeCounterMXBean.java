@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.openflowplugin.impl.statistics.ofpspecific;
+
+import java.util.List;
+
+/**
+ * JMX view of {@link EventsTimeCounter}
+ */
+public interface EventsTimeCounterMXBean {
+
+    /**
+     * @return event durations per device and event type since start (or last reset)
+     */
+    List<EventTimeSnapshot> getEventTimes();
+
+    /**
+     * @return event durations per event type aggregated over all devices since start (or last reset)
+     */
+    List<EventTimeSnapshot> getEventTypeTimes();
+
+    /**
+     * @return event durations per device and event type recorded since previous call of this method
+     */
+    List<EventTimeSnapshot> getIntervalEventTimes();
+
+    /**
+     * drop all recorded durations
+     */
+    void resetStatistics();
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.openflowplugin.impl.statistics.ofpspecific;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Counters of one message type in one statistic group of one device, as exposed over JMX.
+ */
+public final class MessageCounterSnapshot {
+
+    private final String deviceId;
+    private final String statisticGroup;
+    private final String messageType;
+    private final long windowCount;
+    private final long cumulativeCount;
+    private final double ratePerSecond;
+
+    @ConstructorProperties({"deviceId", "statisticGroup", "messageType", "windowCount", "cumulativeCount", "ratePerSecond"})
+    public MessageCounterSnapshot(final String deviceId, final String statisticGroup, final String messageType,
+                                  final long windowCount, final long cumulativeCount, final double ratePerSecond) {
+        this.deviceId = deviceId;
+        this.statisticGroup = statisticGroup;
+        this.messageType = messageType;
+        this.windowCount = windowCount;
+        this.cumulativeCount = cumulativeCount;
+        this.ratePerSecond = ratePerSecond;
+    }
+
+    public String getDeviceId() {
+        return deviceId;
+    }
+
+    public String getStatisticGroup() {
+        return statisticGroup;
+    }
+
+    public String getMessageType() {
+        return messageType;
+    }
+
+    /**
+     * @return amount of messages in last closed window
+     */
+    public long getWindowCount() {
+        return windowCount;
+    }
+
+    /**
+     * @return amount of messages since start (or last reset), closed windows only
+     */
+    public long getCumulativeCount() {
+        return cumulativeCount;
+    }
+
+    /**
+     * @return messages per second in last closed window
+     */
+    public double getRatePerSecond() {
+        return ratePerSecond;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %s: MSG[%s] -> +%d | %d (%.1f/s)",
+                deviceId, statisticGroup, messageType, windowCount, cumulativeCount, ratePerSecond);
+    }
+}
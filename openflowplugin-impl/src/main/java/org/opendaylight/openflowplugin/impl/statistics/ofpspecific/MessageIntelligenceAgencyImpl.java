@@ -10,93 +10,104 @@ package org.opendaylight.openflowplugin.impl.statistics.ofpspecific;
 
 import com.google.common.base.Preconditions;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import javax.annotation.Nonnull;
 import org.opendaylight.openflowplugin.api.openflow.statistics.ofpspecific.MessageIntelligenceAgency;
+import org.opendaylight.openflowplugin.api.openflow.statistics.ofpspecific.MessageSpy;
+import org.opendaylight.openflowplugin.common.stats.LatencyHistogram;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Implementation of {@link org.opendaylight.openflowplugin.api.openflow.statistics.ofpspecific.MessageIntelligenceAgency}.
  * Class counts message of {@link org.opendaylight.openflowplugin.api.openflow.statistics.ofpspecific.MessageSpy.STATISTIC_GROUP} type
- * and provides info as debug log.
+ * per device and provides info as debug log and over JMX. Messages spied directly on agency are accounted
+ * to {@link #UNASSIGNED_DEVICE}. Each {@link #run()} closes current counting window and computes rates.
+ * Device spy is dropped once the last device context using it is closed.
  */
 public class MessageIntelligenceAgencyImpl implements MessageIntelligenceAgency, MessageIntelligenceAgencyMXBean {
 
     private static final Logger LOG = LoggerFactory.getLogger(MessageIntelligenceAgencyImpl.class);
 
-    private static final class MessageCounters {
-        private static final AtomicLongFieldUpdater<MessageCounters> UPDATER = AtomicLongFieldUpdater.newUpdater(MessageCounters.class, "current");
-        @SuppressWarnings("unused")
-        private volatile long current;
-        private long cumulative;
+    /**
+     * device id of messages not bound to any device
+     */
+    public static final String UNASSIGNED_DEVICE = "unassigned";
 
-        public synchronized long accumulate() {
-            final long inc = UPDATER.getAndSet(this, 0);
-            cumulative += inc;
-            return inc;
-        }
+    private final ConcurrentMap<String, DeviceMessageSpy> deviceSpies = new ConcurrentHashMap<>();
+    private final DeviceMessageSpy unassignedSpy = new DeviceMessageSpy(UNASSIGNED_DEVICE);
+    /** amount of device contexts holding spy of device - guarded by this */
+    private final Map<String, Integer> deviceSpyUsers = new HashMap<>();
+    private long lastRollNanos = System.nanoTime();
 
-        public synchronized long getCumulative() {
-            return cumulative;
-        }
-
-        public long increment() {
-            return UPDATER.incrementAndGet(this);
-        }
+    public MessageIntelligenceAgencyImpl() {
+        deviceSpies.put(UNASSIGNED_DEVICE, unassignedSpy);
     }
 
-    private ConcurrentMap<STATISTIC_GROUP, ConcurrentMap<Class<?>, MessageCounters>> inputStats = new ConcurrentHashMap<>();
-
     @Override
     public void spyMessage(@Nonnull final Class<?> message, final STATISTIC_GROUP statGroup) {
-        Preconditions.checkNotNull(message, "Message can't be null.");
-        getCounters(message, statGroup).increment();
+        unassignedSpy.spyMessage(message, statGroup);
     }
 
-    /**
-     * @param message
-     * @param statGroup TODO
-     * @return
-     */
-    private MessageCounters getCounters(final Class<?> message, final STATISTIC_GROUP statGroup) {
-        ConcurrentMap<Class<?>, MessageCounters> groupData = getOrCreateGroupData(statGroup);
-        MessageCounters counters = getOrCreateCountersPair(message, groupData);
-        return counters;
+    @Override
+    public void spyRequestSent(final Class<?> requestType, final long xid) {
+        unassignedSpy.spyRequestSent(requestType, xid);
     }
 
-    private static MessageCounters getOrCreateCountersPair(final Class<?> msgType, final ConcurrentMap<Class<?>, MessageCounters> groupData) {
-        final MessageCounters lookup = groupData.get(msgType);
-        if (lookup != null) {
-            return lookup;
-        }
-
-        final MessageCounters newCounters = new MessageCounters();
-        final MessageCounters check = groupData.putIfAbsent(msgType, newCounters);
-        return check == null ? newCounters : check;
-
+    @Override
+    public void spyResponseReceived(final long xid) {
+        unassignedSpy.spyResponseReceived(xid);
     }
 
-    private ConcurrentMap<Class<?>, MessageCounters> getOrCreateGroupData(final STATISTIC_GROUP statGroup) {
-        final ConcurrentMap<Class<?>, MessageCounters> lookup = inputStats.get(statGroup);
-        if (lookup != null) {
-            return lookup;
+    @Override
+    public synchronized MessageSpy getDeviceSpy(final NodeId nodeId) {
+        Preconditions.checkNotNull(nodeId, "NodeId can't be null.");
+        final String deviceId = nodeId.getValue();
+        DeviceMessageSpy deviceSpy = deviceSpies.get(deviceId);
+        if (deviceSpy == null) {
+            deviceSpy = new DeviceMessageSpy(deviceId);
+            deviceSpies.put(deviceId, deviceSpy);
         }
+        final Integer users = deviceSpyUsers.get(deviceId);
+        deviceSpyUsers.put(deviceId, users == null ? 1 : users + 1);
+        return deviceSpy;
+    }
 
-        final ConcurrentMap<Class<?>, MessageCounters> newmap = new ConcurrentHashMap<>();
-        final ConcurrentMap<Class<?>, MessageCounters> check = inputStats.putIfAbsent(statGroup, newmap);
-
-        return check == null ? newmap : check;
+    @Override
+    public synchronized void releaseDeviceSpy(final NodeId nodeId) {
+        Preconditions.checkNotNull(nodeId, "NodeId can't be null.");
+        final String deviceId = nodeId.getValue();
+        final Integer users = deviceSpyUsers.get(deviceId);
+        if (users == null) {
+            return;
+        }
+        if (users > 1) {
+            deviceSpyUsers.put(deviceId, users - 1);
+        } else {
+            deviceSpyUsers.remove(deviceId);
+            deviceSpies.remove(deviceId);
+        }
     }
 
     @Override
     public void run() {
-        // log current counters and cleans it
+        // close current window of all counters
+        synchronized (this) {
+            final long now = System.nanoTime();
+            final long windowNanos = now - lastRollNanos;
+            lastRollNanos = now;
+            for (final DeviceMessageSpy deviceSpy : deviceSpies.values()) {
+                deviceSpy.roll(windowNanos);
+            }
+        }
+
         if (LOG.isDebugEnabled()) {
             for (String counterItem : provideIntelligence()) {
                 LOG.debug(counterItem);
@@ -109,25 +120,87 @@ public class MessageIntelligenceAgencyImpl implements MessageIntelligenceAgency,
         List<String> dump = new ArrayList<>();
 
         for (STATISTIC_GROUP statGroup : STATISTIC_GROUP.values()) {
-            Map<Class<?>, MessageCounters> groupData = inputStats.get(statGroup);
-            if (groupData != null) {
-                for (Entry<Class<?>, MessageCounters> statEntry : groupData.entrySet()) {
-                    long amountPerInterval = statEntry.getValue().accumulate();
-                    long cumulativeAmount = statEntry.getValue().getCumulative();
-                    dump.add(String.format("%s: MSG[%s] -> +%d | %d",
-                            statGroup,
-                            statEntry.getKey().getSimpleName(),
-                            amountPerInterval, cumulativeAmount));
+            final Map<String, long[]> groupData = new LinkedHashMap<>();
+            final Map<String, Double> groupRates = new LinkedHashMap<>();
+            for (final DeviceMessageSpy deviceSpy : deviceSpies.values()) {
+                for (final Entry<Class<?>, DeviceMessageSpy.MessageCounters> statEntry : deviceSpy.getCounters(statGroup).entrySet()) {
+                    final String messageType = statEntry.getKey().getSimpleName();
+                    long[] amounts = groupData.get(messageType);
+                    if (amounts == null) {
+                        amounts = new long[2];
+                        groupData.put(messageType, amounts);
+                        groupRates.put(messageType, 0.0);
+                    }
+                    amounts[0] += statEntry.getValue().getLastWindow();
+                    amounts[1] += statEntry.getValue().getCumulative();
+                    groupRates.put(messageType, groupRates.get(messageType) + statEntry.getValue().getRatePerSecond());
                 }
-            } else {
+            }
+
+            if (groupData.isEmpty()) {
                 dump.add(String.format("%s: no activity detected", statGroup));
+            } else {
+                for (final Entry<String, long[]> statEntry : groupData.entrySet()) {
+                    dump.add(String.format("%s: MSG[%s] -> +%d | %d (%.1f/s)",
+                            statGroup,
+                            statEntry.getKey(),
+                            statEntry.getValue()[0], statEntry.getValue()[1],
+                            groupRates.get(statEntry.getKey())));
+                }
             }
         }
         return dump;
     }
 
+    @Override
+    public List<MessageCounterSnapshot> getMessageCounters() {
+        final List<MessageCounterSnapshot> snapshots = new ArrayList<>();
+        for (final DeviceMessageSpy deviceSpy : deviceSpies.values()) {
+            for (final STATISTIC_GROUP statGroup : STATISTIC_GROUP.values()) {
+                for (final Entry<Class<?>, DeviceMessageSpy.MessageCounters> statEntry : deviceSpy.getCounters(statGroup).entrySet()) {
+                    final DeviceMessageSpy.MessageCounters counters = statEntry.getValue();
+                    snapshots.add(new MessageCounterSnapshot(deviceSpy.getDeviceId(), statGroup.name(),
+                            statEntry.getKey().getSimpleName(), counters.getLastWindow(), counters.getCumulative(),
+                            counters.getRatePerSecond()));
+                }
+            }
+        }
+        return snapshots;
+    }
+
+    @Override
+    public List<RequestLatencySnapshot> getRequestLatencies() {
+        final List<RequestLatencySnapshot> snapshots = new ArrayList<>();
+        for (final DeviceMessageSpy deviceSpy : deviceSpies.values()) {
+            for (final Entry<Class<?>, LatencyHistogram> latencyEntry : deviceSpy.getLatencies().entrySet()) {
+                final LatencyHistogram histogram = latencyEntry.getValue();
+                snapshots.add(new RequestLatencySnapshot(deviceSpy.getDeviceId(), latencyEntry.getKey().getSimpleName(),
+                        histogram.getCount(), histogram.getMeanMicros(), histogram.getPercentileMicros(0.5),
+                        histogram.getPercentileMicros(0.99), histogram.getMaxMicros()));
+            }
+        }
+        return snapshots;
+    }
+
+    @Override
+    public List<String> getDeviceIds() {
+        return new ArrayList<>(deviceSpies.keySet());
+    }
+
+    @Override
+    public long getPendingRequests() {
+        long pending = 0;
+        for (final DeviceMessageSpy deviceSpy : deviceSpies.values()) {
+            pending += deviceSpy.getPendingRequests();
+        }
+        return pending;
+    }
+
     @Override
     public void resetStatistics() {
-        inputStats = new ConcurrentHashMap<>();
+        // device spies are held by device contexts - zero them in place
+        for (final DeviceMessageSpy deviceSpy : deviceSpies.values()) {
+            deviceSpy.reset();
+        }
     }
 }
@@ -15,5 +15,33 @@ import java.util.List;
  */
 public interface MessageIntelligenceAgencyMXBean {
 
+    /**
+     * @return counters aggregated over all devices, one line per statistic group and message type
+     */
     List<String> provideIntelligence();
+
+    /**
+     * @return counters per device, statistic group and message type
+     */
+    List<MessageCounterSnapshot> getMessageCounters();
+
+    /**
+     * @return request to response latencies per device and request type
+     */
+    List<RequestLatencySnapshot> getRequestLatencies();
+
+    /**
+     * @return ids of devices having own counters
+     */
+    List<String> getDeviceIds();
+
+    /**
+     * @return amount of requests sent and not answered yet, over all devices
+     */
+    long getPendingRequests();
+
+    /**
+     * zero all counters and drop latency histograms
+     */
+    void resetStatistics();
 }
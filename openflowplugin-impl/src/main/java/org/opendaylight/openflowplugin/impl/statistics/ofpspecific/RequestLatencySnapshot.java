@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.openflowplugin.impl.statistics.ofpspecific;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Request to response latency of one request type on one device, as exposed over JMX.
+ * Percentiles are upper bounds of power of two histogram buckets.
+ */
+public final class RequestLatencySnapshot {
+
+    private final String deviceId;
+    private final String requestType;
+    private final long count;
+    private final long meanMicros;
+    private final long p50Micros;
+    private final long p99Micros;
+    private final long maxMicros;
+
+    @ConstructorProperties({"deviceId", "requestType", "count", "meanMicros", "p50Micros", "p99Micros", "maxMicros"})
+    public RequestLatencySnapshot(final String deviceId, final String requestType, final long count,
+                                  final long meanMicros, final long p50Micros, final long p99Micros, final long maxMicros) {
+        this.deviceId = deviceId;
+        this.requestType = requestType;
+        this.count = count;
+        this.meanMicros = meanMicros;
+        this.p50Micros = p50Micros;
+        this.p99Micros = p99Micros;
+        this.maxMicros = maxMicros;
+    }
+
+    public String getDeviceId() {
+        return deviceId;
+    }
+
+    public String getRequestType() {
+        return requestType;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMeanMicros() {
+        return meanMicros;
+    }
+
+    public long getP50Micros() {
+        return p50Micros;
+    }
+
+    public long getP99Micros() {
+        return p99Micros;
+    }
+
+    public long getMaxMicros() {
+        return maxMicros;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: REQ[%s] -> %d requests, mean %d us, p50 %d us, p99 %d us, max %d us",
+                deviceId, requestType, count, meanMicros, p50Micros, p99Micros, maxMicros);
+    }
+}
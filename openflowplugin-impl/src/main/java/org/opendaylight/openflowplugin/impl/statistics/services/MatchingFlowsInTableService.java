@@ -11,6 +11,7 @@ import com.google.common.base.MoreObjects;
 import org.opendaylight.openflowplugin.api.OFConstants;
 import org.opendaylight.openflowplugin.api.openflow.device.DeviceContext;
 import org.opendaylight.openflowplugin.api.openflow.device.RequestContextStack;
+import org.opendaylight.openflowplugin.api.openflow.device.RequestPriority;
 import org.opendaylight.openflowplugin.api.openflow.device.Xid;
 import org.opendaylight.openflowplugin.impl.services.AbstractMultipartService;
 import org.opendaylight.openflowplugin.impl.services.RequestInputUtils;
@@ -27,6 +28,7 @@ final class MatchingFlowsInTableService extends AbstractMultipartService<GetAggr
 
     public MatchingFlowsInTableService(final RequestContextStack requestContextStack, final DeviceContext deviceContext) {
         super(requestContextStack, deviceContext);
+        setRequestPriority(RequestPriority.STATISTICS);
     }
 
     @Override
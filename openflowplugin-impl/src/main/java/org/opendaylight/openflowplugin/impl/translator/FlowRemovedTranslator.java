@@ -0,0 +1,76 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.impl.translator;
+
+import java.math.BigInteger;
+import org.opendaylight.openflowplugin.api.openflow.device.DeviceContext;
+import org.opendaylight.openflowplugin.api.openflow.device.MessageTranslator;
+import org.opendaylight.openflowplugin.api.openflow.md.util.OpenflowVersion;
+import org.opendaylight.openflowplugin.extension.api.AugmentTuple;
+import org.opendaylight.openflowplugin.extension.api.path.MatchPath;
+import org.opendaylight.openflowplugin.openflow.md.core.extension.MatchExtensionHelper;
+import org.opendaylight.openflowplugin.openflow.md.core.sal.convertor.match.MatchConvertorImpl;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.service.rev130819.FlowRemovedBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.FlowCookie;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.flow.Match;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.flow.MatchBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeRef;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.protocol.rev130731.FlowRemoved;
+
+/**
+ * Translates OF flow removed message into md-sal flow removed notification. Match is converted the same way
+ * as match of flow statistics, so the result can be used as key into device flow registry.
+ */
+public class FlowRemovedTranslator implements MessageTranslator<FlowRemoved, org.opendaylight.yang.gen.v1.urn.opendaylight.flow.service.rev130819.FlowRemoved> {
+
+    private static final short OF10_TABLE_ID = 0;
+
+    @Override
+    public org.opendaylight.yang.gen.v1.urn.opendaylight.flow.service.rev130819.FlowRemoved translate(final FlowRemoved input,
+                                                                                                      final DeviceContext deviceContext,
+                                                                                                      final Object connectionDistinguisher) {
+        final FlowRemovedBuilder flowRemovedBuilder = new FlowRemovedBuilder();
+        final BigInteger datapathId = deviceContext.getPrimaryConnectionContext().getFeatures().getDatapathId();
+        final OpenflowVersion ofVersion = OpenflowVersion.get(input.getVersion());
+
+        flowRemovedBuilder.setNode(new NodeRef(deviceContext.getDeviceState().getNodeInstanceIdentifier()));
+        if (input.getCookie() != null) {
+            flowRemovedBuilder.setCookie(new FlowCookie(input.getCookie()));
+        }
+        flowRemovedBuilder.setPriority(input.getPriority());
+        flowRemovedBuilder.setIdleTimeout(input.getIdleTimeout());
+        flowRemovedBuilder.setHardTimeout(input.getHardTimeout());
+
+        // OF1.0 does not report table, flows live in table 0 there
+        if (input.getTableId() != null) {
+            flowRemovedBuilder.setTableId(input.getTableId().getValue().shortValue());
+        } else {
+            flowRemovedBuilder.setTableId(OF10_TABLE_ID);
+        }
+
+        if (input.getMatch() != null) {
+            flowRemovedBuilder.setMatch(translateMatch(input, datapathId, ofVersion));
+        } else if (input.getMatchV10() != null) {
+            flowRemovedBuilder.setMatch(MatchConvertorImpl.fromOFMatchV10ToSALMatch(input.getMatchV10(), datapathId, ofVersion));
+        }
+
+        return flowRemovedBuilder.build();
+    }
+
+    private static Match translateMatch(final FlowRemoved input, final BigInteger datapathId, final OpenflowVersion ofVersion) {
+        final MatchBuilder matchBuilder = MatchConvertorImpl.fromOFMatchToSALMatch(input.getMatch(), datapathId, ofVersion);
+
+        final AugmentTuple<Match> matchExtensionWrap =
+                MatchExtensionHelper.processAllExtensions(
+                        input.getMatch().getMatchEntry(), ofVersion, MatchPath.FLOWSSTATISTICSUPDATE_FLOWANDSTATISTICSMAPLIST_MATCH);
+        if (matchExtensionWrap != null) {
+            matchBuilder.addAugmentation(matchExtensionWrap.getAugmentationClass(), matchExtensionWrap.getAugmentationObject());
+        }
+        return matchBuilder.build();
+    }
+}
@@ -36,6 +36,8 @@ public class OpenFlowProviderModule extends org.opendaylight.yang.gen.v1.urn.ope
         openflowPluginProvider.setNotificationProviderService(getNotificationAdapterDependency());
         openflowPluginProvider.setNotificationPublishService(getNotificationPublishAdapterDependency());
         openflowPluginProvider.setSwitchFeaturesMandatory(getSwitchFeaturesMandatory());
+        openflowPluginProvider.setRpcRequestsWaitQueue(getRpcRequestsWaitQueue(), getRpcRequestsWaitTimeout());
+        openflowPluginProvider.setFlowRemovedBatching(getFlowRemovedBatchSize(), getFlowRemovedBatchDelay());
         openflowPluginProvider.initialize();
 
         return openflowPluginProvider;
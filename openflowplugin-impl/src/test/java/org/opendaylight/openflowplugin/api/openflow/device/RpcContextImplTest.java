@@ -7,9 +7,14 @@
  */
 package org.opendaylight.openflowplugin.api.openflow.device;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.when;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.netty.util.HashedWheelTimer;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -40,6 +45,8 @@ public class RpcContextImplTest {
     private DeviceContext deviceContext;
     @Mock
     private MessageSpy messageSpy;
+    @Mock
+    private HashedWheelTimer timer;
 
     private KeyedInstanceIdentifier<Node, NodeKey> nodeInstanceIdentifier;
 
@@ -50,6 +57,8 @@ public class RpcContextImplTest {
 
         when(deviceState.getNodeInstanceIdentifier()).thenReturn(nodeInstanceIdentifier);
         when(deviceContext.getDeviceState()).thenReturn(deviceState);
+        when(deviceContext.getTimer()).thenReturn(timer);
+        when(deviceContext.getReservedXid()).thenReturn(42L);
     }
 
     @Test
@@ -72,4 +81,50 @@ public class RpcContextImplTest {
             assertNull(requestContext);
         }
     }
+
+    @Test
+    public void testAdmitRequestContextWaitsForFreeSlot() throws Exception {
+        try (final RpcContextImpl rpcContext = new RpcContextImpl(messageSpy, mockedRpcProviderRegistry, deviceContext, 1, 2, 1000)) {
+            final ListenableFuture<RequestContext<Object>> first = rpcContext.admitRequestContext(RequestPriority.APPLICATION);
+            assertTrue(first.isDone());
+            assertNotNull(first.get());
+
+            final ListenableFuture<RequestContext<Object>> application = rpcContext.admitRequestContext(RequestPriority.APPLICATION);
+            final ListenableFuture<RequestContext<Object>> control = rpcContext.admitRequestContext(RequestPriority.CONTROL);
+            assertFalse(application.isDone());
+            assertFalse(control.isDone());
+            assertEquals(2, rpcContext.getWaitingRequests());
+            // waiting requests go first
+            assertNull(rpcContext.createRequestContext());
+
+            final ListenableFuture<RequestContext<Object>> rejected = rpcContext.admitRequestContext(RequestPriority.CONTROL);
+            assertTrue(rejected.isDone());
+            assertNull(rejected.get());
+
+            // freed slot goes to control request first
+            first.get().close();
+            assertTrue(control.isDone());
+            assertNotNull(control.get());
+            assertFalse(application.isDone());
+            assertEquals(1, rpcContext.getOccupancy());
+
+            control.get().close();
+            assertTrue(application.isDone());
+            assertNotNull(application.get());
+            application.get().close();
+            assertEquals(0, rpcContext.getOccupancy());
+        }
+    }
+
+    @Test
+    public void testAdmitRequestContextRejectedOnClose() throws Exception {
+        final RpcContextImpl rpcContext = new RpcContextImpl(messageSpy, mockedRpcProviderRegistry, deviceContext, 0, 1, 1000);
+        final ListenableFuture<RequestContext<Object>> waiting = rpcContext.admitRequestContext(RequestPriority.STATISTICS);
+        assertFalse(waiting.isDone());
+
+        rpcContext.close();
+        assertTrue(waiting.isDone());
+        assertNull(waiting.get());
+        assertEquals(0, rpcContext.getWaitingRequests());
+    }
 }
@@ -7,6 +7,8 @@ import com.google.common.util.concurrent.CheckedFuture;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.SettableFuture;
 import io.netty.util.HashedWheelTimer;
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import org.junit.Assert;
 import org.junit.Before;
@@ -19,27 +21,42 @@ import org.mockito.runners.MockitoJUnitRunner;
 import org.mockito.stubbing.Answer;
 import org.opendaylight.controller.md.sal.binding.api.BindingTransactionChain;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.NotificationPublishService;
 import org.opendaylight.controller.md.sal.binding.api.ReadOnlyTransaction;
 import org.opendaylight.controller.md.sal.binding.api.ReadTransaction;
 import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
 import org.opendaylight.openflowjava.protocol.api.connection.ConnectionAdapter;
+import org.opendaylight.openflowplugin.api.OFConstants;
 import org.opendaylight.openflowplugin.api.openflow.connection.ConnectionContext;
 import org.opendaylight.openflowplugin.api.openflow.connection.OutboundQueueProvider;
 import org.opendaylight.openflowplugin.api.openflow.device.DeviceState;
+import org.opendaylight.openflowplugin.api.openflow.device.MessageTranslator;
 import org.opendaylight.openflowplugin.api.openflow.device.RequestContext;
 import org.opendaylight.openflowplugin.api.openflow.device.TranslatorLibrary;
 import org.opendaylight.openflowplugin.api.openflow.device.Xid;
+import org.opendaylight.openflowplugin.api.openflow.md.core.TranslatorKey;
 import org.opendaylight.openflowplugin.api.openflow.statistics.ofpspecific.MessageIntelligenceAgency;
+import org.opendaylight.openflowplugin.api.openflow.statistics.ofpspecific.MessageSpy;
+import org.opendaylight.openflowplugin.impl.registry.flow.FlowDescriptorFactory;
+import org.opendaylight.openflowplugin.impl.registry.flow.FlowRegistryKeyFactory;
 import org.opendaylight.openflowplugin.impl.util.DeviceStateUtil;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.service.rev130819.FlowRemovedBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.FlowCookie;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.flow.MatchBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeId;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.NodeKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.common.types.rev130731.TableId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.protocol.rev130731.FlowRemoved;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.protocol.rev130731.FlowRemovedMessageBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.protocol.rev130731.GetAsyncReply;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.protocol.rev130731.MultipartReply;
 import org.opendaylight.yangtools.concepts.Registration;
 import org.opendaylight.yangtools.yang.binding.KeyedInstanceIdentifier;
+import org.opendaylight.yangtools.yang.binding.Notification;
 import org.opendaylight.yangtools.yang.common.RpcResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -83,6 +100,10 @@ public class DeviceContextImplTest {
     TranslatorLibrary translatorLibrary;
     @Mock
     Registration registration;
+    @Mock
+    NotificationPublishService notificationPublishService;
+    @Mock
+    MessageTranslator<FlowRemoved, org.opendaylight.yang.gen.v1.urn.opendaylight.flow.service.rev130819.FlowRemoved> flowRemovedTranslator;
 
     private final AtomicLong atomicLong = new AtomicLong(0);
 
@@ -119,8 +140,21 @@ public class DeviceContextImplTest {
         Mockito.when(dataBroker.newReadOnlyTransaction()).thenReturn(rTx);
         Mockito.when(connectionContext.getOutboundQueueProvider()).thenReturn(outboundQueueProvider);
         Mockito.when(connectionContext.getConnectionAdapter()).thenReturn(connectionAdapter);
+        Mockito.when(deviceState.getVersion()).thenReturn(OFConstants.OFP_VERSION_1_3);
+        Mockito.doReturn(flowRemovedTranslator).when(translatorLibrary).lookupTranslator(
+                new TranslatorKey(OFConstants.OFP_VERSION_1_3, FlowRemoved.class.getName()));
+        Mockito.when(flowRemovedTranslator.translate(any(FlowRemoved.class), any(DeviceContextImpl.class), Mockito.isNull()))
+                .thenAnswer(new Answer<org.opendaylight.yang.gen.v1.urn.opendaylight.flow.service.rev130819.FlowRemoved>() {
+                    @Override
+                    public org.opendaylight.yang.gen.v1.urn.opendaylight.flow.service.rev130819.FlowRemoved answer(final InvocationOnMock invocation) {
+                        final FlowRemoved flowRemoved = (FlowRemoved) invocation.getArguments()[0];
+                        return createFlowRemovedNotification(flowRemoved.getPriority());
+                    }
+                });
         deviceContext = new DeviceContextImpl(connectionContext, deviceState, dataBroker, timer, messageIntelligenceAgency, outboundQueueProvider, translatorLibrary, txChainManager);
 
+        deviceContext.setNotificationPublishService(notificationPublishService);
+
         xid = new Xid(atomicLong.incrementAndGet());
         xidMulti = new Xid(atomicLong.incrementAndGet());
     }
@@ -154,5 +188,71 @@ public class DeviceContextImplTest {
         Assert.assertEquals(rTx, readTx);
     }
 
+    /**
+     * flood of flowRemoved messages: known flows get removed from registry and operational DS in batches,
+     * every message gets published
+     */
+    @Test
+    public void testProcessFlowRemovedMessageFlood() {
+        final int flowRemovedCount = 20000;
+        final int knownFlowCount = flowRemovedCount / 2;
+        txChainManager.enableSubmit();
+        Mockito.doReturn(Futures.immediateFuture(null)).when(notificationPublishService).offerNotification(any(Notification.class));
+        for (int i = 0; i < knownFlowCount; i++) {
+            deviceContext.getDeviceFlowRegistry().store(FlowRegistryKeyFactory.create(createFlowRemovedNotification(i)),
+                    FlowDescriptorFactory.create((short) 0, new FlowId("flow" + i)));
+        }
+
+        final long start = System.nanoTime();
+        for (int i = 0; i < flowRemovedCount; i++) {
+            deviceContext.processFlowRemovedMessage(createFlowRemovedMessage(i));
+        }
+        final long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        LOG.info("{} flowRemoved messages processed in {} ms ({} msg/s)", flowRemovedCount, elapsedMillis,
+                flowRemovedCount * 1000L / elapsedMillis);
+
+        Assert.assertTrue(deviceContext.getDeviceFlowRegistry().getAllFlowDescriptors().isEmpty());
+        Mockito.verify(wTx, Mockito.times(knownFlowCount)).delete(Mockito.eq(LogicalDatastoreType.OPERATIONAL), any(KeyedInstanceIdentifier.class));
+        // deletes are submitted per batch, not per message
+        Mockito.verify(wTx, Mockito.times(knownFlowCount / 100)).submit();
+        Mockito.verify(notificationPublishService, Mockito.times(flowRemovedCount)).offerNotification(any(Notification.class));
+    }
+
+    /**
+     * flowRemoved notifications not yet published are bounded, the rest gets dropped
+     */
+    @Test
+    public void testProcessFlowRemovedMessageLimited() {
+        final SettableFuture<Object> neverPublished = SettableFuture.create();
+        Mockito.doReturn(neverPublished).when(notificationPublishService).offerNotification(any(Notification.class));
+
+        for (int i = 0; i < 5000; i++) {
+            deviceContext.processFlowRemovedMessage(createFlowRemovedMessage(i));
+        }
+
+        Mockito.verify(notificationPublishService, Mockito.times(1000)).offerNotification(any(Notification.class));
+        Mockito.verify(messageIntelligenceAgency, Mockito.times(4000)).spyMessage(
+                org.opendaylight.yang.gen.v1.urn.opendaylight.flow.service.rev130819.FlowRemoved.class,
+                MessageSpy.STATISTIC_GROUP.FROM_SWITCH_NOTIFICATION_REJECTED);
+    }
+
+    private static FlowRemoved createFlowRemovedMessage(final int priority) {
+        return new FlowRemovedMessageBuilder()
+                .setVersion(OFConstants.OFP_VERSION_1_3)
+                .setTableId(new TableId(0L))
+                .setPriority(priority)
+                .setCookie(BigInteger.ONE)
+                .build();
+    }
+
+    private org.opendaylight.yang.gen.v1.urn.opendaylight.flow.service.rev130819.FlowRemoved createFlowRemovedNotification(final int priority) {
+        return new FlowRemovedBuilder()
+                .setTableId((short) 0)
+                .setPriority(priority)
+                .setCookie(new FlowCookie(BigInteger.ONE))
+                .setMatch(new MatchBuilder().build())
+                .build();
+    }
+
 
 }
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.openflowplugin.impl.registry.group;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.types.rev131018.GroupId;
+
+/**
+ * test of {@link DeviceGroupRegistryImpl}
+ */
+public class DeviceGroupRegistryImplTest {
+
+    private static final int GROUP_COUNT = 20000;
+
+    private DeviceGroupRegistryImpl deviceGroupRegistry;
+
+    @Before
+    public void setUp() {
+        deviceGroupRegistry = new DeviceGroupRegistryImpl();
+    }
+
+    @After
+    public void tearDown() {
+        deviceGroupRegistry.close();
+    }
+
+    @Test
+    public void testStoreIsIdempotent() {
+        for (int cycle = 0; cycle < 3; cycle++) {
+            for (long i = 0; i < 10; i++) {
+                deviceGroupRegistry.store(new GroupId(i));
+            }
+        }
+        assertEquals(10, deviceGroupRegistry.getAllGroupIds().size());
+    }
+
+    @Test
+    public void testRemoveMarked() {
+        deviceGroupRegistry.store(new GroupId(1L));
+        deviceGroupRegistry.store(new GroupId(2L));
+        deviceGroupRegistry.markToBeremoved(new GroupId(1L));
+        assertEquals(2, deviceGroupRegistry.getAllGroupIds().size());
+
+        deviceGroupRegistry.removeMarked();
+        final List<GroupId> groupIds = deviceGroupRegistry.getAllGroupIds();
+        assertEquals(1, groupIds.size());
+        assertEquals(new GroupId(2L), groupIds.get(0));
+
+        // marks are consumed
+        deviceGroupRegistry.store(new GroupId(1L));
+        deviceGroupRegistry.removeMarked();
+        assertEquals(2, deviceGroupRegistry.getAllGroupIds().size());
+    }
+
+    @Test
+    public void testSnapshot() {
+        deviceGroupRegistry.store(new GroupId(1L));
+        final List<GroupId> snapshot = deviceGroupRegistry.getAllGroupIds();
+        deviceGroupRegistry.store(new GroupId(2L));
+        assertEquals(1, snapshot.size());
+    }
+
+    /**
+     * statistics cycles (iterate, remove marked, store) racing with rpc add/remove
+     */
+    @Test
+    public void testConcurrentStatisticsAndRpcUpdates() throws Exception {
+        for (long i = 0; i < GROUP_COUNT; i += 4) {
+            deviceGroupRegistry.store(new GroupId(i));
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        final CountDownLatch start = new CountDownLatch(1);
+        try {
+            final Future<?> statistics = executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    start.await();
+                    for (int cycle = 0; cycle < 20; cycle++) {
+                        for (final GroupId groupId : deviceGroupRegistry.getAllGroupIds()) {
+                            assertTrue(groupId.getValue() < GROUP_COUNT);
+                        }
+                        deviceGroupRegistry.removeMarked();
+                        for (long i = 2; i < GROUP_COUNT; i += 4) {
+                            deviceGroupRegistry.store(new GroupId(i));
+                        }
+                    }
+                    return null;
+                }
+            });
+            final Future<?> rpcAdd = executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    start.await();
+                    for (long i = 1; i < GROUP_COUNT; i += 2) {
+                        deviceGroupRegistry.store(new GroupId(i));
+                    }
+                    return null;
+                }
+            });
+            final Future<?> rpcRemove = executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    start.await();
+                    for (long i = 0; i < GROUP_COUNT; i += 4) {
+                        deviceGroupRegistry.markToBeremoved(new GroupId(i));
+                    }
+                    return null;
+                }
+            });
+
+            start.countDown();
+            statistics.get(30, TimeUnit.SECONDS);
+            rpcAdd.get(30, TimeUnit.SECONDS);
+            rpcRemove.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        deviceGroupRegistry.removeMarked();
+        final List<GroupId> groupIds = deviceGroupRegistry.getAllGroupIds();
+        final Set<GroupId> unique = new HashSet<>(groupIds);
+        assertEquals(groupIds.size(), unique.size());
+        assertEquals(GROUP_COUNT / 4 * 3, unique.size());
+        for (long i = 0; i < GROUP_COUNT; i++) {
+            assertEquals(i % 4 != 0, unique.contains(new GroupId(i)));
+        }
+    }
+}
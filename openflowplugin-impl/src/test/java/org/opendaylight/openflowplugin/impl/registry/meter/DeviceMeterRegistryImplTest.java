@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.openflowplugin.impl.registry.meter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import org.junit.Test;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.meter.types.rev130918.MeterId;
+
+/**
+ * test of {@link DeviceMeterRegistryImpl}
+ */
+public class DeviceMeterRegistryImplTest {
+
+    @Test
+    public void testStoreMarkRemove() {
+        final DeviceMeterRegistryImpl deviceMeterRegistry = new DeviceMeterRegistryImpl();
+        for (int cycle = 0; cycle < 3; cycle++) {
+            deviceMeterRegistry.store(new MeterId(1L));
+            deviceMeterRegistry.store(new MeterId(2L));
+        }
+        assertEquals(2, deviceMeterRegistry.getAllMeterIds().size());
+
+        deviceMeterRegistry.markToBeremoved(new MeterId(1L));
+        deviceMeterRegistry.removeMarked();
+        final List<MeterId> meterIds = deviceMeterRegistry.getAllMeterIds();
+        assertEquals(1, meterIds.size());
+        assertEquals(new MeterId(2L), meterIds.get(0));
+
+        deviceMeterRegistry.close();
+        assertTrue(deviceMeterRegistry.getAllMeterIds().isEmpty());
+    }
+}
@@ -0,0 +1,384 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.impl.services;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.local.LocalAddress;
+import io.netty.channel.local.LocalChannel;
+import io.netty.channel.local.LocalEventLoopGroup;
+import io.netty.channel.local.LocalServerChannel;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+import org.opendaylight.openflowjava.protocol.api.connection.OutboundQueue;
+import org.opendaylight.openflowjava.protocol.impl.core.OFEncoder;
+import org.opendaylight.openflowjava.protocol.impl.core.connection.ConnectionAdapterImpl;
+import org.opendaylight.openflowjava.protocol.impl.serialization.SerializationFactory;
+import org.opendaylight.openflowjava.protocol.impl.serialization.SerializerRegistryImpl;
+import org.opendaylight.openflowplugin.api.OFConstants;
+import org.opendaylight.openflowplugin.api.openflow.connection.ConnectionContext;
+import org.opendaylight.openflowplugin.api.openflow.device.DeviceContext;
+import org.opendaylight.openflowplugin.api.openflow.device.RequestContext;
+import org.opendaylight.openflowplugin.api.openflow.device.RequestContextStack;
+import org.opendaylight.openflowplugin.api.openflow.device.RequestPriority;
+import org.opendaylight.openflowplugin.api.openflow.statistics.ofpspecific.MessageSpy;
+import org.opendaylight.openflowplugin.impl.connection.OutboundQueueProviderImpl;
+import org.opendaylight.openflowplugin.impl.rpc.AbstractRequestContext;
+import org.opendaylight.openflowplugin.openflow.md.util.OpenflowPortsUtil;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeConnectorId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeConnectorRef;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeRef;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.Nodes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.node.NodeConnector;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.node.NodeConnectorKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.NodeKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.common.types.rev130731.PortNumber;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.protocol.rev130731.BarrierOutputBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.protocol.rev130731.FeaturesReply;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.protocol.rev130731.OfHeader;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.protocol.rev130731.PacketOutInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.packet.service.rev130709.TransmitPacketInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.packet.service.rev130709.TransmitPacketInputBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.packet.service.rev130709.TransmitPacketsInputBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.packet.service.rev130709.transmit.packets.input.Packet;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.packet.service.rev130709.transmit.packets.input.PacketBuilder;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.opendaylight.yangtools.yang.common.RpcResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Test of packet-out templates against loopback outbound queue and of bulk packet-out
+ * against outbound queue of openflowjava writing to a local channel.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class PacketProcessingServiceImplTest {
+    private static final Logger LOG = LoggerFactory.getLogger(PacketProcessingServiceImplTest.class);
+
+    private static final String NODE_ID = "openflow:1";
+    private static final int PACKETS = 10000;
+    private static final int QUEUE_DEPTH = 1024;
+    private static final short OFPT_PACKET_OUT = 13;
+    private static final short OFPT_BARRIER_REQUEST = 20;
+    /** header, buffer_id, in_port, actions_len and pad */
+    private static final int PACKET_OUT_FIXED_LENGTH = 24;
+
+    @Mock
+    private DeviceContext deviceContext;
+    @Mock
+    private ConnectionContext connectionContext;
+    @Mock
+    private FeaturesReply features;
+    @Mock
+    private OutboundQueue outboundQueue;
+    @Mock
+    private MessageSpy messageSpy;
+    @Mock
+    private RequestContextStack requestContextStack;
+
+    private final AtomicLong xidSequence = new AtomicLong();
+    private final List<PacketOutInput> sent = new ArrayList<>();
+    private PacketProcessingServiceImpl service;
+
+    private EventLoopGroup eventLoop;
+    private Channel controllerChannel;
+    private ConnectionAdapterImpl connectionAdapter;
+    /** xids and payloads of packet-outs received by the switch side, in order */
+    private final List<Long> wireXids = Collections.synchronizedList(new ArrayList<Long>());
+    private final List<byte[]> wirePayloads = Collections.synchronizedList(new ArrayList<byte[]>());
+
+    @Before
+    public void setUp() {
+        OpenflowPortsUtil.init();
+        when(deviceContext.getPrimaryConnectionContext()).thenReturn(connectionContext);
+        when(deviceContext.getMessageSpy()).thenReturn(messageSpy);
+        when(connectionContext.getFeatures()).thenReturn(features);
+        when(connectionContext.getOutboundQueueProvider()).thenReturn(outboundQueue);
+        when(features.getDatapathId()).thenReturn(BigInteger.ONE);
+        when(features.getVersion()).thenReturn(OFConstants.OFP_VERSION_1_3);
+        when(requestContextStack.admitRequestContext(any(RequestPriority.class))).thenAnswer(
+                new Answer<ListenableFuture<RequestContext<Void>>>() {
+                    @Override
+                    public ListenableFuture<RequestContext<Void>> answer(final InvocationOnMock invocation) {
+                        final RequestContext<Void> context = new AbstractRequestContext<Void>(xidSequence.incrementAndGet()) {
+                            @Override
+                            public void close() {
+                                // NOOP
+                            }
+                        };
+                        return Futures.immediateFuture(context);
+                    }
+                });
+
+        // loopback - every committed message is delivered right away
+        doAnswer(new Answer<Void>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Void answer(final InvocationOnMock invocation) {
+                final PacketOutInput message = (PacketOutInput) invocation.getArguments()[1];
+                final FutureCallback<OfHeader> callback = (FutureCallback<OfHeader>) invocation.getArguments()[2];
+                sent.add(message);
+                callback.onSuccess(null);
+                return null;
+            }
+        }).when(outboundQueue).commitEntry(anyLong(), any(OfHeader.class), any(FutureCallback.class));
+
+        service = new PacketProcessingServiceImpl(requestContextStack, deviceContext);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (eventLoop != null) {
+            eventLoop.shutdownGracefully().sync();
+        }
+    }
+
+    @Test
+    public void testTransmitPacket() throws Exception {
+        final RpcResult<Void> result = service.transmitPacket(createInput("2", "3")).get();
+        assertTrue(result.isSuccessful());
+        assertEquals(1, sent.size());
+        assertEquals(new PortNumber(3L), sent.get(0).getInPort());
+        assertEquals(new byte[] {1, 2, 3}.length, sent.get(0).getData().length);
+        // payload is not copied on the way to the wire
+        assertSame(sent.get(0).getData(), sent.get(0).getData());
+    }
+
+    /**
+     * Packets to the same egress share one action list
+     */
+    @Test
+    public void testActionTemplates() throws Exception {
+        service.transmitPacket(createInput("2", null)).get();
+        service.transmitPacket(createInput("2", null)).get();
+        service.transmitPacket(createInput("4", null)).get();
+
+        assertSame(sent.get(0).getAction(), sent.get(1).getAction());
+        assertFalse(sent.get(0).getAction().equals(sent.get(2).getAction()));
+        assertEquals(new PortNumber(0xfffffffdL), sent.get(0).getInPort());
+    }
+
+    /**
+     * Many packets to a few egress ports through loopback outbound queue
+     */
+    @Test
+    public void testLoopbackThroughput() throws Exception {
+        final long start = System.nanoTime();
+        for (int i = 0; i < PACKETS; i++) {
+            assertTrue(service.transmitPacket(createInput(String.valueOf(1 + i % 8), "9")).get().isSuccessful());
+        }
+        final long elapsed = System.nanoTime() - start;
+
+        assertEquals(PACKETS, sent.size());
+        assertSame(sent.get(0).getAction(), sent.get(8).getAction());
+        assertSame(sent.get(0).getInPort(), sent.get(PACKETS - 1).getInPort());
+        LOG.info("Loopback packet-out: {} packets in {} us", PACKETS, elapsed / 1000);
+    }
+
+    /**
+     * Bulk packet-out through outbound queue of openflowjava - all packets reach the wire
+     * in order, under distinct xids, with theirs payloads intact
+     */
+    @Test
+    public void testTransmitPacketsOnOutboundQueue() throws Exception {
+        connectOutboundQueue();
+        final List<Packet> packets = new ArrayList<>(PACKETS);
+        for (int i = 0; i < PACKETS; i++) {
+            packets.add(new PacketBuilder()
+                    .setEgress(createNodeConnectorRef(String.valueOf(1 + i % 8)))
+                    .setIngress(createNodeConnectorRef("9"))
+                    .setPayload(createPayload(i))
+                    .build());
+        }
+
+        final long start = System.nanoTime();
+        final RpcResult<Void> result = service.transmitPackets(new TransmitPacketsInputBuilder()
+                .setNode(new NodeRef(createNodePath()))
+                .setPacket(packets)
+                .build()).get(10, TimeUnit.SECONDS);
+        final long elapsed = System.nanoTime() - start;
+
+        assertTrue(result.isSuccessful());
+        assertEquals(PACKETS, wirePayloads.size());
+        for (int i = 0; i < PACKETS; i++) {
+            assertArrayEquals(createPayload(i), wirePayloads.get(i));
+            if (i > 0) {
+                assertTrue(wireXids.get(i) > wireXids.get(i - 1));
+            }
+        }
+        LOG.info("Bulk packet-out: {} packets in {} us", PACKETS, elapsed / 1000);
+    }
+
+    @Test
+    public void testTransmitPacketsEmpty() throws Exception {
+        final RpcResult<Void> result = service.transmitPackets(new TransmitPacketsInputBuilder()
+                .setNode(new NodeRef(createNodePath()))
+                .setPacket(Collections.<Packet>emptyList())
+                .build()).get();
+
+        assertTrue(result.isSuccessful());
+        assertTrue(sent.isEmpty());
+    }
+
+    /**
+     * Connects openflowjava connection adapter to a local channel of switch side, which collects
+     * packet-outs and answers barriers. Xids of the service are reserved on the real outbound queue.
+     */
+    private void connectOutboundQueue() throws Exception {
+        eventLoop = new LocalEventLoopGroup();
+        final LocalAddress address = new LocalAddress(PacketProcessingServiceImplTest.class.getSimpleName());
+        new ServerBootstrap().group(eventLoop).channel(LocalServerChannel.class)
+                .childHandler(new ChannelInitializer<LocalChannel>() {
+                    @Override
+                    protected void initChannel(final LocalChannel ch) {
+                        ch.pipeline().addLast(new SwitchHandler());
+                    }
+                }).bind(address).sync();
+
+        final SerializerRegistryImpl registry = new SerializerRegistryImpl();
+        registry.init();
+        final SerializationFactory serializationFactory = new SerializationFactory();
+        serializationFactory.setSerializerTable(registry);
+        final OFEncoder encoder = new OFEncoder();
+        encoder.setSerializationFactory(serializationFactory);
+
+        controllerChannel = new Bootstrap().group(eventLoop).channel(LocalChannel.class)
+                .handler(encoder).connect(address).sync().channel();
+        connectionAdapter = new ConnectionAdapterImpl(controllerChannel, null);
+        final OutboundQueueProviderImpl outboundQueueProvider = new OutboundQueueProviderImpl(OFConstants.OFP_VERSION_1_3);
+        connectionAdapter.registerOutboundQueueHandler(outboundQueueProvider, QUEUE_DEPTH,
+                TimeUnit.MILLISECONDS.toNanos(100));
+
+        when(connectionContext.getOutboundQueueProvider()).thenReturn(outboundQueueProvider);
+        when(deviceContext.getReservedXid()).thenAnswer(new Answer<Long>() {
+            @Override
+            public Long answer(final InvocationOnMock invocation) {
+                return outboundQueueProvider.reserveEntry();
+            }
+        });
+        when(requestContextStack.admitRequestContext(any(RequestPriority.class))).thenAnswer(
+                new Answer<ListenableFuture<RequestContext<Void>>>() {
+                    @Override
+                    public ListenableFuture<RequestContext<Void>> answer(final InvocationOnMock invocation) {
+                        final RequestContext<Void> context = new AbstractRequestContext<Void>(outboundQueueProvider.reserveEntry()) {
+                            @Override
+                            public void close() {
+                                // NOOP
+                            }
+                        };
+                        return Futures.immediateFuture(context);
+                    }
+                });
+    }
+
+    /**
+     * Switch side of local channel
+     */
+    private final class SwitchHandler extends SimpleChannelInboundHandler<ByteBuf> {
+        private final ByteBuf pending = Unpooled.buffer();
+
+        @Override
+        protected void channelRead0(final ChannelHandlerContext ctx, final ByteBuf msg) {
+            pending.writeBytes(msg);
+            while (pending.readableBytes() >= 8) {
+                final int length = pending.getUnsignedShort(pending.readerIndex() + 2);
+                if (pending.readableBytes() < length) {
+                    return;
+                }
+                final ByteBuf message = pending.readSlice(length);
+                final short type = message.getUnsignedByte(1);
+                final long xid = message.getUnsignedInt(4);
+                if (type == OFPT_PACKET_OUT) {
+                    final int actionsLength = message.getUnsignedShort(16);
+                    final byte[] payload = new byte[length - PACKET_OUT_FIXED_LENGTH - actionsLength];
+                    message.getBytes(PACKET_OUT_FIXED_LENGTH + actionsLength, payload);
+                    wireXids.add(xid);
+                    wirePayloads.add(payload);
+                } else if (type == OFPT_BARRIER_REQUEST) {
+                    answerBarrier(xid);
+                }
+            }
+            pending.discardReadBytes();
+        }
+    }
+
+    /**
+     * Barrier reply is consumed on the event loop of controller channel, as the inbound path would do
+     */
+    private void answerBarrier(final long xid) {
+        controllerChannel.eventLoop().execute(new Runnable() {
+            @Override
+            public void run() {
+                connectionAdapter.consume(new BarrierOutputBuilder()
+                        .setVersion(OFConstants.OFP_VERSION_1_3).setXid(xid).build());
+            }
+        });
+    }
+
+    private static byte[] createPayload(final int seed) {
+        final byte[] payload = new byte[64 + seed % 64];
+        for (int i = 0; i < payload.length; i++) {
+            payload[i] = (byte) (seed + i);
+        }
+        return payload;
+    }
+
+    private static TransmitPacketInput createInput(final String egressPort, final String ingressPort) {
+        final TransmitPacketInputBuilder builder = new TransmitPacketInputBuilder()
+                .setNode(new NodeRef(createNodePath()))
+                .setEgress(createNodeConnectorRef(egressPort))
+                .setPayload(new byte[] {1, 2, 3});
+        if (ingressPort != null) {
+            builder.setIngress(createNodeConnectorRef(ingressPort));
+        }
+        return builder.build();
+    }
+
+    private static InstanceIdentifier<Node> createNodePath() {
+        return InstanceIdentifier.create(Nodes.class).child(Node.class, new NodeKey(new NodeId(NODE_ID)));
+    }
+
+    private static NodeConnectorRef createNodeConnectorRef(final String port) {
+        return new NodeConnectorRef(createNodePath().child(NodeConnector.class,
+                new NodeConnectorKey(new NodeConnectorId(NODE_ID + ":" + port))));
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.openflowplugin.impl.statistics;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.openflowplugin.api.openflow.device.DeviceContext;
+import org.opendaylight.openflowplugin.api.openflow.device.DeviceState;
+import org.opendaylight.openflowplugin.impl.registry.group.DeviceGroupRegistryImpl;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNode;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.statistics.rev131111.GroupDescStatsUpdated;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.statistics.rev131111.GroupDescStatsUpdatedBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.types.rev131018.GroupId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.types.rev131018.group.desc.stats.reply.GroupDescStats;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.types.rev131018.group.desc.stats.reply.GroupDescStatsBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.types.rev131018.groups.Group;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.group.types.rev131018.groups.GroupKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.Nodes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.NodeKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.common.types.rev130731.MultipartType;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.opendaylight.yangtools.yang.binding.KeyedInstanceIdentifier;
+
+/**
+ * test of {@link OnTheFlyStatisticsWriter}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class OnTheFlyStatisticsWriterTest {
+
+    @Mock
+    private DeviceContext deviceContext;
+    @Mock
+    private DeviceState deviceState;
+
+    private DeviceGroupRegistryImpl deviceGroupRegistry;
+    private OnTheFlyStatisticsWriter statisticsWriter;
+    private InstanceIdentifier<FlowCapableNode> fNodeIdent;
+
+    @Before
+    public void setUp() {
+        final KeyedInstanceIdentifier<Node, NodeKey> nodePath = InstanceIdentifier.create(Nodes.class)
+                .child(Node.class, new NodeKey(new NodeId("openflow:1")));
+        fNodeIdent = nodePath.augmentation(FlowCapableNode.class);
+        deviceGroupRegistry = new DeviceGroupRegistryImpl();
+        when(deviceState.getNodeInstanceIdentifier()).thenReturn(nodePath);
+        when(deviceContext.getDeviceState()).thenReturn(deviceState);
+        when(deviceContext.getDeviceGroupRegistry()).thenReturn(deviceGroupRegistry);
+        statisticsWriter = new OnTheFlyStatisticsWriter(deviceContext);
+    }
+
+    /**
+     * group missing in second cycle gets swept, reported groups are only rewritten
+     */
+    @Test
+    public void testSweepUnseenGroups() {
+        collectGroups(1L, 2L);
+        verify(deviceContext, never()).addDeleteToTxChain(eq(LogicalDatastoreType.OPERATIONAL), any(InstanceIdentifier.class));
+        Assert.assertEquals(2, deviceGroupRegistry.getAllGroupIds().size());
+
+        collectGroups(1L);
+        verify(deviceContext).addDeleteToTxChain(LogicalDatastoreType.OPERATIONAL, groupPath(2L));
+        verify(deviceContext, never()).addDeleteToTxChain(LogicalDatastoreType.OPERATIONAL, groupPath(1L));
+        verify(deviceContext, times(2)).writeToTransaction(eq(LogicalDatastoreType.OPERATIONAL), eq(groupPath(1L)), any(Group.class));
+        Assert.assertEquals(Collections.singletonList(new GroupId(1L)), deviceGroupRegistry.getAllGroupIds());
+    }
+
+    /**
+     * unfinished cycle sweeps nothing, its items are swept by next finished cycle
+     */
+    @Test
+    public void testUnfinishedCycle() {
+        collectGroups(1L, 2L);
+
+        statisticsWriter.startCycle(MultipartType.OFPMPGROUPDESC);
+        statisticsWriter.write(MultipartType.OFPMPGROUPDESC, groupDescReply(3L));
+
+        collectGroups(1L);
+        verify(deviceContext).addDeleteToTxChain(LogicalDatastoreType.OPERATIONAL, groupPath(2L));
+        verify(deviceContext).addDeleteToTxChain(LogicalDatastoreType.OPERATIONAL, groupPath(3L));
+    }
+
+    private void collectGroups(final long... groupIds) {
+        statisticsWriter.startCycle(MultipartType.OFPMPGROUPDESC);
+        statisticsWriter.write(MultipartType.OFPMPGROUPDESC, groupDescReply(groupIds));
+        statisticsWriter.finishCycle(MultipartType.OFPMPGROUPDESC);
+    }
+
+    private static List<GroupDescStatsUpdated> groupDescReply(final long... groupIds) {
+        final List<GroupDescStats> groupDescStats = new ArrayList<>();
+        for (final long groupId : groupIds) {
+            groupDescStats.add(new GroupDescStatsBuilder().setGroupId(new GroupId(groupId)).build());
+        }
+        return Collections.singletonList(new GroupDescStatsUpdatedBuilder().setGroupDescStats(groupDescStats).build());
+    }
+
+    private InstanceIdentifier<Group> groupPath(final long groupId) {
+        return fNodeIdent.child(Group.class, new GroupKey(new GroupId(groupId)));
+    }
+}
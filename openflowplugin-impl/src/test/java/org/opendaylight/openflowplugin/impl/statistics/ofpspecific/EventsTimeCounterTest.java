@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.openflowplugin.impl.statistics.ofpspecific;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.openflowplugin.api.openflow.statistics.ofpspecific.EventIdentifier;
+
+/**
+ * test of {@link EventsTimeCounter}
+ */
+public class EventsTimeCounterTest {
+
+    @Before
+    public void setUp() {
+        EventsTimeCounter.resetAllCounters();
+    }
+
+    @After
+    public void tearDown() {
+        EventsTimeCounter.resetAllCounters();
+    }
+
+    /**
+     * started event is listed before it ends, duration is recorded on end
+     */
+    @Test
+    public void testMarkStartEnd() {
+        final EventIdentifier eventIdentifier = new EventIdentifier("FLOW", "openflow:1");
+        final long startToken = EventsTimeCounter.markStart(eventIdentifier);
+        Assert.assertEquals(0, EventsTimeCounter.getInstance().getEventTimes().get(0).getCount());
+        EventsTimeCounter.markEnd(eventIdentifier, startToken);
+
+        final List<EventTimeSnapshot> eventTimes = EventsTimeCounter.getInstance().getEventTimes();
+        Assert.assertEquals(1, eventTimes.size());
+        Assert.assertEquals("openflow:1", eventTimes.get(0).getDeviceId());
+        Assert.assertEquals("FLOW", eventTimes.get(0).getEventName());
+        Assert.assertEquals(1, eventTimes.get(0).getCount());
+        Assert.assertTrue(eventTimes.get(0).getP999Micros() <= eventTimes.get(0).getMaxMicros());
+
+        final List<String> dump = EventsTimeCounter.provideTimes();
+        Assert.assertEquals("DEVICE : openflow:1", dump.get(1));
+        Assert.assertEquals("FLOW", dump.get(2));
+    }
+
+    /**
+     * start which never ends (failed request) does not shift durations of later occurrences
+     */
+    @Test
+    public void testOrphanedStart() throws Exception {
+        final EventIdentifier eventIdentifier = new EventIdentifier("GROUP_STATS", "openflow:1");
+        EventsTimeCounter.markStart(eventIdentifier);
+        TimeUnit.MILLISECONDS.sleep(20L);
+        for (int i = 0; i < 3; i++) {
+            final long startToken = EventsTimeCounter.markStart(eventIdentifier);
+            EventsTimeCounter.markEnd(eventIdentifier, startToken);
+        }
+
+        final EventTimeSnapshot eventTime = EventsTimeCounter.getInstance().getEventTimes().get(0);
+        Assert.assertEquals(3, eventTime.getCount());
+        Assert.assertTrue(eventTime.getMaxMicros() < TimeUnit.MILLISECONDS.toMicros(20L));
+    }
+
+    /**
+     * overlapping occurrences of the same event end in any order with their own durations
+     */
+    @Test
+    public void testOverlappingStarts() throws Exception {
+        final EventIdentifier eventIdentifier = new EventIdentifier("GROUP_STATS", "openflow:1");
+        final long firstToken = EventsTimeCounter.markStart(eventIdentifier);
+        TimeUnit.MILLISECONDS.sleep(20L);
+        final long secondToken = EventsTimeCounter.markStart(eventIdentifier);
+        EventsTimeCounter.markEnd(eventIdentifier, secondToken);
+        EventsTimeCounter.markEnd(eventIdentifier, firstToken);
+
+        final EventTimeSnapshot eventTime = EventsTimeCounter.getInstance().getEventTimes().get(0);
+        Assert.assertEquals(2, eventTime.getCount());
+        Assert.assertTrue(eventTime.getMaxMicros() >= TimeUnit.MILLISECONDS.toMicros(20L));
+        Assert.assertTrue(eventTime.getMinMicros() < TimeUnit.MILLISECONDS.toMicros(20L));
+    }
+
+    /**
+     * interval snapshot holds only durations recorded since previous one, aggregate sums devices up
+     */
+    @Test
+    public void testIntervalAndEventTypeTimes() {
+        final EventIdentifier device1 = new EventIdentifier("PORT_STATS", "openflow:1");
+        final EventIdentifier device2 = new EventIdentifier("PORT_STATS", "openflow:2");
+        EventsTimeCounter.markEnd(device1, EventsTimeCounter.markStart(device1));
+        EventsTimeCounter.markEnd(device2, EventsTimeCounter.markStart(device2));
+
+        final List<EventTimeSnapshot> eventTypeTimes = EventsTimeCounter.getInstance().getEventTypeTimes();
+        Assert.assertEquals(1, eventTypeTimes.size());
+        Assert.assertEquals(EventsTimeCounter.ALL_DEVICES, eventTypeTimes.get(0).getDeviceId());
+        Assert.assertEquals(2, eventTypeTimes.get(0).getCount());
+
+        Assert.assertEquals(1, EventsTimeCounter.getInstance().getIntervalEventTimes().get(0).getCount());
+        Assert.assertEquals(0, EventsTimeCounter.getInstance().getIntervalEventTimes().get(0).getCount());
+        Assert.assertEquals(1, EventsTimeCounter.getInstance().getEventTimes().get(0).getCount());
+    }
+
+    /**
+     * concurrent recording from many threads loses nothing
+     */
+    @Test
+    public void testConcurrentRecording() throws Exception {
+        final int threads = 8;
+        final int eventsPerThread = 1000;
+        final ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        final CountDownLatch done = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            final EventIdentifier eventIdentifier = new EventIdentifier("DESC", "openflow:" + i);
+            executorService.execute(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < eventsPerThread; j++) {
+                        final long startToken = EventsTimeCounter.markStart(eventIdentifier);
+                        EventsTimeCounter.markEnd(eventIdentifier, startToken);
+                    }
+                    done.countDown();
+                }
+            });
+        }
+        Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+        executorService.shutdown();
+
+        Assert.assertEquals(threads, EventsTimeCounter.getInstance().getEventTimes().size());
+        Assert.assertEquals(threads * eventsPerThread, EventsTimeCounter.getInstance().getEventTypeTimes().get(0).getCount());
+    }
+}
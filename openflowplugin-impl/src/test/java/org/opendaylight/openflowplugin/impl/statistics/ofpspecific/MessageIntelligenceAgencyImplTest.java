@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.openflowplugin.impl.statistics.ofpspecific;
+
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.openflowplugin.api.openflow.statistics.ofpspecific.MessageSpy;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.protocol.rev130731.EchoInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.protocol.rev130731.PacketInMessage;
+
+/**
+ * test of {@link MessageIntelligenceAgencyImpl}
+ */
+public class MessageIntelligenceAgencyImplTest {
+
+    private MessageIntelligenceAgencyImpl messageIntelligenceAgency;
+
+    @Before
+    public void setUp() {
+        messageIntelligenceAgency = new MessageIntelligenceAgencyImpl();
+    }
+
+    /**
+     * device counters are kept apart and summed up in aggregated view once window gets closed
+     */
+    @Test
+    public void testDeviceCounters() {
+        final MessageSpy device1 = messageIntelligenceAgency.getDeviceSpy(new NodeId("openflow:1"));
+        final MessageSpy device2 = messageIntelligenceAgency.getDeviceSpy(new NodeId("openflow:2"));
+        Assert.assertSame(device1, messageIntelligenceAgency.getDeviceSpy(new NodeId("openflow:1")));
+
+        device1.spyMessage(PacketInMessage.class, MessageSpy.STATISTIC_GROUP.FROM_SWITCH);
+        device1.spyMessage(PacketInMessage.class, MessageSpy.STATISTIC_GROUP.FROM_SWITCH);
+        device2.spyMessage(PacketInMessage.class, MessageSpy.STATISTIC_GROUP.FROM_SWITCH);
+        messageIntelligenceAgency.run();
+
+        long device1Count = 0;
+        long device2Count = 0;
+        for (MessageCounterSnapshot counter : messageIntelligenceAgency.getMessageCounters()) {
+            if ("openflow:1".equals(counter.getDeviceId())) {
+                device1Count += counter.getCumulativeCount();
+            } else if ("openflow:2".equals(counter.getDeviceId())) {
+                device2Count += counter.getCumulativeCount();
+            }
+        }
+        Assert.assertEquals(2, device1Count);
+        Assert.assertEquals(1, device2Count);
+
+        final List<String> intelligence = messageIntelligenceAgency.provideIntelligence();
+        Assert.assertTrue(intelligence.get(0).startsWith("FROM_SWITCH: MSG[PacketInMessage] -> +3 | 3"));
+
+        messageIntelligenceAgency.run();
+        Assert.assertTrue(messageIntelligenceAgency.provideIntelligence().get(0).startsWith("FROM_SWITCH: MSG[PacketInMessage] -> +0 | 3"));
+
+        messageIntelligenceAgency.resetStatistics();
+        messageIntelligenceAgency.run();
+        Assert.assertTrue(messageIntelligenceAgency.provideIntelligence().get(0).startsWith("FROM_SWITCH: MSG[PacketInMessage] -> +0 | 0"));
+        Assert.assertTrue(messageIntelligenceAgency.getDeviceIds().contains("openflow:1"));
+    }
+
+    /**
+     * request latency gets recorded once per xid, unknown xid is ignored
+     */
+    @Test
+    public void testRequestLatency() {
+        final MessageSpy device = messageIntelligenceAgency.getDeviceSpy(new NodeId("openflow:1"));
+        device.spyRequestSent(EchoInput.class, 42L);
+        Assert.assertEquals(1, messageIntelligenceAgency.getPendingRequests());
+
+        device.spyResponseReceived(42L);
+        device.spyResponseReceived(42L);
+        device.spyResponseReceived(43L);
+        Assert.assertEquals(0, messageIntelligenceAgency.getPendingRequests());
+
+        final List<RequestLatencySnapshot> latencies = messageIntelligenceAgency.getRequestLatencies();
+        Assert.assertEquals(1, latencies.size());
+        Assert.assertEquals("openflow:1", latencies.get(0).getDeviceId());
+        Assert.assertEquals("EchoInput", latencies.get(0).getRequestType());
+        Assert.assertEquals(1, latencies.get(0).getCount());
+        Assert.assertTrue(latencies.get(0).getP99Micros() <= latencies.get(0).getMaxMicros());
+    }
+
+    /**
+     * device spy is shared while any device context holds it and dropped after the last release
+     */
+    @Test
+    public void testReleaseDeviceSpy() {
+        final NodeId nodeId = new NodeId("openflow:1");
+        final MessageSpy first = messageIntelligenceAgency.getDeviceSpy(nodeId);
+        final MessageSpy second = messageIntelligenceAgency.getDeviceSpy(nodeId);
+        Assert.assertSame(first, second);
+        Assert.assertTrue(messageIntelligenceAgency.getDeviceIds().contains("openflow:1"));
+
+        messageIntelligenceAgency.releaseDeviceSpy(nodeId);
+        Assert.assertTrue(messageIntelligenceAgency.getDeviceIds().contains("openflow:1"));
+
+        messageIntelligenceAgency.releaseDeviceSpy(nodeId);
+        Assert.assertFalse(messageIntelligenceAgency.getDeviceIds().contains("openflow:1"));
+        Assert.assertTrue(messageIntelligenceAgency.getDeviceIds().contains(MessageIntelligenceAgencyImpl.UNASSIGNED_DEVICE));
+
+        // releasing unknown device is harmless, reconnected device gets fresh counters
+        messageIntelligenceAgency.releaseDeviceSpy(nodeId);
+        Assert.assertNotSame(first, messageIntelligenceAgency.getDeviceSpy(nodeId));
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.impl.translator;
+
+import java.math.BigInteger;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.opendaylight.openflowplugin.api.OFConstants;
+import org.opendaylight.openflowplugin.api.openflow.connection.ConnectionContext;
+import org.opendaylight.openflowplugin.api.openflow.device.DeviceContext;
+import org.opendaylight.openflowplugin.api.openflow.device.DeviceState;
+import org.opendaylight.openflowplugin.api.openflow.registry.flow.FlowRegistryKey;
+import org.opendaylight.openflowplugin.impl.registry.flow.FlowRegistryKeyFactory;
+import org.opendaylight.openflowplugin.impl.util.DeviceStateUtil;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.service.rev130819.FlowRemoved;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.common.types.rev130731.TableId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.oxm.rev150225.match.entries.grouping.MatchEntry;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.oxm.rev150225.match.grouping.MatchBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.protocol.rev130731.FeaturesReply;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.protocol.rev130731.FlowRemovedMessage;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.protocol.rev130731.FlowRemovedMessageBuilder;
+
+/**
+ * test of {@link FlowRemovedTranslator}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class FlowRemovedTranslatorTest {
+
+    @Mock
+    ConnectionContext connectionContext;
+    @Mock
+    FeaturesReply featuresReply;
+    @Mock
+    DeviceState deviceState;
+    @Mock
+    DeviceContext deviceContext;
+
+    @Before
+    public void setUp() throws Exception {
+        Mockito.when(deviceContext.getPrimaryConnectionContext()).thenReturn(connectionContext);
+        Mockito.when(deviceContext.getDeviceState()).thenReturn(deviceState);
+        Mockito.when(deviceState.getNodeInstanceIdentifier()).thenReturn(DeviceStateUtil.createNodeInstanceIdentifier(new NodeId("openflow:10")));
+        Mockito.when(connectionContext.getFeatures()).thenReturn(featuresReply);
+        Mockito.when(featuresReply.getDatapathId()).thenReturn(BigInteger.TEN);
+    }
+
+    @Test
+    public void testTranslate() throws Exception {
+        final FlowRemovedTranslator flowRemovedTranslator = new FlowRemovedTranslator();
+        final FlowRemovedMessage flowRemovedMessage = new FlowRemovedMessageBuilder()
+                .setVersion(OFConstants.OFP_VERSION_1_3)
+                .setTableId(new TableId(3L))
+                .setPriority(42)
+                .setCookie(BigInteger.ONE)
+                .setIdleTimeout(10)
+                .setHardTimeout(20)
+                .setMatch(new MatchBuilder().setMatchEntry(Collections.<MatchEntry>emptyList()).build())
+                .build();
+
+        final FlowRemoved flowRemoved = flowRemovedTranslator.translate(flowRemovedMessage, deviceContext, null);
+        Assert.assertEquals(3, flowRemoved.getTableId().shortValue());
+        Assert.assertEquals(42, flowRemoved.getPriority().intValue());
+        Assert.assertEquals(BigInteger.ONE, flowRemoved.getCookie().getValue());
+        Assert.assertEquals(10, flowRemoved.getIdleTimeout().intValue());
+        Assert.assertNotNull(flowRemoved.getMatch());
+        Assert.assertNotNull(flowRemoved.getNode());
+
+        final FlowRegistryKey flowRegistryKey = FlowRegistryKeyFactory.create(flowRemoved);
+        Assert.assertEquals(flowRegistryKey, FlowRegistryKeyFactory.create(flowRemovedTranslator.translate(flowRemovedMessage, deviceContext, null)));
+    }
+}
@@ -11,8 +11,6 @@ package org.opendaylight.openflowplugin.openflow.md.core;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.util.concurrent.Futures;
 import java.util.concurrent.Future;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import org.opendaylight.openflowjava.protocol.api.connection.ConnectionAdapter;
 import org.opendaylight.openflowjava.protocol.api.connection.ConnectionReadyListener;
@@ -38,7 +36,6 @@ import org.opendaylight.openflowplugin.openflow.md.queue.QueueKeeperFactory;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.common.types.rev130731.MultipartRequestFlags;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.common.types.rev130731.MultipartType;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.protocol.rev130731.EchoInputBuilder;
-import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.protocol.rev130731.EchoOutput;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.protocol.rev130731.EchoReplyInputBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.protocol.rev130731.EchoRequestMessage;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.protocol.rev130731.ErrorMessage;
@@ -62,8 +59,6 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.system.rev130927.D
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.system.rev130927.SwitchIdleEvent;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.system.rev130927.SystemNotificationsListener;
 import org.opendaylight.yangtools.yang.binding.DataObject;
-import org.opendaylight.yangtools.yang.common.RpcError;
-import org.opendaylight.yangtools.yang.common.RpcResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -101,7 +96,7 @@ public class ConnectionConductorImpl implements OpenflowProtocolListener,
 
     private QueueProcessor<OfHeader, DataObject> queueProcessor;
     private QueueKeeper<OfHeader> queue;
-    private ThreadPoolExecutor hsPool;
+    private HandshakeService.Lane hsPool;
     private HandshakeManager handshakeManager;
 
     private boolean firstHelloProcessed;
@@ -112,6 +107,8 @@ public class ConnectionConductorImpl implements OpenflowProtocolListener,
 
     private int ingressMaxQueueSize;
     private HandshakeContext handshakeContext;
+    private KeepaliveEngine keepaliveEngine = KeepaliveEngine.getInstance();
+    private final HandshakeService handshakeService = HandshakeService.getInstance();
 
     /**
      * @param connectionAdapter
@@ -140,15 +137,17 @@ public class ConnectionConductorImpl implements OpenflowProtocolListener,
 
     @Override
     public void init() {
-        int handshakeThreadLimit = 1;
-        hsPool = new ThreadPoolLoggingExecutor(handshakeThreadLimit,
-                handshakeThreadLimit, 0L, TimeUnit.MILLISECONDS,
-                new LinkedBlockingQueue<Runnable>(), "OFHandshake-"
-                + conductorId);
+        hsPool = handshakeService.createLane("OFHandshake-" + conductorId, new Runnable() {
+            @Override
+            public void run() {
+                disconnect();
+            }
+        });
 
         connectionAdapter.setMessageListener(this);
         connectionAdapter.setSystemListener(this);
         connectionAdapter.setConnectionReadyListener(this);
+        keepaliveEngine.register(connectionAdapter);
         WaterMarkListener waterMarkListener = new WaterMarkListenerImpl(
                 connectionAdapter);
         queue = QueueKeeperFactory.createFairQueueKeeper(queueProcessor,
@@ -172,19 +171,15 @@ public class ConnectionConductorImpl implements OpenflowProtocolListener,
 
     @Override
     public void onEchoRequestMessage(final EchoRequestMessage echoRequestMessage) {
-        new Thread(new Runnable() {
-            @Override
-            public void run() {
-                LOG.debug("echo request received: "
-                        + echoRequestMessage.getXid());
-                EchoReplyInputBuilder builder = new EchoReplyInputBuilder();
-                builder.setVersion(echoRequestMessage.getVersion());
-                builder.setXid(echoRequestMessage.getXid());
-                builder.setData(echoRequestMessage.getData());
-
-                getConnectionAdapter().echoReply(builder.build());
-            }
-        }).start();
+        // answered inline - writing reply does not block I/O thread
+        LOG.debug("echo request received: {}", echoRequestMessage.getXid());
+        EchoReplyInputBuilder builder = new EchoReplyInputBuilder();
+        builder.setVersion(echoRequestMessage.getVersion());
+        builder.setXid(echoRequestMessage.getXid());
+        builder.setData(echoRequestMessage.getData());
+
+        getConnectionAdapter().echoReply(builder.build());
+        keepaliveEngine.echoRequestAnswered(connectionAdapter);
     }
 
     @Override
@@ -239,7 +234,7 @@ public class ConnectionConductorImpl implements OpenflowProtocolListener,
         checkState(CONDUCTOR_STATE.HANDSHAKING);
         HandshakeStepWrapper handshakeStepWrapper = new HandshakeStepWrapper(
                 hello, handshakeManager, connectionAdapter);
-        hsPool.submit(handshakeStepWrapper);
+        hsPool.execute(handshakeStepWrapper);
     }
 
     /**
@@ -316,58 +311,49 @@ public class ConnectionConductorImpl implements OpenflowProtocolListener,
 
     @Override
     public void onSwitchIdleEvent(SwitchIdleEvent notification) {
-        new Thread(new Runnable() {
-            @Override
-            public void run() {
-                if (!CONDUCTOR_STATE.WORKING.equals(getConductorState())) {
-                    // idle state in any other conductorState than WORKING means
-                    // real
-                    // problem and wont be handled by echoReply, but
-                    // disconnection
-                    disconnect();
-                    OFSessionUtil.getSessionManager().invalidateOnDisconnect(
-                            ConnectionConductorImpl.this);
-                } else {
-                    LOG.debug(
-                            "first idle state occured, sessionCtx={}|auxId={}",
-                            sessionContext, auxiliaryKey);
-                    EchoInputBuilder builder = new EchoInputBuilder();
-                    builder.setVersion(getVersion());
-                    builder.setXid(getSessionContext().getNextXid());
-
-                    Future<RpcResult<EchoOutput>> echoReplyFuture = getConnectionAdapter()
-                            .echo(builder.build());
-
-                    try {
-                        RpcResult<EchoOutput> echoReplyValue = echoReplyFuture
-                                .get(getMaxTimeout(), getMaxTimeoutUnit());
-                        if (echoReplyValue.isSuccessful()) {
-                            setConductorState(CONDUCTOR_STATE.WORKING);
-                        } else {
-                            for (RpcError replyError : echoReplyValue
-                                    .getErrors()) {
-                                Throwable cause = replyError.getCause();
-                                LOG.error(
-                                        "while receiving echoReply in TIMEOUTING state: "
-                                                + cause.getMessage(), cause);
+        if (!CONDUCTOR_STATE.WORKING.equals(getConductorState())) {
+            // idle state in any other conductorState than WORKING means real
+            // problem and wont be handled by echoReply, but disconnection
+            keepaliveEngine.execute(new Runnable() {
+                @Override
+                public void run() {
+                    disconnectAndInvalidate();
+                }
+            });
+            return;
+        }
+
+        LOG.debug("first idle state occured, sessionCtx={}|auxId={}",
+                sessionContext, auxiliaryKey);
+        EchoInputBuilder builder = new EchoInputBuilder();
+        builder.setVersion(getVersion());
+        builder.setXid(getSessionContext().getNextXid());
+
+        keepaliveEngine.probe(connectionAdapter, builder.build(), getMaxTimeout(), getMaxTimeoutUnit(),
+                new KeepaliveEngine.ProbeCallback() {
+                    @Override
+                    public void onAlive() {
+                        setConductorState(CONDUCTOR_STATE.WORKING);
+                    }
+
+                    @Override
+                    public void onFailure(final Throwable cause) {
+                        // switch is not responding - closing may block, leave I/O thread
+                        keepaliveEngine.execute(new Runnable() {
+                            @Override
+                            public void run() {
+                                LOG.error("while waiting for echoReply in TIMEOUTING state: {}", cause.getMessage());
+                                errorHandler.handleException(cause, sessionContext);
+                                disconnectAndInvalidate();
                             }
-                            // switch issue occurred
-                            throw new Exception("switch issue occurred");
-                        }
-                    } catch (Exception e) {
-                        LOG.error("while waiting for echoReply in TIMEOUTING state: "
-                                + e.getMessage());
-                        errorHandler.handleException(e, sessionContext);
-                        // switch is not responding
-                        disconnect();
-                        OFSessionUtil.getSessionManager()
-                                .invalidateOnDisconnect(
-                                        ConnectionConductorImpl.this);
+                        });
                     }
-                }
-            }
+                });
+    }
 
-        }).start();
+    private void disconnectAndInvalidate() {
+        disconnect();
+        OFSessionUtil.getSessionManager().invalidateOnDisconnect(this);
     }
 
     /**
@@ -502,8 +488,7 @@ public class ConnectionConductorImpl implements OpenflowProtocolListener,
         }
 
         OFSessionUtil.registerSession(this, featureOutput, negotiatedVersion);
-        hsPool.shutdown();
-        hsPool.purge();
+        hsPool.succeeded();
         conductorState = CONDUCTOR_STATE.WORKING;
         QueueKeeperFactory.plugQueue(queueProcessor, queue);
     }
@@ -580,6 +565,7 @@ public class ConnectionConductorImpl implements OpenflowProtocolListener,
     @Override
     public void close() {
         conductorState = CONDUCTOR_STATE.RIP;
+        keepaliveEngine.unregister(connectionAdapter);
         if (handshakeContext != null) {
             try {
                 handshakeContext.close();
@@ -587,26 +573,11 @@ public class ConnectionConductorImpl implements OpenflowProtocolListener,
                 LOG.warn("Closing handshake context failed: {}", e.getMessage());
                 LOG.debug("Detail in hanshake context close:", e);
             }
-        } else {
-            //This condition will occure when Old Helium openflowplugin implementation will be used.
-            shutdownPoolPolitely();
         }
-    }
-
-    private void shutdownPoolPolitely() {
-        LOG.debug("Terminating handshake pool for node {}", connectionAdapter.getRemoteAddress());
-        hsPool.shutdown();
-        try {
-            hsPool.awaitTermination(1, TimeUnit.SECONDS);
-        } catch (InterruptedException e) {
-            LOG.debug("Error while awaiting termination of pool. Will force shutdown now.");
-        } finally {
-            hsPool.purge();
-            if (!hsPool.isTerminated()) {
-                hsPool.shutdownNow();
-            }
-            LOG.debug("is handshake pool for node {} is terminated : {}",
-                    connectionAdapter.getRemoteAddress(), hsPool.isTerminated());
+        if (hsPool != null) {
+            // releases handshake admission if still held, pending steps are dropped
+            LOG.debug("Terminating handshake lane for node {}", connectionAdapter.getRemoteAddress());
+            hsPool.shutdown();
         }
     }
 
@@ -616,7 +587,12 @@ public class ConnectionConductorImpl implements OpenflowProtocolListener,
     }
 
     @VisibleForTesting
-    ThreadPoolExecutor getHsPool() {
+    void setKeepaliveEngine(KeepaliveEngine keepaliveEngine) {
+        this.keepaliveEngine = keepaliveEngine;
+    }
+
+    @VisibleForTesting
+    HandshakeService.Lane getHsPool() {
         return hsPool;
     }
 }
@@ -9,7 +9,6 @@ package org.opendaylight.openflowplugin.openflow.md.core;
 
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
-import com.google.common.util.concurrent.JdkFutureAdapters;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
 import java.util.List;
@@ -320,8 +319,7 @@ public class HandshakeManagerImpl implements HandshakeManager {
 
         Future<RpcResult<Void>> helloResult = connectionAdapter.hello(helloInput);
 
-        ListenableFuture<RpcResult<Void>> rpcResultListenableFuture = JdkFutureAdapters.listenInPoolThread(helloResult);
-        Futures.addCallback(rpcResultListenableFuture, new FutureCallback<RpcResult<Void>>() {
+        HandshakeService.addCallback(helloResult, new FutureCallback<RpcResult<Void>>() {
             @Override
             public void onSuccess(RpcResult<Void> result) {
                 if (result.isSuccessful()) {
@@ -372,7 +370,7 @@ public class HandshakeManagerImpl implements HandshakeManager {
         Future<RpcResult<GetFeaturesOutput>> featuresFuture = connectionAdapter
                 .getFeatures(featuresBuilder.build());
 
-        Futures.addCallback(JdkFutureAdapters.listenInPoolThread(featuresFuture),
+        HandshakeService.addCallback(featuresFuture,
                 new FutureCallback<RpcResult<GetFeaturesOutput>>() {
                     @Override
                     public void onSuccess(RpcResult<GetFeaturesOutput> rpcFeatures) {
@@ -407,6 +405,7 @@ public class HandshakeManagerImpl implements HandshakeManager {
                         LOG.warn("getting feature failed seriously [{}, addr:{}]: {}", xid,
                                 connectionAdapter.getRemoteAddress(), t.getMessage());
                         LOG.trace("DETAIL of sending of hello failure:", t);
+                        handshakeListener.onHandshakeFailure();
                     }
                 });
 
@@ -0,0 +1,495 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.openflow.md.core;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Handshake processing shared by all connections. Handshake steps of every connection run in order
+ * on one fixed worker pool, at most {@link #getMaxConcurrentHandshakes()} connections are being
+ * handshaken at the same time - the rest waits for admission in arrival (FIFO) order. Rpc replies
+ * are consumed via callbacks, so no thread is blocked per outstanding hello or features request.
+ * Handshake latency and queue wait are exposed via {@link HandshakeServiceMXBean}.
+ */
+public final class HandshakeService implements HandshakeServiceMXBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HandshakeService.class);
+
+    /** default limit of concurrently running handshakes */
+    public static final int DEFAULT_MAX_CONCURRENT_HANDSHAKES = 200;
+    /** default max time from admission to finished handshake [ms] */
+    public static final long DEFAULT_HANDSHAKE_TIMEOUT = 30000;
+    /** idle worker lifetime [s] */
+    private static final long WORKER_KEEP_ALIVE = 60;
+    /** poll period for rpc futures not supporting listeners [ms] */
+    private static final long POLL_PERIOD = 20;
+
+    private static final HandshakeService INSTANCE = new HandshakeService(
+            Math.max(2, Runtime.getRuntime().availableProcessors()),
+            DEFAULT_MAX_CONCURRENT_HANDSHAKES, DEFAULT_HANDSHAKE_TIMEOUT);
+
+    private final ThreadPoolExecutor workers;
+    private final ScheduledThreadPoolExecutor timer;
+    private final long handshakeTimeout;
+
+    private final Object admissionLock = new Object();
+    private final Deque<Lane> waiting = new ArrayDeque<>();
+    private int active;
+    private volatile int maxConcurrentHandshakes;
+
+    private final AtomicLong handshakesSucceeded = new AtomicLong();
+    private final AtomicLong handshakesFailed = new AtomicLong();
+    private final AtomicLong handshakesTimedOut = new AtomicLong();
+    private final AtomicLong handshakeNanosTotal = new AtomicLong();
+    private final AtomicLong handshakeNanosMax = new AtomicLong();
+    private final AtomicLong admissions = new AtomicLong();
+    private final AtomicLong queueWaitNanosTotal = new AtomicLong();
+    private final AtomicLong queueWaitNanosMax = new AtomicLong();
+
+    /**
+     * @param workerCount size of worker pool
+     * @param maxConcurrentHandshakes limit of concurrently running handshakes
+     * @param handshakeTimeout max time from admission to finished handshake [ms]
+     */
+    @VisibleForTesting
+    HandshakeService(final int workerCount, final int maxConcurrentHandshakes, final long handshakeTimeout) {
+        Preconditions.checkArgument(workerCount > 0, "workerCount must be positive");
+        setMaxConcurrentHandshakes(maxConcurrentHandshakes);
+        this.handshakeTimeout = handshakeTimeout;
+        workers = new ThreadPoolLoggingExecutor(workerCount, workerCount, WORKER_KEEP_ALIVE, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), "OFHandshake");
+        workers.allowCoreThreadTimeOut(true);
+        timer = new ScheduledThreadPoolExecutor(1,
+                new ThreadFactoryBuilder().setNameFormat("OFHandshakeTimer-%d").setDaemon(true).build());
+        timer.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * @return shared service
+     */
+    public static HandshakeService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param name connection identification used in logs
+     * @param abortTask invoked on worker thread if handshake does not finish in time (expected to
+     * disconnect the switch)
+     * @return handshake lane of one connection, requests admission upon first step
+     */
+    public Lane createLane(final String name, final Runnable abortTask) {
+        return new Lane(name, abortTask);
+    }
+
+    /**
+     * Hook callback to rpc result. Result already available is processed on calling thread,
+     * otherwise the callback runs on handshake worker - never on the thread completing the future
+     * (typically I/O thread) and without blocking any thread while waiting.
+     *
+     * @param future rpc result
+     * @param callback result consumer
+     * @param <V> result type
+     */
+    public static <V> void addCallback(final Future<V> future, final FutureCallback<? super V> callback) {
+        INSTANCE.hookCallback(future, callback);
+    }
+
+    private <V> void hookCallback(final Future<V> future, final FutureCallback<? super V> callback) {
+        if (future.isDone()) {
+            deliver(future, callback);
+        } else if (future instanceof ListenableFuture) {
+            Futures.addCallback((ListenableFuture<V>) future, callback, workers);
+        } else {
+            timer.schedule(new ResultPoller<>(future, callback), POLL_PERIOD, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static <V> void deliver(final Future<V> future, final FutureCallback<? super V> callback) {
+        final V result;
+        try {
+            result = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            callback.onFailure(e);
+            return;
+        } catch (ExecutionException e) {
+            callback.onFailure(e.getCause());
+            return;
+        } catch (RuntimeException e) {
+            callback.onFailure(e);
+            return;
+        }
+        callback.onSuccess(result);
+    }
+
+    private void requestAdmission(final Lane lane) {
+        boolean admitted = false;
+        synchronized (admissionLock) {
+            if (active < maxConcurrentHandshakes) {
+                active++;
+                admitted = true;
+            } else {
+                waiting.add(lane);
+            }
+        }
+        if (admitted) {
+            lane.admitted();
+        } else {
+            LOG.debug("handshake of {} waiting for admission", lane.name);
+        }
+    }
+
+    /**
+     * @return true if lane was still waiting (false means it has already been admitted)
+     */
+    private boolean withdraw(final Lane lane) {
+        synchronized (admissionLock) {
+            return waiting.remove(lane);
+        }
+    }
+
+    private void release() {
+        Lane next;
+        synchronized (admissionLock) {
+            active--;
+            next = waiting.poll();
+            if (next != null) {
+                active++;
+            }
+        }
+        if (next != null) {
+            next.admitted();
+        }
+    }
+
+    private void admitWaiting() {
+        final List<Lane> admitted = new ArrayList<>();
+        synchronized (admissionLock) {
+            while (active < maxConcurrentHandshakes && !waiting.isEmpty()) {
+                admitted.add(waiting.poll());
+                active++;
+            }
+        }
+        for (Lane lane : admitted) {
+            lane.admitted();
+        }
+    }
+
+    private static void updateMax(final AtomicLong max, final long value) {
+        long current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    @Override
+    public int getMaxConcurrentHandshakes() {
+        return maxConcurrentHandshakes;
+    }
+
+    @Override
+    public void setMaxConcurrentHandshakes(final int maxConcurrentHandshakes) {
+        Preconditions.checkArgument(maxConcurrentHandshakes > 0, "maxConcurrentHandshakes must be positive");
+        this.maxConcurrentHandshakes = maxConcurrentHandshakes;
+        admitWaiting();
+    }
+
+    @Override
+    public int getActiveHandshakes() {
+        synchronized (admissionLock) {
+            return active;
+        }
+    }
+
+    @Override
+    public int getWaitingHandshakes() {
+        synchronized (admissionLock) {
+            return waiting.size();
+        }
+    }
+
+    @Override
+    public long getHandshakesSucceeded() {
+        return handshakesSucceeded.get();
+    }
+
+    @Override
+    public long getHandshakesFailed() {
+        return handshakesFailed.get();
+    }
+
+    @Override
+    public long getHandshakesTimedOut() {
+        return handshakesTimedOut.get();
+    }
+
+    @Override
+    public long getAverageHandshakeMillis() {
+        final long succeeded = handshakesSucceeded.get();
+        return succeeded == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(handshakeNanosTotal.get() / succeeded);
+    }
+
+    @Override
+    public long getMaxHandshakeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(handshakeNanosMax.get());
+    }
+
+    @Override
+    public long getAverageQueueWaitMillis() {
+        final long admitted = admissions.get();
+        return admitted == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(queueWaitNanosTotal.get() / admitted);
+    }
+
+    @Override
+    public long getMaxQueueWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(queueWaitNanosMax.get());
+    }
+
+    @Override
+    public void resetStatistics() {
+        handshakesSucceeded.set(0);
+        handshakesFailed.set(0);
+        handshakesTimedOut.set(0);
+        handshakeNanosTotal.set(0);
+        handshakeNanosMax.set(0);
+        admissions.set(0);
+        queueWaitNanosTotal.set(0);
+        queueWaitNanosMax.set(0);
+    }
+
+    private enum LaneState {
+        /** no step submitted yet */
+        NEW,
+        /** waiting for admission */
+        WAITING,
+        /** steps are being processed */
+        ADMITTED,
+        /** handshake finished or abandoned, steps are dropped */
+        DONE
+    }
+
+    /**
+     * Handshake steps of one connection - executed one after another on shared workers, once the
+     * connection got admitted. Admission is held until {@link #succeeded()} or {@link #shutdown()}.
+     */
+    public final class Lane {
+        private final String name;
+        private final Runnable abortTask;
+        private final Queue<Runnable> steps = new ArrayDeque<>();
+        private LaneState state = LaneState.NEW;
+        private boolean draining;
+        private long enqueuedNanos;
+        private long admittedNanos;
+        private ScheduledFuture<?> timeoutTask;
+
+        private final Runnable drainTask = new Runnable() {
+            @Override
+            public void run() {
+                drain();
+            }
+        };
+
+        private Lane(final String name, final Runnable abortTask) {
+            this.name = name;
+            this.abortTask = abortTask;
+        }
+
+        /**
+         * @param step handshake step, runs after all previously submitted steps of this lane
+         */
+        public void execute(final Runnable step) {
+            synchronized (this) {
+                if (state == LaneState.DONE) {
+                    LOG.debug("handshake of {} already finished - dropping step", name);
+                    return;
+                }
+                steps.add(step);
+                if (state == LaneState.ADMITTED) {
+                    scheduleDrain();
+                    return;
+                }
+                if (state == LaneState.WAITING) {
+                    return;
+                }
+                state = LaneState.WAITING;
+                enqueuedNanos = System.nanoTime();
+            }
+            requestAdmission(this);
+        }
+
+        /**
+         * handshake finished successfully - record latency, release admission, drop pending steps
+         */
+        public void succeeded() {
+            final long admittedAt;
+            synchronized (this) {
+                admittedAt = admittedNanos;
+            }
+            if (finish() == LaneState.ADMITTED) {
+                final long handshakeNanos = System.nanoTime() - admittedAt;
+                handshakesSucceeded.incrementAndGet();
+                handshakeNanosTotal.addAndGet(handshakeNanos);
+                updateMax(handshakeNanosMax, handshakeNanos);
+            }
+        }
+
+        /**
+         * handshake failed or connection closed - release admission, drop pending steps
+         */
+        public void shutdown() {
+            if (finish() == LaneState.ADMITTED) {
+                handshakesFailed.incrementAndGet();
+            }
+        }
+
+        /**
+         * @return true if lane does not accept steps any more
+         */
+        public synchronized boolean isShutdown() {
+            return state == LaneState.DONE;
+        }
+
+        private LaneState finish() {
+            final LaneState previousState;
+            synchronized (this) {
+                previousState = state;
+                state = LaneState.DONE;
+                steps.clear();
+                if (timeoutTask != null) {
+                    timeoutTask.cancel(false);
+                    timeoutTask = null;
+                }
+            }
+            if (previousState == LaneState.ADMITTED) {
+                release();
+            } else if (previousState == LaneState.WAITING && !withdraw(this)) {
+                // admission granted concurrently - admitted() will see DONE and release it
+                LOG.trace("handshake of {} finished while being admitted", name);
+            }
+            return previousState;
+        }
+
+        private void admitted() {
+            final boolean abandoned;
+            synchronized (this) {
+                abandoned = state == LaneState.DONE;
+                if (!abandoned) {
+                    state = LaneState.ADMITTED;
+                    admittedNanos = System.nanoTime();
+                    timeoutTask = timer.schedule(new Runnable() {
+                        @Override
+                        public void run() {
+                            timedOut();
+                        }
+                    }, handshakeTimeout, TimeUnit.MILLISECONDS);
+                    scheduleDrain();
+                }
+            }
+            if (abandoned) {
+                // finished while being admitted - hand the slot over outside of lane lock
+                release();
+                return;
+            }
+            final long queueWaitNanos = admittedNanos - enqueuedNanos;
+            admissions.incrementAndGet();
+            queueWaitNanosTotal.addAndGet(queueWaitNanos);
+            updateMax(queueWaitNanosMax, queueWaitNanos);
+            LOG.trace("handshake of {} admitted after {} ms", name, TimeUnit.NANOSECONDS.toMillis(queueWaitNanos));
+        }
+
+        private void timedOut() {
+            if (finish() != LaneState.ADMITTED) {
+                return;
+            }
+            handshakesTimedOut.incrementAndGet();
+            handshakesFailed.incrementAndGet();
+            LOG.warn("handshake of {} not finished within {} ms - aborting", name, handshakeTimeout);
+            if (abortTask != null) {
+                workers.execute(abortTask);
+            }
+        }
+
+        /** guarded by this */
+        private void scheduleDrain() {
+            if (!draining && !steps.isEmpty()) {
+                draining = true;
+                workers.execute(drainTask);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                final Runnable step;
+                synchronized (this) {
+                    step = state == LaneState.ADMITTED ? steps.poll() : null;
+                    if (step == null) {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    step.run();
+                } catch (RuntimeException e) {
+                    LOG.warn("handshake step of {} failed", name, e);
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /**
+     * completion check of rpc future without listener support - reschedules itself until done
+     */
+    private final class ResultPoller<V> implements Runnable {
+        private final Future<V> future;
+        private final FutureCallback<? super V> callback;
+
+        ResultPoller(final Future<V> future, final FutureCallback<? super V> callback) {
+            this.future = future;
+            this.callback = callback;
+        }
+
+        @Override
+        public void run() {
+            if (!future.isDone()) {
+                timer.schedule(this, POLL_PERIOD, TimeUnit.MILLISECONDS);
+                return;
+            }
+            workers.execute(new Runnable() {
+                @Override
+                public void run() {
+                    deliver(future, callback);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.openflow.md.core;
+
+/**
+ * JMX view and tuning of {@link HandshakeService}
+ */
+public interface HandshakeServiceMXBean {
+
+    /**
+     * @return max amount of handshakes running at the same time
+     */
+    int getMaxConcurrentHandshakes();
+
+    /**
+     * @param maxConcurrentHandshakes max amount of handshakes running at the same time (waiting
+     * handshakes get admitted immediately if the limit was raised)
+     */
+    void setMaxConcurrentHandshakes(int maxConcurrentHandshakes);
+
+    /**
+     * @return amount of handshakes currently admitted
+     */
+    int getActiveHandshakes();
+
+    /**
+     * @return amount of handshakes waiting for admission
+     */
+    int getWaitingHandshakes();
+
+    /**
+     * @return amount of handshakes finished successfully since start
+     */
+    long getHandshakesSucceeded();
+
+    /**
+     * @return amount of handshakes failed or aborted since start
+     */
+    long getHandshakesFailed();
+
+    /**
+     * @return amount of handshakes not finished within timeout since start
+     */
+    long getHandshakesTimedOut();
+
+    /**
+     * @return average time from admission to successful handshake [ms]
+     */
+    long getAverageHandshakeMillis();
+
+    /**
+     * @return longest time from admission to successful handshake [ms]
+     */
+    long getMaxHandshakeMillis();
+
+    /**
+     * @return average time spent waiting for admission [ms]
+     */
+    long getAverageQueueWaitMillis();
+
+    /**
+     * @return longest time spent waiting for admission [ms]
+     */
+    long getMaxQueueWaitMillis();
+
+    /**
+     * reset latency and counter statistics
+     */
+    void resetStatistics();
+}
@@ -0,0 +1,355 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.openflow.md.core;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.opendaylight.openflowjava.protocol.api.connection.ConnectionAdapter;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.protocol.rev130731.EchoInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.protocol.rev130731.EchoOutput;
+import org.opendaylight.yangtools.yang.common.RpcError;
+import org.opendaylight.yangtools.yang.common.RpcResult;
+
+/**
+ * Liveness monitoring shared by all connections. Echo probes are sent asynchronously, reply or
+ * failure is delivered through callback and timeouts are driven by one small shared timer - no
+ * thread is created or blocked per probe. Round trip time and missed probes are tracked per
+ * connection and exposed via {@link KeepaliveEngineMXBean}.
+ */
+public final class KeepaliveEngine implements KeepaliveEngineMXBean {
+
+    /** timer threads - run timeouts and the (possibly slow) disconnect follow-ups */
+    private static final int TIMER_THREADS = 2;
+    /** poll period for echo futures not supporting listeners [ms] */
+    private static final long POLL_PERIOD = 50;
+
+    private static final KeepaliveEngine INSTANCE = new KeepaliveEngine();
+
+    private final ScheduledThreadPoolExecutor timer;
+    private final ConcurrentMap<ConnectionAdapter, LivenessStats> livenessStats = new ConcurrentHashMap<>();
+    private final AtomicLong probesSent = new AtomicLong();
+    private final AtomicLong probesMissed = new AtomicLong();
+
+    @VisibleForTesting
+    KeepaliveEngine() {
+        timer = new ScheduledThreadPoolExecutor(TIMER_THREADS,
+                new ThreadFactoryBuilder().setNameFormat("OFKeepalive-%d").setDaemon(true).build());
+        timer.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * @return shared engine
+     */
+    public static KeepaliveEngine getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * outcome of liveness probe
+     */
+    public interface ProbeCallback {
+        /**
+         * echo reply arrived in time
+         */
+        void onAlive();
+
+        /**
+         * @param cause echo failed or reply did not arrive in time
+         */
+        void onFailure(Throwable cause);
+    }
+
+    /**
+     * record echo request answered by controller on behalf of given connection
+     *
+     * @param connectionAdapter connection
+     */
+    public void echoRequestAnswered(final ConnectionAdapter connectionAdapter) {
+        final LivenessStats stats = statsFor(connectionAdapter);
+        if (stats != null) {
+            stats.echoRequestsAnswered.incrementAndGet();
+        }
+    }
+
+    /**
+     * send echo request and report outcome via callback - callback is invoked exactly once, either
+     * on thread completing echo future or on timer thread. Per connection statistics are only
+     * recorded for {@link #register(ConnectionAdapter) registered} connections.
+     *
+     * @param connectionAdapter connection to probe
+     * @param echoInput echo request
+     * @param timeout max time to wait for reply
+     * @param unit unit of timeout
+     * @param callback outcome consumer
+     */
+    public void probe(final ConnectionAdapter connectionAdapter, final EchoInput echoInput,
+            final long timeout, final TimeUnit unit, final ProbeCallback callback) {
+        final LivenessStats stats = statsFor(connectionAdapter);
+        final ProbeOutcome outcome = new ProbeOutcome(stats, callback);
+        probesSent.incrementAndGet();
+        if (stats != null) {
+            stats.probesSent.incrementAndGet();
+        }
+
+        final Future<RpcResult<EchoOutput>> echoFuture = connectionAdapter.echo(echoInput);
+        outcome.timeoutTask = timer.schedule(new Runnable() {
+            @Override
+            public void run() {
+                if (outcome.settle()) {
+                    echoFuture.cancel(false);
+                    outcome.missed(new TimeoutException("echo reply not received within "
+                            + timeout + " " + unit));
+                }
+            }
+        }, timeout, unit);
+
+        if (echoFuture instanceof ListenableFuture) {
+            Futures.addCallback((ListenableFuture<RpcResult<EchoOutput>>) echoFuture,
+                    new FutureCallback<RpcResult<EchoOutput>>() {
+                        @Override
+                        public void onSuccess(final RpcResult<EchoOutput> result) {
+                            outcome.completed(result);
+                        }
+
+                        @Override
+                        public void onFailure(final Throwable t) {
+                            outcome.failed(t);
+                        }
+                    });
+        } else {
+            timer.schedule(new EchoPoller(echoFuture, outcome), POLL_PERIOD, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * run task on shared keepalive thread (e.g. disconnect following failed probe, which must not
+     * block I/O thread)
+     *
+     * @param task task
+     */
+    public void execute(final Runnable task) {
+        timer.execute(task);
+    }
+
+    /**
+     * start tracking given connection
+     *
+     * @param connectionAdapter connection
+     */
+    public void register(final ConnectionAdapter connectionAdapter) {
+        livenessStats.putIfAbsent(connectionAdapter,
+                new LivenessStats(String.valueOf(connectionAdapter.getRemoteAddress())));
+    }
+
+    /**
+     * stop tracking given connection
+     *
+     * @param connectionAdapter connection
+     */
+    public void unregister(final ConnectionAdapter connectionAdapter) {
+        livenessStats.remove(connectionAdapter);
+    }
+
+    /**
+     * @return stats of registered connection, null if connection is not (or no longer) registered -
+     *         late echo traffic of closed connection must not register it again
+     */
+    private LivenessStats statsFor(final ConnectionAdapter connectionAdapter) {
+        return livenessStats.get(connectionAdapter);
+    }
+
+    /**
+     * @param connectionAdapter connection
+     * @return last measured round trip time [ns] or -1 if none was measured yet
+     */
+    @VisibleForTesting
+    long getLastRttNanos(final ConnectionAdapter connectionAdapter) {
+        final LivenessStats stats = livenessStats.get(connectionAdapter);
+        return stats == null ? -1 : stats.lastRttNanos;
+    }
+
+    /**
+     * @param connectionAdapter connection
+     * @return amount of probes missed in a row
+     */
+    @VisibleForTesting
+    int getConsecutiveMisses(final ConnectionAdapter connectionAdapter) {
+        final LivenessStats stats = livenessStats.get(connectionAdapter);
+        return stats == null ? 0 : stats.consecutiveMisses.get();
+    }
+
+    @Override
+    public List<String> provideLivenessReport() {
+        final List<String> report = new ArrayList<>(livenessStats.size());
+        for (Map.Entry<ConnectionAdapter, LivenessStats> entry : livenessStats.entrySet()) {
+            report.add(entry.getValue().toString());
+        }
+        return report;
+    }
+
+    @Override
+    public int getMonitoredConnections() {
+        return livenessStats.size();
+    }
+
+    @Override
+    public long getProbesSent() {
+        return probesSent.get();
+    }
+
+    @Override
+    public long getProbesMissed() {
+        return probesMissed.get();
+    }
+
+    /**
+     * single probe - guards against double settlement by reply and timeout
+     */
+    private final class ProbeOutcome {
+        /** null if connection is not registered */
+        private final LivenessStats stats;
+        private final ProbeCallback callback;
+        private final long startNanos = System.nanoTime();
+        private final AtomicBoolean settled = new AtomicBoolean();
+        private volatile ScheduledFuture<?> timeoutTask;
+
+        ProbeOutcome(final LivenessStats stats, final ProbeCallback callback) {
+            this.stats = stats;
+            this.callback = callback;
+        }
+
+        boolean settle() {
+            return settled.compareAndSet(false, true);
+        }
+
+        boolean isSettled() {
+            return settled.get();
+        }
+
+        void completed(final RpcResult<EchoOutput> result) {
+            if (!settle()) {
+                return;
+            }
+            cancelTimeout();
+            if (result.isSuccessful()) {
+                if (stats != null) {
+                    stats.alive(System.nanoTime() - startNanos);
+                }
+                callback.onAlive();
+            } else {
+                final StringBuilder errors = new StringBuilder("echo failed:");
+                for (RpcError replyError : result.getErrors()) {
+                    errors.append(' ').append(replyError.getMessage());
+                }
+                missed(new IllegalStateException(errors.toString()));
+            }
+        }
+
+        void failed(final Throwable cause) {
+            if (settle()) {
+                cancelTimeout();
+                missed(cause);
+            }
+        }
+
+        void missed(final Throwable cause) {
+            probesMissed.incrementAndGet();
+            if (stats != null) {
+                stats.missed();
+            }
+            callback.onFailure(cause);
+        }
+
+        private void cancelTimeout() {
+            final ScheduledFuture<?> task = timeoutTask;
+            if (task != null) {
+                task.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * completion check of echo future without listener support - reschedules itself until the
+     * future is done or the probe timed out
+     */
+    private final class EchoPoller implements Runnable {
+        private final Future<RpcResult<EchoOutput>> echoFuture;
+        private final ProbeOutcome outcome;
+
+        EchoPoller(final Future<RpcResult<EchoOutput>> echoFuture, final ProbeOutcome outcome) {
+            this.echoFuture = echoFuture;
+            this.outcome = outcome;
+        }
+
+        @Override
+        public void run() {
+            if (outcome.isSettled()) {
+                return;
+            }
+            if (!echoFuture.isDone()) {
+                timer.schedule(this, POLL_PERIOD, TimeUnit.MILLISECONDS);
+                return;
+            }
+            try {
+                outcome.completed(echoFuture.get());
+            } catch (InterruptedException | ExecutionException e) {
+                outcome.failed(e);
+            }
+        }
+    }
+
+    /**
+     * liveness counters of one connection
+     */
+    private static final class LivenessStats {
+        private final String remoteAddress;
+        private final AtomicLong probesSent = new AtomicLong();
+        private final AtomicLong probesMissed = new AtomicLong();
+        private final AtomicLong echoRequestsAnswered = new AtomicLong();
+        private final AtomicInteger consecutiveMisses = new AtomicInteger();
+        private volatile long lastRttNanos = -1;
+
+        LivenessStats(final String remoteAddress) {
+            this.remoteAddress = remoteAddress;
+        }
+
+        void alive(final long rttNanos) {
+            lastRttNanos = rttNanos;
+            consecutiveMisses.set(0);
+        }
+
+        void missed() {
+            probesMissed.incrementAndGet();
+            consecutiveMisses.incrementAndGet();
+        }
+
+        @Override
+        public String toString() {
+            return remoteAddress + ": probes=" + probesSent.get() + ", missed=" + probesMissed.get()
+                    + ", missedInRow=" + consecutiveMisses.get() + ", echoRequestsAnswered=" + echoRequestsAnswered.get()
+                    + ", lastRtt[us]=" + (lastRttNanos < 0 ? "n/a" : TimeUnit.NANOSECONDS.toMicros(lastRttNanos));
+        }
+    }
+}
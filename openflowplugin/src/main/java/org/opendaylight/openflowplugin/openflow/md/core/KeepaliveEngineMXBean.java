@@ -0,0 +1,36 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.openflow.md.core;
+
+import java.util.List;
+
+/**
+ * JMX view of {@link KeepaliveEngine}
+ */
+public interface KeepaliveEngineMXBean {
+
+    /**
+     * @return one line per monitored connection - probes, misses, echo requests answered and rtt
+     */
+    List<String> provideLivenessReport();
+
+    /**
+     * @return amount of connections currently monitored
+     */
+    int getMonitoredConnections();
+
+    /**
+     * @return amount of echo probes sent since start
+     */
+    long getProbesSent();
+
+    /**
+     * @return amount of echo probes failed or timed out since start
+     */
+    long getProbesMissed();
+}
@@ -7,14 +7,13 @@
  */
 package org.opendaylight.openflowplugin.openflow.md.core.extension;
 
-import org.opendaylight.openflowjava.protocol.api.keys.ActionSerializerKey;
-import org.opendaylight.openflowjava.protocol.api.keys.ExperimenterActionSerializerKey;
 import org.opendaylight.openflowjava.protocol.api.util.EncodeConstants;
 import org.opendaylight.openflowplugin.api.openflow.md.util.OpenflowVersion;
 import org.opendaylight.openflowplugin.extension.api.ConvertorActionFromOFJava;
 import org.opendaylight.openflowplugin.extension.api.path.ActionPath;
 import org.opendaylight.openflowplugin.openflow.md.core.session.OFSessionUtil;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.augments.rev150225.action.container.action.choice.ExperimenterIdCase;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.common.action.rev150203.action.grouping.ActionChoice;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.common.action.rev150203.actions.grouping.Action;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,6 +36,7 @@ public final class ActionExtensionHelper {
      * @param actionPath
      * @return augmentation wrapper containing augmentation depending on matchPath
      */
+    @SuppressWarnings("unchecked")
     public static org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.Action
     processAlienAction(final Action action, final OpenflowVersion ofVersion, final ActionPath actionPath) {
         ConvertorActionFromOFJava<Action, ActionPath> convertor = null;
@@ -44,14 +44,14 @@ public final class ActionExtensionHelper {
         if(action.getActionChoice() instanceof ExperimenterIdCase) {
             ExperimenterIdCase actionCase = (ExperimenterIdCase) action.getActionChoice();
             /** TODO: EXTENSION PROPOSAL (action, OFJava to MD-SAL) */
-            ExperimenterActionSerializerKey key = new ExperimenterActionSerializerKey(
+            convertor = OFSessionUtil.getExtensionConvertorProvider().getExperimenterActionConverter(
                     ofVersion.getVersion(),
                     actionCase.getExperimenter().getExperimenter().getValue(),
                     actionCase.getExperimenter().getSubType());
-            convertor = OFSessionUtil.getExtensionConvertorProvider().getActionConverter(key);
         } else if (action.getActionChoice() != null){
-            ActionSerializerKey<?> key = new ActionSerializerKey(EncodeConstants.OF13_VERSION_ID, action.getActionChoice().getImplementedInterface(), null);
-            convertor = OFSessionUtil.getExtensionConvertorProvider().getActionConverter(key);
+            convertor = OFSessionUtil.getExtensionConvertorProvider().getActionConverterFromOfj(
+                    EncodeConstants.OF13_VERSION_ID,
+                    (Class<? extends ActionChoice>) action.getActionChoice().getImplementedInterface());
         }
         if (convertor != null) {
             alienAction = convertor.convert(
@@ -7,9 +7,16 @@
  */
 package org.opendaylight.openflowplugin.openflow.md.core.extension;
 
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import org.opendaylight.openflowjava.protocol.api.keys.ActionSerializerKey;
+import org.opendaylight.openflowjava.protocol.api.keys.ExperimenterActionSerializerKey;
 import org.opendaylight.openflowjava.protocol.api.keys.MatchEntrySerializerKey;
 import org.opendaylight.openflowjava.protocol.api.keys.MessageTypeKey;
 import org.opendaylight.openflowplugin.extension.api.ConverterExtensionKey;
@@ -26,6 +33,8 @@ import org.opendaylight.openflowplugin.openflow.md.core.extension.RegistrationCl
 import org.opendaylight.openflowplugin.openflow.md.core.extension.RegistrationCloser.RegistrationCloserFromOFJava;
 import org.opendaylight.openflowplugin.openflow.md.core.extension.RegistrationCloser.RegistrationCloserToOFJava;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.Action;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.common.action.rev150203.ExperimenterActionSubType;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.common.action.rev150203.action.grouping.ActionChoice;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.oxm.rev150225.MatchField;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.oxm.rev150225.OxmClassBase;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.oxm.rev150225.match.entries.grouping.MatchEntry;
@@ -35,6 +44,9 @@ import org.opendaylight.yangtools.yang.binding.DataContainer;
 
 /**
  * simple map-based registration engine implementation
+ * <br>
+ * Converters are additionally indexed by openflow version and class so that hot path lookups
+ * (flow-mod conversion, stats reply translation) do not need to allocate key objects.
  */
 public class ExtensionConverterManagerImpl implements ExtensionConverterManager {
 
@@ -43,6 +55,23 @@ public class ExtensionConverterManagerImpl implements ExtensionConverterManager
     private final Map<TypeVersionKey<? extends Action>, ConvertorActionToOFJava<? extends Action, ? extends DataContainer>> registryActionToOFJAva;
     private final Map<MessageTypeKey<?>, ConvertorActionFromOFJava<?, ?>> registryActionFromOFJAva;
 
+    private final VersionedClassIndex<ConvertorToOFJava<?>> indexToOFJava;
+    private final VersionedClassIndex<ConvertorActionToOFJava<?, ?>> indexActionToOFJava;
+    /**
+     * memoized lookups of {@link #registryFromOFJAva}: version -> oxmClass -> matchField -> converter,
+     * absent value remembers a miss
+     */
+    private final VersionedClassIndex<ConcurrentMap<Class<?>, Optional<ConvertorFromOFJava<?, ?>>>> matchFromOFJavaIndex;
+    /** memoized lookups of {@link #registryActionFromOFJAva}: version -> actionChoice -> converter (or absent) */
+    private final VersionedClassIndex<Optional<ConvertorActionFromOFJava<?, ?>>> actionFromOFJavaIndex;
+    /** memoized lookups of {@link #registryActionFromOFJAva}: version -> subType -> experimenterId -> converter */
+    private final VersionedClassIndex<ExperimenterActionMemo> experimenterActionFromOFJavaIndex;
+    /**
+     * bumped on every change of OFJava keyed registries - memo entry stored by lookup which raced
+     * with (un)registration is dropped again, memos are cleared after bump
+     */
+    private final AtomicLong fromOFJavaGeneration;
+
     /**
      * default ctor
      */
@@ -51,6 +80,12 @@ public class ExtensionConverterManagerImpl implements ExtensionConverterManager
         registryToOFJAva = new ConcurrentHashMap<>();
         registryActionToOFJAva = new ConcurrentHashMap<>();
         registryActionFromOFJAva = new ConcurrentHashMap<>();
+        indexToOFJava = new VersionedClassIndex<>();
+        indexActionToOFJava = new VersionedClassIndex<>();
+        matchFromOFJavaIndex = new VersionedClassIndex<>();
+        actionFromOFJavaIndex = new VersionedClassIndex<>();
+        experimenterActionFromOFJavaIndex = new VersionedClassIndex<>();
+        fromOFJavaGeneration = new AtomicLong();
     }
 
     /**
@@ -121,6 +156,7 @@ public class ExtensionConverterManagerImpl implements ExtensionConverterManager
         ConvertorToOFJava<?> registeredConverter = registryToOFJAva.get(key);
         if (registeredConverter != null && registeredConverter == converter) {
             registryToOFJAva.remove(key);
+            indexToOFJava.remove(key.getOfVersion(), key.getType(), converter);
         }
     }
 
@@ -134,6 +170,7 @@ public class ExtensionConverterManagerImpl implements ExtensionConverterManager
         ConvertorActionToOFJava<?, ?> registeredConverter = registryActionToOFJAva.get(key);
         if (registeredConverter != null && registeredConverter == converter) {
             registryActionToOFJAva.remove(key);
+            indexActionToOFJava.remove(key.getOfVersion(), key.getType(), registeredConverter);
         }
     }
 
@@ -147,6 +184,7 @@ public class ExtensionConverterManagerImpl implements ExtensionConverterManager
         ConvertorFromOFJava<?, ?> registeredConverter = registryFromOFJAva.get(key);
         if (registeredConverter != null && registeredConverter == converter) {
             registryFromOFJAva.remove(key);
+            invalidateFromOFJavaMemos();
         }
     }
 
@@ -160,9 +198,20 @@ public class ExtensionConverterManagerImpl implements ExtensionConverterManager
         ConvertorActionFromOFJava<?, ?> registeredConverter = registryActionFromOFJAva.get(key);
         if (registeredConverter != null && registeredConverter == converter) {
             registryActionFromOFJAva.remove(key);
+            invalidateFromOFJavaMemos();
         }
     }
 
+    /**
+     * must be called after the registry change is visible
+     */
+    private void invalidateFromOFJavaMemos() {
+        fromOFJavaGeneration.incrementAndGet();
+        matchFromOFJavaIndex.clear();
+        actionFromOFJavaIndex.clear();
+        experimenterActionFromOFJavaIndex.clear();
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public <FROM extends DataContainer> ConvertorToOFJava<FROM> getConverter(
@@ -191,12 +240,109 @@ public class ExtensionConverterManagerImpl implements ExtensionConverterManager
         return (ConvertorActionFromOFJava<FROM, PATH>) registryActionFromOFJAva.get(key);
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public <FROM extends DataContainer, PATH extends AugmentationPath> ConvertorFromOFJava<FROM, PATH> getMatchConverter(
+            final short version, final Class<? extends OxmClassBase> oxmClass, final Class<? extends MatchField> matchField) {
+        if (oxmClass == null || matchField == null) {
+            final MatchEntrySerializerKey<? extends OxmClassBase, ? extends MatchField> key =
+                    new MatchEntrySerializerKey<>(version, oxmClass, matchField);
+            return getConverter(key);
+        }
+
+        ConcurrentMap<Class<?>, Optional<ConvertorFromOFJava<?, ?>>> fieldIndex = matchFromOFJavaIndex.get(version, oxmClass);
+        if (fieldIndex == null) {
+            fieldIndex = new ConcurrentHashMap<>();
+            final ConcurrentMap<Class<?>, Optional<ConvertorFromOFJava<?, ?>>> presentIndex =
+                    matchFromOFJavaIndex.putIfAbsent(version, oxmClass, fieldIndex);
+            if (presentIndex != null) {
+                fieldIndex = presentIndex;
+            }
+        }
+
+        Optional<ConvertorFromOFJava<?, ?>> convertor = fieldIndex.get(matchField);
+        if (convertor == null) {
+            // first lookup of this field - resolve via registry and remember result (including miss)
+            final long generation = fromOFJavaGeneration.get();
+            final MatchEntrySerializerKey<? extends OxmClassBase, ? extends MatchField> key =
+                    new MatchEntrySerializerKey<>(version, oxmClass, matchField);
+            convertor = Optional.<ConvertorFromOFJava<?, ?>>fromNullable(registryFromOFJAva.get(key));
+            fieldIndex.put(matchField, convertor);
+            if (fromOFJavaGeneration.get() != generation) {
+                // registry changed meanwhile - resolved value might be stale already
+                fieldIndex.remove(matchField, convertor);
+            }
+        }
+        return (ConvertorFromOFJava<FROM, PATH>) convertor.orNull();
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @Override
+    public <FROM extends DataContainer, PATH extends AugmentationPath> ConvertorActionFromOFJava<FROM, PATH> getActionConverterFromOfj(
+            final short version, final Class<? extends ActionChoice> actionChoice) {
+        if (actionChoice == null) {
+            return getActionConverter(new ActionSerializerKey(version, actionChoice, null));
+        }
+
+        Optional<ConvertorActionFromOFJava<?, ?>> convertor = actionFromOFJavaIndex.get(version, actionChoice);
+        if (convertor == null) {
+            final long generation = fromOFJavaGeneration.get();
+            convertor = Optional.<ConvertorActionFromOFJava<?, ?>>fromNullable(
+                    registryActionFromOFJAva.get(new ActionSerializerKey(version, actionChoice, null)));
+            actionFromOFJavaIndex.put(version, actionChoice, convertor);
+            if (fromOFJavaGeneration.get() != generation) {
+                actionFromOFJavaIndex.remove(version, actionChoice, convertor);
+            }
+        }
+        return (ConvertorActionFromOFJava<FROM, PATH>) convertor.orNull();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <FROM extends DataContainer, PATH extends AugmentationPath> ConvertorActionFromOFJava<FROM, PATH> getExperimenterActionConverter(
+            final short version, final long experimenterId, final Class<? extends ExperimenterActionSubType> subType) {
+        if (subType == null) {
+            return getActionConverter(new ExperimenterActionSerializerKey(version, experimenterId, subType));
+        }
+
+        final ExperimenterActionMemo memo = experimenterActionFromOFJavaIndex.get(version, subType);
+        Optional<ConvertorActionFromOFJava<?, ?>> convertor = memo == null ? null : memo.get(experimenterId);
+        if (convertor == null) {
+            final long generation = fromOFJavaGeneration.get();
+            convertor = Optional.<ConvertorActionFromOFJava<?, ?>>fromNullable(registryActionFromOFJAva.get(
+                    new ExperimenterActionSerializerKey(version, experimenterId, subType)));
+            final ExperimenterActionMemo extendedMemo = ExperimenterActionMemo.extend(memo, experimenterId, convertor);
+            final boolean stored = memo == null
+                    ? experimenterActionFromOFJavaIndex.putIfAbsent(version, subType, extendedMemo) == null
+                    : experimenterActionFromOFJavaIndex.replace(version, subType, memo, extendedMemo);
+            if (stored && fromOFJavaGeneration.get() != generation) {
+                experimenterActionFromOFJavaIndex.remove(version, subType, extendedMemo);
+            }
+        }
+        return (ConvertorActionFromOFJava<FROM, PATH>) convertor.orNull();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <TO extends DataContainer> ConvertorToOFJava<TO> getConverter(
+            final Class<? extends ExtensionKey> extensionKey, final short version) {
+        return (ConvertorToOFJava<TO>) indexToOFJava.get(version, extensionKey);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <FROM extends Action, TO extends DataContainer> ConvertorActionToOFJava<FROM, TO> getActionConverterToOfj(
+            final Class<? extends FROM> actionType, final short version) {
+        return (ConvertorActionToOFJava<FROM, TO>) indexActionToOFJava.get(version, actionType);
+    }
+
     @Override
     public ObjectRegistration<ConvertorActionToOFJava<Action, org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.common.action.rev150203.actions.grouping.Action>>
     registerActionConvertor(
             final TypeVersionKey<? extends Action> key,
             final ConvertorActionToOFJava<Action, org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.common.action.rev150203.actions.grouping.Action> convertor) {
         registryActionToOFJAva.put(key, convertor);
+        indexActionToOFJava.put(key.getOfVersion(), key.getType(), convertor);
         return hireJanitor(key, convertor);
     }
 
@@ -206,6 +352,7 @@ public class ExtensionConverterManagerImpl implements ExtensionConverterManager
             final ActionSerializerKey<?> key,
             final ConvertorActionFromOFJava<org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.common.action.rev150203.actions.grouping.Action, ActionPath> convertor) {
         registryActionFromOFJAva.put(key, convertor);
+        invalidateFromOFJavaMemos();
         return hireJanitor(key, convertor);
     }
 
@@ -213,6 +360,7 @@ public class ExtensionConverterManagerImpl implements ExtensionConverterManager
     public ObjectRegistration<ConvertorToOFJava<MatchEntry>> registerMatchConvertor(final ConverterExtensionKey<? extends ExtensionKey> key,
                                                                                       final ConvertorToOFJava<MatchEntry> convertor) {
         registryToOFJAva.put(key, convertor);
+        indexToOFJava.put(key.getOfVersion(), key.getType(), convertor);
         return hireJanitor(key, convertor);
     }
 
@@ -221,7 +369,45 @@ public class ExtensionConverterManagerImpl implements ExtensionConverterManager
             final MatchEntrySerializerKey<? extends OxmClassBase, ? extends MatchField> key,
             final ConvertorFromOFJava<MatchEntry, MatchPath> convertor) {
         registryFromOFJAva.put(key, convertor);
+        invalidateFromOFJavaMemos();
         return hireJanitor(key, convertor);
     }
 
+    /**
+     * immutable experimenterId -> converter (or absent) pairs of one action subtype, there is usually just one
+     * experimenter per subtype - linear scan of primitive ids avoids boxing of lookup key
+     */
+    private static final class ExperimenterActionMemo {
+        private final long[] experimenterIds;
+        private final List<Optional<ConvertorActionFromOFJava<?, ?>>> convertors;
+
+        private ExperimenterActionMemo(final long[] experimenterIds,
+                final List<Optional<ConvertorActionFromOFJava<?, ?>>> convertors) {
+            this.experimenterIds = experimenterIds;
+            this.convertors = convertors;
+        }
+
+        Optional<ConvertorActionFromOFJava<?, ?>> get(final long experimenterId) {
+            for (int i = 0; i < experimenterIds.length; i++) {
+                if (experimenterIds[i] == experimenterId) {
+                    return convertors.get(i);
+                }
+            }
+            return null;
+        }
+
+        static ExperimenterActionMemo extend(final ExperimenterActionMemo memo, final long experimenterId,
+                final Optional<ConvertorActionFromOFJava<?, ?>> convertor) {
+            if (memo == null) {
+                return new ExperimenterActionMemo(new long[] { experimenterId },
+                        ImmutableList.<Optional<ConvertorActionFromOFJava<?, ?>>>of(convertor));
+            }
+            final int length = memo.experimenterIds.length;
+            final long[] experimenterIds = Arrays.copyOf(memo.experimenterIds, length + 1);
+            experimenterIds[length] = experimenterId;
+            return new ExperimenterActionMemo(experimenterIds,
+                    ImmutableList.<Optional<ConvertorActionFromOFJava<?, ?>>>builder()
+                            .addAll(memo.convertors).add(convertor).build());
+        }
+    }
 }
@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.openflow.md.core.extension;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * lookup table indexed by openflow version (array slot) and class (identity hash),
+ * lookup does not allocate any key object
+ *
+ * @param <V> type of indexed value
+ */
+class VersionedClassIndex<V> {
+
+    /** openflow version is transferred as unsigned byte */
+    private static final int VERSION_SLOTS = 256;
+
+    private final AtomicReferenceArray<ConcurrentMap<Class<?>, V>> slots;
+
+    /**
+     * default ctor
+     */
+    public VersionedClassIndex() {
+        slots = new AtomicReferenceArray<>(VERSION_SLOTS);
+    }
+
+    /**
+     * @param version openflow version
+     * @param type indexed class
+     * @return indexed value or null
+     */
+    public V get(final short version, final Class<?> type) {
+        final ConcurrentMap<Class<?>, V> slot = slots.get(version & 0xff);
+        if (slot == null || type == null) {
+            return null;
+        }
+        return slot.get(type);
+    }
+
+    /**
+     * @param version openflow version
+     * @param type indexed class
+     * @param value value to index
+     */
+    public void put(final short version, final Class<?> type, final V value) {
+        ensureSlot(version).put(type, value);
+    }
+
+    /**
+     * @param version openflow version
+     * @param type indexed class
+     * @param value value to index
+     * @return value already indexed or null if given value was stored
+     */
+    public V putIfAbsent(final short version, final Class<?> type, final V value) {
+        return ensureSlot(version).putIfAbsent(type, value);
+    }
+
+    /**
+     * @param version openflow version
+     * @param type indexed class
+     * @param oldValue expected indexed value
+     * @param newValue value to index
+     * @return true if oldValue was indexed and got replaced
+     */
+    public boolean replace(final short version, final Class<?> type, final V oldValue, final V newValue) {
+        return ensureSlot(version).replace(type, oldValue, newValue);
+    }
+
+    /**
+     * remove given value only if it is still indexed under given version and type
+     *
+     * @param version openflow version
+     * @param type indexed class
+     * @param value value to remove
+     */
+    public void remove(final short version, final Class<?> type, final Object value) {
+        final ConcurrentMap<Class<?>, V> slot = slots.get(version & 0xff);
+        if (slot != null && type != null) {
+            slot.remove(type, value);
+        }
+    }
+
+    /**
+     * drop all indexed values
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            final ConcurrentMap<Class<?>, V> slot = slots.get(i);
+            if (slot != null) {
+                slot.clear();
+            }
+        }
+    }
+
+    private ConcurrentMap<Class<?>, V> ensureSlot(final short version) {
+        final int index = version & 0xff;
+        ConcurrentMap<Class<?>, V> slot = slots.get(index);
+        if (slot == null) {
+            slots.compareAndSet(index, null, new ConcurrentHashMap<Class<?>, V>());
+            slot = slots.get(index);
+        }
+        return slot;
+    }
+}
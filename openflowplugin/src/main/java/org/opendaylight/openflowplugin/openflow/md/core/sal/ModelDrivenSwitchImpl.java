@@ -9,8 +9,12 @@ package org.opendaylight.openflowplugin.openflow.md.core.sal;
 
 import org.opendaylight.controller.md.sal.binding.api.ReadWriteTransaction;
 
+import com.google.common.base.Function;
 import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.JdkFutureAdapters;
 import com.google.common.util.concurrent.ListenableFuture;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import org.opendaylight.controller.sal.binding.api.NotificationProviderService;
@@ -73,6 +77,8 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.module.config.rev141015.Set
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.protocol.rev130731.PacketOutInput;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.packet.service.rev130709.ConnectionCookie;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.packet.service.rev130709.TransmitPacketInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.packet.service.rev130709.TransmitPacketsInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.packet.service.rev130709.transmit.packets.input.Packet;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.port.service.rev131107.UpdatePortInput;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.port.service.rev131107.UpdatePortOutput;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.port.statistics.rev131214.GetAllNodeConnectorsStatisticsInput;
@@ -88,7 +94,9 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.queue.statistics.rev131216.
 import org.opendaylight.yang.gen.v1.urn.opendaylight.table.service.rev131026.UpdateTableInput;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.table.service.rev131026.UpdateTableOutput;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.opendaylight.yangtools.yang.common.RpcError;
 import org.opendaylight.yangtools.yang.common.RpcResult;
+import org.opendaylight.yangtools.yang.common.RpcResultBuilder;
 import org.slf4j.Logger;
 
 /**
@@ -220,6 +228,33 @@ public class ModelDrivenSwitchImpl extends AbstractModelDrivenSwitch {
         return messageService.packetOut(message, cookie);
     }
 
+    @Override
+    public Future<RpcResult<Void>> transmitPackets(final TransmitPacketsInput input) {
+        LOG.debug("TransmitPackets - {}", input);
+        final List<ListenableFuture<RpcResult<Void>>> results = new ArrayList<>();
+        if (input.getPacket() != null) {
+            for (final Packet packet : input.getPacket()) {
+                PacketOutInput message = PacketOutConvertor.toPacketOutInput(packet, version,
+                        sessionContext.getNextXid(), sessionContext.getFeatures().getDatapathId());
+                results.add(JdkFutureAdapters.listenInPoolThread(messageService.packetOut(message, null)));
+            }
+        }
+
+        return Futures.transform(Futures.allAsList(results), new Function<List<RpcResult<Void>>, RpcResult<Void>>() {
+            @Override
+            public RpcResult<Void> apply(final List<RpcResult<Void>> packetResults) {
+                final List<RpcError> errors = new ArrayList<>();
+                for (final RpcResult<Void> packetResult : packetResults) {
+                    if (!packetResult.isSuccessful()) {
+                        errors.addAll(packetResult.getErrors());
+                    }
+                }
+                return errors.isEmpty() ? RpcResultBuilder.<Void>success().build()
+                        : RpcResultBuilder.<Void>failed().withRpcErrors(errors).build();
+            }
+        });
+    }
+
     @Override
     public Future<RpcResult<UpdateFlowOutput>> updateFlow(final UpdateFlowInput input) {
         LOG.debug("Calling the updateFlow RPC method on MessageDispatchService");
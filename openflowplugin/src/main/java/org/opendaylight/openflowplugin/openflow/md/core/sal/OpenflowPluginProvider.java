@@ -9,18 +9,25 @@ package org.opendaylight.openflowplugin.openflow.md.core.sal;
 
 import com.google.common.annotations.VisibleForTesting;
 import java.util.Collection;
+import javax.management.ObjectName;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.sal.binding.api.NotificationProviderService;
 import org.opendaylight.controller.sal.binding.api.RpcProviderRegistry;
 import org.opendaylight.openflowjava.protocol.spi.connection.SwitchConnectionProvider;
 import org.opendaylight.openflowplugin.api.openflow.statistics.MessageCountDumper;
 import org.opendaylight.openflowplugin.api.openflow.statistics.MessageObservatory;
+import org.opendaylight.openflowplugin.common.jmx.MXBeanUtil;
 import org.opendaylight.openflowplugin.extension.api.ExtensionConverterRegistrator;
 import org.opendaylight.openflowplugin.extension.api.OpenFlowPluginExtensionRegistratorProvider;
+import org.opendaylight.openflowplugin.openflow.md.core.HandshakeService;
+import org.opendaylight.openflowplugin.openflow.md.core.HandshakeServiceMXBean;
+import org.opendaylight.openflowplugin.openflow.md.core.KeepaliveEngine;
+import org.opendaylight.openflowplugin.openflow.md.core.KeepaliveEngineMXBean;
 import org.opendaylight.openflowplugin.openflow.md.core.MDController;
 import org.opendaylight.openflowplugin.openflow.md.core.extension.ExtensionConverterManager;
 import org.opendaylight.openflowplugin.openflow.md.core.extension.ExtensionConverterManagerImpl;
 import org.opendaylight.openflowplugin.openflow.md.core.session.OFRoleManager;
+import org.opendaylight.openflowplugin.openflow.md.core.session.OFRoleManagerMXBean;
 import org.opendaylight.openflowplugin.openflow.md.core.session.OFSessionUtil;
 import org.opendaylight.openflowplugin.statistics.MessageSpyCounterImpl;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.openflow.common.config.impl.rev140326.OfpRole;
@@ -52,6 +59,10 @@ public class OpenflowPluginProvider implements AutoCloseable, OpenFlowPluginExte
     private NotificationProviderService notificationService;
     private RpcProviderRegistry rpcRegistry;
 
+    private ObjectName keepaliveMXBeanName;
+    private ObjectName handshakeMXBeanName;
+    private ObjectName roleManagerMXBeanName;
+
     /**
      * Initialization of services and msgSpy counter
      */
@@ -73,6 +84,10 @@ public class OpenflowPluginProvider implements AutoCloseable, OpenFlowPluginExte
         mdController.setExtensionConverterProvider(extensionConverterManager);
         mdController.init();
         mdController.start();
+
+        keepaliveMXBeanName = MXBeanUtil.registerMXBean(KeepaliveEngine.getInstance(), KeepaliveEngineMXBean.class);
+        handshakeMXBeanName = MXBeanUtil.registerMXBean(HandshakeService.getInstance(), HandshakeServiceMXBean.class);
+        roleManagerMXBeanName = MXBeanUtil.registerMXBean(roleManager, OFRoleManagerMXBean.class);
     }
 
     /**
@@ -85,6 +100,12 @@ public class OpenflowPluginProvider implements AutoCloseable, OpenFlowPluginExte
     @Override
     public void close() {
         LOG.debug("close");
+        MXBeanUtil.unregisterMXBean(keepaliveMXBeanName);
+        keepaliveMXBeanName = null;
+        MXBeanUtil.unregisterMXBean(handshakeMXBeanName);
+        handshakeMXBeanName = null;
+        MXBeanUtil.unregisterMXBean(roleManagerMXBeanName);
+        roleManagerMXBeanName = null;
         mdController.stop();
         mdController = null;
         registrationManager.close();
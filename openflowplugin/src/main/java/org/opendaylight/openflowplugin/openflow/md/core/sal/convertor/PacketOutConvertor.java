@@ -9,7 +9,7 @@ package org.opendaylight.openflowplugin.openflow.md.core.sal.convertor;
 
 import com.google.common.collect.Iterables;
 import java.math.BigInteger;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import org.opendaylight.controller.sal.common.util.Arguments;
 import org.opendaylight.openflowplugin.api.OFConstants;
@@ -24,7 +24,7 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.common.action.rev1
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.common.types.rev130731.PortNumber;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.protocol.rev130731.PacketOutInput;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.protocol.rev130731.PacketOutInputBuilder;
-import org.opendaylight.yang.gen.v1.urn.opendaylight.packet.service.rev130709.TransmitPacketInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.packet.service.rev130709.PacketOut;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier.PathArgument;
 import org.slf4j.Logger;
@@ -41,36 +41,74 @@ public final class PacketOutConvertor {
 
     /**
      * @param version
-     * @param inputPacket
+     * @param inputPacket packet of transmit-packet or transmit-packets RPC
      * @return PacketOutInput required by OF Library
      */
-    public static PacketOutInput toPacketOutInput(final TransmitPacketInput inputPacket, final short version, final Long xid,
+    public static PacketOutInput toPacketOutInput(final PacketOut inputPacket, final short version, final Long xid,
                                                   final BigInteger datapathid) {
+        return toPacketOutInput(inputPacket, version, xid, toIngressPort(inputPacket.getIngress(), version),
+                toOutputActions(inputPacket.getEgress(), version));
+    }
 
+    /**
+     * Builds PacketOutInput out of precomputed ingress port and actions, so the conversion
+     * of these could be done once for all packets of the same ingress/egress.
+     *
+     * @param inputPacket
+     * @param version
+     * @param xid
+     * @param inPortNr ingress port, see {@link #toIngressPort(NodeConnectorRef, short)}
+     * @param actions packet-out actions, see {@link #toOutputActions(NodeConnectorRef, short)}
+     * @return PacketOutInput required by OF Library
+     */
+    public static PacketOutInput toPacketOutInput(final PacketOut inputPacket, final short version, final Long xid,
+                                                  final PortNumber inPortNr, final List<Action> actions) {
+        PacketOutInputBuilder builder = new PacketOutInputBuilder();
+        builder.setAction(actions);
+        builder.setData(inputPacket.getPayload());
+        builder.setVersion(version);
+        builder.setXid(xid);
+        builder.setInPort(inPortNr);
+        builder.setBufferId(toBufferId(inputPacket.getBufferId()));
+        // --------------------------------------------------------
+
+        return builder.build();
+    }
+
+    /**
+     * @param bufferId
+     * @return given buffer id or OFP_NO_BUFFER if there is none
+     */
+    public static Long toBufferId(final Long bufferId) {
+        return bufferId == null ? OFConstants.OFP_NO_BUFFER : bufferId;
+    }
+
+    /**
+     * @param ingress
+     * @param version
+     * @return port number of ingress node connector, controller port if packet-out originated from controller
+     */
+    public static PortNumber toIngressPort(final NodeConnectorRef ingress, final short version) {
         // Build Port ID from TransmitPacketInput.Ingress
-        PortNumber inPortNr = null;
-        Long bufferId = OFConstants.OFP_NO_BUFFER;
-        List<Action> actions = new ArrayList<>();
         Iterable<PathArgument> inArgs = null;
-        PacketOutInputBuilder builder = new PacketOutInputBuilder();
-        if (inputPacket.getIngress() != null) {
-            inArgs = inputPacket.getIngress().getValue().getPathArguments();
+        if (ingress != null) {
+            inArgs = ingress.getValue().getPathArguments();
         }
         if (inArgs != null && Iterables.size(inArgs) >= 3) {
-            inPortNr = getPortNumber(Iterables.get(inArgs, 2), version);
-        } else {
-            // The packetOut originated from the controller
-            inPortNr = new PortNumber(0xfffffffdL);
-        }
-
-        // Build Buffer ID to be NO_OFP_NO_BUFFER
-        if (inputPacket.getBufferId() != null) {
-            bufferId = inputPacket.getBufferId();
+            return getPortNumber(Iterables.get(inArgs, 2), version);
         }
+        // The packetOut originated from the controller
+        return new PortNumber(0xfffffffdL);
+    }
 
+    /**
+     * @param egress
+     * @param version
+     * @return immutable list with output action to egress node connector
+     */
+    public static List<Action> toOutputActions(final NodeConnectorRef egress, final short version) {
         PortNumber outPort = null;
-        NodeConnectorRef outRef = inputPacket.getEgress();
-        Iterable<PathArgument> outArgs = outRef.getValue().getPathArguments();
+        Iterable<PathArgument> outArgs = egress.getValue().getPathArguments();
         if (Iterables.size(outArgs) >= 3) {
             outPort = getPortNumber(Iterables.get(outArgs, 2), version);
         } else {
@@ -94,16 +132,7 @@ public final class PacketOutConvertor {
 
         aBuild.setActionChoice(outputActionCaseBuilder.build());
 
-        actions.add(aBuild.build());
-        builder.setAction(actions);
-        builder.setData(inputPacket.getPayload());
-        builder.setVersion(version);
-        builder.setXid(xid);
-        builder.setInPort(inPortNr);
-        builder.setBufferId(bufferId);
-        // --------------------------------------------------------
-
-        return builder.build();
+        return Collections.singletonList(aBuild.build());
     }
 
     private static PortNumber getPortNumber(final PathArgument pathArgument, final Short ofVersion) {
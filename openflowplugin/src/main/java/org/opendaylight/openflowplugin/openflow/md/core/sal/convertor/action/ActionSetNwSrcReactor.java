@@ -42,6 +42,16 @@ public class ActionSetNwSrcReactor extends ConvertReactor<SetNwSrcActionCase> {
         ActionSetNwSrcReactorMappingFactory.addSetNwSrcInjectors(injections);
     }
 
+    @Override
+    protected ResultInjector<?, ?> lookupInjection(final short version,
+            final Object convertedItem, final Object target) {
+        ResultInjector<?, ?> injection = null;
+        if (convertedItem != null) {
+            injection = getInjectionTable().lookup(version, target.getClass(), convertedItem.getClass());
+        }
+        return injection;
+    }
+
     @Override
     protected InjectionKey buildInjectionKey(final short version,
             final Object convertedItem, final Object target) {
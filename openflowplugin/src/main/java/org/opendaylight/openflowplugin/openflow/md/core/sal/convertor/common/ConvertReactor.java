@@ -20,7 +20,8 @@ import com.google.common.collect.ImmutableMap;
  */
 public abstract class ConvertReactor<FROM> {
     private final Map<InjectionKey, ResultInjector<?, ?>> injectionMapping;
-    private final Map<Short, Convertor<FROM, ?>> conversionMapping;
+    private final Convertor<?, ?>[] conversionByVersion;
+    private final InjectionTable injectionTable;
 
     protected ConvertReactor() {
         final Map<Short, Convertor<FROM, ?>> conversions = new HashMap<>();
@@ -28,8 +29,18 @@ public abstract class ConvertReactor<FROM> {
         initMappings(conversions, injections);
 
         // Create optimized view of mappings
-        this.conversionMapping = ImmutableMap.copyOf(conversions);
         this.injectionMapping = ImmutableMap.copyOf(injections);
+
+        // Precompile dispatch tables so that hot path lookups need no boxing nor key allocation
+        short maxVersion = -1;
+        for (Short version : conversions.keySet()) {
+            maxVersion = (short) Math.max(maxVersion, version);
+        }
+        this.conversionByVersion = new Convertor<?, ?>[maxVersion + 1];
+        for (Map.Entry<Short, Convertor<FROM, ?>> entry : conversions.entrySet()) {
+            conversionByVersion[entry.getKey()] = entry.getValue();
+        }
+        this.injectionTable = new InjectionTable(injections);
     }
 
     /**
@@ -50,21 +61,46 @@ public abstract class ConvertReactor<FROM> {
     public <RESULT, TARGET> void convert(final FROM source, final short version, final TARGET target, final BigInteger datapathid) {
 
         //lookup converter
-        Convertor<FROM, RESULT> convertor = (Convertor<FROM, RESULT>) conversionMapping.get(version);
+        Convertor<FROM, RESULT> convertor = null;
+        if (version >= 0 && version < conversionByVersion.length) {
+            convertor = (Convertor<FROM, RESULT>) conversionByVersion[version];
+        }
         if (convertor == null) {
             throw new IllegalArgumentException("convertor for given version ["+version+"] not found");
         }
         RESULT convertedItem = convertor.convert(source,datapathid);
 
         //lookup injection
-        InjectionKey key = buildInjectionKey(version, convertedItem, target);
-        ResultInjector<RESULT, TARGET> injection = (ResultInjector<RESULT, TARGET>) injectionMapping.get(key);
+        ResultInjector<RESULT, TARGET> injection = (ResultInjector<RESULT, TARGET>) lookupInjection(version, convertedItem, target);
         if (injection == null) {
-            throw new IllegalArgumentException("injector for given version and target ["+key+"] not found");
+            // slow path - fall back to key based lookup (covers keys customized by subclasses)
+            InjectionKey key = buildInjectionKey(version, convertedItem, target);
+            injection = (ResultInjector<RESULT, TARGET>) injectionMapping.get(key);
+            if (injection == null) {
+                throw new IllegalArgumentException("injector for given version and target ["+key+"] not found");
+            }
         }
         injection.inject(convertedItem, target);
     }
 
+    /**
+     * lookup injection in precompiled table, must stay consistent with {@link #buildInjectionKey(short, Object, Object)}
+     * @param version
+     * @param convertedItem to be injected
+     * @param target object
+     * @return injection or null if not found
+     */
+    protected ResultInjector<?, ?> lookupInjection(final short version, final Object convertedItem, final Object target) {
+        return injectionTable.lookup(version, target.getClass());
+    }
+
+    /**
+     * @return precompiled injection dispatch table
+     */
+    protected InjectionTable getInjectionTable() {
+        return injectionTable;
+    }
+
     /**
      * @param version
      * @param convertedItem to be injected
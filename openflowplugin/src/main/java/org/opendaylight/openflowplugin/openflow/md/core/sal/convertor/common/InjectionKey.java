@@ -30,6 +30,20 @@ public class InjectionKey {
         this.targetClazz = Preconditions.checkNotNull(targetClazz);
     }
 
+    /**
+     * @return openflow version
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * @return class of injection target
+     */
+    public Class<?> getTargetClazz() {
+        return targetClazz;
+    }
+
     @Override
     public int hashCode() {
         return 31 * version + targetClazz.hashCode();
@@ -28,6 +28,13 @@ public class InjectionResultTargetKey extends InjectionKey {
         this.resultClazz = Preconditions.checkNotNull(resultClazz);
     }
 
+    /**
+     * @return class of injected result
+     */
+    public Class<?> getResultClazz() {
+        return resultClazz;
+    }
+
     @Override
     public int hashCode() {
         return super.hashCode() ^ resultClazz.hashCode();
@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.openflowplugin.openflow.md.core.sal.convertor.common;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * precompiled dispatch table of injections - version is array index, target and result classes
+ * are looked up directly so that no {@link InjectionKey} needs to be allocated per conversion
+ */
+public class InjectionTable {
+
+    private final List<Map<Class<?>, ResultInjector<?, ?>>> byTarget;
+    private final List<Map<Class<?>, Map<Class<?>, ResultInjector<?, ?>>>> byTargetAndResult;
+
+    /**
+     * @param injections injection mapping to compile
+     */
+    public InjectionTable(final Map<InjectionKey, ResultInjector<?, ?>> injections) {
+        int maxVersion = -1;
+        for (InjectionKey key : injections.keySet()) {
+            maxVersion = Math.max(maxVersion, key.getVersion());
+        }
+
+        final List<Map<Class<?>, ResultInjector<?, ?>>> targetSlots = new ArrayList<>();
+        final List<Map<Class<?>, Map<Class<?>, ResultInjector<?, ?>>>> resultSlots = new ArrayList<>();
+        for (int i = 0; i <= maxVersion; i++) {
+            targetSlots.add(new HashMap<Class<?>, ResultInjector<?, ?>>());
+            resultSlots.add(new HashMap<Class<?>, Map<Class<?>, ResultInjector<?, ?>>>());
+        }
+
+        for (Entry<InjectionKey, ResultInjector<?, ?>> entry : injections.entrySet()) {
+            final InjectionKey key = entry.getKey();
+            if (key instanceof InjectionResultTargetKey) {
+                final Map<Class<?>, Map<Class<?>, ResultInjector<?, ?>>> versionSlot = resultSlots.get(key.getVersion());
+                Map<Class<?>, ResultInjector<?, ?>> resultMapping = versionSlot.get(key.getTargetClazz());
+                if (resultMapping == null) {
+                    resultMapping = new HashMap<>();
+                    versionSlot.put(key.getTargetClazz(), resultMapping);
+                }
+                resultMapping.put(((InjectionResultTargetKey) key).getResultClazz(), entry.getValue());
+            } else {
+                targetSlots.get(key.getVersion()).put(key.getTargetClazz(), entry.getValue());
+            }
+        }
+
+        // freeze
+        final ImmutableList.Builder<Map<Class<?>, ResultInjector<?, ?>>> targetBuilder = ImmutableList.builder();
+        for (Map<Class<?>, ResultInjector<?, ?>> slot : targetSlots) {
+            targetBuilder.add(ImmutableMap.copyOf(slot));
+        }
+        byTarget = targetBuilder.build();
+
+        final ImmutableList.Builder<Map<Class<?>, Map<Class<?>, ResultInjector<?, ?>>>> resultBuilder = ImmutableList.builder();
+        for (Map<Class<?>, Map<Class<?>, ResultInjector<?, ?>>> slot : resultSlots) {
+            final ImmutableMap.Builder<Class<?>, Map<Class<?>, ResultInjector<?, ?>>> slotBuilder = ImmutableMap.builder();
+            for (Entry<Class<?>, Map<Class<?>, ResultInjector<?, ?>>> resultEntry : slot.entrySet()) {
+                slotBuilder.put(resultEntry.getKey(), ImmutableMap.copyOf(resultEntry.getValue()));
+            }
+            resultBuilder.add(slotBuilder.build());
+        }
+        byTargetAndResult = resultBuilder.build();
+    }
+
+    /**
+     * equivalent of lookup by {@link InjectionKey}
+     *
+     * @param version openflow version
+     * @param targetClazz class of injection target
+     * @return injection or null if not registered
+     */
+    public ResultInjector<?, ?> lookup(final short version, final Class<?> targetClazz) {
+        if (version < 0 || version >= byTarget.size()) {
+            return null;
+        }
+        return byTarget.get(version).get(targetClazz);
+    }
+
+    /**
+     * equivalent of lookup by {@link InjectionResultTargetKey}
+     *
+     * @param version openflow version
+     * @param targetClazz class of injection target
+     * @param resultClazz class of injected result
+     * @return injection or null if not registered
+     */
+    public ResultInjector<?, ?> lookup(final short version, final Class<?> targetClazz, final Class<?> resultClazz) {
+        if (version < 0 || version >= byTargetAndResult.size()) {
+            return null;
+        }
+        final Map<Class<?>, ResultInjector<?, ?>> resultMapping = byTargetAndResult.get(version).get(targetClazz);
+        if (resultMapping == null) {
+            return null;
+        }
+        return resultMapping.get(resultClazz);
+    }
+}
@@ -7,31 +7,41 @@
  */
 package org.opendaylight.openflowplugin.openflow.md.core.session;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Preconditions;
-import com.google.common.util.concurrent.CheckedFuture;
-import com.google.common.util.concurrent.ListenableFuture;
-import com.google.common.util.concurrent.ListeningExecutorService;
-import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.PriorityBlockingQueue;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import org.opendaylight.openflowplugin.api.openflow.md.core.session.SessionContext;
 import org.opendaylight.openflowplugin.api.openflow.md.core.session.SessionManager;
 import org.opendaylight.openflowplugin.openflow.md.core.ThreadPoolLoggingExecutor;
-import org.opendaylight.openflowplugin.openflow.md.util.RoleUtil;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.protocol.rev130731.GetFeaturesOutput;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.openflow.common.config.impl.rev140326.OfpRole;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * manage OF-role propagation to devices
+ * manage OF-role propagation to devices - role change of up to {@link #MAX_PARALLEL_PUSHES} devices
+ * is in progress at the same time, each device walks generationId read, role request and barrier
+ * via callbacks; attempts without election result are retried with exponential backoff. Whole role
+ * change is bounded by round timeout - once it elapses the round is closed, devices not finished
+ * by then are reported as pending and late replies of closed round are neither retried nor recorded.
  */
-public class OFRoleManager implements AutoCloseable {
+public class OFRoleManager implements AutoCloseable, OFRoleManagerMXBean {
 
     /**
      * starting value of generationId
@@ -40,70 +50,223 @@ public class OFRoleManager implements AutoCloseable {
 
     private static final Logger LOG = LoggerFactory.getLogger(OFRoleManager.class);
 
-    private static final long TIMEOUT = 2000;
+    private static final int RETRY_LIMIT = 42;
 
-    private static final TimeUnit TIMEOUT_UNIT = TimeUnit.MILLISECONDS;
+    /** devices with role change in progress at the same time */
+    private static final int MAX_PARALLEL_PUSHES = 256;
 
-    private static final int RETRY_LIMIT = 42;
+    /** threads processing device replies */
+    private static final int BROADCAST_THREADS = 4;
+
+    /** first retry delay [ms], doubled with each retry */
+    private static final long RETRY_BACKOFF_BASE = 50;
+
+    /** retry delay limit [ms] */
+    private static final long RETRY_BACKOFF_MAX = 2000;
+
+    /** time budget of one role change over all devices [ms] */
+    private static final long DEFAULT_ROUND_TIMEOUT = 30000;
+
+    private static final Comparator<RolePushTask> PRIORITY_COMPARATOR = new Comparator<RolePushTask>() {
+        @Override
+        public int compare(final RolePushTask o1, final RolePushTask o2) {
+            return Integer.compare(o1.getPriority(), o2.getPriority());
+        }
+    };
 
-    private final ListeningExecutorService broadcastPool;
+    private final ThreadPoolExecutor broadcastPool;
 
-    private final BlockingQueue<RolePushTask> workQueue;
+    private final ScheduledThreadPoolExecutor timer;
 
     private final SessionManager sessionManager;
 
+    private final long roundTimeoutNanos;
+
+    private volatile List<String> lastRoleChangeReport = Collections.emptyList();
+
     /**
      * @param sessionManager
      */
     public OFRoleManager(final SessionManager sessionManager) {
+        this(sessionManager, DEFAULT_ROUND_TIMEOUT);
+    }
+
+    /**
+     * @param sessionManager
+     * @param roundTimeout time budget of one role change over all devices [ms]
+     */
+    @VisibleForTesting
+    OFRoleManager(final SessionManager sessionManager, final long roundTimeout) {
         Preconditions.checkNotNull("Session manager can not be empty.", sessionManager);
         this.sessionManager = sessionManager;
-        workQueue = new PriorityBlockingQueue<>(500, new Comparator<RolePushTask>() {
-            @Override
-            public int compare(final RolePushTask o1, final RolePushTask o2) {
-                return Integer.compare(o1.getPriority(), o2.getPriority());
-            }
-        });
-        ThreadPoolLoggingExecutor delegate = new ThreadPoolLoggingExecutor(
-                1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(1), "ofRoleBroadcast");
-        broadcastPool = MoreExecutors.listeningDecorator(
-                delegate);
+        roundTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(roundTimeout);
+        broadcastPool = new ThreadPoolLoggingExecutor(
+                BROADCAST_THREADS, BROADCAST_THREADS, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>(), "ofRoleBroadcast");
+        timer = new ScheduledThreadPoolExecutor(1,
+                new ThreadFactoryBuilder().setNameFormat("ofRoleTimer-%d").setDaemon(true).build());
+        timer.setRemoveOnCancelPolicy(true);
     }
 
     /**
-     * change role on each connected device
+     * change role on each connected device, returns when all devices finished or round timeout
+     * elapsed
      *
      * @param role
      */
     public void manageRoleChange(final OfpRole role) {
+        final List<RolePushTask> tasks = new ArrayList<>();
         for (final SessionContext session : sessionManager.getAllSessions()) {
-            try {
-                workQueue.put(new RolePushTask(role, session));
-            } catch (InterruptedException e) {
-                LOG.warn("Processing of role request failed while enqueueing role task: {}", e.getMessage());
-            }
+            tasks.add(new RolePushTask(role, session));
         }
+        Collections.sort(tasks, PRIORITY_COMPARATOR);
 
-        while (!workQueue.isEmpty()) {
-            RolePushTask task = workQueue.poll();
-            ListenableFuture<Boolean> rolePushResult = broadcastPool.submit(task);
-            CheckedFuture<Boolean, RolePushException> rolePushResultChecked =
-                    RoleUtil.makeCheckedRuleRequestFxResult(rolePushResult);
-            try {
-                Boolean succeeded = rolePushResultChecked.checkedGet(TIMEOUT, TIMEOUT_UNIT);
-                if (!MoreObjects.firstNonNull(succeeded, Boolean.FALSE)) {
-                    if (task.getRetryCounter() < RETRY_LIMIT) {
-                        workQueue.offer(task);
-                    }
+        final RoleChangeRound round = new RoleChangeRound(role, tasks.size(), System.nanoTime() + roundTimeoutNanos);
+        final Semaphore pushPermits = new Semaphore(MAX_PARALLEL_PUSHES);
+        try {
+            for (RolePushTask task : tasks) {
+                if (!pushPermits.tryAcquire(round.remainingNanos(), TimeUnit.NANOSECONDS)) {
+                    LOG.warn("role change to {}: round timed out before all devices were contacted", role);
+                    break;
                 }
-            } catch (RolePushException | TimeoutException e) {
-                LOG.warn("failed to process role request: {}", e);
+                launch(task, round, pushPermits);
+            }
+            if (!round.finished.await(round.remainingNanos(), TimeUnit.NANOSECONDS)) {
+                LOG.warn("role change to {}: not finished within {} ms, not waiting for remaining devices",
+                        role, TimeUnit.NANOSECONDS.toMillis(roundTimeoutNanos));
             }
+        } catch (InterruptedException e) {
+            LOG.warn("Processing of role request interrupted: {}", e.getMessage());
+            Thread.currentThread().interrupt();
         }
+        lastRoleChangeReport = round.close();
+        LOG.info("role change to {}: {} devices, succeeded={}, failed={}, pending={}, max latency={} ms",
+                role, tasks.size(), round.succeeded.get(), round.failed.get(), round.finished.getCount(),
+                TimeUnit.NANOSECONDS.toMillis(round.maxLatencyNanos.get()));
+    }
+
+    private void launch(final RolePushTask task, final RoleChangeRound round, final Semaphore pushPermits) {
+        if (round.isClosed()) {
+            LOG.debug("role change to {} already closed, not pushing", round.role);
+            return;
+        }
+        Futures.addCallback(task.push(timer, broadcastPool), new FutureCallback<Boolean>() {
+            @Override
+            public void onSuccess(final Boolean succeeded) {
+                if (round.isClosed()) {
+                    return;
+                }
+                if (MoreObjects.firstNonNull(succeeded, Boolean.FALSE)) {
+                    round.done(task, true, pushPermits);
+                    return;
+                }
+                final long backoff = computeBackoff(task.getRetryCounter());
+                if (task.getRetryCounter() >= RETRY_LIMIT) {
+                    LOG.warn("giving up role change after {} attempts", task.getRetryCounter());
+                    round.done(task, false, pushPermits);
+                } else if (round.remainingNanos() <= TimeUnit.MILLISECONDS.toNanos(backoff)) {
+                    LOG.warn("giving up role change after {} attempts: round timed out", task.getRetryCounter());
+                    round.done(task, false, pushPermits);
+                } else {
+                    timer.schedule(new Runnable() {
+                        @Override
+                        public void run() {
+                            launch(task, round, pushPermits);
+                        }
+                    }, backoff, TimeUnit.MILLISECONDS);
+                }
+            }
+
+            @Override
+            public void onFailure(final Throwable t) {
+                LOG.warn("failed to process role request: {}", t.getMessage());
+                round.done(task, false, pushPermits);
+            }
+        }, broadcastPool);
+    }
+
+    @VisibleForTesting
+    static long computeBackoff(final int retryCounter) {
+        return Math.min(RETRY_BACKOFF_MAX, RETRY_BACKOFF_BASE << Math.min(retryCounter - 1, 16));
+    }
+
+    @Override
+    public List<String> getLastRoleChangeReport() {
+        return lastRoleChangeReport;
     }
 
     @Override
     public void close() throws Exception {
+        timer.shutdownNow();
         broadcastPool.shutdown();
     }
+
+    /**
+     * progress of one role change over all devices
+     */
+    private static final class RoleChangeRound {
+        private final OfpRole role;
+        private final long deadlineNanos;
+        private final CountDownLatch finished;
+        private final AtomicInteger succeeded = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicLong maxLatencyNanos = new AtomicLong();
+        /** guarded by deviceReports */
+        private final List<String> deviceReports;
+        private volatile boolean closed;
+
+        RoleChangeRound(final OfpRole role, final int deviceCount, final long deadlineNanos) {
+            this.role = role;
+            this.deadlineNanos = deadlineNanos;
+            finished = new CountDownLatch(deviceCount);
+            deviceReports = Collections.synchronizedList(new ArrayList<String>(deviceCount));
+        }
+
+        void done(final RolePushTask task, final boolean success, final Semaphore pushPermits) {
+            final long latencyNanos = task.getElapsedNanos();
+            final GetFeaturesOutput features = task.getSession().getFeatures();
+            final BigInteger datapathId = features == null ? null : features.getDatapathId();
+            final String deviceReport = String.format("%s: role=%s, succeeded=%s, retries=%d, latency=%d ms",
+                    datapathId, role, success, task.getRetryCounter(), TimeUnit.NANOSECONDS.toMillis(latencyNanos));
+            synchronized (deviceReports) {
+                if (closed) {
+                    LOG.debug("role change finished after round was closed - {}", deviceReport);
+                    return;
+                }
+                deviceReports.add(deviceReport);
+            }
+            LOG.debug("role change finished - {}", deviceReport);
+            if (success) {
+                succeeded.incrementAndGet();
+                long max = maxLatencyNanos.get();
+                while (latencyNanos > max && !maxLatencyNanos.compareAndSet(max, latencyNanos)) {
+                    max = maxLatencyNanos.get();
+                }
+            } else {
+                failed.incrementAndGet();
+            }
+            pushPermits.release();
+            finished.countDown();
+        }
+
+        long remainingNanos() {
+            return deadlineNanos - System.nanoTime();
+        }
+
+        boolean isClosed() {
+            return closed;
+        }
+
+        /**
+         * stop recording results of this round
+         *
+         * @return reports of devices finished before closing
+         */
+        List<String> close() {
+            synchronized (deviceReports) {
+                closed = true;
+                return Collections.unmodifiableList(new ArrayList<>(deviceReports));
+            }
+        }
+    }
 }
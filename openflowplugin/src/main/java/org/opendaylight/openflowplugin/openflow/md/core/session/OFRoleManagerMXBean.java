@@ -0,0 +1,21 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.openflow.md.core.session;
+
+import java.util.List;
+
+/**
+ * JMX view of {@link OFRoleManager}
+ */
+public interface OFRoleManagerMXBean {
+
+    /**
+     * @return one line per device finished in last role change - outcome, retries and latency
+     */
+    List<String> getLastRoleChangeReport();
+}
@@ -8,10 +8,17 @@
 package org.opendaylight.openflowplugin.openflow.md.core.session;
 
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
 import java.math.BigInteger;
-import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import org.opendaylight.openflowplugin.api.openflow.md.core.session.SessionContext;
 import org.opendaylight.openflowplugin.openflow.md.core.MessageFactory;
 import org.opendaylight.openflowplugin.openflow.md.util.RoleUtil;
@@ -28,10 +35,13 @@ import org.slf4j.LoggerFactory;
  * <ul>
  * <li>here we read generationId from device and</li>
  * <li>push role request with incremented generationId</li>
- * <li>{@link #call()} returns true if role request was successful</li>
+ * <li>flush election result with barrier</li>
  * </ul>
+ * Steps are chained via callbacks, no thread waits for device replies. Result of
+ * {@link #push(ScheduledExecutorService, Executor)} is true if role request was successful, false
+ * if attempt timed out or election result is missing (worth retry).
  */
-final class RolePushTask implements Callable<Boolean> {
+final class RolePushTask {
 
     private static final Logger LOG = LoggerFactory
             .getLogger(RolePushTask.class);
@@ -42,6 +52,7 @@ final class RolePushTask implements Callable<Boolean> {
     private SessionContext session;
     private int priority;
     private int retryCounter;
+    private long firstPushNanos;
 
     /**
      * @param role
@@ -75,53 +86,167 @@ final class RolePushTask implements Callable<Boolean> {
         this.priority = priority;
     }
 
-    @Override
-    public Boolean call() throws RolePushException {
+    /**
+     * @return session the role is pushed to
+     */
+    public SessionContext getSession() {
+        return session;
+    }
+
+    /**
+     * @return time elapsed since first attempt [ns]
+     */
+    public long getElapsedNanos() {
+        return System.nanoTime() - firstPushNanos;
+    }
+
+    /**
+     * start one attempt of role change
+     *
+     * @param timer drives reply timeouts
+     * @param callbackExecutor runs the steps following device replies
+     * @return attempt outcome - true if role is possessed, false if worth retry, failed with
+     * {@link RolePushException} if role change is not possible
+     */
+    public ListenableFuture<Boolean> push(final ScheduledExecutorService timer, final Executor callbackExecutor) {
+        if (firstPushNanos == 0) {
+            firstPushNanos = System.nanoTime();
+        }
+        final SettableFuture<Boolean> outcome = SettableFuture.create();
         if (!session.isValid()) {
-            String msg = "giving up role change: current session is invalid";
-            LOG.debug(msg);
-            throw new RolePushException(msg);
+            giveUp(outcome, "giving up role change: current session is invalid");
+            return outcome;
         }
 
-        // adopt actual generationId from device (first shot failed and this is retry)
-        BigInteger generationId = null;
+        // adopt actual generationId from device
+        final ListenableFuture<BigInteger> generationIdFuture;
         try {
-            generationId = RoleUtil.readGenerationIdFromDevice(session).get(TIMEOUT, TIMEOUT_UNIT);
+            generationIdFuture = RoleUtil.readGenerationIdFromDevice(session);
         } catch (Exception e) {
             LOG.debug("generationId request failed: ", e);
+            giveUp(outcome, "giving up role change: current generationId can not be read");
+            return outcome;
         }
 
-        if (generationId == null) {
-            String msg = "giving up role change: current generationId can not be read";
-            LOG.debug(msg);
-            throw new RolePushException(msg);
-        }
+        Futures.addCallback(withTimeout(generationIdFuture, timer), new FutureCallback<BigInteger>() {
+            @Override
+            public void onSuccess(final BigInteger generationId) {
+                if (generationId == null) {
+                    giveUp(outcome, "giving up role change: current generationId can not be read");
+                } else {
+                    pushRole(RoleUtil.getNextGenerationId(generationId), timer, callbackExecutor, outcome);
+                }
+            }
 
-        generationId = RoleUtil.getNextGenerationId(generationId);
+            @Override
+            public void onFailure(final Throwable t) {
+                if (t instanceof TimeoutException) {
+                    LOG.debug("generationId request timed out - will retry");
+                    retryLater(outcome);
+                } else {
+                    LOG.debug("generationId request failed: ", t);
+                    giveUp(outcome, "giving up role change: current generationId can not be read");
+                }
+            }
+        }, callbackExecutor);
+        return outcome;
+    }
 
-        // try to possess role on device
-        Future<RpcResult<RoleRequestOutput>> roleReply = RoleUtil.sendRoleChangeRequest(session, role, generationId);
-        // flush election result with barrier
-        BarrierInput barrierInput = MessageFactory.createBarrier(
-                session.getFeatures().getVersion(), session.getNextXid());
-        Future<RpcResult<BarrierOutput>> barrierResult = session.getPrimaryConductor().getConnectionAdapter().barrier(barrierInput);
+    private void pushRole(final BigInteger generationId, final ScheduledExecutorService timer,
+            final Executor callbackExecutor, final SettableFuture<Boolean> outcome) {
+        final Future<RpcResult<BarrierOutput>> barrierResult;
+        final Future<RpcResult<RoleRequestOutput>> roleReply;
         try {
-            barrierResult.get(TIMEOUT, TIMEOUT_UNIT);
+            // try to possess role on device
+            roleReply = RoleUtil.sendRoleChangeRequest(session, role, generationId);
+            // flush election result with barrier
+            BarrierInput barrierInput = MessageFactory.createBarrier(
+                    session.getFeatures().getVersion(), session.getNextXid());
+            barrierResult = session.getPrimaryConductor().getConnectionAdapter().barrier(barrierInput);
         } catch (Exception e) {
-            String msg = String.format("giving up role change: barrier after role change failed: %s", e.getMessage());
-            LOG.warn(msg);
-            throw new RolePushException(msg);
+            giveUp(outcome, String.format("giving up role change: role request failed: %s", e.getMessage()));
+            return;
+        }
+
+        Futures.addCallback(withTimeout(RoleUtil.listen(barrierResult), timer),
+                new FutureCallback<RpcResult<BarrierOutput>>() {
+                    @Override
+                    public void onSuccess(final RpcResult<BarrierOutput> result) {
+                        // after barrier replied there must be election result or error
+                        if (isSuccessful(roleReply)) {
+                            // here we expect that role on device is successfully possessed
+                            outcome.set(true);
+                        } else {
+                            // no election result received - let's retry
+                            retryLater(outcome);
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(final Throwable t) {
+                        if (t instanceof TimeoutException) {
+                            LOG.debug("barrier after role change timed out - will retry");
+                            retryLater(outcome);
+                        } else {
+                            String msg = String.format("giving up role change: barrier after role change failed: %s",
+                                    t.getMessage());
+                            LOG.warn(msg);
+                            outcome.setException(new RolePushException(msg, t));
+                        }
+                    }
+                }, callbackExecutor);
+    }
+
+    private void retryLater(final SettableFuture<Boolean> outcome) {
+        retryCounter += 1;
+        outcome.set(false);
+    }
+
+    private static void giveUp(final SettableFuture<Boolean> outcome, final String msg) {
+        LOG.debug(msg);
+        outcome.setException(new RolePushException(msg));
+    }
+
+    private static boolean isSuccessful(final Future<RpcResult<RoleRequestOutput>> roleReply) {
+        if (roleReply == null || !roleReply.isDone()) {
+            return false;
         }
-        // after barrier replied there must be election result or error
         try {
-            roleReply.get(0, TimeUnit.MILLISECONDS);
+            final RpcResult<RoleRequestOutput> result = roleReply.get();
+            return result != null && result.isSuccessful();
         } catch (Exception e) {
-            // no election result received - let's retry
-            retryCounter += 1;
+            LOG.trace("role request failed: ", e);
             return false;
         }
+    }
+
+    /**
+     * @param future device reply
+     * @param timer timeout source
+     * @return future failing with {@link TimeoutException} unless given future completes within {@link #TIMEOUT}
+     */
+    private static <V> ListenableFuture<V> withTimeout(final ListenableFuture<V> future,
+            final ScheduledExecutorService timer) {
+        final SettableFuture<V> result = SettableFuture.create();
+        final ScheduledFuture<?> timeoutTask = timer.schedule(new Runnable() {
+            @Override
+            public void run() {
+                result.setException(new TimeoutException("no reply within " + TIMEOUT + " " + TIMEOUT_UNIT));
+            }
+        }, TIMEOUT, TIMEOUT_UNIT);
+        Futures.addCallback(future, new FutureCallback<V>() {
+            @Override
+            public void onSuccess(final V value) {
+                timeoutTask.cancel(false);
+                result.set(value);
+            }
 
-        // here we expect that role on device is successfully possessed
-        return true;
+            @Override
+            public void onFailure(final Throwable t) {
+                timeoutTask.cancel(false);
+                result.setException(t);
+            }
+        });
+        return result;
     }
-}
\ No newline at end of file
+}
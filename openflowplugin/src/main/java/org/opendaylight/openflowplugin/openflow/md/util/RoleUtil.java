@@ -113,11 +113,11 @@ public final class RoleUtil {
      * @param sessionContext
      * @return generationId from future RpcResult
      */
-    public static Future<BigInteger> readGenerationIdFromDevice(SessionContext sessionContext) {
-        Future<BigInteger> generationIdFuture = null;
+    public static ListenableFuture<BigInteger> readGenerationIdFromDevice(SessionContext sessionContext) {
+        ListenableFuture<BigInteger> generationIdFuture = null;
         Future<RpcResult<RoleRequestOutput>> roleReply = sendRoleChangeRequest(sessionContext, OfpRole.NOCHANGE, BigInteger.ZERO);
         generationIdFuture = Futures.transform(
-                JdkFutureAdapters.listenInPoolThread(roleReply),
+                listen(roleReply),
                 new Function<RpcResult<RoleRequestOutput>, BigInteger>() {
                     @Override
                     public BigInteger apply(RpcResult<RoleRequestOutput> input) {
@@ -128,6 +128,17 @@ public final class RoleUtil {
         return generationIdFuture;
     }
 
+    /**
+     * @param future rpc result
+     * @return given future if it supports listeners, otherwise adapter (blocking one pool thread)
+     */
+    public static <V> ListenableFuture<V> listen(Future<V> future) {
+        if (future instanceof ListenableFuture) {
+            return (ListenableFuture<V>) future;
+        }
+        return JdkFutureAdapters.listenInPoolThread(future);
+    }
+
     /**
      * @param generationId
      * @return next (incremented value)
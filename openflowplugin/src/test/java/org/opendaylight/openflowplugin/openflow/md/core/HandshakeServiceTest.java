@@ -0,0 +1,143 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.openflow.md.core;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * test of {@link HandshakeService}
+ */
+public class HandshakeServiceTest {
+
+    /**
+     * second connection waits until first one finishes, steps of one lane keep their order
+     */
+    @Test
+    public void testAdmissionFifo() throws Exception {
+        final HandshakeService handshakeService = new HandshakeService(2, 1, 10000);
+        final List<String> trace = new CopyOnWriteArrayList<>();
+        final CountDownLatch firstDone = new CountDownLatch(2);
+        final CountDownLatch secondDone = new CountDownLatch(1);
+
+        final HandshakeService.Lane first = handshakeService.createLane("first", null);
+        final HandshakeService.Lane second = handshakeService.createLane("second", null);
+        first.execute(new TraceStep(trace, "first-1", firstDone));
+        first.execute(new TraceStep(trace, "first-2", firstDone));
+        second.execute(new TraceStep(trace, "second-1", secondDone));
+
+        Assert.assertTrue(firstDone.await(1, TimeUnit.SECONDS));
+        Assert.assertEquals(1, handshakeService.getActiveHandshakes());
+        Assert.assertEquals(1, handshakeService.getWaitingHandshakes());
+        Assert.assertEquals(1, secondDone.getCount());
+
+        first.succeeded();
+        Assert.assertTrue(secondDone.await(1, TimeUnit.SECONDS));
+        Assert.assertEquals(0, handshakeService.getWaitingHandshakes());
+        Assert.assertEquals(1, handshakeService.getHandshakesSucceeded());
+
+        second.shutdown();
+        Assert.assertEquals(0, handshakeService.getActiveHandshakes());
+        Assert.assertEquals(1, handshakeService.getHandshakesFailed());
+        Assert.assertEquals("[first-1, first-2, second-1]", trace.toString());
+    }
+
+    /**
+     * waiting connection closed before admission does not consume slot
+     */
+    @Test
+    public void testWithdrawWaiting() throws Exception {
+        final HandshakeService handshakeService = new HandshakeService(1, 1, 10000);
+        final HandshakeService.Lane first = handshakeService.createLane("first", null);
+        final HandshakeService.Lane second = handshakeService.createLane("second", null);
+        first.execute(new TraceStep(new CopyOnWriteArrayList<String>(), "first-1", new CountDownLatch(1)));
+        second.execute(new TraceStep(new CopyOnWriteArrayList<String>(), "second-1", new CountDownLatch(1)));
+        Assert.assertEquals(1, handshakeService.getWaitingHandshakes());
+
+        second.shutdown();
+        Assert.assertEquals(0, handshakeService.getWaitingHandshakes());
+        first.shutdown();
+        Assert.assertEquals(0, handshakeService.getActiveHandshakes());
+
+        second.execute(new TraceStep(new CopyOnWriteArrayList<String>(), "second-2", new CountDownLatch(1)));
+        Assert.assertTrue(second.isShutdown());
+        Assert.assertEquals(0, handshakeService.getActiveHandshakes());
+    }
+
+    /**
+     * stalled handshake gets aborted and frees its slot
+     */
+    @Test
+    public void testTimeout() throws Exception {
+        final HandshakeService handshakeService = new HandshakeService(1, 1, 50);
+        final CountDownLatch aborted = new CountDownLatch(1);
+        final HandshakeService.Lane lane = handshakeService.createLane("stalled", new Runnable() {
+            @Override
+            public void run() {
+                aborted.countDown();
+            }
+        });
+        lane.execute(new TraceStep(new CopyOnWriteArrayList<String>(), "hello", new CountDownLatch(1)));
+
+        Assert.assertTrue(aborted.await(1, TimeUnit.SECONDS));
+        Assert.assertTrue(lane.isShutdown());
+        Assert.assertEquals(1, handshakeService.getHandshakesTimedOut());
+        Assert.assertEquals(0, handshakeService.getActiveHandshakes());
+    }
+
+    /**
+     * pending rpc result is delivered on handshake worker
+     */
+    @Test
+    public void testAddCallback() throws Exception {
+        final SettableFuture<String> future = SettableFuture.create();
+        final CountDownLatch delivered = new CountDownLatch(1);
+        final AtomicReference<String> threadName = new AtomicReference<>();
+        HandshakeService.addCallback(future, new FutureCallback<String>() {
+            @Override
+            public void onSuccess(final String result) {
+                threadName.set(Thread.currentThread().getName());
+                delivered.countDown();
+            }
+
+            @Override
+            public void onFailure(final Throwable t) {
+                Assert.fail(t.getMessage());
+            }
+        });
+        future.set("features");
+
+        Assert.assertTrue(delivered.await(1, TimeUnit.SECONDS));
+        Assert.assertTrue(threadName.get().startsWith("OFHandshake-"));
+    }
+
+    private static class TraceStep implements Runnable {
+        private final List<String> trace;
+        private final String name;
+        private final CountDownLatch done;
+
+        TraceStep(final List<String> trace, final String name, final CountDownLatch done) {
+            this.trace = trace;
+            this.name = name;
+            this.done = done;
+        }
+
+        @Override
+        public void run() {
+            trace.add(name);
+            done.countDown();
+        }
+    }
+}
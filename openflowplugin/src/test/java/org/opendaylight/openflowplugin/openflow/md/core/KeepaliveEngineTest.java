@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.openflow.md.core;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.when;
+
+import com.google.common.util.concurrent.SettableFuture;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.opendaylight.openflowjava.protocol.api.connection.ConnectionAdapter;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.protocol.rev130731.EchoInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.protocol.rev130731.EchoInputBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.protocol.rev130731.EchoOutput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.protocol.rev130731.EchoOutputBuilder;
+import org.opendaylight.yangtools.yang.common.RpcResult;
+import org.opendaylight.yangtools.yang.common.RpcResultBuilder;
+
+/**
+ * test of {@link KeepaliveEngine}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class KeepaliveEngineTest {
+
+    @Mock
+    private ConnectionAdapter connectionAdapter;
+    @Mock
+    private Future<RpcResult<EchoOutput>> plainFuture;
+
+    private KeepaliveEngine keepaliveEngine;
+    private EchoInput echoInput;
+
+    @Before
+    public void setUp() {
+        keepaliveEngine = new KeepaliveEngine();
+        echoInput = new EchoInputBuilder().setVersion((short) 4).setXid(42L).build();
+        when(connectionAdapter.getRemoteAddress()).thenReturn(new InetSocketAddress("10.0.0.1", 6653));
+        keepaliveEngine.register(connectionAdapter);
+    }
+
+    /**
+     * reply in time - alive callback, rtt recorded
+     */
+    @Test
+    public void testProbeAlive() throws Exception {
+        final SettableFuture<RpcResult<EchoOutput>> echoFuture = SettableFuture.create();
+        when(connectionAdapter.echo(any(EchoInput.class))).thenReturn(echoFuture);
+        final RecordingCallback callback = new RecordingCallback();
+
+        keepaliveEngine.probe(connectionAdapter, echoInput, 1, TimeUnit.SECONDS, callback);
+        echoFuture.set(RpcResultBuilder.success(new EchoOutputBuilder().build()).build());
+
+        Assert.assertTrue(callback.done.await(1, TimeUnit.SECONDS));
+        Assert.assertNull(callback.failure.get());
+        Assert.assertTrue(keepaliveEngine.getLastRttNanos(connectionAdapter) >= 0);
+        Assert.assertEquals(0, keepaliveEngine.getConsecutiveMisses(connectionAdapter));
+        Assert.assertEquals(1, keepaliveEngine.getProbesSent());
+        Assert.assertEquals(0, keepaliveEngine.getProbesMissed());
+    }
+
+    /**
+     * no reply - failure callback by timer, miss counted
+     */
+    @Test
+    public void testProbeTimeout() throws Exception {
+        when(connectionAdapter.echo(any(EchoInput.class)))
+                .thenReturn(SettableFuture.<RpcResult<EchoOutput>>create());
+        final RecordingCallback callback = new RecordingCallback();
+
+        keepaliveEngine.probe(connectionAdapter, echoInput, 50, TimeUnit.MILLISECONDS, callback);
+
+        Assert.assertTrue(callback.done.await(1, TimeUnit.SECONDS));
+        Assert.assertTrue(callback.failure.get() instanceof TimeoutException);
+        Assert.assertEquals(1, keepaliveEngine.getConsecutiveMisses(connectionAdapter));
+        Assert.assertEquals(1, keepaliveEngine.getProbesMissed());
+        Assert.assertEquals(1, keepaliveEngine.provideLivenessReport().size());
+
+        keepaliveEngine.unregister(connectionAdapter);
+        Assert.assertEquals(0, keepaliveEngine.getMonitoredConnections());
+    }
+
+    /**
+     * future without listener support is polled
+     */
+    @Test
+    public void testProbePlainFuture() throws Exception {
+        when(plainFuture.isDone()).thenReturn(false, true);
+        when(plainFuture.get()).thenReturn(RpcResultBuilder.success(new EchoOutputBuilder().build()).build());
+        when(connectionAdapter.echo(any(EchoInput.class))).thenReturn(plainFuture);
+        final RecordingCallback callback = new RecordingCallback();
+
+        keepaliveEngine.probe(connectionAdapter, echoInput, 1, TimeUnit.SECONDS, callback);
+
+        Assert.assertTrue(callback.done.await(1, TimeUnit.SECONDS));
+        Assert.assertNull(callback.failure.get());
+    }
+
+    /**
+     * reply arriving after connection was unregistered does not register it again
+     */
+    @Test
+    public void testLateReplyAfterUnregister() throws Exception {
+        final SettableFuture<RpcResult<EchoOutput>> echoFuture = SettableFuture.create();
+        when(connectionAdapter.echo(any(EchoInput.class))).thenReturn(echoFuture);
+        final RecordingCallback callback = new RecordingCallback();
+
+        keepaliveEngine.probe(connectionAdapter, echoInput, 1, TimeUnit.SECONDS, callback);
+        keepaliveEngine.unregister(connectionAdapter);
+        echoFuture.set(RpcResultBuilder.success(new EchoOutputBuilder().build()).build());
+        keepaliveEngine.echoRequestAnswered(connectionAdapter);
+
+        Assert.assertTrue(callback.done.await(1, TimeUnit.SECONDS));
+        Assert.assertEquals(0, keepaliveEngine.getMonitoredConnections());
+        Assert.assertEquals(-1, keepaliveEngine.getLastRttNanos(connectionAdapter));
+    }
+
+    private static class RecordingCallback implements KeepaliveEngine.ProbeCallback {
+        private final CountDownLatch done = new CountDownLatch(1);
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        @Override
+        public void onAlive() {
+            done.countDown();
+        }
+
+        @Override
+        public void onFailure(final Throwable cause) {
+            failure.set(cause);
+            done.countDown();
+        }
+    }
+}
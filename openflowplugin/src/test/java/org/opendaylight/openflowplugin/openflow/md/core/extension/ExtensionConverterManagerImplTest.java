@@ -14,13 +14,21 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.opendaylight.openflowjava.protocol.api.keys.ActionSerializerKey;
 import org.opendaylight.openflowjava.protocol.api.keys.ExperimenterActionSerializerKey;
+import org.opendaylight.openflowjava.protocol.api.keys.MatchEntrySerializerKey;
 import org.opendaylight.openflowplugin.extension.api.ConvertorActionFromOFJava;
 import org.opendaylight.openflowplugin.extension.api.ConvertorActionToOFJava;
+import org.opendaylight.openflowplugin.extension.api.ConvertorFromOFJava;
 import org.opendaylight.openflowplugin.extension.api.TypeVersionKey;
 import org.opendaylight.openflowplugin.extension.api.path.ActionPath;
+import org.opendaylight.openflowplugin.extension.api.path.MatchPath;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.Action;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.common.action.rev150203.ExperimenterActionSubType;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.common.action.rev150203.action.grouping.ActionChoice;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.oxm.rev150225.MatchField;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.oxm.rev150225.OxmClassBase;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.oxm.rev150225.match.entries.grouping.MatchEntry;
 
 /**
  * {@link ExtensionConverterManagerImpl} test
@@ -35,6 +43,8 @@ public class ExtensionConverterManagerImplTest {
     @Mock
     private ConvertorActionFromOFJava<org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.common.action.rev150203.actions.grouping.Action, ActionPath> extConvertorFromOFJava;
     private ExperimenterActionSerializerKey keyFromOFJava;
+    @Mock
+    private ConvertorFromOFJava<MatchEntry, MatchPath> extMatchConvertorFromOFJava;
     private AutoCloseable regFromOFJava;
     private AutoCloseable regToOFJava;
 
@@ -100,6 +110,92 @@ public class ExtensionConverterManagerImplTest {
         Assert.assertEquals(extConvertorFromOFJava, manager.getActionConverter(keyFromOFJava));
     }
 
+    /**
+     * Test method for {@link ExtensionConverterManagerImpl#getActionConverterToOfj(Class, short)}.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testGetActionConverterByClass() throws Exception {
+        Assert.assertEquals(extConvertorToOFJava, manager.getActionConverterToOfj(ActionExpCase.class, (short) 1));
+        Assert.assertNull(manager.getActionConverterToOfj(ActionExpCase.class, (short) 4));
+
+        regToOFJava.close();
+        Assert.assertNull(manager.getActionConverterToOfj(ActionExpCase.class, (short) 1));
+    }
+
+    /**
+     * Test method for {@link ExtensionConverterManagerImpl#getMatchConverter(short, Class, Class)}.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testGetMatchConverterByClass() throws Exception {
+        final MatchEntrySerializerKey<MockOxmClassBase, MockMatchField> matchKey =
+                new MatchEntrySerializerKey<>((short) 4, MockOxmClassBase.class, MockMatchField.class);
+
+        // miss gets memoized and must be dropped upon registration
+        Assert.assertNull(manager.getMatchConverter((short) 4, MockOxmClassBase.class, MockMatchField.class));
+        final AutoCloseable regMatch = manager.registerMatchConvertor(matchKey, extMatchConvertorFromOFJava);
+        Assert.assertEquals(extMatchConvertorFromOFJava,
+                manager.getMatchConverter((short) 4, MockOxmClassBase.class, MockMatchField.class));
+        Assert.assertEquals(manager.getConverter(matchKey),
+                manager.getMatchConverter((short) 4, MockOxmClassBase.class, MockMatchField.class));
+
+        regMatch.close();
+        Assert.assertNull(manager.getMatchConverter((short) 4, MockOxmClassBase.class, MockMatchField.class));
+    }
+
+    /**
+     * Test method for {@link ExtensionConverterManagerImpl#getExperimenterActionConverter(short, long, Class)}.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testGetExperimenterActionConverter() throws Exception {
+        Assert.assertEquals(extConvertorFromOFJava,
+                manager.getExperimenterActionConverter((short) 1, 42L, ExpSubType.class));
+        Assert.assertNull(manager.getExperimenterActionConverter((short) 1, 43L, ExpSubType.class));
+        Assert.assertNull(manager.getExperimenterActionConverter((short) 4, 42L, ExpSubType.class));
+        Assert.assertEquals(extConvertorFromOFJava,
+                manager.getExperimenterActionConverter((short) 1, 42L, ExpSubType.class));
+
+        regFromOFJava.close();
+        Assert.assertNull(manager.getExperimenterActionConverter((short) 1, 42L, ExpSubType.class));
+
+        // miss gets memoized and must be dropped upon registration
+        final ExperimenterActionSerializerKey otherKey = new ExperimenterActionSerializerKey((short) 1, 43L, ExpSubType.class);
+        final AutoCloseable regOther = manager.registerActionConvertor(otherKey, extConvertorFromOFJava);
+        Assert.assertEquals(extConvertorFromOFJava,
+                manager.getExperimenterActionConverter((short) 1, 43L, ExpSubType.class));
+        Assert.assertNull(manager.getExperimenterActionConverter((short) 1, 42L, ExpSubType.class));
+        regOther.close();
+    }
+
+    /**
+     * Test method for {@link ExtensionConverterManagerImpl#getActionConverterFromOfj(short, Class)}.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testGetActionConverterByChoice() throws Exception {
+        final ActionSerializerKey<MockActionChoice> actionKey =
+                new ActionSerializerKey<>((short) 4, MockActionChoice.class, null);
+
+        Assert.assertNull(manager.getActionConverterFromOfj((short) 4, MockActionChoice.class));
+        final AutoCloseable regAction = manager.registerActionConvertor(actionKey, extConvertorFromOFJava);
+        Assert.assertEquals(extConvertorFromOFJava, manager.getActionConverterFromOfj((short) 4, MockActionChoice.class));
+        Assert.assertEquals(manager.getActionConverter(actionKey),
+                manager.getActionConverterFromOfj((short) 4, MockActionChoice.class));
+
+        regAction.close();
+        Assert.assertNull(manager.getActionConverterFromOfj((short) 4, MockActionChoice.class));
+    }
+
+    private static interface MockActionChoice extends ActionChoice {
+        // NOOP
+    }
+
     private static class ExpSubType extends ExperimenterActionSubType {
         // NOOP
     }
@@ -108,4 +204,12 @@ public class ExtensionConverterManagerImplTest {
         // NOOP
     }
 
+    private static class MockOxmClassBase extends OxmClassBase {
+        // NOOP
+    }
+
+    private static class MockMatchField extends MatchField {
+        // NOOP
+    }
+
 }
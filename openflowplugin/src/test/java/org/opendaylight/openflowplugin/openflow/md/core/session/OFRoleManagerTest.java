@@ -8,9 +8,15 @@
 package org.opendaylight.openflowplugin.openflow.md.core.session;
 
 import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.SettableFuture;
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -19,7 +25,9 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
 import org.opendaylight.openflowjava.protocol.api.connection.ConnectionAdapter;
 import org.opendaylight.openflowplugin.api.openflow.md.core.ConnectionConductor;
 import org.opendaylight.openflowplugin.api.openflow.md.core.session.SessionContext;
@@ -33,6 +41,7 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.protocol.rev130731
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.protocol.rev130731.RoleRequestOutput;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.openflow.protocol.rev130731.RoleRequestOutputBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.openflow.common.config.impl.rev140326.OfpRole;
+import org.opendaylight.yangtools.yang.common.RpcResult;
 import org.opendaylight.yangtools.yang.common.RpcResultBuilder;
 
 /**
@@ -140,4 +149,198 @@ public class OFRoleManagerTest {
         Assert.assertEquals(ControllerRole.OFPCRROLESLAVE, values.get(1).getRole());
         Assert.assertEquals(11L, values.get(1).getGenerationId().longValue());
     }
+
+    /**
+     * Test method for {@link OFRoleManager#manageRoleChange(OfpRole)}.
+     * <br/>
+     * devices are served in parallel - barriers of all devices are answered only after every device
+     * got its role request
+     */
+    @Test
+    public void testManageRoleChangeParallel() throws Exception {
+        final int deviceCount = 3;
+        final BlockingQueue<SettableFuture<RpcResult<BarrierOutput>>> barriers = new LinkedBlockingQueue<>();
+        final List<SessionContext> sessions = new ArrayList<>();
+        for (int i = 0; i < deviceCount; i++) {
+            final ConnectionAdapter adapter = Mockito.mock(ConnectionAdapter.class);
+            Mockito.when(adapter.roleRequest(Matchers.any(RoleRequestInput.class)))
+                    .thenReturn(Futures.immediateFuture(RpcResultBuilder.success(roleRequestOutput).build()));
+            Mockito.when(adapter.barrier(Matchers.any(BarrierInput.class))).thenAnswer(
+                    new Answer<SettableFuture<RpcResult<BarrierOutput>>>() {
+                        @Override
+                        public SettableFuture<RpcResult<BarrierOutput>> answer(final InvocationOnMock invocation) {
+                            final SettableFuture<RpcResult<BarrierOutput>> barrier = SettableFuture.create();
+                            barriers.add(barrier);
+                            return barrier;
+                        }
+                    });
+            sessions.add(mockSession(adapter));
+        }
+        Mockito.when(sessionManager.getAllSessions()).thenReturn(sessions);
+
+        final Thread responder = new Thread() {
+            @Override
+            public void run() {
+                final List<SettableFuture<RpcResult<BarrierOutput>>> pending = new ArrayList<>();
+                try {
+                    while (pending.size() < deviceCount) {
+                        final SettableFuture<RpcResult<BarrierOutput>> barrier = barriers.poll(5, TimeUnit.SECONDS);
+                        if (barrier == null) {
+                            break;
+                        }
+                        pending.add(barrier);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (SettableFuture<RpcResult<BarrierOutput>> barrier : pending) {
+                    barrier.set(RpcResultBuilder.success(barrierOutput).build());
+                }
+            }
+        };
+        responder.start();
+
+        manager.manageRoleChange(OfpRole.BECOMESLAVE);
+        responder.join();
+
+        final List<String> report = manager.getLastRoleChangeReport();
+        Assert.assertEquals(deviceCount, report.size());
+        for (String deviceReport : report) {
+            Assert.assertTrue(deviceReport, deviceReport.contains("succeeded=true"));
+        }
+    }
+
+    /**
+     * Test method for {@link OFRoleManager#manageRoleChange(OfpRole)}.
+     * <br/>
+     * device never delivers election result - attempts are retried with backoff until round
+     * timeout does not leave room for next retry
+     */
+    @Test
+    public void testManageRoleChangeRetry() {
+        final OFRoleManager boundedManager = new OFRoleManager(sessionManager, 1000);
+        final AtomicInteger roleChangeAttempts = new AtomicInteger();
+        Mockito.when(session.isValid()).thenReturn(true);
+        Mockito.when(sessionManager.getAllSessions()).thenReturn(Collections.singleton(session));
+        Mockito.when(connectionAdapter.roleRequest(Matchers.any(RoleRequestInput.class))).thenAnswer(
+                new Answer<SettableFuture<RpcResult<RoleRequestOutput>>>() {
+                    @Override
+                    public SettableFuture<RpcResult<RoleRequestOutput>> answer(final InvocationOnMock invocation) {
+                        final RoleRequestInput input = (RoleRequestInput) invocation.getArguments()[0];
+                        final SettableFuture<RpcResult<RoleRequestOutput>> reply = SettableFuture.create();
+                        if (ControllerRole.OFPCRROLENOCHANGE.equals(input.getRole())) {
+                            reply.set(RpcResultBuilder.success(roleRequestOutput).build());
+                        } else {
+                            // election result never arrives
+                            roleChangeAttempts.incrementAndGet();
+                        }
+                        return reply;
+                    }
+                });
+        Mockito.when(connectionAdapter.barrier(Matchers.any(BarrierInput.class)))
+                .thenReturn(Futures.immediateFuture(RpcResultBuilder.success(barrierOutput).build()));
+
+        final long startNanos = System.nanoTime();
+        boundedManager.manageRoleChange(OfpRole.BECOMESLAVE);
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+        // backoff 50, 100, 200, 400 ms fits into 1 s, 800 ms does not (slow scheduling may cut one more)
+        Assert.assertTrue("attempts: " + roleChangeAttempts.get(),
+                roleChangeAttempts.get() >= 4 && roleChangeAttempts.get() <= 5);
+        Assert.assertTrue("took " + elapsedMillis + " ms", elapsedMillis < 1000);
+        final List<String> report = boundedManager.getLastRoleChangeReport();
+        Assert.assertEquals(1, report.size());
+        Assert.assertTrue(report.get(0), report.get(0).contains("succeeded=false, retries=" + roleChangeAttempts.get()));
+    }
+
+    /**
+     * Test method for {@link OFRoleManager#manageRoleChange(OfpRole)}.
+     * <br/>
+     * device does not answer barrier - role change returns after round timeout without waiting
+     * for the device reply timeout
+     */
+    @Test
+    public void testManageRoleChangeRoundTimeout() {
+        final OFRoleManager boundedManager = new OFRoleManager(sessionManager, 300);
+        Mockito.when(session.isValid()).thenReturn(true);
+        Mockito.when(sessionManager.getAllSessions()).thenReturn(Collections.singleton(session));
+        Mockito.when(connectionAdapter.roleRequest(Matchers.any(RoleRequestInput.class)))
+                .thenReturn(Futures.immediateFuture(RpcResultBuilder.success(roleRequestOutput).build()));
+        Mockito.when(connectionAdapter.barrier(Matchers.any(BarrierInput.class)))
+                .thenReturn(SettableFuture.<RpcResult<BarrierOutput>>create());
+
+        final long startNanos = System.nanoTime();
+        boundedManager.manageRoleChange(OfpRole.BECOMESLAVE);
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+        Assert.assertTrue("took " + elapsedMillis + " ms", elapsedMillis < RolePushTask.TIMEOUT);
+        // device is still pending
+        Assert.assertTrue(boundedManager.getLastRoleChangeReport().isEmpty());
+    }
+
+    /**
+     * Test method for {@link OFRoleManager#manageRoleChange(OfpRole)}.
+     * <br/>
+     * device answers barrier without election result only after round timed out - closed round
+     * neither retries the device nor reports it
+     */
+    @Test
+    public void testManageRoleChangeLateReplyAfterRoundTimeout() throws Exception {
+        final OFRoleManager boundedManager = new OFRoleManager(sessionManager, 300);
+        final SettableFuture<RpcResult<BarrierOutput>> barrier = SettableFuture.create();
+        final AtomicInteger roleRequests = new AtomicInteger();
+        Mockito.when(session.isValid()).thenReturn(true);
+        Mockito.when(sessionManager.getAllSessions()).thenReturn(Collections.singleton(session));
+        Mockito.when(connectionAdapter.roleRequest(Matchers.any(RoleRequestInput.class))).thenAnswer(
+                new Answer<SettableFuture<RpcResult<RoleRequestOutput>>>() {
+                    @Override
+                    public SettableFuture<RpcResult<RoleRequestOutput>> answer(final InvocationOnMock invocation) {
+                        final RoleRequestInput input = (RoleRequestInput) invocation.getArguments()[0];
+                        final SettableFuture<RpcResult<RoleRequestOutput>> reply = SettableFuture.create();
+                        if (ControllerRole.OFPCRROLENOCHANGE.equals(input.getRole())) {
+                            reply.set(RpcResultBuilder.success(roleRequestOutput).build());
+                        } else {
+                            // election result never arrives
+                            roleRequests.incrementAndGet();
+                        }
+                        return reply;
+                    }
+                });
+        Mockito.when(connectionAdapter.barrier(Matchers.any(BarrierInput.class))).thenReturn(barrier);
+
+        boundedManager.manageRoleChange(OfpRole.BECOMESLAVE);
+        Assert.assertTrue(boundedManager.getLastRoleChangeReport().isEmpty());
+        Assert.assertEquals(1, roleRequests.get());
+
+        // late barrier reply without election result would normally lead to retry
+        barrier.set(RpcResultBuilder.success(barrierOutput).build());
+        Thread.sleep(OFRoleManager.computeBackoff(1) * 4);
+
+        Assert.assertEquals(1, roleRequests.get());
+        Assert.assertTrue(boundedManager.getLastRoleChangeReport().isEmpty());
+        boundedManager.close();
+    }
+
+    /**
+     * Test method for {@link OFRoleManager#computeBackoff(int)}.
+     */
+    @Test
+    public void testComputeBackoff() {
+        Assert.assertEquals(50, OFRoleManager.computeBackoff(1));
+        Assert.assertEquals(100, OFRoleManager.computeBackoff(2));
+        Assert.assertEquals(1600, OFRoleManager.computeBackoff(6));
+        Assert.assertEquals(2000, OFRoleManager.computeBackoff(7));
+        Assert.assertEquals(2000, OFRoleManager.computeBackoff(41));
+    }
+
+    private SessionContext mockSession(final ConnectionAdapter adapter) {
+        final SessionContext deviceSession = Mockito.mock(SessionContext.class);
+        final ConnectionConductor conductor = Mockito.mock(ConnectionConductor.class);
+        Mockito.when(deviceSession.isValid()).thenReturn(true);
+        Mockito.when(deviceSession.getFeatures()).thenReturn(features);
+        Mockito.when(deviceSession.getNextXid()).thenReturn(84L);
+        Mockito.when(deviceSession.getPrimaryConductor()).thenReturn(conductor);
+        Mockito.when(conductor.getConnectionAdapter()).thenReturn(adapter);
+        return deviceSession;
+    }
 }
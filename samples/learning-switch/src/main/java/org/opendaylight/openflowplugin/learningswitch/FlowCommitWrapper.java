@@ -29,4 +29,13 @@ public interface FlowCommitWrapper {
      */
     CheckedFuture<Void, TransactionCommitFailedException> writeFlowToConfig(InstanceIdentifier<Flow> flowPath, Flow flowBody);
 
+    /**
+     * Starts and commits data change transaction which
+     * removes provided flow path.
+     *
+     * @param flowPath
+     * @return transaction commit
+     */
+    CheckedFuture<Void, TransactionCommitFailedException> removeFlowFromConfig(InstanceIdentifier<Flow> flowPath);
+
 }
@@ -11,6 +11,7 @@ package org.opendaylight.openflowplugin.learningswitch;
 import com.google.common.util.concurrent.CheckedFuture;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.ReadWriteTransaction;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.Flow;
@@ -38,4 +39,11 @@ public class FlowCommitWrapperImpl implements FlowCommitWrapper {
         return addFlowTransaction.submit();
     }
 
+    @Override
+    public CheckedFuture<Void, TransactionCommitFailedException> removeFlowFromConfig(InstanceIdentifier<Flow> flowPath) {
+        WriteTransaction removeFlowTransaction = dataBrokerService.newWriteOnlyTransaction();
+        removeFlowTransaction.delete(LogicalDatastoreType.CONFIGURATION, flowPath);
+        return removeFlowTransaction.submit();
+    }
+
 }
@@ -11,10 +11,9 @@ package org.opendaylight.openflowplugin.learningswitch;
 import java.math.BigInteger;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.yang.types.rev100924.MacAddress;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowId;
@@ -42,8 +41,11 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Simple Learning Switch implementation which does mac learning for one switch.
- *
- *
+ * <br>
+ * Direct flows are kept in line with learned MACs: when a MAC moves, flows toward it are reprogrammed
+ * to its new port, when a MAC is forgotten (aged out or evicted), flows from and toward it are removed.
+ * Programming of one mac path is serialized, so the last flow written for a path always follows
+ * the latest learned port.
  */
 public class LearningSwitchHandlerSimpleImpl implements LearningSwitchHandler, PacketProcessingListener {
 
@@ -53,11 +55,22 @@ public class LearningSwitchHandlerSimpleImpl implements LearningSwitchHandler, P
 
     private static final int DIRECT_FLOW_PRIORITY = 512;
 
+    /** upper bound of learned MACs per switch */
+    private static final int MAC_TABLE_SIZE = 4096;
+
+    /** learned MAC is forgotten if not seen for this time */
+    private static final long MAC_IDLE_TIMEOUT_SECONDS = 300;
+
+    /** idle MACs are swept (and their flows removed) at least this often while packets come in */
+    private static final long MAC_EXPIRE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(MAC_IDLE_TIMEOUT_SECONDS / 10);
+
+    private static final int PATH_LOCK_COUNT = 64;
+
     private DataChangeListenerRegistrationHolder registrationPublisher;
     private FlowCommitWrapper dataStoreAccessor;
     private PacketProcessingService packetProcessingService;
 
-    private boolean iAmLearning = false;
+    private volatile boolean iAmLearning = false;
 
     private NodeId nodeId;
     private AtomicLong flowIdInc = new AtomicLong();
@@ -66,8 +79,17 @@ public class LearningSwitchHandlerSimpleImpl implements LearningSwitchHandler, P
     private InstanceIdentifier<Node> nodePath;
     private InstanceIdentifier<Table> tablePath;
 
-    private Map<MacAddress, NodeConnectorRef> mac2portMapping;
-    private Set<String> coveredMacPaths;
+    private MacTable<NodeConnectorRef> mac2portMapping;
+    private final AtomicLong nextExpireNanos = new AtomicLong();
+    /** MACs forgotten by mac table, their flows are waiting for removal */
+    private final Queue<RemovedMac> removedMacs = new ConcurrentLinkedQueue<>();
+    private final Object[] pathLocks = new Object[PATH_LOCK_COUNT];
+
+    public LearningSwitchHandlerSimpleImpl() {
+        for (int i = 0; i < PATH_LOCK_COUNT; i++) {
+            pathLocks[i] = new Object();
+        }
+    }
 
     @Override
     public synchronized void onSwitchAppeared(InstanceIdentifier<Table> appearedTablePath) {
@@ -89,13 +111,19 @@ public class LearningSwitchHandlerSimpleImpl implements LearningSwitchHandler, P
             }
         }
 
-        iAmLearning = true;
-
         tablePath = appearedTablePath;
         nodePath = tablePath.firstIdentifierOf(Node.class);
         nodeId = nodePath.firstKeyOf(Node.class, NodeKey.class).getId();
-        mac2portMapping = new HashMap<>();
-        coveredMacPaths = new HashSet<>();
+        mac2portMapping = createMacTable(new MacTable.RemovalListener() {
+            @Override
+            public void macRemoved(long mac, long[] programmedDestinations) {
+                // flows are removed later by packet-in thread, caller might hold a path lock
+                removedMacs.add(new RemovedMac(mac, programmedDestinations));
+            }
+        });
+        nextExpireNanos.set(mac2portMapping.currentNanos() + MAC_EXPIRE_INTERVAL_NANOS);
+        // volatile write publishes paths above to packet-in threads
+        iAmLearning = true;
 
         // start forwarding all packages to controller
         FlowId flowId = new FlowId(String.valueOf(flowIdInc.getAndIncrement()));
@@ -112,6 +140,14 @@ public class LearningSwitchHandlerSimpleImpl implements LearningSwitchHandler, P
         dataStoreAccessor.writeFlowToConfig(flowPath, allToCtrlFlow.build());
     }
 
+    /**
+     * @param removalListener listener of forgotten MACs
+     * @return mac table of the switch
+     */
+    MacTable<NodeConnectorRef> createMacTable(MacTable.RemovalListener removalListener) {
+        return new MacTable<>(MAC_TABLE_SIZE, MAC_IDLE_TIMEOUT_SECONDS, TimeUnit.SECONDS, removalListener);
+    }
+
     @Override
     public void setRegistrationPublisher(DataChangeListenerRegistrationHolder registrationPublisher) {
         this.registrationPublisher = registrationPublisher;
@@ -142,37 +178,47 @@ public class LearningSwitchHandlerSimpleImpl implements LearningSwitchHandler, P
         }
 
         // read src MAC and dst MAC
-        byte[] dstMacRaw = PacketUtils.extractDstMac(notification.getPayload());
-        byte[] srcMacRaw = PacketUtils.extractSrcMac(notification.getPayload());
+        long dstMac = PacketUtils.extractDstMacAsLong(notification.getPayload());
+        long srcMac = PacketUtils.extractSrcMacAsLong(notification.getPayload());
         byte[] etherType = PacketUtils.extractEtherType(notification.getPayload());
 
-        MacAddress dstMac = PacketUtils.rawMacToMac(dstMacRaw);
-        MacAddress srcMac = PacketUtils.rawMacToMac(srcMacRaw);
-
-        NodeConnectorKey ingressKey = InstanceIdentifierUtils.getNodeConnectorKey(notification.getIngress().getValue());
-
-        LOG.debug("Received packet from MAC match: {}, ingress: {}", srcMac, ingressKey.getId());
-        LOG.debug("Received packet to   MAC match: {}", dstMac);
-        LOG.debug("Ethertype: {}", Integer.toHexString(0x0000ffff & ByteBuffer.wrap(etherType).getShort()));
+        if (LOG.isDebugEnabled()) {
+            NodeConnectorKey ingressKey = InstanceIdentifierUtils.getNodeConnectorKey(notification.getIngress().getValue());
+            LOG.debug("Received packet from MAC match: {}, ingress: {}", PacketUtils.longToMac(srcMac), ingressKey.getId());
+            LOG.debug("Received packet to   MAC match: {}", PacketUtils.longToMac(dstMac));
+            LOG.debug("Ethertype: {}", Integer.toHexString(0x0000ffff & ByteBuffer.wrap(etherType).getShort()));
+        }
 
         // learn by IPv4 traffic only
         if (Arrays.equals(ETH_TYPE_IPV4, etherType)) {
-            NodeConnectorRef previousPort = mac2portMapping.put(srcMac, notification.getIngress());
+            NodeConnectorRef previousPort = mac2portMapping.learn(srcMac, notification.getIngress());
             if (previousPort != null && !notification.getIngress().equals(previousPort)) {
-                NodeConnectorKey previousPortKey = InstanceIdentifierUtils.getNodeConnectorKey(previousPort.getValue());
-                LOG.debug("mac2port mapping changed by mac {}: {} -> {}", srcMac, previousPortKey, ingressKey.getId());
+                if (LOG.isDebugEnabled()) {
+                    NodeConnectorKey previousPortKey = InstanceIdentifierUtils.getNodeConnectorKey(previousPort.getValue());
+                    LOG.debug("mac2port mapping changed by mac {}: {} -> {}", PacketUtils.longToMac(srcMac),
+                            previousPortKey, InstanceIdentifierUtils.getNodeConnectorKey(
+                                    notification.getIngress().getValue()).getId());
+                }
+                // flows toward moved MAC lead to its old port, flows from it might lead to its new port
+                for (long pathSrcMac : mac2portMapping.programmedSources(srcMac)) {
+                    programBridgeFlow(pathSrcMac, srcMac);
+                }
+                for (long pathDstMac : mac2portMapping.programmedDestinations(srcMac)) {
+                    programBridgeFlow(srcMac, pathDstMac);
+                }
             }
+            expireIdleMacs();
+            removeForgottenFlows();
+
             // if dst MAC mapped:
-            NodeConnectorRef destNodeConnector = mac2portMapping.get(dstMac);
+            NodeConnectorRef destNodeConnector = mac2portMapping.lookup(dstMac);
             if (destNodeConnector != null) {
-                synchronized (coveredMacPaths) {
-                    if (!destNodeConnector.equals(notification.getIngress())) {
-                        // add flow
-                        addBridgeFlow(srcMac, dstMac, destNodeConnector);
-                        addBridgeFlow(dstMac, srcMac, notification.getIngress());
-                    } else {
-                        LOG.debug("useless rule ignoring - both MACs are behind the same port");
-                    }
+                if (!destNodeConnector.equals(notification.getIngress())) {
+                    // add flow - only once per mac path and port
+                    programBridgeFlow(srcMac, dstMac);
+                    programBridgeFlow(dstMac, srcMac);
+                } else {
+                    LOG.debug("useless rule ignoring - both MACs are behind the same port");
                 }
                 LOG.debug("packetIn-directing.. to {}",
                         InstanceIdentifierUtils.getNodeConnectorKey(destNodeConnector.getValue()).getId());
@@ -189,36 +235,103 @@ public class LearningSwitchHandlerSimpleImpl implements LearningSwitchHandler, P
 
     }
 
+    private void expireIdleMacs() {
+        long next = nextExpireNanos.get();
+        long now = mac2portMapping.currentNanos();
+        if (now - next >= 0 && nextExpireNanos.compareAndSet(next, now + MAC_EXPIRE_INTERVAL_NANOS)) {
+            mac2portMapping.expire();
+        }
+    }
+
+    private void removeForgottenFlows() {
+        RemovedMac removedMac;
+        while ((removedMac = removedMacs.poll()) != null) {
+            for (long dstMac : removedMac.programmedDestinations) {
+                removeBridgeFlow(removedMac.mac, dstMac);
+            }
+            for (long srcMac : mac2portMapping.programmedSources(removedMac.mac)) {
+                removeBridgeFlow(srcMac, removedMac.mac);
+            }
+        }
+    }
+
     /**
+     * program (or reprogram) direct flow srcMac -&gt; dstMac according to current mapping of both MACs
+     *
      * @param srcMac
      * @param dstMac
-     * @param destNodeConnector
      */
-    private void addBridgeFlow(MacAddress srcMac, MacAddress dstMac, NodeConnectorRef destNodeConnector) {
-        synchronized (coveredMacPaths) {
-            String macPath = srcMac.toString() + dstMac.toString();
-            if (!coveredMacPaths.contains(macPath)) {
-                LOG.debug("covering mac path: {} by [{}]", macPath,
-                        destNodeConnector.getValue().firstKeyOf(NodeConnector.class, NodeConnectorKey.class).getId());
-
-                coveredMacPaths.add(macPath);
-                FlowId flowId = new FlowId(String.valueOf(flowIdInc.getAndIncrement()));
-                FlowKey flowKey = new FlowKey(flowId);
-                /**
-                 * Path to the flow we want to program.
-                 */
-                InstanceIdentifier<Flow> flowPath = InstanceIdentifierUtils.createFlowPath(tablePath, flowKey);
-
-                Short tableId = InstanceIdentifierUtils.getTableId(tablePath);
-                FlowBuilder srcToDstFlow = FlowUtils.createDirectMacToMacFlow(tableId, DIRECT_FLOW_PRIORITY, srcMac,
-                        dstMac, destNodeConnector);
-                srcToDstFlow.setCookie(new FlowCookie(BigInteger.valueOf(flowCookieInc.getAndIncrement())));
-
-                dataStoreAccessor.writeFlowToConfig(flowPath, srcToDstFlow.build());
+    private void programBridgeFlow(long srcMac, long dstMac) {
+        synchronized (pathLock(srcMac, dstMac)) {
+            NodeConnectorRef destNodeConnector = mac2portMapping.lookup(dstMac);
+            // flows of forgotten MAC are removed by removeForgottenFlows
+            while (destNodeConnector != null) {
+                NodeConnectorRef srcNodeConnector = mac2portMapping.lookup(srcMac);
+                if (srcNodeConnector == null) {
+                    return;
+                }
+                if (srcNodeConnector.equals(destNodeConnector)) {
+                    // useless rule - both MACs are behind the same port
+                    if (mac2portMapping.unmarkProgrammed(srcMac, dstMac)) {
+                        dataStoreAccessor.removeFlowFromConfig(createMacPathFlowPath(srcMac, dstMac));
+                    }
+                } else if (mac2portMapping.markProgrammed(srcMac, dstMac, destNodeConnector)) {
+                    addBridgeFlow(srcMac, dstMac, destNodeConnector);
+                }
+                // destination could move meanwhile and its reprogramming could miss this path (not marked yet)
+                NodeConnectorRef currentDestNodeConnector = mac2portMapping.lookup(dstMac);
+                if (destNodeConnector.equals(currentDestNodeConnector)) {
+                    return;
+                }
+                destNodeConnector = currentDestNodeConnector;
             }
         }
     }
 
+    private void removeBridgeFlow(long srcMac, long dstMac) {
+        synchronized (pathLock(srcMac, dstMac)) {
+            LOG.debug("uncovering mac path: {} -> {}", PacketUtils.longToMac(srcMac).getValue(),
+                    PacketUtils.longToMac(dstMac).getValue());
+            mac2portMapping.unmarkProgrammed(srcMac, dstMac);
+            dataStoreAccessor.removeFlowFromConfig(createMacPathFlowPath(srcMac, dstMac));
+        }
+    }
+
+    private Object pathLock(long srcMac, long dstMac) {
+        long hash = srcMac * 31 + dstMac;
+        return pathLocks[(int) (hash ^ (hash >>> 32)) & (PATH_LOCK_COUNT - 1)];
+    }
+
+    /**
+     * @param srcMac
+     * @param dstMac
+     * @param destNodeConnector
+     */
+    private void addBridgeFlow(long srcMac, long dstMac, NodeConnectorRef destNodeConnector) {
+        MacAddress srcMacAddress = PacketUtils.longToMac(srcMac);
+        MacAddress dstMacAddress = PacketUtils.longToMac(dstMac);
+        LOG.debug("covering mac path: {} -> {} by [{}]", srcMacAddress.getValue(), dstMacAddress.getValue(),
+                destNodeConnector.getValue().firstKeyOf(NodeConnector.class, NodeConnectorKey.class).getId());
+
+        /**
+         * Path to the flow we want to program.
+         */
+        InstanceIdentifier<Flow> flowPath = createMacPathFlowPath(srcMac, dstMac);
+
+        Short tableId = InstanceIdentifierUtils.getTableId(tablePath);
+        FlowBuilder srcToDstFlow = FlowUtils.createDirectMacToMacFlow(tableId, DIRECT_FLOW_PRIORITY, srcMacAddress,
+                dstMacAddress, destNodeConnector);
+        srcToDstFlow.setCookie(new FlowCookie(BigInteger.valueOf(flowCookieInc.getAndIncrement())));
+
+        dataStoreAccessor.writeFlowToConfig(flowPath, srcToDstFlow.build());
+    }
+
+    private InstanceIdentifier<Flow> createMacPathFlowPath(long srcMac, long dstMac) {
+        // id derived from mac path - reprogramming (e.g. after port move) replaces the previous flow
+        FlowId flowId = new FlowId("macPath_" + Long.toHexString(srcMac) + "_" + Long.toHexString(dstMac));
+        return InstanceIdentifierUtils.createFlowPath(tablePath, new FlowKey(flowId));
+    }
+
     private void flood(byte[] payload, NodeConnectorRef ingress) {
         NodeConnectorKey nodeConnectorKey = new NodeConnectorKey(nodeConnectorId("0xfffffffb"));
         InstanceIdentifier<?> nodeConnectorPath = InstanceIdentifierUtils.createNodeConnectorPath(nodePath, nodeConnectorKey);
@@ -243,4 +356,14 @@ public class LearningSwitchHandlerSimpleImpl implements LearningSwitchHandler, P
                 .build();
         packetProcessingService.transmitPacket(input);
     }
+
+    private static final class RemovedMac {
+        private final long mac;
+        private final long[] programmedDestinations;
+
+        RemovedMac(long mac, long[] programmedDestinations) {
+            this.mac = mac;
+            this.programmedDestinations = programmedDestinations;
+        }
+    }
 }
@@ -0,0 +1,455 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.learningswitch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Forwarding database of one switch: bounded, concurrent MAC to port table with idle aging.
+ * <br>
+ * MACs are kept as primitive 48-bit values in open addressing arrays, split into independently
+ * locked segments. Entries not refreshed by {@link #learn(long, Object)} within idle timeout are
+ * treated as absent and swept away lazily. When a segment is full, idle entries are swept first
+ * and then the least recently seen entry is evicted.
+ * <br>
+ * Besides port mapping each entry remembers destination MACs (and their ports) for which a direct
+ * flow has already been programmed, so that repeated packet-ins do not trigger repeated flow installation.
+ * Removed entries are reported to {@link RemovalListener} together with their programmed destinations,
+ * so that flows of forgotten MACs can be removed from device.
+ *
+ * @param <P> port type
+ */
+public class MacTable<P> {
+
+    private static final int SEGMENT_COUNT = 16;
+    private static final long[] NO_PROGRAMMED = new long[0];
+    private static final Object[] NO_PROGRAMMED_PORTS = new Object[0];
+
+    private final Segment[] segments;
+    private final long idleTimeoutNanos;
+    private final RemovalListener removalListener;
+
+    /**
+     * Notified (outside of table locks) about MACs removed by aging or eviction.
+     */
+    public interface RemovalListener {
+        /**
+         * @param mac removed MAC
+         * @param programmedDestinations destination MACs of direct flows programmed from removed MAC
+         */
+        void macRemoved(long mac, long[] programmedDestinations);
+    }
+
+    /**
+     * @param maxEntries upper bound of learned MACs
+     * @param idleTimeout time after which not refreshed MAC is forgotten
+     * @param unit unit of idleTimeout
+     */
+    public MacTable(final int maxEntries, final long idleTimeout, final TimeUnit unit) {
+        this(maxEntries, idleTimeout, unit, null);
+    }
+
+    /**
+     * @param maxEntries upper bound of learned MACs
+     * @param idleTimeout time after which not refreshed MAC is forgotten
+     * @param unit unit of idleTimeout
+     * @param removalListener listener of forgotten MACs (may be null)
+     */
+    public MacTable(final int maxEntries, final long idleTimeout, final TimeUnit unit,
+                    final RemovalListener removalListener) {
+        if (maxEntries < SEGMENT_COUNT) {
+            throw new IllegalArgumentException("maxEntries must be at least " + SEGMENT_COUNT);
+        }
+        idleTimeoutNanos = unit.toNanos(idleTimeout);
+        this.removalListener = removalListener;
+        segments = new Segment[SEGMENT_COUNT];
+        final int segmentMaxSize = maxEntries / SEGMENT_COUNT;
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment(segmentMaxSize);
+        }
+    }
+
+    /**
+     * store or refresh mapping of given MAC
+     * <br>
+     * Flows programmed toward moved MAC lead to its old port - see {@link #programmedSources(long)}.
+     *
+     * @param mac source MAC (48 bit)
+     * @param port port the MAC was seen on
+     * @return previous port of MAC or null if MAC was not known
+     */
+    @SuppressWarnings("unchecked")
+    public P learn(final long mac, final P port) {
+        final int hash = hash(mac);
+        final Segment segment = segmentFor(hash);
+        final long now = currentNanos();
+        final List<Removed> removed = new ArrayList<>(0);
+        try {
+            synchronized (segment) {
+                int idx = segment.find(mac, hash);
+                if (idx >= 0 && isIdle(segment.lastSeen[idx], now)) {
+                    remove(segment, idx, removed);
+                    idx = -1;
+                }
+
+                if (idx >= 0) {
+                    final P previousPort = (P) segment.ports[idx];
+                    segment.ports[idx] = port;
+                    segment.lastSeen[idx] = now;
+                    return previousPort;
+                }
+
+                if (segment.size >= segment.maxSize) {
+                    makeRoom(segment, now, removed);
+                }
+                segment.insert(mac, hash, port, now);
+                return null;
+            }
+        } finally {
+            notifyRemoved(removed);
+        }
+    }
+
+    /**
+     * @param mac destination MAC (48 bit)
+     * @return port of MAC or null if MAC is not known (or aged out)
+     */
+    @SuppressWarnings("unchecked")
+    public P lookup(final long mac) {
+        final int hash = hash(mac);
+        final Segment segment = segmentFor(hash);
+        final List<Removed> removed = new ArrayList<>(0);
+        try {
+            synchronized (segment) {
+                final int idx = segment.find(mac, hash);
+                if (idx < 0) {
+                    return null;
+                }
+                if (isIdle(segment.lastSeen[idx], currentNanos())) {
+                    remove(segment, idx, removed);
+                    return null;
+                }
+                return (P) segment.ports[idx];
+            }
+        } finally {
+            notifyRemoved(removed);
+        }
+    }
+
+    /**
+     * record that direct flow srcMac -&gt; dstMac leading to dstPort is programmed
+     *
+     * @param srcMac learned source MAC
+     * @param dstMac destination MAC
+     * @param dstPort port the flow leads to
+     * @return true if flow was not programmed yet or it leads to another port (caller is expected
+     *         to program it), false if it already is or srcMac is not known
+     */
+    public boolean markProgrammed(final long srcMac, final long dstMac, final P dstPort) {
+        final int hash = hash(srcMac);
+        final Segment segment = segmentFor(hash);
+        synchronized (segment) {
+            final int idx = segment.find(srcMac, hash);
+            if (idx < 0) {
+                return false;
+            }
+            final long[] programmed = segment.programmed[idx];
+            for (int i = 0; i < programmed.length; i++) {
+                if (programmed[i] == dstMac) {
+                    if (dstPort.equals(segment.programmedPorts[idx][i])) {
+                        return false;
+                    }
+                    segment.programmedPorts[idx][i] = dstPort;
+                    return true;
+                }
+            }
+            final long[] extended = Arrays.copyOf(programmed, programmed.length + 1);
+            extended[programmed.length] = dstMac;
+            final Object[] extendedPorts = Arrays.copyOf(segment.programmedPorts[idx], programmed.length + 1);
+            extendedPorts[programmed.length] = dstPort;
+            segment.programmed[idx] = extended;
+            segment.programmedPorts[idx] = extendedPorts;
+            return true;
+        }
+    }
+
+    /**
+     * forget that direct flow srcMac -&gt; dstMac is programmed
+     *
+     * @param srcMac learned source MAC
+     * @param dstMac destination MAC
+     * @return true if flow was recorded as programmed
+     */
+    public boolean unmarkProgrammed(final long srcMac, final long dstMac) {
+        final int hash = hash(srcMac);
+        final Segment segment = segmentFor(hash);
+        synchronized (segment) {
+            final int idx = segment.find(srcMac, hash);
+            if (idx < 0) {
+                return false;
+            }
+            final long[] programmed = segment.programmed[idx];
+            for (int i = 0; i < programmed.length; i++) {
+                if (programmed[i] == dstMac) {
+                    segment.programmed[idx] = removeAt(programmed, i);
+                    segment.programmedPorts[idx] = removeAt(segment.programmedPorts[idx], i);
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * @param srcMac source MAC
+     * @return destination MACs of direct flows programmed from srcMac
+     */
+    public long[] programmedDestinations(final long srcMac) {
+        final int hash = hash(srcMac);
+        final Segment segment = segmentFor(hash);
+        synchronized (segment) {
+            final int idx = segment.find(srcMac, hash);
+            // programmed arrays are never modified in place
+            return idx < 0 ? NO_PROGRAMMED : segment.programmed[idx];
+        }
+    }
+
+    /**
+     * @param dstMac destination MAC
+     * @return source MACs of direct flows programmed toward dstMac
+     */
+    public long[] programmedSources(final long dstMac) {
+        long[] sources = NO_PROGRAMMED;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                for (int i = 0; i < segment.used.length; i++) {
+                    if (segment.used[i] && contains(segment.programmed[i], dstMac)) {
+                        sources = Arrays.copyOf(sources, sources.length + 1);
+                        sources[sources.length - 1] = segment.keys[i];
+                    }
+                }
+            }
+        }
+        return sources;
+    }
+
+    /**
+     * remove all entries exceeding idle timeout
+     *
+     * @return amount of removed entries
+     */
+    public int expire() {
+        final long now = currentNanos();
+        final List<Removed> removed = new ArrayList<>(0);
+        int removedCount = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                removedCount += sweepIdle(segment, now, removed);
+            }
+        }
+        notifyRemoved(removed);
+        return removedCount;
+    }
+
+    /**
+     * @return amount of stored entries (including not yet swept idle ones)
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return current time in nanoseconds
+     */
+    protected long currentNanos() {
+        return System.nanoTime();
+    }
+
+    private boolean isIdle(final long lastSeen, final long now) {
+        return now - lastSeen > idleTimeoutNanos;
+    }
+
+    private void makeRoom(final Segment segment, final long now, final List<Removed> removed) {
+        if (sweepIdle(segment, now, removed) > 0) {
+            return;
+        }
+        int oldestIdx = -1;
+        for (int i = 0; i < segment.used.length; i++) {
+            if (segment.used[i] && (oldestIdx < 0 || segment.lastSeen[i] - segment.lastSeen[oldestIdx] < 0)) {
+                oldestIdx = i;
+            }
+        }
+        remove(segment, oldestIdx, removed);
+    }
+
+    private int sweepIdle(final Segment segment, final long now, final List<Removed> removed) {
+        int removedCount = 0;
+        int i = 0;
+        while (i < segment.used.length) {
+            // removal shifts following entries back, so the same slot is checked again
+            if (segment.used[i] && isIdle(segment.lastSeen[i], now)) {
+                remove(segment, i, removed);
+                removedCount++;
+            } else {
+                i++;
+            }
+        }
+        return removedCount;
+    }
+
+    private void remove(final Segment segment, final int idx, final List<Removed> removed) {
+        if (removalListener != null) {
+            removed.add(new Removed(segment.keys[idx], segment.programmed[idx]));
+        }
+        segment.remove(idx);
+    }
+
+    private void notifyRemoved(final List<Removed> removed) {
+        for (Removed entry : removed) {
+            removalListener.macRemoved(entry.mac, entry.programmed);
+        }
+    }
+
+    private Segment segmentFor(final int hash) {
+        return segments[(hash >>> 28) & (SEGMENT_COUNT - 1)];
+    }
+
+    private static boolean contains(final long[] macs, final long mac) {
+        for (long candidate : macs) {
+            if (candidate == mac) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long[] removeAt(final long[] array, final int idx) {
+        final long[] shrunk = Arrays.copyOf(array, array.length - 1);
+        System.arraycopy(array, idx + 1, shrunk, idx, array.length - idx - 1);
+        return shrunk;
+    }
+
+    private static Object[] removeAt(final Object[] array, final int idx) {
+        final Object[] shrunk = Arrays.copyOf(array, array.length - 1);
+        System.arraycopy(array, idx + 1, shrunk, idx, array.length - idx - 1);
+        return shrunk;
+    }
+
+    private static int hash(final long mac) {
+        // murmur3 finalizer
+        long h = mac;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    /**
+     * removed entry waiting for notification
+     */
+    private static final class Removed {
+        private final long mac;
+        private final long[] programmed;
+
+        Removed(final long mac, final long[] programmed) {
+            this.mac = mac;
+            this.programmed = programmed;
+        }
+    }
+
+    /**
+     * linear probing hash table guarded by its own monitor
+     */
+    private static final class Segment {
+        private final int maxSize;
+        private final int mask;
+        private final boolean[] used;
+        private final long[] keys;
+        private final long[] lastSeen;
+        private final Object[] ports;
+        private final long[][] programmed;
+        private final Object[][] programmedPorts;
+        private int size;
+
+        Segment(final int maxSize) {
+            this.maxSize = maxSize;
+            // keep load factor at most 0.5
+            final int capacity = Integer.highestOneBit(Math.max(maxSize, 1)) << 2;
+            mask = capacity - 1;
+            used = new boolean[capacity];
+            keys = new long[capacity];
+            lastSeen = new long[capacity];
+            ports = new Object[capacity];
+            programmed = new long[capacity][];
+            programmedPorts = new Object[capacity][];
+        }
+
+        int find(final long mac, final int hash) {
+            int idx = hash & mask;
+            while (used[idx]) {
+                if (keys[idx] == mac) {
+                    return idx;
+                }
+                idx = (idx + 1) & mask;
+            }
+            return -1;
+        }
+
+        void insert(final long mac, final int hash, final Object port, final long now) {
+            int idx = hash & mask;
+            while (used[idx]) {
+                idx = (idx + 1) & mask;
+            }
+            used[idx] = true;
+            keys[idx] = mac;
+            ports[idx] = port;
+            lastSeen[idx] = now;
+            programmed[idx] = NO_PROGRAMMED;
+            programmedPorts[idx] = NO_PROGRAMMED_PORTS;
+            size++;
+        }
+
+        void remove(final int idx) {
+            int gap = idx;
+            int next = idx;
+            while (true) {
+                next = (next + 1) & mask;
+                if (!used[next]) {
+                    break;
+                }
+                // move entry back into the gap unless its home slot lies cyclically in (gap, next]
+                final int home = hash(keys[next]) & mask;
+                final boolean homeInRange = gap <= next ? gap < home && home <= next : gap < home || home <= next;
+                if (!homeInRange) {
+                    keys[gap] = keys[next];
+                    ports[gap] = ports[next];
+                    lastSeen[gap] = lastSeen[next];
+                    programmed[gap] = programmed[next];
+                    programmedPorts[gap] = programmedPorts[next];
+                    gap = next;
+                }
+            }
+            used[gap] = false;
+            ports[gap] = null;
+            programmed[gap] = null;
+            programmedPorts[gap] = null;
+            size--;
+        }
+    }
+}
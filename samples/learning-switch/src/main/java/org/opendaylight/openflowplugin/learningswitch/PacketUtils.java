@@ -58,6 +58,8 @@ public abstract class PacketUtils {
      */
     private static final int ETHER_TYPE_END_POSITION = 14;
 
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
     private PacketUtils() {
         //prohibite to instantiate this class
     }
@@ -86,6 +88,49 @@ public abstract class PacketUtils {
         return Arrays.copyOfRange(payload, ETHER_TYPE_START_POSITION, ETHER_TYPE_END_POSITION);
     }
 
+    /**
+     * @param payload
+     * @return destination MAC address as 48-bit number
+     */
+    public static long extractDstMacAsLong(final byte[] payload) {
+        return readMac(payload, DST_MAC_START_POSITION);
+    }
+
+    /**
+     * @param payload
+     * @return source MAC address as 48-bit number
+     */
+    public static long extractSrcMacAsLong(final byte[] payload) {
+        return readMac(payload, SRC_MAC_START_POSITION);
+    }
+
+    private static long readMac(final byte[] payload, final int offset) {
+        long mac = 0;
+        for (int i = offset; i < offset + MAC_ADDRESS_SIZE; i++) {
+            mac = (mac << 8) | (payload[i] & 0xff);
+        }
+        return mac;
+    }
+
+    /**
+     * @param mac 48-bit MAC address
+     * @return {@link MacAddress} wrapping string value, baked upon numeric MAC
+     *         address
+     */
+    public static MacAddress longToMac(final long mac) {
+        final char[] chars = new char[MAC_ADDRESS_SIZE * 3 - 1];
+        int pos = 0;
+        for (int shift = (MAC_ADDRESS_SIZE - 1) * 8; shift >= 0; shift -= 8) {
+            if (pos > 0) {
+                chars[pos++] = ':';
+            }
+            final int octet = (int) (mac >>> shift) & 0xff;
+            chars[pos++] = HEX_DIGITS[octet >>> 4];
+            chars[pos++] = HEX_DIGITS[octet & 0x0f];
+        }
+        return new MacAddress(new String(chars));
+    }
+
     /**
      * @param rawMac
      * @return {@link MacAddress} wrapping string value, baked upon binary MAC
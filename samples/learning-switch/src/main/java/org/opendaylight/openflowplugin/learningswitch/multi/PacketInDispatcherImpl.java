@@ -8,8 +8,8 @@
 
 package org.opendaylight.openflowplugin.learningswitch.multi;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.packet.service.rev130709.PacketProcessingListener;
@@ -21,13 +21,14 @@ import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
  */
 public class PacketInDispatcherImpl implements PacketProcessingListener {
     
-    private Map<InstanceIdentifier<Node>, PacketProcessingListener> handlerMapping;
+    /** read by notification threads, populated as switches appear */
+    private final Map<InstanceIdentifier<Node>, PacketProcessingListener> handlerMapping;
     
     /**
      * default constructor
      */
     public PacketInDispatcherImpl() {
-        handlerMapping = new HashMap<>();
+        handlerMapping = new ConcurrentHashMap<>();
     }
 
     @Override
@@ -0,0 +1,287 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.learningswitch;
+
+import com.google.common.util.concurrent.CheckedFuture;
+import com.google.common.util.concurrent.Futures;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.action.OutputActionCase;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNode;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.Table;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.TableKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.Flow;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.instruction.instruction.ApplyActionsCase;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeConnectorId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeConnectorRef;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.Nodes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.node.NodeConnector;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.node.NodeConnectorKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.NodeKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.packet.service.rev130709.PacketProcessingService;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.packet.service.rev130709.PacketReceivedBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.packet.service.rev130709.TransmitPacketInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.packet.service.rev130709.TransmitPacketsInput;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.opendaylight.yangtools.yang.common.RpcResult;
+
+/**
+ * test of {@link LearningSwitchHandlerSimpleImpl} - packet-ins against flows written to config
+ */
+public class LearningSwitchHandlerSimpleImplTest {
+
+    private static final InstanceIdentifier<Node> NODE_PATH = InstanceIdentifier.create(Nodes.class)
+            .child(Node.class, new NodeKey(new NodeId("openflow:1")));
+    private static final InstanceIdentifier<Table> TABLE_PATH = NODE_PATH.augmentation(FlowCapableNode.class)
+            .child(Table.class, new TableKey((short) 0));
+    private static final String TABLE_MISS_FLOW = "0";
+    private static final long MAC_A = 0x0000000000aaL;
+    private static final long MAC_B = 0x0000000000bbL;
+    private static final long MAC_C = 0x0000000000ccL;
+
+    private static final int THREADS = 8;
+    private static final int HOSTS_PER_THREAD = 16;
+    private static final int PACKETS_PER_THREAD = 5000;
+
+    private final AtomicLong clock = new AtomicLong();
+    /** flows in config by flow id */
+    private final Map<String, Flow> configFlows = new ConcurrentHashMap<>();
+    private final AtomicInteger flowWrites = new AtomicInteger();
+    private LearningSwitchHandlerSimpleImpl handler;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        handler = new LearningSwitchHandlerSimpleImpl() {
+            @Override
+            MacTable<NodeConnectorRef> createMacTable(final MacTable.RemovalListener removalListener) {
+                return new MacTable<NodeConnectorRef>(4096, 300, TimeUnit.SECONDS, removalListener) {
+                    @Override
+                    protected long currentNanos() {
+                        return clock.get();
+                    }
+                };
+            }
+        };
+        handler.setDataStoreAccessor(new FlowCommitWrapper() {
+            @Override
+            public CheckedFuture<Void, TransactionCommitFailedException> writeFlowToConfig(
+                    final InstanceIdentifier<Flow> flowPath, final Flow flowBody) {
+                flowWrites.incrementAndGet();
+                configFlows.put(flowId(flowPath), flowBody);
+                return Futures.immediateCheckedFuture(null);
+            }
+
+            @Override
+            public CheckedFuture<Void, TransactionCommitFailedException> removeFlowFromConfig(
+                    final InstanceIdentifier<Flow> flowPath) {
+                configFlows.remove(flowId(flowPath));
+                return Futures.immediateCheckedFuture(null);
+            }
+        });
+        handler.setPacketProcessingService(new PacketProcessingService() {
+            @Override
+            public Future<RpcResult<Void>> transmitPacket(final TransmitPacketInput input) {
+                return null;
+            }
+
+            @Override
+            public Future<RpcResult<Void>> transmitPackets(final TransmitPacketsInput input) {
+                return null;
+            }
+        });
+        handler.onSwitchAppeared(TABLE_PATH);
+        Assert.assertTrue(configFlows.containsKey(TABLE_MISS_FLOW));
+        flowWrites.set(0);
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * flows for both directions are written once both MACs are learned, repeated packet-ins write nothing
+     */
+    @Test
+    public void testBridgeFlows() {
+        packetIn(MAC_A, MAC_B, 1);
+        Assert.assertEquals(1, configFlows.size());
+
+        packetIn(MAC_B, MAC_A, 2);
+        Assert.assertEquals(3, configFlows.size());
+        Assert.assertEquals(port(1), outputPort(MAC_B, MAC_A));
+        Assert.assertEquals(port(2), outputPort(MAC_A, MAC_B));
+
+        packetIn(MAC_A, MAC_B, 1);
+        packetIn(MAC_B, MAC_A, 2);
+        Assert.assertEquals(2, flowWrites.get());
+    }
+
+    /**
+     * flows toward moved MAC are rewritten to its new port, flows from it stay
+     */
+    @Test
+    public void testMacMove() {
+        packetIn(MAC_A, MAC_B, 1);
+        packetIn(MAC_B, MAC_A, 2);
+        packetIn(MAC_C, MAC_A, 3);
+        Assert.assertEquals(port(1), outputPort(MAC_C, MAC_A));
+
+        // A moves, it does not talk to C
+        packetIn(MAC_A, MAC_B, 4);
+        Assert.assertEquals(port(4), outputPort(MAC_B, MAC_A));
+        Assert.assertEquals(port(4), outputPort(MAC_C, MAC_A));
+        Assert.assertEquals(port(2), outputPort(MAC_A, MAC_B));
+        Assert.assertEquals(port(3), outputPort(MAC_A, MAC_C));
+
+        // A moves behind port of B - flows between them would send packets back to ingress
+        packetIn(MAC_A, MAC_C, 2);
+        Assert.assertNull(configFlows.get(flowId(MAC_B, MAC_A)));
+        Assert.assertNull(configFlows.get(flowId(MAC_A, MAC_B)));
+        Assert.assertEquals(port(2), outputPort(MAC_C, MAC_A));
+    }
+
+    /**
+     * flows from and toward aged out MACs are removed from config
+     */
+    @Test
+    public void testAgedMacFlowsRemoved() {
+        packetIn(MAC_A, MAC_B, 1);
+        packetIn(MAC_B, MAC_A, 2);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(200));
+        packetIn(MAC_C, MAC_B, 3);
+        Assert.assertEquals(port(2), outputPort(MAC_C, MAC_B));
+        Assert.assertEquals(port(3), outputPort(MAC_B, MAC_C));
+        Assert.assertEquals(5, configFlows.size());
+
+        // A and B age out, C is still fresh
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(150));
+        packetIn(MAC_C, MAC_B, 3);
+        Assert.assertEquals(1, configFlows.size());
+        Assert.assertTrue(configFlows.containsKey(TABLE_MISS_FLOW));
+
+        // relearned MACs get their flows again
+        packetIn(MAC_B, MAC_C, 2);
+        Assert.assertEquals(port(3), outputPort(MAC_B, MAC_C));
+        Assert.assertEquals(port(2), outputPort(MAC_C, MAC_B));
+    }
+
+    /**
+     * packet-in storm: every thread sends packets of its own hosts moving across ports to hosts of
+     * next thread; at the end every flow in config has to lead to the last port of its destination
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testConcurrentPacketIn() throws Exception {
+        final CountDownLatch startGate = new CountDownLatch(1);
+        final Map<Long, String> lastPorts = new ConcurrentHashMap<>();
+        final List<Future<Void>> results = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            final int thread = t;
+            results.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    startGate.await();
+                    for (int i = 0; i < PACKETS_PER_THREAD; i++) {
+                        final long srcMac = hostMac(thread, i % HOSTS_PER_THREAD);
+                        final long dstMac = hostMac((thread + 1) % THREADS, i % HOSTS_PER_THREAD);
+                        // ports of threads do not overlap
+                        final int port = thread * 4 + i / HOSTS_PER_THREAD % 4 + 1;
+                        packetIn(srcMac, dstMac, port);
+                        lastPorts.put(srcMac, port(port));
+                    }
+                    return null;
+                }
+            }));
+        }
+
+        startGate.countDown();
+        for (Future<Void> result : results) {
+            result.get(60, TimeUnit.SECONDS);
+        }
+
+        Assert.assertTrue(configFlows.size() > 1);
+        for (Map.Entry<String, Flow> flow : configFlows.entrySet()) {
+            if (TABLE_MISS_FLOW.equals(flow.getKey())) {
+                continue;
+            }
+            final long dstMac = Long.parseLong(flow.getKey().substring(flow.getKey().lastIndexOf('_') + 1), 16);
+            Assert.assertEquals(flow.getKey(), lastPorts.get(dstMac), outputPort(flow.getValue()));
+        }
+    }
+
+    private void packetIn(final long srcMac, final long dstMac, final int port) {
+        final byte[] payload = new byte[64];
+        for (int i = 0; i < 6; i++) {
+            payload[i] = (byte) (dstMac >>> (40 - 8 * i));
+            payload[6 + i] = (byte) (srcMac >>> (40 - 8 * i));
+        }
+        // IPv4
+        payload[12] = 0x08;
+        payload[13] = 0x00;
+        final InstanceIdentifier<NodeConnector> ingress = NODE_PATH.child(NodeConnector.class,
+                new NodeConnectorKey(new NodeConnectorId(port(port))));
+        handler.onPacketReceived(new PacketReceivedBuilder()
+                .setIngress(new NodeConnectorRef(ingress))
+                .setPayload(payload)
+                .build());
+    }
+
+    private String outputPort(final long srcMac, final long dstMac) {
+        final Flow flow = configFlows.get(flowId(srcMac, dstMac));
+        Assert.assertNotNull(flowId(srcMac, dstMac), flow);
+        return outputPort(flow);
+    }
+
+    private static String outputPort(final Flow flow) {
+        final ApplyActionsCase applyActions = (ApplyActionsCase) flow.getInstructions().getInstruction().get(0)
+                .getInstruction();
+        final OutputActionCase output = (OutputActionCase) applyActions.getApplyActions().getAction().get(0)
+                .getAction();
+        return output.getOutputAction().getOutputNodeConnector().getValue();
+    }
+
+    private static long hostMac(final int thread, final int host) {
+        return ((long) (thread + 1) << 16) | host;
+    }
+
+    private static String port(final int port) {
+        return "openflow:1:" + port;
+    }
+
+    private static String flowId(final long srcMac, final long dstMac) {
+        return "macPath_" + Long.toHexString(srcMac) + "_" + Long.toHexString(dstMac);
+    }
+
+    private static String flowId(final InstanceIdentifier<Flow> flowPath) {
+        return flowPath.firstKeyOf(Flow.class, FlowKey.class).getId().getValue();
+    }
+}
@@ -0,0 +1,229 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.learningswitch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * test of {@link MacTable}
+ */
+public class MacTableTest {
+
+    private static final int MAX_ENTRIES = 1024;
+    private static final int THREADS = 8;
+    private static final int PACKETS_PER_THREAD = 50000;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final List<Long> removedMacs = new ArrayList<>();
+    private final List<Long> removedDestinations = new ArrayList<>();
+    private MacTable<Integer> macTable;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        macTable = new MacTable<Integer>(MAX_ENTRIES, 10, TimeUnit.SECONDS, new MacTable.RemovalListener() {
+            @Override
+            public synchronized void macRemoved(final long mac, final long[] programmedDestinations) {
+                removedMacs.add(mac);
+                for (long dstMac : programmedDestinations) {
+                    removedDestinations.add(dstMac);
+                }
+            }
+        }) {
+            @Override
+            protected long currentNanos() {
+                return clock.get();
+            }
+        };
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * test of {@link MacTable#learn(long, Object)} and {@link MacTable#lookup(long)}
+     */
+    @Test
+    public void testLearnAndLookup() {
+        Assert.assertNull(macTable.lookup(0x0000000000aaL));
+        Assert.assertNull(macTable.learn(0x0000000000aaL, 1));
+        Assert.assertEquals(Integer.valueOf(1), macTable.lookup(0x0000000000aaL));
+
+        Assert.assertEquals(Integer.valueOf(1), macTable.learn(0x0000000000aaL, 2));
+        Assert.assertEquals(Integer.valueOf(2), macTable.lookup(0x0000000000aaL));
+        Assert.assertEquals(1, macTable.size());
+    }
+
+    /**
+     * not refreshed entries have to disappear after idle timeout
+     */
+    @Test
+    public void testAging() {
+        macTable.learn(1L, 1);
+        macTable.learn(2L, 2);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        macTable.learn(2L, 2);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(6));
+
+        Assert.assertNull(macTable.lookup(1L));
+        Assert.assertEquals(Integer.valueOf(2), macTable.lookup(2L));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        Assert.assertEquals(1, macTable.expire());
+        Assert.assertEquals(0, macTable.size());
+        Assert.assertEquals(Arrays.asList(1L, 2L), removedMacs);
+    }
+
+    /**
+     * flow for mac path is requested only once per destination port, moving source keeps its flows
+     */
+    @Test
+    public void testMarkProgrammed() {
+        Assert.assertFalse(macTable.markProgrammed(1L, 2L, 2));
+
+        macTable.learn(1L, 1);
+        Assert.assertTrue(macTable.markProgrammed(1L, 2L, 2));
+        Assert.assertFalse(macTable.markProgrammed(1L, 2L, 2));
+        Assert.assertTrue(macTable.markProgrammed(1L, 3L, 3));
+
+        macTable.learn(1L, 4);
+        Assert.assertFalse(macTable.markProgrammed(1L, 2L, 2));
+
+        // destination moved
+        Assert.assertTrue(macTable.markProgrammed(1L, 2L, 5));
+        Assert.assertFalse(macTable.markProgrammed(1L, 2L, 5));
+
+        Assert.assertTrue(macTable.unmarkProgrammed(1L, 2L));
+        Assert.assertFalse(macTable.unmarkProgrammed(1L, 2L));
+        Assert.assertTrue(macTable.markProgrammed(1L, 2L, 5));
+    }
+
+    /**
+     * sources of flows toward given MAC are found across segments
+     */
+    @Test
+    public void testProgrammedSources() {
+        for (long mac = 1; mac <= 100; mac++) {
+            macTable.learn(mac, (int) mac);
+        }
+        for (long mac = 2; mac <= 100; mac += 2) {
+            macTable.markProgrammed(mac, 1L, 1);
+        }
+        macTable.markProgrammed(3L, 5L, 5);
+
+        final long[] sources = macTable.programmedSources(1L);
+        Arrays.sort(sources);
+        Assert.assertEquals(50, sources.length);
+        for (int i = 0; i < sources.length; i++) {
+            Assert.assertEquals(2L * (i + 1), sources[i]);
+        }
+        Assert.assertArrayEquals(new long[] {3L}, macTable.programmedSources(5L));
+        Assert.assertEquals(0, macTable.programmedSources(3L).length);
+    }
+
+    /**
+     * aged out and evicted MACs are reported together with their programmed destinations
+     */
+    @Test
+    public void testRemovalListener() {
+        macTable.learn(1L, 1);
+        macTable.markProgrammed(1L, 2L, 2);
+        macTable.markProgrammed(1L, 3L, 3);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(11));
+        Assert.assertNull(macTable.lookup(1L));
+        Assert.assertEquals(Arrays.asList(1L), removedMacs);
+        Assert.assertEquals(Arrays.asList(2L, 3L), removedDestinations);
+
+        removedMacs.clear();
+        for (long mac = 0; mac < MAX_ENTRIES * 2; mac++) {
+            clock.incrementAndGet();
+            macTable.learn(mac, (int) mac);
+        }
+        Assert.assertEquals(MAX_ENTRIES * 2 - macTable.size(), removedMacs.size());
+    }
+
+    /**
+     * table must not grow over its bound, freshly learned MACs have to survive eviction
+     */
+    @Test
+    public void testBound() {
+        for (long mac = 0; mac < MAX_ENTRIES * 8; mac++) {
+            clock.incrementAndGet();
+            macTable.learn(mac, (int) mac);
+            Assert.assertEquals(Integer.valueOf((int) mac), macTable.lookup(mac));
+        }
+        Assert.assertTrue(macTable.size() <= MAX_ENTRIES);
+    }
+
+    /**
+     * synthetic packet-in storm: every thread learns its own hosts moving across ports and
+     * looks up hosts of other threads
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testConcurrentStress() throws Exception {
+        final int hostsPerThread = MAX_ENTRIES / THREADS / 2;
+        final CountDownLatch startGate = new CountDownLatch(1);
+        final AtomicInteger programmed = new AtomicInteger();
+        final List<Future<Void>> results = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            final long macBase = (long) t << 32;
+            results.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    startGate.await();
+                    for (int i = 0; i < PACKETS_PER_THREAD; i++) {
+                        final long srcMac = macBase + i % hostsPerThread;
+                        final int port = i / hostsPerThread % 4;
+                        macTable.learn(srcMac, port);
+                        Assert.assertEquals(Integer.valueOf(port), macTable.lookup(srcMac));
+
+                        final long dstMac = (macBase + (1L << 32) + i % hostsPerThread) % ((long) THREADS << 32);
+                        macTable.lookup(dstMac);
+                        if (macTable.markProgrammed(srcMac, dstMac, port)) {
+                            programmed.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }
+            }));
+        }
+
+        startGate.countDown();
+        for (Future<Void> result : results) {
+            result.get(30, TimeUnit.SECONDS);
+        }
+
+        Assert.assertEquals(THREADS * hostsPerThread, macTable.size());
+        // every host moves across 4 ports, mac path is programmed once per port
+        final int rounds = PACKETS_PER_THREAD / hostsPerThread;
+        Assert.assertTrue(programmed.get() >= THREADS * hostsPerThread * Math.min(rounds, 4));
+        Assert.assertTrue(programmed.get() <= THREADS * hostsPerThread * (rounds + 1));
+    }
+}
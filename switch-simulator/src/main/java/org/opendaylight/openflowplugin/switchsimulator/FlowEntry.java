@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.switchsimulator;
+
+/**
+ * flow stored in simulated switch - match and instructions (actions for OF-1.0) are kept in
+ * wire form, exactly as they arrived in flow-mod
+ */
+class FlowEntry {
+
+    private final short tableId;
+    private final int priority;
+    private final long cookie;
+    private final int idleTimeout;
+    private final int hardTimeout;
+    private final int flags;
+    private final byte[] match;
+    private final long installedNanos;
+    private volatile byte[] instructions;
+
+    FlowEntry(final short tableId, final int priority, final long cookie, final int idleTimeout,
+            final int hardTimeout, final int flags, final byte[] match, final byte[] instructions) {
+        this.tableId = tableId;
+        this.priority = priority;
+        this.cookie = cookie;
+        this.idleTimeout = idleTimeout;
+        this.hardTimeout = hardTimeout;
+        this.flags = flags;
+        this.match = match;
+        this.instructions = instructions;
+        this.installedNanos = System.nanoTime();
+    }
+
+    short getTableId() {
+        return tableId;
+    }
+
+    int getPriority() {
+        return priority;
+    }
+
+    long getCookie() {
+        return cookie;
+    }
+
+    int getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    int getHardTimeout() {
+        return hardTimeout;
+    }
+
+    int getFlags() {
+        return flags;
+    }
+
+    byte[] getMatch() {
+        return match;
+    }
+
+    byte[] getInstructions() {
+        return instructions;
+    }
+
+    void setInstructions(final byte[] instructions) {
+        this.instructions = instructions;
+    }
+
+    long getInstalledNanos() {
+        return installedNanos;
+    }
+}
@@ -0,0 +1,198 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.switchsimulator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * flow tables of one simulated switch
+ * <br>
+ * Matches are compared in wire form, so non-strict modify / delete affect flows with identical
+ * match only (or all flows of table if match is empty) - no real subset matching is done.
+ */
+class FlowTable {
+
+    /** flow-mod command: add */
+    static final int OFPFC_ADD = 0;
+    /** flow-mod command: modify */
+    static final int OFPFC_MODIFY = 1;
+    /** flow-mod command: modify strict */
+    static final int OFPFC_MODIFY_STRICT = 2;
+    /** flow-mod command: delete */
+    static final int OFPFC_DELETE = 3;
+    /** flow-mod command: delete strict */
+    static final int OFPFC_DELETE_STRICT = 4;
+
+    /** table id addressing all tables */
+    static final short OFPTT_ALL = 0xff;
+
+    private final List<Map<FlowKey, FlowEntry>> tables;
+
+    /**
+     * @param tableCount amount of tables
+     */
+    FlowTable(final int tableCount) {
+        tables = new ArrayList<>(tableCount);
+        for (int i = 0; i < tableCount; i++) {
+            tables.add(new LinkedHashMap<FlowKey, FlowEntry>());
+        }
+    }
+
+    /**
+     * @param command flow-mod command
+     * @param flow flow carried by flow-mod
+     * @param matchAll true if flow-mod match is empty (all wildcarded)
+     */
+    synchronized void apply(final int command, final FlowEntry flow, final boolean matchAll) {
+        switch (command) {
+        case OFPFC_ADD:
+            add(flow);
+            break;
+        case OFPFC_MODIFY:
+        case OFPFC_MODIFY_STRICT:
+            if (!modify(flow, command == OFPFC_MODIFY_STRICT, matchAll)) {
+                add(flow);
+            }
+            break;
+        case OFPFC_DELETE:
+        case OFPFC_DELETE_STRICT:
+            delete(flow, command == OFPFC_DELETE_STRICT, matchAll);
+            break;
+        default:
+            throw new IllegalArgumentException("unknown flow-mod command: " + command);
+        }
+    }
+
+    private void add(final FlowEntry flow) {
+        if (flow.getTableId() < tables.size()) {
+            tables.get(flow.getTableId()).put(new FlowKey(flow), flow);
+        }
+    }
+
+    private boolean modify(final FlowEntry flow, final boolean strict, final boolean matchAll) {
+        boolean modified = false;
+        for (Map<FlowKey, FlowEntry> table : selectTables(flow.getTableId())) {
+            if (strict) {
+                final FlowEntry existing = table.get(new FlowKey(flow));
+                if (existing != null) {
+                    existing.setInstructions(flow.getInstructions());
+                    modified = true;
+                }
+            } else {
+                for (FlowEntry existing : table.values()) {
+                    if (matchAll || Arrays.equals(existing.getMatch(), flow.getMatch())) {
+                        existing.setInstructions(flow.getInstructions());
+                        modified = true;
+                    }
+                }
+            }
+        }
+        return modified;
+    }
+
+    private void delete(final FlowEntry flow, final boolean strict, final boolean matchAll) {
+        for (Map<FlowKey, FlowEntry> table : selectTables(flow.getTableId())) {
+            if (strict) {
+                table.remove(new FlowKey(flow));
+            } else if (matchAll) {
+                table.clear();
+            } else {
+                for (Iterator<FlowEntry> iterator = table.values().iterator(); iterator.hasNext();) {
+                    if (Arrays.equals(iterator.next().getMatch(), flow.getMatch())) {
+                        iterator.remove();
+                    }
+                }
+            }
+        }
+    }
+
+    private List<Map<FlowKey, FlowEntry>> selectTables(final short tableId) {
+        if (tableId == OFPTT_ALL) {
+            return tables;
+        }
+        if (tableId < tables.size()) {
+            return tables.subList(tableId, tableId + 1);
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * @param tableId table id or {@link #OFPTT_ALL}
+     * @return copy of flows in given table(s)
+     */
+    synchronized List<FlowEntry> getFlows(final short tableId) {
+        final List<FlowEntry> flows = new ArrayList<>();
+        for (Map<FlowKey, FlowEntry> table : selectTables(tableId)) {
+            flows.addAll(table.values());
+        }
+        return flows;
+    }
+
+    /**
+     * @param tableId table id
+     * @return amount of flows in given table
+     */
+    synchronized int getActiveCount(final short tableId) {
+        return tableId < tables.size() ? tables.get(tableId).size() : 0;
+    }
+
+    /**
+     * @return amount of tables
+     */
+    int getTableCount() {
+        return tables.size();
+    }
+
+    /**
+     * @return amount of flows in all tables
+     */
+    synchronized int size() {
+        int size = 0;
+        for (Map<FlowKey, FlowEntry> table : tables) {
+            size += table.size();
+        }
+        return size;
+    }
+
+    /**
+     * identity of flow within table - priority and match
+     */
+    private static final class FlowKey {
+        private final int priority;
+        private final byte[] match;
+        private final int hash;
+
+        FlowKey(final FlowEntry flow) {
+            priority = flow.getPriority();
+            match = flow.getMatch();
+            hash = 31 * priority + Arrays.hashCode(match);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof FlowKey)) {
+                return false;
+            }
+            final FlowKey other = (FlowKey) obj;
+            return priority == other.priority && Arrays.equals(match, other.match);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.switchsimulator;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * physical port of simulated switch together with its counters
+ */
+class SimulatedPort {
+
+    private final int number;
+    private final byte[] hwAddress;
+    private final String name;
+    private final AtomicLong rxPackets = new AtomicLong();
+    private final AtomicLong rxBytes = new AtomicLong();
+    private volatile boolean linkDown;
+
+    /**
+     * @param datapathId owning switch
+     * @param number port number
+     */
+    SimulatedPort(final long datapathId, final int number) {
+        this.number = number;
+        // locally administered address derived from datapath id and port number
+        hwAddress = new byte[] { 0x02, (byte) (datapathId >>> 16), (byte) (datapathId >>> 8), (byte) datapathId,
+                (byte) (number >>> 8), (byte) number };
+        name = "s" + datapathId + "-eth" + number;
+    }
+
+    int getNumber() {
+        return number;
+    }
+
+    byte[] getHwAddress() {
+        return hwAddress;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    boolean isLinkDown() {
+        return linkDown;
+    }
+
+    /**
+     * flip link state
+     *
+     * @return new link down flag
+     */
+    boolean toggleLink() {
+        linkDown = !linkDown;
+        return linkDown;
+    }
+
+    /**
+     * @param length length of frame received on this port
+     */
+    void countReceived(final int length) {
+        rxPackets.incrementAndGet();
+        rxBytes.addAndGet(length);
+    }
+
+    long getRxPackets() {
+        return rxPackets.get();
+    }
+
+    long getRxBytes() {
+        return rxBytes.get();
+    }
+}
@@ -0,0 +1,325 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.switchsimulator;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * one simulated switch - answers controller requests from its own ports and flow tables and
+ * emits asynchronous messages on demand
+ */
+public class SimulatedSwitch extends SimpleChannelInboundHandler<ByteBuf> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SimulatedSwitch.class);
+
+    private static final int ETHERNET_FRAME_LENGTH = 64;
+    private static final int ETH_TYPE_IPV4 = 0x0800;
+
+    private final SimulatorConfig config;
+    private final WireProtocol protocol;
+    private final long datapathId;
+    private final List<SimulatedPort> ports;
+    private final FlowTable flowTable;
+    private final CountDownLatch handshakeDone = new CountDownLatch(1);
+    private final AtomicInteger asyncXid = new AtomicInteger();
+
+    private final AtomicLong flowModsReceived = new AtomicLong();
+    private final AtomicLong packetOutsReceived = new AtomicLong();
+    private final AtomicLong multipartRequestsReceived = new AtomicLong();
+    private final AtomicLong errorsInjected = new AtomicLong();
+    private final AtomicLong packetInsSent = new AtomicLong();
+    private final AtomicLong portStatusSent = new AtomicLong();
+
+    private volatile Channel channel;
+
+    /**
+     * @param config simulator setup
+     * @param datapathId datapath id of this switch
+     */
+    SimulatedSwitch(final SimulatorConfig config, final long datapathId) {
+        this.config = config;
+        this.datapathId = datapathId;
+        protocol = WireProtocol.forVersion(config.getVersion());
+
+        final List<SimulatedPort> portList = new ArrayList<>(config.getPortsPerSwitch());
+        for (int i = 1; i <= config.getPortsPerSwitch(); i++) {
+            portList.add(new SimulatedPort(datapathId, i));
+        }
+        ports = Collections.unmodifiableList(portList);
+
+        flowTable = new FlowTable(config.getTableCount());
+        int flowIndex = 0;
+        for (short tableId = 0; tableId < config.getTableCount(); tableId++) {
+            for (int i = 0; i < config.getFlowsPerTable(); i++) {
+                flowTable.apply(FlowTable.OFPFC_ADD, new FlowEntry(tableId, 1, flowIndex,
+                        0, 0, 0, protocol.createSyntheticMatch(flowIndex), new byte[0]), false);
+                flowIndex++;
+            }
+        }
+    }
+
+    @Override
+    public void channelActive(final ChannelHandlerContext ctx) throws Exception {
+        channel = ctx.channel();
+        final ByteBuf hello = ctx.alloc().buffer();
+        protocol.writeHello(hello, asyncXid.incrementAndGet());
+        ctx.writeAndFlush(hello);
+        super.channelActive(ctx);
+    }
+
+    @Override
+    public void channelInactive(final ChannelHandlerContext ctx) throws Exception {
+        LOG.debug("switch {} disconnected", datapathId);
+        channel = null;
+        super.channelInactive(ctx);
+    }
+
+    @Override
+    protected void channelRead0(final ChannelHandlerContext ctx, final ByteBuf msg) {
+        final int xid = msg.getInt(4);
+        final WireProtocol.InboundType type = protocol.classify(msg.getUnsignedByte(1));
+        final ByteBuf reply = ctx.alloc().buffer();
+        switch (type) {
+        case HELLO:
+            // own hello was sent upon connect
+            reply.release();
+            return;
+        case ECHO_REQUEST:
+            protocol.writeEchoReply(reply, msg);
+            ctx.writeAndFlush(reply);
+            return;
+        case FEATURES_REQUEST:
+            protocol.writeFeaturesReply(reply, xid, this);
+            ctx.writeAndFlush(reply);
+            handshakeDone.countDown();
+            return;
+        default:
+            break;
+        }
+
+        if (config.getErrorRate() > 0 && ThreadLocalRandom.current().nextDouble() < config.getErrorRate()) {
+            errorsInjected.incrementAndGet();
+            protocol.writeError(reply, msg);
+            send(ctx, reply);
+            return;
+        }
+
+        switch (type) {
+        case GET_CONFIG_REQUEST:
+            protocol.writeGetConfigReply(reply, xid);
+            break;
+        case FLOW_MOD:
+            flowModsReceived.incrementAndGet();
+            protocol.applyFlowMod(msg, flowTable);
+            break;
+        case PACKET_OUT:
+            packetOutsReceived.incrementAndGet();
+            break;
+        case MULTIPART_REQUEST:
+            multipartRequestsReceived.incrementAndGet();
+            protocol.writeMultipartReply(reply, msg, this);
+            break;
+        case BARRIER_REQUEST:
+            protocol.writeBarrierReply(reply, xid);
+            break;
+        case ROLE_REQUEST:
+            protocol.writeRoleReply(reply, msg);
+            break;
+        case SET_CONFIG:
+            break;
+        default:
+            LOG.debug("switch {} ignores message type {}", datapathId, msg.getUnsignedByte(1));
+            break;
+        }
+        send(ctx, reply);
+    }
+
+    private void send(final ChannelHandlerContext ctx, final ByteBuf reply) {
+        if (!reply.isReadable()) {
+            reply.release();
+        } else if (config.getReplyDelayMillis() > 0) {
+            ctx.executor().schedule(new Runnable() {
+                @Override
+                public void run() {
+                    ctx.writeAndFlush(reply);
+                }
+            }, config.getReplyDelayMillis(), TimeUnit.MILLISECONDS);
+        } else {
+            ctx.writeAndFlush(reply);
+        }
+    }
+
+    @Override
+    public void exceptionCaught(final ChannelHandlerContext ctx, final Throwable cause) {
+        LOG.warn("switch {} failed, closing connection", datapathId, cause);
+        ctx.close();
+    }
+
+    /**
+     * emit packet-ins with synthetic IPv4 frames, ingress ports are taken round robin
+     *
+     * @param count amount of packet-ins
+     */
+    public void sendPacketIns(final int count) {
+        final Channel currentChannel = channel;
+        if (currentChannel == null || ports.isEmpty()) {
+            return;
+        }
+        currentChannel.eventLoop().execute(new Runnable() {
+            @Override
+            public void run() {
+                final ByteBuf out = currentChannel.alloc().buffer(count * (ETHERNET_FRAME_LENGTH + 48));
+                for (int i = 0; i < count; i++) {
+                    final long sequence = packetInsSent.getAndIncrement();
+                    final SimulatedPort port = ports.get((int) (sequence % ports.size()));
+                    final byte[] frame = createFrame(sequence);
+                    port.countReceived(frame.length);
+                    protocol.writePacketIn(out, asyncXid.incrementAndGet(), port, frame);
+                }
+                currentChannel.writeAndFlush(out);
+            }
+        });
+    }
+
+    /**
+     * emit port-status messages, each flipping link state of next port
+     *
+     * @param count amount of port-status messages
+     */
+    public void sendPortStatus(final int count) {
+        final Channel currentChannel = channel;
+        if (currentChannel == null || ports.isEmpty()) {
+            return;
+        }
+        currentChannel.eventLoop().execute(new Runnable() {
+            @Override
+            public void run() {
+                final ByteBuf out = currentChannel.alloc().buffer();
+                for (int i = 0; i < count; i++) {
+                    final SimulatedPort port = ports.get((int) (portStatusSent.getAndIncrement() % ports.size()));
+                    port.toggleLink();
+                    protocol.writePortStatus(out, asyncXid.incrementAndGet(), port);
+                }
+                currentChannel.writeAndFlush(out);
+            }
+        });
+    }
+
+    private byte[] createFrame(final long sequence) {
+        final byte[] frame = new byte[ETHERNET_FRAME_LENGTH];
+        // dst: broadcast
+        for (int i = 0; i < 6; i++) {
+            frame[i] = (byte) 0xff;
+        }
+        // src: locally administered, unique per switch and packet
+        final long srcMac = 0x020000000000L | ((datapathId & 0xff) << 32) | (sequence & 0xffffffffL);
+        for (int i = 0; i < 6; i++) {
+            frame[6 + i] = (byte) (srcMac >>> (40 - 8 * i));
+        }
+        WireProtocol.writeShort(frame, 12, ETH_TYPE_IPV4);
+        return frame;
+    }
+
+    /**
+     * @param timeout max time to wait
+     * @param unit unit of timeout
+     * @return true if features were requested by controller within timeout
+     * @throws InterruptedException
+     */
+    public boolean awaitHandshake(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return handshakeDone.await(timeout, unit);
+    }
+
+    /**
+     * @return true if connection to controller is up
+     */
+    public boolean isConnected() {
+        final Channel currentChannel = channel;
+        return currentChannel != null && currentChannel.isActive();
+    }
+
+    /**
+     * @return datapath id
+     */
+    public long getDatapathId() {
+        return datapathId;
+    }
+
+    /**
+     * @return amount of flows currently installed in all tables
+     */
+    public int getFlowCount() {
+        return flowTable.size();
+    }
+
+    /**
+     * @return amount of received flow-mods
+     */
+    public long getFlowModsReceived() {
+        return flowModsReceived.get();
+    }
+
+    /**
+     * @return amount of received packet-outs
+     */
+    public long getPacketOutsReceived() {
+        return packetOutsReceived.get();
+    }
+
+    /**
+     * @return amount of received multipart (statistics) requests
+     */
+    public long getMultipartRequestsReceived() {
+        return multipartRequestsReceived.get();
+    }
+
+    /**
+     * @return amount of requests answered by injected error
+     */
+    public long getErrorsInjected() {
+        return errorsInjected.get();
+    }
+
+    /**
+     * @return amount of emitted packet-ins
+     */
+    public long getPacketInsSent() {
+        return packetInsSent.get();
+    }
+
+    List<SimulatedPort> getPorts() {
+        return ports;
+    }
+
+    FlowTable getFlowTable() {
+        return flowTable;
+    }
+
+    /**
+     * close connection to controller
+     */
+    void disconnect() {
+        final Channel currentChannel = channel;
+        if (currentChannel != null) {
+            currentChannel.close();
+        }
+    }
+}
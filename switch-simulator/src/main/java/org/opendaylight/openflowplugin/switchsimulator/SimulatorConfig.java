@@ -0,0 +1,194 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.switchsimulator;
+
+/**
+ * setup of {@link SwitchSimulator} - shape of simulated network and injected misbehavior
+ */
+public class SimulatorConfig {
+
+    /** OF-1.0 wire version */
+    public static final short OFP_VERSION_1_0 = 0x01;
+    /** OF-1.3 wire version */
+    public static final short OFP_VERSION_1_3 = 0x04;
+
+    private String controllerHost = "127.0.0.1";
+    private int controllerPort = 6653;
+    private short version = OFP_VERSION_1_3;
+    private int switchCount = 1;
+    private int portsPerSwitch = 4;
+    private int tableCount = 1;
+    private int flowsPerTable;
+    private long datapathIdBase = 1;
+    private long replyDelayMillis;
+    private double errorRate;
+
+    /**
+     * @return address of controller the switches connect to
+     */
+    public String getControllerHost() {
+        return controllerHost;
+    }
+
+    /**
+     * @param controllerHost address of controller the switches connect to
+     * @return this
+     */
+    public SimulatorConfig setControllerHost(final String controllerHost) {
+        this.controllerHost = controllerHost;
+        return this;
+    }
+
+    /**
+     * @return openflow port of controller
+     */
+    public int getControllerPort() {
+        return controllerPort;
+    }
+
+    /**
+     * @param controllerPort openflow port of controller
+     * @return this
+     */
+    public SimulatorConfig setControllerPort(final int controllerPort) {
+        this.controllerPort = controllerPort;
+        return this;
+    }
+
+    /**
+     * @return wire version spoken by all switches
+     */
+    public short getVersion() {
+        return version;
+    }
+
+    /**
+     * @param version wire version spoken by all switches ({@link #OFP_VERSION_1_0} or {@link #OFP_VERSION_1_3})
+     * @return this
+     */
+    public SimulatorConfig setVersion(final short version) {
+        if (version != OFP_VERSION_1_0 && version != OFP_VERSION_1_3) {
+            throw new IllegalArgumentException("unsupported version: " + version);
+        }
+        this.version = version;
+        return this;
+    }
+
+    /**
+     * @return amount of simulated switches
+     */
+    public int getSwitchCount() {
+        return switchCount;
+    }
+
+    /**
+     * @param switchCount amount of simulated switches
+     * @return this
+     */
+    public SimulatorConfig setSwitchCount(final int switchCount) {
+        this.switchCount = switchCount;
+        return this;
+    }
+
+    /**
+     * @return amount of physical ports of each switch
+     */
+    public int getPortsPerSwitch() {
+        return portsPerSwitch;
+    }
+
+    /**
+     * @param portsPerSwitch amount of physical ports of each switch
+     * @return this
+     */
+    public SimulatorConfig setPortsPerSwitch(final int portsPerSwitch) {
+        this.portsPerSwitch = portsPerSwitch;
+        return this;
+    }
+
+    /**
+     * @return amount of flow tables of each switch (OF-1.0 switch always has one)
+     */
+    public int getTableCount() {
+        return version == OFP_VERSION_1_0 ? 1 : tableCount;
+    }
+
+    /**
+     * @param tableCount amount of flow tables of each switch
+     * @return this
+     */
+    public SimulatorConfig setTableCount(final int tableCount) {
+        this.tableCount = tableCount;
+        return this;
+    }
+
+    /**
+     * @return amount of flows preinstalled in each table
+     */
+    public int getFlowsPerTable() {
+        return flowsPerTable;
+    }
+
+    /**
+     * @param flowsPerTable amount of flows preinstalled in each table
+     * @return this
+     */
+    public SimulatorConfig setFlowsPerTable(final int flowsPerTable) {
+        this.flowsPerTable = flowsPerTable;
+        return this;
+    }
+
+    /**
+     * @return datapath id of first switch, following switches get consecutive ids
+     */
+    public long getDatapathIdBase() {
+        return datapathIdBase;
+    }
+
+    /**
+     * @param datapathIdBase datapath id of first switch
+     * @return this
+     */
+    public SimulatorConfig setDatapathIdBase(final long datapathIdBase) {
+        this.datapathIdBase = datapathIdBase;
+        return this;
+    }
+
+    /**
+     * @return delay applied to every reply except handshake and echo [ms]
+     */
+    public long getReplyDelayMillis() {
+        return replyDelayMillis;
+    }
+
+    /**
+     * @param replyDelayMillis delay applied to every reply except handshake and echo [ms]
+     * @return this
+     */
+    public SimulatorConfig setReplyDelayMillis(final long replyDelayMillis) {
+        this.replyDelayMillis = replyDelayMillis;
+        return this;
+    }
+
+    /**
+     * @return probability (0..1) of answering a request with error instead of processing it
+     */
+    public double getErrorRate() {
+        return errorRate;
+    }
+
+    /**
+     * @param errorRate probability (0..1) of answering a request (except handshake and echo)
+     *        with error instead of processing it
+     * @return this
+     */
+    public SimulatorConfig setErrorRate(final double errorRate) {
+        this.errorRate = errorRate;
+        return this;
+    }
+}
@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.switchsimulator;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In-process simulator of openflow switches connecting to controller over TCP. Each switch
+ * answers handshake, configuration, barrier, role and multipart (statistics) requests from its
+ * own ports and flow tables, stores flows received via flow-mod and emits packet-in and
+ * port-status load on demand. Reply latency and error answers can be injected via
+ * {@link SimulatorConfig}.
+ * <br>
+ * Usage:
+ * <pre>
+ * SwitchSimulator simulator = new SwitchSimulator(new SimulatorConfig().setSwitchCount(100));
+ * simulator.start();
+ * simulator.awaitHandshake(30, TimeUnit.SECONDS);
+ * simulator.sendPacketIns(1000);
+ * ...
+ * simulator.close();
+ * </pre>
+ */
+public class SwitchSimulator implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SwitchSimulator.class);
+
+    /** openflow length field - offset, length and adjustment (length includes header) */
+    private static final int MAX_FRAME_LENGTH = 0xffff;
+    private static final int LENGTH_FIELD_OFFSET = 2;
+    private static final int LENGTH_FIELD_LENGTH = 2;
+    private static final int LENGTH_ADJUSTMENT = -4;
+
+    private final SimulatorConfig config;
+    private final List<SimulatedSwitch> switches;
+    private EventLoopGroup workerGroup;
+
+    /**
+     * @param config setup of simulated network
+     */
+    public SwitchSimulator(final SimulatorConfig config) {
+        this.config = config;
+        final List<SimulatedSwitch> switchList = new ArrayList<>(config.getSwitchCount());
+        for (int i = 0; i < config.getSwitchCount(); i++) {
+            switchList.add(new SimulatedSwitch(config, config.getDatapathIdBase() + i));
+        }
+        switches = Collections.unmodifiableList(switchList);
+    }
+
+    /**
+     * connect all switches to controller
+     *
+     * @throws InterruptedException
+     */
+    public synchronized void start() throws InterruptedException {
+        if (workerGroup != null) {
+            throw new IllegalStateException("simulator already started");
+        }
+        workerGroup = new NioEventLoopGroup();
+        final List<ChannelFuture> connectFutures = new ArrayList<>(switches.size());
+        for (final SimulatedSwitch sw : switches) {
+            final Bootstrap bootstrap = new Bootstrap();
+            bootstrap.group(workerGroup)
+                    .channel(NioSocketChannel.class)
+                    .option(ChannelOption.TCP_NODELAY, true)
+                    .handler(new ChannelInitializer<SocketChannel>() {
+                        @Override
+                        protected void initChannel(final SocketChannel ch) {
+                            ch.pipeline().addLast(new LengthFieldBasedFrameDecoder(MAX_FRAME_LENGTH,
+                                    LENGTH_FIELD_OFFSET, LENGTH_FIELD_LENGTH, LENGTH_ADJUSTMENT, 0), sw);
+                        }
+                    });
+            connectFutures.add(bootstrap.connect(config.getControllerHost(), config.getControllerPort()));
+        }
+
+        for (int i = 0; i < connectFutures.size(); i++) {
+            final ChannelFuture connectFuture = connectFutures.get(i).await();
+            if (!connectFuture.isSuccess()) {
+                LOG.warn("switch {} failed to connect to {}:{}", switches.get(i).getDatapathId(),
+                        config.getControllerHost(), config.getControllerPort(), connectFuture.cause());
+            }
+        }
+        LOG.info("{} simulated switches (OF version {}) started", switches.size(), config.getVersion());
+    }
+
+    /**
+     * @param timeout max time to wait
+     * @param unit unit of timeout
+     * @return true if all switches finished handshake within timeout
+     * @throws InterruptedException
+     */
+    public boolean awaitHandshake(final long timeout, final TimeUnit unit) throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (SimulatedSwitch sw : switches) {
+            if (!sw.awaitHandshake(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param countPerSwitch amount of packet-ins emitted by each switch
+     */
+    public void sendPacketIns(final int countPerSwitch) {
+        for (SimulatedSwitch sw : switches) {
+            sw.sendPacketIns(countPerSwitch);
+        }
+    }
+
+    /**
+     * @param countPerSwitch amount of port-status messages emitted by each switch
+     */
+    public void sendPortStatus(final int countPerSwitch) {
+        for (SimulatedSwitch sw : switches) {
+            sw.sendPortStatus(countPerSwitch);
+        }
+    }
+
+    /**
+     * @return simulated switches
+     */
+    public List<SimulatedSwitch> getSwitches() {
+        return switches;
+    }
+
+    /**
+     * @return amount of flows installed in all switches
+     */
+    public long getFlowCount() {
+        long flowCount = 0;
+        for (SimulatedSwitch sw : switches) {
+            flowCount += sw.getFlowCount();
+        }
+        return flowCount;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (workerGroup == null) {
+            return;
+        }
+        for (SimulatedSwitch sw : switches) {
+            sw.disconnect();
+        }
+        workerGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS).awaitUninterruptibly();
+        workerGroup = null;
+    }
+}
@@ -0,0 +1,362 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.switchsimulator;
+
+import io.netty.buffer.ByteBuf;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * version specific wire encoding of simulated switch - messages are written directly into
+ * {@link ByteBuf}, no model objects are involved
+ */
+abstract class WireProtocol {
+
+    /** inbound message classification */
+    enum InboundType {
+        HELLO, ERROR, ECHO_REQUEST, FEATURES_REQUEST, GET_CONFIG_REQUEST, SET_CONFIG, PACKET_OUT, FLOW_MOD,
+        MULTIPART_REQUEST, BARRIER_REQUEST, ROLE_REQUEST, OTHER
+    }
+
+    /** length of openflow header */
+    static final int HEADER_LENGTH = 8;
+
+    protected static final int OFPT_HELLO = 0;
+    protected static final int OFPT_ERROR = 1;
+    protected static final int OFPT_ECHO_REQUEST = 2;
+    protected static final int OFPT_ECHO_REPLY = 3;
+    protected static final int OFPT_FEATURES_REQUEST = 5;
+    protected static final int OFPT_FEATURES_REPLY = 6;
+    protected static final int OFPT_GET_CONFIG_REQUEST = 7;
+    protected static final int OFPT_GET_CONFIG_REPLY = 8;
+    protected static final int OFPT_SET_CONFIG = 9;
+    protected static final int OFPT_PACKET_IN = 10;
+    protected static final int OFPT_PORT_STATUS = 12;
+    protected static final int OFPT_PACKET_OUT = 13;
+    protected static final int OFPT_FLOW_MOD = 14;
+
+    protected static final int OFPET_BAD_REQUEST = 1;
+    protected static final int OFPBRC_EPERM = 5;
+    protected static final int OFPPR_MODIFY = 2;
+    protected static final int OFPPS_LINK_DOWN = 1;
+    protected static final int OFPMPF_REPLY_MORE = 1;
+    protected static final int NO_BUFFER = 0xffffffff;
+
+    /** multipart replies are split so that each message stays within this length */
+    protected static final int MAX_MULTIPART_LENGTH = 0xff00;
+    /** amount of offending request bytes echoed in error message */
+    private static final int ERROR_DATA_LENGTH = 64;
+    private static final int DESC_STR_LEN = 256;
+    private static final int SERIAL_NUM_LEN = 32;
+
+    private final short version;
+
+    /**
+     * @param version wire version
+     * @return protocol for given version
+     */
+    static WireProtocol forVersion(final short version) {
+        switch (version) {
+        case SimulatorConfig.OFP_VERSION_1_0:
+            return new WireProtocol10();
+        case SimulatorConfig.OFP_VERSION_1_3:
+            return new WireProtocol13();
+        default:
+            throw new IllegalArgumentException("unsupported version: " + version);
+        }
+    }
+
+    protected WireProtocol(final short version) {
+        this.version = version;
+    }
+
+    /**
+     * @return wire version
+     */
+    short getVersion() {
+        return version;
+    }
+
+    /**
+     * @param type message type from header
+     * @return classification of message
+     */
+    abstract InboundType classify(int type);
+
+    /**
+     * @param out target
+     * @param xid transaction id of request
+     * @param sw switch being described
+     */
+    abstract void writeFeaturesReply(ByteBuf out, int xid, SimulatedSwitch sw);
+
+    /**
+     * @param out target
+     * @param xid transaction id of request
+     */
+    abstract void writeBarrierReply(ByteBuf out, int xid);
+
+    /**
+     * @param out target
+     * @param request role request
+     */
+    abstract void writeRoleReply(ByteBuf out, ByteBuf request);
+
+    /**
+     * write one or more (reply-more flagged) multipart replies
+     *
+     * @param out target
+     * @param request multipart (statistics) request
+     * @param sw switch providing data
+     */
+    abstract void writeMultipartReply(ByteBuf out, ByteBuf request, SimulatedSwitch sw);
+
+    /**
+     * apply flow-mod to flow table of switch
+     *
+     * @param flowMod flow-mod message
+     * @param flowTable target
+     */
+    abstract void applyFlowMod(ByteBuf flowMod, FlowTable flowTable);
+
+    /**
+     * @param index sequence number of flow
+     * @return match in wire form unique for given index
+     */
+    abstract byte[] createSyntheticMatch(int index);
+
+    /**
+     * @param out target
+     * @param xid transaction id
+     * @param port ingress port
+     * @param frame ethernet frame
+     */
+    abstract void writePacketIn(ByteBuf out, int xid, SimulatedPort port, byte[] frame);
+
+    /**
+     * @param out target
+     * @param xid transaction id
+     * @param port modified port
+     */
+    abstract void writePortStatus(ByteBuf out, int xid, SimulatedPort port);
+
+    /**
+     * @param out target
+     * @param xid transaction id
+     */
+    void writeHello(final ByteBuf out, final int xid) {
+        final int start = writeHeader(out, OFPT_HELLO, xid);
+        finish(out, start);
+    }
+
+    /**
+     * @param out target
+     * @param request echo request
+     */
+    void writeEchoReply(final ByteBuf out, final ByteBuf request) {
+        final int start = writeHeader(out, OFPT_ECHO_REPLY, request.getInt(4));
+        out.writeBytes(request, HEADER_LENGTH, request.readableBytes() - HEADER_LENGTH);
+        finish(out, start);
+    }
+
+    /**
+     * @param out target
+     * @param xid transaction id of request
+     */
+    void writeGetConfigReply(final ByteBuf out, final int xid) {
+        final int start = writeHeader(out, OFPT_GET_CONFIG_REPLY, xid);
+        out.writeShort(0);
+        out.writeShort(0xffff);
+        finish(out, start);
+    }
+
+    /**
+     * @param out target
+     * @param request rejected request
+     */
+    void writeError(final ByteBuf out, final ByteBuf request) {
+        final int start = writeHeader(out, OFPT_ERROR, request.getInt(4));
+        out.writeShort(OFPET_BAD_REQUEST);
+        out.writeShort(OFPBRC_EPERM);
+        out.writeBytes(request, 0, Math.min(ERROR_DATA_LENGTH, request.readableBytes()));
+        finish(out, start);
+    }
+
+    /**
+     * @param out target
+     * @param type message type
+     * @param xid transaction id
+     * @return start of message (to be passed to {@link #finish(ByteBuf, int)})
+     */
+    protected int writeHeader(final ByteBuf out, final int type, final int xid) {
+        final int start = out.writerIndex();
+        out.writeByte(version);
+        out.writeByte(type);
+        out.writeShort(0);
+        out.writeInt(xid);
+        return start;
+    }
+
+    /**
+     * fill length of message
+     *
+     * @param out target
+     * @param start start of message
+     */
+    protected static void finish(final ByteBuf out, final int start) {
+        out.setShort(start + 2, out.writerIndex() - start);
+    }
+
+    /**
+     * @param out target
+     * @param xid transaction id
+     * @param multipartType multipart type
+     * @return start of message
+     */
+    protected abstract int writeMultipartHeader(ByteBuf out, int xid, int multipartType);
+
+    /**
+     * @param out target
+     * @param xid transaction id
+     * @param multipartType multipart type
+     * @param items items to be written into reply body
+     * @param itemWriter writer of single item
+     */
+    protected <T> void writeMultipartItems(final ByteBuf out, final int xid, final int multipartType,
+            final Iterable<T> items, final ItemWriter<T> itemWriter) {
+        int start = writeMultipartHeader(out, xid, multipartType);
+        for (T item : items) {
+            final int itemStart = out.writerIndex();
+            itemWriter.write(out, item);
+            if (out.writerIndex() - start > MAX_MULTIPART_LENGTH) {
+                // item does not fit - move it into next message
+                final byte[] itemBytes = new byte[out.writerIndex() - itemStart];
+                out.getBytes(itemStart, itemBytes);
+                out.writerIndex(itemStart);
+                // flags are at the same position in OF-1.0 stats and OF-1.3 multipart
+                out.setShort(start + HEADER_LENGTH + 2, OFPMPF_REPLY_MORE);
+                finish(out, start);
+                start = writeMultipartHeader(out, xid, multipartType);
+                out.writeBytes(itemBytes);
+            }
+        }
+        finish(out, start);
+    }
+
+    /**
+     * @param out target
+     * @param sw described switch
+     */
+    protected static void writeDescBody(final ByteBuf out, final SimulatedSwitch sw) {
+        writeFixedString(out, "OpenDaylight", DESC_STR_LEN);
+        writeFixedString(out, "openflowplugin switch simulator", DESC_STR_LEN);
+        writeFixedString(out, "0.2.0", DESC_STR_LEN);
+        writeFixedString(out, Long.toHexString(sw.getDatapathId()), SERIAL_NUM_LEN);
+        writeFixedString(out, "simulated switch " + sw.getDatapathId(), DESC_STR_LEN);
+    }
+
+    /**
+     * @param out target
+     * @param value string (truncated if too long)
+     * @param length field length, zero padded
+     */
+    protected static void writeFixedString(final ByteBuf out, final String value, final int length) {
+        final byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+        final int written = Math.min(bytes.length, length - 1);
+        out.writeBytes(bytes, 0, written);
+        out.writeZero(length - written);
+    }
+
+    /**
+     * @param out target
+     * @param flows flows whose counters are summed up
+     */
+    protected static void writeAggregateBody(final ByteBuf out, final List<FlowEntry> flows) {
+        // simulated flows never match traffic
+        out.writeLong(0);
+        out.writeLong(0);
+        out.writeInt(flows.size());
+        out.writeZero(4);
+    }
+
+    /**
+     * @param sw switch
+     * @param allPorts port number addressing all ports
+     * @param portNumber requested port number
+     * @return ports selected by request
+     */
+    protected static List<SimulatedPort> selectPorts(final SimulatedSwitch sw, final int allPorts,
+            final int portNumber) {
+        if (portNumber == allPorts) {
+            return sw.getPorts();
+        }
+        final List<SimulatedPort> selected = new ArrayList<>(1);
+        for (SimulatedPort port : sw.getPorts()) {
+            if (port.getNumber() == portNumber) {
+                selected.add(port);
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * @param out target
+     * @param flow flow
+     */
+    protected static void writeDuration(final ByteBuf out, final FlowEntry flow) {
+        final long duration = System.nanoTime() - flow.getInstalledNanos();
+        out.writeInt((int) (duration / 1000000000L));
+        out.writeInt((int) (duration % 1000000000L));
+    }
+
+    /**
+     * @param flowMod flow-mod message
+     * @param from start of field
+     * @param to end of field (exclusive)
+     * @return copy of field
+     */
+    protected static byte[] copyBytes(final ByteBuf flowMod, final int from, final int to) {
+        final byte[] bytes = new byte[Math.max(0, to - from)];
+        flowMod.getBytes(from, bytes);
+        return bytes;
+    }
+
+    /**
+     * @param target array
+     * @param offset position
+     * @param value unsigned short value
+     */
+    protected static void writeShort(final byte[] target, final int offset, final int value) {
+        target[offset] = (byte) (value >>> 8);
+        target[offset + 1] = (byte) value;
+    }
+
+    /**
+     * @param target array
+     * @param offset position
+     * @param value int value
+     */
+    protected static void writeInt(final byte[] target, final int offset, final int value) {
+        writeShort(target, offset, value >>> 16);
+        writeShort(target, offset + 2, value);
+    }
+
+    /**
+     * writer of single item of multipart reply body
+     *
+     * @param <T> item type
+     */
+    protected interface ItemWriter<T> {
+        /**
+         * @param out target
+         * @param item item
+         */
+        void write(ByteBuf out, T item);
+    }
+}
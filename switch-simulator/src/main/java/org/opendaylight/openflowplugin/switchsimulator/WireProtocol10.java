@@ -0,0 +1,250 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.switchsimulator;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * OF-1.0 wire encoding
+ */
+class WireProtocol10 extends WireProtocol {
+
+    private static final int OFPT_STATS_REQUEST = 16;
+    private static final int OFPT_STATS_REPLY = 17;
+    private static final int OFPT_BARRIER_REQUEST = 18;
+    private static final int OFPT_BARRIER_REPLY = 19;
+
+    private static final int OFPST_DESC = 0;
+    private static final int OFPST_FLOW = 1;
+    private static final int OFPST_AGGREGATE = 2;
+    private static final int OFPST_TABLE = 3;
+    private static final int OFPST_PORT = 4;
+
+    private static final int STATS_HEADER_LENGTH = 12;
+    private static final int MATCH_LENGTH = 40;
+    /** table id inside flow / aggregate stats request (after match) */
+    private static final int STATS_TABLE_ID_OFFSET = STATS_HEADER_LENGTH + MATCH_LENGTH;
+    private static final int FLOW_MOD_ACTIONS_OFFSET = 72;
+    private static final int OFPP_NONE = 0xffff;
+    private static final int OFPFW_ALL = (1 << 22) - 1;
+    private static final int OFPFW_DL_TYPE = 1 << 4;
+    private static final int OFPFW_NW_DST_MASK = 0x3f << 14;
+    private static final int ETH_TYPE_IPV4 = 0x0800;
+    private static final int TABLE_NAME_LENGTH = 32;
+    private static final int TABLE_MAX_ENTRIES = 1000000;
+    /** FLOW_STATS | TABLE_STATS | PORT_STATS */
+    private static final int CAPABILITIES = 0x07;
+    /** all actions up to ENQUEUE */
+    private static final int ACTIONS = 0xfff;
+    /** OFPPF_1GB_FD | OFPPF_COPPER */
+    private static final int PORT_FEATURES = 0x20 | 0x80;
+
+    private final ItemWriter<FlowEntry> flowStatsWriter = new ItemWriter<FlowEntry>() {
+        @Override
+        public void write(final ByteBuf out, final FlowEntry flow) {
+            final int start = out.writerIndex();
+            out.writeShort(0);
+            out.writeByte(flow.getTableId());
+            out.writeZero(1);
+            out.writeBytes(flow.getMatch());
+            writeDuration(out, flow);
+            out.writeShort(flow.getPriority());
+            out.writeShort(flow.getIdleTimeout());
+            out.writeShort(flow.getHardTimeout());
+            out.writeZero(6);
+            out.writeLong(flow.getCookie());
+            out.writeLong(0);
+            out.writeLong(0);
+            out.writeBytes(flow.getInstructions());
+            out.setShort(start, out.writerIndex() - start);
+        }
+    };
+
+    private final ItemWriter<SimulatedPort> portStatsWriter = new ItemWriter<SimulatedPort>() {
+        @Override
+        public void write(final ByteBuf out, final SimulatedPort port) {
+            out.writeShort(port.getNumber());
+            out.writeZero(6);
+            out.writeLong(port.getRxPackets());
+            out.writeLong(0);
+            out.writeLong(port.getRxBytes());
+            out.writeLong(0);
+            // dropped, errors, frame/over/crc errors, collisions
+            out.writeZero(8 * 8);
+        }
+    };
+
+    WireProtocol10() {
+        super(SimulatorConfig.OFP_VERSION_1_0);
+    }
+
+    @Override
+    InboundType classify(final int type) {
+        switch (type) {
+        case OFPT_HELLO:
+            return InboundType.HELLO;
+        case OFPT_ERROR:
+            return InboundType.ERROR;
+        case OFPT_ECHO_REQUEST:
+            return InboundType.ECHO_REQUEST;
+        case OFPT_FEATURES_REQUEST:
+            return InboundType.FEATURES_REQUEST;
+        case OFPT_GET_CONFIG_REQUEST:
+            return InboundType.GET_CONFIG_REQUEST;
+        case OFPT_SET_CONFIG:
+            return InboundType.SET_CONFIG;
+        case OFPT_PACKET_OUT:
+            return InboundType.PACKET_OUT;
+        case OFPT_FLOW_MOD:
+            return InboundType.FLOW_MOD;
+        case OFPT_STATS_REQUEST:
+            return InboundType.MULTIPART_REQUEST;
+        case OFPT_BARRIER_REQUEST:
+            return InboundType.BARRIER_REQUEST;
+        default:
+            return InboundType.OTHER;
+        }
+    }
+
+    @Override
+    void writeFeaturesReply(final ByteBuf out, final int xid, final SimulatedSwitch sw) {
+        final int start = writeHeader(out, OFPT_FEATURES_REPLY, xid);
+        out.writeLong(sw.getDatapathId());
+        out.writeInt(0);
+        out.writeByte(sw.getFlowTable().getTableCount());
+        out.writeZero(3);
+        out.writeInt(CAPABILITIES);
+        out.writeInt(ACTIONS);
+        for (SimulatedPort port : sw.getPorts()) {
+            writePhyPort(out, port);
+        }
+        finish(out, start);
+    }
+
+    @Override
+    void writeBarrierReply(final ByteBuf out, final int xid) {
+        finish(out, writeHeader(out, OFPT_BARRIER_REPLY, xid));
+    }
+
+    @Override
+    void writeRoleReply(final ByteBuf out, final ByteBuf request) {
+        throw new UnsupportedOperationException("role request is not part of OF-1.0");
+    }
+
+    @Override
+    void writeMultipartReply(final ByteBuf out, final ByteBuf request, final SimulatedSwitch sw) {
+        final int xid = request.getInt(4);
+        final int statsType = request.getUnsignedShort(HEADER_LENGTH);
+        int start;
+        switch (statsType) {
+        case OFPST_DESC:
+            start = writeMultipartHeader(out, xid, statsType);
+            writeDescBody(out, sw);
+            finish(out, start);
+            break;
+        case OFPST_FLOW:
+            writeMultipartItems(out, xid, statsType,
+                    sw.getFlowTable().getFlows(request.getUnsignedByte(STATS_TABLE_ID_OFFSET)), flowStatsWriter);
+            break;
+        case OFPST_AGGREGATE:
+            start = writeMultipartHeader(out, xid, statsType);
+            writeAggregateBody(out, sw.getFlowTable().getFlows(request.getUnsignedByte(STATS_TABLE_ID_OFFSET)));
+            finish(out, start);
+            break;
+        case OFPST_TABLE:
+            start = writeMultipartHeader(out, xid, statsType);
+            for (short tableId = 0; tableId < sw.getFlowTable().getTableCount(); tableId++) {
+                out.writeByte(tableId);
+                out.writeZero(3);
+                writeFixedString(out, "table" + tableId, TABLE_NAME_LENGTH);
+                out.writeInt(OFPFW_ALL);
+                out.writeInt(TABLE_MAX_ENTRIES);
+                out.writeInt(sw.getFlowTable().getActiveCount(tableId));
+                out.writeLong(0);
+                out.writeLong(0);
+            }
+            finish(out, start);
+            break;
+        case OFPST_PORT:
+            writeMultipartItems(out, xid, statsType,
+                    selectPorts(sw, OFPP_NONE, request.getUnsignedShort(STATS_HEADER_LENGTH)), portStatsWriter);
+            break;
+        default:
+            // queues, vendor - simulated switch has none
+            finish(out, writeMultipartHeader(out, xid, statsType));
+            break;
+        }
+    }
+
+    @Override
+    protected int writeMultipartHeader(final ByteBuf out, final int xid, final int multipartType) {
+        final int start = writeHeader(out, OFPT_STATS_REPLY, xid);
+        out.writeShort(multipartType);
+        out.writeShort(0);
+        return start;
+    }
+
+    @Override
+    void applyFlowMod(final ByteBuf flowMod, final FlowTable flowTable) {
+        final FlowEntry flow = new FlowEntry(
+                (short) 0,
+                flowMod.getUnsignedShort(62),
+                flowMod.getLong(48),
+                flowMod.getUnsignedShort(58),
+                flowMod.getUnsignedShort(60),
+                flowMod.getUnsignedShort(70),
+                copyBytes(flowMod, HEADER_LENGTH, HEADER_LENGTH + MATCH_LENGTH),
+                copyBytes(flowMod, FLOW_MOD_ACTIONS_OFFSET, flowMod.readableBytes()));
+        final boolean matchAll = (flowMod.getInt(HEADER_LENGTH) & OFPFW_ALL) == OFPFW_ALL;
+        flowTable.apply(flowMod.getUnsignedShort(56), flow, matchAll);
+    }
+
+    @Override
+    byte[] createSyntheticMatch(final int index) {
+        // dl_type=0x0800, nw_dst=10.x.y.z
+        final byte[] match = new byte[MATCH_LENGTH];
+        writeInt(match, 0, OFPFW_ALL & ~OFPFW_DL_TYPE & ~OFPFW_NW_DST_MASK);
+        writeShort(match, 22, ETH_TYPE_IPV4);
+        writeInt(match, 32, 0x0a000000 | (index & 0xffffff));
+        return match;
+    }
+
+    @Override
+    void writePacketIn(final ByteBuf out, final int xid, final SimulatedPort port, final byte[] frame) {
+        final int start = writeHeader(out, OFPT_PACKET_IN, xid);
+        out.writeInt(NO_BUFFER);
+        out.writeShort(frame.length);
+        out.writeShort(port.getNumber());
+        // reason: no match
+        out.writeByte(0);
+        out.writeZero(1);
+        out.writeBytes(frame);
+        finish(out, start);
+    }
+
+    @Override
+    void writePortStatus(final ByteBuf out, final int xid, final SimulatedPort port) {
+        final int start = writeHeader(out, OFPT_PORT_STATUS, xid);
+        out.writeByte(OFPPR_MODIFY);
+        out.writeZero(7);
+        writePhyPort(out, port);
+        finish(out, start);
+    }
+
+    private static void writePhyPort(final ByteBuf out, final SimulatedPort port) {
+        out.writeShort(port.getNumber());
+        out.writeBytes(port.getHwAddress());
+        writeFixedString(out, port.getName(), 16);
+        out.writeInt(0);
+        out.writeInt(port.isLinkDown() ? OFPPS_LINK_DOWN : 0);
+        out.writeInt(PORT_FEATURES);
+        out.writeInt(PORT_FEATURES);
+        out.writeInt(PORT_FEATURES);
+        out.writeInt(0);
+    }
+}
@@ -0,0 +1,294 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.switchsimulator;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * OF-1.3 wire encoding
+ */
+class WireProtocol13 extends WireProtocol {
+
+    private static final int OFPT_MULTIPART_REQUEST = 18;
+    private static final int OFPT_MULTIPART_REPLY = 19;
+    private static final int OFPT_BARRIER_REQUEST = 20;
+    private static final int OFPT_BARRIER_REPLY = 21;
+    private static final int OFPT_ROLE_REQUEST = 24;
+    private static final int OFPT_ROLE_REPLY = 25;
+
+    private static final int OFPMP_DESC = 0;
+    private static final int OFPMP_FLOW = 1;
+    private static final int OFPMP_AGGREGATE = 2;
+    private static final int OFPMP_TABLE = 3;
+    private static final int OFPMP_PORT_STATS = 4;
+    private static final int OFPMP_GROUP_FEATURES = 8;
+    private static final int OFPMP_METER_FEATURES = 11;
+    private static final int OFPMP_PORT_DESC = 13;
+
+    private static final int MULTIPART_HEADER_LENGTH = 16;
+    private static final int FLOW_MOD_MATCH_OFFSET = 48;
+    private static final int GROUP_FEATURES_LENGTH = 40;
+    private static final int METER_FEATURES_LENGTH = 16;
+    private static final int OFPP_ANY = 0xffffffff;
+    private static final int OFPMT_OXM = 1;
+    private static final int OXM_OF_IN_PORT = 0x80000004;
+    private static final int OXM_OF_ETH_TYPE = 0x80000a02;
+    private static final int OXM_OF_IPV4_DST = 0x80001804;
+    private static final int ETH_TYPE_IPV4 = 0x0800;
+    /** FLOW_STATS | TABLE_STATS | PORT_STATS | GROUP_STATS */
+    private static final int CAPABILITIES = 0x0f;
+    /** OFPPF_1GB_FD | OFPPF_COPPER */
+    private static final int PORT_FEATURES = 0x20 | 0x800;
+    private static final int OFPPS_LIVE = 4;
+    private static final int PORT_SPEED_KBPS = 1000000;
+
+    private final ItemWriter<FlowEntry> flowStatsWriter = new ItemWriter<FlowEntry>() {
+        @Override
+        public void write(final ByteBuf out, final FlowEntry flow) {
+            final int start = out.writerIndex();
+            out.writeShort(0);
+            out.writeByte(flow.getTableId());
+            out.writeZero(1);
+            writeDuration(out, flow);
+            out.writeShort(flow.getPriority());
+            out.writeShort(flow.getIdleTimeout());
+            out.writeShort(flow.getHardTimeout());
+            out.writeShort(flow.getFlags());
+            out.writeZero(4);
+            out.writeLong(flow.getCookie());
+            out.writeLong(0);
+            out.writeLong(0);
+            out.writeBytes(flow.getMatch());
+            out.writeBytes(flow.getInstructions());
+            out.setShort(start, out.writerIndex() - start);
+        }
+    };
+
+    private final ItemWriter<SimulatedPort> portStatsWriter = new ItemWriter<SimulatedPort>() {
+        @Override
+        public void write(final ByteBuf out, final SimulatedPort port) {
+            out.writeInt(port.getNumber());
+            out.writeZero(4);
+            out.writeLong(port.getRxPackets());
+            out.writeLong(0);
+            out.writeLong(port.getRxBytes());
+            out.writeLong(0);
+            // dropped, errors, frame/over/crc errors, collisions
+            out.writeZero(8 * 8);
+            out.writeInt(0);
+            out.writeInt(0);
+        }
+    };
+
+    private final ItemWriter<SimulatedPort> portDescWriter = new ItemWriter<SimulatedPort>() {
+        @Override
+        public void write(final ByteBuf out, final SimulatedPort port) {
+            writePort(out, port);
+        }
+    };
+
+    WireProtocol13() {
+        super(SimulatorConfig.OFP_VERSION_1_3);
+    }
+
+    @Override
+    InboundType classify(final int type) {
+        switch (type) {
+        case OFPT_HELLO:
+            return InboundType.HELLO;
+        case OFPT_ERROR:
+            return InboundType.ERROR;
+        case OFPT_ECHO_REQUEST:
+            return InboundType.ECHO_REQUEST;
+        case OFPT_FEATURES_REQUEST:
+            return InboundType.FEATURES_REQUEST;
+        case OFPT_GET_CONFIG_REQUEST:
+            return InboundType.GET_CONFIG_REQUEST;
+        case OFPT_SET_CONFIG:
+            return InboundType.SET_CONFIG;
+        case OFPT_PACKET_OUT:
+            return InboundType.PACKET_OUT;
+        case OFPT_FLOW_MOD:
+            return InboundType.FLOW_MOD;
+        case OFPT_MULTIPART_REQUEST:
+            return InboundType.MULTIPART_REQUEST;
+        case OFPT_BARRIER_REQUEST:
+            return InboundType.BARRIER_REQUEST;
+        case OFPT_ROLE_REQUEST:
+            return InboundType.ROLE_REQUEST;
+        default:
+            return InboundType.OTHER;
+        }
+    }
+
+    @Override
+    void writeFeaturesReply(final ByteBuf out, final int xid, final SimulatedSwitch sw) {
+        final int start = writeHeader(out, OFPT_FEATURES_REPLY, xid);
+        out.writeLong(sw.getDatapathId());
+        out.writeInt(0);
+        out.writeByte(sw.getFlowTable().getTableCount());
+        // auxiliary id
+        out.writeByte(0);
+        out.writeZero(2);
+        out.writeInt(CAPABILITIES);
+        out.writeInt(0);
+        finish(out, start);
+    }
+
+    @Override
+    void writeBarrierReply(final ByteBuf out, final int xid) {
+        finish(out, writeHeader(out, OFPT_BARRIER_REPLY, xid));
+    }
+
+    @Override
+    void writeRoleReply(final ByteBuf out, final ByteBuf request) {
+        final int start = writeHeader(out, OFPT_ROLE_REPLY, request.getInt(4));
+        // role, pad, generation id - as requested
+        out.writeBytes(request, HEADER_LENGTH, 16);
+        finish(out, start);
+    }
+
+    @Override
+    void writeMultipartReply(final ByteBuf out, final ByteBuf request, final SimulatedSwitch sw) {
+        final int xid = request.getInt(4);
+        final int multipartType = request.getUnsignedShort(HEADER_LENGTH);
+        int start;
+        switch (multipartType) {
+        case OFPMP_DESC:
+            start = writeMultipartHeader(out, xid, multipartType);
+            writeDescBody(out, sw);
+            finish(out, start);
+            break;
+        case OFPMP_FLOW:
+            writeMultipartItems(out, xid, multipartType,
+                    sw.getFlowTable().getFlows(request.getUnsignedByte(MULTIPART_HEADER_LENGTH)), flowStatsWriter);
+            break;
+        case OFPMP_AGGREGATE:
+            start = writeMultipartHeader(out, xid, multipartType);
+            writeAggregateBody(out, sw.getFlowTable().getFlows(request.getUnsignedByte(MULTIPART_HEADER_LENGTH)));
+            finish(out, start);
+            break;
+        case OFPMP_TABLE:
+            start = writeMultipartHeader(out, xid, multipartType);
+            for (short tableId = 0; tableId < sw.getFlowTable().getTableCount(); tableId++) {
+                out.writeByte(tableId);
+                out.writeZero(3);
+                out.writeInt(sw.getFlowTable().getActiveCount(tableId));
+                out.writeLong(0);
+                out.writeLong(0);
+            }
+            finish(out, start);
+            break;
+        case OFPMP_PORT_STATS:
+            writeMultipartItems(out, xid, multipartType,
+                    selectPorts(sw, OFPP_ANY, request.getInt(MULTIPART_HEADER_LENGTH)), portStatsWriter);
+            break;
+        case OFPMP_PORT_DESC:
+            writeMultipartItems(out, xid, multipartType, sw.getPorts(), portDescWriter);
+            break;
+        case OFPMP_GROUP_FEATURES:
+            start = writeMultipartHeader(out, xid, multipartType);
+            out.writeZero(GROUP_FEATURES_LENGTH);
+            finish(out, start);
+            break;
+        case OFPMP_METER_FEATURES:
+            start = writeMultipartHeader(out, xid, multipartType);
+            out.writeZero(METER_FEATURES_LENGTH);
+            finish(out, start);
+            break;
+        default:
+            // queues, groups, meters, table features, experimenter - simulated switch has none
+            finish(out, writeMultipartHeader(out, xid, multipartType));
+            break;
+        }
+    }
+
+    @Override
+    protected int writeMultipartHeader(final ByteBuf out, final int xid, final int multipartType) {
+        final int start = writeHeader(out, OFPT_MULTIPART_REPLY, xid);
+        out.writeShort(multipartType);
+        out.writeShort(0);
+        out.writeZero(4);
+        return start;
+    }
+
+    @Override
+    void applyFlowMod(final ByteBuf flowMod, final FlowTable flowTable) {
+        final int matchLength = flowMod.getUnsignedShort(FLOW_MOD_MATCH_OFFSET + 2);
+        final int matchEnd = FLOW_MOD_MATCH_OFFSET + (matchLength + 7) / 8 * 8;
+        final FlowEntry flow = new FlowEntry(
+                flowMod.getUnsignedByte(24),
+                flowMod.getUnsignedShort(30),
+                flowMod.getLong(8),
+                flowMod.getUnsignedShort(26),
+                flowMod.getUnsignedShort(28),
+                flowMod.getUnsignedShort(44),
+                copyBytes(flowMod, FLOW_MOD_MATCH_OFFSET, matchEnd),
+                copyBytes(flowMod, matchEnd, flowMod.readableBytes()));
+        // empty match consists of type and length only
+        flowTable.apply(flowMod.getUnsignedByte(25), flow, matchLength <= 4);
+    }
+
+    @Override
+    byte[] createSyntheticMatch(final int index) {
+        // eth_type=0x0800, ipv4_dst=10.x.y.z
+        final byte[] match = new byte[24];
+        final int length = 4 + 6 + 8;
+        writeShort(match, 0, OFPMT_OXM);
+        writeShort(match, 2, length);
+        writeInt(match, 4, OXM_OF_ETH_TYPE);
+        writeShort(match, 8, ETH_TYPE_IPV4);
+        writeInt(match, 10, OXM_OF_IPV4_DST);
+        writeInt(match, 14, 0x0a000000 | (index & 0xffffff));
+        return match;
+    }
+
+    @Override
+    void writePacketIn(final ByteBuf out, final int xid, final SimulatedPort port, final byte[] frame) {
+        final int start = writeHeader(out, OFPT_PACKET_IN, xid);
+        out.writeInt(NO_BUFFER);
+        out.writeShort(frame.length);
+        // reason: no match
+        out.writeByte(0);
+        out.writeByte(0);
+        out.writeLong(-1L);
+        out.writeShort(OFPMT_OXM);
+        out.writeShort(4 + 8);
+        out.writeInt(OXM_OF_IN_PORT);
+        out.writeInt(port.getNumber());
+        // match padding + packet-in padding
+        out.writeZero(4 + 2);
+        out.writeBytes(frame);
+        finish(out, start);
+    }
+
+    @Override
+    void writePortStatus(final ByteBuf out, final int xid, final SimulatedPort port) {
+        final int start = writeHeader(out, OFPT_PORT_STATUS, xid);
+        out.writeByte(OFPPR_MODIFY);
+        out.writeZero(7);
+        writePort(out, port);
+        finish(out, start);
+    }
+
+    private static void writePort(final ByteBuf out, final SimulatedPort port) {
+        out.writeInt(port.getNumber());
+        out.writeZero(4);
+        out.writeBytes(port.getHwAddress());
+        out.writeZero(2);
+        writeFixedString(out, port.getName(), 16);
+        out.writeInt(0);
+        out.writeInt(port.isLinkDown() ? OFPPS_LINK_DOWN : OFPPS_LIVE);
+        out.writeInt(PORT_FEATURES);
+        out.writeInt(PORT_FEATURES);
+        out.writeInt(PORT_FEATURES);
+        out.writeInt(0);
+        out.writeInt(PORT_SPEED_KBPS);
+        out.writeInt(PORT_SPEED_KBPS);
+    }
+}
@@ -0,0 +1,208 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.switchsimulator;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * test of {@link SwitchSimulator} against minimal controller speaking raw wire protocol
+ */
+public class SwitchSimulatorTest {
+
+    private static final int OFPT_HELLO = 0;
+    private static final int OFPT_ERROR = 1;
+    private static final int OFPT_FEATURES_REQUEST = 5;
+    private static final int OFPT_FEATURES_REPLY = 6;
+    private static final int OFPT_PACKET_IN = 10;
+    private static final int OFPT_PORT_STATUS = 12;
+    private static final int OFPT_FLOW_MOD = 14;
+
+    private ServerSocket controller;
+    private Socket connection;
+    private SwitchSimulator simulator;
+
+    @Before
+    public void setUp() throws IOException {
+        controller = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        controller.setSoTimeout(5000);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        if (simulator != null) {
+            simulator.close();
+        }
+        if (connection != null) {
+            connection.close();
+        }
+        controller.close();
+    }
+
+    /**
+     * OF-1.3: handshake, flow-mod, flow statistics, packet-in and port-status load
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testOF13() throws Exception {
+        final SimulatedSwitch sw = startSimulator(new SimulatorConfig()
+                .setVersion(SimulatorConfig.OFP_VERSION_1_3).setTableCount(2).setFlowsPerTable(3));
+
+        final byte[] featuresReply = handshake(SimulatorConfig.OFP_VERSION_1_3);
+        Assert.assertEquals(32, featuresReply.length);
+        Assert.assertEquals(42L, ByteBuffer.wrap(featuresReply).getLong(8));
+        Assert.assertEquals(2, featuresReply[20]);
+        Assert.assertTrue(sw.awaitHandshake(5, TimeUnit.SECONDS));
+
+        // flow-mod add: table 1, priority 10, empty match, no instructions
+        final ByteBuffer flowMod = header(SimulatorConfig.OFP_VERSION_1_3, OFPT_FLOW_MOD, 3, 56);
+        flowMod.putLong(8, 0xabcdL);
+        flowMod.put(24, (byte) 1);
+        flowMod.putShort(30, (short) 10);
+        flowMod.putShort(48, (short) 1);
+        flowMod.putShort(50, (short) 4);
+        send(flowMod);
+
+        // flow stats of all tables
+        final ByteBuffer flowStats = header(SimulatorConfig.OFP_VERSION_1_3, 18, 4, 56);
+        flowStats.putShort(8, (short) 1);
+        flowStats.put(16, (byte) 0xff);
+        flowStats.putShort(48, (short) 1);
+        flowStats.putShort(50, (short) 4);
+        send(flowStats);
+
+        final byte[] flowStatsReply = receive();
+        Assert.assertEquals(19, flowStatsReply[1]);
+        Assert.assertEquals(4, ByteBuffer.wrap(flowStatsReply).getInt(4));
+        Assert.assertEquals(7, countItems(flowStatsReply, 16));
+        Assert.assertEquals(1, sw.getFlowModsReceived());
+        Assert.assertEquals(7, sw.getFlowCount());
+
+        // port description
+        final ByteBuffer portDesc = header(SimulatorConfig.OFP_VERSION_1_3, 18, 5, 16);
+        portDesc.putShort(8, (short) 13);
+        send(portDesc);
+        Assert.assertEquals(16 + 4 * 64, receive().length);
+
+        sw.sendPacketIns(5);
+        for (int i = 0; i < 5; i++) {
+            Assert.assertEquals(OFPT_PACKET_IN, receive()[1]);
+        }
+        sw.sendPortStatus(1);
+        Assert.assertEquals(OFPT_PORT_STATUS, receive()[1]);
+    }
+
+    /**
+     * OF-1.0: ports travel in features reply, statistics use OF-1.0 layout
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testOF10() throws Exception {
+        startSimulator(new SimulatorConfig().setVersion(SimulatorConfig.OFP_VERSION_1_0).setFlowsPerTable(10));
+
+        final byte[] featuresReply = handshake(SimulatorConfig.OFP_VERSION_1_0);
+        Assert.assertEquals(32 + 4 * 48, featuresReply.length);
+
+        // aggregate stats of all tables
+        final ByteBuffer aggregate = header(SimulatorConfig.OFP_VERSION_1_0, 16, 3, 56);
+        aggregate.putShort(8, (short) 2);
+        aggregate.putInt(12, (1 << 22) - 1);
+        aggregate.put(52, (byte) 0xff);
+        aggregate.putShort(54, (short) 0xffff);
+        send(aggregate);
+
+        final ByteBuffer reply = ByteBuffer.wrap(receive());
+        Assert.assertEquals(17, reply.get(1));
+        Assert.assertEquals(10, reply.getInt(12 + 16));
+    }
+
+    /**
+     * injected errors answer requests, handshake is not affected
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testErrorInjection() throws Exception {
+        final SimulatedSwitch sw = startSimulator(new SimulatorConfig().setErrorRate(1.0));
+        handshake(SimulatorConfig.OFP_VERSION_1_3);
+
+        send(header(SimulatorConfig.OFP_VERSION_1_3, 20, 7, 8));
+        final byte[] error = receive();
+        Assert.assertEquals(OFPT_ERROR, error[1]);
+        Assert.assertEquals(7, ByteBuffer.wrap(error).getInt(4));
+        Assert.assertEquals(1, sw.getErrorsInjected());
+    }
+
+    private SimulatedSwitch startSimulator(final SimulatorConfig config) throws Exception {
+        config.setControllerHost(InetAddress.getLoopbackAddress().getHostAddress())
+                .setControllerPort(controller.getLocalPort())
+                .setDatapathIdBase(42);
+        simulator = new SwitchSimulator(config);
+        simulator.start();
+        connection = controller.accept();
+        connection.setSoTimeout(5000);
+        return simulator.getSwitches().get(0);
+    }
+
+    private byte[] handshake(final short version) throws IOException {
+        final byte[] hello = receive();
+        Assert.assertEquals(version, hello[0]);
+        Assert.assertEquals(OFPT_HELLO, hello[1]);
+        send(header(version, OFPT_HELLO, 1, 8));
+        send(header(version, OFPT_FEATURES_REQUEST, 2, 8));
+        final byte[] featuresReply = receive();
+        Assert.assertEquals(OFPT_FEATURES_REPLY, featuresReply[1]);
+        return featuresReply;
+    }
+
+    private static ByteBuffer header(final short version, final int type, final int xid, final int length) {
+        final ByteBuffer message = ByteBuffer.allocate(length);
+        message.put((byte) version);
+        message.put((byte) type);
+        message.putShort((short) length);
+        message.putInt(xid);
+        return message;
+    }
+
+    private void send(final ByteBuffer message) throws IOException {
+        final OutputStream out = connection.getOutputStream();
+        out.write(message.array());
+        out.flush();
+    }
+
+    private byte[] receive() throws IOException {
+        final DataInputStream in = new DataInputStream(connection.getInputStream());
+        final byte[] header = new byte[8];
+        in.readFully(header);
+        final byte[] message = new byte[ByteBuffer.wrap(header).getShort(2) & 0xffff];
+        System.arraycopy(header, 0, message, 0, header.length);
+        in.readFully(message, header.length, message.length - header.length);
+        return message;
+    }
+
+    private static int countItems(final byte[] multipartReply, final int bodyOffset) {
+        final ByteBuffer reply = ByteBuffer.wrap(multipartReply);
+        int count = 0;
+        for (int offset = bodyOffset; offset < multipartReply.length; offset += reply.getShort(offset) & 0xffff) {
+            count++;
+        }
+        return count;
+    }
+}
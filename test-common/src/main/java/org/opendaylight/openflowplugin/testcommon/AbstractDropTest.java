@@ -7,9 +7,7 @@
  */
 package org.opendaylight.openflowplugin.testcommon;
 
-import static org.opendaylight.openflowjava.util.ByteBufUtils.macAddressToString;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
@@ -19,6 +17,7 @@ import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import org.opendaylight.openflowplugin.common.stats.LatencyHistogram;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.yang.types.rev100924.MacAddress;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.action.DropActionCaseBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.action.drop.action._case.DropAction;
@@ -56,8 +55,19 @@ abstract class AbstractDropTest implements PacketProcessingListener, AutoCloseab
     static final int STARTUP_LOOP_MAX_RETRIES = 8;
     private static final int PROCESSING_POOL_SIZE = 10000;
 
+    private static final int MAC_SRC_OFFSET = 6;
+    private static final char[] HEX_CHARS = "0123456789ABCDEF".toCharArray();
+    private static final double[] REPORTED_PERCENTILES = new double[]{0.5, 0.9, 0.99, 0.999};
+
+    /** drop instructions are the same for every packet - build them once */
+    private static final Instructions DROP_INSTRUCTIONS = createDropInstructions();
+
     private final int POOL_THREAD_AMOUNT = 8;
     private final ExecutorService executorService;
+    private final ArrayBlockingQueue<Runnable> workQueue;
+    private final LatencyHistogram latencyHistogram = new LatencyHistogram();
+    private volatile long startNanos = System.nanoTime();
+    private volatile boolean directDispatch;
 
 
     private static final AtomicIntegerFieldUpdater<AbstractDropTest> SENT_UPDATER = AtomicIntegerFieldUpdater.newUpdater(AbstractDropTest.class, "sent");
@@ -85,8 +95,24 @@ abstract class AbstractDropTest implements PacketProcessingListener, AutoCloseab
         return new DropTestStats(this.sent, this.rcvd, this.excs, this.ftrFailed, this.ftrSuccess, this.runablesExecuted, this.runablesRejected);
     }
 
+    /**
+     * @return throughput and latency report since start or last {@link #clearStats()}
+     */
+    public final DropTestReport getReport() {
+        return new DropTestReport(System.nanoTime() - startNanos, this.rcvd, this.sent, workQueue.size(),
+                reportedPercentiles());
+    }
+
+    private long[] reportedPercentiles() {
+        final long[] percentiles = new long[REPORTED_PERCENTILES.length];
+        for (int i = 0; i < percentiles.length; i++) {
+            percentiles[i] = TimeUnit.MICROSECONDS.toNanos(latencyHistogram.getPercentileMicros(REPORTED_PERCENTILES[i]));
+        }
+        return percentiles;
+    }
+
     public AbstractDropTest() {
-        final ArrayBlockingQueue<Runnable> workQueue = new ArrayBlockingQueue<Runnable>(PROCESSING_POOL_SIZE);
+        workQueue = new ArrayBlockingQueue<Runnable>(PROCESSING_POOL_SIZE);
         ThreadPoolExecutor threadPool = new ThreadPoolExecutor(POOL_THREAD_AMOUNT, POOL_THREAD_AMOUNT, 0,
                 TimeUnit.MILLISECONDS,
                 workQueue);
@@ -105,6 +131,13 @@ abstract class AbstractDropTest implements PacketProcessingListener, AutoCloseab
         executorService = threadPool;
     }
 
+    /**
+     * restarts measurement window of {@link #getReport()}, to be called once packet-ins are subscribed
+     */
+    protected final void resetStartTime() {
+        startNanos = System.nanoTime();
+    }
+
     public final void clearStats() {
         this.sent = 0;
         this.rcvd = 0;
@@ -113,6 +146,16 @@ abstract class AbstractDropTest implements PacketProcessingListener, AutoCloseab
         this.ftrFailed = 0;
         this.runablesExecuted = 0;
         this.runablesRejected = 0;
+        latencyHistogram.reset();
+        resetStartTime();
+    }
+
+    /**
+     * @param directDispatch if true, packet-ins are processed right on the notification thread
+     * (no queue hand-off), otherwise they are dispatched to the processing pool
+     */
+    public final void setDirectDispatch(final boolean directDispatch) {
+        this.directDispatch = directDispatch;
     }
 
     private final void incrementRunableExecuted() {
@@ -128,13 +171,19 @@ abstract class AbstractDropTest implements PacketProcessingListener, AutoCloseab
         LOG.debug("onPacketReceived - Entering - {}", notification);
 
         RCVD_UPDATER.incrementAndGet(this);
+        final long receivedNanos = System.nanoTime();
+
+        if (directDispatch) {
+            processPacket(notification, receivedNanos);
+            return;
+        }
 
         try {
             executorService.submit(new Runnable() {
                 @Override
                 public void run() {
                     incrementRunableExecuted();
-                    processPacket(notification);
+                    processPacket(notification, receivedNanos);
                 }
             });
         } catch (Exception e) {
@@ -143,62 +192,77 @@ abstract class AbstractDropTest implements PacketProcessingListener, AutoCloseab
         LOG.debug("onPacketReceived - Leaving", notification);
     }
 
-    private void processPacket(final PacketReceived notification) {
+    private void processPacket(final PacketReceived notification, final long receivedNanos) {
         try {
-            // TODO Auto-generated method stub
             final byte[] rawPacket = notification.getPayload();
-            final byte[] srcMac = Arrays.copyOfRange(rawPacket, 6, 12);
 
             final MatchBuilder match = new MatchBuilder();
             final EthernetMatchBuilder ethernetMatch = new EthernetMatchBuilder();
             final EthernetSourceBuilder ethSourceBuilder = new EthernetSourceBuilder();
 
-            //TODO: use HEX, use binary form
-            //Hex.decodeHex("000000000001".toCharArray());
-
-            ethSourceBuilder.setAddress(new MacAddress(macAddressToString(srcMac)));
+            ethSourceBuilder.setAddress(new MacAddress(macAddressToString(rawPacket, MAC_SRC_OFFSET)));
             ethernetMatch.setEthernetSource(ethSourceBuilder.build());
             match.setEthernetMatch(ethernetMatch.build());
 
-            final DropActionBuilder dab = new DropActionBuilder();
-            final DropAction dropAction = dab.build();
-            final ActionBuilder ab = new ActionBuilder();
-            ab.setOrder(0);
-            ab.setAction(new DropActionCaseBuilder().setDropAction(dropAction).build());
-
-            // Add our drop action to a list
-            final List<Action> actionList = Collections.singletonList(ab.build());
-
-            // Create an Apply Action
-            final ApplyActionsBuilder aab = new ApplyActionsBuilder();
-            aab.setAction(actionList);
-
-            // Wrap our Apply Action in an Instruction
-            final InstructionBuilder ib = new InstructionBuilder();
-            ib.setInstruction(new ApplyActionsCaseBuilder().setApplyActions(aab.build()).build()).setOrder(0);
-
-            // Put our Instruction in a list of Instructions
-            final InstructionsBuilder isb = new InstructionsBuilder();
-            final List<Instruction> instructions = Collections.singletonList(ib.build());
-            isb.setInstruction(instructions);
-
             // Get the Ingress nodeConnectorRef
             final NodeConnectorRef ncr = notification.getIngress();
 
             // Get the instance identifier for the nodeConnectorRef
             final InstanceIdentifier<?> ncri = ncr.getValue();
 
-            processPacket(ncri.firstIdentifierOf(Node.class), match.build(), isb.build());
+            processPacket(ncri.firstIdentifierOf(Node.class), match.build(), DROP_INSTRUCTIONS);
 
             SENT_UPDATER.incrementAndGet(this);
+            latencyHistogram.record(System.nanoTime() - receivedNanos);
         } catch (final Exception e) {
-            // TODO Auto-generated catch block
             LOG.warn("Failed to process packet: {}", e.getMessage());
             LOG.debug("Failed to process packet.. ", e);
             EXCS_UPDATER.incrementAndGet(this);
         }
     }
 
+    /**
+     * format mac address directly out of packet payload, without copying the address bytes
+     */
+    private static String macAddressToString(final byte[] rawPacket, final int offset) {
+        final char[] chars = new char[17];
+        for (int i = 0; i < 6; i++) {
+            final int value = rawPacket[offset + i] & 0xff;
+            final int charIdx = i * 3;
+            if (i > 0) {
+                chars[charIdx - 1] = ':';
+            }
+            chars[charIdx] = HEX_CHARS[value >>> 4];
+            chars[charIdx + 1] = HEX_CHARS[value & 0x0f];
+        }
+        return new String(chars);
+    }
+
+    private static Instructions createDropInstructions() {
+        final DropActionBuilder dab = new DropActionBuilder();
+        final DropAction dropAction = dab.build();
+        final ActionBuilder ab = new ActionBuilder();
+        ab.setOrder(0);
+        ab.setAction(new DropActionCaseBuilder().setDropAction(dropAction).build());
+
+        // Add our drop action to a list
+        final List<Action> actionList = Collections.singletonList(ab.build());
+
+        // Create an Apply Action
+        final ApplyActionsBuilder aab = new ApplyActionsBuilder();
+        aab.setAction(actionList);
+
+        // Wrap our Apply Action in an Instruction
+        final InstructionBuilder ib = new InstructionBuilder();
+        ib.setInstruction(new ApplyActionsCaseBuilder().setApplyActions(aab.build()).build()).setOrder(0);
+
+        // Put our Instruction in a list of Instructions
+        final InstructionsBuilder isb = new InstructionsBuilder();
+        final List<Instruction> instructions = Collections.singletonList(ib.build());
+        isb.setInstruction(instructions);
+        return isb.build();
+    }
+
     protected abstract void processPacket(InstanceIdentifier<Node> node, Match match, Instructions instructions);
 
 
@@ -79,6 +79,7 @@ public class DropTestCommiter extends AbstractDropTest {
                     return notificationService.registerNotificationListener(DropTestCommiter.this);
                 }
             });
+            resetStartTime();
         } catch (final Exception e) {
             LOG.warn("DropTest committer notification listener registration fail!");
             LOG.debug("DropTest committer notification listener registration fail! ..", e);
@@ -30,6 +30,20 @@ public class DropTestDsProvider implements AutoCloseable {
         return commiter.getStats();
     }
 
+    /**
+     * @return throughput report
+     */
+    public DropTestReport getReport() {
+        return commiter.getReport();
+    }
+
+    /**
+     * @param directDispatch if true, packet-ins are processed on notification thread without queueing
+     */
+    public void setDirectDispatch(final boolean directDispatch) {
+        commiter.setDirectDispatch(directDispatch);
+    }
+
     /**
      * reset message counts
      */
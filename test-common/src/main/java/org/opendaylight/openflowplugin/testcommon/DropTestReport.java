@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.testcommon;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * throughput report of drop responder since start or last clear of statistics
+ */
+public class DropTestReport {
+
+    private final long elapsedNanos;
+    private final int rcvd;
+    private final int sent;
+    private final int queueDepth;
+    private final long p50Nanos;
+    private final long p90Nanos;
+    private final long p99Nanos;
+    private final long p999Nanos;
+    private final String message;
+
+    /**
+     * @param elapsedNanos duration of measurement
+     * @param rcvd packet-ins received
+     * @param sent flow-mods handed over to plugin
+     * @param queueDepth current depth of processing queue
+     * @param latencyPercentiles packet-in to flow-mod handover latency - p50, p90, p99, p99.9 [ns]
+     */
+    public DropTestReport(final long elapsedNanos, final int rcvd, final int sent, final int queueDepth,
+            final long[] latencyPercentiles) {
+        this.elapsedNanos = elapsedNanos;
+        this.rcvd = rcvd;
+        this.sent = sent;
+        this.queueDepth = queueDepth;
+        this.p50Nanos = latencyPercentiles[0];
+        this.p90Nanos = latencyPercentiles[1];
+        this.p99Nanos = latencyPercentiles[2];
+        this.p999Nanos = latencyPercentiles[3];
+        this.message = null;
+    }
+
+    /**
+     * @param message reason why no measurement is available
+     */
+    public DropTestReport(final String message) {
+        this.elapsedNanos = 0;
+        this.rcvd = -1;
+        this.sent = -1;
+        this.queueDepth = -1;
+        this.p50Nanos = -1;
+        this.p90Nanos = -1;
+        this.p99Nanos = -1;
+        this.p999Nanos = -1;
+        this.message = message;
+    }
+
+    /**
+     * @return reason why no measurement is available, null for regular report
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * @return packet-ins per second
+     */
+    public double getPacketInRate() {
+        return rate(rcvd);
+    }
+
+    /**
+     * @return flow-mods per second
+     */
+    public double getFlowModRate() {
+        return rate(sent);
+    }
+
+    /**
+     * @return current depth of processing queue
+     */
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    /**
+     * @return median latency [ns]
+     */
+    public long getP50Nanos() {
+        return p50Nanos;
+    }
+
+    /**
+     * @return 90th percentile of latency [ns]
+     */
+    public long getP90Nanos() {
+        return p90Nanos;
+    }
+
+    /**
+     * @return 99th percentile of latency [ns]
+     */
+    public long getP99Nanos() {
+        return p99Nanos;
+    }
+
+    /**
+     * @return 99.9th percentile of latency [ns]
+     */
+    public long getP999Nanos() {
+        return p999Nanos;
+    }
+
+    private double rate(final int count) {
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+        return count * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        if (message != null) {
+            return message;
+        }
+        StringBuilder result = new StringBuilder();
+        result.append("\n Elapsed [ms]: ");
+        result.append(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        result.append("\n packet-in/s: ");
+        result.append(String.format("%.1f", getPacketInRate()));
+        result.append("\n flow-mod/s: ");
+        result.append(String.format("%.1f", getFlowModRate()));
+        result.append("\n queue depth: ");
+        result.append(queueDepth);
+        result.append("\n latency p50/p90/p99/p99.9 [us]: ");
+        result.append(TimeUnit.NANOSECONDS.toMicros(p50Nanos)).append('/');
+        result.append(TimeUnit.NANOSECONDS.toMicros(p90Nanos)).append('/');
+        result.append(TimeUnit.NANOSECONDS.toMicros(p99Nanos)).append('/');
+        result.append(TimeUnit.NANOSECONDS.toMicros(p999Nanos));
+        return result.toString();
+    }
+}
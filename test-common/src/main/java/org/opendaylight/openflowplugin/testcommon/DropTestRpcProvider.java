@@ -59,6 +59,24 @@ public class DropTestRpcProvider implements AutoCloseable {
         }
     }
 
+    /**
+     * @return throughput report
+     */
+    public DropTestReport getReport() {
+        if (this.commiter != null) {
+            return commiter.getReport();
+        } else {
+            return new DropTestReport("Not initialized yet.");
+        }
+    }
+
+    /**
+     * @param directDispatch if true, packet-ins are processed on notification thread without queueing
+     */
+    public void setDirectDispatch(final boolean directDispatch) {
+        commiter.setDirectDispatch(directDispatch);
+    }
+
     /**
      * reset message counts
      */
@@ -84,6 +84,7 @@ public class DropTestRpcSender extends AbstractDropTest {
                     return notificationService.registerNotificationListener(DropTestRpcSender.this);
                 }
             });
+            resetStartTime();
         } catch (final Exception e) {
             LOG.warn("DropTest sender notification listener registration fail!");
             LOG.debug("DropTest sender notification listener registration fail! ..", e);
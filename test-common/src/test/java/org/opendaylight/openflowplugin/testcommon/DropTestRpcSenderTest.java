@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2015 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.openflowplugin.testcommon;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.util.concurrent.Futures;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.service.rev130819.AddFlowInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.service.rev130819.AddFlowOutput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.service.rev130819.SalFlowService;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeConnectorId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeConnectorRef;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.Nodes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.node.NodeConnector;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.node.NodeConnectorKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.NodeKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.packet.service.rev130709.PacketReceived;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.packet.service.rev130709.PacketReceivedBuilder;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.opendaylight.yangtools.yang.common.RpcResultBuilder;
+
+/**
+ * headless run of {@link DropTestRpcSender} in direct dispatch mode
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class DropTestRpcSenderTest {
+
+    private static final int PACKET_COUNT = 10000;
+
+    @Mock
+    private SalFlowService flowService;
+
+    private DropTestRpcSender sender;
+
+    @Before
+    public void setUp() {
+        when(flowService.addFlow(any(AddFlowInput.class))).thenReturn(
+                Futures.immediateFuture(RpcResultBuilder.<AddFlowOutput>success().build()));
+        sender = new DropTestRpcSender();
+        sender.setFlowService(flowService);
+        sender.setDirectDispatch(true);
+    }
+
+    @After
+    public void tearDown() {
+        sender.close();
+    }
+
+    /**
+     * every packet-in has to produce one flow-mod matching its source mac
+     */
+    @Test
+    public void testOnPacketReceived() {
+        final InstanceIdentifier<NodeConnector> ingress = InstanceIdentifier.create(Nodes.class)
+                .child(Node.class, new NodeKey(new NodeId("openflow:1")))
+                .child(NodeConnector.class, new NodeConnectorKey(new NodeConnectorId("openflow:1:1")));
+
+        for (int i = 0; i < PACKET_COUNT; i++) {
+            sender.onPacketReceived(createPacketIn(ingress, i));
+        }
+
+        final ArgumentCaptor<AddFlowInput> flowCaptor = ArgumentCaptor.forClass(AddFlowInput.class);
+        verify(flowService, times(PACKET_COUNT)).addFlow(flowCaptor.capture());
+        Assert.assertEquals("00:00:00:00:27:0F", flowCaptor.getValue().getMatch().getEthernetMatch()
+                .getEthernetSource().getAddress().getValue());
+
+        final DropTestStats stats = sender.getStats();
+        Assert.assertEquals(PACKET_COUNT, stats.getRcvd());
+        Assert.assertEquals(PACKET_COUNT, stats.getSent());
+
+        final DropTestReport report = sender.getReport();
+        Assert.assertEquals(0, report.getQueueDepth());
+        Assert.assertTrue(report.getFlowModRate() > 0);
+        Assert.assertTrue(report.getP50Nanos() <= report.getP99Nanos());
+    }
+
+    private static PacketReceived createPacketIn(final InstanceIdentifier<NodeConnector> ingress, final int srcMac) {
+        final byte[] payload = new byte[64];
+        payload[8] = (byte) (srcMac >>> 24);
+        payload[9] = (byte) (srcMac >>> 16);
+        payload[10] = (byte) (srcMac >>> 8);
+        payload[11] = (byte) srcMac;
+        return new PacketReceivedBuilder()
+                .setIngress(new NodeConnectorRef(ingress))
+                .setPayload(payload)
+                .build();
+    }
+}